@@ -0,0 +1,41 @@
+package com.banking.system.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Arranque rápido. Con el perfil arranque-rapido
+ * (spring.main.lazy-initialization=true) los beans se crean en el primer uso,
+ * salvo los que trabajan solos en segundo plano: los que tienen tareas
+ * programadas (@Scheduled) o abren hilos, puertos o cachés al iniciar
+ * (@PostConstruct). Si fueran perezosos, el despacho del outbox, la ingesta
+ * TCP o los barridos programados no correrían hasta que alguien los pidiera.
+ */
+@Configuration
+public class ArranqueRapidoConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter excluirBeansDeSegundoPlano() {
+        return (nombre, definicion, tipo) -> trabajaEnSegundoPlano(tipo);
+    }
+
+    private static boolean trabajaEnSegundoPlano(Class<?> tipo) {
+        if (!tipo.getName().startsWith("com.banking.system.")) {
+            return false;
+        }
+        AtomicBoolean encontrado = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(tipo, metodo -> encontrado.set(true), ArranqueRapidoConfig::esDeSegundoPlano);
+        return encontrado.get();
+    }
+
+    private static boolean esDeSegundoPlano(Method metodo) {
+        return metodo.isAnnotationPresent(Scheduled.class) || metodo.isAnnotationPresent(PostConstruct.class);
+    }
+}
@@ -0,0 +1,25 @@
+package com.banking.system.config;
+
+/**
+ * Contexto por hilo para forzar la lectura desde la primaria (por ejemplo,
+ * cuando el cliente acaba de escribir y la réplica puede ir atrasada)
+ */
+public final class ContextoReplica {
+
+    private static final ThreadLocal<Boolean> FORZAR_PRIMARIA = new ThreadLocal<>();
+
+    private ContextoReplica() {
+    }
+
+    public static void forzarPrimaria() {
+        FORZAR_PRIMARIA.set(Boolean.TRUE);
+    }
+
+    public static boolean primariaForzada() {
+        return Boolean.TRUE.equals(FORZAR_PRIMARIA.get());
+    }
+
+    public static void limpiar() {
+        FORZAR_PRIMARIA.remove();
+    }
+}
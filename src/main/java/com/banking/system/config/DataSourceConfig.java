@@ -0,0 +1,96 @@
+package com.banking.system.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * DataSource JDBC de la aplicación. Se declara aquí porque, con R2DBC en el
+ * classpath (API de lectura reactiva), Spring Boot deja de autoconfigurarlo.
+ *
+ * Si se configura banking.datasource.replica.url se activa el enrutamiento
+ * lectura/escritura: las transacciones @Transactional(readOnly = true) van a
+ * la réplica, salvo que el cliente haya escrito hace poco (ver
+ * EscrituraRecienteFilter). Sin réplica se usa solo la primaria.
+ */
+@Configuration
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class DataSourceConfig {
+
+    @Value("${banking.datasource.replica.url:}")
+    private String replicaUrl;
+
+    @Value("${banking.datasource.replica.username:${spring.datasource.username:}}")
+    private String replicaUsuario;
+
+    @Value("${banking.datasource.replica.password:${spring.datasource.password:}}")
+    private String replicaClave;
+
+    @Value("${banking.datasource.replica.pool:10}")
+    private int replicaPool;
+
+    // Tiempo que las lecturas de un cliente siguen en la primaria después de escribir
+    @Value("${banking.datasource.ventana-lectura-propia-ms:5000}")
+    private long ventanaLecturaPropiaMs;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primariaDataSource(DataSourceProperties properties) {
+        HikariDataSource primaria = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primaria.setPoolName("primaria");
+        return primaria;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "banking.datasource.replica", name = "url")
+    public EnrutadorDataSource enrutadorDataSource(HikariDataSource primariaDataSource) {
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName("replica");
+        replica.setJdbcUrl(replicaUrl);
+        replica.setUsername(replicaUsuario);
+        replica.setPassword(replicaClave);
+        replica.setMaximumPoolSize(replicaPool);
+        replica.setReadOnly(true);
+
+        return new EnrutadorDataSource(primariaDataSource, replica);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primariaDataSource,
+            ObjectProvider<EnrutadorDataSource> enrutadorDataSource) {
+        EnrutadorDataSource enrutador = enrutadorDataSource.getIfAvailable();
+        return enrutador != null ? new LazyConnectionDataSourceProxy(enrutador) : primariaDataSource;
+    }
+
+    /**
+     * Spring retiene la conexión durante toda la sesión de Hibernate, y con
+     * open-in-view la sesión dura todo el request: una escritura después de
+     * una lectura terminaría en la réplica. Liberarla al final de cada
+     * transacción hace que cada una pase de nuevo por el enrutador.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "banking.datasource.replica", name = "url")
+    public HibernatePropertiesCustomizer liberarConexionPorTransaccion() {
+        return propiedades -> propiedades.put(AvailableSettings.CONNECTION_HANDLING,
+                "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION");
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "banking.datasource.replica", name = "url")
+    public EscrituraRecienteFilter escrituraRecienteFilter() {
+        return new EscrituraRecienteFilter(ventanaLecturaPropiaMs);
+    }
+}
@@ -0,0 +1,74 @@
+package com.banking.system.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * DataSource que envía las transacciones de solo lectura a la réplica y el
+ * resto a la primaria. Debe usarse detrás de un LazyConnectionDataSourceProxy:
+ * así la conexión real se pide en la primera sentencia, cuando ya se sabe si
+ * la transacción es de solo lectura.
+ */
+public class EnrutadorDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    public enum Destino {
+        PRIMARIA,
+        REPLICA
+    }
+
+    private final DataSource replica;
+    private final LongAdder conexionesPrimaria = new LongAdder();
+    private final LongAdder conexionesReplica = new LongAdder();
+    private final LongAdder lecturasForzadasPrimaria = new LongAdder();
+
+    /**
+     * Conexiones entregadas por destino (para medir la carga que sale de la
+     * primaria)
+     */
+    public record MetricasEnrutamiento(long conexionesPrimaria, long conexionesReplica,
+            long lecturasForzadasPrimaria, double porcentajeReplica) {
+    }
+
+    public EnrutadorDataSource(DataSource primaria, DataSource replica) {
+        this.replica = replica;
+        setTargetDataSources(Map.of(Destino.PRIMARIA, primaria, Destino.REPLICA, replica));
+        setDefaultTargetDataSource(primaria);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (!ContextoReplica.primariaForzada()) {
+                conexionesReplica.increment();
+                return Destino.REPLICA;
+            }
+            lecturasForzadasPrimaria.increment();
+        }
+        conexionesPrimaria.increment();
+        return Destino.PRIMARIA;
+    }
+
+    public MetricasEnrutamiento obtenerMetricas() {
+        long enPrimaria = conexionesPrimaria.sum();
+        long enReplica = conexionesReplica.sum();
+        long total = enPrimaria + enReplica;
+        return new MetricasEnrutamiento(enPrimaria, enReplica, lecturasForzadasPrimaria.sum(),
+                total > 0 ? enReplica * 100.0 / total : 0);
+    }
+
+    /**
+     * La primaria es un bean y Spring la cierra; la réplica solo la conoce el
+     * enrutador
+     */
+    @Override
+    public void destroy() throws Exception {
+        if (replica instanceof AutoCloseable cerrable) {
+            cerrable.close();
+        }
+    }
+}
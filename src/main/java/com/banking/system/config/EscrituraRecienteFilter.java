@@ -0,0 +1,72 @@
+package com.banking.system.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Lectura de las propias escrituras: cada request que escribe deja una cookie
+ * con la hora de la escritura. Mientras esa cookie tenga menos de la ventana
+ * configurada, las lecturas del mismo cliente van a la primaria en vez de a
+ * la réplica, que puede ir atrasada.
+ */
+public class EscrituraRecienteFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE = "banking-ultima-escritura";
+
+    private static final Set<String> METODOS_LECTURA = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final long ventanaMs;
+
+    public EscrituraRecienteFilter(long ventanaMs) {
+        this.ventanaMs = ventanaMs;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long ahora = System.currentTimeMillis();
+
+        if (!METODOS_LECTURA.contains(request.getMethod())) {
+            Cookie cookie = new Cookie(COOKIE, Long.toString(ahora));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, (ventanaMs + 999) / 1000));
+            response.addCookie(cookie);
+            chain.doFilter(request, response);
+            return;
+        }
+
+        if (escribioHaceMenosDe(request, ahora)) {
+            ContextoReplica.forzarPrimaria();
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ContextoReplica.limpiar();
+        }
+    }
+
+    private boolean escribioHaceMenosDe(HttpServletRequest request, long ahora) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return ahora - Long.parseLong(cookie.getValue()) < ventanaMs;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,40 @@
+package com.banking.system.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Formatos binarios de respuesta. Con Accept: application/cbor o
+ * application/x-jackson-smile los controladores responden en ese formato;
+ * sin Accept, o si el cliente acepta cualquier tipo, sigue siendo JSON.
+ *
+ * Los ObjectMapper salen del mismo builder de Spring Boot que el de JSON, así
+ * que respetan las mismas anotaciones (@JsonIgnoreProperties, fechas, etc.).
+ * Smile además guarda los nombres de campo repetidos como referencias, que es
+ * donde más se gana en listas de transacciones.
+ */
+@Configuration
+public class FormatosBinariosConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private ObjectProvider<Jackson2ObjectMapperBuilder> builders;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Al final de la lista, para que JSON siga siendo el formato por defecto
+        converters.add(new MappingJackson2CborHttpMessageConverter(
+                builders.getObject().factory(new CBORFactory()).build()));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(
+                builders.getObject().factory(new SmileFactory()).build()));
+    }
+}
@@ -0,0 +1,77 @@
+package com.banking.system.config;
+
+import com.banking.system.repository.CuentaRepository;
+import org.springframework.aop.SpringProxy;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.DecoratingProxy;
+import org.springframework.core.type.filter.TypeFilter;
+import org.springframework.data.projection.TargetAware;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pistas para el binario nativo (mvn -Pnative package). Spring AOT ya
+ * registra los beans, los repositorios y las clases que aparecen en las
+ * firmas de los controladores, pero no ve lo que Jackson serializa detrás de
+ * un ResponseEntity&lt;?&gt;: las entidades, los DTO de entrada y los records de
+ * métricas y lecturas de los servicios. El proxy JDK de la proyección
+ * HuellaCuentas, de la que dependen los ETag, se deja explícito.
+ *
+ * En la JVM estas pistas no tienen efecto.
+ */
+@Configuration
+@ImportRuntimeHints(NativoConfig.PistasNativas.class)
+public class NativoConfig {
+
+    static class PistasNativas implements RuntimeHintsRegistrar {
+
+        private static final String PAQUETE = "com.banking.system";
+
+        private final BindingReflectionHintsRegistrar binding = new BindingReflectionHintsRegistrar();
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Todo el paquete de entidades: también los ids compuestos (@IdClass), los convertidores y los
+            // movimientos de la vista, que no son @Entity
+            List<Class<?>> tipos = new ArrayList<>(escanear(classLoader, PAQUETE + ".entity", (lector, fabrica) -> true));
+            // DTO de entrada de los controladores (ConsignacionRequest, CuentaRequest, ...)
+            tipos.addAll(escanear(classLoader, PAQUETE + ".controller",
+                    (lector, fabrica) -> lector.getClassMetadata().getClassName().endsWith("Request")));
+            // Records de métricas y lecturas que devuelven los endpoints
+            tipos.addAll(escanear(classLoader, PAQUETE + ".service", esRecord()));
+            tipos.addAll(escanear(classLoader, PAQUETE + ".config", esRecord()));
+            binding.registerReflectionHints(hints.reflection(), tipos.toArray(Class<?>[]::new));
+
+            // Proyección del ETag de cuentas y clientes: mismo proxy opaco que arma ProxyProjectionFactory
+            hints.proxies().registerJdkProxy(CuentaRepository.HuellaCuentas.class, TargetAware.class,
+                    SpringProxy.class, DecoratingProxy.class);
+
+            // Especificación generada en el build con -Parranque-rapido, si existe
+            hints.resources().registerPattern("static/openapi.json");
+        }
+
+        private static TypeFilter esRecord() {
+            return (lector, fabrica) -> Record.class.getName().equals(lector.getClassMetadata().getSuperClassName());
+        }
+
+        private static List<Class<?>> escanear(ClassLoader classLoader, String paquete, TypeFilter... filtros) {
+            ClassPathScanningCandidateComponentProvider escaner = new ClassPathScanningCandidateComponentProvider(false);
+            for (TypeFilter filtro : filtros) {
+                escaner.addIncludeFilter(filtro);
+            }
+            List<Class<?>> tipos = new ArrayList<>();
+            for (BeanDefinition definicion : escaner.findCandidateComponents(paquete)) {
+                tipos.add(ClassUtils.resolveClassName(definicion.getBeanClassName(), classLoader));
+            }
+            return tipos;
+        }
+    }
+}
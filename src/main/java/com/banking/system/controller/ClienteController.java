@@ -1,16 +1,21 @@
 package com.banking.system.controller;
 
 import com.banking.system.entity.Cliente;
+import com.banking.system.service.BusquedaClienteService;
 import com.banking.system.service.ClienteService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Controlador REST para Clientes Define los endpoints de la API
@@ -19,9 +24,14 @@ import java.util.Map;
 @RequestMapping("/api/clientes")
 public class ClienteController {
 
+    private static final Set<String> CAMPOS_ORDEN = Set.of("id", "apellido", "nombres", "fechaCreacion");
+
     @Autowired
     private ClienteService clienteService;
 
+    @Autowired
+    private BusquedaClienteService busquedaClienteService;
+
     /**
      * POST /api/clientes Crear un nuevo cliente
      */
@@ -36,22 +46,64 @@ public class ClienteController {
     }
 
     /**
-     * GET /api/clientes Obtener todos los clientes
+     * GET /api/clientes?creadoDesde=&creadoHasta=&pagina=0&tamano=20&orden=id,asc&contar=false
+     * Listar clientes por página, filtrando por fecha de creación
      */
     @GetMapping
-    public ResponseEntity<List<Cliente>> obtenerTodosLosClientes() {
-        List<Cliente> clientes = clienteService.obtenerTodosLosClientes();
-        return ResponseEntity.ok(clientes);
+    public ResponseEntity<?> listarClientes(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime creadoDesde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime creadoHasta,
+            @RequestParam(defaultValue = "0") int pagina,
+            @RequestParam(defaultValue = "20") int tamano,
+            @RequestParam(defaultValue = "id") String orden,
+            @RequestParam(defaultValue = "false") boolean contar) {
+        try {
+            Pageable solicitud = Paginacion.solicitud(pagina, tamano, orden, CAMPOS_ORDEN);
+            return Paginacion.respuesta(clienteService.listarClientes(creadoDesde, creadoHasta, solicitud, contar));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(crearRespuestaError(e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /api/clientes/buscar?q=texto&pagina=0&tamano=20 Buscar clientes por
+     * nombre, apellido, correo o documento parcial, ordenados por relevancia
+     */
+    @GetMapping("/buscar")
+    public ResponseEntity<?> buscarClientes(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int pagina,
+            @RequestParam(defaultValue = "20") int tamano) {
+        try {
+            return ResponseEntity.ok(busquedaClienteService.buscar(q, pagina, tamano));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(crearRespuestaError(e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /api/clientes/buscar/metricas Tamaño y memoria del índice de búsqueda
+     */
+    @GetMapping("/buscar/metricas")
+    public ResponseEntity<BusquedaClienteService.MetricasBusqueda> obtenerMetricasBusqueda() {
+        return ResponseEntity.ok(busquedaClienteService.obtenerMetricas());
     }
 
     /**
-     * GET /api/clientes/{id} Obtener un cliente por ID
+     * GET /api/clientes/{id} Obtener un cliente por ID. Responde con ETag; si
+     * llega If-None-Match con la versión actual responde 304 sin cargar el
+     * cliente.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<?> obtenerClientePorId(@PathVariable Long id) {
+    public ResponseEntity<?> obtenerClientePorId(@PathVariable Long id, WebRequest request) {
         try {
+            String version = clienteService.obtenerVersion(id);
+            String etag = "cliente-" + id + "-" + version;
+            if (version != null && request.checkNotModified(etag)) {
+                return null;
+            }
             Cliente cliente = clienteService.obtenerClientePorId(id);
-            return ResponseEntity.ok(cliente);
+            return version != null ? ResponseEntity.ok().eTag(etag).body(cliente) : ResponseEntity.ok(cliente);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(crearRespuestaError(e.getMessage()));
@@ -0,0 +1,97 @@
+package com.banking.system.controller;
+
+import com.banking.system.entity.Conciliacion;
+import com.banking.system.entity.DiscrepanciaConciliacion;
+import com.banking.system.repository.ConciliacionRepository;
+import com.banking.system.repository.DiscrepanciaConciliacionRepository;
+import com.banking.system.service.ConciliacionService;
+import com.banking.system.service.ReconstruccionSaldosService;
+import com.banking.system.service.ReconstruccionSaldosService.ResultadoReconstruccion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controlador REST para la conciliación de saldos Permite lanzarla
+ * manualmente y consultar su resultado y el reporte de discrepancias
+ */
+@RestController
+@RequestMapping("/api/conciliaciones")
+public class ConciliacionController {
+
+    @Autowired
+    private ConciliacionService conciliacionService;
+
+    @Autowired
+    private ConciliacionRepository conciliacionRepository;
+
+    @Autowired
+    private DiscrepanciaConciliacionRepository discrepanciaConciliacionRepository;
+
+    @Autowired
+    private ReconstruccionSaldosService reconstruccionSaldosService;
+
+    /**
+     * POST /api/conciliaciones Ejecutar una conciliación
+     */
+    @PostMapping
+    public ResponseEntity<?> conciliar() {
+        try {
+            Conciliacion conciliacion = conciliacionService.conciliar();
+            return ResponseEntity.status(HttpStatus.CREATED).body(conciliacion);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(crearRespuestaError(e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /api/conciliaciones/{id} Resultado de una conciliación
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<?> obtenerConciliacion(@PathVariable Long id) {
+        return conciliacionRepository.findById(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(crearRespuestaError("Conciliación no encontrada con ID: " + id)));
+    }
+
+    /**
+     * GET /api/conciliaciones/{id}/discrepancias Reporte de discrepancias
+     */
+    @GetMapping("/{id}/discrepancias")
+    public ResponseEntity<List<DiscrepanciaConciliacion>> obtenerDiscrepancias(@PathVariable Long id) {
+        return ResponseEntity.ok(discrepanciaConciliacionRepository.findByConciliacionIdOrderByCuentaIdAscIdAsc(id));
+    }
+
+    /**
+     * POST /api/conciliaciones/reconstruccion-saldos Recalcular los saldos
+     * repitiendo el log de transacciones (sin aplicar solo reporta las
+     * diferencias)
+     */
+    @PostMapping("/reconstruccion-saldos")
+    public ResponseEntity<?> reconstruirSaldos(@RequestParam(defaultValue = "false") boolean aplicar,
+            @RequestParam(required = false) String archivo) {
+        try {
+            ResultadoReconstruccion resultado = reconstruccionSaldosService.reconstruir(aplicar, archivo);
+            return ResponseEntity.ok(resultado);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(crearRespuestaError(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(crearRespuestaError(e.getMessage()));
+        }
+    }
+
+    /**
+     * Método auxiliar para crear respuestas de error consistentes
+     */
+    private Map<String, String> crearRespuestaError(String mensaje) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", mensaje);
+        return error;
+    }
+}
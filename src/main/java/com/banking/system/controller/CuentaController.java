@@ -2,16 +2,25 @@ package com.banking.system.controller;
 
 import com.banking.system.entity.Cuenta;
 import com.banking.system.entity.Cuenta.EstadoCuenta;
+import com.banking.system.entity.Cuenta.TipoCuenta;
 import com.banking.system.service.CuentaService;
+import com.banking.system.service.InactividadService;
+import com.banking.system.service.RankingCuentasService;
+import com.banking.system.service.RankingCuentasService.MetricaRanking;
+import com.banking.system.service.SubsaldoCuentaService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Controlador REST para Cuentas Define los endpoints de la API de cuentas
@@ -21,9 +30,20 @@ import java.util.Map;
 @RequestMapping("/api/cuentas")
 public class CuentaController {
 
+    private static final Set<String> CAMPOS_ORDEN = Set.of("id", "numeroCuenta", "saldo", "fechaCreacion");
+
     @Autowired
     private CuentaService cuentaService;
 
+    @Autowired
+    private InactividadService inactividadService;
+
+    @Autowired
+    private SubsaldoCuentaService subsaldoCuentaService;
+
+    @Autowired
+    private RankingCuentasService rankingCuentasService;
+
     /**
      * POST /api/cuentas?clienteId=X Crear una nueva cuenta para un cliente
      */
@@ -46,22 +66,44 @@ public class CuentaController {
     }
 
     /**
-     * GET /api/cuentas Obtener todas las cuentas
+     * GET /api/cuentas?estado=&tipoCuenta=&saldoMinimo=&saldoMaximo=&pagina=0&tamano=20&orden=id,asc&contar=false
+     * Listar cuentas por página con filtros opcionales
      */
     @GetMapping
-    public ResponseEntity<List<Cuenta>> obtenerTodasLasCuentas() {
-        List<Cuenta> cuentas = cuentaService.obtenerTodasLasCuentas();
-        return ResponseEntity.ok(cuentas);
+    public ResponseEntity<?> listarCuentas(
+            @RequestParam(required = false) EstadoCuenta estado,
+            @RequestParam(required = false) TipoCuenta tipoCuenta,
+            @RequestParam(required = false) BigDecimal saldoMinimo,
+            @RequestParam(required = false) BigDecimal saldoMaximo,
+            @RequestParam(defaultValue = "0") int pagina,
+            @RequestParam(defaultValue = "20") int tamano,
+            @RequestParam(defaultValue = "id") String orden,
+            @RequestParam(defaultValue = "false") boolean contar) {
+        try {
+            Pageable solicitud = Paginacion.solicitud(pagina, tamano, orden, CAMPOS_ORDEN);
+            return Paginacion.respuesta(
+                    cuentaService.listarCuentas(estado, tipoCuenta, saldoMinimo, saldoMaximo, solicitud, contar));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(crearRespuestaError(e.getMessage()));
+        }
     }
 
     /**
-     * GET /api/cuentas/{id} Obtener una cuenta por ID
+     * GET /api/cuentas/{id} Obtener una cuenta por ID. Responde con ETag; si
+     * llega If-None-Match con la versión actual responde 304 sin cargar la
+     * cuenta.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<?> obtenerCuentaPorId(@PathVariable Long id) {
+    public ResponseEntity<?> obtenerCuentaPorId(@PathVariable Long id, WebRequest request) {
         try {
+            // La versión se lee antes que la cuenta: si cambia entre las dos
+            // lecturas, el ETag queda viejo y el cliente solo pierde un 304
+            String etag = etag("cuenta-" + id, cuentaService.obtenerVersion(id));
+            if (etag != null && request.checkNotModified(etag)) {
+                return null;
+            }
             Cuenta cuenta = cuentaService.obtenerCuentaPorId(id);
-            return ResponseEntity.ok(cuenta);
+            return conEtag(etag).body(cuenta);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(crearRespuestaError(e.getMessage()));
@@ -84,13 +126,17 @@ public class CuentaController {
 
     /**
      * GET /api/cuentas/cliente/{clienteId} Obtener todas las cuentas de un
-     * cliente
+     * cliente (con ETag, igual que GET /api/cuentas/{id})
      */
     @GetMapping("/cliente/{clienteId}")
-    public ResponseEntity<?> obtenerCuentasPorCliente(@PathVariable Long clienteId) {
+    public ResponseEntity<?> obtenerCuentasPorCliente(@PathVariable Long clienteId, WebRequest request) {
         try {
+            String etag = etag("cuentas-cliente-" + clienteId, cuentaService.obtenerVersionCuentasPorCliente(clienteId));
+            if (etag != null && request.checkNotModified(etag)) {
+                return null;
+            }
             List<Cuenta> cuentas = cuentaService.obtenerCuentasPorCliente(clienteId);
-            return ResponseEntity.ok(cuentas);
+            return conEtag(etag).body(cuentas);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(crearRespuestaError(e.getMessage()));
         }
@@ -124,6 +170,88 @@ public class CuentaController {
         }
     }
 
+    /**
+     * POST /api/cuentas/inactividad?dias=N Inactivar las cuentas activas sin
+     * movimientos en los últimos N días
+     */
+    @PostMapping("/inactividad")
+    public ResponseEntity<?> inactivarCuentasSinMovimientos(@RequestParam int dias) {
+        try {
+            return ResponseEntity.ok(inactividadService.inactivarCuentasSinMovimientos(dias));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(crearRespuestaError(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(crearRespuestaError(e.getMessage()));
+        }
+    }
+
+    /**
+     * POST /api/cuentas/{id}/caliente?ranuras=N Repartir los abonos de la
+     * cuenta entre N ranuras (cuentas recaudadoras con muchas consignaciones)
+     */
+    @PostMapping("/{id}/caliente")
+    public ResponseEntity<?> activarCuentaCaliente(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "16") int ranuras) {
+        try {
+            Map<String, Object> respuesta = new HashMap<>();
+            respuesta.put("cuentaId", id);
+            respuesta.put("ranuras", subsaldoCuentaService.activar(id, ranuras));
+            return ResponseEntity.ok(respuesta);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(crearRespuestaError(e.getMessage()));
+        }
+    }
+
+    /**
+     * DELETE /api/cuentas/{id}/caliente Consolidar la cuenta y volver a
+     * abonar en su fila
+     */
+    @DeleteMapping("/{id}/caliente")
+    public ResponseEntity<?> desactivarCuentaCaliente(@PathVariable Long id) {
+        try {
+            subsaldoCuentaService.desactivar(id);
+            Map<String, String> respuesta = new HashMap<>();
+            respuesta.put("mensaje", "La cuenta ya no es caliente");
+            return ResponseEntity.ok(respuesta);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(crearRespuestaError(e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /api/cuentas/calientes/metricas Abonos en ranuras y consolidaciones
+     */
+    @GetMapping("/calientes/metricas")
+    public ResponseEntity<SubsaldoCuentaService.MetricasSubsaldos> obtenerMetricasCuentasCalientes() {
+        return ResponseEntity.ok(subsaldoCuentaService.obtenerMetricas());
+    }
+
+    /**
+     * GET /api/cuentas/ranking?metrica=SALDO&limite=100 Cuentas con mayor
+     * saldo, o con mayores entradas (ENTRADAS_DIA) o salidas (SALIDAS_DIA)
+     * del día. Se sirve desde memoria, sin consultar la base de datos.
+     */
+    @GetMapping("/ranking")
+    public ResponseEntity<?> obtenerRanking(
+            @RequestParam(defaultValue = "SALDO") MetricaRanking metrica,
+            @RequestParam(defaultValue = "100") int limite) {
+        try {
+            return ResponseEntity.ok(rankingCuentasService.obtenerRanking(metrica, limite));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(crearRespuestaError(e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /api/cuentas/ranking/metricas Actualizaciones, costo promedio y
+     * reconstrucciones del ranking
+     */
+    @GetMapping("/ranking/metricas")
+    public ResponseEntity<RankingCuentasService.MetricasRanking> obtenerMetricasRanking() {
+        return ResponseEntity.ok(rankingCuentasService.obtenerMetricas());
+    }
+
     /**
      * DELETE /api/cuentas/{id} Eliminar una cuenta
      */
@@ -139,6 +267,17 @@ public class CuentaController {
         }
     }
 
+    /**
+     * ETag del recurso (null si no hay versión)
+     */
+    private String etag(String recurso, String version) {
+        return version != null ? recurso + "-" + version : null;
+    }
+
+    private ResponseEntity.BodyBuilder conEtag(String etag) {
+        return etag != null ? ResponseEntity.ok().eTag(etag) : ResponseEntity.ok();
+    }
+
     /**
      * Método auxiliar para crear respuestas de error consistentes
      */
@@ -0,0 +1,41 @@
+package com.banking.system.controller;
+
+import com.banking.system.config.EnrutadorDataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Controlador REST del enrutamiento lectura/escritura Expone cuántas
+ * conexiones fueron a la primaria y cuántas a la réplica
+ */
+@RestController
+@RequestMapping("/api/enrutamiento")
+public class EnrutamientoController {
+
+    // Solo existe si se configuró banking.datasource.replica.url
+    @Autowired(required = false)
+    private EnrutadorDataSource enrutadorDataSource;
+
+    /**
+     * GET /api/enrutamiento/metricas Conexiones entregadas por destino
+     */
+    @GetMapping("/metricas")
+    public ResponseEntity<?> obtenerMetricas() {
+        if (enrutadorDataSource == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(crearRespuestaError("No hay réplica configurada"));
+        }
+        return ResponseEntity.ok(enrutadorDataSource.obtenerMetricas());
+    }
+
+    private Map<String, String> crearRespuestaError(String mensaje) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", mensaje);
+        return error;
+    }
+}
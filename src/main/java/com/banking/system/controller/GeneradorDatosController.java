@@ -0,0 +1,51 @@
+package com.banking.system.controller;
+
+import com.banking.system.service.GeneradorDatosService;
+import com.banking.system.service.GeneradorDatosService.ResultadoGeneracion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Controlador REST del generador de datos sintéticos Llena una BD vacía con
+ * clientes, cuentas y transacciones para pruebas de carga
+ */
+@RestController
+@RequestMapping("/api/generador-datos")
+public class GeneradorDatosController {
+
+    @Autowired
+    private GeneradorDatosService generadorDatosService;
+
+    /**
+     * POST /api/generador-datos?semilla={n}&clientes={n}&transacciones={n}
+     * Generar y cargar los datos (parámetros opcionales; por defecto los de
+     * banking.generador.*)
+     */
+    @PostMapping
+    public ResponseEntity<?> generar(@RequestParam(required = false) Long semilla,
+                                     @RequestParam(required = false) Integer clientes,
+                                     @RequestParam(required = false) Long transacciones) {
+        try {
+            ResultadoGeneracion resultado = generadorDatosService.generar(semilla, clientes, transacciones);
+            return ResponseEntity.status(HttpStatus.CREATED).body(resultado);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(crearRespuestaError(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(crearRespuestaError(e.getMessage()));
+        }
+    }
+
+    /**
+     * Método auxiliar para crear respuestas de error consistentes
+     */
+    private Map<String, String> crearRespuestaError(String mensaje) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", mensaje);
+        return error;
+    }
+}
@@ -0,0 +1,29 @@
+package com.banking.system.controller;
+
+import com.banking.system.service.IngestaTcpService;
+import com.banking.system.service.IngestaTcpService.MetricasIngesta;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controlador REST de la ingesta TCP Expone las métricas del servidor binario
+ * de cajeros y datáfonos
+ */
+@RestController
+@RequestMapping("/api/ingesta")
+public class IngestaController {
+
+    @Autowired
+    private IngestaTcpService ingestaTcpService;
+
+    /**
+     * GET /api/ingesta/metricas Conexiones, solicitudes por segundo y latencia
+     */
+    @GetMapping("/metricas")
+    public ResponseEntity<MetricasIngesta> obtenerMetricas() {
+        return ResponseEntity.ok(ingestaTcpService.obtenerMetricas());
+    }
+}
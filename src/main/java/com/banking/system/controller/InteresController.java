@@ -0,0 +1,66 @@
+package com.banking.system.controller;
+
+import com.banking.system.entity.CausacionInteres;
+import com.banking.system.repository.CausacionInteresRepository;
+import com.banking.system.service.InteresService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Controlador REST para la causación de intereses Permite relanzar
+ * manualmente el proceso nocturno y consultar su resultado
+ */
+@RestController
+@RequestMapping("/api/intereses")
+public class InteresController {
+
+    @Autowired
+    private InteresService interesService;
+
+    @Autowired
+    private CausacionInteresRepository causacionInteresRepository;
+
+    /**
+     * POST /api/intereses/causacion?fecha=yyyy-MM-dd Ejecutar (o continuar) la
+     * causación de una fecha de corte
+     */
+    @PostMapping("/causacion")
+    public ResponseEntity<?> causarIntereses(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha) {
+        try {
+            CausacionInteres causacion = interesService.causarIntereses(fecha);
+            return ResponseEntity.ok(causacion);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(crearRespuestaError(e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /api/intereses/causacion/{fecha} Consultar el resultado de una
+     * causación
+     */
+    @GetMapping("/causacion/{fecha}")
+    public ResponseEntity<?> obtenerCausacion(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha) {
+        return causacionInteresRepository.findById(fecha)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(crearRespuestaError("No hay causación de intereses para la fecha: " + fecha)));
+    }
+
+    /**
+     * Método auxiliar para crear respuestas de error consistentes
+     */
+    private Map<String, String> crearRespuestaError(String mensaje) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", mensaje);
+        return error;
+    }
+}
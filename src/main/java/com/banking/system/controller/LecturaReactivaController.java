@@ -0,0 +1,110 @@
+package com.banking.system.controller;
+
+import com.banking.system.service.LecturaReactivaService;
+import com.banking.system.service.LecturaReactivaService.CuentaLectura;
+import com.banking.system.service.LecturaReactivaService.MetricasLecturaReactiva;
+import com.banking.system.service.LecturaReactivaService.TransaccionLectura;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Controlador REST de lectura reactiva API de solo lectura paralela a la de
+ * /api/cuentas, /api/clientes y /api/transacciones. El hilo del servidor se
+ * libera mientras R2DBC espera a la base de datos.
+ */
+@RestController
+@RequestMapping("/api/reactivo")
+public class LecturaReactivaController {
+
+    @Autowired
+    private LecturaReactivaService lecturaReactivaService;
+
+    /**
+     * GET /api/reactivo/cuentas/{id} Obtener una cuenta por ID
+     */
+    @GetMapping("/cuentas/{id}")
+    public Mono<ResponseEntity<?>> obtenerCuenta(@PathVariable Long id) {
+        return lecturaReactivaService.obtenerCuenta(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .defaultIfEmpty(noEncontrado("Cuenta no encontrada con ID: " + id));
+    }
+
+    /**
+     * GET /api/reactivo/clientes/{id} Obtener un cliente por ID
+     */
+    @GetMapping("/clientes/{id}")
+    public Mono<ResponseEntity<?>> obtenerCliente(@PathVariable Long id) {
+        return lecturaReactivaService.obtenerCliente(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .defaultIfEmpty(noEncontrado("Cliente no encontrado con ID: " + id));
+    }
+
+    /**
+     * GET /api/reactivo/clientes/{id}/cuentas Cuentas de un cliente
+     */
+    @GetMapping("/clientes/{id}/cuentas")
+    public Flux<CuentaLectura> obtenerCuentasPorCliente(@PathVariable Long id) {
+        return lecturaReactivaService.obtenerCuentasPorCliente(id);
+    }
+
+    /**
+     * GET /api/reactivo/transacciones/{id} Obtener una transacción por ID
+     */
+    @GetMapping("/transacciones/{id}")
+    public Mono<ResponseEntity<?>> obtenerTransaccion(@PathVariable Long id) {
+        return lecturaReactivaService.obtenerTransaccion(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .defaultIfEmpty(noEncontrado("Transacción no encontrada con ID: " + id));
+    }
+
+    /**
+     * GET /api/reactivo/transacciones/cuenta/{cuentaId}?desde=&hasta=
+     * Historial de una cuenta. Con Accept: application/x-ndjson se transmite
+     * una transacción por línea a medida que sale de la base de datos.
+     */
+    @GetMapping(value = "/transacciones/cuenta/{cuentaId}",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<TransaccionLectura> transmitirHistorial(
+            @PathVariable Long cuentaId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta) {
+        return lecturaReactivaService.transmitirHistorial(cuentaId, desde, hasta);
+    }
+
+    /**
+     * GET /api/reactivo/metricas Consultas en curso, máximo de concurrentes y
+     * filas emitidas
+     */
+    @GetMapping("/metricas")
+    public ResponseEntity<MetricasLecturaReactiva> obtenerMetricas() {
+        return ResponseEntity.ok(lecturaReactivaService.obtenerMetricas());
+    }
+
+    /**
+     * Fechas invertidas en el historial
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> manejarArgumentoInvalido(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(crearRespuestaError(e.getMessage()));
+    }
+
+    private ResponseEntity<?> noEncontrado(String mensaje) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(crearRespuestaError(mensaje));
+    }
+
+    private Map<String, String> crearRespuestaError(String mensaje) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", mensaje);
+        return error;
+    }
+}
@@ -0,0 +1,53 @@
+package com.banking.system.controller;
+
+import com.banking.system.entity.OperacionAsincrona;
+import com.banking.system.service.OperacionAsincronaService;
+import com.banking.system.service.OperacionAsincronaService.MetricasOperaciones;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Controlador REST de operaciones asíncronas Permite consultar el estado de
+ * una operación aceptada con 202 y las métricas de la cola
+ */
+@RestController
+@RequestMapping("/api/operaciones")
+public class OperacionController {
+
+    @Autowired
+    private OperacionAsincronaService operacionAsincronaService;
+
+    /**
+     * GET /api/operaciones/metricas Profundidad de la cola, throughput y
+     * latencia de extremo a extremo
+     */
+    @GetMapping("/metricas")
+    public ResponseEntity<MetricasOperaciones> obtenerMetricas() {
+        return ResponseEntity.ok(operacionAsincronaService.obtenerMetricas());
+    }
+
+    /**
+     * GET /api/operaciones/{id} Estado de una operación
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<?> obtenerOperacion(@PathVariable Long id) {
+        try {
+            OperacionAsincrona operacion = operacionAsincronaService.obtenerOperacion(id);
+            return ResponseEntity.ok(operacion);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(crearRespuestaError(e.getMessage()));
+        }
+    }
+
+    private Map<String, String> crearRespuestaError(String mensaje) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", mensaje);
+        return error;
+    }
+}
@@ -0,0 +1,26 @@
+package com.banking.system.controller;
+
+import com.banking.system.service.DespachoOutboxService;
+import com.banking.system.service.DespachoOutboxService.MetricasOutbox;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controlador REST del outbox de eventos Expone las métricas del despacho
+ */
+@RestController
+@RequestMapping("/api/outbox")
+public class OutboxController {
+
+    @Autowired
+    private DespachoOutboxService despachoOutboxService;
+
+    /**
+     * GET /api/outbox/metricas Rendimiento y retraso del despacho de eventos
+     */
+    @GetMapping("/metricas")
+    public ResponseEntity<MetricasOutbox> obtenerMetricas() {
+        return ResponseEntity.ok(despachoOutboxService.obtenerMetricas());
+    }
+}
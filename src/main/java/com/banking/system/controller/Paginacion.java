@@ -0,0 +1,73 @@
+package com.banking.system.controller;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Parámetros y respuesta de los listados paginados. El cuerpo sigue siendo
+ * el arreglo JSON de siempre; la paginación va en encabezados: X-Total-Count
+ * (solo si se pidió contar=true) y Link rel="next" si hay página siguiente.
+ */
+final class Paginacion {
+
+    static final int TAMANO_MAXIMO = 500;
+
+    private Paginacion() {
+    }
+
+    /**
+     * Arma la página pedida. El orden es "campo" o "campo,asc|desc" y solo se
+     * aceptan los campos indicados (se desempata por id para que las páginas
+     * no repitan ni salten filas).
+     */
+    static Pageable solicitud(int pagina, int tamano, String orden, Set<String> camposPermitidos) {
+        if (pagina < 0) {
+            throw new IllegalArgumentException("La página no puede ser negativa");
+        }
+        if (tamano < 1 || tamano > TAMANO_MAXIMO) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + TAMANO_MAXIMO);
+        }
+        String[] partes = orden.split(",");
+        String campo = partes[0].trim();
+        if (!camposPermitidos.contains(campo)) {
+            throw new IllegalArgumentException("No se puede ordenar por '" + campo + "'. Campos permitidos: "
+                    + camposPermitidos.stream().sorted().toList());
+        }
+        Sort.Direction direccion = Sort.Direction.ASC;
+        if (partes.length > 1) {
+            direccion = Sort.Direction.fromOptionalString(partes[1].trim())
+                    .orElseThrow(() -> new IllegalArgumentException("La dirección del orden debe ser asc o desc"));
+        }
+        Sort sort = Sort.by(direccion, campo);
+        if (!campo.equals("id")) {
+            sort = sort.and(Sort.by(direccion, "id"));
+        }
+        return PageRequest.of(pagina, tamano, sort);
+    }
+
+    /**
+     * 200 con el contenido de la página y los encabezados de paginación
+     */
+    static <T> ResponseEntity<List<T>> respuesta(Slice<T> pagina) {
+        HttpHeaders encabezados = new HttpHeaders();
+        if (pagina instanceof Page<T> contada) {
+            encabezados.add("X-Total-Count", String.valueOf(contada.getTotalElements()));
+        }
+        if (pagina.hasNext()) {
+            String siguiente = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("pagina", pagina.getNumber() + 1)
+                    .toUriString();
+            encabezados.add(HttpHeaders.LINK, "<" + siguiente + ">; rel=\"next\"");
+        }
+        return ResponseEntity.ok().headers(encabezados).body(pagina.getContent());
+    }
+}
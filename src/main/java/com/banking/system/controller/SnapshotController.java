@@ -0,0 +1,64 @@
+package com.banking.system.controller;
+
+import com.banking.system.service.SnapshotService;
+import com.banking.system.service.SnapshotService.ResultadoExportacion;
+import com.banking.system.service.SnapshotService.ResultadoRestauracion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Controlador REST de snapshots Exporta el estado (clientes, cuentas y
+ * transacciones) a un archivo binario y lo restaura en una BD vacía
+ */
+@RestController
+@RequestMapping("/api/snapshots")
+public class SnapshotController {
+
+    @Autowired
+    private SnapshotService snapshotService;
+
+    /**
+     * POST /api/snapshots?nombre={archivo} Exportar un snapshot
+     */
+    @PostMapping
+    public ResponseEntity<?> exportar(@RequestParam String nombre) {
+        try {
+            ResultadoExportacion resultado = snapshotService.exportar(nombre);
+            return ResponseEntity.status(HttpStatus.CREATED).body(resultado);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(crearRespuestaError(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(crearRespuestaError(e.getMessage()));
+        }
+    }
+
+    /**
+     * POST /api/snapshots/restauracion?nombre={archivo} Restaurar un snapshot
+     * (las tablas deben estar vacías)
+     */
+    @PostMapping("/restauracion")
+    public ResponseEntity<?> restaurar(@RequestParam String nombre) {
+        try {
+            ResultadoRestauracion resultado = snapshotService.restaurar(nombre);
+            return ResponseEntity.ok(resultado);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(crearRespuestaError(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(crearRespuestaError(e.getMessage()));
+        }
+    }
+
+    /**
+     * Método auxiliar para crear respuestas de error consistentes
+     */
+    private Map<String, String> crearRespuestaError(String mensaje) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", mensaje);
+        return error;
+    }
+}
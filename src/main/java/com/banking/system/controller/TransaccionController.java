@@ -1,16 +1,30 @@
 package com.banking.system.controller;
 
+import com.banking.system.entity.OperacionAsincrona;
 import com.banking.system.entity.Transaccion;
+import com.banking.system.entity.Transaccion.TipoTransaccion;
+import com.banking.system.service.ConcurrenciaCuentaService;
+import com.banking.system.service.ConcurrenciaCuentaService.MetricasConcurrencia;
+import com.banking.system.service.FraudeSospechosoException;
+import com.banking.system.service.LimiteTasaService;
+import com.banking.system.service.OperacionAsincronaService;
 import com.banking.system.service.TransaccionService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Controlador REST para Transacciones Define los endpoints de la API de
@@ -20,21 +34,38 @@ import java.util.Map;
 @RequestMapping("/api/transacciones")
 public class TransaccionController {
 
+    private static final Set<String> CAMPOS_ORDEN = Set.of("id", "fechaTransaccion", "monto");
+
     @Autowired
     private TransaccionService transaccionService;
 
+    @Autowired
+    private LimiteTasaService limiteTasaService;
+
+    @Autowired
+    private OperacionAsincronaService operacionAsincronaService;
+
+    @Autowired
+    private ConcurrenciaCuentaService concurrenciaCuentaService;
+
     /**
      * POST /api/transacciones/consignacion Realizar una consignación
      */
     @PostMapping("/consignacion")
     public ResponseEntity<?> realizarConsignacion(@Valid @RequestBody ConsignacionRequest request) {
+        long esperaMs = limiteTasaService.consumir(request.getCuentaId());
+        if (esperaMs > 0) {
+            return respuestaLimiteExcedido(esperaMs);
+        }
         try {
-            Transaccion transaccion = transaccionService.realizarConsignacion(
+            Transaccion transaccion = concurrenciaCuentaService.ejecutar(() -> transaccionService.realizarConsignacion(
                     request.getCuentaId(),
                     request.getMonto(),
                     request.getDescripcion()
-            );
+            ));
             return ResponseEntity.status(HttpStatus.CREATED).body(transaccion);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(crearRespuestaError(e.getMessage()));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(crearRespuestaError(e.getMessage()));
         }
@@ -45,13 +76,21 @@ public class TransaccionController {
      */
     @PostMapping("/retiro")
     public ResponseEntity<?> realizarRetiro(@Valid @RequestBody RetiroRequest request) {
+        long esperaMs = limiteTasaService.consumir(request.getCuentaId());
+        if (esperaMs > 0) {
+            return respuestaLimiteExcedido(esperaMs);
+        }
         try {
-            Transaccion transaccion = transaccionService.realizarRetiro(
+            Transaccion transaccion = concurrenciaCuentaService.ejecutar(() -> transaccionService.realizarRetiro(
                     request.getCuentaId(),
                     request.getMonto(),
                     request.getDescripcion()
-            );
+            ));
             return ResponseEntity.status(HttpStatus.CREATED).body(transaccion);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(crearRespuestaError(e.getMessage()));
+        } catch (FraudeSospechosoException e) {
+            return ResponseEntity.unprocessableEntity().body(crearRespuestaFraude(e.getMessage()));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(crearRespuestaError(e.getMessage()));
         }
@@ -63,26 +102,88 @@ public class TransaccionController {
      */
     @PostMapping("/transferencia")
     public ResponseEntity<?> realizarTransferencia(@Valid @RequestBody TransferenciaRequest request) {
+        long esperaMs = limiteTasaService.consumir(request.getCuentaOrigenId());
+        if (esperaMs > 0) {
+            return respuestaLimiteExcedido(esperaMs);
+        }
         try {
-            List<Transaccion> transacciones = transaccionService.realizarTransferencia(
+            List<Transaccion> transacciones = concurrenciaCuentaService.ejecutar(() -> transaccionService.realizarTransferencia(
                     request.getCuentaOrigenId(),
                     request.getCuentaDestinoId(),
                     request.getMonto(),
                     request.getDescripcion()
-            );
+            ));
             return ResponseEntity.status(HttpStatus.CREATED).body(transacciones);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(crearRespuestaError(e.getMessage()));
+        } catch (FraudeSospechosoException e) {
+            return ResponseEntity.unprocessableEntity().body(crearRespuestaFraude(e.getMessage()));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(crearRespuestaError(e.getMessage()));
         }
     }
 
     /**
-     * GET /api/transacciones Obtener todas las transacciones
+     * POST /api/transacciones/transferencia/async Aceptar una transferencia
+     * para ejecución asíncrona. Responde 202 con la operación; su estado se
+     * consulta en GET /api/operaciones/{id}
+     */
+    @PostMapping("/transferencia/async")
+    public ResponseEntity<?> encolarTransferencia(@Valid @RequestBody TransferenciaRequest request) {
+        long esperaMs = limiteTasaService.consumir(request.getCuentaOrigenId());
+        if (esperaMs > 0) {
+            return respuestaLimiteExcedido(esperaMs);
+        }
+        try {
+            OperacionAsincrona operacion = operacionAsincronaService.encolarTransferencia(
+                    request.getCuentaOrigenId(),
+                    request.getCuentaDestinoId(),
+                    request.getMonto(),
+                    request.getDescripcion()
+            );
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/operaciones/" + operacion.getId()))
+                    .body(operacion);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(crearRespuestaError(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(crearRespuestaError(e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /api/transacciones?tipoTransaccion=&desde=&hasta=&montoMinimo=&montoMaximo=&pagina=0&tamano=20&orden=fechaTransaccion,desc&contar=false
+     * Listar transacciones por página con filtros opcionales
      */
     @GetMapping
-    public ResponseEntity<List<Transaccion>> obtenerTodasLasTransacciones() {
-        List<Transaccion> transacciones = transaccionService.obtenerTodasLasTransacciones();
-        return ResponseEntity.ok(transacciones);
+    public ResponseEntity<?> listarTransacciones(
+            @RequestParam(required = false) TipoTransaccion tipoTransaccion,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+            @RequestParam(required = false) BigDecimal montoMinimo,
+            @RequestParam(required = false) BigDecimal montoMaximo,
+            @RequestParam(defaultValue = "0") int pagina,
+            @RequestParam(defaultValue = "20") int tamano,
+            @RequestParam(defaultValue = "fechaTransaccion,desc") String orden,
+            @RequestParam(defaultValue = "false") boolean contar) {
+        try {
+            Pageable solicitud = Paginacion.solicitud(pagina, tamano, orden, CAMPOS_ORDEN);
+            return Paginacion.respuesta(transaccionService.listarTransacciones(
+                    tipoTransaccion, desde, hasta, montoMinimo, montoMaximo, solicitud, contar));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(crearRespuestaError(e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /api/transacciones/concurrencia/metricas Conflictos de versión,
+     * reintentos y movimientos abandonados
+     */
+    @GetMapping("/concurrencia/metricas")
+    public ResponseEntity<MetricasConcurrencia> obtenerMetricasConcurrencia() {
+        return ResponseEntity.ok(concurrenciaCuentaService.obtenerMetricas());
     }
 
     /**
@@ -100,19 +201,43 @@ public class TransaccionController {
     }
 
     /**
-     * GET /api/transacciones/cuenta/{cuentaId} Obtener el historial de
-     * transacciones de una cuenta
+     * GET /api/transacciones/cuenta/{cuentaId}?desde=&hasta= Obtener el
+     * historial de transacciones de una cuenta (rango de fechas opcional)
      */
     @GetMapping("/cuenta/{cuentaId}")
-    public ResponseEntity<?> obtenerHistorialCuenta(@PathVariable Long cuentaId) {
+    public ResponseEntity<?> obtenerHistorialCuenta(
+            @PathVariable Long cuentaId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta) {
         try {
-            List<Transaccion> transacciones = transaccionService.obtenerHistorialCuenta(cuentaId);
+            List<Transaccion> transacciones = transaccionService.obtenerHistorialCuenta(cuentaId, desde, hasta);
             return ResponseEntity.ok(transacciones);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(crearRespuestaError(e.getMessage()));
         }
     }
 
+    /**
+     * Respuesta 429 con Retry-After (en segundos, redondeado hacia arriba)
+     */
+    private ResponseEntity<Map<String, String>> respuestaLimiteExcedido(long esperaMs) {
+        long segundos = Math.max(1, (esperaMs + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(segundos))
+                .body(crearRespuestaError("Demasiadas solicitudes para la cuenta. Intente de nuevo en "
+                        + segundos + " segundo(s)"));
+    }
+
+    /**
+     * Error de control de fraude: incluye un código para distinguirlo de los
+     * demás errores de negocio
+     */
+    private Map<String, String> crearRespuestaFraude(String mensaje) {
+        Map<String, String> error = crearRespuestaError(mensaje);
+        error.put("codigo", "FRAUDE_VELOCIDAD");
+        return error;
+    }
+
     /**
      * Método auxiliar para crear respuestas de error consistentes
      */
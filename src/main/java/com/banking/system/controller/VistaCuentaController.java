@@ -0,0 +1,67 @@
+package com.banking.system.controller;
+
+import com.banking.system.entity.VistaCuenta;
+import com.banking.system.service.VistaCuentaService;
+import com.banking.system.service.VistaCuentaService.RetrasoVistas;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controlador REST de solo lectura sobre el modelo de lectura de cuentas
+ * (vistas_cuenta). Los datos pueden ir levemente atrasados respecto a
+ * /api/cuentas; el retraso se consulta en /api/vistas/retraso.
+ */
+@RestController
+@RequestMapping("/api/vistas")
+public class VistaCuentaController {
+
+    @Autowired
+    private VistaCuentaService vistaCuentaService;
+
+    /**
+     * GET /api/vistas/cuentas/{cuentaId} Vista de una cuenta (saldo, cliente,
+     * últimos movimientos y totales del mes)
+     */
+    @GetMapping("/cuentas/{cuentaId}")
+    public ResponseEntity<?> obtenerVista(@PathVariable Long cuentaId) {
+        try {
+            VistaCuenta vista = vistaCuentaService.obtenerVista(cuentaId);
+            return ResponseEntity.ok(vista);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(crearRespuestaError(e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /api/vistas/cuentas/cliente/{clienteId} Vistas de las cuentas de un
+     * cliente
+     */
+    @GetMapping("/cuentas/cliente/{clienteId}")
+    public ResponseEntity<List<VistaCuenta>> obtenerVistasPorCliente(@PathVariable Long clienteId) {
+        return ResponseEntity.ok(vistaCuentaService.obtenerVistasPorCliente(clienteId));
+    }
+
+    /**
+     * GET /api/vistas/retraso Retraso de réplica del modelo de lectura
+     */
+    @GetMapping("/retraso")
+    public ResponseEntity<RetrasoVistas> obtenerRetraso() {
+        return ResponseEntity.ok(vistaCuentaService.obtenerRetraso());
+    }
+
+    /**
+     * Método auxiliar para crear respuestas de error consistentes
+     */
+    private Map<String, String> crearRespuestaError(String mensaje) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", mensaje);
+        return error;
+    }
+}
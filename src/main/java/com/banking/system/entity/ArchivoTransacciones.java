@@ -0,0 +1,99 @@
+package com.banking.system.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad ArchivoTransacciones Registra un mes de transacciones que fue movido
+ * de la tabla transacciones a un archivo comprimido (almacenamiento frío)
+ */
+@Entity
+@Table(name = "archivos_transacciones")
+public class ArchivoTransacciones {
+
+    // Periodo archivado en formato yyyyMM (ej: 202501)
+    @Id
+    @Column(nullable = false)
+    private Integer periodo;
+
+    @Column(nullable = false, length = 500)
+    private String ruta;
+
+    @Column(name = "cantidad_transacciones", nullable = false)
+    private Long cantidadTransacciones;
+
+    @Column(name = "tamano_bytes", nullable = false)
+    private Long tamanoBytes;
+
+    @Column(name = "fecha_archivado", nullable = false)
+    private LocalDateTime fechaArchivado;
+
+    // ============================================
+    // CONSTRUCTORES
+    // ============================================
+    public ArchivoTransacciones() {
+    }
+
+    public ArchivoTransacciones(Integer periodo, String ruta, Long cantidadTransacciones, Long tamanoBytes) {
+        this.periodo = periodo;
+        this.ruta = ruta;
+        this.cantidadTransacciones = cantidadTransacciones;
+        this.tamanoBytes = tamanoBytes;
+        this.fechaArchivado = LocalDateTime.now();
+    }
+
+    // ============================================
+    // GETTERS Y SETTERS
+    // ============================================
+    public Integer getPeriodo() {
+        return periodo;
+    }
+
+    public void setPeriodo(Integer periodo) {
+        this.periodo = periodo;
+    }
+
+    public String getRuta() {
+        return ruta;
+    }
+
+    public void setRuta(String ruta) {
+        this.ruta = ruta;
+    }
+
+    public Long getCantidadTransacciones() {
+        return cantidadTransacciones;
+    }
+
+    public void setCantidadTransacciones(Long cantidadTransacciones) {
+        this.cantidadTransacciones = cantidadTransacciones;
+    }
+
+    public Long getTamanoBytes() {
+        return tamanoBytes;
+    }
+
+    public void setTamanoBytes(Long tamanoBytes) {
+        this.tamanoBytes = tamanoBytes;
+    }
+
+    public LocalDateTime getFechaArchivado() {
+        return fechaArchivado;
+    }
+
+    public void setFechaArchivado(LocalDateTime fechaArchivado) {
+        this.fechaArchivado = fechaArchivado;
+    }
+
+    @Override
+    public String toString() {
+        return "ArchivoTransacciones{"
+                + "periodo=" + periodo
+                + ", ruta='" + ruta + '\''
+                + ", cantidadTransacciones=" + cantidadTransacciones
+                + ", tamanoBytes=" + tamanoBytes
+                + ", fechaArchivado=" + fechaArchivado
+                + '}';
+    }
+}
@@ -0,0 +1,154 @@
+package com.banking.system.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Entidad CausacionInteres Registra cada ejecución del proceso nocturno de
+ * causación de intereses de cuentas de ahorro (una fila por fecha de corte)
+ */
+@Entity
+@Table(name = "causaciones_interes")
+public class CausacionInteres {
+
+    @Id
+    @Column(name = "fecha_corte", nullable = false)
+    private LocalDate fechaCorte;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EstadoCausacion estado;
+
+    @Column(name = "cuentas_procesadas", nullable = false)
+    private Long cuentasProcesadas = 0L;
+
+    @Column(name = "total_intereses", nullable = false, precision = 15, scale = 2)
+    private BigDecimal totalIntereses = BigDecimal.ZERO;
+
+    @Column(name = "lotes_fallidos", nullable = false)
+    private Integer lotesFallidos = 0;
+
+    @Column(name = "duracion_ms")
+    private Long duracionMs;
+
+    @Column(name = "fecha_inicio")
+    private LocalDateTime fechaInicio;
+
+    @Column(name = "fecha_fin")
+    private LocalDateTime fechaFin;
+
+    // ============================================
+    // ENUMS
+    // ============================================
+    public enum EstadoCausacion {
+        EN_PROCESO,
+        COMPLETADA,
+        CON_ERRORES
+    }
+
+    // ============================================
+    // CONSTRUCTORES
+    // ============================================
+    public CausacionInteres() {
+    }
+
+    public CausacionInteres(LocalDate fechaCorte) {
+        this.fechaCorte = fechaCorte;
+        this.estado = EstadoCausacion.EN_PROCESO;
+    }
+
+    // ============================================
+    // GETTERS Y SETTERS
+    // ============================================
+    public LocalDate getFechaCorte() {
+        return fechaCorte;
+    }
+
+    public void setFechaCorte(LocalDate fechaCorte) {
+        this.fechaCorte = fechaCorte;
+    }
+
+    public EstadoCausacion getEstado() {
+        return estado;
+    }
+
+    public void setEstado(EstadoCausacion estado) {
+        this.estado = estado;
+    }
+
+    public Long getCuentasProcesadas() {
+        return cuentasProcesadas;
+    }
+
+    public void setCuentasProcesadas(Long cuentasProcesadas) {
+        this.cuentasProcesadas = cuentasProcesadas;
+    }
+
+    public BigDecimal getTotalIntereses() {
+        return totalIntereses;
+    }
+
+    public void setTotalIntereses(BigDecimal totalIntereses) {
+        this.totalIntereses = totalIntereses;
+    }
+
+    public Integer getLotesFallidos() {
+        return lotesFallidos;
+    }
+
+    public void setLotesFallidos(Integer lotesFallidos) {
+        this.lotesFallidos = lotesFallidos;
+    }
+
+    public Long getDuracionMs() {
+        return duracionMs;
+    }
+
+    public void setDuracionMs(Long duracionMs) {
+        this.duracionMs = duracionMs;
+    }
+
+    public LocalDateTime getFechaInicio() {
+        return fechaInicio;
+    }
+
+    public void setFechaInicio(LocalDateTime fechaInicio) {
+        this.fechaInicio = fechaInicio;
+    }
+
+    public LocalDateTime getFechaFin() {
+        return fechaFin;
+    }
+
+    public void setFechaFin(LocalDateTime fechaFin) {
+        this.fechaFin = fechaFin;
+    }
+
+    // ============================================
+    // MÉTODOS DE NEGOCIO
+    // ============================================
+    /**
+     * Rendimiento de la última ejecución en cuentas por segundo
+     */
+    public double getCuentasPorSegundo() {
+        if (duracionMs == null || duracionMs == 0) {
+            return 0;
+        }
+        return cuentasProcesadas * 1000.0 / duracionMs;
+    }
+
+    @Override
+    public String toString() {
+        return "CausacionInteres{"
+                + "fechaCorte=" + fechaCorte
+                + ", estado=" + estado
+                + ", cuentasProcesadas=" + cuentasProcesadas
+                + ", totalIntereses=" + totalIntereses
+                + ", lotesFallidos=" + lotesFallidos
+                + ", duracionMs=" + duracionMs
+                + '}';
+    }
+}
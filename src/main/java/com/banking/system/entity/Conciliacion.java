@@ -0,0 +1,176 @@
+package com.banking.system.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad Conciliacion Registra cada ejecución de la conciliación de saldos
+ * contra el historial de transacciones
+ */
+@Entity
+@Table(name = "conciliaciones")
+public class Conciliacion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EstadoConciliacion estado;
+
+    @Column(name = "cuentas_revisadas", nullable = false)
+    private Long cuentasRevisadas = 0L;
+
+    @Column(name = "transacciones_revisadas", nullable = false)
+    private Long transaccionesRevisadas = 0L;
+
+    @Column(nullable = false)
+    private Long discrepancias = 0L;
+
+    @Column(name = "tramos_fallidos", nullable = false)
+    private Integer tramosFallidos = 0;
+
+    @Column
+    private Integer hilos;
+
+    @Column(name = "duracion_ms")
+    private Long duracionMs;
+
+    @Column(name = "fecha_inicio")
+    private LocalDateTime fechaInicio;
+
+    @Column(name = "fecha_fin")
+    private LocalDateTime fechaFin;
+
+    // ============================================
+    // ENUMS
+    // ============================================
+    public enum EstadoConciliacion {
+        EN_PROCESO,
+        CONCILIADA,
+        CON_DISCREPANCIAS,
+        CON_ERRORES
+    }
+
+    // ============================================
+    // CONSTRUCTORES
+    // ============================================
+    public Conciliacion() {
+    }
+
+    public Conciliacion(Integer hilos) {
+        this.hilos = hilos;
+        this.estado = EstadoConciliacion.EN_PROCESO;
+        this.fechaInicio = LocalDateTime.now();
+    }
+
+    // ============================================
+    // GETTERS Y SETTERS
+    // ============================================
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public EstadoConciliacion getEstado() {
+        return estado;
+    }
+
+    public void setEstado(EstadoConciliacion estado) {
+        this.estado = estado;
+    }
+
+    public Long getCuentasRevisadas() {
+        return cuentasRevisadas;
+    }
+
+    public void setCuentasRevisadas(Long cuentasRevisadas) {
+        this.cuentasRevisadas = cuentasRevisadas;
+    }
+
+    public Long getTransaccionesRevisadas() {
+        return transaccionesRevisadas;
+    }
+
+    public void setTransaccionesRevisadas(Long transaccionesRevisadas) {
+        this.transaccionesRevisadas = transaccionesRevisadas;
+    }
+
+    public Long getDiscrepancias() {
+        return discrepancias;
+    }
+
+    public void setDiscrepancias(Long discrepancias) {
+        this.discrepancias = discrepancias;
+    }
+
+    public Integer getTramosFallidos() {
+        return tramosFallidos;
+    }
+
+    public void setTramosFallidos(Integer tramosFallidos) {
+        this.tramosFallidos = tramosFallidos;
+    }
+
+    public Integer getHilos() {
+        return hilos;
+    }
+
+    public void setHilos(Integer hilos) {
+        this.hilos = hilos;
+    }
+
+    public Long getDuracionMs() {
+        return duracionMs;
+    }
+
+    public void setDuracionMs(Long duracionMs) {
+        this.duracionMs = duracionMs;
+    }
+
+    public LocalDateTime getFechaInicio() {
+        return fechaInicio;
+    }
+
+    public void setFechaInicio(LocalDateTime fechaInicio) {
+        this.fechaInicio = fechaInicio;
+    }
+
+    public LocalDateTime getFechaFin() {
+        return fechaFin;
+    }
+
+    public void setFechaFin(LocalDateTime fechaFin) {
+        this.fechaFin = fechaFin;
+    }
+
+    // ============================================
+    // MÉTODOS DE NEGOCIO
+    // ============================================
+    /**
+     * Rendimiento de la ejecución en transacciones revisadas por segundo
+     */
+    public double getTransaccionesPorSegundo() {
+        if (duracionMs == null || duracionMs == 0) {
+            return 0;
+        }
+        return transaccionesRevisadas * 1000.0 / duracionMs;
+    }
+
+    @Override
+    public String toString() {
+        return "Conciliacion{"
+                + "id=" + id
+                + ", estado=" + estado
+                + ", cuentasRevisadas=" + cuentasRevisadas
+                + ", transaccionesRevisadas=" + transaccionesRevisadas
+                + ", discrepancias=" + discrepancias
+                + ", duracionMs=" + duracionMs
+                + '}';
+    }
+}
@@ -3,10 +3,13 @@ package com.banking.system.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Formula;
 import org.hibernate.annotations.UpdateTimestamp;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 /**
@@ -39,6 +42,26 @@ public class Cuenta {
     @Column(nullable = false, precision = 15, scale = 2)
     private BigDecimal saldo;
 
+    // Cantidad de ranuras si la cuenta es caliente, nulo si no. Solo la
+    // escribe SubsaldoCuentaService por SQL: guardar la entidad no la pisa
+    @JsonIgnore
+    @Column(insertable = false, updatable = false)
+    private Integer ranuras;
+
+    // Suma de las ranuras, calculada al cargar la cuenta (la subconsulta solo
+    // corre en las calientes). Los movimientos y la consolidación solo
+    // modifican saldo
+    @Formula("(CASE WHEN ranuras IS NULL THEN 0 ELSE "
+            + "(SELECT COALESCE(SUM(s.saldo), 0) FROM subsaldos_cuenta s WHERE s.cuenta_id = id) END)")
+    private BigDecimal saldoRanuras;
+
+    // Saldo con el que se abrió la cuenta (no es una transacción); la
+    // conciliación verifica desde él la primera transacción. Nulo en las
+    // cuentas restauradas de un snapshot
+    @JsonIgnore
+    @Column(name = "saldo_apertura", precision = 15, scale = 2, updatable = false)
+    private BigDecimal saldoApertura;
+
     @NotNull(message = "El campo exenta GMF es obligatorio")
     @Column(name = "exenta_gmf", nullable = false)
     private Boolean exentaGMF;
@@ -51,6 +74,16 @@ public class Cuenta {
     @Column(name = "fecha_modificacion")
     private LocalDateTime fechaModificacion;
 
+    // Última fecha de corte en la que se causaron intereses (solo ahorro)
+    @Column(name = "fecha_ultima_causacion")
+    private LocalDate fechaUltimaCausacion;
+
+    // Bloqueo optimista: los UPDATE por JDBC también deben subirla
+    @Version
+    @JsonIgnore
+    @Column(nullable = false)
+    private Long version;
+
     // Relación con Cliente
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cliente_id", nullable = false)
@@ -122,14 +155,29 @@ public class Cuenta {
         this.estado = estado;
     }
 
+    /**
+     * Saldo total: el de la fila de la cuenta más lo abonado en sus ranuras
+     * pendiente de consolidar
+     */
     public BigDecimal getSaldo() {
-        return saldo;
+        if (saldo == null || saldoRanuras == null || saldoRanuras.signum() == 0) {
+            return saldo;
+        }
+        return saldo.add(saldoRanuras);
     }
 
     public void setSaldo(BigDecimal saldo) {
         this.saldo = saldo;
     }
 
+    public BigDecimal getSaldoApertura() {
+        return saldoApertura;
+    }
+
+    public void setSaldoApertura(BigDecimal saldoApertura) {
+        this.saldoApertura = saldoApertura;
+    }
+
     public Boolean getExentaGMF() {
         return exentaGMF;
     }
@@ -154,6 +202,22 @@ public class Cuenta {
         this.fechaModificacion = fechaModificacion;
     }
 
+    public LocalDate getFechaUltimaCausacion() {
+        return fechaUltimaCausacion;
+    }
+
+    public void setFechaUltimaCausacion(LocalDate fechaUltimaCausacion) {
+        this.fechaUltimaCausacion = fechaUltimaCausacion;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Cliente getCliente() {
         return cliente;
     }
@@ -166,10 +230,11 @@ public class Cuenta {
     // MÉTODOS DE NEGOCIO
     // ============================================
     /**
-     * Verifica si la cuenta puede ser cancelada (saldo = 0)
+     * Verifica si la cuenta puede ser cancelada (saldo = 0, contando las
+     * ranuras)
      */
     public boolean puedeSerCancelada() {
-        return saldo.compareTo(BigDecimal.ZERO) == 0;
+        return getSaldo().compareTo(BigDecimal.ZERO) == 0;
     }
 
     /**
@@ -203,6 +268,10 @@ public class Cuenta {
         if (monto.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("El monto debe ser mayor a cero");
         }
+        // Si no, la validación y el saldo posterior no contarían lo mismo
+        if (saldoRanuras != null && saldoRanuras.signum() != 0) {
+            throw new IllegalStateException("La cuenta caliente " + id + " debe consolidarse antes de un débito");
+        }
 
         BigDecimal nuevoSaldo = this.saldo.subtract(monto);
 
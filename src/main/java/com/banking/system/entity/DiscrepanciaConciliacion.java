@@ -0,0 +1,135 @@
+package com.banking.system.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Entidad DiscrepanciaConciliacion Una diferencia encontrada por la
+ * conciliación: un saldo posterior que no continúa la cadena o un saldo de
+ * cuenta que no coincide con su última transacción
+ */
+@Entity
+@Table(name = "discrepancias_conciliacion", indexes = {
+    @Index(name = "idx_discrepancias_conciliacion", columnList = "conciliacion_id, cuenta_id")
+})
+public class DiscrepanciaConciliacion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "conciliacion_id", nullable = false)
+    private Long conciliacionId;
+
+    @Column(name = "cuenta_id", nullable = false)
+    private Long cuentaId;
+
+    // Transacción donde se rompe la cadena (null si es el saldo de la cuenta)
+    @Column(name = "transaccion_id")
+    private Long transaccionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TipoDiscrepancia tipo;
+
+    @Column(name = "saldo_esperado", precision = 15, scale = 2)
+    private BigDecimal saldoEsperado;
+
+    @Column(name = "saldo_encontrado", precision = 15, scale = 2)
+    private BigDecimal saldoEncontrado;
+
+    // ============================================
+    // ENUMS
+    // ============================================
+    public enum TipoDiscrepancia {
+        CADENA_ROTA,
+        SALDO_DESCUADRADO
+    }
+
+    // ============================================
+    // CONSTRUCTORES
+    // ============================================
+    public DiscrepanciaConciliacion() {
+    }
+
+    public DiscrepanciaConciliacion(Long conciliacionId, Long cuentaId, Long transaccionId, TipoDiscrepancia tipo,
+            BigDecimal saldoEsperado, BigDecimal saldoEncontrado) {
+        this.conciliacionId = conciliacionId;
+        this.cuentaId = cuentaId;
+        this.transaccionId = transaccionId;
+        this.tipo = tipo;
+        this.saldoEsperado = saldoEsperado;
+        this.saldoEncontrado = saldoEncontrado;
+    }
+
+    // ============================================
+    // GETTERS Y SETTERS
+    // ============================================
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getConciliacionId() {
+        return conciliacionId;
+    }
+
+    public void setConciliacionId(Long conciliacionId) {
+        this.conciliacionId = conciliacionId;
+    }
+
+    public Long getCuentaId() {
+        return cuentaId;
+    }
+
+    public void setCuentaId(Long cuentaId) {
+        this.cuentaId = cuentaId;
+    }
+
+    public Long getTransaccionId() {
+        return transaccionId;
+    }
+
+    public void setTransaccionId(Long transaccionId) {
+        this.transaccionId = transaccionId;
+    }
+
+    public TipoDiscrepancia getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(TipoDiscrepancia tipo) {
+        this.tipo = tipo;
+    }
+
+    public BigDecimal getSaldoEsperado() {
+        return saldoEsperado;
+    }
+
+    public void setSaldoEsperado(BigDecimal saldoEsperado) {
+        this.saldoEsperado = saldoEsperado;
+    }
+
+    public BigDecimal getSaldoEncontrado() {
+        return saldoEncontrado;
+    }
+
+    public void setSaldoEncontrado(BigDecimal saldoEncontrado) {
+        this.saldoEncontrado = saldoEncontrado;
+    }
+
+    @Override
+    public String toString() {
+        return "DiscrepanciaConciliacion{"
+                + "cuentaId=" + cuentaId
+                + ", transaccionId=" + transaccionId
+                + ", tipo=" + tipo
+                + ", saldoEsperado=" + saldoEsperado
+                + ", saldoEncontrado=" + saldoEncontrado
+                + '}';
+    }
+}
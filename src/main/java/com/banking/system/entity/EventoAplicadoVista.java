@@ -0,0 +1,65 @@
+package com.banking.system.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad EventoAplicadoVista Registra cada evento de transacción que el
+ * modelo de lectura ya sumó a la vista de su cuenta, para reconocer las
+ * reentregas del outbox sin importar cuántos movimientos pasaron desde
+ * entonces. Se borra cuando el evento sale del outbox.
+ */
+@Entity
+@Table(name = "eventos_aplicados_vista")
+public class EventoAplicadoVista {
+
+    @Id
+    @Column(name = "evento_id", nullable = false)
+    private Long eventoId;
+
+    @Column(name = "cuenta_id", nullable = false)
+    private Long cuentaId;
+
+    @Column(name = "fecha_aplicacion", nullable = false)
+    private LocalDateTime fechaAplicacion;
+
+    // ============================================
+    // CONSTRUCTORES
+    // ============================================
+    public EventoAplicadoVista() {
+    }
+
+    public EventoAplicadoVista(Long eventoId, Long cuentaId) {
+        this.eventoId = eventoId;
+        this.cuentaId = cuentaId;
+        this.fechaAplicacion = LocalDateTime.now();
+    }
+
+    // ============================================
+    // GETTERS Y SETTERS
+    // ============================================
+    public Long getEventoId() {
+        return eventoId;
+    }
+
+    public void setEventoId(Long eventoId) {
+        this.eventoId = eventoId;
+    }
+
+    public Long getCuentaId() {
+        return cuentaId;
+    }
+
+    public void setCuentaId(Long cuentaId) {
+        this.cuentaId = cuentaId;
+    }
+
+    public LocalDateTime getFechaAplicacion() {
+        return fechaAplicacion;
+    }
+
+    public void setFechaAplicacion(LocalDateTime fechaAplicacion) {
+        this.fechaAplicacion = fechaAplicacion;
+    }
+}
@@ -0,0 +1,206 @@
+package com.banking.system.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entidad EventoOutbox Evento de dominio guardado en la misma transacción que
+ * el cambio que lo origina (patrón transactional outbox). El despachador los
+ * lee por lotes y los publica a los listeners registrados.
+ */
+@Entity
+@Table(name = "eventos_outbox", indexes = {
+    @Index(name = "idx_eventos_outbox_estado", columnList = "estado, id")
+})
+public class EventoOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo_evento", nullable = false, length = 30)
+    private TipoEvento tipoEvento;
+
+    @Column(name = "cuenta_id", nullable = false)
+    private Long cuentaId;
+
+    // Solo para eventos de transacción
+    @Column(name = "transaccion_id")
+    private Long transaccionId;
+
+    @Column(precision = 15, scale = 2)
+    private BigDecimal monto;
+
+    @Column(precision = 15, scale = 2)
+    private BigDecimal saldo;
+
+    // Tipo de transacción o nuevo estado de la cuenta, según el evento
+    @Column(length = 30)
+    private String detalle;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EstadoEvento estado = EstadoEvento.PENDIENTE;
+
+    @Column(nullable = false)
+    private Integer intentos = 0;
+
+    @CreationTimestamp
+    @Column(name = "fecha_creacion", nullable = false, updatable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_entrega")
+    private LocalDateTime fechaEntrega;
+
+    // Después de un fallo, el despacho no lo toma antes de esta fecha
+    @Column(name = "proximo_intento")
+    private LocalDateTime proximoIntento;
+
+    // ============================================
+    // ENUMS
+    // ============================================
+    public enum TipoEvento {
+        TRANSACCION_REGISTRADA,
+        CUENTA_CREADA,
+        CUENTA_ESTADO_CAMBIADO
+    }
+
+    public enum EstadoEvento {
+        PENDIENTE,
+        ENTREGADO,
+        FALLIDO
+    }
+
+    // ============================================
+    // CONSTRUCTORES
+    // ============================================
+    public EventoOutbox() {
+    }
+
+    public EventoOutbox(TipoEvento tipoEvento, Long cuentaId, Long transaccionId,
+            BigDecimal monto, BigDecimal saldo, String detalle) {
+        this.tipoEvento = tipoEvento;
+        this.cuentaId = cuentaId;
+        this.transaccionId = transaccionId;
+        this.monto = monto;
+        this.saldo = saldo;
+        this.detalle = detalle;
+    }
+
+    // ============================================
+    // GETTERS Y SETTERS
+    // ============================================
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public TipoEvento getTipoEvento() {
+        return tipoEvento;
+    }
+
+    public void setTipoEvento(TipoEvento tipoEvento) {
+        this.tipoEvento = tipoEvento;
+    }
+
+    public Long getCuentaId() {
+        return cuentaId;
+    }
+
+    public void setCuentaId(Long cuentaId) {
+        this.cuentaId = cuentaId;
+    }
+
+    public Long getTransaccionId() {
+        return transaccionId;
+    }
+
+    public void setTransaccionId(Long transaccionId) {
+        this.transaccionId = transaccionId;
+    }
+
+    public BigDecimal getMonto() {
+        return monto;
+    }
+
+    public void setMonto(BigDecimal monto) {
+        this.monto = monto;
+    }
+
+    public BigDecimal getSaldo() {
+        return saldo;
+    }
+
+    public void setSaldo(BigDecimal saldo) {
+        this.saldo = saldo;
+    }
+
+    public String getDetalle() {
+        return detalle;
+    }
+
+    public void setDetalle(String detalle) {
+        this.detalle = detalle;
+    }
+
+    public EstadoEvento getEstado() {
+        return estado;
+    }
+
+    public void setEstado(EstadoEvento estado) {
+        this.estado = estado;
+    }
+
+    public Integer getIntentos() {
+        return intentos;
+    }
+
+    public void setIntentos(Integer intentos) {
+        this.intentos = intentos;
+    }
+
+    public LocalDateTime getFechaCreacion() {
+        return fechaCreacion;
+    }
+
+    public void setFechaCreacion(LocalDateTime fechaCreacion) {
+        this.fechaCreacion = fechaCreacion;
+    }
+
+    public LocalDateTime getFechaEntrega() {
+        return fechaEntrega;
+    }
+
+    public void setFechaEntrega(LocalDateTime fechaEntrega) {
+        this.fechaEntrega = fechaEntrega;
+    }
+
+    public LocalDateTime getProximoIntento() {
+        return proximoIntento;
+    }
+
+    public void setProximoIntento(LocalDateTime proximoIntento) {
+        this.proximoIntento = proximoIntento;
+    }
+
+    @Override
+    public String toString() {
+        return "EventoOutbox{"
+                + "id=" + id
+                + ", tipoEvento=" + tipoEvento
+                + ", cuentaId=" + cuentaId
+                + ", transaccionId=" + transaccionId
+                + ", monto=" + monto
+                + ", saldo=" + saldo
+                + ", detalle='" + detalle + '\''
+                + ", estado=" + estado
+                + '}';
+    }
+}
@@ -0,0 +1,126 @@
+package com.banking.system.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Entidad ExencionGMF Guarda el monto exento de GMF (4x1000) que un cliente ha
+ * utilizado en un periodo (mes). Es el respaldo en BD de los contadores en
+ * memoria que mantiene GMFService.
+ */
+@Entity
+@Table(name = "exenciones_gmf")
+@IdClass(ExencionGMF.ExencionGMFId.class)
+public class ExencionGMF {
+
+    @Id
+    @Column(name = "cliente_id", nullable = false)
+    private Long clienteId;
+
+    // Periodo en formato yyyyMM (ej: 202610)
+    @Id
+    @Column(nullable = false)
+    private Integer periodo;
+
+    @Column(name = "monto_utilizado", nullable = false, precision = 15, scale = 2)
+    private BigDecimal montoUtilizado;
+
+    @Column(name = "fecha_modificacion")
+    private LocalDateTime fechaModificacion;
+
+    // ============================================
+    // CONSTRUCTORES
+    // ============================================
+    public ExencionGMF() {
+    }
+
+    public ExencionGMF(Long clienteId, Integer periodo, BigDecimal montoUtilizado) {
+        this.clienteId = clienteId;
+        this.periodo = periodo;
+        this.montoUtilizado = montoUtilizado;
+    }
+
+    // ============================================
+    // GETTERS Y SETTERS
+    // ============================================
+    public Long getClienteId() {
+        return clienteId;
+    }
+
+    public void setClienteId(Long clienteId) {
+        this.clienteId = clienteId;
+    }
+
+    public Integer getPeriodo() {
+        return periodo;
+    }
+
+    public void setPeriodo(Integer periodo) {
+        this.periodo = periodo;
+    }
+
+    public BigDecimal getMontoUtilizado() {
+        return montoUtilizado;
+    }
+
+    public void setMontoUtilizado(BigDecimal montoUtilizado) {
+        this.montoUtilizado = montoUtilizado;
+    }
+
+    public LocalDateTime getFechaModificacion() {
+        return fechaModificacion;
+    }
+
+    public void setFechaModificacion(LocalDateTime fechaModificacion) {
+        this.fechaModificacion = fechaModificacion;
+    }
+
+    // ============================================
+    // LLAVE COMPUESTA
+    // ============================================
+    public static class ExencionGMFId implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long clienteId;
+        private Integer periodo;
+
+        public ExencionGMFId() {
+        }
+
+        public ExencionGMFId(Long clienteId, Integer periodo) {
+            this.clienteId = clienteId;
+            this.periodo = periodo;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ExencionGMFId that = (ExencionGMFId) o;
+            return Objects.equals(clienteId, that.clienteId) && Objects.equals(periodo, that.periodo);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(clienteId, periodo);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ExencionGMF{"
+                + "clienteId=" + clienteId
+                + ", periodo=" + periodo
+                + ", montoUtilizado=" + montoUtilizado
+                + '}';
+    }
+}
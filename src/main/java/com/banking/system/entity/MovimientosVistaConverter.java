@@ -0,0 +1,47 @@
+package com.banking.system.entity;
+
+import com.banking.system.entity.VistaCuenta.MovimientoVista;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Guarda los últimos movimientos de la vista como JSON en una sola columna
+ */
+@Converter
+public class MovimientosVistaConverter implements AttributeConverter<List<MovimientoVista>, String> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private static final TypeReference<List<MovimientoVista>> TIPO = new TypeReference<>() {
+    };
+
+    @Override
+    public String convertToDatabaseColumn(List<MovimientoVista> movimientos) {
+        try {
+            return MAPPER.writeValueAsString(movimientos != null ? movimientos : List.of());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudieron serializar los movimientos de la vista", e);
+        }
+    }
+
+    @Override
+    public List<MovimientoVista> convertToEntityAttribute(String json) {
+        if (json == null || json.isBlank()) {
+            return new ArrayList<>();
+        }
+        try {
+            return MAPPER.readValue(json, TIPO);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudieron leer los movimientos de la vista", e);
+        }
+    }
+}
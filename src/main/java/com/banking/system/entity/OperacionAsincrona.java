@@ -0,0 +1,227 @@
+package com.banking.system.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Entidad OperacionAsincrona Transferencia aceptada con 202 y pendiente de
+ * ejecución. La tabla es la cola durable: los workers la leen por lotes y
+ * registran aquí el resultado.
+ */
+@Entity
+@Table(name = "operaciones_asincronas", indexes = {
+    @Index(name = "idx_operaciones_estado", columnList = "estado, id")
+})
+public class OperacionAsincrona {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cuenta_origen_id", nullable = false)
+    private Long cuentaOrigenId;
+
+    @Column(name = "cuenta_destino_id", nullable = false)
+    private Long cuentaDestinoId;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal monto;
+
+    @Column(length = 255)
+    private String descripcion;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EstadoOperacion estado = EstadoOperacion.PENDIENTE;
+
+    @Column(nullable = false)
+    private Integer intentos = 0;
+
+    // Motivo del rechazo o de la falla
+    @Column(length = 500)
+    private String error;
+
+    @Column(name = "transaccion_enviada_id")
+    private Long transaccionEnviadaId;
+
+    @Column(name = "transaccion_recibida_id")
+    private Long transaccionRecibidaId;
+
+    @CreationTimestamp
+    @Column(name = "fecha_creacion", nullable = false, updatable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_inicio")
+    private LocalDateTime fechaInicio;
+
+    @Column(name = "fecha_fin")
+    private LocalDateTime fechaFin;
+
+    // ============================================
+    // ENUMS
+    // ============================================
+    public enum EstadoOperacion {
+        PENDIENTE,
+        EN_PROCESO,
+        COMPLETADA,
+        RECHAZADA,
+        FALLIDA
+    }
+
+    // ============================================
+    // CONSTRUCTORES
+    // ============================================
+    public OperacionAsincrona() {
+    }
+
+    public OperacionAsincrona(Long cuentaOrigenId, Long cuentaDestinoId, BigDecimal monto, String descripcion) {
+        this.cuentaOrigenId = cuentaOrigenId;
+        this.cuentaDestinoId = cuentaDestinoId;
+        this.monto = monto;
+        this.descripcion = descripcion;
+    }
+
+    // ============================================
+    // GETTERS Y SETTERS
+    // ============================================
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getCuentaOrigenId() {
+        return cuentaOrigenId;
+    }
+
+    public void setCuentaOrigenId(Long cuentaOrigenId) {
+        this.cuentaOrigenId = cuentaOrigenId;
+    }
+
+    public Long getCuentaDestinoId() {
+        return cuentaDestinoId;
+    }
+
+    public void setCuentaDestinoId(Long cuentaDestinoId) {
+        this.cuentaDestinoId = cuentaDestinoId;
+    }
+
+    public BigDecimal getMonto() {
+        return monto;
+    }
+
+    public void setMonto(BigDecimal monto) {
+        this.monto = monto;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    public void setDescripcion(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    public EstadoOperacion getEstado() {
+        return estado;
+    }
+
+    public void setEstado(EstadoOperacion estado) {
+        this.estado = estado;
+    }
+
+    public Integer getIntentos() {
+        return intentos;
+    }
+
+    public void setIntentos(Integer intentos) {
+        this.intentos = intentos;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public Long getTransaccionEnviadaId() {
+        return transaccionEnviadaId;
+    }
+
+    public void setTransaccionEnviadaId(Long transaccionEnviadaId) {
+        this.transaccionEnviadaId = transaccionEnviadaId;
+    }
+
+    public Long getTransaccionRecibidaId() {
+        return transaccionRecibidaId;
+    }
+
+    public void setTransaccionRecibidaId(Long transaccionRecibidaId) {
+        this.transaccionRecibidaId = transaccionRecibidaId;
+    }
+
+    public LocalDateTime getFechaCreacion() {
+        return fechaCreacion;
+    }
+
+    public void setFechaCreacion(LocalDateTime fechaCreacion) {
+        this.fechaCreacion = fechaCreacion;
+    }
+
+    public LocalDateTime getFechaInicio() {
+        return fechaInicio;
+    }
+
+    public void setFechaInicio(LocalDateTime fechaInicio) {
+        this.fechaInicio = fechaInicio;
+    }
+
+    public LocalDateTime getFechaFin() {
+        return fechaFin;
+    }
+
+    public void setFechaFin(LocalDateTime fechaFin) {
+        this.fechaFin = fechaFin;
+    }
+
+    // ============================================
+    // MÉTODOS DE NEGOCIO
+    // ============================================
+
+    /**
+     * Latencia de extremo a extremo (aceptación a resultado), null si sigue en
+     * cola
+     */
+    public Long getLatenciaMs() {
+        if (fechaCreacion == null || fechaFin == null) {
+            return null;
+        }
+        return Duration.between(fechaCreacion, fechaFin).toMillis();
+    }
+
+    public boolean estaTerminada() {
+        return estado == EstadoOperacion.COMPLETADA
+                || estado == EstadoOperacion.RECHAZADA
+                || estado == EstadoOperacion.FALLIDA;
+    }
+
+    @Override
+    public String toString() {
+        return "OperacionAsincrona{"
+                + "id=" + id
+                + ", cuentaOrigenId=" + cuentaOrigenId
+                + ", cuentaDestinoId=" + cuentaDestinoId
+                + ", monto=" + monto
+                + ", estado=" + estado
+                + ", intentos=" + intentos
+                + '}';
+    }
+}
@@ -0,0 +1,101 @@
+package com.banking.system.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entidad SubsaldoCuenta Una ranura del saldo de una cuenta caliente (ej:
+ * cuenta recaudadora). Las consignaciones suman en una ranura al azar en vez
+ * de en la fila de la cuenta, así no compiten por el mismo bloqueo. El saldo
+ * real es el de la cuenta más la suma de sus ranuras.
+ */
+@Entity
+@Table(name = "subsaldos_cuenta", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_subsaldos_cuenta_ranura", columnNames = {"cuenta_id", "ranura"})
+})
+public class SubsaldoCuenta {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cuenta_id", nullable = false)
+    private Long cuentaId;
+
+    @Column(nullable = false)
+    private Integer ranura;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal saldo = BigDecimal.ZERO;
+
+    // Se actualiza en cada abono (entra en el ETag de la cuenta)
+    @Column(name = "fecha_modificacion", nullable = false)
+    private LocalDateTime fechaModificacion;
+
+    // ============================================
+    // CONSTRUCTORES
+    // ============================================
+    public SubsaldoCuenta() {
+    }
+
+    public SubsaldoCuenta(Long cuentaId, Integer ranura) {
+        this.cuentaId = cuentaId;
+        this.ranura = ranura;
+        this.fechaModificacion = LocalDateTime.now();
+    }
+
+    // ============================================
+    // GETTERS Y SETTERS
+    // ============================================
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getCuentaId() {
+        return cuentaId;
+    }
+
+    public void setCuentaId(Long cuentaId) {
+        this.cuentaId = cuentaId;
+    }
+
+    public Integer getRanura() {
+        return ranura;
+    }
+
+    public void setRanura(Integer ranura) {
+        this.ranura = ranura;
+    }
+
+    public BigDecimal getSaldo() {
+        return saldo;
+    }
+
+    public void setSaldo(BigDecimal saldo) {
+        this.saldo = saldo;
+    }
+
+    public LocalDateTime getFechaModificacion() {
+        return fechaModificacion;
+    }
+
+    public void setFechaModificacion(LocalDateTime fechaModificacion) {
+        this.fechaModificacion = fechaModificacion;
+    }
+
+    @Override
+    public String toString() {
+        return "SubsaldoCuenta{"
+                + "id=" + id
+                + ", cuentaId=" + cuentaId
+                + ", ranura=" + ranura
+                + ", saldo=" + saldo
+                + '}';
+    }
+}
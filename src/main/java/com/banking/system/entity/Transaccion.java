@@ -12,7 +12,9 @@ import java.time.LocalDateTime;
  * Entidad Transaccion Representa un movimiento financiero en una cuenta
  */
 @Entity
-@Table(name = "transacciones")
+@Table(name = "transacciones", indexes = {
+    @Index(name = "idx_transacciones_cuenta_fecha", columnList = "cuenta_origen_id, fecha_transaccion")
+})
 public class Transaccion {
 
     @Id
@@ -20,8 +22,9 @@ public class Transaccion {
     private Long id;
 
     @NotNull(message = "El tipo de transacción es obligatorio")
+    // 30: TRANSFERENCIA_ENVIADA no cabe en 20; ddl-auto=update no amplía la columna
     @Enumerated(EnumType.STRING)
-    @Column(name = "tipo_transaccion", nullable = false, length = 20)
+    @Column(name = "tipo_transaccion", nullable = false, length = 30)
     private TipoTransaccion tipoTransaccion;
 
     @NotNull(message = "El monto es obligatorio")
@@ -59,7 +62,16 @@ public class Transaccion {
         CONSIGNACION,
         RETIRO,
         TRANSFERENCIA_ENVIADA,
-        TRANSFERENCIA_RECIBIDA
+        TRANSFERENCIA_RECIBIDA,
+        GMF,
+        INTERES;
+
+        /**
+         * Indica si la transacción suma al saldo de su cuenta
+         */
+        public boolean esCredito() {
+            return this == CONSIGNACION || this == TRANSFERENCIA_RECIBIDA || this == INTERES;
+        }
     }
 
     // ============================================
@@ -0,0 +1,258 @@
+package com.banking.system.entity;
+
+import com.banking.system.entity.Cuenta.EstadoCuenta;
+import com.banking.system.entity.Cuenta.TipoCuenta;
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Entidad VistaCuenta Modelo de lectura desnormalizado (CQRS) con una fila por
+ * cuenta. Se actualiza de forma asíncrona a partir de los eventos del outbox,
+ * así las consultas no tocan las tablas que bloquea el camino de escritura.
+ */
+@Entity
+@Table(name = "vistas_cuenta", indexes = {
+    @Index(name = "idx_vistas_cuenta_cliente", columnList = "cliente_id")
+})
+public class VistaCuenta {
+
+    @Id
+    @Column(name = "cuenta_id")
+    private Long cuentaId;
+
+    @Column(name = "numero_cuenta", length = 10)
+    private String numeroCuenta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo_cuenta", length = 20)
+    private TipoCuenta tipoCuenta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private EstadoCuenta estado;
+
+    @Column(name = "cliente_id")
+    private Long clienteId;
+
+    @Column(name = "nombre_cliente", length = 120)
+    private String nombreCliente;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal saldo = BigDecimal.ZERO;
+
+    // Mes de los totales (yyyyMM)
+    @Column
+    private Integer periodo;
+
+    @Column(name = "creditos_mes", nullable = false, precision = 15, scale = 2)
+    private BigDecimal creditosMes = BigDecimal.ZERO;
+
+    @Column(name = "debitos_mes", nullable = false, precision = 15, scale = 2)
+    private BigDecimal debitosMes = BigDecimal.ZERO;
+
+    @Column(name = "movimientos_mes", nullable = false)
+    private Long movimientosMes = 0L;
+
+    // Últimos movimientos, del más reciente al más antiguo
+    @Convert(converter = MovimientosVistaConverter.class)
+    @Column(name = "ultimos_movimientos", length = 4000)
+    private List<MovimientoVista> ultimosMovimientos = new ArrayList<>();
+
+    // ID del evento más reciente aplicado (el saldo sale de ese evento)
+    @Column(name = "ultimo_evento_id")
+    private Long ultimoEventoId;
+
+    // Fecha en que se creó ese evento en el outbox
+    @Column(name = "fecha_ultimo_evento")
+    private LocalDateTime fechaUltimoEvento;
+
+    @Column(name = "fecha_actualizacion")
+    private LocalDateTime fechaActualizacion;
+
+    /**
+     * Movimiento resumido dentro de la vista
+     */
+    public record MovimientoVista(Long eventoId, Long transaccionId, String tipo,
+            BigDecimal monto, BigDecimal saldo, LocalDateTime fecha) {
+    }
+
+    // ============================================
+    // CONSTRUCTORES
+    // ============================================
+    public VistaCuenta() {
+    }
+
+    public VistaCuenta(Long cuentaId) {
+        this.cuentaId = cuentaId;
+    }
+
+    // ============================================
+    // GETTERS Y SETTERS
+    // ============================================
+    public Long getCuentaId() {
+        return cuentaId;
+    }
+
+    public void setCuentaId(Long cuentaId) {
+        this.cuentaId = cuentaId;
+    }
+
+    public String getNumeroCuenta() {
+        return numeroCuenta;
+    }
+
+    public void setNumeroCuenta(String numeroCuenta) {
+        this.numeroCuenta = numeroCuenta;
+    }
+
+    public TipoCuenta getTipoCuenta() {
+        return tipoCuenta;
+    }
+
+    public void setTipoCuenta(TipoCuenta tipoCuenta) {
+        this.tipoCuenta = tipoCuenta;
+    }
+
+    public EstadoCuenta getEstado() {
+        return estado;
+    }
+
+    public void setEstado(EstadoCuenta estado) {
+        this.estado = estado;
+    }
+
+    public Long getClienteId() {
+        return clienteId;
+    }
+
+    public void setClienteId(Long clienteId) {
+        this.clienteId = clienteId;
+    }
+
+    public String getNombreCliente() {
+        return nombreCliente;
+    }
+
+    public void setNombreCliente(String nombreCliente) {
+        this.nombreCliente = nombreCliente;
+    }
+
+    public BigDecimal getSaldo() {
+        return saldo;
+    }
+
+    public void setSaldo(BigDecimal saldo) {
+        this.saldo = saldo;
+    }
+
+    public Integer getPeriodo() {
+        return periodo;
+    }
+
+    public void setPeriodo(Integer periodo) {
+        this.periodo = periodo;
+    }
+
+    public BigDecimal getCreditosMes() {
+        return creditosMes;
+    }
+
+    public void setCreditosMes(BigDecimal creditosMes) {
+        this.creditosMes = creditosMes;
+    }
+
+    public BigDecimal getDebitosMes() {
+        return debitosMes;
+    }
+
+    public void setDebitosMes(BigDecimal debitosMes) {
+        this.debitosMes = debitosMes;
+    }
+
+    public Long getMovimientosMes() {
+        return movimientosMes;
+    }
+
+    public void setMovimientosMes(Long movimientosMes) {
+        this.movimientosMes = movimientosMes;
+    }
+
+    public List<MovimientoVista> getUltimosMovimientos() {
+        return ultimosMovimientos;
+    }
+
+    public void setUltimosMovimientos(List<MovimientoVista> ultimosMovimientos) {
+        this.ultimosMovimientos = ultimosMovimientos;
+    }
+
+    public Long getUltimoEventoId() {
+        return ultimoEventoId;
+    }
+
+    public void setUltimoEventoId(Long ultimoEventoId) {
+        this.ultimoEventoId = ultimoEventoId;
+    }
+
+    public LocalDateTime getFechaUltimoEvento() {
+        return fechaUltimoEvento;
+    }
+
+    public void setFechaUltimoEvento(LocalDateTime fechaUltimoEvento) {
+        this.fechaUltimoEvento = fechaUltimoEvento;
+    }
+
+    public LocalDateTime getFechaActualizacion() {
+        return fechaActualizacion;
+    }
+
+    public void setFechaActualizacion(LocalDateTime fechaActualizacion) {
+        this.fechaActualizacion = fechaActualizacion;
+    }
+
+    // ============================================
+    // MÉTODOS DE NEGOCIO
+    // ============================================
+
+    /**
+     * Agrega un movimiento a los totales del mes y a la lista de últimos
+     * movimientos. Los eventos pueden llegar desordenados entre hilos del
+     * despachador, por eso la lista se ordena por ID de evento.
+     */
+    public void registrarMovimiento(MovimientoVista movimiento, boolean credito, int periodoMovimiento, int maximo) {
+        if (periodo == null || periodoMovimiento > periodo) {
+            periodo = periodoMovimiento;
+            creditosMes = BigDecimal.ZERO;
+            debitosMes = BigDecimal.ZERO;
+            movimientosMes = 0L;
+        }
+        if (periodoMovimiento == periodo) {
+            if (credito) {
+                creditosMes = creditosMes.add(movimiento.monto());
+            } else {
+                debitosMes = debitosMes.add(movimiento.monto());
+            }
+            movimientosMes++;
+        }
+
+        List<MovimientoVista> movimientos = new ArrayList<>(ultimosMovimientos);
+        movimientos.add(movimiento);
+        movimientos.sort(Comparator.comparing(MovimientoVista::eventoId).reversed());
+        ultimosMovimientos = movimientos.size() > maximo ? new ArrayList<>(movimientos.subList(0, maximo)) : movimientos;
+    }
+
+    @Override
+    public String toString() {
+        return "VistaCuenta{"
+                + "cuentaId=" + cuentaId
+                + ", numeroCuenta='" + numeroCuenta + '\''
+                + ", saldo=" + saldo
+                + ", periodo=" + periodo
+                + ", ultimoEventoId=" + ultimoEventoId
+                + '}';
+    }
+}
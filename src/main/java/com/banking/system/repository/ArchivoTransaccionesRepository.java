@@ -0,0 +1,19 @@
+package com.banking.system.repository;
+
+import com.banking.system.entity.ArchivoTransacciones;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repositorio para acceder a los meses de transacciones archivados
+ */
+@Repository
+public interface ArchivoTransaccionesRepository extends JpaRepository<ArchivoTransacciones, Integer> {
+
+    /**
+     * Meses archivados dentro de un rango de periodos (yyyyMM, inclusivo)
+     */
+    List<ArchivoTransacciones> findByPeriodoBetweenOrderByPeriodoAsc(Integer desde, Integer hasta);
+}
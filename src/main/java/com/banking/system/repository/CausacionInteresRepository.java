@@ -0,0 +1,30 @@
+package com.banking.system.repository;
+
+import com.banking.system.entity.CausacionInteres;
+import com.banking.system.entity.CausacionInteres.EstadoCausacion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+/**
+ * Repositorio para acceder a las ejecuciones de causación de intereses
+ */
+@Repository
+public interface CausacionInteresRepository extends JpaRepository<CausacionInteres, LocalDate> {
+
+    /**
+     * Fecha de corte más reciente en un estado (ej: la última completada,
+     * para recuperar los días que no corrieron)
+     */
+    @Query("SELECT MAX(c.fechaCorte) FROM CausacionInteres c WHERE c.estado = ?1")
+    LocalDate findFechaCorteMasRecienteByEstado(EstadoCausacion estado);
+
+    /**
+     * Fecha de corte más antigua que no está en un estado (ej: la primera
+     * causación sin completar cuando todavía no hay ninguna completada)
+     */
+    @Query("SELECT MIN(c.fechaCorte) FROM CausacionInteres c WHERE c.estado <> ?1")
+    LocalDate findFechaCorteMasAntiguaByEstadoNot(EstadoCausacion estado);
+}
@@ -2,9 +2,11 @@ package com.banking.system.repository;
 
 import com.banking.system.entity.Cliente;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 /**
@@ -12,7 +14,7 @@ import java.util.Optional;
  * automáticos como save(), findById(), findAll(), delete()
  */
 @Repository
-public interface ClienteRepository extends JpaRepository<Cliente, Long> {
+public interface ClienteRepository extends JpaRepository<Cliente, Long>, JpaSpecificationExecutor<Cliente> {
 
     /**
      * Busca un cliente por su número de identificación
@@ -50,4 +52,10 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
     @Query("SELECT CASE WHEN COUNT(c) > 0 THEN true ELSE false END FROM Cliente c "
             + "WHERE c.numeroIdentificacion = ?1 AND c.id != ?2")
     boolean existsByNumeroIdentificacionAndIdNot(String numeroIdentificacion, Long id);
+
+    /**
+     * Fecha de la última modificación de un cliente, sin cargarlo (para ETag)
+     */
+    @Query("SELECT COALESCE(c.fechaModificacion, c.fechaCreacion) FROM Cliente c WHERE c.id = ?1")
+    Optional<LocalDateTime> findModificacionById(Long id);
 }
@@ -0,0 +1,12 @@
+package com.banking.system.repository;
+
+import com.banking.system.entity.Conciliacion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositorio para acceder a las ejecuciones de la conciliación
+ */
+@Repository
+public interface ConciliacionRepository extends JpaRepository<Conciliacion, Long> {
+}
@@ -2,10 +2,15 @@ package com.banking.system.repository;
 
 import com.banking.system.entity.Cuenta;
 import com.banking.system.entity.Cuenta.TipoCuenta;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,7 +18,35 @@ import java.util.Optional;
  * Repositorio para acceder a los datos de Cuenta
  */
 @Repository
-public interface CuentaRepository extends JpaRepository<Cuenta, Long> {
+public interface CuentaRepository extends JpaRepository<Cuenta, Long>, JpaSpecificationExecutor<Cuenta> {
+
+    /**
+     * Lo mínimo para saber si cambió un grupo de cuentas (o su cliente) sin
+     * cargarlas: cantidad, ID más alto y fechas de modificación más recientes
+     */
+    interface HuellaCuentas {
+        Long getCantidad();
+
+        Long getMaximoId();
+
+        LocalDateTime getModificacionCuentas();
+
+        LocalDateTime getModificacionCliente();
+
+        // Último abono y saldo en ranuras (null si ninguna cuenta es caliente).
+        // La suma cubre los abonos que confirman en desorden con su fecha
+        LocalDateTime getModificacionRanuras();
+
+        BigDecimal getSaldoRanuras();
+    }
+
+    /**
+     * Busca una cuenta bloqueando su fila hasta el fin de la transacción
+     * (SELECT ... FOR UPDATE), para el modo de concurrencia pesimista
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Cuenta c WHERE c.id = ?1")
+    Optional<Cuenta> findByIdParaActualizar(Long id);
 
     /**
      * Busca una cuenta por su número
@@ -46,4 +79,28 @@ public interface CuentaRepository extends JpaRepository<Cuenta, Long> {
      * Cuenta cuántas cuentas tiene un cliente
      */
     long countByClienteId(Long clienteId);
+
+    /**
+     * Huella de una cuenta (para ETag)
+     */
+    @Query("SELECT COUNT(c) AS cantidad, MAX(c.id) AS maximoId, "
+            + "MAX(COALESCE(c.fechaModificacion, c.fechaCreacion)) AS modificacionCuentas, "
+            + "MAX(COALESCE(cl.fechaModificacion, cl.fechaCreacion)) AS modificacionCliente, "
+            + "(SELECT MAX(s.fechaModificacion) FROM SubsaldoCuenta s WHERE s.cuentaId = ?1) AS modificacionRanuras, "
+            + "(SELECT SUM(s.saldo) FROM SubsaldoCuenta s WHERE s.cuentaId = ?1) AS saldoRanuras "
+            + "FROM Cuenta c JOIN c.cliente cl WHERE c.id = ?1")
+    HuellaCuentas findHuellaById(Long id);
+
+    /**
+     * Huella de las cuentas de un cliente (para ETag)
+     */
+    @Query("SELECT COUNT(c) AS cantidad, MAX(c.id) AS maximoId, "
+            + "MAX(COALESCE(c.fechaModificacion, c.fechaCreacion)) AS modificacionCuentas, "
+            + "MAX(COALESCE(cl.fechaModificacion, cl.fechaCreacion)) AS modificacionCliente, "
+            + "(SELECT MAX(s.fechaModificacion) FROM SubsaldoCuenta s "
+            + "WHERE s.cuentaId IN (SELECT c2.id FROM Cuenta c2 WHERE c2.cliente.id = ?1)) AS modificacionRanuras, "
+            + "(SELECT SUM(s.saldo) FROM SubsaldoCuenta s "
+            + "WHERE s.cuentaId IN (SELECT c2.id FROM Cuenta c2 WHERE c2.cliente.id = ?1)) AS saldoRanuras "
+            + "FROM Cuenta c JOIN c.cliente cl WHERE cl.id = ?1")
+    HuellaCuentas findHuellaByClienteId(Long clienteId);
 }
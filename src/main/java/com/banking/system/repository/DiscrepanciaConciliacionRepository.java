@@ -0,0 +1,19 @@
+package com.banking.system.repository;
+
+import com.banking.system.entity.DiscrepanciaConciliacion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repositorio para acceder al reporte de discrepancias de la conciliación
+ */
+@Repository
+public interface DiscrepanciaConciliacionRepository extends JpaRepository<DiscrepanciaConciliacion, Long> {
+
+    /**
+     * Discrepancias de una ejecución, ordenadas por cuenta
+     */
+    List<DiscrepanciaConciliacion> findByConciliacionIdOrderByCuentaIdAscIdAsc(Long conciliacionId);
+}
@@ -0,0 +1,99 @@
+package com.banking.system.repository;
+
+import com.banking.system.entity.Cliente;
+import com.banking.system.entity.Cuenta;
+import com.banking.system.entity.Cuenta.EstadoCuenta;
+import com.banking.system.entity.Cuenta.TipoCuenta;
+import com.banking.system.entity.Transaccion;
+import com.banking.system.entity.Transaccion.TipoTransaccion;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Filtros de los listados de clientes, cuentas y transacciones. Cada filtro
+ * nulo se omite, así que el WHERE solo lleva lo que se pidió y lo resuelve
+ * la base de datos.
+ */
+public final class EspecificacionesListado {
+
+    private EspecificacionesListado() {
+    }
+
+    /**
+     * Clientes creados en el rango (extremos opcionales e incluidos)
+     */
+    public static Specification<Cliente> clientes(LocalDateTime creadoDesde, LocalDateTime creadoHasta) {
+        return Specification.where(EspecificacionesListado.<Cliente, LocalDateTime>entre("fechaCreacion", creadoDesde, creadoHasta));
+    }
+
+    /**
+     * Cuentas por estado, tipo y rango de saldo. El saldo incluye lo abonado
+     * en ranuras de las cuentas calientes que aún no se ha consolidado.
+     */
+    public static Specification<Cuenta> cuentas(EstadoCuenta estado, TipoCuenta tipoCuenta,
+                                                BigDecimal saldoMinimo, BigDecimal saldoMaximo) {
+        Specification<Cuenta> saldo = saldoMinimo == null && saldoMaximo == null ? null
+                : (raiz, consulta, cb) -> rango(cb, cb.sum(raiz.<BigDecimal>get("saldo"),
+                        raiz.<BigDecimal>get("saldoRanuras")), saldoMinimo, saldoMaximo);
+        return Specification.where(EspecificacionesListado.<Cuenta>igual("estado", estado))
+                .and(igual("tipoCuenta", tipoCuenta))
+                .and(saldo);
+    }
+
+    /**
+     * Transacciones por tipo, rango de fechas y rango de monto
+     */
+    public static Specification<Transaccion> transacciones(TipoTransaccion tipo, LocalDateTime desde,
+                                                           LocalDateTime hasta, BigDecimal montoMinimo,
+                                                           BigDecimal montoMaximo) {
+        return Specification.where(EspecificacionesListado.<Transaccion>igual("tipoTransaccion", tipo))
+                .and(entre("fechaTransaccion", desde, hasta))
+                .and(entre("monto", montoMinimo, montoMaximo));
+    }
+
+    /**
+     * Ejecuta el listado. Con contar=true devuelve un Page con el total
+     * (SELECT COUNT(*) aparte); si no, pide una fila de más para saber si hay
+     * página siguiente y se ahorra el conteo, que en tablas grandes cuesta
+     * más que la página misma.
+     */
+    public static <T> Slice<T> listar(JpaSpecificationExecutor<T> repositorio, Specification<T> filtro,
+                                      Pageable pagina, boolean contar) {
+        if (contar) {
+            return repositorio.findAll(filtro, pagina);
+        }
+        Window<T> ventana = repositorio.findBy(filtro, consulta -> consulta
+                .sortBy(pagina.getSort())
+                .limit(pagina.getPageSize())
+                .scroll(ScrollPosition.offset(pagina.getOffset())));
+        return new SliceImpl<>(ventana.getContent(), pagina, ventana.hasNext());
+    }
+
+    private static <T> Specification<T> igual(String atributo, Object valor) {
+        return valor == null ? null : (raiz, consulta, cb) -> cb.equal(raiz.get(atributo), valor);
+    }
+
+    private static <T, V extends Comparable<? super V>> Specification<T> entre(String atributo, V desde, V hasta) {
+        return desde == null && hasta == null ? null
+                : (raiz, consulta, cb) -> rango(cb, raiz.<V>get(atributo), desde, hasta);
+    }
+
+    private static <V extends Comparable<? super V>> Predicate rango(CriteriaBuilder cb, Expression<? extends V> valor,
+                                                                     V desde, V hasta) {
+        if (desde != null && hasta != null) {
+            return cb.between(valor, desde, hasta);
+        }
+        return desde != null ? cb.greaterThanOrEqualTo(valor, desde) : cb.lessThanOrEqualTo(valor, hasta);
+    }
+}
@@ -0,0 +1,28 @@
+package com.banking.system.repository;
+
+import com.banking.system.entity.EventoOutbox;
+import com.banking.system.entity.EventoOutbox.EstadoEvento;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repositorio para acceder a los eventos del outbox
+ */
+@Repository
+public interface EventoOutboxRepository extends JpaRepository<EventoOutbox, Long> {
+
+    /**
+     * Cantidad de eventos en un estado (ej: pendientes por despachar)
+     */
+    long countByEstado(EstadoEvento estado);
+
+    /**
+     * Fecha de creación del evento pendiente más antiguo (para medir el
+     * retraso del despacho)
+     */
+    @Query("SELECT MIN(e.fechaCreacion) FROM EventoOutbox e WHERE e.estado = ?1")
+    LocalDateTime findFechaCreacionMasAntiguaByEstado(EstadoEvento estado);
+}
@@ -0,0 +1,13 @@
+package com.banking.system.repository;
+
+import com.banking.system.entity.ExencionGMF;
+import com.banking.system.entity.ExencionGMF.ExencionGMFId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositorio para acceder al consumo mensual de exención GMF por cliente
+ */
+@Repository
+public interface ExencionGMFRepository extends JpaRepository<ExencionGMF, ExencionGMFId> {
+}
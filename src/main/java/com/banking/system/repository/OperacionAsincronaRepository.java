@@ -0,0 +1,18 @@
+package com.banking.system.repository;
+
+import com.banking.system.entity.OperacionAsincrona;
+import com.banking.system.entity.OperacionAsincrona.EstadoOperacion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositorio para acceder a las operaciones asíncronas
+ */
+@Repository
+public interface OperacionAsincronaRepository extends JpaRepository<OperacionAsincrona, Long> {
+
+    /**
+     * Cantidad de operaciones en un estado (ej: profundidad de la cola)
+     */
+    long countByEstado(EstadoOperacion estado);
+}
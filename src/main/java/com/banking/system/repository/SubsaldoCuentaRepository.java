@@ -0,0 +1,24 @@
+package com.banking.system.repository;
+
+import com.banking.system.entity.SubsaldoCuenta;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repositorio para acceder a las ranuras de saldo de las cuentas calientes
+ */
+@Repository
+public interface SubsaldoCuentaRepository extends JpaRepository<SubsaldoCuenta, Long> {
+
+    /**
+     * Ranuras de una cuenta en orden
+     */
+    List<SubsaldoCuenta> findByCuentaIdOrderByRanuraAsc(Long cuentaId);
+
+    /**
+     * Cuántas ranuras tiene una cuenta
+     */
+    long countByCuentaId(Long cuentaId);
+}
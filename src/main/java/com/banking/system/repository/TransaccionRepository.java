@@ -2,16 +2,18 @@ package com.banking.system.repository;
 
 import com.banking.system.entity.Transaccion;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
  * Repositorio para acceder a los datos de Transaccion
  */
 @Repository
-public interface TransaccionRepository extends JpaRepository<Transaccion, Long> {
+public interface TransaccionRepository extends JpaRepository<Transaccion, Long>, JpaSpecificationExecutor<Transaccion> {
 
     /**
      * Obtener todas las transacciones de una cuenta (como origen) Ordenadas por
@@ -27,6 +29,13 @@ public interface TransaccionRepository extends JpaRepository<Transaccion, Long>
             + "ORDER BY t.fechaTransaccion DESC")
     List<Transaccion> findAllByCuentaId(Long cuentaId);
 
+    /**
+     * Historial de una cuenta (como origen o destino) entre dos fechas
+     */
+    @Query("SELECT t FROM Transaccion t WHERE (t.cuentaOrigen.id = ?1 OR t.cuentaDestino.id = ?1) "
+            + "AND t.fechaTransaccion BETWEEN ?2 AND ?3 ORDER BY t.fechaTransaccion DESC")
+    List<Transaccion> findAllByCuentaIdAndFechaBetween(Long cuentaId, LocalDateTime desde, LocalDateTime hasta);
+
     /**
      * Obtener transacciones por tipo
      */
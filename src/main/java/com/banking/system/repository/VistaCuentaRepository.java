@@ -0,0 +1,31 @@
+package com.banking.system.repository;
+
+import com.banking.system.entity.VistaCuenta;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositorio del modelo de lectura de cuentas
+ */
+@Repository
+public interface VistaCuentaRepository extends JpaRepository<VistaCuenta, Long> {
+
+    /**
+     * Vistas de todas las cuentas de un cliente
+     */
+    List<VistaCuenta> findByClienteIdOrderByCuentaIdAsc(Long clienteId);
+
+    /**
+     * Vista bloqueada para actualizarla (varios hilos del despachador pueden
+     * traer eventos de la misma cuenta)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM VistaCuenta v WHERE v.cuentaId = ?1")
+    Optional<VistaCuenta> findParaActualizar(Long cuentaId);
+}
@@ -0,0 +1,304 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.ArchivoTransacciones;
+import com.banking.system.entity.Transaccion;
+import com.banking.system.entity.Transaccion.TipoTransaccion;
+import com.banking.system.repository.ArchivoTransaccionesRepository;
+import com.banking.system.repository.CuentaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Servicio de Archivo de Transacciones (almacenamiento frío).
+ *
+ * Las transacciones se manejan por mes (partición lógica por
+ * fecha_transaccion). Los meses más antiguos que la retención se exportan a un
+ * archivo binario comprimido (gzip) por mes, se registran en
+ * archivos_transacciones y se borran de la BD por lotes. TransaccionService usa
+ * este servicio para completar los historiales que abarcan meses archivados.
+ *
+ * Nota: la retención debe cubrir la ventana de inactividad
+ * (banking.inactividad.dias), porque el barrido de inactividad solo mira la BD.
+ */
+@Service
+public class ArchivoTransaccionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchivoTransaccionService.class);
+
+    private static final int MAGIC = 0x54524E41; // "TRNA"
+    private static final int VERSION = 1;
+
+    private static final String SQL_FECHA_MAS_ANTIGUA = "SELECT MIN(fecha_transaccion) FROM transacciones";
+
+    private static final String SQL_EXPORTAR_MES = "SELECT id, tipo_transaccion, monto, descripcion, fecha_transaccion, "
+            + "cuenta_origen_id, cuenta_destino_id, saldo_posterior FROM transacciones "
+            + "WHERE fecha_transaccion >= ? AND fecha_transaccion < ? ORDER BY id";
+
+    private static final String SQL_BORRAR_LOTE = "DELETE FROM transacciones "
+            + "WHERE id >= ? AND id < ? AND fecha_transaccion >= ? AND fecha_transaccion < ?";
+
+    @Autowired
+    private ArchivoTransaccionesRepository archivoTransaccionesRepository;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${banking.archivo.directorio:archivo-transacciones}")
+    private String directorio;
+
+    // Meses que se conservan en la BD (incluyendo el actual)
+    @Value("${banking.archivo.meses-retencion:13}")
+    private int mesesRetencion;
+
+    @Value("${banking.archivo.tamano-lote-borrado:10000}")
+    private int tamanoLoteBorrado;
+
+    /**
+     * Archiva todos los meses que quedaron fuera de la retención
+     *
+     * @return meses archivados en esta ejecución
+     */
+    @Scheduled(cron = "${banking.archivo.cron:0 0 3 1 * *}")
+    public synchronized List<ArchivoTransacciones> archivarMesesVencidos() {
+        List<ArchivoTransacciones> archivados = new ArrayList<>();
+        YearMonth limite = YearMonth.now().minusMonths(mesesRetencion - 1L);
+
+        // Se salta directo al siguiente mes con datos (los meses vacíos no generan archivo)
+        Timestamp masAntigua = jdbcTemplate.queryForObject(SQL_FECHA_MAS_ANTIGUA, Timestamp.class);
+        while (masAntigua != null && YearMonth.from(masAntigua.toLocalDateTime()).isBefore(limite)) {
+            archivados.add(archivarMes(YearMonth.from(masAntigua.toLocalDateTime())));
+            masAntigua = jdbcTemplate.queryForObject(SQL_FECHA_MAS_ANTIGUA, Timestamp.class);
+        }
+        return archivados;
+    }
+
+    /**
+     * Exporta un mes al archivo comprimido y lo borra de la BD. Si el mes ya
+     * estaba registrado solo termina el borrado (reanudable).
+     */
+    public ArchivoTransacciones archivarMes(YearMonth mes) {
+        if (!mes.isBefore(YearMonth.now().minusMonths(mesesRetencion - 1L))) {
+            throw new IllegalArgumentException("El mes " + mes + " aún está dentro de la retención");
+        }
+
+        int periodo = aPeriodo(mes);
+        Timestamp desde = Timestamp.valueOf(mes.atDay(1).atStartOfDay());
+        Timestamp hasta = Timestamp.valueOf(mes.plusMonths(1).atDay(1).atStartOfDay());
+
+        ArchivoTransacciones archivo = archivoTransaccionesRepository.findById(periodo)
+                .orElseGet(() -> archivoTransaccionesRepository.save(exportarMes(periodo, desde, hasta)));
+
+        long borradas = borrarMes(desde, hasta);
+        log.info("Mes {} archivado en {}: {} transacciones, {} bytes, {} filas borradas de la BD",
+                mes, archivo.getRuta(), archivo.getCantidadTransacciones(), archivo.getTamanoBytes(), borradas);
+        return archivo;
+    }
+
+    /**
+     * Lee del almacenamiento frío las transacciones de una cuenta (como origen
+     * o destino) entre dos fechas
+     */
+    public List<Transaccion> buscarArchivadas(Long cuentaId, LocalDateTime desde, LocalDateTime hasta) {
+        List<Transaccion> resultado = new ArrayList<>();
+        List<ArchivoTransacciones> archivos = archivoTransaccionesRepository.findByPeriodoBetweenOrderByPeriodoAsc(
+                aPeriodo(YearMonth.from(desde)), aPeriodo(YearMonth.from(hasta)));
+
+        for (ArchivoTransacciones archivo : archivos) {
+            leerArchivo(Paths.get(archivo.getRuta()), cuentaId, desde, hasta, resultado);
+        }
+        return resultado;
+    }
+
+    /**
+     * Fila de un archivo mensual. Montos y saldo en centavos; destino 0 y
+     * saldo null si no tiene
+     */
+    @FunctionalInterface
+    public interface VisitanteArchivo {
+        void visitar(long id, TipoTransaccion tipo, long monto, String descripcion, LocalDateTime fecha,
+                     long cuentaOrigenId, long cuentaDestinoId, Long saldoPosterior);
+    }
+
+    /**
+     * Meses archivados, del más antiguo al más reciente
+     */
+    public List<ArchivoTransacciones> obtenerArchivados() {
+        return archivoTransaccionesRepository.findAll(Sort.by("periodo"));
+    }
+
+    /**
+     * Recorre un archivo mensual (o uno exportado con el mismo formato) en
+     * orden de ID, sin cargarlo completo en memoria
+     */
+    public void recorrerArchivo(Path ruta, VisitanteArchivo visitante) {
+        try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(ruta), 64 * 1024)))) {
+            if (entrada.readInt() != MAGIC || entrada.readInt() != VERSION) {
+                throw new IllegalStateException("Formato de archivo de transacciones no soportado: " + ruta);
+            }
+
+            while (entrada.readBoolean()) {
+                long id = entrada.readLong();
+                TipoTransaccion tipo = TipoTransaccion.valueOf(entrada.readUTF());
+                long monto = entrada.readLong();
+                String descripcion = leerTextoOpcional(entrada);
+                LocalDateTime fecha = LocalDate.ofEpochDay(entrada.readLong())
+                        .atTime(LocalTime.ofNanoOfDay(entrada.readLong()));
+                long origen = entrada.readLong();
+                long destino = entrada.readLong();
+                Long saldo = entrada.readBoolean() ? entrada.readLong() : null;
+                visitante.visitar(id, tipo, monto, descripcion, fecha, origen, destino, saldo);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el archivo de transacciones " + ruta, e);
+        }
+    }
+
+    /**
+     * Fecha desde la cual todas las transacciones están en la BD
+     */
+    public LocalDateTime inicioDatosEnLinea() {
+        return YearMonth.now().minusMonths(mesesRetencion - 1L).atDay(1).atStartOfDay();
+    }
+
+    /**
+     * Indica si hay algún mes archivado anterior a la fecha dada
+     */
+    public boolean hayArchivadosAntesDe(LocalDateTime fecha) {
+        return archivoTransaccionesRepository.count() > 0 && fecha.isBefore(inicioDatosEnLinea());
+    }
+
+    private ArchivoTransacciones exportarMes(int periodo, Timestamp desde, Timestamp hasta) {
+        try {
+            Path carpeta = Paths.get(directorio);
+            Files.createDirectories(carpeta);
+            Path destino = carpeta.resolve("transacciones-" + periodo + ".bin.gz");
+            Path temporal = carpeta.resolve("transacciones-" + periodo + ".bin.gz.tmp");
+
+            long[] cantidad = {0};
+            try (DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(Files.newOutputStream(temporal), 64 * 1024)))) {
+                salida.writeInt(MAGIC);
+                salida.writeInt(VERSION);
+
+                jdbcTemplate.query(SQL_EXPORTAR_MES, rs -> {
+                    try {
+                        salida.writeBoolean(true);
+                        salida.writeLong(rs.getLong("id"));
+                        salida.writeUTF(rs.getString("tipo_transaccion"));
+                        salida.writeLong(aCentavos(rs.getBigDecimal("monto")));
+                        escribirTextoOpcional(salida, rs.getString("descripcion"));
+                        LocalDateTime fecha = rs.getTimestamp("fecha_transaccion").toLocalDateTime();
+                        salida.writeLong(fecha.toLocalDate().toEpochDay());
+                        salida.writeLong(fecha.toLocalTime().toNanoOfDay());
+                        salida.writeLong(rs.getLong("cuenta_origen_id"));
+                        salida.writeLong(rs.getLong("cuenta_destino_id"));
+                        BigDecimal saldo = rs.getBigDecimal("saldo_posterior");
+                        salida.writeBoolean(saldo != null);
+                        if (saldo != null) {
+                            salida.writeLong(aCentavos(saldo));
+                        }
+                        cantidad[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, desde, hasta);
+
+                salida.writeBoolean(false);
+            }
+
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return new ArchivoTransacciones(periodo, destino.toAbsolutePath().toString(), cantidad[0], Files.size(destino));
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo archivar el periodo " + periodo, e);
+        }
+    }
+
+    private long borrarMes(Timestamp desde, Timestamp hasta) {
+        Long minimo = jdbcTemplate.queryForObject("SELECT MIN(id) FROM transacciones "
+                + "WHERE fecha_transaccion >= ? AND fecha_transaccion < ?", Long.class, desde, hasta);
+        if (minimo == null) {
+            return 0;
+        }
+        Long maximo = jdbcTemplate.queryForObject("SELECT MAX(id) FROM transacciones "
+                + "WHERE fecha_transaccion >= ? AND fecha_transaccion < ?", Long.class, desde, hasta);
+
+        long borradas = 0;
+        for (long inicio = minimo; inicio <= maximo; inicio += tamanoLoteBorrado) {
+            borradas += jdbcTemplate.update(SQL_BORRAR_LOTE, inicio, inicio + tamanoLoteBorrado, desde, hasta);
+        }
+        return borradas;
+    }
+
+    private void leerArchivo(Path ruta, Long cuentaId, LocalDateTime desde, LocalDateTime hasta,
+            List<Transaccion> resultado) {
+        recorrerArchivo(ruta, (id, tipo, monto, descripcion, fecha, origen, destino, saldo) -> {
+            boolean esDeLaCuenta = origen == cuentaId || destino == cuentaId;
+            if (!esDeLaCuenta || fecha.isBefore(desde) || fecha.isAfter(hasta)) {
+                return;
+            }
+
+            Transaccion transaccion = new Transaccion();
+            transaccion.setId(id);
+            transaccion.setTipoTransaccion(tipo);
+            transaccion.setMonto(BigDecimal.valueOf(monto, 2));
+            transaccion.setDescripcion(descripcion);
+            transaccion.setFechaTransaccion(fecha);
+            transaccion.setCuentaOrigen(cuentaRepository.getReferenceById(origen));
+            if (destino != 0) {
+                transaccion.setCuentaDestino(cuentaRepository.getReferenceById(destino));
+            }
+            transaccion.setSaldoPosterior(saldo != null ? BigDecimal.valueOf(saldo, 2) : null);
+            resultado.add(transaccion);
+        });
+    }
+
+    private static void escribirTextoOpcional(DataOutputStream salida, String texto) throws IOException {
+        salida.writeBoolean(texto != null);
+        if (texto != null) {
+            salida.writeUTF(texto);
+        }
+    }
+
+    private static String leerTextoOpcional(DataInputStream entrada) throws IOException {
+        return entrada.readBoolean() ? entrada.readUTF() : null;
+    }
+
+    private static long aCentavos(BigDecimal monto) {
+        return monto.setScale(2).unscaledValue().longValueExact();
+    }
+
+    private static int aPeriodo(YearMonth mes) {
+        return mes.getYear() * 100 + mes.getMonthValue();
+    }
+}
@@ -0,0 +1,675 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.Cliente;
+import com.banking.system.repository.ClienteRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio de Búsqueda de Clientes Índice en memoria de n-gramas sobre
+ * nombres, apellido, correo y número de identificación, para buscar por
+ * texto parcial sin descargar la tabla clientes.
+ *
+ * El texto de cada cliente se normaliza (minúsculas, sin tildes, solo letras
+ * y dígitos) y se parte en palabras. Cada palabra aporta sus trigramas y dos
+ * gramas de inicio de palabra, así una búsqueda de 3 o más caracteres
+ * encuentra subcadenas ("mez" en "gomez", "4567" en el documento) y una de 1
+ * o 2 caracteres encuentra prefijos de palabra. Cada grama se codifica como
+ * un entero y guarda su lista de ranuras ordenada en un int[]. Una búsqueda
+ * recorre la lista más corta de sus gramas, descarta los candidatos que no
+ * están en las demás listas (búsqueda exponencial con un cursor por lista) y
+ * verifica el resto contra el texto normalizado.
+ *
+ * Se construye al arrancar con una consulta JDBC y se actualiza al confirmar
+ * la transacción que crea, modifica o elimina un cliente.
+ */
+@Service
+public class BusquedaClienteService {
+
+    private static final Logger log = LoggerFactory.getLogger(BusquedaClienteService.class);
+
+    private static final String SQL_CLIENTES =
+            "SELECT id, nombres, apellido, correo_electronico, numero_identificacion FROM clientes ORDER BY id";
+
+    // Alfabeto del índice: 0 = borde de palabra, 1-26 letras, 27-36 dígitos
+    private static final int SIMBOLOS = 37;
+    private static final int GRAMAS = SIMBOLOS * SIMBOLOS * SIMBOLOS;
+    private static final int MIN_CARACTERES = 2;
+    private static final int TAMANO_MAXIMO = 100;
+    private static final int RESULTADOS_MAXIMOS = 10_000;
+    private static final int MUESTRA_INTERSECCION = 256;
+
+    // Puntaje por palabra de la búsqueda: palabra completa, prefijo o subcadena
+    private static final int PUNTAJE_PALABRA = 3;
+    private static final int PUNTAJE_PREFIJO = 2;
+    private static final int PUNTAJE_SUBCADENA = 1;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    private final ReentrantReadWriteLock candado = new ReentrantReadWriteLock();
+    private final AtomicLong busquedas = new AtomicLong();
+    private final AtomicLong nanosBusqueda = new AtomicLong();
+
+    // Una ranura por cliente. Las de la carga inicial quedan ordenadas por id
+    // (búsqueda binaria); las agregadas después se ubican con el mapa
+    private long[] ids = new long[1024];
+    private String[] textos = new String[1024];
+    private int ranuras;
+    private int ranurasIniciales;
+    private final Map<Long, Integer> ranurasRecientes = new HashMap<>();
+    private long bytesTextos;
+
+    private final int[][] listas = new int[GRAMAS][];
+    private final int[] tamanos = new int[GRAMAS];
+
+    // Filtro de Bloom con las palabras completas del índice: si una palabra de
+    // la consulta no está, su puntaje máximo es el de prefijo y el recorrido
+    // puede cortarse antes. Al quitar clientes no se limpia (solo corta menos)
+    private long[] palabrasCompletas = new long[1 << 14];
+
+    /**
+     * Página de resultados de una búsqueda
+     */
+    public record ResultadoBusqueda(String consulta, int pagina, int tamano, long total, boolean totalExacto,
+            long microsIndice, List<Cliente> clientes) {
+    }
+
+    /**
+     * Métricas del índice de búsqueda
+     */
+    public record MetricasBusqueda(int clientesIndexados, int ranuras, int gramasUsados, long entradas,
+            long bytesEstimados, long busquedas, double microsPromedio) {
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        long inicio = System.nanoTime();
+        candado.writeLock().lock();
+        try {
+            jdbcTemplate.query(SQL_CLIENTES, rs -> {
+                agregar(rs.getLong("id"), textoIndexable(rs.getString("nombres"), rs.getString("apellido"),
+                        rs.getString("correo_electronico"), rs.getString("numero_identificacion")));
+            });
+            ranurasIniciales = ranuras;
+            // Sin la holgura de crecimiento de la carga
+            for (int g = 0; g < GRAMAS; g++) {
+                if (listas[g] != null && listas[g].length > tamanos[g]) {
+                    listas[g] = Arrays.copyOf(listas[g], tamanos[g]);
+                }
+            }
+            dimensionarPalabrasCompletas();
+        } finally {
+            candado.writeLock().unlock();
+        }
+        if (ranuras > 0) {
+            MetricasBusqueda metricas = obtenerMetricas();
+            log.info("Índice de búsqueda de clientes: {} clientes en {} ms (~{} MB)", metricas.clientesIndexados(),
+                    (System.nanoTime() - inicio) / 1_000_000, metricas.bytesEstimados() / (1024 * 1024));
+        }
+    }
+
+    /**
+     * Busca clientes por texto parcial. Todas las palabras de la consulta
+     * deben aparecer; se ordena por puntaje (palabra completa, prefijo,
+     * subcadena) y, a igual puntaje, los más antiguos en el índice primero.
+     *
+     * Las listas se recorren en orden de ranura, así que cuando la página ya
+     * está llena de resultados con el puntaje máximo posible ningún candidato
+     * posterior puede entrar y el recorrido se corta. El máximo cuenta
+     * palabra completa solo para las palabras de la consulta que existen
+     * completas en el índice. Si se corta, el total es una estimación
+     * (totalExacto = false).
+     */
+    public ResultadoBusqueda buscar(String consulta, int pagina, int tamano) {
+        if (tamano < 1 || tamano > TAMANO_MAXIMO) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + TAMANO_MAXIMO);
+        }
+        if (pagina < 0 || (long) (pagina + 1) * tamano > RESULTADOS_MAXIMOS) {
+            throw new IllegalArgumentException("Solo se pueden recorrer los primeros " + RESULTADOS_MAXIMOS
+                    + " resultados; refine la búsqueda");
+        }
+        String[] palabras = palabras(normalizar(consulta == null ? "" : consulta));
+        if (Arrays.stream(palabras).mapToInt(String::length).sum() < MIN_CARACTERES) {
+            throw new IllegalArgumentException("La búsqueda debe tener al menos " + MIN_CARACTERES + " caracteres");
+        }
+
+        long puntajeMaximo = 0;
+        for (String palabra : palabras) {
+            puntajeMaximo += puedeSerPalabraCompleta(palabra) ? PUNTAJE_PALABRA : PUNTAJE_PREFIJO;
+        }
+        long claveMaxima = puntajeMaximo << 32;
+
+        long inicio = System.nanoTime();
+        long[] mejores = new long[(pagina + 1) * tamano];
+        int enMonticulo = 0;
+        long total = 0;
+        boolean totalExacto = true;
+        List<Long> idsPagina = new ArrayList<>();
+        candado.readLock().lock();
+        try {
+            int[] gramas = gramasConsulta(palabras);
+            int[] lista = gramas == null ? new int[0] : listas[gramas[0]];
+            int candidatos = gramas == null ? 0 : tamanos[gramas[0]];
+            int[] cursores = new int[gramas == null ? 0 : gramas.length];
+            int intersecar = cursores.length;
+            long descartados = 0;
+            candidato:
+            for (int i = 0; i < candidatos; i++) {
+                if (i == MUESTRA_INTERSECCION && descartados * 10 < i) {
+                    // Las demás listas casi no descartan (los gramas aparecen juntos): solo verificar
+                    intersecar = 1;
+                }
+                if (enMonticulo == mejores.length && mejores[0] >= claveMaxima) {
+                    // Estimación con la proporción de aciertos entre los candidatos revisados
+                    total = Math.round((double) total * candidatos / i);
+                    totalExacto = false;
+                    break;
+                }
+                int ranura = lista[i];
+                // Intersección perezosa con las demás listas (todas ordenadas por ranura)
+                for (int g = 1; g < intersecar; g++) {
+                    cursores[g] = galopar(listas[gramas[g]], tamanos[gramas[g]], cursores[g], ranura);
+                    if (cursores[g] == tamanos[gramas[g]]) {
+                        break candidato;
+                    }
+                    if (listas[gramas[g]][cursores[g]] != ranura) {
+                        descartados++;
+                        continue candidato;
+                    }
+                }
+                int puntaje = puntaje(textos[ranura], palabras);
+                if (puntaje > 0) {
+                    total++;
+                    enMonticulo = ofrecer(mejores, enMonticulo, ((long) puntaje << 32) | (Integer.MAX_VALUE - ranura));
+                }
+            }
+
+            long[] ordenadas = Arrays.copyOf(mejores, enMonticulo);
+            Arrays.sort(ordenadas);
+            for (int i = ordenadas.length - 1 - pagina * tamano; i >= 0 && idsPagina.size() < tamano; i--) {
+                idsPagina.add(ids[Integer.MAX_VALUE - (int) ordenadas[i]]);
+            }
+        } finally {
+            candado.readLock().unlock();
+        }
+        long nanos = System.nanoTime() - inicio;
+        busquedas.incrementAndGet();
+        nanosBusqueda.addAndGet(nanos);
+
+        return new ResultadoBusqueda(consulta, pagina, tamano, total, totalExacto, nanos / 1_000,
+                cargarEnOrden(idsPagina));
+    }
+
+    /**
+     * Indexa (o reindexa) un cliente al confirmar la transacción actual
+     */
+    public void indexarAlConfirmar(Cliente cliente) {
+        Long id = cliente.getId();
+        String texto = textoIndexable(cliente.getNombres(), cliente.getApellido(),
+                cliente.getCorreoElectronico(), cliente.getNumeroIdentificacion());
+        alConfirmar(() -> indexar(id, texto));
+    }
+
+    /**
+     * Quita un cliente del índice al confirmar la transacción actual
+     */
+    public void quitarAlConfirmar(Long id) {
+        alConfirmar(() -> quitar(id));
+    }
+
+    public MetricasBusqueda obtenerMetricas() {
+        candado.readLock().lock();
+        try {
+            int indexados = 0;
+            for (int i = 0; i < ranuras; i++) {
+                if (textos[i] != null) {
+                    indexados++;
+                }
+            }
+            int gramasUsados = 0;
+            long entradas = 0;
+            long bytesListas = 16L + 8L * GRAMAS + 16L + 4L * GRAMAS;
+            for (int g = 0; g < GRAMAS; g++) {
+                if (listas[g] != null) {
+                    gramasUsados++;
+                    entradas += tamanos[g];
+                    bytesListas += 16 + 4L * listas[g].length;
+                }
+            }
+            // Arreglos de ranuras + textos (String + byte[] Latin-1) + mapa de recientes (estimado, JVM de 64 bits)
+            long bytes = bytesListas + (16 + 8L * ids.length) + (16 + 8L * textos.length) + bytesTextos
+                    + ranurasRecientes.size() * 64L + 16 + 8L * palabrasCompletas.length;
+            long n = busquedas.get();
+            return new MetricasBusqueda(indexados, ranuras, gramasUsados, entradas, bytes, n,
+                    n == 0 ? 0 : nanosBusqueda.get() / 1_000.0 / n);
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    void indexar(Long id, String texto) {
+        candado.writeLock().lock();
+        try {
+            int ranura = ubicar(id);
+            if (ranura < 0) {
+                agregar(id, texto);
+                ranurasRecientes.put(id, ranuras - 1);
+                return;
+            }
+            String anterior = textos[ranura];
+            if (anterior != null) {
+                for (int grama : gramas(anterior)) {
+                    eliminarDeLista(grama, ranura);
+                }
+                bytesTextos -= bytesTexto(anterior);
+            }
+            textos[ranura] = texto;
+            bytesTextos += bytesTexto(texto);
+            agregarPalabrasCompletas(texto);
+            for (int grama : gramas(texto)) {
+                insertarEnLista(grama, ranura);
+            }
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    void quitar(Long id) {
+        candado.writeLock().lock();
+        try {
+            int ranura = ubicar(id);
+            if (ranura < 0 || textos[ranura] == null) {
+                return;
+            }
+            for (int grama : gramas(textos[ranura])) {
+                eliminarDeLista(grama, ranura);
+            }
+            bytesTextos -= bytesTexto(textos[ranura]);
+            // La ranura queda vacía; si el id vuelve (no debería) se reutiliza
+            textos[ranura] = null;
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Texto normalizado de un cliente: palabras separadas por un espacio, con
+     * espacios en los extremos para reconocer palabras completas y prefijos
+     */
+    static String textoIndexable(String... campos) {
+        StringBuilder texto = new StringBuilder(" ");
+        for (String campo : campos) {
+            String normalizado = normalizar(campo == null ? "" : campo);
+            if (!normalizado.isEmpty()) {
+                texto.append(normalizado).append(' ');
+            }
+        }
+        return texto.toString();
+    }
+
+    /**
+     * Minúsculas sin tildes; todo lo que no sea letra o dígito separa palabras
+     */
+    static String normalizar(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) > 127) {
+                // Solo los textos con tildes o eñes pasan por la descomposición Unicode
+                texto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+                break;
+            }
+        }
+        StringBuilder normalizado = new StringBuilder(texto.length());
+        boolean separar = false;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = Character.toLowerCase(texto.charAt(i));
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                if (separar && normalizado.length() > 0) {
+                    normalizado.append(' ');
+                }
+                separar = false;
+                normalizado.append(c);
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                separar = true;
+            }
+        }
+        return normalizado.toString();
+    }
+
+    private static String[] palabras(String normalizado) {
+        return normalizado.isEmpty() ? new String[0] : normalizado.split(" ");
+    }
+
+    /**
+     * Gramas distintos de un texto indexable, ordenados
+     */
+    static int[] gramas(String texto) {
+        int[] gramas = new int[texto.length() * 2];
+        int n = 0;
+        int inicioPalabra = 1;
+        for (int i = 1; i < texto.length(); i++) {
+            if (texto.charAt(i) == ' ') {
+                n = gramasDePalabra(texto, inicioPalabra, i, gramas, n, true);
+                inicioPalabra = i + 1;
+            }
+        }
+        Arrays.sort(gramas, 0, n);
+        int distintos = 0;
+        for (int i = 0; i < n; i++) {
+            if (i == 0 || gramas[i] != gramas[i - 1]) {
+                gramas[distintos++] = gramas[i];
+            }
+        }
+        return Arrays.copyOf(gramas, distintos);
+    }
+
+    private static int gramasDePalabra(String texto, int desde, int hasta, int[] destino, int n, boolean conInicio) {
+        if (hasta <= desde) {
+            return n;
+        }
+        int c0 = simbolo(texto.charAt(desde));
+        if (conInicio) {
+            destino[n++] = c0;
+            if (hasta - desde > 1) {
+                destino[n++] = c0 * SIMBOLOS + simbolo(texto.charAt(desde + 1));
+            }
+        }
+        for (int i = desde; i + 2 < hasta; i++) {
+            destino[n++] = (simbolo(texto.charAt(i)) * SIMBOLOS + simbolo(texto.charAt(i + 1))) * SIMBOLOS
+                    + simbolo(texto.charAt(i + 2));
+        }
+        return n;
+    }
+
+    private static int simbolo(char c) {
+        return c >= 'a' && c <= 'z' ? c - 'a' + 1 : c - '0' + 27;
+    }
+
+    /**
+     * Gramas de la consulta, de la lista más corta a la más larga: las
+     * palabras de 3 o más caracteres aportan sus trigramas (subcadena) y las
+     * de 1 o 2 su grama de inicio de palabra (prefijo)
+     *
+     * @return null si algún grama no tiene clientes
+     */
+    private int[] gramasConsulta(String[] palabras) {
+        int[] gramas = new int[palabras.length * 2 + Arrays.stream(palabras).mapToInt(String::length).sum()];
+        int n = 0;
+        for (String palabra : palabras) {
+            if (palabra.length() >= 3) {
+                n = gramasDePalabra(palabra, 0, palabra.length(), gramas, n, false);
+            } else {
+                int c0 = simbolo(palabra.charAt(0));
+                gramas[n++] = palabra.length() == 1 ? c0 : c0 * SIMBOLOS + simbolo(palabra.charAt(1));
+            }
+        }
+        Integer[] ordenados = Arrays.stream(gramas, 0, n).distinct().boxed().toArray(Integer[]::new);
+        for (int grama : ordenados) {
+            if (listas[grama] == null || tamanos[grama] == 0) {
+                return null;
+            }
+        }
+        Arrays.sort(ordenados, (a, b) -> Integer.compare(tamanos[a], tamanos[b]));
+        return Arrays.stream(ordenados).mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Primera posición desde la dada con valor mayor o igual al buscado
+     * (búsqueda exponencial y luego binaria)
+     */
+    private static int galopar(int[] lista, int tamano, int desde, int valor) {
+        if (desde >= tamano || lista[desde] >= valor) {
+            return desde;
+        }
+        int salto = 1;
+        int hasta = desde;
+        while (hasta < tamano && lista[hasta] < valor) {
+            desde = hasta + 1;
+            hasta += salto;
+            salto <<= 1;
+        }
+        int posicion = Arrays.binarySearch(lista, desde, Math.min(hasta + 1, tamano), valor);
+        return posicion >= 0 ? posicion : -posicion - 1;
+    }
+
+    /**
+     * Puntaje del cliente para la consulta; 0 si alguna palabra no aparece.
+     * Cada palabra vale lo de su mejor aparición: completa, prefijo de una
+     * palabra o (con 3 o más caracteres) subcadena
+     */
+    private static int puntaje(String texto, String[] palabras) {
+        if (texto == null) {
+            return 0;
+        }
+        int puntaje = 0;
+        for (String palabra : palabras) {
+            int mejor = 0;
+            for (int i = texto.indexOf(palabra); i >= 0 && mejor < PUNTAJE_PALABRA; i = texto.indexOf(palabra, i + 1)) {
+                // El texto empieza y termina con espacio: i - 1 e i + largo siempre existen
+                if (texto.charAt(i - 1) == ' ') {
+                    mejor = Math.max(mejor, texto.charAt(i + palabra.length()) == ' ' ? PUNTAJE_PALABRA : PUNTAJE_PREFIJO);
+                } else if (palabra.length() >= 3) {
+                    mejor = Math.max(mejor, PUNTAJE_SUBCADENA);
+                }
+            }
+            if (mejor == 0) {
+                return 0;
+            }
+            puntaje += mejor;
+        }
+        return puntaje;
+    }
+
+    /**
+     * Montículo mínimo acotado: guarda las claves más altas vistas
+     *
+     * @return elementos en el montículo
+     */
+    private static int ofrecer(long[] monticulo, int n, long clave) {
+        if (n < monticulo.length) {
+            int i = n;
+            monticulo[i] = clave;
+            while (i > 0 && monticulo[(i - 1) / 2] > monticulo[i]) {
+                intercambiar(monticulo, i, (i - 1) / 2);
+                i = (i - 1) / 2;
+            }
+            return n + 1;
+        }
+        if (clave <= monticulo[0]) {
+            return n;
+        }
+        monticulo[0] = clave;
+        int i = 0;
+        while (true) {
+            int menor = i;
+            int izquierda = 2 * i + 1;
+            int derecha = izquierda + 1;
+            if (izquierda < n && monticulo[izquierda] < monticulo[menor]) {
+                menor = izquierda;
+            }
+            if (derecha < n && monticulo[derecha] < monticulo[menor]) {
+                menor = derecha;
+            }
+            if (menor == i) {
+                return n;
+            }
+            intercambiar(monticulo, i, menor);
+            i = menor;
+        }
+    }
+
+    private static void intercambiar(long[] arreglo, int a, int b) {
+        long temporal = arreglo[a];
+        arreglo[a] = arreglo[b];
+        arreglo[b] = temporal;
+    }
+
+    private void agregar(long id, String texto) {
+        if (ranuras == ids.length) {
+            ids = Arrays.copyOf(ids, ranuras * 2);
+            textos = Arrays.copyOf(textos, ranuras * 2);
+        }
+        int ranura = ranuras++;
+        ids[ranura] = id;
+        textos[ranura] = texto;
+        bytesTextos += bytesTexto(texto);
+        agregarPalabrasCompletas(texto);
+        // Las ranuras nuevas son siempre las mayores: agregar al final mantiene las listas ordenadas
+        for (int grama : gramas(texto)) {
+            int[] lista = listas[grama];
+            if (lista == null) {
+                lista = listas[grama] = new int[4];
+            } else if (tamanos[grama] == lista.length) {
+                lista = listas[grama] = Arrays.copyOf(lista, lista.length + (lista.length >> 1) + 1);
+            }
+            lista[tamanos[grama]++] = ranura;
+        }
+    }
+
+    private int ubicar(Long id) {
+        int ranura = Arrays.binarySearch(ids, 0, ranurasIniciales, id);
+        if (ranura >= 0) {
+            return ranura;
+        }
+        return ranurasRecientes.getOrDefault(id, -1);
+    }
+
+    private void insertarEnLista(int grama, int ranura) {
+        int[] lista = listas[grama];
+        if (lista == null) {
+            lista = listas[grama] = new int[4];
+        }
+        int posicion = Arrays.binarySearch(lista, 0, tamanos[grama], ranura);
+        if (posicion >= 0) {
+            return;
+        }
+        posicion = -posicion - 1;
+        if (tamanos[grama] == lista.length) {
+            lista = listas[grama] = Arrays.copyOf(lista, lista.length + (lista.length >> 1) + 1);
+        }
+        System.arraycopy(lista, posicion, lista, posicion + 1, tamanos[grama] - posicion);
+        lista[posicion] = ranura;
+        tamanos[grama]++;
+    }
+
+    private void eliminarDeLista(int grama, int ranura) {
+        int[] lista = listas[grama];
+        int posicion = lista == null ? -1 : Arrays.binarySearch(lista, 0, tamanos[grama], ranura);
+        if (posicion < 0) {
+            return;
+        }
+        System.arraycopy(lista, posicion + 1, lista, posicion, tamanos[grama] - posicion - 1);
+        tamanos[grama]--;
+    }
+
+    /**
+     * Filtro de palabras completas de unos 10 bits por palabra (~1% de falsos
+     * positivos) para los clientes cargados, reconstruido desde los textos
+     */
+    private void dimensionarPalabrasCompletas() {
+        long palabras = 0;
+        for (int i = 0; i < ranuras; i++) {
+            if (textos[i] != null) {
+                palabras += textos[i].chars().filter(c -> c == ' ').count() - 1;
+            }
+        }
+        long bits = Long.highestOneBit(Math.max(palabras * 10, 1 << 20) - 1) << 1;
+        palabrasCompletas = new long[(int) Math.min(bits >>> 6, 1 << 24)];
+        for (int i = 0; i < ranuras; i++) {
+            if (textos[i] != null) {
+                agregarPalabrasCompletas(textos[i]);
+            }
+        }
+    }
+
+    private void agregarPalabrasCompletas(String texto) {
+        int inicioPalabra = 1;
+        for (int i = 1; i < texto.length(); i++) {
+            if (texto.charAt(i) == ' ') {
+                long hash = hash(texto, inicioPalabra, i);
+                for (int k = 0; k < 3; k++) {
+                    int bit = bitPalabra(hash, k);
+                    palabrasCompletas[bit >>> 6] |= 1L << bit;
+                }
+                inicioPalabra = i + 1;
+            }
+        }
+    }
+
+    private boolean puedeSerPalabraCompleta(String palabra) {
+        long hash = hash(palabra, 0, palabra.length());
+        for (int k = 0; k < 3; k++) {
+            int bit = bitPalabra(hash, k);
+            if ((palabrasCompletas[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int bitPalabra(long hash, int k) {
+        return (int) (((hash >>> 32) + k * (int) hash) & ((long) palabrasCompletas.length * 64 - 1));
+    }
+
+    /**
+     * FNV-1a de 64 bits con mezcla final (murmur3)
+     */
+    private static long hash(String texto, int desde, int hasta) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = desde; i < hasta; i++) {
+            hash = (hash ^ texto.charAt(i)) * 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static long bytesTexto(String texto) {
+        // String (24) + byte[] Latin-1 (16 + largo)
+        return 40L + texto.length();
+    }
+
+    private List<Cliente> cargarEnOrden(List<Long> idsPagina) {
+        if (idsPagina.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Cliente> porId = clienteRepository.findAllById(idsPagina).stream()
+                .collect(Collectors.toMap(Cliente::getId, Function.identity()));
+        // Un cliente recién eliminado puede seguir en el índice hasta que confirme
+        return idsPagina.stream().map(porId::get).filter(cliente -> cliente != null).toList();
+    }
+
+    private void alConfirmar(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accion.run();
+            }
+        });
+    }
+}
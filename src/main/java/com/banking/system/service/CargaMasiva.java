@@ -0,0 +1,145 @@
+package com.banking.system.service;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pasos comunes de las cargas masivas sobre clientes, cuentas y
+ * transacciones (restauración de snapshots y generador de datos): verificar
+ * que las tablas estén vacías, quitar llaves foráneas e índice secundario
+ * antes de cargar y devolverlos al final. Todo se ejecuta sobre la conexión
+ * de la carga.
+ */
+final class CargaMasiva {
+
+    static final List<String> TABLAS = List.of("clientes", "cuentas", "transacciones");
+
+    private static final String INDICE_TRANSACCIONES = "idx_transacciones_cuenta_fecha";
+    private static final String SQL_CREAR_INDICE = "CREATE INDEX " + INDICE_TRANSACCIONES
+            + " ON transacciones (cuenta_origen_id, fecha_transaccion)";
+
+    private final Connection conexion;
+    private final boolean mysql;
+    private List<LlaveForanea> llaves = List.of();
+
+    CargaMasiva(Connection conexion) throws SQLException {
+        this.conexion = conexion;
+        this.mysql = conexion.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+    }
+
+    boolean esMysql() {
+        return mysql;
+    }
+
+    /**
+     * La carga usa IDs explícitos, así que solo se hace sobre tablas vacías
+     */
+    void verificarVacias(String motivo) throws SQLException {
+        for (String tabla : TABLAS) {
+            try (Statement sentencia = conexion.createStatement();
+                 ResultSet rs = sentencia.executeQuery("SELECT 1 FROM " + tabla + " LIMIT 1")) {
+                if (rs.next()) {
+                    throw new IllegalStateException("La tabla " + tabla + " no está vacía; " + motivo);
+                }
+            }
+        }
+    }
+
+    /**
+     * MySQL: se apagan las verificaciones de la sesión. H2: se quitan las
+     * llaves foráneas de las tres tablas; cada una mantiene un índice con
+     * claves al azar que, en una BD en disco, se vuelve el cuello de botella
+     * de la carga (crearlo al final es mucho más rápido). En ambos casos se
+     * borra el índice secundario de transacciones.
+     */
+    void preparar() throws SQLException {
+        try (Statement sentencia = conexion.createStatement()) {
+            if (mysql) {
+                // De la sesión: solo afecta a esta conexión
+                sentencia.execute("SET foreign_key_checks = 0");
+                sentencia.execute("SET unique_checks = 0");
+            } else {
+                llaves = llavesForaneas();
+                for (LlaveForanea llave : llaves) {
+                    sentencia.execute("ALTER TABLE " + llave.tabla() + " DROP CONSTRAINT " + llave.nombre());
+                }
+            }
+            borrarIndice(sentencia);
+        }
+    }
+
+    /**
+     * Crea el índice y devuelve las llaves. Las filas cargadas ya son
+     * consistentes, así que las llaves no se vuelven a verificar. En H2 la
+     * identidad no avanza con IDs explícitos (en MySQL sí) y se ajusta aquí.
+     */
+    void terminar() throws SQLException {
+        try (Statement sentencia = conexion.createStatement()) {
+            sentencia.execute(SQL_CREAR_INDICE);
+            if (mysql) {
+                sentencia.execute("SET unique_checks = 1");
+                sentencia.execute("SET foreign_key_checks = 1");
+                return;
+            }
+            for (LlaveForanea llave : llaves) {
+                sentencia.execute("ALTER TABLE " + llave.tabla() + " ADD CONSTRAINT " + llave.nombre()
+                        + " FOREIGN KEY (" + llave.columna() + ") REFERENCES " + llave.tablaReferida()
+                        + " (" + llave.columnaReferida() + ") NOCHECK");
+            }
+            reiniciarIdentidades(sentencia);
+        }
+    }
+
+    private record LlaveForanea(String tabla, String nombre, String columna, String tablaReferida,
+            String columnaReferida) {
+    }
+
+    private List<LlaveForanea> llavesForaneas() throws SQLException {
+        DatabaseMetaData metadatos = conexion.getMetaData();
+        List<LlaveForanea> encontradas = new ArrayList<>();
+        for (String tabla : TABLAS) {
+            String nombre = metadatos.storesUpperCaseIdentifiers() ? tabla.toUpperCase() : tabla;
+            try (ResultSet rs = metadatos.getImportedKeys(conexion.getCatalog(), conexion.getSchema(), nombre)) {
+                while (rs.next()) {
+                    encontradas.add(new LlaveForanea(tabla, rs.getString("FK_NAME"),
+                            rs.getString("FKCOLUMN_NAME"), rs.getString("PKTABLE_NAME"),
+                            rs.getString("PKCOLUMN_NAME")));
+                }
+            }
+        }
+        return encontradas;
+    }
+
+    private void borrarIndice(Statement sentencia) throws SQLException {
+        if (!mysql) {
+            sentencia.execute("DROP INDEX IF EXISTS " + INDICE_TRANSACCIONES);
+            return;
+        }
+        // MySQL no tiene DROP INDEX IF EXISTS
+        try (ResultSet rs = sentencia.executeQuery("SELECT COUNT(*) FROM information_schema.statistics "
+                + "WHERE table_schema = DATABASE() AND table_name = 'transacciones' "
+                + "AND index_name = '" + INDICE_TRANSACCIONES + "'")) {
+            rs.next();
+            if (rs.getLong(1) == 0) {
+                return;
+            }
+        }
+        sentencia.execute("ALTER TABLE transacciones DROP INDEX " + INDICE_TRANSACCIONES);
+    }
+
+    private static void reiniciarIdentidades(Statement sentencia) throws SQLException {
+        for (String tabla : TABLAS) {
+            long siguiente;
+            try (ResultSet rs = sentencia.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + tabla)) {
+                rs.next();
+                siguiente = rs.getLong(1);
+            }
+            sentencia.execute("ALTER TABLE " + tabla + " ALTER COLUMN id RESTART WITH " + siguiente);
+        }
+    }
+}
@@ -2,11 +2,15 @@ package com.banking.system.service;
 
 import com.banking.system.entity.Cliente;
 import com.banking.system.repository.ClienteRepository;
+import com.banking.system.repository.EspecificacionesListado;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 
 /**
  * Servicio de Clientes Contiene la lógica de negocio y validaciones
@@ -18,6 +22,9 @@ public class ClienteService {
     @Autowired
     private ClienteRepository clienteRepository;
 
+    @Autowired
+    private BusquedaClienteService busquedaClienteService;
+
     /**
      * Crear un nuevo cliente Validaciones: - No puede ser menor de edad - No
      * puede existir con el mismo número de identificación - No puede existir
@@ -45,7 +52,9 @@ public class ClienteService {
             );
         }
 
-        return clienteRepository.save(cliente);
+        Cliente guardado = clienteRepository.save(cliente);
+        busquedaClienteService.indexarAlConfirmar(guardado);
+        return guardado;
     }
 
     /**
@@ -88,24 +97,47 @@ public class ClienteService {
         clienteExistente.setFechaNacimiento(clienteActualizado.getFechaNacimiento());
 
         // La fecha de modificación se actualiza automáticamente con @UpdateTimestamp
-        return clienteRepository.save(clienteExistente);
+        Cliente guardado = clienteRepository.save(clienteExistente);
+        busquedaClienteService.indexarAlConfirmar(guardado);
+        return guardado;
     }
 
     /**
-     * Obtener todos los clientes
+     * Listar clientes por página, filtrando por fecha de creación (extremos
+     * opcionales). Con contar=false no se ejecuta el SELECT COUNT(*).
      */
-    public List<Cliente> obtenerTodosLosClientes() {
-        return clienteRepository.findAll();
+    @Transactional(readOnly = true)
+    public Slice<Cliente> listarClientes(LocalDateTime creadoDesde, LocalDateTime creadoHasta,
+                                         Pageable pagina, boolean contar) {
+        if (creadoDesde != null && creadoHasta != null && creadoDesde.isAfter(creadoHasta)) {
+            throw new IllegalArgumentException("La fecha inicial no puede ser posterior a la fecha final");
+        }
+        return EspecificacionesListado.listar(clienteRepository,
+                EspecificacionesListado.clientes(creadoDesde, creadoHasta), pagina, contar);
     }
 
     /**
      * Obtener un cliente por ID
      */
+    @Transactional(readOnly = true)
     public Cliente obtenerClientePorId(Long id) {
         return clienteRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Cliente no encontrado con ID: " + id));
     }
 
+    /**
+     * Versión de un cliente para ETag (su fecha de modificación en
+     * microsegundos), sin cargar la entidad
+     *
+     * @return null si el cliente no existe
+     */
+    @Transactional(readOnly = true)
+    public String obtenerVersion(Long id) {
+        return clienteRepository.findModificacionById(id)
+                .map(fecha -> String.valueOf(fecha.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + fecha.getNano() / 1_000))
+                .orElse(null);
+    }
+
     /**
      * Eliminar un cliente Validación: No puede tener productos vinculados
      */
@@ -122,5 +154,6 @@ public class ClienteService {
         }
 
         clienteRepository.delete(cliente);
+        busquedaClienteService.quitarAlConfirmar(id);
     }
 }
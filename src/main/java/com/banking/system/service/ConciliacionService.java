@@ -0,0 +1,355 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.Conciliacion;
+import com.banking.system.entity.Conciliacion.EstadoConciliacion;
+import com.banking.system.entity.DiscrepanciaConciliacion.TipoDiscrepancia;
+import com.banking.system.entity.Transaccion.TipoTransaccion;
+import com.banking.system.repository.ConciliacionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Servicio de Conciliación Verifica que el saldo de cada cuenta coincida con
+ * su historial de transacciones.
+ *
+ * El espacio de IDs de cuentas se reparte en un ForkJoinPool. Cada tramo se
+ * lee en una transacción corta de solo lectura (REPEATABLE READ, lectura
+ * consistente sin bloqueos) y recorre las transacciones de cada cuenta en
+ * orden verificando:
+ *
+ * - Cadena: cada saldo posterior es el anterior más/menos el monto. - Cierre:
+ * el último saldo posterior es el saldo actual de la cuenta (con sus ranuras
+ * si es caliente).
+ *
+ * La cadena arranca en el saldo de apertura de la cuenta, así también se
+ * verifica la primera transacción, y una cuenta sin transacciones debe tener
+ * su saldo de apertura. Eso solo se puede hacer si todo su historial está en
+ * línea: con meses archivados, las cuentas abiertas antes del inicio de los
+ * datos en línea (y las restauradas de un snapshot, sin saldo de apertura)
+ * arrancan la cadena en su primera transacción en línea y las que no tienen
+ * transacciones en línea no se verifican.
+ */
+@Service
+public class ConciliacionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ConciliacionService.class);
+
+    private static final String SQL_RANGO_CUENTAS = "SELECT MIN(id) AS minimo, MAX(id) AS maximo FROM cuentas";
+
+    // Saldo total: el de la cuenta más sus ranuras (cuentas calientes)
+    private static final String SQL_SALDOS = "SELECT c.id, c.saldo + COALESCE(SUM(s.saldo), 0) AS saldo, "
+            + "c.saldo_apertura, c.fecha_creacion "
+            + "FROM cuentas c LEFT JOIN subsaldos_cuenta s ON s.cuenta_id = c.id "
+            + "WHERE c.id >= ? AND c.id <= ? GROUP BY c.id, c.saldo, c.saldo_apertura, c.fecha_creacion";
+
+    private static final String SQL_TRANSACCIONES = "SELECT cuenta_origen_id, id, tipo_transaccion, monto, saldo_posterior "
+            + "FROM transacciones WHERE cuenta_origen_id >= ? AND cuenta_origen_id <= ? "
+            + "ORDER BY cuenta_origen_id, id";
+
+    private static final String SQL_INSERTAR_DISCREPANCIA = "INSERT INTO discrepancias_conciliacion "
+            + "(conciliacion_id, cuenta_id, transaccion_id, tipo, saldo_esperado, saldo_encontrado) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private ConciliacionRepository conciliacionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ArchivoTransaccionService archivoTransaccionService;
+
+    // 0 = un hilo por núcleo
+    @Value("${banking.conciliacion.hilos:0}")
+    private int hilos;
+
+    // Ancho máximo (en IDs de cuenta) del tramo que procesa cada tarea
+    @Value("${banking.conciliacion.tamano-tramo:1000}")
+    private int tamanoTramo;
+
+    // Máximo de discrepancias que se guardan en el reporte (se cuentan todas)
+    @Value("${banking.conciliacion.max-discrepancias:10000}")
+    private int maxDiscrepancias;
+
+    @Value("${banking.conciliacion.timeout-tramo-segundos:30}")
+    private int timeoutTramoSegundos;
+
+    private final AtomicBoolean enEjecucion = new AtomicBoolean(false);
+    private ForkJoinPool pool;
+    private TransactionTemplate lecturaConsistente;
+
+    /**
+     * Acumulado de una ejecución, compartido por todas las tareas
+     */
+    private static class Acumulado {
+
+        // Cuentas abiertas desde esta fecha tienen todo su historial en línea
+        final LocalDateTime inicioEnLinea;
+        final LongAdder cuentas = new LongAdder();
+        final LongAdder transacciones = new LongAdder();
+        final LongAdder discrepancias = new LongAdder();
+        final AtomicInteger tramosFallidos = new AtomicInteger();
+        final ConcurrentLinkedQueue<Object[]> reporte = new ConcurrentLinkedQueue<>();
+        final AtomicInteger enReporte = new AtomicInteger();
+
+        Acumulado(LocalDateTime inicioEnLinea) {
+            this.inicioEnLinea = inicioEnLinea;
+        }
+    }
+
+    /**
+     * Saldo actual de una cuenta y su saldo de apertura (null si no se puede
+     * verificar desde la apertura)
+     */
+    private record SaldoCuenta(BigDecimal saldo, BigDecimal apertura) {
+    }
+
+    @PostConstruct
+    public void inicializar() {
+        int paralelismo = hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(paralelismo);
+
+        lecturaConsistente = new TransactionTemplate(transactionManager);
+        lecturaConsistente.setReadOnly(true);
+        lecturaConsistente.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        lecturaConsistente.setTimeout(timeoutTramoSegundos);
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Ejecución nocturna
+     */
+    @Scheduled(cron = "${banking.conciliacion.cron:0 0 4 * * *}")
+    public void conciliacionNocturna() {
+        conciliar();
+    }
+
+    /**
+     * Concilia todas las cuentas y guarda el reporte de discrepancias
+     */
+    public Conciliacion conciliar() {
+        if (!enEjecucion.compareAndSet(false, true)) {
+            throw new IllegalStateException("Ya hay una conciliación en ejecución");
+        }
+        try {
+            Conciliacion conciliacion = conciliacionRepository.save(new Conciliacion(pool.getParallelism()));
+            long inicio = System.nanoTime();
+            // Sin meses archivados todas las cuentas tienen su historial completo
+            Acumulado acumulado = new Acumulado(archivoTransaccionService.hayArchivadosAntesDe(LocalDateTime.MIN)
+                    ? archivoTransaccionService.inicioDatosEnLinea() : LocalDateTime.MIN);
+
+            Map<String, Object> rango = jdbcTemplate.queryForMap(SQL_RANGO_CUENTAS);
+            if (rango.get("minimo") != null) {
+                long minimo = ((Number) rango.get("minimo")).longValue();
+                long maximo = ((Number) rango.get("maximo")).longValue();
+                pool.invoke(new TareaConciliacion(minimo, maximo, acumulado));
+            }
+
+            guardarReporte(conciliacion.getId(), acumulado);
+
+            conciliacion.setCuentasRevisadas(acumulado.cuentas.sum());
+            conciliacion.setTransaccionesRevisadas(acumulado.transacciones.sum());
+            conciliacion.setDiscrepancias(acumulado.discrepancias.sum());
+            conciliacion.setTramosFallidos(acumulado.tramosFallidos.get());
+            conciliacion.setDuracionMs((System.nanoTime() - inicio) / 1_000_000);
+            conciliacion.setFechaFin(LocalDateTime.now());
+            if (acumulado.tramosFallidos.get() > 0) {
+                conciliacion.setEstado(EstadoConciliacion.CON_ERRORES);
+            } else if (acumulado.discrepancias.sum() > 0) {
+                conciliacion.setEstado(EstadoConciliacion.CON_DISCREPANCIAS);
+            } else {
+                conciliacion.setEstado(EstadoConciliacion.CONCILIADA);
+            }
+
+            log.info("Conciliación {}: {} cuentas, {} transacciones en {} ms ({} tx/s, {} hilos), {} discrepancias",
+                    conciliacion.getId(), conciliacion.getCuentasRevisadas(), conciliacion.getTransaccionesRevisadas(),
+                    conciliacion.getDuracionMs(), String.format("%.1f", conciliacion.getTransaccionesPorSegundo()),
+                    conciliacion.getHilos(), conciliacion.getDiscrepancias());
+
+            return conciliacionRepository.save(conciliacion);
+        } finally {
+            enEjecucion.set(false);
+        }
+    }
+
+    /**
+     * Divide el rango de IDs en mitades hasta llegar al tamaño del tramo
+     */
+    private class TareaConciliacion extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long desde;
+        private final long hasta;
+        private final Acumulado acumulado;
+
+        TareaConciliacion(long desde, long hasta, Acumulado acumulado) {
+            this.desde = desde;
+            this.hasta = hasta;
+            this.acumulado = acumulado;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde < tamanoTramo) {
+                conciliarTramo(desde, hasta, acumulado);
+                return;
+            }
+            long medio = desde + (hasta - desde) / 2;
+            invokeAll(new TareaConciliacion(desde, medio, acumulado),
+                    new TareaConciliacion(medio + 1, hasta, acumulado));
+        }
+    }
+
+    private void conciliarTramo(long desde, long hasta, Acumulado acumulado) {
+        try {
+            lecturaConsistente.executeWithoutResult(status -> {
+                Map<Long, SaldoCuenta> saldos = new HashMap<>();
+                jdbcTemplate.query(SQL_SALDOS, rs -> {
+                    BigDecimal apertura = rs.getBigDecimal("saldo_apertura");
+                    Timestamp creacion = rs.getTimestamp("fecha_creacion");
+                    boolean historialCompleto = creacion != null
+                            && !creacion.toLocalDateTime().isBefore(acumulado.inicioEnLinea);
+                    saldos.put(rs.getLong("id"), new SaldoCuenta(rs.getBigDecimal("saldo"),
+                            historialCompleto ? apertura : null));
+                }, desde, hasta);
+
+                VerificadorCuenta verificador = new VerificadorCuenta(acumulado);
+                jdbcTemplate.query(SQL_TRANSACCIONES, rs -> {
+                    verificador.procesar(rs.getLong("cuenta_origen_id"), rs.getLong("id"),
+                            TipoTransaccion.valueOf(rs.getString("tipo_transaccion")),
+                            rs.getBigDecimal("monto"), rs.getBigDecimal("saldo_posterior"), saldos);
+                }, desde, hasta);
+                verificador.cerrar(saldos);
+                verificador.verificarSinTransacciones(saldos);
+
+                acumulado.cuentas.add(saldos.size());
+            });
+        } catch (RuntimeException e) {
+            acumulado.tramosFallidos.incrementAndGet();
+            log.error("Error conciliando el tramo de cuentas [{} - {}]", desde, hasta, e);
+        }
+    }
+
+    /**
+     * Recorre las transacciones de un tramo (ordenadas por cuenta e ID) y
+     * verifica la cadena de saldos de cada cuenta
+     */
+    private class VerificadorCuenta {
+
+        private final Acumulado acumulado;
+        private final Set<Long> conTransacciones = new HashSet<>();
+        private Long cuentaActual;
+        private BigDecimal saldoAnterior;
+
+        VerificadorCuenta(Acumulado acumulado) {
+            this.acumulado = acumulado;
+        }
+
+        void procesar(long cuentaId, long transaccionId, TipoTransaccion tipo, BigDecimal monto,
+                BigDecimal saldoPosterior, Map<Long, SaldoCuenta> saldos) {
+            if (cuentaActual == null || cuentaActual != cuentaId) {
+                cerrar(saldos);
+                cuentaActual = cuentaId;
+                conTransacciones.add(cuentaId);
+                // Sin apertura verificable la cadena arranca en esta transacción
+                SaldoCuenta saldoCuenta = saldos.get(cuentaId);
+                saldoAnterior = saldoCuenta != null ? saldoCuenta.apertura() : null;
+            }
+            acumulado.transacciones.increment();
+
+            if (saldoAnterior != null) {
+                BigDecimal esperado = tipo.esCredito() ? saldoAnterior.add(monto) : saldoAnterior.subtract(monto);
+                // Abono en ranura de una cuenta caliente: no guarda saldo
+                // posterior, la cadena sigue con el esperado
+                if (saldoPosterior == null && tipo.esCredito()) {
+                    saldoAnterior = esperado;
+                    return;
+                }
+                if (saldoPosterior == null || esperado.compareTo(saldoPosterior) != 0) {
+                    registrar(cuentaId, transaccionId, TipoDiscrepancia.CADENA_ROTA, esperado, saldoPosterior);
+                }
+            }
+            saldoAnterior = saldoPosterior;
+        }
+
+        /**
+         * Compara el último saldo posterior de la cuenta actual con su saldo
+         */
+        void cerrar(Map<Long, SaldoCuenta> saldos) {
+            if (cuentaActual == null || saldoAnterior == null) {
+                return;
+            }
+            SaldoCuenta saldoCuenta = saldos.get(cuentaActual);
+            if (saldoCuenta != null && saldoCuenta.saldo().compareTo(saldoAnterior) != 0) {
+                registrar(cuentaActual, null, TipoDiscrepancia.SALDO_DESCUADRADO, saldoAnterior, saldoCuenta.saldo());
+            }
+            cuentaActual = null;
+        }
+
+        /**
+         * Compara con su apertura el saldo de las cuentas sin transacciones
+         */
+        void verificarSinTransacciones(Map<Long, SaldoCuenta> saldos) {
+            saldos.forEach((cuentaId, saldoCuenta) -> {
+                if (saldoCuenta.apertura() != null && !conTransacciones.contains(cuentaId)
+                        && saldoCuenta.saldo().compareTo(saldoCuenta.apertura()) != 0) {
+                    registrar(cuentaId, null, TipoDiscrepancia.SALDO_DESCUADRADO, saldoCuenta.apertura(),
+                            saldoCuenta.saldo());
+                }
+            });
+        }
+
+        private void registrar(Long cuentaId, Long transaccionId, TipoDiscrepancia tipo,
+                BigDecimal esperado, BigDecimal encontrado) {
+            acumulado.discrepancias.increment();
+            if (acumulado.enReporte.incrementAndGet() <= maxDiscrepancias) {
+                acumulado.reporte.add(new Object[]{cuentaId, transaccionId, tipo.name(), esperado, encontrado});
+            }
+        }
+    }
+
+    private void guardarReporte(Long conciliacionId, Acumulado acumulado) {
+        if (acumulado.reporte.isEmpty()) {
+            return;
+        }
+        List<Object[]> filas = acumulado.reporte.stream()
+                .map(d -> new Object[]{conciliacionId, d[0], d[1], d[2], d[3], d[4]})
+                .toList();
+        jdbcTemplate.batchUpdate(SQL_INSERTAR_DISCREPANCIA, filas);
+    }
+}
@@ -0,0 +1,121 @@
+package com.banking.system.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Servicio de Concurrencia de Cuentas Decide cómo se protegen los saldos
+ * ante movimientos simultáneos sobre la misma cuenta.
+ *
+ * En modo OPTIMISTA (por defecto) las cuentas se leen sin bloquear y la
+ * columna version de Cuenta detecta el conflicto al guardar. El movimiento
+ * perdedor se repite en una transacción nueva, con espera exponencial y
+ * jitter, hasta max-intentos. En modo PESIMISTA las cuentas se leen con
+ * SELECT ... FOR UPDATE y los movimientos de una misma cuenta se ejecutan
+ * en fila.
+ */
+@Service
+public class ConcurrenciaCuentaService {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrenciaCuentaService.class);
+
+    public enum ModoConcurrencia {
+        OPTIMISTA,
+        PESIMISTA
+    }
+
+    @Value("${banking.concurrencia.modo:OPTIMISTA}")
+    private ModoConcurrencia modo;
+
+    @Value("${banking.concurrencia.max-intentos:5}")
+    private int maxIntentos;
+
+    // La espera antes del intento n es aleatoria entre 0 y min(base * 2^n, máxima)
+    @Value("${banking.concurrencia.espera-base-ms:5}")
+    private long esperaBaseMs;
+
+    @Value("${banking.concurrencia.espera-maxima-ms:200}")
+    private long esperaMaximaMs;
+
+    private final AtomicLong operaciones = new AtomicLong();
+    private final AtomicLong conflictos = new AtomicLong();
+    private final AtomicLong reintentos = new AtomicLong();
+    private final AtomicLong agotados = new AtomicLong();
+
+    /**
+     * Métricas de conflictos de concurrencia
+     */
+    public record MetricasConcurrencia(ModoConcurrencia modo, int maxIntentos, long operaciones,
+            long conflictos, long reintentos, long agotados, double conflictosPorOperacion) {
+    }
+
+    public boolean esPesimista() {
+        return modo == ModoConcurrencia.PESIMISTA;
+    }
+
+    /**
+     * Ejecuta un movimiento (una llamada transaccional a TransaccionService) y
+     * lo repite si pierde un conflicto de versión.
+     *
+     * Dentro de una transacción ya abierta no se reintenta: esa transacción
+     * quedó marcada para rollback y quien la abrió debe decidir.
+     *
+     * @throws IllegalStateException si se agotan los intentos
+     */
+    public <T> T ejecutar(Supplier<T> movimiento) {
+        operaciones.incrementAndGet();
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return movimiento.get();
+        }
+
+        for (int intento = 1; ; intento++) {
+            try {
+                return movimiento.get();
+            } catch (OptimisticLockingFailureException e) {
+                conflictos.incrementAndGet();
+                if (intento >= maxIntentos) {
+                    agotados.incrementAndGet();
+                    log.warn("Movimiento abandonado tras {} conflictos de concurrencia", intento);
+                    throw new IllegalStateException(
+                            "La cuenta tiene demasiados movimientos simultáneos, intente de nuevo", e);
+                }
+                reintentos.incrementAndGet();
+                esperar(intento);
+            }
+        }
+    }
+
+    public MetricasConcurrencia obtenerMetricas() {
+        long total = operaciones.get();
+        return new MetricasConcurrencia(
+                modo,
+                maxIntentos,
+                total,
+                conflictos.get(),
+                reintentos.get(),
+                agotados.get(),
+                total > 0 ? (double) conflictos.get() / total : 0
+        );
+    }
+
+    private void esperar(int intento) {
+        long tope = Math.min(esperaMaximaMs, esperaBaseMs << Math.min(intento, 20));
+        if (tope <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(tope + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Movimiento interrumpido mientras esperaba reintentar", e);
+        }
+    }
+}
@@ -6,11 +6,17 @@ import com.banking.system.entity.Cuenta.EstadoCuenta;
 import com.banking.system.entity.Cuenta.TipoCuenta;
 import com.banking.system.repository.ClienteRepository;
 import com.banking.system.repository.CuentaRepository;
+import com.banking.system.repository.CuentaRepository.HuellaCuentas;
+import com.banking.system.repository.EspecificacionesListado;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
 
 /**
@@ -27,6 +33,15 @@ public class CuentaService {
     @Autowired
     private ClienteRepository clienteRepository;
 
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private RankingCuentasService rankingCuentasService;
+
+    @Autowired
+    private SubsaldoCuentaService subsaldoCuentaService;
+
     /**
      * Crear una nueva cuenta
      */
@@ -41,6 +56,7 @@ public class CuentaService {
         String numeroCuenta = generarNumeroCuenta(cuenta.getTipoCuenta());
         cuenta.setNumeroCuenta(numeroCuenta);
         cuenta.setCliente(cliente);
+        cuenta.setSaldoApertura(cuenta.getSaldo());
 
         if (cuenta.getTipoCuenta() == TipoCuenta.CUENTA_AHORRO && cuenta.getEstado() == null) {
             cuenta.setEstado(EstadoCuenta.ACTIVA);
@@ -50,7 +66,10 @@ public class CuentaService {
             cuenta.setEstado(EstadoCuenta.ACTIVA);
         }
 
-        return cuentaRepository.save(cuenta);
+        Cuenta guardada = cuentaRepository.save(cuenta);
+        outboxService.registrarCuentaCreada(guardada);
+        rankingCuentasService.registrarCuentaAlConfirmar(guardada);
+        return guardada;
     }
 
     private String generarNumeroCuenta(TipoCuenta tipoCuenta) {
@@ -69,20 +88,33 @@ public class CuentaService {
         return prefijo + numeroFormateado;
     }
 
-    public List<Cuenta> obtenerTodasLasCuentas() {
-        return cuentaRepository.findAll();
+    /**
+     * Listar cuentas por página, filtrando por estado, tipo y rango de saldo
+     * (filtros opcionales). Con contar=false no se ejecuta el SELECT COUNT(*).
+     */
+    @Transactional(readOnly = true)
+    public Slice<Cuenta> listarCuentas(EstadoCuenta estado, TipoCuenta tipoCuenta, BigDecimal saldoMinimo,
+                                       BigDecimal saldoMaximo, Pageable pagina, boolean contar) {
+        if (saldoMinimo != null && saldoMaximo != null && saldoMinimo.compareTo(saldoMaximo) > 0) {
+            throw new IllegalArgumentException("El saldo mínimo no puede ser mayor que el saldo máximo");
+        }
+        return EspecificacionesListado.listar(cuentaRepository,
+                EspecificacionesListado.cuentas(estado, tipoCuenta, saldoMinimo, saldoMaximo), pagina, contar);
     }
 
+    @Transactional(readOnly = true)
     public Cuenta obtenerCuentaPorId(Long id) {
         return cuentaRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Cuenta no encontrada con ID: " + id));
     }
 
+    @Transactional(readOnly = true)
     public Cuenta obtenerCuentaPorNumero(String numeroCuenta) {
         return cuentaRepository.findByNumeroCuenta(numeroCuenta)
                 .orElseThrow(() -> new IllegalArgumentException("Cuenta no encontrada con número: " + numeroCuenta));
     }
 
+    @Transactional(readOnly = true)
     public List<Cuenta> obtenerCuentasPorCliente(Long clienteId) {
         if (!clienteRepository.existsById(clienteId)) {
             throw new IllegalArgumentException("Cliente no encontrado con ID: " + clienteId);
@@ -90,13 +122,37 @@ public class CuentaService {
         return cuentaRepository.findByClienteId(clienteId);
     }
 
+    /**
+     * Versión de una cuenta para ETag, sin cargar la entidad. Cubre también al
+     * cliente, que va incluido en el JSON de la cuenta.
+     *
+     * @return null si la cuenta no existe
+     */
+    @Transactional(readOnly = true)
+    public String obtenerVersion(Long id) {
+        return formatearVersion(cuentaRepository.findHuellaById(id));
+    }
+
+    /**
+     * Versión del listado de cuentas de un cliente para ETag
+     *
+     * @return null si el cliente no tiene cuentas (o no existe)
+     */
+    @Transactional(readOnly = true)
+    public String obtenerVersionCuentasPorCliente(Long clienteId) {
+        return formatearVersion(cuentaRepository.findHuellaByClienteId(clienteId));
+    }
+
     public Cuenta actualizarEstadoCuenta(Long id, EstadoCuenta nuevoEstado) {
         Cuenta cuenta = obtenerCuentaPorId(id);
         cuenta.setEstado(nuevoEstado);
-        return cuentaRepository.save(cuenta);
+        Cuenta guardada = cuentaRepository.save(cuenta);
+        outboxService.registrarCambioEstado(guardada);
+        return guardada;
     }
 
     public Cuenta cancelarCuenta(Long id) {
+        quitarRanurasSiEsCaliente(id);
         Cuenta cuenta = obtenerCuentaPorId(id);
 
         if (!cuenta.puedeSerCancelada()) {
@@ -106,10 +162,13 @@ public class CuentaService {
         }
 
         cuenta.setEstado(EstadoCuenta.CANCELADA);
-        return cuentaRepository.save(cuenta);
+        Cuenta guardada = cuentaRepository.save(cuenta);
+        outboxService.registrarCambioEstado(guardada);
+        return guardada;
     }
 
     public void eliminarCuenta(Long id) {
+        quitarRanurasSiEsCaliente(id);
         Cuenta cuenta = obtenerCuentaPorId(id);
 
         if (cuenta.getEstado() != EstadoCuenta.CANCELADA) {
@@ -122,4 +181,39 @@ public class CuentaService {
 
         cuentaRepository.delete(cuenta);
     }
+
+    /**
+     * Una cuenta caliente deja de serlo antes de cancelarla o eliminarla: sus
+     * ranuras se suman al saldo que se valida y ningún abono queda en una
+     * ranura de una cuenta cancelada. Si la validación falla, el rollback las
+     * deja como estaban.
+     */
+    private void quitarRanurasSiEsCaliente(Long id) {
+        if (subsaldoCuentaService.esCaliente(id)) {
+            subsaldoCuentaService.quitarRanuras(id);
+        }
+    }
+
+    /**
+     * Cualquier cambio sube alguna fecha de modificación (también los UPDATE
+     * por JDBC de intereses e inactividad), y altas o bajas cambian la cantidad
+     * o el ID más alto
+     */
+    private String formatearVersion(HuellaCuentas huella) {
+        if (huella == null || huella.getCantidad() == 0) {
+            return null;
+        }
+        LocalDateTime modificacion = huella.getModificacionCuentas();
+        if (huella.getModificacionCliente().isAfter(modificacion)) {
+            modificacion = huella.getModificacionCliente();
+        }
+        if (huella.getModificacionRanuras() != null && huella.getModificacionRanuras().isAfter(modificacion)) {
+            modificacion = huella.getModificacionRanuras();
+        }
+        long micros = modificacion.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + modificacion.getNano() / 1_000;
+        String version = huella.getCantidad() + "-" + huella.getMaximoId() + "-" + micros;
+        return huella.getSaldoRanuras() != null
+                ? version + "-" + huella.getSaldoRanuras().movePointRight(2).toBigInteger()
+                : version;
+    }
 }
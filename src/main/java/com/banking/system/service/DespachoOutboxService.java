@@ -0,0 +1,293 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.EventoOutbox;
+import com.banking.system.entity.EventoOutbox.EstadoEvento;
+import com.banking.system.entity.EventoOutbox.TipoEvento;
+import com.banking.system.repository.EventoOutboxRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servicio de Despacho del Outbox Lee los eventos pendientes por lotes con
+ * SELECT ... FOR UPDATE SKIP LOCKED (soportado por MySQL 8 y H2 2.x), los
+ * publica a los OutboxListener registrados y los marca como entregados con un
+ * solo UPDATE por lote.
+ *
+ * Gracias a SKIP LOCKED pueden correr varios hilos (y varios nodos) a la vez
+ * sin entregar dos veces el mismo evento: cada uno toma filas distintas.
+ *
+ * Cada listener corre en su propia transacción (REQUIRES_NEW): si falla, solo
+ * se deshace lo suyo y la transacción del lote sigue válida para registrar el
+ * intento fallido. Si no, un listener transaccional la marcaría rollback-only
+ * y el evento nunca sumaría intentos ni llegaría a FALLIDO.
+ *
+ * Un evento que falla espera antes del siguiente intento (proximo_intento),
+ * con un retraso que se duplica en cada fallo hasta un máximo: una caída corta
+ * del destino no agota los intentos en un par de segundos.
+ */
+@Service
+public class DespachoOutboxService {
+
+    private static final Logger log = LoggerFactory.getLogger(DespachoOutboxService.class);
+
+    private static final String SQL_RECLAMAR_LOTE = "SELECT id, tipo_evento, cuenta_id, transaccion_id, monto, saldo, "
+            + "detalle, intentos, fecha_creacion FROM eventos_outbox WHERE estado = 'PENDIENTE' "
+            + "AND (proximo_intento IS NULL OR proximo_intento <= ?) "
+            + "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String SQL_REGISTRAR_FALLO = "UPDATE eventos_outbox SET intentos = intentos + 1, "
+            + "estado = CASE WHEN intentos + 1 >= ? THEN 'FALLIDO' ELSE 'PENDIENTE' END, proximo_intento = ? "
+            + "WHERE id = ?";
+
+    private static final String SQL_PURGAR = "DELETE FROM eventos_outbox WHERE estado = 'ENTREGADO' AND fecha_entrega < ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EventoOutboxRepository eventoOutboxRepository;
+
+    @Autowired(required = false)
+    private List<OutboxListener> listenersIniciales = Collections.emptyList();
+
+    // Hilos despachadores en este nodo (0 = no despacha, solo registra)
+    @Value("${banking.outbox.hilos:2}")
+    private int hilos;
+
+    @Value("${banking.outbox.tamano-lote:500}")
+    private int tamanoLote;
+
+    @Value("${banking.outbox.intervalo-ms:200}")
+    private long intervaloMs;
+
+    @Value("${banking.outbox.max-intentos:10}")
+    private int maxIntentos;
+
+    // Espera antes del segundo intento; se duplica en cada fallo hasta el máximo
+    @Value("${banking.outbox.reintento-base-ms:1000}")
+    private long reintentoBaseMs;
+
+    @Value("${banking.outbox.reintento-max-ms:300000}")
+    private long reintentoMaxMs;
+
+    @Value("${banking.outbox.dias-retencion:7}")
+    private int diasRetencion;
+
+    private final List<OutboxListener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong eventosDespachados = new AtomicLong();
+    private final AtomicLong eventosFallidos = new AtomicLong();
+    private final AtomicLong lotesDespachados = new AtomicLong();
+    private final AtomicLong retrasoUltimoMs = new AtomicLong();
+    private final AtomicLong retrasoMaximoMs = new AtomicLong();
+    private final long inicioNanos = System.nanoTime();
+
+    private ScheduledExecutorService ejecutor;
+    private TransactionTemplate transactionTemplate;
+    private TransactionTemplate transaccionListener;
+
+    /**
+     * Métricas del despachador
+     */
+    public record MetricasOutbox(long eventosDespachados, long eventosFallidos, long lotesDespachados,
+            double eventosPorSegundo, long retrasoUltimoMs, long retrasoMaximoMs,
+            long eventosPendientes, long retrasoPendienteMs, int hilos, int listeners) {
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        listeners.addAll(listenersIniciales);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transaccionListener = new TransactionTemplate(transactionManager);
+        transaccionListener.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        if (hilos > 0) {
+            ejecutor = Executors.newScheduledThreadPool(hilos, r -> {
+                Thread hilo = new Thread(r, "despacho-outbox");
+                hilo.setDaemon(true);
+                return hilo;
+            });
+            for (int i = 0; i < hilos; i++) {
+                ejecutor.scheduleWithFixedDelay(this::drenar, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (ejecutor != null) {
+            ejecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Registra un listener adicional en tiempo de ejecución
+     */
+    public void registrarListener(OutboxListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Despacha un lote de eventos pendientes en una transacción
+     *
+     * @return cantidad de eventos tomados del outbox
+     */
+    public int despacharLote() {
+        Integer procesados = transactionTemplate.execute(status -> {
+            List<EventoOutbox> lote = jdbcTemplate.query(SQL_RECLAMAR_LOTE, (rs, i) -> {
+                EventoOutbox evento = new EventoOutbox(
+                        TipoEvento.valueOf(rs.getString("tipo_evento")),
+                        rs.getLong("cuenta_id"),
+                        rs.getObject("transaccion_id", Long.class),
+                        rs.getBigDecimal("monto"),
+                        rs.getBigDecimal("saldo"),
+                        rs.getString("detalle"));
+                evento.setId(rs.getLong("id"));
+                evento.setIntentos(rs.getInt("intentos"));
+                evento.setFechaCreacion(rs.getTimestamp("fecha_creacion").toLocalDateTime());
+                return evento;
+            }, Timestamp.valueOf(LocalDateTime.now()), tamanoLote);
+
+            if (lote.isEmpty()) {
+                return 0;
+            }
+
+            List<Long> entregados = new ArrayList<>(lote.size());
+            List<EventoOutbox> conFallo = new ArrayList<>();
+            for (EventoOutbox evento : lote) {
+                if (publicar(evento)) {
+                    entregados.add(evento.getId());
+                } else {
+                    conFallo.add(evento);
+                }
+            }
+
+            LocalDateTime ahora = LocalDateTime.now();
+            List<Object[]> fallidos = conFallo.stream()
+                    .map(evento -> new Object[]{maxIntentos,
+                            Timestamp.valueOf(ahora.plus(retrasoReintento(evento.getIntentos()))), evento.getId()})
+                    .toList();
+            marcarEntregados(entregados, ahora);
+            if (!fallidos.isEmpty()) {
+                jdbcTemplate.batchUpdate(SQL_REGISTRAR_FALLO, fallidos);
+            }
+
+            registrarMetricas(lote, entregados.size(), fallidos.size(), ahora);
+            return lote.size();
+        });
+        return procesados != null ? procesados : 0;
+    }
+
+    /**
+     * Métricas de rendimiento y retraso del despacho
+     */
+    public MetricasOutbox obtenerMetricas() {
+        long pendientes = eventoOutboxRepository.countByEstado(EstadoEvento.PENDIENTE);
+        LocalDateTime masAntiguo = eventoOutboxRepository.findFechaCreacionMasAntiguaByEstado(EstadoEvento.PENDIENTE);
+        long retrasoPendienteMs = masAntiguo != null ? Duration.between(masAntiguo, LocalDateTime.now()).toMillis() : 0;
+        double segundos = (System.nanoTime() - inicioNanos) / 1_000_000_000.0;
+
+        return new MetricasOutbox(
+                eventosDespachados.get(),
+                eventosFallidos.get(),
+                lotesDespachados.get(),
+                segundos > 0 ? eventosDespachados.get() / segundos : 0,
+                retrasoUltimoMs.get(),
+                retrasoMaximoMs.get(),
+                pendientes,
+                retrasoPendienteMs,
+                hilos,
+                listeners.size()
+        );
+    }
+
+    /**
+     * Borra los eventos ya entregados más antiguos que la retención
+     */
+    @Scheduled(cron = "${banking.outbox.cron-purga:0 15 4 * * *}")
+    public int purgarEntregados() {
+        int borrados = jdbcTemplate.update(SQL_PURGAR, Timestamp.valueOf(LocalDateTime.now().minusDays(diasRetencion)));
+        log.info("Outbox: {} eventos entregados purgados", borrados);
+        return borrados;
+    }
+
+    private void drenar() {
+        try {
+            // Mientras salgan lotes llenos se sigue drenando sin esperar
+            while (despacharLote() == tamanoLote) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Error despachando eventos del outbox", e);
+        }
+    }
+
+    private boolean publicar(EventoOutbox evento) {
+        for (OutboxListener listener : listeners) {
+            try {
+                transaccionListener.executeWithoutResult(status -> listener.alPublicar(evento));
+            } catch (RuntimeException e) {
+                log.warn("El listener {} falló con el evento {}", listener.getClass().getSimpleName(), evento.getId(), e);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Espera antes del siguiente intento de un evento que ya falló "intentos"
+     * veces (sin contar el actual): base, 2 x base, 4 x base... hasta el máximo
+     */
+    Duration retrasoReintento(int intentos) {
+        long retrasoMs = reintentoBaseMs << Math.min(intentos, 30);
+        return Duration.ofMillis(retrasoMs < 0 || retrasoMs > reintentoMaxMs ? reintentoMaxMs : retrasoMs);
+    }
+
+    private void marcarEntregados(List<Long> ids, LocalDateTime ahora) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        String marcadores = String.join(",", Collections.nCopies(ids.size(), "?"));
+        List<Object> parametros = new ArrayList<>(ids.size() + 1);
+        parametros.add(Timestamp.valueOf(ahora));
+        parametros.addAll(ids);
+        jdbcTemplate.update("UPDATE eventos_outbox SET estado = 'ENTREGADO', fecha_entrega = ? WHERE id IN ("
+                + marcadores + ")", parametros.toArray());
+    }
+
+    private void registrarMetricas(List<EventoOutbox> lote, int entregados, int fallidos, LocalDateTime ahora) {
+        eventosDespachados.addAndGet(entregados);
+        eventosFallidos.addAndGet(fallidos);
+        lotesDespachados.incrementAndGet();
+
+        long retraso = Duration.between(lote.get(0).getFechaCreacion(), ahora).toMillis();
+        retrasoUltimoMs.set(retraso);
+        retrasoMaximoMs.accumulateAndGet(retraso, Math::max);
+    }
+}
@@ -0,0 +1,15 @@
+package com.banking.system.service;
+
+/**
+ * Operación bloqueada por el control de fraude (por ejemplo, demasiados
+ * retiros de una cuenta en pocos minutos). Extiende IllegalArgumentException
+ * para que siga siendo un error de negocio donde no se distinga.
+ */
+public class FraudeSospechosoException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    public FraudeSospechosoException(String mensaje) {
+        super(mensaje);
+    }
+}
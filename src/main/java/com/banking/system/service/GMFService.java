@@ -0,0 +1,251 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.Cuenta;
+import com.banking.system.entity.ExencionGMF;
+import com.banking.system.entity.ExencionGMF.ExencionGMFId;
+import com.banking.system.repository.ExencionGMFRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servicio GMF (Gravamen a los Movimientos Financieros, 4x1000) Calcula el
+ * impuesto de los débitos (retiros y transferencias enviadas).
+ *
+ * - Cuentas no exentas: se cobra la tasa sobre todo el monto. - Cuentas
+ * exentas: el monto es exento hasta el tope mensual del cliente; el excedente
+ * se grava.
+ *
+ * El consumo del tope se lleva en contadores en memoria por cliente y periodo
+ * (sin SELECT SUM por cada débito) y se vuelca a la tabla exenciones_gmf por
+ * lotes de forma periódica.
+ */
+@Service
+public class GMFService {
+
+    private static final Logger log = LoggerFactory.getLogger(GMFService.class);
+
+    private static final String SQL_ACTUALIZAR = "UPDATE exenciones_gmf SET monto_utilizado = ?, fecha_modificacion = ? "
+            + "WHERE cliente_id = ? AND periodo = ?";
+
+    private static final String SQL_INSERTAR = "INSERT INTO exenciones_gmf "
+            + "(cliente_id, periodo, monto_utilizado, fecha_modificacion) VALUES (?, ?, ?, ?)";
+
+    @Autowired
+    private ExencionGMFRepository exencionGMFRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Tasa del impuesto (0.004 = 4 por mil)
+    @Value("${banking.gmf.tasa:0.004}")
+    private BigDecimal tasa;
+
+    // Tope mensual exento por cliente (350 UVT)
+    @Value("${banking.gmf.tope-exento-mensual:17429650}")
+    private BigDecimal topeExentoMensual;
+
+    // Cantidad máxima de filas por lote al volcar los contadores
+    @Value("${banking.gmf.tamano-lote:500}")
+    private int tamanoLote;
+
+    private final Map<ClavePeriodo, ContadorExencion> contadores = new ConcurrentHashMap<>();
+
+    /**
+     * Calcula el GMF de un débito sobre la cuenta. Si la cuenta es exenta
+     * consume el tope mensual del cliente; si la transacción actual hace
+     * rollback, el consumo se revierte.
+     *
+     * @return valor del impuesto (cero si el débito queda totalmente exento)
+     */
+    public BigDecimal calcularGMF(Cuenta cuenta, BigDecimal monto) {
+        BigDecimal montoGravable = monto;
+
+        if (Boolean.TRUE.equals(cuenta.getExentaGMF())) {
+            long solicitado = aCentavos(monto);
+            ClavePeriodo clave = new ClavePeriodo(cuenta.getCliente().getId(), periodoActual());
+            ContadorExencion contador = obtenerContador(clave);
+
+            long exento = contador.consumir(solicitado, aCentavos(topeExentoMensual));
+            if (exento > 0) {
+                revertirSiHayRollback(contador, exento);
+            }
+            montoGravable = BigDecimal.valueOf(solicitado - exento, 2);
+        }
+
+        if (montoGravable.compareTo(BigDecimal.ZERO) <= 0) {
+            return BigDecimal.ZERO;
+        }
+        return montoGravable.multiply(tasa).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Monto exento que el cliente ya utilizó en el mes actual
+     */
+    public BigDecimal obtenerExencionUtilizada(Long clienteId) {
+        ContadorExencion contador = obtenerContador(new ClavePeriodo(clienteId, periodoActual()));
+        return BigDecimal.valueOf(contador.usado.get(), 2);
+    }
+
+    /**
+     * Vuelca a la BD los contadores modificados, en lotes de UPDATE y luego
+     * INSERT para los que aún no tienen fila. También libera de memoria los
+     * contadores de meses anteriores que ya están persistidos.
+     */
+    @Scheduled(fixedDelayString = "${banking.gmf.intervalo-volcado-ms:5000}")
+    public synchronized void volcarContadores() {
+        int periodo = periodoActual();
+        List<Map.Entry<ClavePeriodo, ContadorExencion>> sucios = new ArrayList<>();
+
+        for (Map.Entry<ClavePeriodo, ContadorExencion> entrada : contadores.entrySet()) {
+            if (entrada.getValue().sucio.get()) {
+                sucios.add(entrada);
+            } else if (entrada.getKey().periodo() < periodo) {
+                contadores.remove(entrada.getKey(), entrada.getValue());
+            }
+        }
+
+        for (int inicio = 0; inicio < sucios.size(); inicio += tamanoLote) {
+            List<Map.Entry<ClavePeriodo, ContadorExencion>> lote
+                    = sucios.subList(inicio, Math.min(inicio + tamanoLote, sucios.size()));
+            try {
+                volcarLote(lote);
+            } catch (RuntimeException e) {
+                // Se vuelven a marcar para el siguiente ciclo
+                lote.forEach(entrada -> entrada.getValue().sucio.set(true));
+                log.error("Error volcando contadores de exención GMF", e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void alDetener() {
+        volcarContadores();
+    }
+
+    private void volcarLote(List<Map.Entry<ClavePeriodo, ContadorExencion>> lote) {
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> filas = new ArrayList<>(lote.size());
+
+        for (Map.Entry<ClavePeriodo, ContadorExencion> entrada : lote) {
+            // Se limpia antes de leer: un consumo concurrente la vuelve a marcar
+            entrada.getValue().sucio.set(false);
+            BigDecimal usado = BigDecimal.valueOf(entrada.getValue().usado.get(), 2);
+            filas.add(new Object[]{usado, ahora, entrada.getKey().clienteId(), entrada.getKey().periodo()});
+        }
+
+        int[] actualizadas = jdbcTemplate.batchUpdate(SQL_ACTUALIZAR, filas);
+
+        List<Object[]> nuevas = new ArrayList<>();
+        for (int i = 0; i < actualizadas.length; i++) {
+            if (actualizadas[i] == 0) {
+                Object[] fila = filas.get(i);
+                nuevas.add(new Object[]{fila[2], fila[3], fila[0], fila[1]});
+            }
+        }
+        if (!nuevas.isEmpty()) {
+            jdbcTemplate.batchUpdate(SQL_INSERTAR, nuevas);
+        }
+    }
+
+    private ContadorExencion obtenerContador(ClavePeriodo clave) {
+        ContadorExencion contador = contadores.get(clave);
+        if (contador != null) {
+            return contador;
+        }
+
+        // Solo se consulta la BD la primera vez que el cliente debita en el mes
+        long usado = exencionGMFRepository.findById(new ExencionGMFId(clave.clienteId(), clave.periodo()))
+                .map(ExencionGMF::getMontoUtilizado)
+                .map(this::aCentavos)
+                .orElse(0L);
+
+        ContadorExencion existente = contadores.putIfAbsent(clave, new ContadorExencion(usado));
+        return existente != null ? existente : contadores.get(clave);
+    }
+
+    private void revertirSiHayRollback(ContadorExencion contador, long exento) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    contador.liberar(exento);
+                }
+            }
+        });
+    }
+
+    private long aCentavos(BigDecimal monto) {
+        return monto.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private int periodoActual() {
+        LocalDate hoy = LocalDate.now();
+        return hoy.getYear() * 100 + hoy.getMonthValue();
+    }
+
+    /**
+     * Llave del contador: cliente y periodo yyyyMM
+     */
+    private record ClavePeriodo(long clienteId, int periodo) {
+    }
+
+    /**
+     * Contador de exención utilizada (en centavos) sin bloqueos
+     */
+    private static final class ContadorExencion {
+
+        private final AtomicLong usado;
+        private final AtomicBoolean sucio = new AtomicBoolean(false);
+
+        private ContadorExencion(long usadoInicial) {
+            this.usado = new AtomicLong(usadoInicial);
+        }
+
+        /**
+         * Reserva hasta "solicitado" centavos del tope disponible
+         *
+         * @return centavos efectivamente exentos
+         */
+        private long consumir(long solicitado, long tope) {
+            while (true) {
+                long actual = usado.get();
+                long exento = Math.min(Math.max(0, tope - actual), solicitado);
+                if (exento == 0) {
+                    return 0;
+                }
+                if (usado.compareAndSet(actual, actual + exento)) {
+                    sucio.set(true);
+                    return exento;
+                }
+            }
+        }
+
+        private void liberar(long exento) {
+            usado.addAndGet(-exento);
+            sucio.set(true);
+        }
+    }
+}
@@ -0,0 +1,836 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.Transaccion.TipoTransaccion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Servicio Generador de Datos Llena una BD vacía con clientes, cuentas y
+ * transacciones sintéticos para pruebas de carga y desempeño. Con la misma
+ * semilla y configuración genera exactamente los mismos datos.
+ *
+ * Los datos cumplen las reglas del dominio: clientes mayores de edad,
+ * números de cuenta "33" (corriente) y "53" (ahorro) consecutivos por tipo,
+ * saldos nunca negativos, GMF 4x1000 con el tope exento mensual por cliente
+ * y saldo posterior encadenado en cada cuenta (el saldo de la cuenta es el
+ * último saldo posterior). La actividad por cuenta sigue una distribución
+ * Zipf; los montos, una log-normal por tipo de transacción.
+ *
+ * No pasa por JPA: escribe archivos CSV y los carga con CSVREAD (H2) o LOAD
+ * DATA LOCAL INFILE (MySQL, requiere allowLoadLocalInfile=true en la URL),
+ * sin llaves foráneas ni índice secundario durante la carga.
+ */
+@Service
+public class GeneradorDatosService {
+
+    private static final Logger log = LoggerFactory.getLogger(GeneradorDatosService.class);
+
+    static final String COLUMNAS_CLIENTES = "id,tipo_identificacion,numero_identificacion,nombres,apellido,"
+            + "correo_electronico,fecha_nacimiento,fecha_creacion,fecha_modificacion";
+    static final String COLUMNAS_CUENTAS = "id,tipo_cuenta,numero_cuenta,estado,saldo,exenta_gmf,fecha_creacion,"
+            + "fecha_modificacion,fecha_ultima_causacion,version,cliente_id,saldo_apertura";
+    static final String COLUMNAS_TRANSACCIONES = "id,tipo_transaccion,monto,descripcion,fecha_transaccion,"
+            + "cuenta_origen_id,cuenta_destino_id,saldo_posterior";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RankingCuentasService rankingCuentasService;
+
+    @Autowired
+    private BusquedaClienteService busquedaClienteService;
+
+    @Value("${banking.generador.habilitado:false}")
+    private boolean habilitado;
+
+    @Value("${banking.generador.directorio:generador}")
+    private String directorio;
+
+    @Value("${banking.generador.semilla:42}")
+    private long semilla;
+
+    @Value("${banking.generador.clientes:100000}")
+    private int clientes;
+
+    @Value("${banking.generador.transacciones:1000000}")
+    private long transacciones;
+
+    // Cantidad de cuentas por cliente con su peso
+    @Value("${banking.generador.cuentas-por-cliente:1:55,2:30,3:10,4:5}")
+    private String cuentasPorCliente;
+
+    @Value("${banking.generador.proporcion-corriente:0.3}")
+    private double proporcionCorriente;
+
+    // Probabilidad de que la primera cuenta de ahorro del cliente sea exenta de GMF
+    @Value("${banking.generador.proporcion-exenta:0.5}")
+    private double proporcionExenta;
+
+    @Value("${banking.generador.exponente-zipf:1.0}")
+    private double exponenteZipf;
+
+    // Operaciones con su peso; las recepciones y el GMF salen de ellas
+    @Value("${banking.generador.mezcla:CONSIGNACION:40,RETIRO:30,TRANSFERENCIA_ENVIADA:25,INTERES:5}")
+    private String mezcla;
+
+    // "tipo:mediana:dispersión" de la log-normal de montos, mediana en pesos
+    @Value("${banking.generador.montos:CONSIGNACION:250000:1.0,RETIRO:150000:0.8,TRANSFERENCIA_ENVIADA:300000:1.2}")
+    private String montos;
+
+    @Value("${banking.generador.edad-minima:18}")
+    private int edadMinima;
+
+    @Value("${banking.generador.edad-maxima:80}")
+    private int edadMaxima;
+
+    @Value("${banking.generador.fecha-inicio:2025-01-01}")
+    private String fechaInicio;
+
+    @Value("${banking.generador.dias:365}")
+    private int dias;
+
+    @Value("${banking.generador.filas-por-archivo:500000}")
+    private int filasPorArchivo;
+
+    @Value("${banking.gmf.tasa:0.004}")
+    private BigDecimal tasaGmf;
+
+    @Value("${banking.gmf.tope-exento-mensual:17429650}")
+    private BigDecimal topeExentoMensual;
+
+    @Value("${banking.intereses.tramos:0:0.0025,5000000:0.01,50000000:0.02}")
+    private String tramosInteres;
+
+    private final AtomicBoolean enEjecucion = new AtomicBoolean(false);
+
+    record Configuracion(long semilla, int clientes, long transacciones, String cuentasPorCliente,
+            double proporcionCorriente, double proporcionExenta, double exponenteZipf, String mezcla,
+            String montos, int edadMinima, int edadMaxima, LocalDate fechaInicio, int dias, int filasPorArchivo,
+            BigDecimal tasaGmf, BigDecimal topeExentoMensual, String tramosInteres) {
+    }
+
+    /**
+     * Archivo CSV generado, en el orden de carga
+     */
+    record Archivo(String tabla, String nombre, long filas) {
+    }
+
+    public record ResultadoGeneracion(long semilla, long clientes, long cuentas, long transacciones,
+            long msGeneracion, long msCarga, long msIndices, long duracionMs, double filasPorSegundo) {
+    }
+
+    /**
+     * Genera y carga los datos. Los parámetros nulos toman el valor de
+     * banking.generador.*
+     */
+    public ResultadoGeneracion generar(Long semillaSolicitada, Integer clientesSolicitados,
+                                       Long transaccionesSolicitadas) {
+        if (!habilitado) {
+            throw new IllegalStateException("El generador de datos está deshabilitado (banking.generador.habilitado)");
+        }
+        Generador generador = new Generador(new Configuracion(
+                semillaSolicitada != null ? semillaSolicitada : semilla,
+                clientesSolicitados != null ? clientesSolicitados : clientes,
+                transaccionesSolicitadas != null ? transaccionesSolicitadas : transacciones,
+                cuentasPorCliente, proporcionCorriente, proporcionExenta, exponenteZipf, mezcla, montos,
+                edadMinima, edadMaxima, LocalDate.parse(fechaInicio), dias, filasPorArchivo, tasaGmf, topeExentoMensual,
+                tramosInteres));
+        if (!enEjecucion.compareAndSet(false, true)) {
+            throw new IllegalStateException("Ya hay una generación de datos en ejecución");
+        }
+        try {
+            // Antes de generar: no tiene sentido escribir millones de filas que no se pueden cargar
+            jdbcTemplate.execute((ConnectionCallback<Void>) conexion -> {
+                new CargaMasiva(conexion).verificarVacias("el generador solo carga datos en una BD vacía");
+                return null;
+            });
+
+            long inicio = System.nanoTime();
+            Path carpeta = Paths.get(directorio);
+            Files.createDirectories(carpeta);
+            List<Archivo> archivos = generador.generar(nombre ->
+                    Files.newBufferedWriter(carpeta.resolve(nombre), StandardCharsets.UTF_8));
+            long msGeneracion = (System.nanoTime() - inicio) / 1_000_000;
+
+            long[] tiempos = new long[2];
+            try {
+                jdbcTemplate.execute((ConnectionCallback<Void>) conexion -> {
+                    cargar(conexion, carpeta, archivos, tiempos);
+                    return null;
+                });
+            } finally {
+                for (Archivo archivo : archivos) {
+                    Files.deleteIfExists(carpeta.resolve(archivo.nombre()));
+                }
+            }
+            rankingCuentasService.reconstruir();
+            busquedaClienteService.iniciar();
+
+            long[] filas = new long[3];
+            for (Archivo archivo : archivos) {
+                filas[CargaMasiva.TABLAS.indexOf(archivo.tabla())] += archivo.filas();
+            }
+            long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+            ResultadoGeneracion resultado = new ResultadoGeneracion(generador.configuracion.semilla(), filas[0],
+                    filas[1], filas[2], msGeneracion, tiempos[0], tiempos[1], duracionMs,
+                    (filas[0] + filas[1] + filas[2]) * 1000.0 / Math.max(1, duracionMs));
+            log.info("Datos generados con semilla {}: {} clientes, {} cuentas, {} transacciones; generación {} ms, "
+                    + "carga {} ms, índices {} ms", resultado.semilla(), filas[0], filas[1], filas[2], msGeneracion,
+                    tiempos[0], tiempos[1]);
+            return resultado;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudieron escribir los archivos del generador", e);
+        } finally {
+            enEjecucion.set(false);
+        }
+    }
+
+    private void cargar(Connection conexion, Path carpeta, List<Archivo> archivos, long[] tiempos)
+            throws SQLException {
+        CargaMasiva carga = new CargaMasiva(conexion);
+        carga.verificarVacias("el generador solo carga datos en una BD vacía");
+        long inicioCarga = System.nanoTime();
+        carga.preparar();
+        try {
+            for (Archivo archivo : archivos) {
+                String ruta = carpeta.resolve(archivo.nombre()).toAbsolutePath().toString();
+                String columnas = columnas(archivo.tabla());
+                if (carga.esMysql()) {
+                    try (Statement sentencia = conexion.createStatement()) {
+                        sentencia.execute("LOAD DATA LOCAL INFILE '" + ruta.replace("\\", "\\\\").replace("'", "''")
+                                + "' INTO TABLE " + archivo.tabla() + " CHARACTER SET utf8mb4 "
+                                + "FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '\"' "
+                                + "LINES TERMINATED BY '\\n' IGNORE 1 LINES (" + columnas + ")");
+                    }
+                } else {
+                    // CSVREAD necesita el nombre del archivo como literal al preparar la consulta
+                    try (Statement sentencia = conexion.createStatement()) {
+                        sentencia.executeUpdate("INSERT INTO " + archivo.tabla() + " (" + columnas + ") "
+                                + "SELECT * FROM CSVREAD('" + ruta.replace("'", "''")
+                                + "', NULL, 'charset=UTF-8 null=\\\\N')");
+                    }
+                }
+                if (!conexion.getAutoCommit()) {
+                    conexion.commit();
+                }
+            }
+        } finally {
+            tiempos[0] = (System.nanoTime() - inicioCarga) / 1_000_000;
+            long inicioIndices = System.nanoTime();
+            carga.terminar();
+            tiempos[1] = (System.nanoTime() - inicioIndices) / 1_000_000;
+        }
+    }
+
+    private static String columnas(String tabla) {
+        return switch (tabla) {
+            case "clientes" -> COLUMNAS_CLIENTES;
+            case "cuentas" -> COLUMNAS_CUENTAS;
+            default -> COLUMNAS_TRANSACCIONES;
+        };
+    }
+
+    @FunctionalInterface
+    interface Destino {
+        Writer abrir(String nombre) throws IOException;
+    }
+
+    // ==================== Generación ====================
+
+    /**
+     * Genera los CSV en un solo hilo y con un solo generador aleatorio, de
+     * modo que la salida depende solo de la configuración. Orden: clientes
+     * (las cuentas se arman en memoria), transacciones en orden cronológico
+     * y al final cuentas, con su saldo y versión definitivos.
+     */
+    static final class Generador {
+
+        private static final String[] NOMBRES = {"María", "José", "Luis", "Ana", "Carlos", "Juan", "Ángela",
+                "Andrés", "Camila", "Valentina", "Santiago", "Sebastián", "Daniela", "Laura", "Alejandro", "Diana",
+                "Jorge", "Paula", "Felipe", "Natalia", "Julián", "Carolina", "Mateo", "Isabella", "David", "Sofía",
+                "Óscar", "Lucía", "Héctor", "Mónica", "Ramón", "Gloria", "Iván", "Luz", "Fabián", "Marcela"};
+        private static final String[] APELLIDOS = {"Rodríguez", "Gómez", "González", "Martínez", "García",
+                "López", "Hernández", "Sánchez", "Ramírez", "Pérez", "Díaz", "Muñoz", "Rojas", "Moreno", "Jiménez",
+                "Vargas", "Castro", "Ortiz", "Rubio", "Suárez", "Torres", "Quintero", "Ospina", "Cárdenas",
+                "Restrepo", "Zapata", "Valencia", "Arango", "Mejía", "Londoño", "Peña", "Salazar"};
+        private static final String[] DOMINIOS = {"correo.com", "mail.co", "banca.com.co", "ejemplo.org"};
+
+        // Operaciones que puede elegir la mezcla
+        private static final TipoTransaccion[] OPERACIONES = {TipoTransaccion.CONSIGNACION, TipoTransaccion.RETIRO,
+                TipoTransaccion.TRANSFERENCIA_ENVIADA, TipoTransaccion.INTERES};
+
+        private static final long MAXIMO_NUMERO_CUENTA = 99_999_999L;
+        private static final long MAXIMO_MONTO_PESOS = 1_000_000_000L;
+        // Biyección de IDs a números de identificación de 10 dígitos (coprimo con 9e9)
+        private static final long MULTIPLICADOR_IDENTIFICACION = 7_919_993L;
+
+        final Configuracion configuracion;
+        private final int[] cuentasPorCliente;
+        private final double[] pesosCuentasPorCliente;
+        private final TipoTransaccion[] operaciones;
+        private final double[] pesosOperaciones;
+        private final Map<TipoTransaccion, double[]> montos = new EnumMap<>(TipoTransaccion.class);
+        private final NavigableMap<BigDecimal, BigDecimal> tramosInteres = new TreeMap<>();
+        private final long topeExento;
+        private final SplittableRandom aleatorio;
+
+        // Cuentas (índice = id - 1)
+        private int cuentas;
+        private int[] clienteDe = new int[1024];
+        private boolean[] corriente = new boolean[1024];
+        private boolean[] exenta = new boolean[1024];
+        private int[] numero = new int[1024];
+        private long[] saldo = new long[1024];
+        private long[] saldoApertura = new long[1024];
+        private long[] creacion = new long[1024];
+        private long[] ultimoMovimiento = new long[1024];
+        private int[] movimientos = new int[1024];
+        private int[] periodoInteres = new int[1024];
+
+        // Consumo del tope exento de GMF por cliente (índice = id - 1) en su último periodo
+        private int[] periodoExencion;
+        private long[] usadoExencion;
+
+        // Muestreo Zipf: acumulado por rango y cuenta asignada a cada rango
+        private double[] acumuladoZipf;
+        private int[] cuentaPorRango;
+
+        Generador(Configuracion configuracion) {
+            this.configuracion = configuracion;
+            if (configuracion.clientes() < 1) {
+                throw new IllegalArgumentException("Se debe generar al menos un cliente");
+            }
+            if (configuracion.transacciones() < 0) {
+                throw new IllegalArgumentException("La cantidad de transacciones no puede ser negativa");
+            }
+            if (configuracion.edadMinima() < 18 || configuracion.edadMaxima() < configuracion.edadMinima()) {
+                throw new IllegalArgumentException("El rango de edades debe empezar en 18 años o más");
+            }
+            if (configuracion.dias() < 1 || configuracion.filasPorArchivo() < 1 || configuracion.exponenteZipf() < 0) {
+                throw new IllegalArgumentException("Días, filas por archivo y exponente Zipf deben ser positivos");
+            }
+
+            String[] partes = configuracion.cuentasPorCliente().split(",");
+            cuentasPorCliente = new int[partes.length];
+            pesosCuentasPorCliente = new double[partes.length];
+            for (int i = 0; i < partes.length; i++) {
+                String[] par = partes(partes[i], 2, "cuentas por cliente");
+                cuentasPorCliente[i] = Integer.parseInt(par[0].trim());
+                pesosCuentasPorCliente[i] = Double.parseDouble(par[1].trim());
+                if (cuentasPorCliente[i] < 1) {
+                    throw new IllegalArgumentException("Cada cliente debe tener al menos una cuenta");
+                }
+            }
+            acumular(pesosCuentasPorCliente, "cuentas por cliente");
+
+            partes = configuracion.mezcla().split(",");
+            operaciones = new TipoTransaccion[partes.length];
+            pesosOperaciones = new double[partes.length];
+            for (int i = 0; i < partes.length; i++) {
+                String[] par = partes(partes[i], 2, "mezcla de operaciones");
+                operaciones[i] = TipoTransaccion.valueOf(par[0].trim());
+                pesosOperaciones[i] = Double.parseDouble(par[1].trim());
+                if (!Arrays.asList(OPERACIONES).contains(operaciones[i])) {
+                    throw new IllegalArgumentException("La mezcla no admite " + operaciones[i]
+                            + ": las recepciones y el GMF salen de las otras operaciones");
+                }
+            }
+            acumular(pesosOperaciones, "mezcla de operaciones");
+
+            for (String monto : configuracion.montos().split(",")) {
+                String[] trio = partes(monto, 3, "montos");
+                montos.put(TipoTransaccion.valueOf(trio[0].trim()), new double[]{
+                        Double.parseDouble(trio[1].trim()), Double.parseDouble(trio[2].trim())});
+            }
+            for (TipoTransaccion tipo : List.of(TipoTransaccion.CONSIGNACION, TipoTransaccion.RETIRO,
+                    TipoTransaccion.TRANSFERENCIA_ENVIADA)) {
+                if (!montos.containsKey(tipo) || montos.get(tipo)[0] < 1) {
+                    throw new IllegalArgumentException("Falta la distribución de montos de " + tipo);
+                }
+            }
+
+            for (String tramo : configuracion.tramosInteres().split(",")) {
+                String[] par = partes(tramo, 2, "tramos de interés");
+                tramosInteres.put(new BigDecimal(par[0].trim()), new BigDecimal(par[1].trim()));
+            }
+            topeExento = configuracion.topeExentoMensual().movePointRight(2).longValue();
+            aleatorio = new SplittableRandom(configuracion.semilla());
+            periodoExencion = new int[configuracion.clientes()];
+            usadoExencion = new long[configuracion.clientes()];
+        }
+
+        /**
+         * Escribe los CSV y devuelve los archivos en el orden de carga
+         */
+        List<Archivo> generar(Destino destino) throws IOException {
+            List<Archivo> archivos = new ArrayList<>();
+            archivos.add(new Archivo("clientes", "clientes.csv", generarClientes(destino.abrir("clientes.csv"))));
+            prepararZipf();
+            List<Archivo> partes = generarTransacciones(destino);
+            archivos.add(new Archivo("cuentas", "cuentas.csv", escribirCuentas(destino.abrir("cuentas.csv"))));
+            archivos.addAll(partes);
+            return archivos;
+        }
+
+        private long generarClientes(Writer salida) throws IOException {
+            long inicio = epochMs(configuracion.fechaInicio().atStartOfDay());
+            long dosAnios = 730L * 86_400_000L;
+            int corrientes = 0;
+            int ahorros = 0;
+            try (Writer escritor = salida) {
+                Fila fila = new Fila();
+                escritor.write(COLUMNAS_CLIENTES);
+                escritor.write('\n');
+                for (int c = 1; c <= configuracion.clientes(); c++) {
+                    // Creado en los dos años anteriores al inicio del historial
+                    long creado = inicio - 86_400_000L - aleatorio.nextLong(dosAnios);
+                    LocalDate fechaCreado = fechaHora(creado).toLocalDate();
+                    int edad = configuracion.edadMinima()
+                            + aleatorio.nextInt(configuracion.edadMaxima() - configuracion.edadMinima() + 1);
+                    LocalDate nacimiento = fechaCreado.minusYears(edad).minusDays(aleatorio.nextInt(365));
+                    String nombre = NOMBRES[aleatorio.nextInt(NOMBRES.length)];
+                    String nombres = aleatorio.nextInt(3) == 0
+                            ? nombre + " " + NOMBRES[aleatorio.nextInt(NOMBRES.length)] : nombre;
+                    String apellido = APELLIDOS[aleatorio.nextInt(APELLIDOS.length)];
+                    String apellidos = apellido + " " + APELLIDOS[aleatorio.nextInt(APELLIDOS.length)];
+                    boolean extranjero = aleatorio.nextInt(20) == 0;
+
+                    fila.entero(c)
+                            .texto(extranjero ? "CE" : "CC")
+                            .entero(1_000_000_000L + (c * MULTIPLICADOR_IDENTIFICACION) % 9_000_000_000L)
+                            .texto(nombres)
+                            .texto(apellidos)
+                            .texto(sinTildes(nombre) + "." + sinTildes(apellido) + c + "@"
+                                    + DOMINIOS[aleatorio.nextInt(DOMINIOS.length)])
+                            .fecha(nacimiento)
+                            .fechaHora(creado)
+                            .nulo()
+                            .terminar(escritor);
+
+                    // Sus cuentas, abiertas después del cliente y antes del historial
+                    int cantidad = cuentasPorCliente[muestrear(pesosCuentasPorCliente)];
+                    boolean conExenta = false;
+                    for (int k = 0; k < cantidad; k++) {
+                        boolean esCorriente = aleatorio.nextDouble() < configuracion.proporcionCorriente();
+                        boolean esExenta = !esCorriente && !conExenta
+                                && aleatorio.nextDouble() < configuracion.proporcionExenta();
+                        conExenta |= esExenta;
+                        int consecutivo = esCorriente ? ++corrientes : ++ahorros;
+                        if (consecutivo > MAXIMO_NUMERO_CUENTA) {
+                            throw new IllegalArgumentException("Se agotaron los números de cuenta de 8 dígitos");
+                        }
+                        long abierta = creado + aleatorio.nextLong(inicio - creado);
+                        agregarCuenta(c, esCorriente, esExenta, consecutivo, monto(TipoTransaccion.CONSIGNACION),
+                                abierta);
+                    }
+                }
+            }
+            return configuracion.clientes();
+        }
+
+        private void agregarCuenta(int cliente, boolean esCorriente, boolean esExenta, int consecutivo,
+                                   long apertura, long abierta) {
+            if (cuentas == clienteDe.length) {
+                int capacidad = cuentas * 2;
+                clienteDe = Arrays.copyOf(clienteDe, capacidad);
+                corriente = Arrays.copyOf(corriente, capacidad);
+                exenta = Arrays.copyOf(exenta, capacidad);
+                numero = Arrays.copyOf(numero, capacidad);
+                saldo = Arrays.copyOf(saldo, capacidad);
+                saldoApertura = Arrays.copyOf(saldoApertura, capacidad);
+                creacion = Arrays.copyOf(creacion, capacidad);
+                ultimoMovimiento = Arrays.copyOf(ultimoMovimiento, capacidad);
+                movimientos = Arrays.copyOf(movimientos, capacidad);
+                periodoInteres = Arrays.copyOf(periodoInteres, capacidad);
+            }
+            clienteDe[cuentas] = cliente;
+            corriente[cuentas] = esCorriente;
+            exenta[cuentas] = esExenta;
+            numero[cuentas] = consecutivo;
+            saldo[cuentas] = apertura;
+            saldoApertura[cuentas] = apertura;
+            creacion[cuentas] = abierta;
+            cuentas++;
+        }
+
+        /**
+         * Rango r (desde 1) con peso 1/r^s; los rangos se reparten al azar
+         * entre las cuentas para que la actividad no dependa del ID
+         */
+        private void prepararZipf() {
+            acumuladoZipf = new double[cuentas];
+            double total = 0;
+            for (int r = 0; r < cuentas; r++) {
+                total += 1.0 / Math.pow(r + 1, configuracion.exponenteZipf());
+                acumuladoZipf[r] = total;
+            }
+            cuentaPorRango = new int[cuentas];
+            for (int i = 0; i < cuentas; i++) {
+                cuentaPorRango[i] = i;
+            }
+            for (int i = cuentas - 1; i > 0; i--) {
+                int j = aleatorio.nextInt(i + 1);
+                int temporal = cuentaPorRango[i];
+                cuentaPorRango[i] = cuentaPorRango[j];
+                cuentaPorRango[j] = temporal;
+            }
+        }
+
+        private int cuentaZipf() {
+            double objetivo = aleatorio.nextDouble() * acumuladoZipf[cuentas - 1];
+            int rango = Arrays.binarySearch(acumuladoZipf, objetivo);
+            return cuentaPorRango[Math.min(cuentas - 1, rango >= 0 ? rango : -rango - 1)];
+        }
+
+        private List<Archivo> generarTransacciones(Destino destino) throws IOException {
+            List<Archivo> partes = new ArrayList<>();
+            long total = configuracion.transacciones();
+            long inicio = epochMs(configuracion.fechaInicio().atStartOfDay());
+            double paso = (double) configuracion.dias() * 86_400_000L / Math.max(1, total);
+            Fila fila = new Fila();
+            Writer escritor = null;
+            long filasParte = 0;
+            long id = 0;
+            try {
+                while (id < total) {
+                    if (escritor == null || filasParte >= configuracion.filasPorArchivo()) {
+                        if (escritor != null) {
+                            escritor.close();
+                            partes.add(new Archivo("transacciones", nombreParte(partes.size()), filasParte));
+                        }
+                        escritor = destino.abrir(nombreParte(partes.size()));
+                        escritor.write(COLUMNAS_TRANSACCIONES);
+                        escritor.write('\n');
+                        filasParte = 0;
+                    }
+                    long fecha = inicio + (long) (id * paso) + aleatorio.nextLong(Math.max(1, (long) paso));
+                    int filas = operacion(fila, id, fecha, total - id, escritor);
+                    id += filas;
+                    filasParte += filas;
+                }
+                if (escritor != null) {
+                    escritor.close();
+                    escritor = null;
+                    partes.add(new Archivo("transacciones", nombreParte(partes.size()), filasParte));
+                }
+            } finally {
+                if (escritor != null) {
+                    escritor.close();
+                }
+            }
+            return partes;
+        }
+
+        private static String nombreParte(int parte) {
+            return String.format("transacciones-%04d.csv", parte + 1);
+        }
+
+        /**
+         * Escribe las filas de una operación a partir del ID siguiente al
+         * último y devuelve cuántas escribió. Un débito sin saldo suficiente y
+         * una operación de varias filas que pasaría del total se vuelven
+         * consignación.
+         */
+        private int operacion(Fila fila, long ultimoId, long fecha, long restantes, Writer escritor)
+                throws IOException {
+            TipoTransaccion tipo = operaciones[muestrear(pesosOperaciones)];
+            int cuenta = cuentaZipf();
+            long id = ultimoId + 1;
+
+            if (tipo == TipoTransaccion.RETIRO || tipo == TipoTransaccion.TRANSFERENCIA_ENVIADA) {
+                int destinoTransferencia = -1;
+                if (tipo == TipoTransaccion.TRANSFERENCIA_ENVIADA) {
+                    destinoTransferencia = cuentas > 1 ? cuentaZipf() : cuenta;
+                    while (cuentas > 1 && destinoTransferencia == cuenta) {
+                        destinoTransferencia = cuentaZipf();
+                    }
+                }
+                long monto = monto(tipo);
+                long exento = exencionDisponible(cuenta, fecha, monto);
+                long gmf = gmf(monto - exento);
+                int filas = (tipo == TipoTransaccion.RETIRO ? 1 : 2) + (gmf > 0 ? 1 : 0);
+                boolean posible = saldo[cuenta] >= monto + gmf && filas <= restantes && destinoTransferencia != cuenta;
+                if (posible) {
+                    consumirExencion(cuenta, exento);
+                    mover(cuenta, -monto, fecha);
+                    if (tipo == TipoTransaccion.RETIRO) {
+                        fila.entero(id++).texto(tipo.name()).centavos(monto).texto("Retiro").fechaHora(fecha)
+                                .entero(cuenta + 1L).nulo().centavos(saldo[cuenta]).terminar(escritor);
+                    } else {
+                        mover(destinoTransferencia, monto, fecha);
+                        fila.entero(id++).texto(tipo.name()).centavos(monto)
+                                .texto("Transferencia a cuenta " + numeroCuenta(destinoTransferencia))
+                                .fechaHora(fecha).entero(cuenta + 1L).entero(destinoTransferencia + 1L)
+                                .centavos(saldo[cuenta]).terminar(escritor);
+                        fila.entero(id++).texto(TipoTransaccion.TRANSFERENCIA_RECIBIDA.name()).centavos(monto)
+                                .texto("Transferencia desde cuenta " + numeroCuenta(cuenta))
+                                .fechaHora(fecha).entero(destinoTransferencia + 1L).entero(cuenta + 1L)
+                                .centavos(saldo[destinoTransferencia]).terminar(escritor);
+                    }
+                    if (gmf > 0) {
+                        mover(cuenta, -gmf, fecha);
+                        fila.entero(id++).texto(TipoTransaccion.GMF.name()).centavos(gmf).texto("GMF 4x1000")
+                                .fechaHora(fecha).entero(cuenta + 1L).nulo().centavos(saldo[cuenta])
+                                .terminar(escritor);
+                    }
+                    return filas;
+                }
+            } else if (tipo == TipoTransaccion.INTERES && !corriente[cuenta] && saldo[cuenta] > 0
+                    && periodoInteres[cuenta] != periodo(fecha)) {
+                // Abono mensual (uno por cuenta y mes) con la tasa efectiva anual del tramo del saldo
+                periodoInteres[cuenta] = periodo(fecha);
+                BigDecimal base = BigDecimal.valueOf(saldo[cuenta], 2);
+                long interes = base.multiply(tramosInteres.floorEntry(base).getValue())
+                        .divide(BigDecimal.valueOf(12), 2, RoundingMode.HALF_EVEN).unscaledValue().longValue();
+                if (interes > 0) {
+                    mover(cuenta, interes, fecha);
+                    fila.entero(id).texto(tipo.name()).centavos(interes)
+                            .texto("Intereses " + fechaHora(fecha).toLocalDate()).fechaHora(fecha)
+                            .entero(cuenta + 1L).nulo().centavos(saldo[cuenta]).terminar(escritor);
+                    return 1;
+                }
+            }
+
+            long monto = monto(TipoTransaccion.CONSIGNACION);
+            mover(cuenta, monto, fecha);
+            fila.entero(id).texto(TipoTransaccion.CONSIGNACION.name()).centavos(monto).texto("Consignación")
+                    .fechaHora(fecha).entero(cuenta + 1L).nulo().centavos(saldo[cuenta]).terminar(escritor);
+            return 1;
+        }
+
+        private void mover(int cuenta, long centavos, long fecha) {
+            saldo[cuenta] += centavos;
+            ultimoMovimiento[cuenta] = fecha;
+            movimientos[cuenta]++;
+        }
+
+        /**
+         * Parte del monto cubierta por el tope exento del cliente en el mes
+         * (solo cuentas exentas), sin consumirla todavía
+         */
+        private long exencionDisponible(int cuenta, long fecha, long monto) {
+            if (!exenta[cuenta]) {
+                return 0;
+            }
+            int cliente = clienteDe[cuenta] - 1;
+            int periodo = periodo(fecha);
+            if (periodoExencion[cliente] != periodo) {
+                periodoExencion[cliente] = periodo;
+                usadoExencion[cliente] = 0;
+            }
+            return Math.min(monto, Math.max(0, topeExento - usadoExencion[cliente]));
+        }
+
+        private void consumirExencion(int cuenta, long exento) {
+            if (exento > 0) {
+                usadoExencion[clienteDe[cuenta] - 1] += exento;
+            }
+        }
+
+        private long gmf(long gravable) {
+            if (gravable <= 0) {
+                return 0;
+            }
+            return BigDecimal.valueOf(gravable, 2).multiply(configuracion.tasaGmf())
+                    .setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+        }
+
+        /**
+         * Monto log-normal en centavos, redondeado a miles de pesos
+         */
+        private long monto(TipoTransaccion tipo) {
+            double[] parametros = montos.get(tipo);
+            double pesos = parametros[0] * Math.exp(parametros[1] * aleatorio.nextGaussian());
+            long miles = Math.max(1, Math.round(pesos / 1000));
+            return Math.min(MAXIMO_MONTO_PESOS, miles * 1000) * 100;
+        }
+
+        private long escribirCuentas(Writer salida) throws IOException {
+            try (Writer escritor = salida) {
+                Fila fila = new Fila();
+                escritor.write(COLUMNAS_CUENTAS);
+                escritor.write('\n');
+                for (int i = 0; i < cuentas; i++) {
+                    fila.entero(i + 1L)
+                            .texto(corriente[i] ? "CUENTA_CORRIENTE" : "CUENTA_AHORRO")
+                            .texto(numeroCuenta(i))
+                            .texto("ACTIVA")
+                            .centavos(saldo[i])
+                            .entero(exenta[i] ? 1 : 0)
+                            .fechaHora(creacion[i]);
+                    if (movimientos[i] > 0) {
+                        fila.fechaHora(ultimoMovimiento[i]);
+                    } else {
+                        fila.nulo();
+                    }
+                    fila.nulo()
+                            .entero(movimientos[i])
+                            .entero(clienteDe[i])
+                            .centavos(saldoApertura[i])
+                            .terminar(escritor);
+                }
+            }
+            return cuentas;
+        }
+
+        private String numeroCuenta(int cuenta) {
+            return (corriente[cuenta] ? "33" : "53") + String.format("%08d", numero[cuenta]);
+        }
+
+        private int muestrear(double[] acumulado) {
+            double objetivo = aleatorio.nextDouble() * acumulado[acumulado.length - 1];
+            for (int i = 0; i < acumulado.length - 1; i++) {
+                if (objetivo < acumulado[i]) {
+                    return i;
+                }
+            }
+            return acumulado.length - 1;
+        }
+
+        private static String[] partes(String elemento, int cantidad, String distribucion) {
+            String[] partes = elemento.trim().split(":");
+            if (partes.length != cantidad) {
+                throw new IllegalArgumentException("Elemento inválido en " + distribucion + ": " + elemento);
+            }
+            return partes;
+        }
+
+        private static void acumular(double[] pesos, String distribucion) {
+            double total = 0;
+            for (int i = 0; i < pesos.length; i++) {
+                if (pesos[i] < 0) {
+                    throw new IllegalArgumentException("Peso negativo en " + distribucion);
+                }
+                total += pesos[i];
+                pesos[i] = total;
+            }
+            if (total <= 0) {
+                throw new IllegalArgumentException("La distribución de " + distribucion + " no tiene pesos");
+            }
+        }
+
+        private static int periodo(long epochMs) {
+            LocalDateTime momento = fechaHora(epochMs);
+            return momento.getYear() * 12 + momento.getMonthValue();
+        }
+
+        private static String sinTildes(String texto) {
+            return Normalizer.normalize(texto, Normalizer.Form.NFD).replaceAll("\\p{M}", "").toLowerCase();
+        }
+
+        private static long epochMs(LocalDateTime fecha) {
+            return fecha.toInstant(ZoneOffset.UTC).toEpochMilli();
+        }
+
+        private static LocalDateTime fechaHora(long epochMs) {
+            return LocalDateTime.ofEpochSecond(Math.floorDiv(epochMs, 1000),
+                    Math.floorMod(epochMs, 1000) * 1_000_000, ZoneOffset.UTC);
+        }
+    }
+
+    /**
+     * Fila CSV en construcción. Los nulos van como \N (lo entienden CSVREAD
+     * con null=\N y LOAD DATA) y los textos entre comillas solo si las
+     * necesitan.
+     */
+    static final class Fila {
+
+        private final StringBuilder linea = new StringBuilder(256);
+
+        Fila entero(long valor) {
+            separar().append(valor);
+            return this;
+        }
+
+        Fila centavos(long valor) {
+            separar();
+            if (valor < 0) {
+                linea.append('-');
+                valor = -valor;
+            }
+            long resto = valor % 100;
+            linea.append(valor / 100).append('.').append(resto < 10 ? "0" : "").append(resto);
+            return this;
+        }
+
+        Fila texto(String valor) {
+            separar();
+            if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0) {
+                linea.append(valor);
+            } else {
+                linea.append('"').append(valor.replace("\"", "\"\"")).append('"');
+            }
+            return this;
+        }
+
+        Fila fecha(LocalDate valor) {
+            separar().append(valor);
+            return this;
+        }
+
+        Fila fechaHora(long epochMs) {
+            LocalDateTime fecha = Generador.fechaHora(epochMs);
+            separar().append(fecha.toLocalDate()).append(' ');
+            dosDigitos(fecha.getHour()).append(':');
+            dosDigitos(fecha.getMinute()).append(':');
+            dosDigitos(fecha.getSecond()).append('.');
+            int milis = fecha.getNano() / 1_000_000;
+            linea.append(milis < 100 ? (milis < 10 ? "00" : "0") : "").append(milis);
+            return this;
+        }
+
+        Fila nulo() {
+            separar().append("\\N");
+            return this;
+        }
+
+        void terminar(Writer escritor) throws IOException {
+            linea.append('\n');
+            escritor.append(linea);
+            linea.setLength(0);
+        }
+
+        private StringBuilder separar() {
+            if (!linea.isEmpty()) {
+                linea.append(',');
+            }
+            return linea;
+        }
+
+        private StringBuilder dosDigitos(int valor) {
+            return linea.append(valor < 10 ? "0" : "").append(valor);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.banking.system.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Servicio de Inactividad Marca como INACTIVA las cuentas ACTIVA que no tienen
+ * movimientos en los últimos N días.
+ *
+ * Se resuelve en la BD por rangos de ID, sin cargar ni guardar cada entidad
+ * Cuenta: un anti-join (NOT EXISTS) selecciona y bloquea los IDs candidatos
+ * del rango y un UPDATE por lotes los marca. Cada rango es una transacción
+ * corta, así los bloqueos duran poco. Los movimientos que genera el propio
+ * banco (INTERES, GMF) no cuentan como actividad.
+ *
+ * En la misma transacción de cada rango se registra en el outbox un evento
+ * CUENTA_ESTADO_CAMBIADO por cada ID inactivado (exactamente los que se
+ * bloquearon, no los que coincidan por fecha de modificación), para que el
+ * modelo de lectura se entere igual que con un cambio de estado por la API.
+ */
+@Service
+public class InactividadService {
+
+    private static final Logger log = LoggerFactory.getLogger(InactividadService.class);
+
+    private static final String SQL_RANGO_IDS = "SELECT MIN(id) AS minimo, MAX(id) AS maximo "
+            + "FROM cuentas WHERE estado = 'ACTIVA'";
+
+    // Bloquea los candidatos del rango hasta el fin de su transacción
+    private static final String SQL_CANDIDATOS_RANGO = "SELECT c.id FROM cuentas c "
+            + "WHERE c.id >= ? AND c.id < ? AND c.estado = 'ACTIVA' AND c.fecha_creacion < ? "
+            + "AND NOT EXISTS (SELECT 1 FROM transacciones t "
+            + "WHERE t.cuenta_origen_id = c.id AND t.fecha_transaccion >= ? "
+            + "AND t.tipo_transaccion NOT IN ('INTERES', 'GMF')) "
+            + "ORDER BY c.id FOR UPDATE";
+
+    private static final String SQL_INACTIVAR = "UPDATE cuentas "
+            + "SET estado = 'INACTIVA', fecha_modificacion = ?, version = version + 1 "
+            + "WHERE id = ? AND estado = 'ACTIVA'";
+
+    private static final String SQL_EVENTO = "INSERT INTO eventos_outbox (tipo_evento, cuenta_id, saldo, "
+            + "detalle, estado, intentos, fecha_creacion) "
+            + "SELECT 'CUENTA_ESTADO_CAMBIADO', c.id, c.saldo + COALESCE((SELECT SUM(s.saldo) "
+            + "FROM subsaldos_cuenta s WHERE s.cuenta_id = c.id), 0), 'INACTIVA', 'PENDIENTE', 0, ? "
+            + "FROM cuentas c WHERE c.id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${banking.inactividad.dias:365}")
+    private int diasInactividad;
+
+    // Cantidad de IDs por cada UPDATE
+    @Value("${banking.inactividad.tamano-lote:10000}")
+    private int tamanoLote;
+
+    private final AtomicBoolean enEjecucion = new AtomicBoolean(false);
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Resultado de un barrido de inactividad
+     */
+    public record ResultadoBarrido(LocalDateTime fechaCorte, long cuentasInactivadas, long duracionMs) {
+    }
+
+    @PostConstruct
+    public void inicializar() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Ejecución programada con los días configurados
+     */
+    @Scheduled(cron = "${banking.inactividad.cron:0 0 2 * * *}")
+    public void barridoProgramado() {
+        inactivarCuentasSinMovimientos(diasInactividad);
+    }
+
+    /**
+     * Inactiva las cuentas ACTIVA sin movimientos en los últimos "dias" días
+     */
+    public ResultadoBarrido inactivarCuentasSinMovimientos(int dias) {
+        if (dias <= 0) {
+            throw new IllegalArgumentException("Los días de inactividad deben ser mayores a cero");
+        }
+        if (!enEjecucion.compareAndSet(false, true)) {
+            throw new IllegalStateException("Ya hay un barrido de inactividad en ejecución");
+        }
+        try {
+            long inicio = System.nanoTime();
+            LocalDateTime ahora = LocalDateTime.now();
+            Timestamp fechaCorte = Timestamp.valueOf(ahora.minusDays(dias));
+            Timestamp fechaModificacion = Timestamp.valueOf(ahora);
+
+            long inactivadas = 0;
+            Map<String, Object> rango = jdbcTemplate.queryForMap(SQL_RANGO_IDS);
+            if (rango.get("minimo") != null) {
+                long minimo = ((Number) rango.get("minimo")).longValue();
+                long maximo = ((Number) rango.get("maximo")).longValue();
+
+                for (long desde = minimo; desde <= maximo; desde += tamanoLote) {
+                    inactivadas += inactivarRango(desde, desde + tamanoLote, fechaCorte, fechaModificacion);
+                }
+            }
+
+            long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+            log.info("Barrido de inactividad ({} días): {} cuentas inactivadas en {} ms", dias, inactivadas, duracionMs);
+            return new ResultadoBarrido(ahora.minusDays(dias), inactivadas, duracionMs);
+        } finally {
+            enEjecucion.set(false);
+        }
+    }
+
+    /**
+     * Inactiva las cuentas del rango [desde, hasta) y registra un evento por
+     * cada una
+     */
+    private int inactivarRango(long desde, long hasta, Timestamp fechaCorte, Timestamp fechaModificacion) {
+        Integer inactivadas = transactionTemplate.execute(status -> {
+            List<Long> ids = jdbcTemplate.queryForList(SQL_CANDIDATOS_RANGO, Long.class, desde, hasta, fechaCorte,
+                    fechaCorte);
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            List<Object[]> filas = ids.stream()
+                    .map(id -> new Object[]{fechaModificacion, id})
+                    .toList();
+            jdbcTemplate.batchUpdate(SQL_INACTIVAR, filas);
+            jdbcTemplate.batchUpdate(SQL_EVENTO, filas);
+            return ids.size();
+        });
+        return inactivadas != null ? inactivadas : 0;
+    }
+}
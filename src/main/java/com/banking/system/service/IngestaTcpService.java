@@ -0,0 +1,436 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.Transaccion;
+import com.banking.system.entity.Transaccion.TipoTransaccion;
+import com.banking.system.service.ProtocoloIngesta.Respuesta;
+import com.banking.system.service.ProtocoloIngesta.Solicitud;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Servicio de Ingesta TCP Servidor del protocolo binario de cajeros y
+ * datáfonos (ver ProtocoloIngesta).
+ *
+ * Un solo hilo con un Selector NIO atiende todas las conexiones: lee las
+ * tramas en un buffer fijo por conexión, las decodifica sin copiar y pasa los
+ * comandos a un pool de workers que llaman a TransaccionService, igual que
+ * TransaccionController. Las respuestas vuelven al hilo del selector, que las
+ * escribe en otro buffer fijo por conexión.
+ *
+ * Cada conexión puede tener hasta max-en-vuelo solicitudes sin responder; al
+ * llegar a ese tope se deja de leer el socket hasta que salgan respuestas
+ * (contrapresión por TCP).
+ */
+@Service
+public class IngestaTcpService {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestaTcpService.class);
+
+    @Autowired
+    private TransaccionService transaccionService;
+
+    @Autowired
+    private LimiteTasaService limiteTasaService;
+
+    @Autowired
+    private ConcurrenciaCuentaService concurrenciaCuentaService;
+
+    @Value("${banking.ingesta.habilitada:false}")
+    private boolean habilitada;
+
+    // 0 = puerto libre cualquiera (tests)
+    @Value("${banking.ingesta.puerto:9090}")
+    private int puerto;
+
+    @Value("${banking.ingesta.hilos:8}")
+    private int hilos;
+
+    // Solicitudes sin responder por conexión antes de dejar de leer el socket
+    @Value("${banking.ingesta.max-en-vuelo:256}")
+    private int maxEnVuelo;
+
+    // Tamaño de los buffers de lectura y escritura de cada conexión
+    @Value("${banking.ingesta.tamano-buffer:65536}")
+    private int tamanoBuffer;
+
+    private final Queue<Conexion> porEscribir = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean despertado = new AtomicBoolean();
+    private final AtomicInteger conexionesActivas = new AtomicInteger();
+    private final LongAdder recibidas = new LongAdder();
+    private final LongAdder respondidas = new LongAdder();
+    private final LongAdder rechazadas = new LongAdder();
+    private final LongAdder errores = new LongAdder();
+    private final LongAdder malformadas = new LongAdder();
+    private final LongAdder latenciaTotalNanos = new LongAdder();
+
+    private volatile boolean activo;
+    private long inicioNanos;
+    private Selector selector;
+    private ServerSocketChannel servidor;
+    private ExecutorService workers;
+    private Thread hiloSelector;
+
+    /**
+     * Métricas del servidor de ingesta. La latencia va desde que se decodifica
+     * la solicitud hasta que su respuesta queda lista para escribirse.
+     */
+    public record MetricasIngesta(boolean activa, int puerto, int conexionesActivas, long solicitudesRecibidas,
+            long respuestasEnviadas, long rechazadas, long errores, long malformadas,
+            double solicitudesPorSegundo, double latenciaPromedioMicros) {
+    }
+
+    /**
+     * Estado de una conexión. Los buffers solo los toca el hilo del selector;
+     * la cola de respuestas la llenan los workers.
+     */
+    private static final class Conexion {
+        final SocketChannel canal;
+        final SelectionKey key;
+        final ByteBuffer lectura;
+        final ByteBuffer escritura;
+        final Queue<Respuesta> respuestas = new ConcurrentLinkedQueue<>();
+        final AtomicInteger enVuelo = new AtomicInteger();
+        final AtomicBoolean marcadaParaEscribir = new AtomicBoolean();
+        boolean lecturaPausada;
+        boolean cerrada;
+
+        Conexion(SocketChannel canal, SelectionKey key, int tamanoBuffer) {
+            this.canal = canal;
+            this.key = key;
+            this.lectura = ByteBuffer.allocateDirect(tamanoBuffer);
+            this.escritura = ByteBuffer.allocateDirect(tamanoBuffer);
+        }
+    }
+
+    @PostConstruct
+    public void iniciar() throws IOException {
+        if (habilitada) {
+            abrir();
+        }
+    }
+
+    /**
+     * Abre el puerto y arranca el hilo del selector y los workers
+     */
+    public synchronized void abrir() throws IOException {
+        if (activo) {
+            return;
+        }
+        selector = Selector.open();
+        servidor = ServerSocketChannel.open();
+        servidor.bind(new InetSocketAddress(puerto));
+        servidor.configureBlocking(false);
+        servidor.register(selector, SelectionKey.OP_ACCEPT);
+
+        workers = Executors.newFixedThreadPool(hilos, r -> {
+            Thread hilo = new Thread(r, "ingesta-worker");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        activo = true;
+        inicioNanos = System.nanoTime();
+        hiloSelector = new Thread(this::ciclo, "ingesta-selector");
+        hiloSelector.setDaemon(true);
+        hiloSelector.start();
+        log.info("Ingesta TCP escuchando en el puerto {}", getPuerto());
+    }
+
+    @PreDestroy
+    public synchronized void detener() {
+        if (!activo) {
+            return;
+        }
+        activo = false;
+        selector.wakeup();
+        try {
+            hiloSelector.join(TimeUnit.SECONDS.toMillis(2));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers.shutdownNow();
+        for (SelectionKey key : selector.keys()) {
+            cerrarSilencioso(key);
+        }
+        try {
+            selector.close();
+            servidor.close();
+        } catch (IOException e) {
+            log.warn("Error cerrando el servidor de ingesta", e);
+        }
+    }
+
+    public int getPuerto() {
+        return servidor != null ? servidor.socket().getLocalPort() : puerto;
+    }
+
+    public MetricasIngesta obtenerMetricas() {
+        double segundos = activo ? (System.nanoTime() - inicioNanos) / 1_000_000_000.0 : 0;
+        long respuestas = respondidas.sum();
+        return new MetricasIngesta(
+                activo,
+                getPuerto(),
+                conexionesActivas.get(),
+                recibidas.sum(),
+                respuestas,
+                rechazadas.sum(),
+                errores.sum(),
+                malformadas.sum(),
+                segundos > 0 ? recibidas.sum() / segundos : 0,
+                respuestas > 0 ? latenciaTotalNanos.sum() / 1000.0 / respuestas : 0
+        );
+    }
+
+    private void ciclo() {
+        while (activo) {
+            try {
+                selector.select();
+                despertado.set(false);
+                escribirPendientes();
+
+                Iterator<SelectionKey> claves = selector.selectedKeys().iterator();
+                while (claves.hasNext()) {
+                    SelectionKey key = claves.next();
+                    claves.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    try {
+                        if (key.isAcceptable()) {
+                            aceptar();
+                            continue;
+                        }
+                        Conexion conexion = (Conexion) key.attachment();
+                        if (key.isWritable()) {
+                            escribir(conexion);
+                        }
+                        if (key.isValid() && key.isReadable()) {
+                            leer(conexion);
+                        }
+                    } catch (IOException e) {
+                        cerrarSilencioso(key);
+                    }
+                }
+            } catch (ClosedSelectorException e) {
+                return;
+            } catch (IOException e) {
+                log.error("Error en el selector de ingesta", e);
+            }
+        }
+    }
+
+    private void aceptar() throws IOException {
+        SocketChannel canal = servidor.accept();
+        if (canal == null) {
+            return;
+        }
+        canal.configureBlocking(false);
+        canal.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        SelectionKey key = canal.register(selector, SelectionKey.OP_READ);
+        key.attach(new Conexion(canal, key, tamanoBuffer));
+        conexionesActivas.incrementAndGet();
+    }
+
+    private void leer(Conexion conexion) throws IOException {
+        if (conexion.canal.read(conexion.lectura) < 0) {
+            cerrarSilencioso(conexion.key);
+            return;
+        }
+        procesarTramas(conexion);
+    }
+
+    /**
+     * Decodifica las tramas completas del buffer de lectura y las pasa a los
+     * workers. Una trama incompleta se queda en el buffer hasta la siguiente
+     * lectura.
+     */
+    private void procesarTramas(Conexion conexion) {
+        ByteBuffer buffer = conexion.lectura;
+        buffer.flip();
+        while (buffer.remaining() >= ProtocoloIngesta.TAMANO_PREFIJO) {
+            if (conexion.enVuelo.get() >= maxEnVuelo) {
+                pausarLectura(conexion);
+                break;
+            }
+            int longitud = buffer.getInt(buffer.position());
+            if (longitud != ProtocoloIngesta.TAMANO_SOLICITUD) {
+                // Sin una longitud válida no hay forma de resincronizar el flujo
+                malformadas.increment();
+                cerrarSilencioso(conexion.key);
+                return;
+            }
+            if (buffer.remaining() < ProtocoloIngesta.TAMANO_PREFIJO + longitud) {
+                break;
+            }
+            buffer.getInt();
+            Solicitud solicitud = ProtocoloIngesta.leerSolicitud(buffer);
+            long recibidaNanos = System.nanoTime();
+            recibidas.increment();
+            conexion.enVuelo.incrementAndGet();
+            try {
+                workers.execute(() -> responder(conexion, ejecutar(solicitud), recibidaNanos));
+            } catch (RejectedExecutionException e) {
+                // El servidor se está deteniendo
+                return;
+            }
+        }
+        buffer.compact();
+    }
+
+    private Respuesta ejecutar(Solicitud solicitud) {
+        if (!solicitud.esValida()) {
+            malformadas.increment();
+            return Respuesta.error(ProtocoloIngesta.ESTADO_MALFORMADA, solicitud.correlacion(),
+                    "Versión o tipo de mensaje no soportado");
+        }
+        if (limiteTasaService.consumir(solicitud.cuentaId()) > 0) {
+            rechazadas.increment();
+            return Respuesta.error(ProtocoloIngesta.ESTADO_LIMITE, solicitud.correlacion(),
+                    "Demasiadas solicitudes para la cuenta");
+        }
+
+        BigDecimal monto = BigDecimal.valueOf(solicitud.montoCentavos(), 2);
+        try {
+            Transaccion transaccion = concurrenciaCuentaService.ejecutar(() -> switch (solicitud.tipo()) {
+                case ProtocoloIngesta.TIPO_CONSIGNACION ->
+                        transaccionService.realizarConsignacion(solicitud.cuentaId(), monto, null);
+                case ProtocoloIngesta.TIPO_RETIRO ->
+                        transaccionService.realizarRetiro(solicitud.cuentaId(), monto, null);
+                default -> transaccionEnviada(transaccionService.realizarTransferencia(
+                        solicitud.cuentaId(), solicitud.cuentaDestinoId(), monto, null));
+            });
+            return Respuesta.ok(solicitud.correlacion(), transaccion.getId(), centavos(transaccion.getSaldoPosterior()));
+        } catch (FraudeSospechosoException e) {
+            rechazadas.increment();
+            return Respuesta.error(ProtocoloIngesta.ESTADO_FRAUDE, solicitud.correlacion(), e.getMessage());
+        } catch (IllegalArgumentException e) {
+            rechazadas.increment();
+            return Respuesta.error(ProtocoloIngesta.ESTADO_RECHAZADA, solicitud.correlacion(), e.getMessage());
+        } catch (IllegalStateException e) {
+            // Conflictos de concurrencia agotados: el cliente puede reenviar
+            errores.increment();
+            return Respuesta.error(ProtocoloIngesta.ESTADO_ERROR, solicitud.correlacion(), e.getMessage());
+        } catch (RuntimeException e) {
+            errores.increment();
+            log.warn("Error procesando la solicitud {} de la cuenta {}", solicitud.correlacion(), solicitud.cuentaId(), e);
+            return Respuesta.error(ProtocoloIngesta.ESTADO_ERROR, solicitud.correlacion(), "Error interno");
+        }
+    }
+
+    /**
+     * Lo llaman los workers: deja la respuesta en la cola de la conexión y
+     * despierta al selector (una sola vez por vuelta)
+     */
+    private void responder(Conexion conexion, Respuesta respuesta, long recibidaNanos) {
+        latenciaTotalNanos.add(System.nanoTime() - recibidaNanos);
+        conexion.respuestas.add(respuesta);
+        if (conexion.marcadaParaEscribir.compareAndSet(false, true)) {
+            porEscribir.add(conexion);
+        }
+        if (despertado.compareAndSet(false, true)) {
+            selector.wakeup();
+        }
+    }
+
+    private void escribirPendientes() {
+        Conexion conexion;
+        while ((conexion = porEscribir.poll()) != null) {
+            // Se desmarca antes de vaciar la cola para no perder respuestas que lleguen mientras tanto
+            conexion.marcadaParaEscribir.set(false);
+            if (!conexion.key.isValid()) {
+                continue;
+            }
+            try {
+                escribir(conexion);
+            } catch (IOException e) {
+                cerrarSilencioso(conexion.key);
+            }
+        }
+    }
+
+    private void escribir(Conexion conexion) throws IOException {
+        ByteBuffer salida = conexion.escritura;
+        Respuesta respuesta;
+        while ((respuesta = conexion.respuestas.peek()) != null) {
+            byte[] mensaje = ProtocoloIngesta.codificarMensaje(respuesta.mensaje());
+            if (salida.remaining() < ProtocoloIngesta.tamanoRespuesta(mensaje)) {
+                break;
+            }
+            conexion.respuestas.poll();
+            ProtocoloIngesta.escribirRespuesta(salida, respuesta, mensaje);
+            conexion.enVuelo.decrementAndGet();
+            respondidas.increment();
+        }
+
+        salida.flip();
+        conexion.canal.write(salida);
+        salida.compact();
+
+        boolean pendiente = salida.position() > 0 || !conexion.respuestas.isEmpty();
+        int interes = conexion.key.interestOps();
+        conexion.key.interestOps(pendiente ? interes | SelectionKey.OP_WRITE : interes & ~SelectionKey.OP_WRITE);
+
+        if (conexion.lecturaPausada && conexion.enVuelo.get() < maxEnVuelo) {
+            conexion.lecturaPausada = false;
+            conexion.key.interestOps(conexion.key.interestOps() | SelectionKey.OP_READ);
+            // Puede haber tramas completas esperando en el buffer
+            procesarTramas(conexion);
+        }
+    }
+
+    private void pausarLectura(Conexion conexion) {
+        conexion.lecturaPausada = true;
+        conexion.key.interestOps(conexion.key.interestOps() & ~SelectionKey.OP_READ);
+    }
+
+    private void cerrarSilencioso(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            log.debug("Error cerrando una conexión de ingesta", e);
+        }
+        if (key.attachment() instanceof Conexion conexion && !conexion.cerrada) {
+            conexion.cerrada = true;
+            conexionesActivas.decrementAndGet();
+        }
+    }
+
+    private Transaccion transaccionEnviada(List<Transaccion> transacciones) {
+        return transacciones.stream()
+                .filter(t -> t.getTipoTransaccion() == TipoTransaccion.TRANSFERENCIA_ENVIADA)
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("La transferencia no generó la transacción de envío"));
+    }
+
+    private long centavos(BigDecimal valor) {
+        return valor != null ? valor.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue() : 0;
+    }
+}
@@ -0,0 +1,383 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.CausacionInteres;
+import com.banking.system.entity.CausacionInteres.EstadoCausacion;
+import com.banking.system.repository.CausacionInteresRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Servicio de Intereses Causación diaria de intereses de cuentas de ahorro.
+ *
+ * - Las cuentas se recorren por lotes ordenados por ID (keyset, sin OFFSET) y
+ * cada lote se procesa en un pool de hilos. - Cada lote es una transacción
+ * corta: bloquea solo sus filas, actualiza saldos con un UPDATE por lotes e
+ * inserta las transacciones INTERES con JDBC batch. - Es idempotente por fecha
+ * de corte: cada cuenta guarda su última fecha causada, así que reejecutar
+ * (por ejemplo después de una caída) solo procesa las cuentas pendientes. -
+ * La ejecución nocturna recupera los días que no corrieron (nodo caído): causa
+ * en orden cada fecha desde la última COMPLETADA hasta ayer, hasta
+ * max-dias-recuperacion días, y se detiene en la primera que no se completa
+ * para no saltar cuentas pendientes de esa fecha. - A pedido tampoco se puede
+ * causar una fecha posterior al primer día pendiente: las cuentas guardan solo
+ * su última fecha causada y el día intermedio quedaría sin causar para
+ * ellas. - Las cuentas calientes se
+ * consolidan en el lote antes de bloquearlo: el interés se calcula sobre el
+ * saldo completo y las ranuras quedan bloqueadas hasta confirmar, así el saldo
+ * posterior no lo atrasa un abono concurrente.
+ *
+ * No usa @Transactional de clase: cada lote maneja su propia transacción para
+ * no retener bloqueos que afecten a TransaccionService.
+ */
+@Service
+public class InteresService {
+
+    private static final Logger log = LoggerFactory.getLogger(InteresService.class);
+
+    private static final String SQL_SIGUIENTE_LOTE = "SELECT id FROM cuentas "
+            + "WHERE tipo_cuenta = 'CUENTA_AHORRO' AND estado = 'ACTIVA' AND id > ? "
+            + "AND (fecha_ultima_causacion IS NULL OR fecha_ultima_causacion < ?) "
+            + "ORDER BY id LIMIT ?";
+
+    private static final String SQL_CALIENTES_LOTE = "SELECT DISTINCT cuenta_id FROM subsaldos_cuenta "
+            + "WHERE cuenta_id >= ? AND cuenta_id <= ? ORDER BY cuenta_id";
+
+    private static final String SQL_BLOQUEAR_LOTE = "SELECT id, saldo FROM cuentas "
+            + "WHERE tipo_cuenta = 'CUENTA_AHORRO' AND estado = 'ACTIVA' AND id >= ? AND id <= ? "
+            + "AND (fecha_ultima_causacion IS NULL OR fecha_ultima_causacion < ?) "
+            + "ORDER BY id FOR UPDATE";
+
+    private static final String SQL_ACTUALIZAR_SALDO = "UPDATE cuentas "
+            + "SET saldo = ?, fecha_ultima_causacion = ?, fecha_modificacion = ?, version = version + 1 WHERE id = ?";
+
+    private static final String SQL_INSERTAR_INTERES = "INSERT INTO transacciones "
+            + "(tipo_transaccion, monto, descripcion, fecha_transaccion, cuenta_origen_id, saldo_posterior) "
+            + "VALUES ('INTERES', ?, ?, ?, ?, ?)";
+
+    // Evento de outbox de cada abono, en la misma transacción del lote
+    private static final String SQL_INSERTAR_EVENTO = "INSERT INTO eventos_outbox "
+            + "(tipo_evento, cuenta_id, transaccion_id, monto, saldo, detalle, estado, intentos, fecha_creacion) "
+            + "VALUES ('TRANSACCION_REGISTRADA', ?, ?, ?, ?, 'INTERES', 'PENDIENTE', 0, ?)";
+
+    private static final BigDecimal DIAS_ANIO = new BigDecimal("365");
+
+    @Autowired
+    private CausacionInteresRepository causacionInteresRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private RankingCuentasService rankingCuentasService;
+
+    @Autowired
+    private SubsaldoCuentaService subsaldoCuentaService;
+
+    // Tramos "saldoMinimo:tasaEfectivaAnual" separados por coma
+    @Value("${banking.intereses.tramos:0:0.0025,5000000:0.01,50000000:0.02}")
+    private String tramosConfigurados;
+
+    @Value("${banking.intereses.tamano-lote:500}")
+    private int tamanoLote;
+
+    @Value("${banking.intereses.hilos:4}")
+    private int hilos;
+
+    // Días hacia atrás que la ejecución nocturna recupera como máximo
+    @Value("${banking.intereses.max-dias-recuperacion:31}")
+    private int maxDiasRecuperacion;
+
+    // Tiempo máximo de cada transacción de lote (segundos)
+    @Value("${banking.intereses.timeout-lote-segundos:5}")
+    private int timeoutLoteSegundos;
+
+    private final NavigableMap<BigDecimal, BigDecimal> tramos = new TreeMap<>();
+    private final AtomicBoolean enEjecucion = new AtomicBoolean(false);
+    private ExecutorService ejecutor;
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void inicializar() {
+        tramos.clear();
+        for (String tramo : tramosConfigurados.split(",")) {
+            String[] partes = tramo.trim().split(":");
+            tramos.put(new BigDecimal(partes[0].trim()), new BigDecimal(partes[1].trim()));
+        }
+        ejecutor = Executors.newFixedThreadPool(hilos, r -> {
+            Thread hilo = new Thread(r, "causacion-intereses");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setTimeout(timeoutLoteSegundos);
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (ejecutor != null) {
+            ejecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Ejecución nocturna: causa los intereses del día anterior y antes los de
+     * los días que quedaron sin completar
+     */
+    @Scheduled(cron = "${banking.intereses.cron:0 30 0 * * *}")
+    public void causacionNocturna() {
+        LocalDate ayer = LocalDate.now().minusDays(1);
+        LocalDate ultima = causacionInteresRepository.findFechaCorteMasRecienteByEstado(EstadoCausacion.COMPLETADA);
+        LocalDate desde = ultima != null ? ultima.plusDays(1) : ayer;
+        if (desde.isBefore(ayer.minusDays(maxDiasRecuperacion - 1L))) {
+            log.warn("Causación de intereses: faltan días desde el {}, solo se recuperan los últimos {}",
+                    desde, maxDiasRecuperacion);
+            desde = ayer.minusDays(maxDiasRecuperacion - 1L);
+        }
+        // Va en orden y se detiene en el primer día con errores: no necesita la
+        // validación de días pendientes (y la salta cuando acota la recuperación)
+        for (LocalDate fecha = desde; !fecha.isAfter(ayer); fecha = fecha.plusDays(1)) {
+            if (causar(fecha, false).getEstado() != EstadoCausacion.COMPLETADA) {
+                log.warn("Causación de intereses del {} con errores: los días siguientes esperan a la próxima ejecución",
+                        fecha);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Causa los intereses de la fecha de corte indicada. Si la fecha ya está
+     * COMPLETADA no hace nada; si quedó a medias, continúa con las cuentas
+     * pendientes. Rechaza una fecha posterior al primer día pendiente.
+     */
+    public CausacionInteres causarIntereses(LocalDate fechaCorte) {
+        return causar(fechaCorte, true);
+    }
+
+    private CausacionInteres causar(LocalDate fechaCorte, boolean validarPendientes) {
+        if (!enEjecucion.compareAndSet(false, true)) {
+            throw new IllegalStateException("Ya hay una causación de intereses en ejecución");
+        }
+        try {
+            CausacionInteres causacion = causacionInteresRepository.findById(fechaCorte)
+                    .orElseGet(() -> new CausacionInteres(fechaCorte));
+
+            if (causacion.getEstado() == EstadoCausacion.COMPLETADA) {
+                log.info("La causación de intereses del {} ya fue completada", fechaCorte);
+                return causacion;
+            }
+            if (validarPendientes) {
+                LocalDate pendiente = primeraFechaPendiente();
+                if (pendiente != null && fechaCorte.isAfter(pendiente)) {
+                    throw new IllegalStateException("Hay días sin causar desde el " + pendiente
+                            + ": la causación del " + fechaCorte + " debe esperar a que se causen en orden");
+                }
+            }
+
+            causacion.setEstado(EstadoCausacion.EN_PROCESO);
+            causacion.setFechaInicio(LocalDateTime.now());
+            causacion = causacionInteresRepository.save(causacion);
+
+            return procesar(causacion);
+        } finally {
+            enEjecucion.set(false);
+        }
+    }
+
+    /**
+     * Primer día sin causar: el siguiente a la última causación completada o,
+     * si no hay ninguna, la causación más antigua que no se completó
+     */
+    private LocalDate primeraFechaPendiente() {
+        LocalDate ultima = causacionInteresRepository.findFechaCorteMasRecienteByEstado(EstadoCausacion.COMPLETADA);
+        if (ultima != null) {
+            return ultima.plusDays(1);
+        }
+        return causacionInteresRepository.findFechaCorteMasAntiguaByEstadoNot(EstadoCausacion.COMPLETADA);
+    }
+
+    /**
+     * Interés de un día para el saldo dado según el tramo que le corresponde
+     */
+    public BigDecimal calcularInteresDiario(BigDecimal saldo) {
+        if (saldo == null || saldo.compareTo(BigDecimal.ZERO) <= 0) {
+            return BigDecimal.ZERO;
+        }
+        Map.Entry<BigDecimal, BigDecimal> tramo = tramos.floorEntry(saldo);
+        if (tramo == null) {
+            return BigDecimal.ZERO;
+        }
+        return saldo.multiply(tramo.getValue()).divide(DIAS_ANIO, 2, RoundingMode.HALF_EVEN);
+    }
+
+    private CausacionInteres procesar(CausacionInteres causacion) {
+        LocalDate fechaCorte = causacion.getFechaCorte();
+        Date fechaSql = Date.valueOf(fechaCorte);
+        long inicio = System.nanoTime();
+
+        AtomicLong cuentas = new AtomicLong();
+        LongAdder interesesCentavos = new LongAdder();
+        AtomicInteger lotesFallidos = new AtomicInteger();
+
+        // Limita los lotes en vuelo para no acumular trabajo en memoria
+        Semaphore enVuelo = new Semaphore(hilos * 2);
+        List<CompletableFuture<Void>> pendientes = new ArrayList<>();
+
+        long ultimoId = 0;
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList(SQL_SIGUIENTE_LOTE, Long.class, ultimoId, fechaSql, tamanoLote);
+            if (ids.isEmpty()) {
+                break;
+            }
+            long desde = ids.get(0);
+            long hasta = ids.get(ids.size() - 1);
+            ultimoId = hasta;
+
+            enVuelo.acquireUninterruptibly();
+            pendientes.add(CompletableFuture.runAsync(() -> {
+                try {
+                    long[] resultado = procesarLote(desde, hasta, fechaCorte);
+                    cuentas.addAndGet(resultado[0]);
+                    interesesCentavos.add(resultado[1]);
+                } catch (RuntimeException e) {
+                    lotesFallidos.incrementAndGet();
+                    log.error("Error causando intereses del lote [{} - {}]", desde, hasta, e);
+                } finally {
+                    enVuelo.release();
+                }
+            }, ejecutor));
+        }
+        CompletableFuture.allOf(pendientes.toArray(CompletableFuture<?>[]::new)).join();
+
+        long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+        causacion.setCuentasProcesadas(causacion.getCuentasProcesadas() + cuentas.get());
+        causacion.setTotalIntereses(causacion.getTotalIntereses().add(BigDecimal.valueOf(interesesCentavos.sum(), 2)));
+        causacion.setLotesFallidos(lotesFallidos.get());
+        causacion.setDuracionMs(duracionMs);
+        causacion.setFechaFin(LocalDateTime.now());
+        causacion.setEstado(lotesFallidos.get() == 0 ? EstadoCausacion.COMPLETADA : EstadoCausacion.CON_ERRORES);
+
+        log.info("Causación de intereses {}: {} cuentas en {} ms ({} cuentas/s), lotes fallidos: {}",
+                fechaCorte, cuentas.get(), duracionMs, String.format("%.1f", causacion.getCuentasPorSegundo()),
+                lotesFallidos.get());
+
+        CausacionInteres guardada = causacionInteresRepository.save(causacion);
+        // Los abonos de intereses van por JDBC, sin pasar por TransaccionService
+        rankingCuentasService.reconstruir();
+        return guardada;
+    }
+
+    /**
+     * Procesa un lote en su propia transacción
+     *
+     * @return [cuentas procesadas, intereses en centavos]
+     */
+    private long[] procesarLote(long desde, long hasta, LocalDate fechaCorte) {
+        return transactionTemplate.execute(status -> {
+            Date fechaSql = Date.valueOf(fechaCorte);
+            Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+            String descripcion = "Intereses " + fechaCorte;
+
+            List<Object[]> saldos = new ArrayList<>();
+            List<Object[]> intereses = new ArrayList<>();
+            List<Object[]> eventos = new ArrayList<>();
+            long totalCentavos = 0;
+
+            // Mismo orden que un débito: primero las ranuras y luego la cuenta
+            for (Long caliente : jdbcTemplate.queryForList(SQL_CALIENTES_LOTE, Long.class, desde, hasta)) {
+                subsaldoCuentaService.consolidar(caliente);
+            }
+
+            List<Map<String, Object>> filas = jdbcTemplate.queryForList(SQL_BLOQUEAR_LOTE, desde, hasta, fechaSql);
+            for (Map<String, Object> fila : filas) {
+                Long id = ((Number) fila.get("id")).longValue();
+                BigDecimal saldo = (BigDecimal) fila.get("saldo");
+                BigDecimal interes = calcularInteresDiario(saldo);
+                BigDecimal nuevoSaldo = saldo.add(interes);
+
+                saldos.add(new Object[]{nuevoSaldo, fechaSql, ahora, id});
+                if (interes.compareTo(BigDecimal.ZERO) > 0) {
+                    intereses.add(new Object[]{interes, descripcion, ahora, id, nuevoSaldo});
+                    eventos.add(new Object[]{id, null, interes, nuevoSaldo, ahora});
+                    totalCentavos += interes.unscaledValue().longValue();
+                }
+            }
+
+            if (!saldos.isEmpty()) {
+                jdbcTemplate.batchUpdate(SQL_ACTUALIZAR_SALDO, saldos);
+            }
+            if (!intereses.isEmpty()) {
+                List<Long> transacciones = insertarIntereses(intereses);
+                for (int i = 0; i < eventos.size(); i++) {
+                    eventos.get(i)[1] = transacciones.get(i);
+                }
+                jdbcTemplate.batchUpdate(SQL_INSERTAR_EVENTO, eventos);
+            }
+            return new long[]{filas.size(), totalCentavos};
+        });
+    }
+
+    /**
+     * Inserta las transacciones INTERES en un batch
+     *
+     * @return IDs generados, en el orden de las filas
+     */
+    private List<Long> insertarIntereses(List<Object[]> intereses) {
+        KeyHolder claves = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(conexion -> conexion.prepareStatement(SQL_INSERTAR_INTERES, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement sentencia, int i) throws SQLException {
+                        Object[] fila = intereses.get(i);
+                        for (int j = 0; j < fila.length; j++) {
+                            sentencia.setObject(j + 1, fila[j]);
+                        }
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return intereses.size();
+                    }
+                }, claves);
+        // H2 devuelve la columna ID y MySQL GENERATED_KEY: se toma el único valor
+        return claves.getKeyList().stream()
+                .map(clave -> ((Number) clave.values().iterator().next()).longValue())
+                .toList();
+    }
+}
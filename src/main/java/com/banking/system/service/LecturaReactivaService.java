@@ -0,0 +1,173 @@
+package com.banking.system.service;
+
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Servicio de Lectura Reactiva Consultas de cuentas, clientes y transacciones
+ * sobre R2DBC, sin bloquear hilos mientras la base de datos responde.
+ *
+ * Devuelve registros planos (no entidades JPA). El historial se emite fila a
+ * fila y el driver solo lee de la base lo que el cliente va consumiendo
+ * (contrapresión), así un historial grande no se carga completo en memoria.
+ * Solo cubre las transacciones en línea; los meses archivados se consultan
+ * en /api/transacciones/cuenta/{id}.
+ */
+@Service
+public class LecturaReactivaService {
+
+    private static final String SQL_CUENTA = "SELECT id, numero_cuenta, tipo_cuenta, estado, saldo, exenta_gmf, "
+            + "cliente_id, fecha_creacion FROM cuentas WHERE id = :id";
+
+    private static final String SQL_CUENTAS_CLIENTE = "SELECT id, numero_cuenta, tipo_cuenta, estado, saldo, "
+            + "exenta_gmf, cliente_id, fecha_creacion FROM cuentas WHERE cliente_id = :clienteId ORDER BY id";
+
+    private static final String SQL_CLIENTE = "SELECT id, tipo_identificacion, numero_identificacion, nombres, "
+            + "apellido, correo_electronico, fecha_nacimiento FROM clientes WHERE id = :id";
+
+    private static final String SQL_TRANSACCION = "SELECT id, tipo_transaccion, monto, descripcion, fecha_transaccion, "
+            + "cuenta_origen_id, cuenta_destino_id, saldo_posterior FROM transacciones WHERE id = :id";
+
+    private static final String SQL_HISTORIAL = "SELECT id, tipo_transaccion, monto, descripcion, fecha_transaccion, "
+            + "cuenta_origen_id, cuenta_destino_id, saldo_posterior FROM transacciones "
+            + "WHERE (cuenta_origen_id = :cuentaId OR cuenta_destino_id = :cuentaId) "
+            + "AND fecha_transaccion BETWEEN :desde AND :hasta ORDER BY fecha_transaccion DESC";
+
+    private static final LocalDateTime FECHA_MINIMA = LocalDateTime.of(1900, 1, 1, 0, 0);
+    private static final LocalDateTime FECHA_MAXIMA = LocalDateTime.of(9999, 12, 31, 23, 59);
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    // Filas que el driver pide por adelantado al transmitir un historial
+    @Value("${banking.reactivo.filas-prefetch:256}")
+    private int filasPrefetch;
+
+    private final AtomicLong consultasEnCurso = new AtomicLong();
+    private final AtomicLong maximoConcurrentes = new AtomicLong();
+    private final LongAdder consultas = new LongAdder();
+    private final LongAdder filasEmitidas = new LongAdder();
+    private final LongAdder historialesCancelados = new LongAdder();
+
+    public record CuentaLectura(Long id, String numeroCuenta, String tipoCuenta, String estado,
+            BigDecimal saldo, Boolean exentaGMF, Long clienteId, LocalDateTime fechaCreacion) {
+    }
+
+    public record ClienteLectura(Long id, String tipoIdentificacion, String numeroIdentificacion,
+            String nombres, String apellido, String correoElectronico, LocalDate fechaNacimiento) {
+    }
+
+    public record TransaccionLectura(Long id, String tipoTransaccion, BigDecimal monto, String descripcion,
+            LocalDateTime fechaTransaccion, Long cuentaOrigenId, Long cuentaDestinoId, BigDecimal saldoPosterior) {
+    }
+
+    /**
+     * Métricas de las consultas reactivas (concurrencia y filas emitidas)
+     */
+    public record MetricasLecturaReactiva(long consultasEnCurso, long maximoConcurrentes, long consultas,
+            long filasEmitidas, long historialesCancelados) {
+    }
+
+    public Mono<CuentaLectura> obtenerCuenta(Long id) {
+        return medir(databaseClient.sql(SQL_CUENTA).bind("id", id).map(this::mapearCuenta).one());
+    }
+
+    public Flux<CuentaLectura> obtenerCuentasPorCliente(Long clienteId) {
+        return medir(databaseClient.sql(SQL_CUENTAS_CLIENTE).bind("clienteId", clienteId).map(this::mapearCuenta).all());
+    }
+
+    public Mono<ClienteLectura> obtenerCliente(Long id) {
+        return medir(databaseClient.sql(SQL_CLIENTE).bind("id", id).map(this::mapearCliente).one());
+    }
+
+    public Mono<TransaccionLectura> obtenerTransaccion(Long id) {
+        return medir(databaseClient.sql(SQL_TRANSACCION).bind("id", id).map(this::mapearTransaccion).one());
+    }
+
+    /**
+     * Historial de una cuenta (como origen o destino), más recientes primero
+     */
+    public Flux<TransaccionLectura> transmitirHistorial(Long cuentaId, LocalDateTime desde, LocalDateTime hasta) {
+        LocalDateTime inicio = desde != null ? desde : FECHA_MINIMA;
+        LocalDateTime fin = hasta != null ? hasta : FECHA_MAXIMA;
+        if (inicio.isAfter(fin)) {
+            return Flux.error(new IllegalArgumentException("La fecha inicial no puede ser posterior a la fecha final"));
+        }
+
+        Flux<TransaccionLectura> historial = databaseClient.sql(SQL_HISTORIAL)
+                .filter(sentencia -> sentencia.fetchSize(filasPrefetch))
+                .bind("cuentaId", cuentaId)
+                .bind("desde", inicio)
+                .bind("hasta", fin)
+                .map(this::mapearTransaccion)
+                .all()
+                .limitRate(filasPrefetch)
+                .doOnNext(t -> filasEmitidas.increment())
+                .doOnCancel(historialesCancelados::increment);
+        return medir(historial);
+    }
+
+    public MetricasLecturaReactiva obtenerMetricas() {
+        return new MetricasLecturaReactiva(consultasEnCurso.get(), maximoConcurrentes.get(), consultas.sum(),
+                filasEmitidas.sum(), historialesCancelados.sum());
+    }
+
+    private <T> Mono<T> medir(Mono<T> consulta) {
+        return consulta.doOnSubscribe(s -> iniciarConsulta()).doFinally(s -> consultasEnCurso.decrementAndGet());
+    }
+
+    private <T> Flux<T> medir(Flux<T> consulta) {
+        return consulta.doOnSubscribe(s -> iniciarConsulta()).doFinally(s -> consultasEnCurso.decrementAndGet());
+    }
+
+    private void iniciarConsulta() {
+        consultas.increment();
+        maximoConcurrentes.accumulateAndGet(consultasEnCurso.incrementAndGet(), Math::max);
+    }
+
+    private CuentaLectura mapearCuenta(Readable fila) {
+        return new CuentaLectura(
+                fila.get("id", Long.class),
+                fila.get("numero_cuenta", String.class),
+                fila.get("tipo_cuenta", String.class),
+                fila.get("estado", String.class),
+                fila.get("saldo", BigDecimal.class),
+                fila.get("exenta_gmf", Boolean.class),
+                fila.get("cliente_id", Long.class),
+                fila.get("fecha_creacion", LocalDateTime.class));
+    }
+
+    private ClienteLectura mapearCliente(Readable fila) {
+        return new ClienteLectura(
+                fila.get("id", Long.class),
+                fila.get("tipo_identificacion", String.class),
+                fila.get("numero_identificacion", String.class),
+                fila.get("nombres", String.class),
+                fila.get("apellido", String.class),
+                fila.get("correo_electronico", String.class),
+                fila.get("fecha_nacimiento", LocalDate.class));
+    }
+
+    private TransaccionLectura mapearTransaccion(Readable fila) {
+        return new TransaccionLectura(
+                fila.get("id", Long.class),
+                fila.get("tipo_transaccion", String.class),
+                fila.get("monto", BigDecimal.class),
+                fila.get("descripcion", String.class),
+                fila.get("fecha_transaccion", LocalDateTime.class),
+                fila.get("cuenta_origen_id", Long.class),
+                fila.get("cuenta_destino_id", Long.class),
+                fila.get("saldo_posterior", BigDecimal.class));
+    }
+}
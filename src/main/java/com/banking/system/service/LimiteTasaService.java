@@ -0,0 +1,286 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.Cuenta;
+import com.banking.system.entity.Cuenta.TipoCuenta;
+import com.banking.system.repository.CuentaRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Servicio de Límite de Tasa Token bucket por cuenta y por cliente para los
+ * endpoints que mueven dinero. Se evalúa antes de llamar a TransaccionService,
+ * así una integración desbordada no consume conexiones de la BD.
+ *
+ * Cada bucket es un único AtomicLong con el "tiempo teórico de llegada"
+ * (algoritmo GCRA, equivalente a un token bucket): consumir un token es un
+ * CAS, sin locks. Un bucket cuyo tiempo ya pasó está lleno, es idéntico a uno
+ * nuevo y se puede desalojar sin perder información.
+ *
+ * Los IDs de cuentas inexistentes también tienen bucket (sin tipo ni
+ * cliente, con el límite de ahorro): así un cliente que insiste con un ID
+ * inválido no va a la BD en cada pedido y queda limitado como cualquier
+ * cuenta. Cuando ese bucket se llena se vuelve a consultar la BD, por si la
+ * cuenta ya se creó.
+ *
+ * Con el mapa lleno de buckets activos se rechazan los pedidos de cuentas y
+ * clientes sin bucket hasta que alguno se llene y se desaloje: dejarlos pasar
+ * permitiría anular el límite de todos con una ráfaga de IDs distintos, y
+ * desalojar un bucket activo le daría a su dueño una ráfaga nueva.
+ */
+@Service
+public class LimiteTasaService {
+
+    private static final Logger log = LoggerFactory.getLogger(LimiteTasaService.class);
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Value("${banking.limites.ahorro.por-segundo:5}")
+    private double ahorroPorSegundo;
+
+    @Value("${banking.limites.ahorro.rafaga:10}")
+    private int ahorroRafaga;
+
+    @Value("${banking.limites.corriente.por-segundo:20}")
+    private double corrientePorSegundo;
+
+    @Value("${banking.limites.corriente.rafaga:40}")
+    private int corrienteRafaga;
+
+    @Value("${banking.limites.cliente.por-segundo:30}")
+    private double clientePorSegundo;
+
+    @Value("${banking.limites.cliente.rafaga:60}")
+    private int clienteRafaga;
+
+    // Máximo de buckets en memoria (cuentas + clientes)
+    @Value("${banking.limites.max-entradas:100000}")
+    private int maxEntradas;
+
+    private final ConcurrentHashMap<Long, BucketCuenta> buckets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Bucket> bucketsCliente = new ConcurrentHashMap<>();
+    private final Map<TipoCuenta, Limite> limitesPorTipo = new EnumMap<>(TipoCuenta.class);
+    private final AtomicBoolean desalojando = new AtomicBoolean(false);
+    private final AtomicLong ultimoDesalojoLleno = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicLong permitidas = new AtomicLong();
+    private final AtomicLong rechazadas = new AtomicLong();
+    private final AtomicLong consultasCuenta = new AtomicLong();
+
+    private Limite limiteCliente;
+    private LongSupplier reloj = System::nanoTime;
+
+    /**
+     * Métricas del limitador
+     */
+    public record MetricasLimite(long permitidas, long rechazadas, int bucketsCuenta, int bucketsCliente,
+            long consultasCuenta) {
+    }
+
+    /**
+     * Intervalo entre tokens y tolerancia de ráfaga, en nanosegundos
+     */
+    private record Limite(long intervaloNanos, long toleranciaNanos) {
+
+        static Limite de(double porSegundo, int rafaga) {
+            if (porSegundo <= 0 || rafaga < 1) {
+                throw new IllegalStateException("Límite de tasa inválido: " + porSegundo + "/s, ráfaga " + rafaga);
+            }
+            long intervalo = (long) (TimeUnit.SECONDS.toNanos(1) / porSegundo);
+            return new Limite(intervalo, intervalo * (rafaga - 1));
+        }
+    }
+
+    /**
+     * Bucket GCRA: guarda el tiempo teórico de llegada del próximo pedido
+     */
+    private static class Bucket {
+
+        final AtomicLong tiempoTeorico;
+
+        Bucket(long ahora) {
+            this.tiempoTeorico = new AtomicLong(ahora);
+        }
+
+        /**
+         * @return 0 si hay token, o los nanosegundos a esperar
+         */
+        long consumir(Limite limite, long ahora) {
+            while (true) {
+                long actual = tiempoTeorico.get();
+                long base = Math.max(actual, ahora);
+                long espera = base - ahora - limite.toleranciaNanos();
+                if (espera > 0) {
+                    return espera;
+                }
+                if (tiempoTeorico.compareAndSet(actual, base + limite.intervaloNanos())) {
+                    return 0;
+                }
+            }
+        }
+
+        /**
+         * Devuelve un token (cuando el otro bucket rechazó el pedido)
+         */
+        void devolver(Limite limite) {
+            tiempoTeorico.addAndGet(-limite.intervaloNanos());
+        }
+
+        boolean inactivo(long ahora) {
+            return tiempoTeorico.get() <= ahora;
+        }
+    }
+
+    /**
+     * Bucket de cuenta: guarda además el tipo y el cliente (no cambian) para
+     * no ir a la BD en cada pedido. Sin tipo es el de una cuenta inexistente
+     */
+    private static class BucketCuenta extends Bucket {
+
+        final TipoCuenta tipoCuenta;
+        final Long clienteId;
+
+        BucketCuenta(long ahora, TipoCuenta tipoCuenta, Long clienteId) {
+            super(ahora);
+            this.tipoCuenta = tipoCuenta;
+            this.clienteId = clienteId;
+        }
+
+        boolean inexistente() {
+            return tipoCuenta == null;
+        }
+    }
+
+    @PostConstruct
+    public void inicializar() {
+        limitesPorTipo.put(TipoCuenta.CUENTA_AHORRO, Limite.de(ahorroPorSegundo, ahorroRafaga));
+        limitesPorTipo.put(TipoCuenta.CUENTA_CORRIENTE, Limite.de(corrientePorSegundo, corrienteRafaga));
+        limiteCliente = Limite.de(clientePorSegundo, clienteRafaga);
+    }
+
+    /**
+     * Consume un token de la cuenta y de su cliente
+     *
+     * @return 0 si el pedido puede seguir, o los milisegundos a esperar
+     */
+    public long consumir(Long cuentaId) {
+        if (cuentaId == null) {
+            return 0;
+        }
+        long ahora = reloj.getAsLong();
+
+        BucketCuenta bucket = buckets.get(cuentaId);
+        if (bucket == null || bucket.inexistente() && bucket.inactivo(ahora)) {
+            bucket = crearBucketCuenta(cuentaId, ahora);
+            if (bucket == null) {
+                return rechazarSinEspacio();
+            }
+        }
+
+        Limite limiteCuenta = bucket.inexistente() ? limitesPorTipo.get(TipoCuenta.CUENTA_AHORRO)
+                : limitesPorTipo.get(bucket.tipoCuenta);
+        long espera = bucket.consumir(limiteCuenta, ahora);
+        if (espera == 0 && !bucket.inexistente()) {
+            Bucket cliente = bucketsCliente.get(bucket.clienteId);
+            if (cliente == null && hayEspacio()) {
+                cliente = bucketsCliente.computeIfAbsent(bucket.clienteId, id -> new Bucket(ahora));
+            }
+            espera = cliente != null ? cliente.consumir(limiteCliente, ahora) : esperaSinEspacio();
+            if (espera > 0) {
+                bucket.devolver(limiteCuenta);
+            }
+        }
+
+        if (espera > 0) {
+            rechazadas.incrementAndGet();
+            return Math.max(1, TimeUnit.NANOSECONDS.toMillis(espera));
+        }
+        permitidas.incrementAndGet();
+        return 0;
+    }
+
+    public MetricasLimite obtenerMetricas() {
+        return new MetricasLimite(permitidas.get(), rechazadas.get(), buckets.size(), bucketsCliente.size(),
+                consultasCuenta.get());
+    }
+
+    /**
+     * Desaloja los buckets llenos (inactivos)
+     */
+    @Scheduled(fixedDelayString = "${banking.limites.intervalo-desalojo-ms:60000}")
+    public void desalojarInactivos() {
+        if (!desalojando.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long ahora = reloj.getAsLong();
+            buckets.values().removeIf(b -> b.inactivo(ahora));
+            bucketsCliente.values().removeIf(b -> b.inactivo(ahora));
+        } finally {
+            desalojando.set(false);
+        }
+    }
+
+    /**
+     * Crea el bucket de la cuenta, o el de un ID inexistente. Si ya había uno
+     * de inexistente y la cuenta apareció, lo reemplaza
+     */
+    private BucketCuenta crearBucketCuenta(Long cuentaId, long ahora) {
+        if (!buckets.containsKey(cuentaId) && !hayEspacio()) {
+            return null;
+        }
+        consultasCuenta.incrementAndGet();
+        Cuenta cuenta = cuentaRepository.findById(cuentaId).orElse(null);
+        if (cuenta == null) {
+            return buckets.computeIfAbsent(cuentaId, id -> new BucketCuenta(ahora, null, null));
+        }
+        return buckets.compute(cuentaId, (id, actual) -> actual == null || actual.inexistente()
+                ? new BucketCuenta(ahora, cuenta.getTipoCuenta(), cuenta.getCliente().getId()) : actual);
+    }
+
+    /**
+     * Indica si cabe un bucket más. Con el mapa lleno desaloja los inactivos,
+     * a lo sumo una vez por intervalo de ahorro (lo que tarda en llenarse el
+     * bucket de un pedido suelto) para no recorrer el mapa en cada pedido
+     */
+    private boolean hayEspacio() {
+        if (buckets.size() + bucketsCliente.size() < maxEntradas) {
+            return true;
+        }
+        long ahora = reloj.getAsLong();
+        long ultimo = ultimoDesalojoLleno.get();
+        long intervalo = limitesPorTipo.get(TipoCuenta.CUENTA_AHORRO).intervaloNanos();
+        if ((ultimo == Long.MIN_VALUE || ahora - ultimo >= intervalo) && ultimoDesalojoLleno.compareAndSet(ultimo, ahora)) {
+            desalojarInactivos();
+            if (buckets.size() + bucketsCliente.size() >= maxEntradas) {
+                log.warn("Límite de tasa: {} buckets activos, se rechazan las cuentas y clientes nuevos", maxEntradas);
+            }
+        }
+        return buckets.size() + bucketsCliente.size() < maxEntradas;
+    }
+
+    /**
+     * Espera sugerida sin espacio: un intervalo de ahorro, cuando vuelve a
+     * intentarse el desalojo
+     */
+    private long esperaSinEspacio() {
+        return limitesPorTipo.get(TipoCuenta.CUENTA_AHORRO).intervaloNanos();
+    }
+
+    private long rechazarSinEspacio() {
+        rechazadas.incrementAndGet();
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(esperaSinEspacio()));
+    }
+}
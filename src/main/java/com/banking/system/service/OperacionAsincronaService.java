@@ -0,0 +1,413 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.OperacionAsincrona;
+import com.banking.system.entity.OperacionAsincrona.EstadoOperacion;
+import com.banking.system.entity.Transaccion;
+import com.banking.system.entity.Transaccion.TipoTransaccion;
+import com.banking.system.repository.CuentaRepository;
+import com.banking.system.repository.OperacionAsincronaRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Servicio de Operaciones Asíncronas Acepta transferencias sin ejecutarlas: las
+ * guarda en operaciones_asincronas (la cola durable) y responde de inmediato.
+ *
+ * Los workers toman lotes con SELECT ... FOR UPDATE SKIP LOCKED, agrupan las
+ * operaciones por cuenta origen y ejecutan cada grupo en una sola transacción
+ * a través de TransaccionService, junto con el UPDATE que las marca como
+ * completadas. El grupo pasa por ConcurrenciaCuentaService: un conflicto de
+ * versión con otro movimiento de la cuenta repite el grupo entero, como
+ * cualquier movimiento síncrono. Si alguna del grupo falla por otra causa (o
+ * se agotan esos reintentos), el grupo se deshace y sus operaciones se
+ * ejecutan una por una para aislar la que falló.
+ *
+ * Contrapresión: con max-pendientes operaciones en cola, las nuevas se
+ * rechazan hasta que los workers se pongan al día. La profundidad es la
+ * cantidad de PENDIENTE en la tabla, compartida por todos los nodos; se lee
+ * cada intervalo-profundidad-ms y entre lecturas se suman las aceptadas en
+ * este nodo.
+ */
+@Service
+public class OperacionAsincronaService {
+
+    private static final Logger log = LoggerFactory.getLogger(OperacionAsincronaService.class);
+
+    private static final String SQL_RECLAMAR_LOTE = "SELECT id, cuenta_origen_id, cuenta_destino_id, monto, "
+            + "descripcion, fecha_creacion FROM operaciones_asincronas WHERE estado = 'PENDIENTE' "
+            + "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String SQL_COMPLETAR = "UPDATE operaciones_asincronas SET estado = 'COMPLETADA', "
+            + "transaccion_enviada_id = ?, transaccion_recibida_id = ?, fecha_fin = ? WHERE id = ?";
+
+    private static final String SQL_RECHAZAR = "UPDATE operaciones_asincronas SET estado = 'RECHAZADA', "
+            + "error = ?, fecha_fin = ? WHERE id = ?";
+
+    private static final String SQL_REGISTRAR_FALLA = "UPDATE operaciones_asincronas SET intentos = intentos + 1, "
+            + "error = ?, estado = CASE WHEN intentos + 1 >= ? THEN 'FALLIDA' ELSE 'PENDIENTE' END, "
+            + "fecha_fin = CASE WHEN intentos + 1 >= ? THEN ? ELSE NULL END WHERE id = ?";
+
+    private static final String SQL_LIBERAR_VENCIDAS = "UPDATE operaciones_asincronas SET estado = 'PENDIENTE' "
+            + "WHERE estado = 'EN_PROCESO' AND fecha_inicio < ?";
+
+    @Autowired
+    private OperacionAsincronaRepository operacionAsincronaRepository;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private TransaccionService transaccionService;
+
+    @Autowired
+    private ConcurrenciaCuentaService concurrenciaCuentaService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Workers en este nodo (0 = solo acepta operaciones, no las ejecuta)
+    @Value("${banking.operaciones.hilos:2}")
+    private int hilos;
+
+    @Value("${banking.operaciones.intervalo-ms:100}")
+    private long intervaloMs;
+
+    @Value("${banking.operaciones.tamano-lote:200}")
+    private int tamanoLote;
+
+    // Contrapresión: máximo de operaciones pendientes antes de rechazar nuevas
+    @Value("${banking.operaciones.max-pendientes:10000}")
+    private long maxPendientes;
+
+    // Reintentos ante fallas técnicas (las de negocio se rechazan de una vez)
+    @Value("${banking.operaciones.max-intentos:3}")
+    private int maxIntentos;
+
+    @Value("${banking.operaciones.timeout-grupo-segundos:30}")
+    private int timeoutGrupoSegundos;
+
+    // Operaciones EN_PROCESO más viejas que esto se devuelven a la cola (nodo caído)
+    @Value("${banking.operaciones.minutos-liberacion:5}")
+    private long minutosLiberacion;
+
+    // Última profundidad leída de la BD más lo aceptado aquí desde entonces
+    private final AtomicLong enCola = new AtomicLong();
+    private final LongAdder aceptadas = new LongAdder();
+    private final LongAdder rechazadasPorContrapresion = new LongAdder();
+    private final LongAdder completadas = new LongAdder();
+    private final LongAdder rechazadas = new LongAdder();
+    private final LongAdder fallidas = new LongAdder();
+    private final LongAdder gruposEjecutados = new LongAdder();
+    private final LongAdder gruposDivididos = new LongAdder();
+    private final LongAdder latenciaTotalMs = new LongAdder();
+    private final AtomicLong latenciaUltimaMs = new AtomicLong();
+    private final AtomicLong latenciaMaximaMs = new AtomicLong();
+    private final long inicioNanos = System.nanoTime();
+
+    private ScheduledExecutorService ejecutor;
+    private TransactionTemplate transactionTemplate;
+    private TransactionTemplate transaccionGrupo;
+
+    /**
+     * Métricas de la cola: profundidad, throughput y latencia de extremo a
+     * extremo (aceptación a resultado)
+     */
+    public record MetricasOperaciones(long enCola, long aceptadas, long rechazadasPorContrapresion,
+            long completadas, long rechazadas, long fallidas, double completadasPorSegundo,
+            double latenciaPromedioMs, long latenciaUltimaMs, long latenciaMaximaMs,
+            double operacionesPorGrupo, long gruposDivididos, int hilos) {
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transaccionGrupo = new TransactionTemplate(transactionManager);
+        transaccionGrupo.setTimeout(timeoutGrupoSegundos);
+
+        actualizarProfundidad();
+
+        if (hilos > 0) {
+            ejecutor = Executors.newScheduledThreadPool(hilos, r -> {
+                Thread hilo = new Thread(r, "worker-operaciones");
+                hilo.setDaemon(true);
+                return hilo;
+            });
+            for (int i = 0; i < hilos; i++) {
+                ejecutor.scheduleWithFixedDelay(this::drenar, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (ejecutor != null) {
+            ejecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Valida lo básico de una transferencia y la deja en cola. El saldo, el GMF
+     * y el control de fraude se validan al ejecutarla.
+     *
+     * @throws IllegalStateException si la cola está llena (contrapresión)
+     */
+    @Transactional
+    public OperacionAsincrona encolarTransferencia(Long cuentaOrigenId, Long cuentaDestinoId,
+            BigDecimal monto, String descripcion) {
+        if (monto == null || monto.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("El monto debe ser mayor a cero");
+        }
+        if (cuentaOrigenId.equals(cuentaDestinoId)) {
+            throw new IllegalArgumentException("No se puede transferir a la misma cuenta");
+        }
+        if (enCola.get() >= maxPendientes) {
+            rechazadasPorContrapresion.increment();
+            throw new IllegalStateException("La cola de operaciones está llena. Intente de nuevo más tarde");
+        }
+        if (!cuentaRepository.existsById(cuentaOrigenId)) {
+            throw new IllegalArgumentException("Cuenta origen no encontrada con ID: " + cuentaOrigenId);
+        }
+        if (!cuentaRepository.existsById(cuentaDestinoId)) {
+            throw new IllegalArgumentException("Cuenta destino no encontrada con ID: " + cuentaDestinoId);
+        }
+
+        OperacionAsincrona operacion = operacionAsincronaRepository.save(
+                new OperacionAsincrona(cuentaOrigenId, cuentaDestinoId, monto, descripcion));
+        enCola.incrementAndGet();
+        aceptadas.increment();
+        return operacion;
+    }
+
+    /**
+     * Obtener una operación por ID (para consultar su estado)
+     */
+    @Transactional(readOnly = true)
+    public OperacionAsincrona obtenerOperacion(Long id) {
+        return operacionAsincronaRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Operación no encontrada con ID: " + id));
+    }
+
+    /**
+     * Toma un lote de operaciones pendientes y las ejecuta agrupadas por
+     * cuenta origen
+     *
+     * @return cantidad de operaciones tomadas de la cola
+     */
+    public int procesarLote() {
+        List<OperacionAsincrona> lote = transactionTemplate.execute(status -> {
+            List<OperacionAsincrona> reclamadas = jdbcTemplate.query(SQL_RECLAMAR_LOTE, (rs, i) -> {
+                OperacionAsincrona operacion = new OperacionAsincrona(
+                        rs.getLong("cuenta_origen_id"),
+                        rs.getLong("cuenta_destino_id"),
+                        rs.getBigDecimal("monto"),
+                        rs.getString("descripcion"));
+                operacion.setId(rs.getLong("id"));
+                operacion.setFechaCreacion(rs.getTimestamp("fecha_creacion").toLocalDateTime());
+                return operacion;
+            }, tamanoLote);
+            marcarEnProceso(reclamadas);
+            return reclamadas;
+        });
+        if (lote == null || lote.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, List<OperacionAsincrona>> porCuenta = new LinkedHashMap<>();
+        for (OperacionAsincrona operacion : lote) {
+            porCuenta.computeIfAbsent(operacion.getCuentaOrigenId(), k -> new ArrayList<>()).add(operacion);
+        }
+        for (List<OperacionAsincrona> grupo : porCuenta.values()) {
+            ejecutarGrupo(grupo);
+        }
+        return lote.size();
+    }
+
+    /**
+     * Métricas de la cola y de los workers
+     */
+    public MetricasOperaciones obtenerMetricas() {
+        long terminadas = completadas.sum() + rechazadas.sum() + fallidas.sum();
+        long grupos = gruposEjecutados.sum();
+        double segundos = (System.nanoTime() - inicioNanos) / 1_000_000_000.0;
+
+        return new MetricasOperaciones(
+                enCola.get(),
+                aceptadas.sum(),
+                rechazadasPorContrapresion.sum(),
+                completadas.sum(),
+                rechazadas.sum(),
+                fallidas.sum(),
+                segundos > 0 ? completadas.sum() / segundos : 0,
+                terminadas > 0 ? (double) latenciaTotalMs.sum() / terminadas : 0,
+                latenciaUltimaMs.get(),
+                latenciaMaximaMs.get(),
+                grupos > 0 ? (double) completadas.sum() / grupos : 0,
+                gruposDivididos.sum(),
+                hilos
+        );
+    }
+
+    /**
+     * Lee la profundidad de la cola de la BD. Un contador propio de cada nodo
+     * no sirve: las operaciones que acepta un nodo las terminan otros (o
+     * ninguno, si el nodo no tiene workers).
+     */
+    @Scheduled(fixedDelayString = "${banking.operaciones.intervalo-profundidad-ms:1000}")
+    public long actualizarProfundidad() {
+        long pendientes = operacionAsincronaRepository.countByEstado(EstadoOperacion.PENDIENTE);
+        enCola.set(pendientes);
+        return pendientes;
+    }
+
+    /**
+     * Devuelve a la cola las operaciones que quedaron EN_PROCESO por la caída
+     * de un nodo. Es seguro porque la transferencia y el cambio a COMPLETADA se
+     * confirman en la misma transacción.
+     */
+    @Scheduled(fixedDelayString = "${banking.operaciones.intervalo-liberacion-ms:60000}")
+    public int liberarVencidas() {
+        int liberadas = jdbcTemplate.update(SQL_LIBERAR_VENCIDAS,
+                Timestamp.valueOf(LocalDateTime.now().minusMinutes(minutosLiberacion)));
+        if (liberadas > 0) {
+            log.warn("Operaciones: {} operaciones EN_PROCESO vencidas devueltas a la cola", liberadas);
+        }
+        return liberadas;
+    }
+
+    private void drenar() {
+        try {
+            // Mientras salgan lotes llenos se sigue drenando sin esperar
+            while (procesarLote() == tamanoLote) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Error procesando operaciones asíncronas", e);
+        }
+    }
+
+    private void ejecutarGrupo(List<OperacionAsincrona> grupo) {
+        try {
+            concurrenciaCuentaService.ejecutar(() -> transaccionGrupo.execute(status -> {
+                List<Object[]> resultados = new ArrayList<>(grupo.size());
+                for (OperacionAsincrona operacion : grupo) {
+                    List<Transaccion> transacciones = transaccionService.realizarTransferencia(
+                            operacion.getCuentaOrigenId(),
+                            operacion.getCuentaDestinoId(),
+                            operacion.getMonto(),
+                            operacion.getDescripcion());
+                    resultados.add(new Object[]{
+                        buscarId(transacciones, TipoTransaccion.TRANSFERENCIA_ENVIADA),
+                        buscarId(transacciones, TipoTransaccion.TRANSFERENCIA_RECIBIDA),
+                        Timestamp.valueOf(LocalDateTime.now()),
+                        operacion.getId()
+                    });
+                }
+                return jdbcTemplate.batchUpdate(SQL_COMPLETAR, resultados);
+            }));
+        } catch (RuntimeException e) {
+            if (grupo.size() == 1) {
+                registrarFalla(grupo.get(0), e);
+                return;
+            }
+            // Se deshizo todo el grupo: se ejecutan una por una para aislar la que falló
+            gruposDivididos.increment();
+            for (OperacionAsincrona operacion : grupo) {
+                ejecutarGrupo(List.of(operacion));
+            }
+            return;
+        }
+
+        gruposEjecutados.increment();
+        completadas.add(grupo.size());
+        LocalDateTime ahora = LocalDateTime.now();
+        for (OperacionAsincrona operacion : grupo) {
+            registrarTerminada(operacion, ahora);
+        }
+    }
+
+    private void registrarFalla(OperacionAsincrona operacion, RuntimeException e) {
+        LocalDateTime ahora = LocalDateTime.now();
+        if (e instanceof IllegalArgumentException) {
+            jdbcTemplate.update(SQL_RECHAZAR, recortar(e.getMessage()), Timestamp.valueOf(ahora), operacion.getId());
+            rechazadas.increment();
+            registrarTerminada(operacion, ahora);
+            return;
+        }
+
+        log.warn("Falla técnica ejecutando la operación {}", operacion.getId(), e);
+        jdbcTemplate.update(SQL_REGISTRAR_FALLA, recortar(e.getMessage()), maxIntentos, maxIntentos,
+                Timestamp.valueOf(ahora), operacion.getId());
+        Integer intentos = jdbcTemplate.queryForObject(
+                "SELECT intentos FROM operaciones_asincronas WHERE id = ?", Integer.class, operacion.getId());
+        if (intentos != null && intentos >= maxIntentos) {
+            fallidas.increment();
+            registrarTerminada(operacion, ahora);
+        }
+    }
+
+    private void registrarTerminada(OperacionAsincrona operacion, LocalDateTime ahora) {
+        long latencia = Duration.between(operacion.getFechaCreacion(), ahora).toMillis();
+        latenciaTotalMs.add(latencia);
+        latenciaUltimaMs.set(latencia);
+        latenciaMaximaMs.accumulateAndGet(latencia, Math::max);
+    }
+
+    private void marcarEnProceso(List<OperacionAsincrona> operaciones) {
+        if (operaciones.isEmpty()) {
+            return;
+        }
+        String marcadores = String.join(",", Collections.nCopies(operaciones.size(), "?"));
+        List<Object> parametros = new ArrayList<>(operaciones.size() + 1);
+        parametros.add(Timestamp.valueOf(LocalDateTime.now()));
+        for (OperacionAsincrona operacion : operaciones) {
+            parametros.add(operacion.getId());
+        }
+        jdbcTemplate.update("UPDATE operaciones_asincronas SET estado = 'EN_PROCESO', fecha_inicio = ? WHERE id IN ("
+                + marcadores + ")", parametros.toArray());
+    }
+
+    private Long buscarId(List<Transaccion> transacciones, TipoTransaccion tipo) {
+        return transacciones.stream()
+                .filter(t -> t.getTipoTransaccion() == tipo)
+                .map(Transaccion::getId)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private String recortar(String mensaje) {
+        if (mensaje == null) {
+            return null;
+        }
+        return mensaje.length() > 500 ? mensaje.substring(0, 500) : mensaje;
+    }
+}
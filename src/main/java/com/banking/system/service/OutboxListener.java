@@ -0,0 +1,18 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.EventoOutbox;
+
+/**
+ * Listener en proceso de los eventos del outbox (notificaciones, fraude,
+ * contabilidad, etc.). Los beans que implementen esta interfaz se registran
+ * automáticamente en DespachoOutboxService.
+ *
+ * La entrega es "al menos una vez": si el listener lanza una excepción el
+ * evento se reintenta, así que el listener debe ser idempotente (por ejemplo
+ * usando el ID del evento). Cada llamada corre en su propia transacción,
+ * separada de la del lote.
+ */
+public interface OutboxListener {
+
+    void alPublicar(EventoOutbox evento);
+}
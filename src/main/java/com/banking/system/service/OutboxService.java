@@ -0,0 +1,56 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.Cuenta;
+import com.banking.system.entity.EventoOutbox;
+import com.banking.system.entity.EventoOutbox.TipoEvento;
+import com.banking.system.entity.Transaccion;
+import com.banking.system.repository.EventoOutboxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Servicio de Outbox Registra los eventos de dominio en la tabla
+ * eventos_outbox. Siempre se ejecuta dentro de la transacción de quien lo
+ * llama, así el evento existe si y solo si el cambio se confirmó.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxService {
+
+    @Autowired
+    private EventoOutboxRepository eventoOutboxRepository;
+
+    /**
+     * Registra el evento de una transacción guardada
+     */
+    public void registrarTransaccion(Transaccion transaccion) {
+        eventoOutboxRepository.save(new EventoOutbox(
+                TipoEvento.TRANSACCION_REGISTRADA,
+                transaccion.getCuentaOrigen().getId(),
+                transaccion.getId(),
+                transaccion.getMonto(),
+                transaccion.getSaldoPosterior(),
+                transaccion.getTipoTransaccion().name()
+        ));
+    }
+
+    /**
+     * Registra la creación de una cuenta
+     */
+    public void registrarCuentaCreada(Cuenta cuenta) {
+        eventoOutboxRepository.save(new EventoOutbox(
+                TipoEvento.CUENTA_CREADA, cuenta.getId(), null, null, cuenta.getSaldo(), cuenta.getTipoCuenta().name()
+        ));
+    }
+
+    /**
+     * Registra un cambio de estado de una cuenta
+     */
+    public void registrarCambioEstado(Cuenta cuenta) {
+        eventoOutboxRepository.save(new EventoOutbox(
+                TipoEvento.CUENTA_ESTADO_CAMBIADO, cuenta.getId(), null, null, cuenta.getSaldo(), cuenta.getEstado().name()
+        ));
+    }
+}
@@ -0,0 +1,142 @@
+package com.banking.system.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Protocolo binario de ingesta (cajeros y datáfonos). Todas las tramas llevan
+ * un prefijo de longitud (int, big-endian) que no se cuenta a sí mismo.
+ *
+ * Solicitud (34 bytes): versión (byte), tipo (byte), correlación (long),
+ * cuenta (long), cuenta destino (long, 0 si no aplica), monto en centavos
+ * (long).
+ *
+ * Respuesta (27 bytes + mensaje): estado (byte), correlación (long), id de la
+ * transacción (long, 0 si no hubo), saldo posterior en centavos (long),
+ * longitud del mensaje (short) y mensaje UTF-8 (vacío si estado = OK).
+ *
+ * La correlación la asigna el cliente: puede enviar muchas solicitudes sin
+ * esperar y las respuestas pueden llegar en otro orden.
+ */
+public final class ProtocoloIngesta {
+
+    public static final byte VERSION = 1;
+
+    // Versión desconocida: la solicitud se responde como malformada
+    public static final byte TIPO_INVALIDO = 0;
+    public static final byte TIPO_CONSIGNACION = 1;
+    public static final byte TIPO_RETIRO = 2;
+    public static final byte TIPO_TRANSFERENCIA = 3;
+
+    public static final byte ESTADO_OK = 0;
+    public static final byte ESTADO_RECHAZADA = 1;
+    public static final byte ESTADO_FRAUDE = 2;
+    public static final byte ESTADO_LIMITE = 3;
+    public static final byte ESTADO_ERROR = 4;
+    public static final byte ESTADO_MALFORMADA = 5;
+
+    public static final int TAMANO_PREFIJO = 4;
+    public static final int TAMANO_SOLICITUD = 34;
+    public static final int TAMANO_RESPUESTA_FIJA = 27;
+    public static final int MAX_MENSAJE = 200;
+
+    /**
+     * Solicitud decodificada (sin la descripción: los movimientos de cajero
+     * usan la descripción por defecto)
+     */
+    public record Solicitud(byte tipo, long correlacion, long cuentaId, long cuentaDestinoId, long montoCentavos) {
+
+        public boolean esValida() {
+            return tipo >= TIPO_CONSIGNACION && tipo <= TIPO_TRANSFERENCIA;
+        }
+    }
+
+    public record Respuesta(byte estado, long correlacion, long transaccionId, long saldoCentavos, String mensaje) {
+
+        public static Respuesta ok(long correlacion, long transaccionId, long saldoCentavos) {
+            return new Respuesta(ESTADO_OK, correlacion, transaccionId, saldoCentavos, null);
+        }
+
+        public static Respuesta error(byte estado, long correlacion, String mensaje) {
+            return new Respuesta(estado, correlacion, 0, 0, mensaje);
+        }
+    }
+
+    private ProtocoloIngesta() {
+    }
+
+    public static void escribirSolicitud(ByteBuffer destino, Solicitud solicitud) {
+        destino.putInt(TAMANO_SOLICITUD);
+        destino.put(VERSION);
+        destino.put(solicitud.tipo());
+        destino.putLong(solicitud.correlacion());
+        destino.putLong(solicitud.cuentaId());
+        destino.putLong(solicitud.cuentaDestinoId());
+        destino.putLong(solicitud.montoCentavos());
+    }
+
+    /**
+     * Lee el cuerpo de una solicitud (el prefijo ya fue consumido). Se lee
+     * completa aunque no sea válida, para poder responder con su correlación.
+     */
+    public static Solicitud leerSolicitud(ByteBuffer origen) {
+        byte version = origen.get();
+        byte tipo = origen.get();
+        return new Solicitud(version == VERSION ? tipo : TIPO_INVALIDO,
+                origen.getLong(), origen.getLong(), origen.getLong(), origen.getLong());
+    }
+
+    /**
+     * Bytes que ocupa una respuesta, con prefijo
+     */
+    public static int tamanoRespuesta(byte[] mensaje) {
+        return TAMANO_PREFIJO + TAMANO_RESPUESTA_FIJA + mensaje.length;
+    }
+
+    public static byte[] codificarMensaje(String mensaje) {
+        if (mensaje == null) {
+            return new byte[0];
+        }
+        byte[] bytes = mensaje.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= MAX_MENSAJE) {
+            return bytes;
+        }
+        byte[] recortado = new byte[MAX_MENSAJE];
+        System.arraycopy(bytes, 0, recortado, 0, MAX_MENSAJE);
+        return recortado;
+    }
+
+    public static void escribirRespuesta(ByteBuffer destino, Respuesta respuesta, byte[] mensaje) {
+        destino.putInt(TAMANO_RESPUESTA_FIJA + mensaje.length);
+        destino.put(respuesta.estado());
+        destino.putLong(respuesta.correlacion());
+        destino.putLong(respuesta.transaccionId());
+        destino.putLong(respuesta.saldoCentavos());
+        destino.putShort((short) mensaje.length);
+        destino.put(mensaje);
+    }
+
+    /**
+     * Lee una respuesta completa si ya llegó
+     *
+     * @return null si faltan bytes (la posición del buffer no cambia)
+     */
+    public static Respuesta leerRespuesta(ByteBuffer origen) {
+        if (origen.remaining() < TAMANO_PREFIJO) {
+            return null;
+        }
+        int longitud = origen.getInt(origen.position());
+        if (origen.remaining() < TAMANO_PREFIJO + longitud) {
+            return null;
+        }
+        origen.getInt();
+        byte estado = origen.get();
+        long correlacion = origen.getLong();
+        long transaccionId = origen.getLong();
+        long saldoCentavos = origen.getLong();
+        byte[] mensaje = new byte[origen.getShort()];
+        origen.get(mensaje);
+        return new Respuesta(estado, correlacion, transaccionId, saldoCentavos,
+                mensaje.length > 0 ? new String(mensaje, StandardCharsets.UTF_8) : null);
+    }
+}
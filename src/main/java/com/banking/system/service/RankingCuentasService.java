@@ -0,0 +1,629 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.Cuenta;
+import com.banking.system.entity.Transaccion;
+import com.banking.system.entity.Transaccion.TipoTransaccion;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Servicio de Ranking de Cuentas Mantiene en memoria las cuentas con mayor
+ * saldo y con mayores entradas y salidas del día, para que tesorería las
+ * consulte sin ORDER BY sobre cuentas y transacciones.
+ *
+ * Cada métrica guarda el valor de todas sus cuentas en un mapa de long
+ * (centavos) y un conjunto ordenado con las 2K mejores. Un movimiento que no
+ * llega a las mejores solo escribe en el mapa; consultar el top cuesta O(K).
+ * Se actualiza al confirmar cada movimiento de TransaccionService y se
+ * reconstruye desde la BD al arrancar, después de causar intereses y cada
+ * banking.ranking.intervalo-reconstruccion-ms (cubre lo que mueven otros
+ * nodos).
+ */
+@Service
+@DependsOn("entityManagerFactory")
+public class RankingCuentasService {
+
+    private static final Logger log = LoggerFactory.getLogger(RankingCuentasService.class);
+
+    // El saldo de una cuenta caliente incluye sus ranuras
+    private static final String SQL_SALDOS = "SELECT c.id, c.saldo + COALESCE(r.saldo, 0) AS saldo FROM cuentas c "
+            + "LEFT JOIN (SELECT cuenta_id, SUM(saldo) AS saldo FROM subsaldos_cuenta GROUP BY cuenta_id) r "
+            + "ON r.cuenta_id = c.id";
+
+    private static final String SQL_MOVIMIENTOS_DIA = "SELECT cuenta_origen_id, tipo_transaccion, SUM(monto) AS total "
+            + "FROM transacciones WHERE fecha_transaccion >= ? AND fecha_transaccion < ? "
+            + "GROUP BY cuenta_origen_id, tipo_transaccion";
+
+    // Abonos en ranuras que se recuerdan por cuenta caliente a la espera de un saldo posterior
+    private static final int MAX_ABONOS_PENDIENTES = 1024;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SubsaldoCuentaService subsaldoCuentaService;
+
+    // Posiciones que se pueden consultar por métrica (K)
+    @Value("${banking.ranking.tamano:100}")
+    private int tamano;
+
+    /**
+     * Métricas del ranking: saldo total (incluye ranuras), y entradas
+     * (créditos) o salidas (débitos y GMF) del día
+     */
+    public enum MetricaRanking {
+        SALDO,
+        ENTRADAS_DIA,
+        SALIDAS_DIA
+    }
+
+    public record PosicionRanking(int posicion, Long cuentaId, BigDecimal valor) {
+    }
+
+    /**
+     * Top de una métrica. El día solo aplica a las métricas diarias
+     */
+    public record RankingCuentas(MetricaRanking metrica, LocalDate dia, List<PosicionRanking> posiciones) {
+    }
+
+    public record MetricasRanking(int cuentasConSaldo, int cuentasConEntradasDia, int cuentasConSalidasDia,
+            long actualizaciones, double nanosPromedioActualizacion, long reordenamientos,
+            long reconstrucciones, long bytesEstimados) {
+    }
+
+    // Los movimientos comparten el candado (cada tablero se sincroniza solo);
+    // la reconstrucción y el cambio de día lo toman exclusivo para reemplazar tableros
+    private final ReentrantReadWriteLock candado = new ReentrantReadWriteLock();
+    private Tablero saldos;
+    private Tablero entradas;
+    private Tablero salidas;
+    private volatile LocalDate dia;
+
+    // Cuentas movidas mientras se lee la BD: conservan su valor en memoria
+    private volatile Set<Long> tocadas;
+    private final AtomicBoolean reconstruyendo = new AtomicBoolean(false);
+
+    private final AtomicLong actualizaciones = new AtomicLong();
+    private final AtomicLong nanosActualizacion = new AtomicLong();
+    private final AtomicLong reconstrucciones = new AtomicLong();
+
+    @PostConstruct
+    public void iniciar() {
+        saldos = new Tablero(tamano);
+        entradas = new Tablero(tamano);
+        salidas = new Tablero(tamano);
+        dia = LocalDate.now();
+        reconstruir();
+    }
+
+    @Scheduled(fixedDelayString = "${banking.ranking.intervalo-reconstruccion-ms:900000}",
+            initialDelayString = "${banking.ranking.intervalo-reconstruccion-ms:900000}")
+    public void reconstruccionPeriodica() {
+        try {
+            reconstruir();
+        } catch (RuntimeException e) {
+            log.error("Error reconstruyendo el ranking de cuentas", e);
+        }
+    }
+
+    /**
+     * Vuelve a leer saldos y movimientos del día desde la BD. Los movimientos
+     * siguen actualizando los tableros mientras tanto; las cuentas que se
+     * movieron durante la lectura conservan su valor en memoria.
+     */
+    public void reconstruir() {
+        if (!reconstruyendo.compareAndSet(false, true)) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        LocalDate hoy = LocalDate.now();
+        tocadas = ConcurrentHashMap.newKeySet();
+        try {
+            Tablero nuevosSaldos = new Tablero(tamano);
+            Tablero nuevasEntradas = new Tablero(tamano);
+            Tablero nuevasSalidas = new Tablero(tamano);
+            jdbcTemplate.query(SQL_SALDOS, rs -> {
+                nuevosSaldos.fijarSiMasReciente(rs.getLong("id"), 0, aCentavos(rs.getBigDecimal("saldo")));
+            });
+            jdbcTemplate.query(SQL_MOVIMIENTOS_DIA, rs -> {
+                TipoTransaccion tipo = TipoTransaccion.valueOf(rs.getString("tipo_transaccion"));
+                (tipo.esCredito() ? nuevasEntradas : nuevasSalidas)
+                        .sumar(rs.getLong("cuenta_origen_id"), aCentavos(rs.getBigDecimal("total")));
+            }, Timestamp.valueOf(hoy.atStartOfDay()), Timestamp.valueOf(hoy.plusDays(1).atStartOfDay()));
+
+            candado.writeLock().lock();
+            try {
+                boolean mismoDia = dia.equals(hoy);
+                for (Long cuentaId : tocadas) {
+                    nuevosSaldos.copiar(saldos, cuentaId);
+                    if (mismoDia) {
+                        nuevasEntradas.copiarMayor(entradas, cuentaId);
+                        nuevasSalidas.copiarMayor(salidas, cuentaId);
+                    }
+                }
+                saldos = nuevosSaldos;
+                // Si el día cambió durante la lectura, los tableros del día nuevo ya son los buenos
+                if (!dia.isAfter(hoy)) {
+                    entradas = nuevasEntradas;
+                    salidas = nuevasSalidas;
+                    dia = hoy;
+                }
+                tocadas = null;
+            } finally {
+                candado.writeLock().unlock();
+            }
+            reconstrucciones.incrementAndGet();
+            log.info("Ranking de cuentas reconstruido: {} cuentas, {} con entradas y {} con salidas hoy, en {} ms",
+                    nuevosSaldos.cantidad(), nuevasEntradas.cantidad(), nuevasSalidas.cantidad(),
+                    (System.nanoTime() - inicio) / 1_000_000);
+        } finally {
+            tocadas = null;
+            reconstruyendo.set(false);
+        }
+    }
+
+    /**
+     * Registra el movimiento cuando su transacción confirma (nunca si hace
+     * rollback). Sin transacción activa se registra de inmediato.
+     */
+    public void registrarAlConfirmar(Transaccion transaccion) {
+        long cuentaId = transaccion.getCuentaOrigen().getId();
+        long transaccionId = transaccion.getId() != null ? transaccion.getId() : 0;
+        TipoTransaccion tipo = transaccion.getTipoTransaccion();
+        long monto = aCentavos(transaccion.getMonto());
+        // En una cuenta caliente el saldo posterior de un abono no incluye las
+        // ranuras (o no existe): se suma como abono en ranura
+        boolean abonoCaliente = tipo.esCredito() && subsaldoCuentaService.esCaliente(cuentaId);
+        Long saldoPosterior = transaccion.getSaldoPosterior() != null && !abonoCaliente
+                ? aCentavos(transaccion.getSaldoPosterior()) : null;
+        LocalDate fecha = transaccion.getFechaTransaccion() != null
+                ? transaccion.getFechaTransaccion().toLocalDate() : LocalDate.now();
+        alConfirmar(() -> registrar(cuentaId, transaccionId, tipo, monto, saldoPosterior, fecha));
+    }
+
+    /**
+     * Registra el saldo inicial de una cuenta nueva al confirmar su creación
+     */
+    public void registrarCuentaAlConfirmar(Cuenta cuenta) {
+        long cuentaId = cuenta.getId();
+        long saldo = aCentavos(cuenta.getSaldo());
+        alConfirmar(() -> {
+            candado.readLock().lock();
+            try {
+                anotarTocada(cuentaId);
+                saldos.fijarSiMasReciente(cuentaId, 0, saldo);
+            } finally {
+                candado.readLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Aplica un movimiento confirmado. El saldo posterior se aplica solo si la
+     * transacción es más reciente (ID mayor) que la última aplicada a la
+     * cuenta, porque los afterCommit de dos movimientos seguidos pueden correr
+     * en desorden. Un abono en ranura (sin saldo posterior) se suma.
+     */
+    void registrar(long cuentaId, long transaccionId, TipoTransaccion tipo, long monto, Long saldoPosterior,
+                   LocalDate fecha) {
+        long inicio = System.nanoTime();
+        if (fecha.isAfter(dia)) {
+            cambiarDeDia(fecha);
+        }
+        candado.readLock().lock();
+        try {
+            anotarTocada(cuentaId);
+            if (saldoPosterior != null) {
+                saldos.fijarSiMasReciente(cuentaId, transaccionId, saldoPosterior);
+            } else if (tipo.esCredito()) {
+                saldos.abonarEnRanura(cuentaId, transaccionId, monto);
+            }
+            if (fecha.equals(dia)) {
+                (tipo.esCredito() ? entradas : salidas).sumar(cuentaId, monto);
+            }
+        } finally {
+            candado.readLock().unlock();
+        }
+        actualizaciones.incrementAndGet();
+        nanosActualizacion.addAndGet(System.nanoTime() - inicio);
+    }
+
+    /**
+     * Las K (o menos) primeras cuentas de la métrica
+     */
+    public RankingCuentas obtenerRanking(MetricaRanking metrica, int limite) {
+        if (limite < 1 || limite > tamano) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + tamano);
+        }
+        LocalDate hoy = LocalDate.now();
+        List<Entrada> primeras;
+        LocalDate diaRanking;
+        candado.readLock().lock();
+        try {
+            diaRanking = metrica == MetricaRanking.SALDO ? null : hoy;
+            if (metrica == MetricaRanking.SALDO) {
+                primeras = saldos.primeras(limite);
+            } else if (!dia.equals(hoy)) {
+                // Ningún movimiento todavía en el día que empezó
+                primeras = List.of();
+            } else {
+                primeras = (metrica == MetricaRanking.ENTRADAS_DIA ? entradas : salidas).primeras(limite);
+            }
+        } finally {
+            candado.readLock().unlock();
+        }
+
+        List<PosicionRanking> posiciones = new ArrayList<>(primeras.size());
+        for (Entrada entrada : primeras) {
+            posiciones.add(new PosicionRanking(posiciones.size() + 1, entrada.cuentaId(),
+                    BigDecimal.valueOf(entrada.valor(), 2)));
+        }
+        return new RankingCuentas(metrica, diaRanking, posiciones);
+    }
+
+    public MetricasRanking obtenerMetricas() {
+        candado.readLock().lock();
+        try {
+            long operaciones = actualizaciones.get();
+            return new MetricasRanking(saldos.cantidad(), entradas.cantidad(), salidas.cantidad(), operaciones,
+                    operaciones == 0 ? 0 : (double) nanosActualizacion.get() / operaciones,
+                    saldos.reordenamientos() + entradas.reordenamientos() + salidas.reordenamientos(),
+                    reconstrucciones.get(), saldos.bytesEstimados() + entradas.bytesEstimados() + salidas.bytesEstimados());
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    private void cambiarDeDia(LocalDate fecha) {
+        candado.writeLock().lock();
+        try {
+            if (fecha.isAfter(dia)) {
+                entradas = new Tablero(tamano);
+                salidas = new Tablero(tamano);
+                dia = fecha;
+            }
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    private void anotarTocada(long cuentaId) {
+        Set<Long> enReconstruccion = tocadas;
+        if (enReconstruccion != null) {
+            enReconstruccion.add(cuentaId);
+        }
+    }
+
+    private void alConfirmar(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accion.run();
+            }
+        });
+    }
+
+    private static long aCentavos(BigDecimal monto) {
+        return monto.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Cuenta y valor en centavos. El orden natural pone primero el mayor
+     * valor (desempate por ID)
+     */
+    record Entrada(long cuentaId, long valor) implements Comparable<Entrada> {
+        @Override
+        public int compareTo(Entrada otra) {
+            int porValor = Long.compare(otra.valor, valor);
+            return porValor != 0 ? porValor : Long.compare(cuentaId, otra.cuentaId);
+        }
+    }
+
+    /**
+     * Valores de una métrica y sus mejores cuentas. Invariante: toda cuenta
+     * fuera de "mejores" no supera a "umbral" (null si no hay ninguna fuera).
+     * Se guardan 2K mejores para que las que bajan no obliguen a recorrer el
+     * mapa completo; solo se reordena si quedan menos de K.
+     */
+    static final class Tablero {
+
+        private final int tamano;
+        private final int capacidad;
+        private final MapaCentavos valores = new MapaCentavos();
+        private final TreeSet<Entrada> mejores = new TreeSet<>();
+        private final Map<Long, Entrada> enMejores = new HashMap<>();
+        // Cuenta caliente -> abonos en ranura (ID de transacción -> monto) que
+        // aún no cubre ningún saldo posterior
+        private final Map<Long, TreeMap<Long, Long>> abonosPendientes = new HashMap<>();
+        private Entrada umbral;
+        private long reordenamientos;
+
+        Tablero(int tamano) {
+            this.tamano = tamano;
+            this.capacidad = 2 * tamano;
+        }
+
+        /**
+         * Fija el valor si la marca (ID de transacción) es mayor que la
+         * última aplicada. La marca 0 (valor leído de la BD o saldo inicial)
+         * solo se aplica a cuentas que no están.
+         */
+        synchronized void fijarSiMasReciente(long cuentaId, long marca, long valor) {
+            int indice = valores.indice(cuentaId);
+            if (indice >= 0 && valores.marca(indice) >= marca) {
+                return;
+            }
+            long total = valor;
+            TreeMap<Long, Long> pendientes = abonosPendientes.get(cuentaId);
+            if (pendientes != null) {
+                pendientes.headMap(marca, true).clear();
+                for (long abono : pendientes.values()) {
+                    total += abono;
+                }
+                if (pendientes.isEmpty()) {
+                    abonosPendientes.remove(cuentaId);
+                }
+            }
+            valores.poner(cuentaId, total, marca);
+            reubicar(cuentaId, total);
+        }
+
+        /**
+         * Suma un abono en ranura, salvo que un saldo posterior más reciente
+         * ya lo incluya
+         */
+        synchronized void abonarEnRanura(long cuentaId, long marca, long monto) {
+            int indice = valores.indice(cuentaId);
+            if (indice >= 0 && valores.marca(indice) >= marca) {
+                return;
+            }
+            TreeMap<Long, Long> pendientes = abonosPendientes.computeIfAbsent(cuentaId, id -> new TreeMap<>());
+            pendientes.put(marca, monto);
+            if (pendientes.size() > MAX_ABONOS_PENDIENTES) {
+                pendientes.pollFirstEntry();
+            }
+            long total = (indice >= 0 ? valores.valor(indice) : 0) + monto;
+            valores.poner(cuentaId, total, indice >= 0 ? valores.marca(indice) : 0);
+            reubicar(cuentaId, total);
+        }
+
+        synchronized void sumar(long cuentaId, long monto) {
+            int indice = valores.indice(cuentaId);
+            long total = (indice >= 0 ? valores.valor(indice) : 0) + monto;
+            valores.poner(cuentaId, total, 0);
+            reubicar(cuentaId, total);
+        }
+
+        /**
+         * Copia el estado de la cuenta desde otro tablero (el que estuvo
+         * recibiendo movimientos durante la reconstrucción)
+         */
+        synchronized void copiar(Tablero origen, long cuentaId) {
+            synchronized (origen) {
+                int indice = origen.valores.indice(cuentaId);
+                if (indice < 0) {
+                    return;
+                }
+                TreeMap<Long, Long> pendientes = origen.abonosPendientes.get(cuentaId);
+                if (pendientes != null) {
+                    abonosPendientes.put(cuentaId, new TreeMap<>(pendientes));
+                }
+                long valor = origen.valores.valor(indice);
+                valores.poner(cuentaId, valor, origen.valores.marca(indice));
+                reubicar(cuentaId, valor);
+            }
+        }
+
+        /**
+         * Deja el mayor de los dos valores: ambos son totales del día que
+         * pueden haberse quedado cortos (la BD leída antes de un movimiento o
+         * la memoria sin los de otros nodos)
+         */
+        synchronized void copiarMayor(Tablero origen, long cuentaId) {
+            long valor;
+            synchronized (origen) {
+                int indice = origen.valores.indice(cuentaId);
+                if (indice < 0) {
+                    return;
+                }
+                valor = origen.valores.valor(indice);
+            }
+            int indice = valores.indice(cuentaId);
+            if (indice < 0 || valores.valor(indice) < valor) {
+                valores.poner(cuentaId, valor, 0);
+                reubicar(cuentaId, valor);
+            }
+        }
+
+        synchronized List<Entrada> primeras(int limite) {
+            List<Entrada> primeras = new ArrayList<>(Math.min(limite, mejores.size()));
+            Iterator<Entrada> iterador = mejores.iterator();
+            while (primeras.size() < limite && iterador.hasNext()) {
+                primeras.add(iterador.next());
+            }
+            return primeras;
+        }
+
+        synchronized int cantidad() {
+            return valores.cantidad();
+        }
+
+        synchronized long reordenamientos() {
+            return reordenamientos;
+        }
+
+        synchronized long bytesEstimados() {
+            // Mapa de tres arreglos + nodo de TreeSet, entrada y nodo de HashMap por cada mejor
+            return valores.bytesEstimados() + (long) mejores.size() * (40 + 32 + 48);
+        }
+
+        private void reubicar(long cuentaId, long valor) {
+            Entrada anterior = enMejores.remove(cuentaId);
+            if (anterior != null) {
+                mejores.remove(anterior);
+            }
+            Entrada nueva = new Entrada(cuentaId, valor);
+            if (umbral == null || nueva.compareTo(umbral) < 0) {
+                mejores.add(nueva);
+                enMejores.put(cuentaId, nueva);
+                if (mejores.size() > capacidad) {
+                    Entrada ultima = mejores.pollLast();
+                    enMejores.remove(ultima.cuentaId());
+                    umbral = ultima;
+                }
+            } else if (anterior != null && mejores.size() < tamano) {
+                // Bajaron demasiadas: se vuelven a elegir las mejores del mapa
+                reordenar();
+            }
+        }
+
+        private void reordenar() {
+            reordenamientos++;
+            mejores.clear();
+            enMejores.clear();
+            umbral = null;
+            valores.recorrer((cuentaId, valor) -> {
+                Entrada entrada = new Entrada(cuentaId, valor);
+                if (umbral != null && entrada.compareTo(umbral) >= 0) {
+                    return;
+                }
+                mejores.add(entrada);
+                if (mejores.size() > capacidad) {
+                    Entrada ultima = mejores.pollLast();
+                    if (umbral == null || ultima.compareTo(umbral) < 0) {
+                        umbral = ultima;
+                    }
+                }
+            });
+            for (Entrada entrada : mejores) {
+                enMejores.put(entrada.cuentaId(), entrada);
+            }
+        }
+    }
+
+    /**
+     * Mapa abierto de cuenta -> (valor, marca) sobre arreglos de long, sin
+     * objetos por cuenta. El ID 0 marca las posiciones vacías.
+     */
+    static final class MapaCentavos {
+
+        interface Visitante {
+            void visitar(long cuentaId, long valor);
+        }
+
+        private long[] claves = new long[64];
+        private long[] valores = new long[64];
+        private long[] marcas = new long[64];
+        private int cantidad;
+
+        int indice(long cuentaId) {
+            int mascara = claves.length - 1;
+            for (int i = posicion(cuentaId, mascara); ; i = (i + 1) & mascara) {
+                if (claves[i] == cuentaId) {
+                    return i;
+                }
+                if (claves[i] == 0) {
+                    return -1;
+                }
+            }
+        }
+
+        long valor(int indice) {
+            return valores[indice];
+        }
+
+        long marca(int indice) {
+            return marcas[indice];
+        }
+
+        void poner(long cuentaId, long valor, long marca) {
+            if ((cantidad + 1) * 2 > claves.length) {
+                crecer();
+            }
+            int mascara = claves.length - 1;
+            int i = posicion(cuentaId, mascara);
+            while (claves[i] != 0 && claves[i] != cuentaId) {
+                i = (i + 1) & mascara;
+            }
+            if (claves[i] == 0) {
+                claves[i] = cuentaId;
+                cantidad++;
+            }
+            valores[i] = valor;
+            marcas[i] = marca;
+        }
+
+        void recorrer(Visitante visitante) {
+            for (int i = 0; i < claves.length; i++) {
+                if (claves[i] != 0) {
+                    visitante.visitar(claves[i], valores[i]);
+                }
+            }
+        }
+
+        int cantidad() {
+            return cantidad;
+        }
+
+        long bytesEstimados() {
+            return 3L * (16 + 8L * claves.length);
+        }
+
+        private void crecer() {
+            long[] clavesAnteriores = claves;
+            long[] valoresAnteriores = valores;
+            long[] marcasAnteriores = marcas;
+            claves = new long[clavesAnteriores.length * 2];
+            valores = new long[claves.length];
+            marcas = new long[claves.length];
+            int mascara = claves.length - 1;
+            for (int j = 0; j < clavesAnteriores.length; j++) {
+                if (clavesAnteriores[j] == 0) {
+                    continue;
+                }
+                int i = posicion(clavesAnteriores[j], mascara);
+                while (claves[i] != 0) {
+                    i = (i + 1) & mascara;
+                }
+                claves[i] = clavesAnteriores[j];
+                valores[i] = valoresAnteriores[j];
+                marcas[i] = marcasAnteriores[j];
+            }
+        }
+
+        private static int posicion(long cuentaId, int mascara) {
+            long mezcla = cuentaId * 0x9E3779B97F4A7C15L;
+            return (int) (mezcla ^ (mezcla >>> 32)) & mascara;
+        }
+    }
+}
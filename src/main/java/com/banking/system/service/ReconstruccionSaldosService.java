@@ -0,0 +1,647 @@
+package com.banking.system.service;
+
+import com.banking.system.config.ContextoReplica;
+import com.banking.system.entity.ArchivoTransacciones;
+import com.banking.system.entity.Transaccion.TipoTransaccion;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio de Reconstrucción de Saldos Recalcula cuentas.saldo repitiendo el
+ * log de transacciones, para cuando la columna se corrompe o se restaura de
+ * un respaldo viejo.
+ *
+ * El log son los meses archivados (en orden) más las transacciones en línea
+ * en orden de ID, o un solo archivo exportado con el formato del archivo. Un
+ * lector recorre el log y reparte las filas por cuenta entre particiones;
+ * cada partición suma en centavos sobre arreglos de long con un solo hilo. El
+ * saldo de apertura de cada cuenta (el de su creación, que no es una
+ * transacción) se deduce del primer saldo posterior que aparece; en las
+ * cuentas calientes (con ranuras en subsaldos_cuenta) solo del primer débito,
+ * que consolida las ranuras antes de registrar su saldo posterior. Una cuenta
+ * sin apertura confiable se reporta pero nunca se corrige.
+ *
+ * El log y los saldos actuales se leen en una misma lectura consistente. Sin
+ * aplicar solo reporta las diferencias; al aplicar, los UPDATE van por lotes y
+ * solo tocan las cuentas cuya versión no cambió desde la lectura.
+ */
+@Service
+public class ReconstruccionSaldosService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconstruccionSaldosService.class);
+
+    // El signo del monto se resuelve en la consulta: créditos suman, débitos restan
+    private static final String CREDITOS = Arrays.stream(TipoTransaccion.values())
+            .filter(TipoTransaccion::esCredito)
+            .map(tipo -> "'" + tipo.name() + "'")
+            .collect(Collectors.joining(", "));
+
+    private static final String SQL_LOG = "SELECT cuenta_origen_id, "
+            + "CASE WHEN tipo_transaccion IN (" + CREDITOS + ") THEN CAST(monto * 100 AS BIGINT) "
+            + "ELSE -CAST(monto * 100 AS BIGINT) END AS monto, "
+            + "CAST(saldo_posterior * 100 AS BIGINT) AS saldo_posterior "
+            + "FROM transacciones WHERE fecha_transaccion >= ? ORDER BY id";
+
+    // Saldo de la fila y de las ranuras por separado: al corregir solo se escribe la fila
+    private static final String SQL_CUENTAS = "SELECT c.id, c.version, c.saldo, COALESCE(SUM(s.saldo), 0) AS ranuras "
+            + "FROM cuentas c LEFT JOIN subsaldos_cuenta s ON s.cuenta_id = c.id GROUP BY c.id, c.version, c.saldo";
+
+    private static final String SQL_CUENTAS_CALIENTES = "SELECT DISTINCT cuenta_id FROM subsaldos_cuenta "
+            + "ORDER BY cuenta_id";
+
+    private static final String SQL_CORREGIR_SALDO = "UPDATE cuentas SET saldo = ?, fecha_modificacion = ?, "
+            + "version = version + 1 WHERE id = ? AND version = ?";
+
+    private static final Timestamp SIN_LIMITE = Timestamp.valueOf(LocalDateTime.of(1900, 1, 1, 0, 0));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ArchivoTransaccionService archivoTransaccionService;
+
+    @Autowired
+    private RankingCuentasService rankingCuentasService;
+
+    // 0 = una partición por núcleo
+    @Value("${banking.reconstruccion.hilos:0}")
+    private int hilos;
+
+    @Value("${banking.reconstruccion.tamano-lote:1000}")
+    private int tamanoLote;
+
+    @Value("${banking.reconstruccion.tamano-fetch:10000}")
+    private int tamanoFetch;
+
+    // Máximo de diferencias que se devuelven en el detalle (se cuentan todas)
+    @Value("${banking.reconstruccion.max-diferencias:1000}")
+    private int maxDiferencias;
+
+    private final AtomicBoolean enEjecucion = new AtomicBoolean(false);
+    private TransactionTemplate lecturaConsistente;
+    private TransactionTemplate escritura;
+
+    public record DiferenciaSaldo(Long cuentaId, BigDecimal saldoActual, BigDecimal saldoReconstruido,
+            BigDecimal diferencia) {
+    }
+
+    /**
+     * Resultado de una reconstrucción. Las cuentas sin saldo posterior
+     * confiable en el log se reconstruyen con apertura 0 y se reportan, pero
+     * no se corrigen (quedan como omitidas); las demás omitidas cambiaron de
+     * versión entre la lectura y el UPDATE.
+     */
+    public record ResultadoReconstruccion(String origen, boolean aplicada, int particiones, long transacciones,
+            long cuentasRevisadas, long cuentasSinMovimientos, long cuentasSinSaldoPosterior, long diferencias,
+            long actualizadas, long omitidas, long msRepeticion, double transaccionesPorSegundo, long duracionMs,
+            List<DiferenciaSaldo> detalle) {
+    }
+
+    @PostConstruct
+    public void inicializar() {
+        lecturaConsistente = new TransactionTemplate(transactionManager);
+        lecturaConsistente.setReadOnly(true);
+        lecturaConsistente.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        escritura = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Repite el log y compara con los saldos actuales
+     *
+     * @param aplicar false para solo reportar las diferencias
+     * @param archivo archivo exportado a repetir en lugar del log completo
+     *                (null = meses archivados más la BD)
+     */
+    public ResultadoReconstruccion reconstruir(boolean aplicar, String archivo) {
+        Path ruta = archivo != null ? Paths.get(archivo) : null;
+        if (ruta != null && !Files.isRegularFile(ruta)) {
+            throw new IllegalArgumentException("No existe el archivo " + archivo);
+        }
+        if (!enEjecucion.compareAndSet(false, true)) {
+            throw new IllegalStateException("Ya hay una reconstrucción de saldos en ejecución");
+        }
+        long inicio = System.nanoTime();
+        int particiones = hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors();
+        // Lo que se lee debe ser lo que se corrige: nada de réplica atrasada
+        ContextoReplica.forzarPrimaria();
+        try {
+            Comparacion comparacion = lecturaConsistente.execute(status -> {
+                long[] calientes = jdbcTemplate.queryForList(SQL_CUENTAS_CALIENTES, Long.class).stream()
+                        .mapToLong(Long::longValue).toArray();
+                Repeticion repeticion = new Repeticion(particiones, calientes);
+                long inicioRepeticion = System.nanoTime();
+                try {
+                    if (ruta != null) {
+                        repetirArchivo(ruta, repeticion);
+                    } else {
+                        repetirLogCompleto(repeticion);
+                    }
+                    repeticion.terminar();
+                } finally {
+                    repeticion.cerrar();
+                }
+                long msRepeticion = (System.nanoTime() - inicioRepeticion) / 1_000_000;
+                return comparar(repeticion, msRepeticion);
+            });
+
+            long actualizadas = 0;
+            if (aplicar) {
+                actualizadas = aplicar(comparacion);
+                if (actualizadas > 0) {
+                    rankingCuentasService.reconstruir();
+                }
+            }
+
+            long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+            ResultadoReconstruccion resultado = new ResultadoReconstruccion(
+                    ruta != null ? ruta.toString() : "BD", aplicar, particiones, comparacion.transacciones,
+                    comparacion.cuentas, comparacion.sinMovimientos, comparacion.sinSaldoPosterior,
+                    comparacion.diferencias.cantidad + comparacion.sinCorregir, actualizadas,
+                    aplicar ? comparacion.diferencias.cantidad + comparacion.sinCorregir - actualizadas : 0,
+                    comparacion.msRepeticion,
+                    comparacion.transacciones * 1000.0 / Math.max(1, comparacion.msRepeticion), duracionMs,
+                    comparacion.detalle);
+
+            log.info("Reconstrucción de saldos ({}, {}): {} transacciones repetidas en {} ms ({} tx/s, {} particiones), "
+                            + "{} cuentas, {} diferencias, {} actualizadas, {} omitidas",
+                    resultado.origen(), aplicar ? "aplicada" : "sin aplicar", resultado.transacciones(),
+                    resultado.msRepeticion(), String.format("%.0f", resultado.transaccionesPorSegundo()), particiones,
+                    resultado.cuentasRevisadas(), resultado.diferencias(), actualizadas, resultado.omitidas());
+            return resultado;
+        } finally {
+            ContextoReplica.limpiar();
+            enEjecucion.set(false);
+        }
+    }
+
+    /**
+     * Meses archivados en orden y luego la BD desde el mes siguiente al último
+     * archivado (si un borrado quedó a medias, esas filas ya están en el archivo)
+     */
+    private void repetirLogCompleto(Repeticion repeticion) {
+        Timestamp desde = SIN_LIMITE;
+        for (ArchivoTransacciones archivado : archivoTransaccionService.obtenerArchivados()) {
+            repetirArchivo(Paths.get(archivado.getRuta()), repeticion);
+            int periodo = archivado.getPeriodo();
+            desde = Timestamp.valueOf(LocalDateTime.of(periodo / 100, periodo % 100, 1, 0, 0).plusMonths(1));
+        }
+
+        Timestamp limite = desde;
+        jdbcTemplate.query(conexion -> {
+            PreparedStatement sentencia = conexion.prepareStatement(SQL_LOG, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            sentencia.setFetchSize(tamanoFetch);
+            sentencia.setTimestamp(1, limite);
+            return sentencia;
+        }, rs -> {
+            // wasNull() se refiere a la última columna leída: la del saldo
+            long saldo = rs.getLong(3);
+            long saldoPosterior = rs.wasNull() ? Repeticion.SIN_SALDO : saldo;
+            repeticion.agregar(rs.getLong(1), rs.getLong(2), saldoPosterior);
+        });
+    }
+
+    private void repetirArchivo(Path ruta, Repeticion repeticion) {
+        archivoTransaccionService.recorrerArchivo(ruta, (id, tipo, monto, descripcion, fecha, origen, destino, saldo) ->
+                repeticion.agregar(origen, tipo.esCredito() ? monto : -monto,
+                        saldo != null ? saldo : Repeticion.SIN_SALDO));
+    }
+
+    /**
+     * Compara el saldo reconstruido de cada cuenta con el actual (fila más
+     * ranuras)
+     */
+    private Comparacion comparar(Repeticion repeticion, long msRepeticion) {
+        Comparacion comparacion = new Comparacion(repeticion.transacciones(), msRepeticion);
+        jdbcTemplate.query(SQL_CUENTAS, rs -> {
+            long cuentaId = rs.getLong("id");
+            comparacion.cuentas++;
+            long reconstruido = repeticion.saldo(cuentaId);
+            if (reconstruido == Repeticion.SIN_SALDO) {
+                comparacion.sinMovimientos++;
+                return;
+            }
+            boolean conApertura = repeticion.conApertura(cuentaId);
+            if (!conApertura) {
+                comparacion.sinSaldoPosterior++;
+            }
+            long fila = aCentavos(rs.getBigDecimal("saldo"));
+            long ranuras = aCentavos(rs.getBigDecimal("ranuras"));
+            if (fila + ranuras == reconstruido) {
+                return;
+            }
+            if (conApertura) {
+                comparacion.diferencias.agregar(cuentaId, rs.getLong("version"), reconstruido - ranuras);
+            } else {
+                // La apertura 0 es una suposición: corregir con ella podría
+                // dañar un saldo sano
+                comparacion.sinCorregir++;
+            }
+            if (comparacion.detalle.size() < maxDiferencias) {
+                comparacion.detalle.add(new DiferenciaSaldo(cuentaId, BigDecimal.valueOf(fila + ranuras, 2),
+                        BigDecimal.valueOf(reconstruido, 2), BigDecimal.valueOf(reconstruido - fila - ranuras, 2)));
+            }
+        });
+        return comparacion;
+    }
+
+    /**
+     * Escribe los saldos corregidos por lotes, cada lote en su transacción
+     *
+     * @return cuentas actualizadas
+     */
+    private long aplicar(Comparacion comparacion) {
+        Diferencias diferencias = comparacion.diferencias;
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        long actualizadas = 0;
+        for (int desde = 0; desde < diferencias.cantidad; desde += tamanoLote) {
+            List<Object[]> lote = new ArrayList<>(tamanoLote);
+            for (int i = desde; i < Math.min(desde + tamanoLote, diferencias.cantidad); i++) {
+                lote.add(new Object[]{BigDecimal.valueOf(diferencias.saldosFila[i], 2), ahora,
+                    diferencias.cuentas[i], diferencias.versiones[i]});
+            }
+            int[] filas = escritura.execute(status -> jdbcTemplate.batchUpdate(SQL_CORREGIR_SALDO, lote));
+            for (int filasActualizadas : filas) {
+                if (filasActualizadas > 0) {
+                    actualizadas++;
+                }
+            }
+        }
+        return actualizadas;
+    }
+
+    private static long aCentavos(BigDecimal monto) {
+        return monto.setScale(2).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Totales de la comparación y cuentas por corregir
+     */
+    private static class Comparacion {
+
+        final long transacciones;
+        final long msRepeticion;
+        final Diferencias diferencias = new Diferencias();
+        final List<DiferenciaSaldo> detalle = new ArrayList<>();
+        long cuentas;
+        long sinMovimientos;
+        long sinSaldoPosterior;
+        long sinCorregir;
+
+        Comparacion(long transacciones, long msRepeticion) {
+            this.transacciones = transacciones;
+            this.msRepeticion = msRepeticion;
+        }
+    }
+
+    /**
+     * Cuenta, versión leída y saldo de fila corregido, en arreglos paralelos
+     */
+    private static class Diferencias {
+
+        long[] cuentas = new long[64];
+        long[] versiones = new long[64];
+        long[] saldosFila = new long[64];
+        int cantidad;
+
+        void agregar(long cuentaId, long version, long saldoFila) {
+            if (cantidad == cuentas.length) {
+                cuentas = Arrays.copyOf(cuentas, cantidad * 2);
+                versiones = Arrays.copyOf(versiones, cantidad * 2);
+                saldosFila = Arrays.copyOf(saldosFila, cantidad * 2);
+            }
+            cuentas[cantidad] = cuentaId;
+            versiones[cantidad] = version;
+            saldosFila[cantidad] = saldoFila;
+            cantidad++;
+        }
+    }
+
+    /**
+     * Repetición del log repartida por cuenta: la partición de una cuenta es
+     * cuentaId % particiones y la aplica un solo hilo, sin candados por
+     * transacción. El lector llena un lote por partición y lo entrega por una
+     * cola; los lotes vuelven vacíos por otra, así la memoria queda acotada y
+     * el lector espera si las particiones se atrasan. Las cuentas calientes
+     * (IDs ordenados) arrancan sin apertura confiable: sus créditos pueden
+     * traer un saldo posterior que no incluye un abono concurrente en ranura.
+     */
+    static final class Repeticion {
+
+        static final long SIN_SALDO = Long.MIN_VALUE;
+
+        private static final int TAMANO_LOTE = 4096;
+        private static final int LOTES_POR_PARTICION = 4;
+
+        private final Particion[] particiones;
+        private final Lote[] abiertos;
+        private final List<BlockingQueue<Lote>> llenos = new ArrayList<>();
+        private final List<BlockingQueue<Lote>> libres = new ArrayList<>();
+        private final List<Future<?>> tareas = new ArrayList<>();
+        private final ExecutorService ejecutor;
+        private long transacciones;
+
+        Repeticion(int cantidad) {
+            this(cantidad, new long[0]);
+        }
+
+        Repeticion(int cantidad, long[] calientes) {
+            particiones = new Particion[cantidad];
+            abiertos = new Lote[cantidad];
+            ejecutor = Executors.newFixedThreadPool(cantidad, r -> {
+                Thread hilo = new Thread(r, "reconstruccion-saldos");
+                hilo.setDaemon(true);
+                return hilo;
+            });
+            for (int p = 0; p < cantidad; p++) {
+                Particion particion = new Particion(calientes);
+                BlockingQueue<Lote> cola = new ArrayBlockingQueue<>(LOTES_POR_PARTICION + 1);
+                BlockingQueue<Lote> vacios = new ArrayBlockingQueue<>(LOTES_POR_PARTICION);
+                for (int i = 0; i < LOTES_POR_PARTICION; i++) {
+                    vacios.add(new Lote());
+                }
+                particiones[p] = particion;
+                llenos.add(cola);
+                libres.add(vacios);
+                tareas.add(ejecutor.submit(() -> {
+                    Lote lote;
+                    while ((lote = cola.take()).cantidad >= 0) {
+                        particion.aplicar(lote);
+                        lote.cantidad = 0;
+                        vacios.put(lote);
+                    }
+                    return null;
+                }));
+            }
+        }
+
+        /**
+         * @param monto          en centavos, negativo si es débito
+         * @param saldoPosterior en centavos o SIN_SALDO
+         */
+        void agregar(long cuentaId, long monto, long saldoPosterior) {
+            int p = (int) (cuentaId % particiones.length);
+            Lote lote = abiertos[p];
+            if (lote == null) {
+                lote = tomarLibre(p);
+                abiertos[p] = lote;
+            }
+            lote.cuentas[lote.cantidad] = cuentaId;
+            lote.montos[lote.cantidad] = monto;
+            lote.saldos[lote.cantidad] = saldoPosterior;
+            if (++lote.cantidad == TAMANO_LOTE) {
+                entregar(p, lote);
+                abiertos[p] = null;
+            }
+            transacciones++;
+        }
+
+        /**
+         * Entrega los lotes pendientes y espera a que todas las particiones
+         * los apliquen
+         */
+        void terminar() {
+            for (int p = 0; p < particiones.length; p++) {
+                if (abiertos[p] != null) {
+                    entregar(p, abiertos[p]);
+                    abiertos[p] = null;
+                }
+                entregar(p, Lote.FIN);
+            }
+            for (Future<?> tarea : tareas) {
+                esperar(tarea);
+            }
+        }
+
+        void cerrar() {
+            ejecutor.shutdownNow();
+        }
+
+        long transacciones() {
+            return transacciones;
+        }
+
+        /**
+         * Saldo reconstruido en centavos, SIN_SALDO si la cuenta no aparece
+         * en el log. Solo después de terminar()
+         */
+        long saldo(long cuentaId) {
+            return particiones[(int) (cuentaId % particiones.length)].saldo(cuentaId);
+        }
+
+        boolean conApertura(long cuentaId) {
+            return particiones[(int) (cuentaId % particiones.length)].conApertura(cuentaId);
+        }
+
+        private Lote tomarLibre(int p) {
+            try {
+                Lote lote;
+                while ((lote = libres.get(p).poll(100, TimeUnit.MILLISECONDS)) == null) {
+                    if (tareas.get(p).isDone()) {
+                        esperar(tareas.get(p));
+                        throw new IllegalStateException("La partición " + p + " terminó antes de tiempo");
+                    }
+                }
+                return lote;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Reconstrucción de saldos interrumpida", e);
+            }
+        }
+
+        private void entregar(int p, Lote lote) {
+            try {
+                llenos.get(p).put(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Reconstrucción de saldos interrumpida", e);
+            }
+        }
+
+        private static void esperar(Future<?> tarea) {
+            try {
+                tarea.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Reconstrucción de saldos interrumpida", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Falló una partición de la reconstrucción de saldos", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Filas del log en arreglos paralelos. FIN (cantidad -1) cierra la cola
+     */
+    private static final class Lote {
+
+        static final Lote FIN = new Lote(-1);
+
+        final long[] cuentas;
+        final long[] montos;
+        final long[] saldos;
+        int cantidad;
+
+        Lote() {
+            cuentas = new long[Repeticion.TAMANO_LOTE];
+            montos = new long[Repeticion.TAMANO_LOTE];
+            saldos = new long[Repeticion.TAMANO_LOTE];
+        }
+
+        private Lote(int cantidad) {
+            cuentas = montos = saldos = new long[0];
+            this.cantidad = cantidad;
+        }
+    }
+
+    /**
+     * Suma de movimientos y saldo de apertura por cuenta, en un mapa abierto
+     * sobre arreglos de long (el ID 0 marca las posiciones vacías)
+     */
+    private static final class Particion {
+
+        private static final long SIN_APERTURA = Long.MIN_VALUE;
+        private static final long CON_RANURAS = Long.MIN_VALUE + 1;
+
+        private final long[] calientes;
+        private long[] cuentas = new long[1024];
+        private long[] sumas = new long[1024];
+        private long[] aperturas = new long[1024];
+        private int cantidad;
+
+        Particion(long[] calientes) {
+            this.calientes = calientes;
+        }
+
+        void aplicar(Lote lote) {
+            for (int i = 0; i < lote.cantidad; i++) {
+                int j = posicion(lote.cuentas[i]);
+                long suma = sumas[j] + lote.montos[i];
+                sumas[j] = suma;
+                long apertura = aperturas[j];
+                if (apertura != SIN_APERTURA && apertura != CON_RANURAS) {
+                    continue;
+                }
+                if (lote.saldos[i] == Repeticion.SIN_SALDO) {
+                    // Abono en ranura: un crédito concurrente a la cuenta pudo
+                    // leer las ranuras antes de él; los débitos consolidan antes
+                    aperturas[j] = CON_RANURAS;
+                } else if (apertura == SIN_APERTURA || lote.montos[i] < 0) {
+                    // Primer saldo posterior confiable: fija el saldo con el que
+                    // abrió la cuenta
+                    aperturas[j] = lote.saldos[i] - suma;
+                }
+            }
+        }
+
+        long saldo(long cuentaId) {
+            int j = buscar(cuentaId);
+            if (j < 0) {
+                return Repeticion.SIN_SALDO;
+            }
+            return (conApertura(j) ? aperturas[j] : 0) + sumas[j];
+        }
+
+        boolean conApertura(long cuentaId) {
+            int j = buscar(cuentaId);
+            return j >= 0 && conApertura(j);
+        }
+
+        private boolean conApertura(int j) {
+            return aperturas[j] != SIN_APERTURA && aperturas[j] != CON_RANURAS;
+        }
+
+        private int buscar(long cuentaId) {
+            int mascara = cuentas.length - 1;
+            for (int j = mezclar(cuentaId) & mascara; ; j = (j + 1) & mascara) {
+                if (cuentas[j] == cuentaId) {
+                    return j;
+                }
+                if (cuentas[j] == 0) {
+                    return -1;
+                }
+            }
+        }
+
+        /**
+         * Posición de la cuenta, creándola si no está
+         */
+        private int posicion(long cuentaId) {
+            int mascara = cuentas.length - 1;
+            int j = mezclar(cuentaId) & mascara;
+            while (cuentas[j] != cuentaId) {
+                if (cuentas[j] == 0) {
+                    if ((cantidad + 1) * 2 > cuentas.length) {
+                        crecer();
+                        return posicion(cuentaId);
+                    }
+                    cuentas[j] = cuentaId;
+                    aperturas[j] = Arrays.binarySearch(calientes, cuentaId) >= 0 ? CON_RANURAS : SIN_APERTURA;
+                    cantidad++;
+                    return j;
+                }
+                j = (j + 1) & mascara;
+            }
+            return j;
+        }
+
+        private void crecer() {
+            long[] cuentasAnteriores = cuentas;
+            long[] sumasAnteriores = sumas;
+            long[] aperturasAnteriores = aperturas;
+            cuentas = new long[cuentasAnteriores.length * 2];
+            sumas = new long[cuentas.length];
+            aperturas = new long[cuentas.length];
+            int mascara = cuentas.length - 1;
+            for (int i = 0; i < cuentasAnteriores.length; i++) {
+                if (cuentasAnteriores[i] == 0) {
+                    continue;
+                }
+                int j = mezclar(cuentasAnteriores[i]) & mascara;
+                while (cuentas[j] != 0) {
+                    j = (j + 1) & mascara;
+                }
+                cuentas[j] = cuentasAnteriores[i];
+                sumas[j] = sumasAnteriores[i];
+                aperturas[j] = aperturasAnteriores[i];
+            }
+        }
+
+        private static int mezclar(long cuentaId) {
+            long mezcla = cuentaId * 0x9E3779B97F4A7C15L;
+            return (int) (mezcla ^ (mezcla >>> 32));
+        }
+    }
+}
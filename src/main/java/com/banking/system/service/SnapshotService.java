@@ -0,0 +1,704 @@
+package com.banking.system.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Servicio de Snapshots Exporta clientes, cuentas y transacciones a un
+ * archivo binario columnar y los restaura en una BD vacía, para sembrar
+ * ambientes de pruebas y desempeño sin pasar por la API.
+ *
+ * El archivo guarda cada tabla en bloques de filas; dentro de un bloque va
+ * una columna tras otra: enteros y fechas como diferencias con la fila
+ * anterior (varint), montos en centavos y textos con un diccionario por
+ * bloque. Todo va comprimido con gzip rápido.
+ *
+ * La restauración usa una sola conexión: desactiva las llaves foráneas de
+ * las tres tablas, borra el índice secundario de transacciones, inserta por
+ * lotes (una transacción por bloque) y al final crea el índice, vuelve a
+ * poner las llaves sin verificarlas y ajusta las columnas de identidad.
+ */
+@Service
+public class SnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotService.class);
+
+    private static final int MAGIC = 0x534E4150; // "SNAP"
+    private static final int VERSION = 1;
+
+    private static final Pattern NOMBRE_VALIDO = Pattern.compile("[A-Za-z0-9._-]+");
+
+    // Columnas con su expresión de lectura. Las ranuras de las cuentas
+    // calientes se suman al saldo: el snapshot no incluye subsaldos_cuenta
+    static final List<Tabla> TABLAS = List.of(
+            new Tabla("clientes", List.of(
+                    new Columna("id", TipoColumna.ENTERO),
+                    new Columna("tipo_identificacion", TipoColumna.TEXTO),
+                    new Columna("numero_identificacion", TipoColumna.TEXTO),
+                    new Columna("nombres", TipoColumna.TEXTO),
+                    new Columna("apellido", TipoColumna.TEXTO),
+                    new Columna("correo_electronico", TipoColumna.TEXTO),
+                    new Columna("fecha_nacimiento", TipoColumna.FECHA),
+                    new Columna("fecha_creacion", TipoColumna.FECHA_HORA),
+                    new Columna("fecha_modificacion", TipoColumna.FECHA_HORA))),
+            new Tabla("cuentas", List.of(
+                    new Columna("id", TipoColumna.ENTERO),
+                    new Columna("tipo_cuenta", TipoColumna.TEXTO),
+                    new Columna("numero_cuenta", TipoColumna.TEXTO),
+                    new Columna("estado", TipoColumna.TEXTO),
+                    new Columna("saldo", TipoColumna.DECIMAL, "c.saldo + COALESCE((SELECT SUM(s.saldo) "
+                            + "FROM subsaldos_cuenta s WHERE s.cuenta_id = c.id), 0)"),
+                    new Columna("exenta_gmf", TipoColumna.BOOLEANO),
+                    new Columna("fecha_creacion", TipoColumna.FECHA_HORA),
+                    new Columna("fecha_modificacion", TipoColumna.FECHA_HORA),
+                    new Columna("fecha_ultima_causacion", TipoColumna.FECHA),
+                    new Columna("version", TipoColumna.ENTERO),
+                    new Columna("cliente_id", TipoColumna.ENTERO))),
+            new Tabla("transacciones", List.of(
+                    new Columna("id", TipoColumna.ENTERO),
+                    new Columna("tipo_transaccion", TipoColumna.TEXTO),
+                    new Columna("monto", TipoColumna.DECIMAL),
+                    new Columna("descripcion", TipoColumna.TEXTO),
+                    new Columna("fecha_transaccion", TipoColumna.FECHA_HORA),
+                    new Columna("cuenta_origen_id", TipoColumna.ENTERO),
+                    new Columna("cuenta_destino_id", TipoColumna.ENTERO),
+                    new Columna("saldo_posterior", TipoColumna.DECIMAL))));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private RankingCuentasService rankingCuentasService;
+
+    @Autowired
+    private BusquedaClienteService busquedaClienteService;
+
+    @Value("${banking.snapshot.directorio:snapshots}")
+    private String directorio;
+
+    @Value("${banking.snapshot.filas-por-bloque:10000}")
+    private int filasPorBloque;
+
+    @Value("${banking.snapshot.tamano-fetch:10000}")
+    private int tamanoFetch;
+
+    private final AtomicBoolean enEjecucion = new AtomicBoolean(false);
+    private TransactionTemplate lecturaConsistente;
+
+    enum TipoColumna {
+        ENTERO, DECIMAL, TEXTO, FECHA, FECHA_HORA, BOOLEANO
+    }
+
+    record Columna(String nombre, TipoColumna tipo, String expresion) {
+
+        Columna(String nombre, TipoColumna tipo) {
+            this(nombre, tipo, null);
+        }
+    }
+
+    record Tabla(String nombre, List<Columna> columnas) {
+    }
+
+    public record ResultadoExportacion(String archivo, long clientes, long cuentas, long transacciones,
+            long tamanoBytes, long duracionMs, double filasPorSegundo) {
+    }
+
+    public record ResultadoRestauracion(String archivo, long clientes, long cuentas, long transacciones,
+            long msCarga, long msIndices, long duracionMs, double filasPorSegundo) {
+    }
+
+    @PostConstruct
+    public void inicializar() {
+        lecturaConsistente = new TransactionTemplate(transactionManager);
+        lecturaConsistente.setReadOnly(true);
+        lecturaConsistente.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Exporta las tres tablas, en una misma lectura consistente, al archivo
+     * indicado dentro de banking.snapshot.directorio
+     */
+    public ResultadoExportacion exportar(String nombre) {
+        Path ruta = resolver(nombre);
+        iniciarEjecucion();
+        long inicio = System.nanoTime();
+        Path temporal = ruta.resolveSibling(ruta.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(ruta.toAbsolutePath().getParent());
+            long[] filas;
+            try (DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(
+                    new GzipRapido(Files.newOutputStream(temporal)), 64 * 1024))) {
+                salida.writeInt(MAGIC);
+                salida.writeInt(VERSION);
+                filas = lecturaConsistente.execute(status -> {
+                    long[] porTabla = new long[TABLAS.size()];
+                    for (int t = 0; t < TABLAS.size(); t++) {
+                        porTabla[t] = exportarTabla(TABLAS.get(t), salida);
+                    }
+                    return porTabla;
+                });
+            }
+            Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+            long total = filas[0] + filas[1] + filas[2];
+            ResultadoExportacion resultado = new ResultadoExportacion(ruta.toString(), filas[0], filas[1], filas[2],
+                    Files.size(ruta), duracionMs, total * 1000.0 / Math.max(1, duracionMs));
+            log.info("Snapshot exportado en {}: {} clientes, {} cuentas, {} transacciones, {} bytes en {} ms",
+                    ruta, filas[0], filas[1], filas[2], resultado.tamanoBytes(), duracionMs);
+            return resultado;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir el snapshot " + ruta, e);
+        } finally {
+            try {
+                Files.deleteIfExists(temporal);
+            } catch (IOException e) {
+                log.warn("No se pudo borrar el temporal {}", temporal, e);
+            }
+            enEjecucion.set(false);
+        }
+    }
+
+    /**
+     * Restaura un snapshot en la BD. Las tres tablas deben estar vacías.
+     */
+    public ResultadoRestauracion restaurar(String nombre) {
+        Path ruta = resolver(nombre);
+        if (!Files.isRegularFile(ruta)) {
+            throw new IllegalArgumentException("No existe el snapshot " + nombre);
+        }
+        iniciarEjecucion();
+        long inicio = System.nanoTime();
+        try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(ruta), 64 * 1024), 64 * 1024))) {
+            if (entrada.readInt() != MAGIC || entrada.readInt() != VERSION) {
+                throw new IllegalArgumentException("Formato de snapshot no soportado: " + nombre);
+            }
+            long[] tiempos = new long[2];
+            long[] filas = jdbcTemplate.execute((ConnectionCallback<long[]>) conexion ->
+                    cargar(conexion, entrada, tiempos));
+
+            // Los índices en memoria se arman con lo restaurado
+            rankingCuentasService.reconstruir();
+            busquedaClienteService.iniciar();
+
+            long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+            long total = filas[0] + filas[1] + filas[2];
+            ResultadoRestauracion resultado = new ResultadoRestauracion(ruta.toString(), filas[0], filas[1],
+                    filas[2], tiempos[0], tiempos[1], duracionMs, total * 1000.0 / Math.max(1, tiempos[0]));
+            log.info("Snapshot {} restaurado: {} clientes, {} cuentas, {} transacciones; carga {} ms, índices {} ms",
+                    ruta, filas[0], filas[1], filas[2], tiempos[0], tiempos[1]);
+            return resultado;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el snapshot " + ruta, e);
+        } finally {
+            enEjecucion.set(false);
+        }
+    }
+
+    private void iniciarEjecucion() {
+        if (!enEjecucion.compareAndSet(false, true)) {
+            throw new IllegalStateException("Ya hay una exportación o restauración de snapshot en ejecución");
+        }
+    }
+
+    /**
+     * Solo nombres simples dentro del directorio de snapshots
+     */
+    private Path resolver(String nombre) {
+        if (nombre == null || !NOMBRE_VALIDO.matcher(nombre).matches() || nombre.startsWith(".")) {
+            throw new IllegalArgumentException("Nombre de snapshot inválido: " + nombre);
+        }
+        return Paths.get(directorio).resolve(nombre);
+    }
+
+    // ==================== Exportación ====================
+
+    private long exportarTabla(Tabla tabla, DataOutputStream salida) {
+        String sql = "SELECT " + tabla.columnas().stream()
+                .map(c -> c.expresion() != null ? c.expresion() + " AS " + c.nombre() : "c." + c.nombre())
+                .collect(Collectors.joining(", ")) + " FROM " + tabla.nombre() + " c ORDER BY c.id";
+        Bloque bloque = new Bloque(tabla, filasPorBloque);
+        Bufer bufer = new Bufer(filasPorBloque * 16);
+        long[] filas = new long[1];
+
+        escribirSinExcepcion(() -> {
+            salida.writeUTF(tabla.nombre());
+            salida.writeShort(tabla.columnas().size());
+        });
+        jdbcTemplate.query(conexion -> {
+            PreparedStatement sentencia = conexion.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            sentencia.setFetchSize(tamanoFetch);
+            return sentencia;
+        }, rs -> {
+            bloque.leerFila(rs);
+            filas[0]++;
+            if (bloque.filas == filasPorBloque) {
+                escribirSinExcepcion(() -> bloque.escribir(salida, bufer));
+            }
+        });
+        escribirSinExcepcion(() -> {
+            if (bloque.filas > 0) {
+                bloque.escribir(salida, bufer);
+            }
+            salida.writeInt(0);
+        });
+        return filas[0];
+    }
+
+    @FunctionalInterface
+    private interface Escritura {
+        void ejecutar() throws IOException;
+    }
+
+    private static void escribirSinExcepcion(Escritura escritura) {
+        try {
+            escritura.ejecutar();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ==================== Restauración ====================
+
+    private long[] cargar(Connection conexion, DataInputStream entrada, long[] tiempos) throws SQLException {
+        CargaMasiva carga = new CargaMasiva(conexion);
+        carga.verificarVacias("el snapshot solo se restaura en una BD vacía");
+
+        boolean autoCommit = conexion.getAutoCommit();
+        long[] filas = new long[TABLAS.size()];
+        long inicioCarga = System.nanoTime();
+        carga.preparar();
+        conexion.setAutoCommit(false);
+        try {
+            for (int t = 0; t < TABLAS.size(); t++) {
+                filas[t] = cargarTabla(conexion, TABLAS.get(t), entrada);
+            }
+        } catch (IOException e) {
+            conexion.rollback();
+            throw new UncheckedIOException("Snapshot incompleto o dañado", e);
+        } finally {
+            conexion.setAutoCommit(autoCommit);
+            tiempos[0] = (System.nanoTime() - inicioCarga) / 1_000_000;
+
+            // Aunque la carga falle la BD queda con sus índices y sus llaves
+            long inicioIndices = System.nanoTime();
+            carga.terminar();
+            tiempos[1] = (System.nanoTime() - inicioIndices) / 1_000_000;
+        }
+        return filas;
+    }
+
+    private long cargarTabla(Connection conexion, Tabla tabla, DataInputStream entrada)
+            throws IOException, SQLException {
+        if (!entrada.readUTF().equals(tabla.nombre()) || entrada.readUnsignedShort() != tabla.columnas().size()) {
+            throw new IllegalArgumentException("El snapshot no tiene las columnas esperadas de " + tabla.nombre());
+        }
+        String sql = "INSERT INTO " + tabla.nombre() + " (" + tabla.columnas().stream()
+                .map(Columna::nombre).collect(Collectors.joining(", ")) + ") VALUES ("
+                + tabla.columnas().stream().map(c -> "?").collect(Collectors.joining(", ")) + ")";
+
+        Bloque bloque = new Bloque(tabla, filasPorBloque);
+        Bufer bufer = new Bufer(filasPorBloque * 16);
+        long filas = 0;
+        try (PreparedStatement insercion = conexion.prepareStatement(sql)) {
+            while (bloque.leer(entrada, bufer)) {
+                for (int i = 0; i < bloque.filas; i++) {
+                    bloque.asignarFila(insercion, i);
+                    insercion.addBatch();
+                }
+                insercion.executeBatch();
+                conexion.commit();
+                filas += bloque.filas;
+            }
+        }
+        return filas;
+    }
+
+    // ==================== Formato columnar ====================
+
+    /**
+     * Bloque de filas de una tabla en arreglos por columna. Formato de un
+     * bloque: filas (int), largo en bytes (int) y las columnas en orden; cada
+     * columna lleva un mapa de nulos opcional y luego sus valores.
+     */
+    static final class Bloque {
+
+        private final Tabla tabla;
+        private final long[][] numeros;
+        private final String[][] textos;
+        private final boolean[][] nulos;
+        int filas;
+
+        Bloque(Tabla tabla, int capacidad) {
+            this.tabla = tabla;
+            int columnas = tabla.columnas().size();
+            numeros = new long[columnas][];
+            textos = new String[columnas][];
+            nulos = new boolean[columnas][capacidad];
+            for (int c = 0; c < columnas; c++) {
+                if (tabla.columnas().get(c).tipo() == TipoColumna.TEXTO) {
+                    textos[c] = new String[capacidad];
+                } else {
+                    numeros[c] = new long[capacidad];
+                }
+            }
+        }
+
+        private void crecer(int capacidad) {
+            for (int c = 0; c < nulos.length; c++) {
+                nulos[c] = new boolean[capacidad];
+                if (textos[c] != null) {
+                    textos[c] = new String[capacidad];
+                } else {
+                    numeros[c] = new long[capacidad];
+                }
+            }
+        }
+
+        void leerFila(ResultSet rs) throws SQLException {
+            List<Columna> columnas = tabla.columnas();
+            for (int c = 0; c < columnas.size(); c++) {
+                int indice = c + 1;
+                long valor = 0;
+                boolean nulo;
+                switch (columnas.get(c).tipo()) {
+                    case TEXTO -> {
+                        textos[c][filas] = rs.getString(indice);
+                        nulo = textos[c][filas] == null;
+                    }
+                    case DECIMAL -> {
+                        BigDecimal monto = rs.getBigDecimal(indice);
+                        nulo = monto == null;
+                        valor = nulo ? 0 : monto.setScale(2).unscaledValue().longValueExact();
+                    }
+                    case FECHA -> {
+                        LocalDate fecha = rs.getObject(indice, LocalDate.class);
+                        nulo = fecha == null;
+                        valor = nulo ? 0 : fecha.toEpochDay();
+                    }
+                    case FECHA_HORA -> {
+                        LocalDateTime fecha = rs.getObject(indice, LocalDateTime.class);
+                        nulo = fecha == null;
+                        valor = nulo ? 0 : aNanos(fecha);
+                    }
+                    case BOOLEANO -> {
+                        valor = rs.getBoolean(indice) ? 1 : 0;
+                        nulo = rs.wasNull();
+                    }
+                    default -> {
+                        valor = rs.getLong(indice);
+                        nulo = rs.wasNull();
+                    }
+                }
+                nulos[c][filas] = nulo;
+                if (numeros[c] != null) {
+                    numeros[c][filas] = valor;
+                }
+            }
+            filas++;
+        }
+
+        void asignarFila(PreparedStatement sentencia, int fila) throws SQLException {
+            List<Columna> columnas = tabla.columnas();
+            for (int c = 0; c < columnas.size(); c++) {
+                int indice = c + 1;
+                TipoColumna tipo = columnas.get(c).tipo();
+                if (nulos[c][fila]) {
+                    sentencia.setNull(indice, tipoSql(tipo));
+                    continue;
+                }
+                long valor = numeros[c] != null ? numeros[c][fila] : 0;
+                switch (tipo) {
+                    case TEXTO -> sentencia.setString(indice, textos[c][fila]);
+                    case DECIMAL -> sentencia.setBigDecimal(indice, BigDecimal.valueOf(valor, 2));
+                    case FECHA -> sentencia.setObject(indice, LocalDate.ofEpochDay(valor));
+                    case FECHA_HORA -> sentencia.setObject(indice, desdeNanos(valor));
+                    case BOOLEANO -> sentencia.setBoolean(indice, valor == 1);
+                    default -> sentencia.setLong(indice, valor);
+                }
+            }
+        }
+
+        void escribir(DataOutputStream salida, Bufer bufer) throws IOException {
+            bufer.posicion = 0;
+            List<Columna> columnas = tabla.columnas();
+            for (int c = 0; c < columnas.size(); c++) {
+                escribirNulos(bufer, nulos[c]);
+                switch (columnas.get(c).tipo()) {
+                    case TEXTO -> escribirTextos(bufer, c);
+                    // Montos y saldos no van ordenados: sin diferencias
+                    case DECIMAL, BOOLEANO -> {
+                        for (int i = 0; i < filas; i++) {
+                            if (!nulos[c][i]) {
+                                bufer.zigzag(numeros[c][i]);
+                            }
+                        }
+                    }
+                    default -> {
+                        long anterior = 0;
+                        for (int i = 0; i < filas; i++) {
+                            if (!nulos[c][i]) {
+                                bufer.zigzag(numeros[c][i] - anterior);
+                                anterior = numeros[c][i];
+                            }
+                        }
+                    }
+                }
+            }
+            salida.writeInt(filas);
+            salida.writeInt(bufer.posicion);
+            salida.write(bufer.datos, 0, bufer.posicion);
+            filas = 0;
+        }
+
+        /**
+         * Lee el siguiente bloque; false al llegar al fin de la tabla
+         */
+        boolean leer(DataInputStream entrada, Bufer bufer) throws IOException {
+            filas = entrada.readInt();
+            if (filas == 0) {
+                return false;
+            }
+            if (filas < 0) {
+                throw new IllegalArgumentException("Bloque de snapshot inválido en " + tabla.nombre());
+            }
+            // El snapshot pudo exportarse con bloques más grandes
+            if (filas > nulos[0].length) {
+                crecer(filas);
+            }
+            int largo = entrada.readInt();
+            bufer.asegurar(largo);
+            entrada.readFully(bufer.datos, 0, largo);
+            bufer.posicion = 0;
+
+            List<Columna> columnas = tabla.columnas();
+            for (int c = 0; c < columnas.size(); c++) {
+                leerNulos(bufer, nulos[c]);
+                switch (columnas.get(c).tipo()) {
+                    case TEXTO -> leerTextos(bufer, c);
+                    case DECIMAL, BOOLEANO -> {
+                        for (int i = 0; i < filas; i++) {
+                            numeros[c][i] = nulos[c][i] ? 0 : bufer.leerZigzag();
+                        }
+                    }
+                    default -> {
+                        long anterior = 0;
+                        for (int i = 0; i < filas; i++) {
+                            if (!nulos[c][i]) {
+                                anterior += bufer.leerZigzag();
+                                numeros[c][i] = anterior;
+                            }
+                        }
+                    }
+                }
+            }
+            return true;
+        }
+
+        private void escribirNulos(Bufer bufer, boolean[] columna) {
+            boolean hayNulos = false;
+            for (int i = 0; i < filas && !hayNulos; i++) {
+                hayNulos = columna[i];
+            }
+            bufer.varint(hayNulos ? 1 : 0);
+            if (!hayNulos) {
+                return;
+            }
+            for (int i = 0; i < filas; i += 8) {
+                int bits = 0;
+                for (int b = 0; b < 8 && i + b < filas; b++) {
+                    bits |= columna[i + b] ? 1 << b : 0;
+                }
+                bufer.varint(bits);
+            }
+        }
+
+        private void leerNulos(Bufer bufer, boolean[] columna) {
+            if (bufer.leerVarint() == 0) {
+                Arrays.fill(columna, 0, filas, false);
+                return;
+            }
+            for (int i = 0; i < filas; i += 8) {
+                int bits = (int) bufer.leerVarint();
+                for (int b = 0; b < 8 && i + b < filas; b++) {
+                    columna[i + b] = (bits & (1 << b)) != 0;
+                }
+            }
+        }
+
+        /**
+         * Diccionario del bloque (valores distintos en orden de aparición) y
+         * luego el índice de cada fila
+         */
+        private void escribirTextos(Bufer bufer, int c) {
+            Map<String, Integer> diccionario = new HashMap<>();
+            int[] indices = new int[filas];
+            for (int i = 0; i < filas; i++) {
+                if (!nulos[c][i]) {
+                    indices[i] = diccionario.computeIfAbsent(textos[c][i], texto -> diccionario.size());
+                }
+            }
+            String[] distintos = new String[diccionario.size()];
+            diccionario.forEach((texto, indice) -> distintos[indice] = texto);
+            bufer.varint(distintos.length);
+            for (String texto : distintos) {
+                bufer.texto(texto);
+            }
+            for (int i = 0; i < filas; i++) {
+                if (!nulos[c][i]) {
+                    bufer.varint(indices[i]);
+                }
+            }
+        }
+
+        private void leerTextos(Bufer bufer, int c) {
+            String[] distintos = new String[(int) bufer.leerVarint()];
+            for (int d = 0; d < distintos.length; d++) {
+                distintos[d] = bufer.leerTexto();
+            }
+            for (int i = 0; i < filas; i++) {
+                textos[c][i] = nulos[c][i] ? null : distintos[(int) bufer.leerVarint()];
+            }
+        }
+
+        private static int tipoSql(TipoColumna tipo) {
+            return switch (tipo) {
+                case TEXTO -> Types.VARCHAR;
+                case DECIMAL -> Types.DECIMAL;
+                case FECHA -> Types.DATE;
+                case FECHA_HORA -> Types.TIMESTAMP;
+                case BOOLEANO -> Types.BOOLEAN;
+                default -> Types.BIGINT;
+            };
+        }
+
+        private static long aNanos(LocalDateTime fecha) {
+            return fecha.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + fecha.getNano();
+        }
+
+        private static LocalDateTime desdeNanos(long nanos) {
+            return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                    (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+        }
+    }
+
+    /**
+     * Arreglo de bytes creciente con varints (LEB128) y zigzag para signos
+     */
+    static final class Bufer {
+
+        byte[] datos;
+        int posicion;
+
+        Bufer(int capacidad) {
+            datos = new byte[capacidad];
+        }
+
+        void asegurar(int capacidad) {
+            if (capacidad > datos.length) {
+                datos = Arrays.copyOf(datos, Math.max(capacidad, datos.length * 2));
+            }
+        }
+
+        void varint(long valor) {
+            asegurar(posicion + 10);
+            while ((valor & ~0x7FL) != 0) {
+                datos[posicion++] = (byte) ((valor & 0x7F) | 0x80);
+                valor >>>= 7;
+            }
+            datos[posicion++] = (byte) valor;
+        }
+
+        void zigzag(long valor) {
+            varint((valor << 1) ^ (valor >> 63));
+        }
+
+        void texto(String texto) {
+            byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+            varint(bytes.length);
+            asegurar(posicion + bytes.length);
+            System.arraycopy(bytes, 0, datos, posicion, bytes.length);
+            posicion += bytes.length;
+        }
+
+        long leerVarint() {
+            long valor = 0;
+            for (int desplazamiento = 0; ; desplazamiento += 7) {
+                byte b = datos[posicion++];
+                valor |= (long) (b & 0x7F) << desplazamiento;
+                if (b >= 0) {
+                    return valor;
+                }
+            }
+        }
+
+        long leerZigzag() {
+            long valor = leerVarint();
+            return (valor >>> 1) ^ -(valor & 1);
+        }
+
+        String leerTexto() {
+            int largo = (int) leerVarint();
+            String texto = new String(datos, posicion, largo, StandardCharsets.UTF_8);
+            posicion += largo;
+            return texto;
+        }
+    }
+
+    /**
+     * gzip con el nivel más rápido: el cuello de botella es la BD, no el disco
+     */
+    private static final class GzipRapido extends GZIPOutputStream {
+
+        GzipRapido(OutputStream salida) throws IOException {
+            super(salida, 64 * 1024);
+            def.setLevel(Deflater.BEST_SPEED);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.SubsaldoCuenta;
+import com.banking.system.repository.CuentaRepository;
+import com.banking.system.repository.SubsaldoCuentaRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Servicio de Subsaldos Reparte los abonos de las cuentas calientes (ej:
+ * cuentas recaudadoras que reciben miles de consignaciones) entre N ranuras.
+ *
+ * Cada abono suma con un UPDATE atómico en una ranura al azar, sin tocar la
+ * fila de la cuenta: los abonos simultáneos casi nunca esperan entre sí y no
+ * generan conflictos de versión. Cuenta.getSaldo() devuelve el saldo de la
+ * cuenta más la suma de las ranuras. Qué cuentas son calientes se lee de la
+ * columna cuentas.ranuras, así todos los nodos lo ven igual apenas se activa
+ * o desactiva una.
+ *
+ * Antes de un débito la cuenta se consolida (las ranuras se suman a la cuenta
+ * y quedan en cero) para validar el saldo completo. Una tarea periódica
+ * consolida también las cuentas que solo reciben abonos. Orden de bloqueo:
+ * primero las ranuras y después la fila de la cuenta.
+ */
+@Service
+public class SubsaldoCuentaService {
+
+    private static final Logger log = LoggerFactory.getLogger(SubsaldoCuentaService.class);
+
+    private static final String SQL_ABONAR = "UPDATE subsaldos_cuenta SET saldo = saldo + ?, fecha_modificacion = ? "
+            + "WHERE cuenta_id = ? AND ranura = ?";
+
+    private static final String SQL_BLOQUEAR_RANURAS = "SELECT saldo FROM subsaldos_cuenta WHERE cuenta_id = ? "
+            + "ORDER BY ranura FOR UPDATE";
+
+    private static final String SQL_SUMAR_A_CUENTA = "UPDATE cuentas SET saldo = saldo + ?, version = version + 1 "
+            + "WHERE id = ?";
+
+    private static final String SQL_VACIAR_RANURAS = "UPDATE subsaldos_cuenta SET saldo = 0 "
+            + "WHERE cuenta_id = ? AND saldo <> 0";
+
+    private static final String SQL_CUENTAS_PENDIENTES = "SELECT DISTINCT cuenta_id FROM subsaldos_cuenta WHERE saldo <> 0";
+
+    private static final String SQL_LEER_RANURAS = "SELECT ranuras FROM cuentas WHERE id = ?";
+
+    private static final String SQL_MARCAR_RANURAS = "UPDATE cuentas SET ranuras = ? WHERE id = ?";
+
+    private static final String SQL_DESMARCAR_RANURAS = "UPDATE cuentas SET ranuras = NULL WHERE id = ?";
+
+    private static final String SQL_BORRAR_RANURAS = "DELETE FROM subsaldos_cuenta WHERE cuenta_id = ?";
+
+    private static final String SQL_CONTAR_CALIENTES = "SELECT COUNT(*) FROM cuentas WHERE ranuras IS NOT NULL";
+
+    // Cuentas con ranuras de antes de la columna cuentas.ranuras
+    private static final String SQL_MARCAR_EXISTENTES = "UPDATE cuentas c SET ranuras = "
+            + "(SELECT COUNT(*) FROM subsaldos_cuenta s WHERE s.cuenta_id = c.id) "
+            + "WHERE c.ranuras IS NULL AND EXISTS (SELECT 1 FROM subsaldos_cuenta s WHERE s.cuenta_id = c.id)";
+
+    @Autowired
+    private SubsaldoCuentaRepository subsaldoCuentaRepository;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // IDs separados por coma que se activan como calientes al arrancar
+    @Value("${banking.cuentas-calientes.ids:}")
+    private String idsConfigurados;
+
+    @Value("${banking.cuentas-calientes.ranuras:16}")
+    private int ranurasPorDefecto;
+
+    private final AtomicLong abonos = new AtomicLong();
+    private final AtomicLong consolidaciones = new AtomicLong();
+    private final AtomicReference<BigDecimal> montoConsolidado = new AtomicReference<>(BigDecimal.ZERO);
+
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Métricas de las cuentas calientes
+     */
+    public record MetricasSubsaldos(int cuentasCalientes, int ranurasPorDefecto, long abonos,
+            long consolidaciones, BigDecimal montoConsolidado) {
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        int marcadas = jdbcTemplate.update(SQL_MARCAR_EXISTENTES);
+        if (marcadas > 0) {
+            log.info("{} cuentas calientes marcadas a partir de sus ranuras", marcadas);
+        }
+        for (String id : idsConfigurados.split(",")) {
+            if (id.isBlank()) {
+                continue;
+            }
+            try {
+                activar(Long.valueOf(id.trim()), ranurasPorDefecto);
+            } catch (IllegalArgumentException e) {
+                log.warn("No se pudo activar la cuenta caliente {}: {}", id.trim(), e.getMessage());
+            }
+        }
+    }
+
+    public boolean esCaliente(Long cuentaId) {
+        return leerRanuras(cuentaId) != null;
+    }
+
+    /**
+     * Cantidad de ranuras de la cuenta, o null si no es caliente
+     */
+    private Integer leerRanuras(Long cuentaId) {
+        List<Integer> ranuras = jdbcTemplate.queryForList(SQL_LEER_RANURAS, Integer.class, cuentaId);
+        return ranuras.isEmpty() ? null : ranuras.get(0);
+    }
+
+    /**
+     * Marca una cuenta como caliente creando sus ranuras. Si ya tenía más
+     * ranuras se conservan (nunca se quitan ranuras con saldo).
+     *
+     * @return cantidad de ranuras de la cuenta
+     */
+    public int activar(Long cuentaId, int ranuras) {
+        if (ranuras < 2 || ranuras > 256) {
+            throw new IllegalArgumentException("La cantidad de ranuras debe estar entre 2 y 256");
+        }
+        if (!cuentaRepository.existsById(cuentaId)) {
+            throw new IllegalArgumentException("Cuenta no encontrada con ID: " + cuentaId);
+        }
+
+        Integer total = transactionTemplate.execute(status -> {
+            int existentes = (int) subsaldoCuentaRepository.countByCuentaId(cuentaId);
+            List<SubsaldoCuenta> nuevas = new ArrayList<>();
+            for (int ranura = existentes; ranura < ranuras; ranura++) {
+                nuevas.add(new SubsaldoCuenta(cuentaId, ranura));
+            }
+            subsaldoCuentaRepository.saveAll(nuevas);
+            // Después de crear las ranuras: un abono que ve la marca siempre las encuentra
+            int cantidad = Math.max(existentes, ranuras);
+            jdbcTemplate.update(SQL_MARCAR_RANURAS, cantidad, cuentaId);
+            return cantidad;
+        });
+        log.info("Cuenta {} caliente con {} ranuras", cuentaId, total);
+        return total;
+    }
+
+    /**
+     * Consolida la cuenta y borra sus ranuras: vuelve a abonarse en su fila
+     */
+    public void desactivar(Long cuentaId) {
+        if (!esCaliente(cuentaId)) {
+            throw new IllegalArgumentException("La cuenta " + cuentaId + " no es una cuenta caliente");
+        }
+        transactionTemplate.executeWithoutResult(status -> quitarRanuras(cuentaId));
+    }
+
+    /**
+     * Consolida la cuenta, le quita la marca de caliente y borra sus ranuras,
+     * en la transacción del llamador (antes de cargar la cuenta, como
+     * consolidar). Un abono que esperaba el bloqueo de una ranura ya no la
+     * encuentra y va a la fila de la cuenta.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void quitarRanuras(Long cuentaId) {
+        consolidar(cuentaId);
+        jdbcTemplate.update(SQL_DESMARCAR_RANURAS, cuentaId);
+        jdbcTemplate.update(SQL_BORRAR_RANURAS, cuentaId);
+        log.info("Cuenta {} ya no es caliente", cuentaId);
+    }
+
+    /**
+     * Abona el monto en una ranura al azar de la cuenta caliente
+     *
+     * @return false si la cuenta ya no tiene ranuras (el abono debe ir a la
+     * cuenta)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean abonar(Long cuentaId, BigDecimal monto) {
+        Integer ranuras = leerRanuras(cuentaId);
+        if (ranuras == null) {
+            return false;
+        }
+        int ranura = ThreadLocalRandom.current().nextInt(ranuras);
+        if (jdbcTemplate.update(SQL_ABONAR, monto, Timestamp.valueOf(LocalDateTime.now()), cuentaId, ranura) == 0) {
+            return false;
+        }
+        abonos.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Suma las ranuras al saldo de la cuenta y las deja en cero. Sube la
+     * versión de la cuenta: debe llamarse antes de cargarla en la transacción.
+     *
+     * @return monto movido de las ranuras a la cuenta
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public BigDecimal consolidar(Long cuentaId) {
+        BigDecimal total = jdbcTemplate.queryForList(SQL_BLOQUEAR_RANURAS, BigDecimal.class, cuentaId).stream()
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (total.signum() == 0) {
+            return BigDecimal.ZERO;
+        }
+        jdbcTemplate.update(SQL_SUMAR_A_CUENTA, total, cuentaId);
+        jdbcTemplate.update(SQL_VACIAR_RANURAS, cuentaId);
+
+        consolidaciones.incrementAndGet();
+        montoConsolidado.accumulateAndGet(total, BigDecimal::add);
+        return total;
+    }
+
+    /**
+     * Consolida las cuentas con saldo en ranuras, cada una en su transacción
+     *
+     * @return cantidad de cuentas consolidadas
+     */
+    @Scheduled(fixedDelayString = "${banking.cuentas-calientes.intervalo-consolidacion-ms:1000}")
+    public int consolidarPendientes() {
+        int consolidadas = 0;
+        for (Long cuentaId : jdbcTemplate.queryForList(SQL_CUENTAS_PENDIENTES, Long.class)) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> consolidar(cuentaId));
+                consolidadas++;
+            } catch (RuntimeException e) {
+                log.warn("No se pudo consolidar la cuenta caliente {}", cuentaId, e);
+            }
+        }
+        return consolidadas;
+    }
+
+    public MetricasSubsaldos obtenerMetricas() {
+        return new MetricasSubsaldos(
+                jdbcTemplate.queryForObject(SQL_CONTAR_CALIENTES, Integer.class),
+                ranurasPorDefecto,
+                abonos.get(),
+                consolidaciones.get(),
+                montoConsolidado.get()
+        );
+    }
+}
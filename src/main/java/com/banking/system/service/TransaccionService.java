@@ -4,13 +4,22 @@ import com.banking.system.entity.Cuenta;
 import com.banking.system.entity.Transaccion;
 import com.banking.system.entity.Transaccion.TipoTransaccion;
 import com.banking.system.repository.CuentaRepository;
+import com.banking.system.repository.EspecificacionesListado;
 import com.banking.system.repository.TransaccionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * Servicio de Transacciones Maneja la lógica de negocio de las operaciones
@@ -26,6 +35,31 @@ public class TransaccionService {
     @Autowired
     private CuentaRepository cuentaRepository;
 
+    @Autowired
+    private GMFService gmfService;
+
+    @Autowired
+    private ArchivoTransaccionService archivoTransaccionService;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private VelocidadService velocidadService;
+
+    @Autowired
+    private ConcurrenciaCuentaService concurrenciaCuentaService;
+
+    @Autowired
+    private SubsaldoCuentaService subsaldoCuentaService;
+
+    @Autowired
+    private RankingCuentasService rankingCuentasService;
+
+    // Límites usados cuando el historial se pide sin rango de fechas
+    private static final LocalDateTime FECHA_MINIMA = LocalDateTime.of(1900, 1, 1, 0, 0);
+    private static final LocalDateTime FECHA_MAXIMA = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
     /**
      * Realizar una consignación (depósito) Aumenta el saldo de la cuenta
      */
@@ -35,8 +69,10 @@ public class TransaccionService {
             throw new IllegalArgumentException("El monto debe ser mayor a cero");
         }
 
-        // Obtener la cuenta
-        Cuenta cuenta = cuentaRepository.findById(cuentaId)
+        // Obtener la cuenta. Una cuenta caliente no se bloquea: el abono va a
+        // una de sus ranuras y su fila no cambia
+        boolean enRanura = subsaldoCuentaService.esCaliente(cuentaId);
+        Cuenta cuenta = (enRanura ? cuentaRepository.findById(cuentaId) : buscarCuenta(cuentaId))
                 .orElseThrow(() -> new IllegalArgumentException("Cuenta no encontrada con ID: " + cuentaId));
 
         // Verificar que la cuenta esté activa
@@ -45,8 +81,13 @@ public class TransaccionService {
         }
 
         // Aumentar el saldo
-        cuenta.aumentarSaldo(monto);
-        cuentaRepository.save(cuenta);
+        if (enRanura) {
+            enRanura = subsaldoCuentaService.abonar(cuentaId, monto);
+        }
+        if (!enRanura) {
+            cuenta.aumentarSaldo(monto);
+            cuentaRepository.save(cuenta);
+        }
 
         // Crear y guardar la transacción
         Transaccion transaccion = new Transaccion();
@@ -54,9 +95,11 @@ public class TransaccionService {
         transaccion.setMonto(monto);
         transaccion.setDescripcion(descripcion != null ? descripcion : "Consignación");
         transaccion.setCuentaOrigen(cuenta);
-        transaccion.setSaldoPosterior(cuenta.getSaldo());
+        // Con el abono en ranura el saldo posterior no se conoce sin sumar las
+        // demás ranuras; la conciliación lo deduce de la cadena
+        transaccion.setSaldoPosterior(enRanura ? null : cuenta.getSaldo());
 
-        return transaccionRepository.save(transaccion);
+        return guardarTransaccion(transaccion);
     }
 
     /**
@@ -68,8 +111,9 @@ public class TransaccionService {
             throw new IllegalArgumentException("El monto debe ser mayor a cero");
         }
 
-        // Obtener la cuenta
-        Cuenta cuenta = cuentaRepository.findById(cuentaId)
+        // Obtener la cuenta (con sus ranuras consolidadas si es caliente)
+        consolidarSiEsCaliente(cuentaId);
+        Cuenta cuenta = buscarCuenta(cuentaId)
                 .orElseThrow(() -> new IllegalArgumentException("Cuenta no encontrada con ID: " + cuentaId));
 
         // Verificar que la cuenta esté activa
@@ -85,8 +129,17 @@ public class TransaccionService {
             );
         }
 
+        // Calcular el GMF (4x1000) y validar que el saldo lo cubra
+        BigDecimal gmf = gmfService.calcularGMF(cuenta, monto);
+        validarSaldoParaGMF(cuenta, monto, gmf);
+
+        // Control de velocidad (fraude) antes de mover el dinero
+        velocidadService.verificarYRegistrar(cuentaId, TipoTransaccion.RETIRO, monto);
+
         // Disminuir el saldo (esto también valida si es cuenta de ahorro)
         cuenta.disminuirSaldo(monto);
+        BigDecimal saldoPosterior = cuenta.getSaldo();
+        Transaccion transaccionGMF = crearTransaccionGMF(cuenta, gmf);
         cuentaRepository.save(cuenta);
 
         // Crear y guardar la transacción
@@ -95,9 +148,13 @@ public class TransaccionService {
         transaccion.setMonto(monto);
         transaccion.setDescripcion(descripcion != null ? descripcion : "Retiro");
         transaccion.setCuentaOrigen(cuenta);
-        transaccion.setSaldoPosterior(cuenta.getSaldo());
+        transaccion.setSaldoPosterior(saldoPosterior);
 
-        return transaccionRepository.save(transaccion);
+        Transaccion guardada = guardarTransaccion(transaccion);
+        if (transaccionGMF != null) {
+            guardarTransaccion(transaccionGMF);
+        }
+        return guardada;
     }
 
     /**
@@ -116,12 +173,17 @@ public class TransaccionService {
             throw new IllegalArgumentException("No se puede transferir a la misma cuenta");
         }
 
-        // Obtener ambas cuentas
-        Cuenta cuentaOrigen = cuentaRepository.findById(cuentaOrigenId)
-                .orElseThrow(() -> new IllegalArgumentException("Cuenta origen no encontrada con ID: " + cuentaOrigenId));
-
-        Cuenta cuentaDestino = cuentaRepository.findById(cuentaDestinoId)
-                .orElseThrow(() -> new IllegalArgumentException("Cuenta destino no encontrada con ID: " + cuentaDestinoId));
+        // Obtener ambas cuentas, siempre en orden de ID: en modo pesimista dos
+        // transferencias cruzadas (A->B y B->A) no se bloquean entre sí
+        Cuenta cuentaOrigen;
+        Cuenta cuentaDestino;
+        if (cuentaOrigenId < cuentaDestinoId) {
+            cuentaOrigen = buscarCuentaOrigen(cuentaOrigenId);
+            cuentaDestino = buscarCuentaDestino(cuentaDestinoId);
+        } else {
+            cuentaDestino = buscarCuentaDestino(cuentaDestinoId);
+            cuentaOrigen = buscarCuentaOrigen(cuentaOrigenId);
+        }
 
         // Verificar que ambas cuentas estén activas
         if (cuentaOrigen.getEstado() != Cuenta.EstadoCuenta.ACTIVA) {
@@ -138,9 +200,18 @@ public class TransaccionService {
             );
         }
 
+        // Calcular el GMF (4x1000) de la cuenta origen y validar que el saldo lo cubra
+        BigDecimal gmf = gmfService.calcularGMF(cuentaOrigen, monto);
+        validarSaldoParaGMF(cuentaOrigen, monto, gmf);
+
+        // Control de velocidad (fraude) antes de mover el dinero
+        velocidadService.verificarYRegistrar(cuentaOrigenId, TipoTransaccion.TRANSFERENCIA_ENVIADA, monto);
+
         // Realizar la transferencia
         cuentaOrigen.disminuirSaldo(monto);
         cuentaDestino.aumentarSaldo(monto);
+        BigDecimal saldoPosteriorOrigen = cuentaOrigen.getSaldo();
+        Transaccion transaccionGMF = crearTransaccionGMF(cuentaOrigen, gmf);
 
         cuentaRepository.save(cuentaOrigen);
         cuentaRepository.save(cuentaDestino);
@@ -153,7 +224,7 @@ public class TransaccionService {
                 : "Transferencia a cuenta " + cuentaDestino.getNumeroCuenta());
         transaccionEnvio.setCuentaOrigen(cuentaOrigen);
         transaccionEnvio.setCuentaDestino(cuentaDestino);
-        transaccionEnvio.setSaldoPosterior(cuentaOrigen.getSaldo());
+        transaccionEnvio.setSaldoPosterior(saldoPosteriorOrigen);
 
         // Crear transacción de recepción
         Transaccion transaccionRecepcion = new Transaccion();
@@ -163,36 +234,175 @@ public class TransaccionService {
                 : "Transferencia desde cuenta " + cuentaOrigen.getNumeroCuenta());
         transaccionRecepcion.setCuentaOrigen(cuentaDestino);
         transaccionRecepcion.setCuentaDestino(cuentaOrigen);
-        transaccionRecepcion.setSaldoPosterior(cuentaDestino.getSaldo());
+        // En una cuenta destino caliente getSaldo() incluye las ranuras leídas
+        // al cargarla, y un abono concurrente en ranura lo deja atrasado: como
+        // en la consignación, el saldo posterior queda sin registrar
+        transaccionRecepcion.setSaldoPosterior(subsaldoCuentaService.esCaliente(cuentaDestinoId)
+                ? null : cuentaDestino.getSaldo());
 
         // Guardar ambas transacciones
-        Transaccion envioGuardada = transaccionRepository.save(transaccionEnvio);
-        Transaccion recepcionGuardada = transaccionRepository.save(transaccionRecepcion);
+        Transaccion envioGuardada = guardarTransaccion(transaccionEnvio);
+        Transaccion recepcionGuardada = guardarTransaccion(transaccionRecepcion);
 
-        return List.of(envioGuardada, recepcionGuardada);
+        if (transaccionGMF == null) {
+            return List.of(envioGuardada, recepcionGuardada);
+        }
+        List<Transaccion> resultado = new ArrayList<>(List.of(envioGuardada, recepcionGuardada));
+        resultado.add(guardarTransaccion(transaccionGMF));
+        return resultado;
+    }
+
+    /**
+     * Busca la cuenta a mover: con bloqueo de fila en modo pesimista, sin
+     * bloqueo en modo optimista (el conflicto lo detecta la versión al guardar)
+     */
+    private Optional<Cuenta> buscarCuenta(Long cuentaId) {
+        return concurrenciaCuentaService.esPesimista()
+                ? cuentaRepository.findByIdParaActualizar(cuentaId)
+                : cuentaRepository.findById(cuentaId);
+    }
+
+    private Cuenta buscarCuentaOrigen(Long cuentaOrigenId) {
+        consolidarSiEsCaliente(cuentaOrigenId);
+        return buscarCuenta(cuentaOrigenId)
+                .orElseThrow(() -> new IllegalArgumentException("Cuenta origen no encontrada con ID: " + cuentaOrigenId));
+    }
+
+    private Cuenta buscarCuentaDestino(Long cuentaDestinoId) {
+        return buscarCuenta(cuentaDestinoId)
+                .orElseThrow(() -> new IllegalArgumentException("Cuenta destino no encontrada con ID: " + cuentaDestinoId));
+    }
+
+    /**
+     * Antes de debitar una cuenta caliente se suman sus ranuras a la cuenta,
+     * así el saldo a validar y el saldo posterior quedan completos. Debe
+     * llamarse antes de cargar la cuenta.
+     */
+    private void consolidarSiEsCaliente(Long cuentaId) {
+        if (subsaldoCuentaService.esCaliente(cuentaId)) {
+            subsaldoCuentaService.consolidar(cuentaId);
+        }
+    }
+
+    /**
+     * Guarda la transacción y registra su evento en el outbox (misma
+     * transacción de base de datos). El ranking de cuentas la toma al confirmar.
+     */
+    private Transaccion guardarTransaccion(Transaccion transaccion) {
+        Transaccion guardada = transaccionRepository.save(transaccion);
+        outboxService.registrarTransaccion(guardada);
+        rankingCuentasService.registrarAlConfirmar(guardada);
+        return guardada;
+    }
+
+    /**
+     * Valida que el saldo cubra el débito más el GMF
+     */
+    private void validarSaldoParaGMF(Cuenta cuenta, BigDecimal monto, BigDecimal gmf) {
+        if (gmf.compareTo(BigDecimal.ZERO) > 0 && cuenta.getSaldo().compareTo(monto.add(gmf)) < 0) {
+            throw new IllegalArgumentException(
+                    "Saldo insuficiente para cubrir el GMF (4x1000). Saldo disponible: $" + cuenta.getSaldo()
+                    + ", Monto solicitado: $" + monto + ", GMF: $" + gmf
+            );
+        }
+    }
+
+    /**
+     * Descuenta el GMF de la cuenta y crea su transacción (null si no aplica).
+     * Debe llamarse después de descontar el monto del débito.
+     */
+    private Transaccion crearTransaccionGMF(Cuenta cuenta, BigDecimal gmf) {
+        if (gmf.compareTo(BigDecimal.ZERO) <= 0) {
+            return null;
+        }
+
+        cuenta.disminuirSaldo(gmf);
+
+        Transaccion transaccionGMF = new Transaccion();
+        transaccionGMF.setTipoTransaccion(TipoTransaccion.GMF);
+        transaccionGMF.setMonto(gmf);
+        transaccionGMF.setDescripcion("GMF 4x1000");
+        transaccionGMF.setCuentaOrigen(cuenta);
+        transaccionGMF.setSaldoPosterior(cuenta.getSaldo());
+        return transaccionGMF;
     }
 
     /**
      * Obtener el historial de transacciones de una cuenta
      */
+    @Transactional(readOnly = true)
     public List<Transaccion> obtenerHistorialCuenta(Long cuentaId) {
+        return obtenerHistorialCuenta(cuentaId, null, null);
+    }
+
+    /**
+     * Obtener el historial de una cuenta entre dos fechas (opcionales). Si el
+     * rango incluye meses archivados, combina la BD con el almacenamiento frío.
+     */
+    @Transactional(readOnly = true)
+    public List<Transaccion> obtenerHistorialCuenta(Long cuentaId, LocalDateTime desde, LocalDateTime hasta) {
         // Validar que la cuenta existe
         if (!cuentaRepository.existsById(cuentaId)) {
             throw new IllegalArgumentException("Cuenta no encontrada con ID: " + cuentaId);
         }
-        return transaccionRepository.findAllByCuentaId(cuentaId);
+
+        LocalDateTime inicio = desde != null ? desde : FECHA_MINIMA;
+        LocalDateTime fin = hasta != null ? hasta : FECHA_MAXIMA;
+        if (inicio.isAfter(fin)) {
+            throw new IllegalArgumentException("La fecha inicial no puede ser posterior a la fecha final");
+        }
+
+        List<Transaccion> enLinea = desde == null && hasta == null
+                ? transaccionRepository.findAllByCuentaId(cuentaId)
+                : transaccionRepository.findAllByCuentaIdAndFechaBetween(cuentaId, inicio, fin);
+
+        if (!archivoTransaccionService.hayArchivadosAntesDe(inicio)) {
+            return enLinea;
+        }
+
+        // Un mes a medio borrar puede estar en ambos lados: se deduplica por ID
+        Map<Long, Transaccion> combinadas = new LinkedHashMap<>();
+        enLinea.forEach(t -> combinadas.put(t.getId(), t));
+        archivoTransaccionService.buscarArchivadas(cuentaId, inicio, fin)
+                .forEach(t -> combinadas.putIfAbsent(t.getId(), t));
+
+        List<Transaccion> historial = new ArrayList<>(combinadas.values());
+        historial.sort(Comparator.comparing(Transaccion::getFechaTransaccion).reversed());
+        return historial;
     }
 
     /**
-     * Obtener todas las transacciones
+     * Listar transacciones por página, filtrando por tipo, rango de fechas y
+     * rango de monto (filtros opcionales). Solo consulta las transacciones en
+     * línea: un rango que llega a meses archivados se rechaza (paginar todos
+     * los archivos mensuales no es viable) y las archivadas se ven en el
+     * historial de cada cuenta. Con contar=false no se ejecuta el SELECT
+     * COUNT(*).
      */
-    public List<Transaccion> obtenerTodasLasTransacciones() {
-        return transaccionRepository.findAll();
+    @Transactional(readOnly = true)
+    public Slice<Transaccion> listarTransacciones(TipoTransaccion tipo, LocalDateTime desde, LocalDateTime hasta,
+                                                  BigDecimal montoMinimo, BigDecimal montoMaximo,
+                                                  Pageable pagina, boolean contar) {
+        if (desde != null && hasta != null && desde.isAfter(hasta)) {
+            throw new IllegalArgumentException("La fecha inicial no puede ser posterior a la fecha final");
+        }
+        if (montoMinimo != null && montoMaximo != null && montoMinimo.compareTo(montoMaximo) > 0) {
+            throw new IllegalArgumentException("El monto mínimo no puede ser mayor que el monto máximo");
+        }
+        if (desde != null && archivoTransaccionService.hayArchivadosAntesDe(desde)
+                || hasta != null && archivoTransaccionService.hayArchivadosAntesDe(hasta)) {
+            throw new IllegalArgumentException("El rango incluye meses archivados: el listado solo tiene las "
+                    + "transacciones desde el " + archivoTransaccionService.inicioDatosEnLinea().toLocalDate()
+                    + ". Las anteriores se consultan en el historial de cada cuenta");
+        }
+        return EspecificacionesListado.listar(transaccionRepository,
+                EspecificacionesListado.transacciones(tipo, desde, hasta, montoMinimo, montoMaximo), pagina, contar);
     }
 
     /**
      * Obtener una transacción por ID
      */
+    @Transactional(readOnly = true)
     public Transaccion obtenerTransaccionPorId(Long id) {
         return transaccionRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Transacción no encontrada con ID: " + id));
@@ -0,0 +1,278 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.Transaccion.TipoTransaccion;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Servicio de Control de Velocidad (fraude) Bloquea patrones como "más de 10
+ * retiros o más de X pesos en 5 minutos" por cuenta, sin consultar la tabla
+ * transacciones.
+ *
+ * Cada cuenta tiene un buffer circular por regla con una ranura por fracción
+ * de la ventana. Cada ranura es un long: 16 bits de cantidad y 48 bits de
+ * monto en centavos. Las cuentas sin movimientos en la ventana se desalojan.
+ *
+ * El desalojo saca la ventana del mapa y la marca desalojada sin soltar su
+ * lock; quien la tomó del mapa justo antes la ve marcada al bloquearla y
+ * vuelve a buscar la de la cuenta, así ningún registro cae en una ventana
+ * huérfana.
+ */
+@Service
+public class VelocidadService {
+
+    private static final Logger log = LoggerFactory.getLogger(VelocidadService.class);
+
+    private static final int BITS_MONTO = 48;
+    private static final long MASCARA_MONTO = (1L << BITS_MONTO) - 1;
+
+    @Value("${banking.velocidad.ventana-segundos:300}")
+    private int ventanaSegundos;
+
+    // Ranuras por ventana (precisión del deslizamiento)
+    @Value("${banking.velocidad.ranuras:10}")
+    private int ranuras;
+
+    @Value("${banking.velocidad.max-cuentas:1000000}")
+    private int maxCuentas;
+
+    @Value("${banking.velocidad.retiro.max-operaciones:10}")
+    private int retiroMaxOperaciones;
+
+    @Value("${banking.velocidad.retiro.max-monto:5000000}")
+    private BigDecimal retiroMaxMonto;
+
+    @Value("${banking.velocidad.transferencia.max-operaciones:10}")
+    private int transferenciaMaxOperaciones;
+
+    @Value("${banking.velocidad.transferencia.max-monto:20000000}")
+    private BigDecimal transferenciaMaxMonto;
+
+    private final Map<TipoTransaccion, Regla> reglas = new EnumMap<>(TipoTransaccion.class);
+    private final ConcurrentHashMap<Long, VentanaCuenta> ventanas = new ConcurrentHashMap<>();
+    private final AtomicLong bloqueos = new AtomicLong();
+
+    private long duracionRanuraMs;
+    private String ventanaTexto;
+    private LongSupplier reloj = System::currentTimeMillis;
+
+    /**
+     * Regla de velocidad de un tipo de transacción
+     */
+    private record Regla(int indice, String nombre, int maxOperaciones, long maxCentavos) {
+    }
+
+    /**
+     * Métricas del control de velocidad
+     */
+    public record MetricasVelocidad(int cuentasActivas, long bytesEstimados, long bloqueos) {
+    }
+
+    /**
+     * Buffers circulares de una cuenta (uno por regla, en un solo arreglo)
+     */
+    private static class VentanaCuenta {
+
+        final long[] ranuras;
+        final long[] ultimaRanura;
+        final int tamano;
+
+        // Ya no está en el mapa (se lee y escribe con el lock de la ventana)
+        boolean desalojada;
+
+        VentanaCuenta(int cantidadReglas, int tamano) {
+            this.ranuras = new long[cantidadReglas * tamano];
+            this.ultimaRanura = new long[cantidadReglas];
+            this.tamano = tamano;
+        }
+
+        /**
+         * Limpia las ranuras que salieron de la ventana y suma las vigentes
+         */
+        long sumar(int regla, long ranura) {
+            avanzar(regla, ranura);
+            long total = 0;
+            int base = regla * tamano;
+            for (int i = 0; i < tamano; i++) {
+                total += ranuras[base + i];
+            }
+            return total;
+        }
+
+        void registrar(int regla, long ranura, long valor) {
+            ranuras[regla * tamano + (int) (ranura % tamano)] += valor;
+        }
+
+        void revertir(int regla, long ranura, long valor) {
+            if (ranura > ultimaRanura[regla] - tamano) {
+                ranuras[regla * tamano + (int) (ranura % tamano)] -= valor;
+            }
+        }
+
+        boolean inactiva(long ranuraActual) {
+            for (long ultima : ultimaRanura) {
+                if (ultima > ranuraActual - tamano) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void avanzar(int regla, long ranura) {
+            long ultima = ultimaRanura[regla];
+            if (ranura <= ultima) {
+                return;
+            }
+            long limpiar = Math.min(ranura - ultima, tamano);
+            int base = regla * tamano;
+            for (long r = ranura - limpiar + 1; r <= ranura; r++) {
+                ranuras[base + (int) (r % tamano)] = 0;
+            }
+            ultimaRanura[regla] = ranura;
+        }
+    }
+
+    @PostConstruct
+    public void inicializar() {
+        reglas.put(TipoTransaccion.RETIRO,
+                new Regla(0, "retiros", retiroMaxOperaciones, aCentavos(retiroMaxMonto)));
+        reglas.put(TipoTransaccion.TRANSFERENCIA_ENVIADA,
+                new Regla(1, "transferencias", transferenciaMaxOperaciones, aCentavos(transferenciaMaxMonto)));
+        duracionRanuraMs = Math.max(1, ventanaSegundos * 1000L / ranuras);
+        ventanaTexto = describirVentana(ventanaSegundos);
+    }
+
+    /**
+     * Ventana para los mensajes: en minutos si es exacta, si no en segundos
+     */
+    static String describirVentana(int segundos) {
+        if (segundos % 60 == 0) {
+            int minutos = segundos / 60;
+            return minutos + (minutos == 1 ? " minuto" : " minutos");
+        }
+        return segundos + (segundos == 1 ? " segundo" : " segundos");
+    }
+
+    /**
+     * Verifica las reglas de velocidad de la cuenta y, si pasa, registra la
+     * operación. Si la transacción que la llama hace rollback, la operación se
+     * descuenta de la ventana.
+     *
+     * @throws FraudeSospechosoException si se supera alguna regla
+     */
+    public void verificarYRegistrar(Long cuentaId, TipoTransaccion tipo, BigDecimal monto) {
+        Regla regla = reglas.get(tipo);
+        if (regla == null) {
+            return;
+        }
+        long ranura = reloj.getAsLong() / duracionRanuraMs;
+        long centavos = aCentavos(monto);
+        long valor = (1L << BITS_MONTO) + centavos;
+
+        while (true) {
+            VentanaCuenta ventana = ventanas.get(cuentaId);
+            if (ventana == null) {
+                if (ventanas.size() >= maxCuentas) {
+                    desalojarInactivas();
+                }
+                ventana = ventanas.computeIfAbsent(cuentaId, id -> new VentanaCuenta(reglas.size(), ranuras));
+            }
+            if (registrar(ventana, regla, ranura, centavos, valor)) {
+                revertirSiHayRollback(ventana, regla.indice(), ranura, valor);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Verifica y registra en la ventana bloqueada
+     *
+     * @return false si la ventana se desalojó antes de bloquearla
+     */
+    private boolean registrar(VentanaCuenta ventana, Regla regla, long ranura, long centavos, long valor) {
+        synchronized (ventana) {
+            if (ventana.desalojada) {
+                return false;
+            }
+            long total = ventana.sumar(regla.indice(), ranura);
+            long operaciones = total >>> BITS_MONTO;
+            long acumulado = total & MASCARA_MONTO;
+
+            if (operaciones + 1 > regla.maxOperaciones()) {
+                bloqueos.incrementAndGet();
+                throw new FraudeSospechosoException("Operación bloqueada por control de fraude: más de "
+                        + regla.maxOperaciones() + " " + regla.nombre() + " en " + ventanaTexto);
+            }
+            if (acumulado + centavos > regla.maxCentavos()) {
+                bloqueos.incrementAndGet();
+                throw new FraudeSospechosoException("Operación bloqueada por control de fraude: el total de "
+                        + regla.nombre() + " supera $" + BigDecimal.valueOf(regla.maxCentavos(), 2)
+                        + " en " + ventanaTexto);
+            }
+            ventana.registrar(regla.indice(), ranura, valor);
+            return true;
+        }
+    }
+
+    /**
+     * Desaloja las cuentas sin operaciones dentro de la ventana
+     */
+    @Scheduled(fixedDelayString = "${banking.velocidad.intervalo-desalojo-ms:60000}")
+    public void desalojarInactivas() {
+        long ranuraActual = reloj.getAsLong() / duracionRanuraMs;
+        int antes = ventanas.size();
+        ventanas.forEach((cuentaId, v) -> {
+            synchronized (v) {
+                if (v.inactiva(ranuraActual) && ventanas.remove(cuentaId, v)) {
+                    v.desalojada = true;
+                }
+            }
+        });
+        if (antes > 0) {
+            MetricasVelocidad metricas = obtenerMetricas();
+            log.debug("Control de velocidad: {} cuentas desalojadas, {} activas (~{} bytes)",
+                    antes - metricas.cuentasActivas(), metricas.cuentasActivas(), metricas.bytesEstimados());
+        }
+    }
+
+    public MetricasVelocidad obtenerMetricas() {
+        int cuentas = ventanas.size();
+        // Nodo del mapa + Long + objeto + dos arreglos (estimado, JVM de 64 bits)
+        long porCuenta = 48 + 16 + 24 + (16 + 8L * reglas.size() * ranuras) + (16 + 8L * reglas.size());
+        return new MetricasVelocidad(cuentas, cuentas * porCuenta, bloqueos.get());
+    }
+
+    private void revertirSiHayRollback(VentanaCuenta ventana, int regla, long ranura, long valor) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    synchronized (ventana) {
+                        ventana.revertir(regla, ranura, valor);
+                    }
+                }
+            }
+        });
+    }
+
+    private long aCentavos(BigDecimal monto) {
+        return monto.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,198 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.Cuenta;
+import com.banking.system.entity.Cuenta.EstadoCuenta;
+import com.banking.system.entity.EventoOutbox;
+import com.banking.system.entity.EventoOutbox.EstadoEvento;
+import com.banking.system.entity.EventoOutbox.TipoEvento;
+import com.banking.system.entity.Transaccion.TipoTransaccion;
+import com.banking.system.entity.VistaCuenta;
+import com.banking.system.entity.VistaCuenta.MovimientoVista;
+import com.banking.system.repository.CuentaRepository;
+import com.banking.system.repository.EventoOutboxRepository;
+import com.banking.system.repository.VistaCuentaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servicio del Modelo de Lectura de Cuentas (CQRS) Proyecta los eventos del
+ * outbox sobre vistas_cuenta. Cada evento se aplica en la transacción propia
+ * que abre el despachador para el listener; si el lote no llega a confirmar,
+ * el evento se entrega de nuevo y la vista lo reconoce por su ID.
+ *
+ * Las transacciones ya sumadas se anotan en eventos_aplicados_vista. No basta
+ * con el último ID aplicado de la cuenta: los hilos del despachador y los
+ * abonos en ranuras confirman fuera de orden, y un evento atrasado todavía se
+ * debe sumar. La anotación se borra cuando el evento sale del outbox, que ya
+ * no lo puede volver a entregar.
+ *
+ * Las consultas solo leen vistas_cuenta y nunca compiten por bloqueos con las
+ * tablas cuentas y transacciones.
+ */
+@Service
+@Transactional
+public class VistaCuentaService implements OutboxListener {
+
+    private static final Logger log = LoggerFactory.getLogger(VistaCuentaService.class);
+
+    private static final String SQL_YA_APLICADO =
+            "SELECT COUNT(*) FROM eventos_aplicados_vista WHERE evento_id = ?";
+
+    private static final String SQL_REGISTRAR_APLICADO =
+            "INSERT INTO eventos_aplicados_vista (evento_id, cuenta_id, fecha_aplicacion) VALUES (?, ?, ?)";
+
+    private static final String SQL_PURGAR_APLICADOS =
+            "DELETE FROM eventos_aplicados_vista a "
+            + "WHERE NOT EXISTS (SELECT 1 FROM eventos_outbox e WHERE e.id = a.evento_id)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private VistaCuentaRepository vistaCuentaRepository;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private EventoOutboxRepository eventoOutboxRepository;
+
+    // Cantidad de movimientos recientes que guarda cada vista
+    @Value("${banking.vistas.movimientos:10}")
+    private int maximoMovimientos;
+
+    private final AtomicLong ultimoEventoAplicado = new AtomicLong();
+    private final AtomicLong retrasoUltimoMs = new AtomicLong();
+    private final AtomicLong eventosAplicados = new AtomicLong();
+
+    /**
+     * Retraso de réplica del modelo de lectura
+     */
+    public record RetrasoVistas(long ultimoEventoAplicado, long eventosAplicados, long retrasoUltimoMs,
+            long eventosPendientes, long retrasoPendienteMs) {
+    }
+
+    @Override
+    public void alPublicar(EventoOutbox evento) {
+        VistaCuenta vista = vistaCuentaRepository.findParaActualizar(evento.getCuentaId())
+                .orElseGet(() -> new VistaCuenta(evento.getCuentaId()));
+        boolean esNuevo = vista.getUltimoEventoId() == null || evento.getId() > vista.getUltimoEventoId();
+
+        if (vista.getNumeroCuenta() == null || evento.getTipoEvento() != TipoEvento.TRANSACCION_REGISTRADA) {
+            copiarDatosCuenta(vista, evento);
+        }
+
+        if (evento.getTipoEvento() == TipoEvento.TRANSACCION_REGISTRADA) {
+            Integer aplicados = jdbcTemplate.queryForObject(SQL_YA_APLICADO, Integer.class, evento.getId());
+            if (aplicados != null && aplicados > 0) {
+                return;
+            }
+            // La llave primaria también rechaza la segunda entrega si dos hilos
+            // crean a la vez la vista de una cuenta nueva
+            jdbcTemplate.update(SQL_REGISTRAR_APLICADO, evento.getId(), evento.getCuentaId(),
+                    Timestamp.valueOf(LocalDateTime.now()));
+            TipoTransaccion tipo = TipoTransaccion.valueOf(evento.getDetalle());
+            MovimientoVista movimiento = new MovimientoVista(evento.getId(), evento.getTransaccionId(),
+                    tipo.name(), evento.getMonto(), evento.getSaldo(), evento.getFechaCreacion());
+            int periodo = evento.getFechaCreacion().getYear() * 100 + evento.getFechaCreacion().getMonthValue();
+            vista.registrarMovimiento(movimiento, tipo.esCredito(), periodo, maximoMovimientos);
+        }
+
+        // El saldo y el estado solo los fija el evento más reciente. Los abonos
+        // en ranuras de una cuenta caliente no traen saldo: se toma el actual
+        // de la cuenta (fila más ranuras)
+        if (esNuevo) {
+            BigDecimal saldo = evento.getSaldo() != null ? evento.getSaldo() : saldoActual(evento.getCuentaId());
+            if (saldo != null) {
+                vista.setSaldo(saldo);
+            }
+            if (evento.getTipoEvento() == TipoEvento.CUENTA_ESTADO_CAMBIADO) {
+                vista.setEstado(EstadoCuenta.valueOf(evento.getDetalle()));
+            }
+            vista.setUltimoEventoId(evento.getId());
+            vista.setFechaUltimoEvento(evento.getFechaCreacion());
+        }
+
+        LocalDateTime ahora = LocalDateTime.now();
+        vista.setFechaActualizacion(ahora);
+        vistaCuentaRepository.save(vista);
+
+        eventosAplicados.incrementAndGet();
+        ultimoEventoAplicado.accumulateAndGet(evento.getId(), Math::max);
+        retrasoUltimoMs.set(Duration.between(evento.getFechaCreacion(), ahora).toMillis());
+    }
+
+    /**
+     * Borra las anotaciones de eventos que ya no están en el outbox. Corre
+     * después de la purga del outbox
+     */
+    @Scheduled(cron = "${banking.vistas.cron-purga:0 30 4 * * *}")
+    public int purgarEventosAplicados() {
+        int borrados = jdbcTemplate.update(SQL_PURGAR_APLICADOS);
+        log.info("Vistas: {} eventos aplicados purgados", borrados);
+        return borrados;
+    }
+
+    /**
+     * Vista de una cuenta
+     */
+    @Transactional(readOnly = true)
+    public VistaCuenta obtenerVista(Long cuentaId) {
+        return vistaCuentaRepository.findById(cuentaId)
+                .orElseThrow(() -> new IllegalArgumentException("No hay vista para la cuenta con ID: " + cuentaId));
+    }
+
+    /**
+     * Vistas de las cuentas de un cliente
+     */
+    @Transactional(readOnly = true)
+    public List<VistaCuenta> obtenerVistasPorCliente(Long clienteId) {
+        return vistaCuentaRepository.findByClienteIdOrderByCuentaIdAsc(clienteId);
+    }
+
+    /**
+     * Retraso del modelo de lectura respecto a las escrituras confirmadas
+     */
+    @Transactional(readOnly = true)
+    public RetrasoVistas obtenerRetraso() {
+        long pendientes = eventoOutboxRepository.countByEstado(EstadoEvento.PENDIENTE);
+        LocalDateTime masAntiguo = eventoOutboxRepository.findFechaCreacionMasAntiguaByEstado(EstadoEvento.PENDIENTE);
+        long retrasoPendienteMs = masAntiguo != null ? Duration.between(masAntiguo, LocalDateTime.now()).toMillis() : 0;
+
+        return new RetrasoVistas(ultimoEventoAplicado.get(), eventosAplicados.get(), retrasoUltimoMs.get(),
+                pendientes, retrasoPendienteMs);
+    }
+
+    private BigDecimal saldoActual(Long cuentaId) {
+        return cuentaRepository.findById(cuentaId).map(Cuenta::getSaldo).orElse(null);
+    }
+
+    /**
+     * Copia los datos de la cuenta y el nombre del cliente (alta, cambio de
+     * estado o cuenta que aún no tenía vista)
+     */
+    private void copiarDatosCuenta(VistaCuenta vista, EventoOutbox evento) {
+        cuentaRepository.findById(evento.getCuentaId()).ifPresent((Cuenta cuenta) -> {
+            vista.setNumeroCuenta(cuenta.getNumeroCuenta());
+            vista.setTipoCuenta(cuenta.getTipoCuenta());
+            if (vista.getEstado() == null) {
+                vista.setEstado(cuenta.getEstado());
+            }
+            vista.setClienteId(cuenta.getCliente().getId());
+            vista.setNombreCliente(cuenta.getCliente().getNombres() + " " + cuenta.getCliente().getApellido());
+        });
+    }
+}
@@ -0,0 +1,177 @@
+package com.banking.system.config;
+
+import com.banking.system.BankingSystem;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * La aplicación levantada en un proceso aparte (JVM o binario nativo) con H2
+ * en memoria, para las mediciones de arranque y las pruebas contra el binario
+ */
+final class AplicacionEnProceso implements AutoCloseable {
+
+    private static final Duration TIEMPO_MAXIMO = Duration.ofSeconds(120);
+
+    private static final HttpClient HTTP = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+
+    private final Process proceso;
+    private final int puerto;
+    private final File log;
+    private final long inicioNanos;
+
+    private AplicacionEnProceso(List<String> comando, int puerto, File log) throws IOException {
+        this.puerto = puerto;
+        this.log = log;
+        this.inicioNanos = System.nanoTime();
+        this.proceso = new ProcessBuilder(comando).redirectErrorStream(true).redirectOutput(log).start();
+    }
+
+    /**
+     * Levanta la aplicación en una JVM con el classpath dado
+     */
+    static AplicacionEnProceso iniciarJvm(String classpath, List<String> opcionesJvm, List<String> argumentos,
+            File log) throws IOException {
+        int puerto = puertoLibre();
+        return new AplicacionEnProceso(comandoJvm(classpath, opcionesJvm, argumentos, puerto), puerto, log);
+    }
+
+    /**
+     * Levanta el binario nativo
+     */
+    static AplicacionEnProceso iniciarBinario(Path binario, List<String> argumentos, File log) throws IOException {
+        int puerto = puertoLibre();
+        List<String> comando = new ArrayList<>();
+        comando.add(binario.toAbsolutePath().toString());
+        comando.addAll(argumentos);
+        comando.addAll(argumentosH2(puerto));
+        return new AplicacionEnProceso(comando, puerto, log);
+    }
+
+    static List<String> comandoJvm(String classpath, List<String> opcionesJvm, List<String> argumentos, int puerto) {
+        List<String> comando = new ArrayList<>();
+        comando.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        comando.addAll(opcionesJvm);
+        comando.add("-cp");
+        comando.add(classpath);
+        comando.add(BankingSystem.class.getName());
+        comando.addAll(argumentos);
+        comando.addAll(argumentosH2(puerto));
+        return comando;
+    }
+
+    private static List<String> argumentosH2(int puerto) {
+        return List.of(
+                "--server.port=" + puerto,
+                "--spring.datasource.url=jdbc:h2:mem:proceso;DB_CLOSE_DELAY=-1;MODE=MySQL",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false");
+    }
+
+    /**
+     * Espera la primera respuesta 200 de GET /api/clientes
+     *
+     * @return milisegundos desde que se lanzó el proceso
+     */
+    long esperarPrimeraRespuesta() throws InterruptedException {
+        HttpRequest solicitud = HttpRequest.newBuilder(uri("/api/clientes")).timeout(Duration.ofSeconds(5)).GET().build();
+        while (true) {
+            assertTrue(proceso.isAlive(), "La aplicación terminó al arrancar, ver " + log);
+            assertTrue(System.nanoTime() - inicioNanos < TIEMPO_MAXIMO.toNanos(), "La aplicación no respondió, ver " + log);
+            try {
+                if (HTTP.send(solicitud, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return (System.nanoTime() - inicioNanos) / 1_000_000;
+                }
+            } catch (IOException e) {
+                // Todavía no escucha en el puerto
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    /**
+     * Memoria residente del proceso en MB (-1 fuera de Linux)
+     */
+    long rssMb() throws IOException {
+        Path estado = Path.of("/proc", String.valueOf(proceso.pid()), "status");
+        if (!Files.exists(estado)) {
+            return -1;
+        }
+        return Files.readAllLines(estado).stream()
+                .filter(linea -> linea.startsWith("VmRSS:"))
+                .map(linea -> Long.parseLong(linea.replaceAll("\\D", "")) / 1024)
+                .findFirst()
+                .orElse(-1L);
+    }
+
+    URI uri(String ruta) {
+        return URI.create("http://localhost:" + puerto + ruta);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        proceso.destroy();
+        proceso.waitFor();
+    }
+
+    /**
+     * Classpath de las pruebas sin directorios: target/classes va empaquetado
+     * en un jar (CDS no archiva clases de directorios) y target/test-classes
+     * no hace falta
+     */
+    static String classpathEnJars(Path directorio) throws IOException {
+        String original = System.getProperty("surefire.test.class.path", System.getProperty("java.class.path"));
+        List<String> entradas = new ArrayList<>();
+        for (String entrada : original.split(File.pathSeparator)) {
+            Path ruta = Path.of(entrada);
+            if (Files.isDirectory(ruta) && ruta.endsWith(Path.of("target", "classes"))) {
+                entradas.add(0, empaquetar(ruta, directorio.resolve("banking-system-clases.jar")).toString());
+            } else if (Files.isRegularFile(ruta) && entrada.endsWith(".jar")) {
+                entradas.add(entrada);
+            }
+        }
+        return String.join(File.pathSeparator, entradas);
+    }
+
+    static int puertoLibre() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static Path empaquetar(Path clases, Path jar) throws IOException {
+        try (OutputStream salida = Files.newOutputStream(jar);
+                JarOutputStream contenido = new JarOutputStream(salida);
+                Stream<Path> archivos = Files.walk(clases)) {
+            // También los directorios: el escaneo de componentes los busca como recursos
+            for (Path archivo : archivos.filter(ruta -> !ruta.equals(clases)).sorted().toList()) {
+                String nombre = clases.relativize(archivo).toString().replace(File.separatorChar, '/');
+                boolean esDirectorio = Files.isDirectory(archivo);
+                contenido.putNextEntry(new JarEntry(esDirectorio ? nombre + "/" : nombre));
+                if (!esDirectorio) {
+                    Files.copy(archivo, contenido);
+                }
+                contenido.closeEntry();
+            }
+        }
+        return jar.toAbsolutePath();
+    }
+}
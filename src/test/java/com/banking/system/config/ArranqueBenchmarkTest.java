@@ -0,0 +1,101 @@
+package com.banking.system.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Medición de arranque. Levanta la aplicación en JVMs separadas (H2 en
+ * memoria) con cada configuración y reporta el tiempo hasta la primera
+ * respuesta exitosa (GET /api/clientes) y la memoria residente (RSS) en ese
+ * momento. Solo corre con el perfil Maven arranque-rapido, en la fase
+ * integration-test, cuando las clases AOT ya están generadas.
+ *
+ * El archivo CDS se entrena con un arranque que termina al refrescar el
+ * contexto (spring.context.exit=onRefresh) y se usa en la siguiente
+ * configuración. CDS no archiva clases de directorios, por eso target/classes
+ * se empaqueta en un jar.
+ */
+@EnabledIfSystemProperty(named = "banking.arranque.medir", matches = "true")
+@DisplayName("Medición de arranque por configuración")
+class ArranqueBenchmarkTest {
+
+    private static final int REPETICIONES = 3;
+    private static final String CLASE_AOT = "com/banking/system/BankingSystem__ApplicationContextInitializer.class";
+
+    private record Configuracion(String nombre, List<String> opcionesJvm, List<String> argumentos) {
+    }
+
+    private record Medicion(long primeraRespuestaMs, long rssMb) {
+    }
+
+    @Test
+    @DisplayName("JVM, perezoso, AOT y AOT + CDS - Todas deben responder")
+    void testMedirArranque() throws Exception {
+        Path directorio = Path.of("target", "arranque");
+        Files.createDirectories(directorio);
+        String classpath = AplicacionEnProceso.classpathEnJars(directorio);
+        Path archivoCds = directorio.resolve("banking.jsa").toAbsolutePath();
+        boolean hayAot = Files.exists(Path.of("target", "classes", CLASE_AOT));
+
+        List<String> perezoso = List.of("--spring.profiles.active=arranque-rapido");
+        List<Configuracion> configuraciones = new ArrayList<>();
+        configuraciones.add(new Configuracion("JVM", List.of(), List.of()));
+        configuraciones.add(new Configuracion("perezoso", List.of(), perezoso));
+        if (hayAot) {
+            configuraciones.add(new Configuracion("AOT + perezoso", List.of("-Dspring.aot.enabled=true"), perezoso));
+            entrenarCds(classpath, archivoCds, perezoso, directorio);
+            configuraciones.add(new Configuracion("AOT + perezoso + CDS",
+                    List.of("-Dspring.aot.enabled=true", "-XX:SharedArchiveFile=" + archivoCds, "-Xshare:auto"), perezoso));
+        } else {
+            System.out.println("Sin clases AOT en target/classes: se omiten las configuraciones AOT (mvn -Parranque-rapido verify)");
+        }
+
+        System.out.printf("%-22s %12s %10s%n", "configuración", "1a resp (ms)", "RSS (MB)");
+        for (Configuracion configuracion : configuraciones) {
+            long[] tiempos = new long[REPETICIONES];
+            long[] rss = new long[REPETICIONES];
+            for (int i = 0; i < REPETICIONES; i++) {
+                Medicion medicion = medir(classpath, configuracion, directorio);
+                tiempos[i] = medicion.primeraRespuestaMs();
+                rss[i] = medicion.rssMb();
+            }
+            System.out.printf("%-22s %12d %10d%n", configuracion.nombre(), mediana(tiempos), mediana(rss));
+        }
+    }
+
+    private Medicion medir(String classpath, Configuracion configuracion, Path directorio) throws Exception {
+        File log = directorio.resolve(configuracion.nombre().replaceAll("[^A-Za-z]+", "-") + ".log").toFile();
+        try (AplicacionEnProceso aplicacion = AplicacionEnProceso.iniciarJvm(classpath, configuracion.opcionesJvm(),
+                configuracion.argumentos(), log)) {
+            long ms = aplicacion.esperarPrimeraRespuesta();
+            return new Medicion(ms, aplicacion.rssMb());
+        }
+    }
+
+    private void entrenarCds(String classpath, Path archivoCds, List<String> argumentos, Path directorio) throws Exception {
+        Files.deleteIfExists(archivoCds);
+        List<String> comando = AplicacionEnProceso.comandoJvm(classpath,
+                List.of("-Dspring.aot.enabled=true", "-XX:ArchiveClassesAtExit=" + archivoCds, "-Dspring.context.exit=onRefresh"),
+                argumentos, AplicacionEnProceso.puertoLibre());
+        Process proceso = new ProcessBuilder(comando).redirectErrorStream(true)
+                .redirectOutput(directorio.resolve("entrenamiento-cds.log").toFile()).start();
+        assertEquals(0, proceso.waitFor(), "Falló el entrenamiento del archivo CDS");
+        assertTrue(Files.exists(archivoCds));
+    }
+
+    private long mediana(long[] valores) {
+        long[] ordenados = valores.clone();
+        Arrays.sort(ordenados);
+        return ordenados[ordenados.length / 2];
+    }
+}
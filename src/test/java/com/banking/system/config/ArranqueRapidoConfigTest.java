@@ -0,0 +1,44 @@
+package com.banking.system.config;
+
+import com.banking.system.controller.CuentaController;
+import com.banking.system.service.CuentaService;
+import com.banking.system.service.DespachoOutboxService;
+import com.banking.system.service.IngestaTcpService;
+import com.banking.system.service.SubsaldoCuentaService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de ArranqueRapidoConfig: qué beans siguen creándose al arrancar con
+ * inicialización perezosa
+ */
+@DisplayName("Tests de ArranqueRapidoConfig")
+class ArranqueRapidoConfigTest {
+
+    private final LazyInitializationExcludeFilter filtro = ArranqueRapidoConfig.excluirBeansDeSegundoPlano();
+
+    @Test
+    @DisplayName("Beans con tareas programadas o inicio en segundo plano - Deben crearse al arrancar")
+    void testExcluirBeansDeSegundoPlano() {
+        assertTrue(excluido(DespachoOutboxService.class));
+        assertTrue(excluido(IngestaTcpService.class));
+        assertTrue(excluido(SubsaldoCuentaService.class));
+    }
+
+    @Test
+    @DisplayName("Controladores, servicios sin tareas y beans de terceros - Deben ser perezosos")
+    void testBeansPerezosos() {
+        assertFalse(excluido(CuentaController.class));
+        assertFalse(excluido(CuentaService.class));
+        assertFalse(excluido(JdbcTemplate.class));
+    }
+
+    private boolean excluido(Class<?> tipo) {
+        return filtro.isExcluded(tipo.getSimpleName(), new RootBeanDefinition(tipo), tipo);
+    }
+}
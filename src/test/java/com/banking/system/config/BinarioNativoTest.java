@@ -0,0 +1,194 @@
+package com.banking.system.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas contra el binario nativo (mvn -Pnative verify). Levanta
+ * target/banking-system con H2 en memoria y recorre el flujo principal por
+ * HTTP: lo que falle aquí y no en la JVM es una pista de reflexión, proxy o
+ * recurso que falta en NativoConfig.
+ *
+ * La comparación levanta el mismo código en la JVM y en el binario y reporta
+ * el tiempo hasta la primera respuesta, la memoria residente (RSS) después de
+ * arrancar y el throughput estable de GET /api/cuentas/{id} tras un
+ * calentamiento, que es donde el JIT de la JVM suele alcanzar o superar al
+ * binario.
+ */
+@EnabledIfSystemProperty(named = "banking.nativo.binario", matches = ".+")
+@DisplayName("Pruebas contra el binario nativo")
+class BinarioNativoTest {
+
+    private static final int HILOS = 4;
+    private static final Duration CALENTAMIENTO = Duration.ofSeconds(10);
+    private static final Duration MEDICION = Duration.ofSeconds(5);
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Path directorio = Path.of("target", "nativo");
+
+    private record Medicion(long primeraRespuestaMs, long rssMb, long solicitudesPorSegundo) {
+    }
+
+    @Test
+    @DisplayName("Cliente, cuenta y consignación - El binario debe responder igual que la JVM")
+    void testFlujoPrincipal() throws Exception {
+        try (AplicacionEnProceso aplicacion = iniciarBinario("flujo")) {
+            aplicacion.esperarPrimeraRespuesta();
+
+            JsonNode cliente = enviar(aplicacion, "/api/clientes", """
+                    {"tipoIdentificacion":"CC","numeroIdentificacion":"900100200","nombres":"Ana",
+                     "apellido":"Gómez","correoElectronico":"ana.gomez@example.com","fechaNacimiento":"1990-01-15"}
+                    """, 201);
+            long clienteId = cliente.get("id").asLong();
+
+            JsonNode cuenta = enviar(aplicacion, "/api/cuentas?clienteId=" + clienteId, """
+                    {"tipoCuenta":"CUENTA_AHORRO","saldo":1000.00,"exentaGMF":false}
+                    """, 201);
+            long cuentaId = cuenta.get("id").asLong();
+            assertEquals("CUENTA_AHORRO", cuenta.get("tipoCuenta").asText());
+
+            enviar(aplicacion, "/api/transacciones/consignacion", """
+                    {"cuentaId":%d,"monto":250.00,"descripcion":"Consignación nativa"}
+                    """.formatted(cuentaId), 201);
+
+            // GET condicional: la huella es una proyección por interfaz (proxy JDK)
+            HttpResponse<String> lectura = http.send(
+                    HttpRequest.newBuilder(aplicacion.uri("/api/cuentas/" + cuentaId)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, lectura.statusCode());
+            assertEquals(0, mapper.readTree(lectura.body()).get("saldo").decimalValue().compareTo(
+                    new BigDecimal("1250.00")));
+            String etag = lectura.headers().firstValue("ETag").orElseThrow();
+            HttpResponse<Void> sinCambios = http.send(
+                    HttpRequest.newBuilder(aplicacion.uri("/api/cuentas/" + cuentaId))
+                            .header("If-None-Match", etag).GET().build(),
+                    HttpResponse.BodyHandlers.discarding());
+            assertEquals(304, sinCambios.statusCode());
+
+            // Formatos binarios de Jackson
+            HttpResponse<byte[]> cbor = http.send(
+                    HttpRequest.newBuilder(aplicacion.uri("/api/cuentas/" + cuentaId))
+                            .header("Accept", "application/cbor").GET().build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            assertEquals(200, cbor.statusCode());
+            assertEquals("application/cbor", cbor.headers().firstValue("Content-Type").orElseThrow());
+
+            // Errores de negocio
+            HttpResponse<String> error = http.send(
+                    HttpRequest.newBuilder(aplicacion.uri("/api/cuentas/999999")).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(404, error.statusCode());
+        }
+    }
+
+    @Test
+    @DisplayName("JVM vs binario nativo - Arranque, RSS y throughput estable")
+    void testCompararConJvm() throws Exception {
+        Files.createDirectories(directorio);
+        String classpath = AplicacionEnProceso.classpathEnJars(directorio);
+
+        Medicion jvm;
+        try (AplicacionEnProceso aplicacion = AplicacionEnProceso.iniciarJvm(classpath, List.of(), List.of(),
+                directorio.resolve("jvm.log").toFile())) {
+            jvm = medir(aplicacion);
+        }
+        Medicion nativo;
+        try (AplicacionEnProceso aplicacion = iniciarBinario("comparacion")) {
+            nativo = medir(aplicacion);
+        }
+
+        System.out.printf("%-8s %12s %14s %12s%n", "build", "1a resp (ms)", "RSS (MB)", "req/s");
+        System.out.printf("%-8s %12d %14d %12d%n", "JVM", jvm.primeraRespuestaMs(), jvm.rssMb(), jvm.solicitudesPorSegundo());
+        System.out.printf("%-8s %12d %14d %12d%n", "nativo", nativo.primeraRespuestaMs(), nativo.rssMb(),
+                nativo.solicitudesPorSegundo());
+        assertTrue(nativo.solicitudesPorSegundo() > 0);
+    }
+
+    private Medicion medir(AplicacionEnProceso aplicacion) throws Exception {
+        long primeraRespuestaMs = aplicacion.esperarPrimeraRespuesta();
+        long rssMb = aplicacion.rssMb();
+
+        long clienteId = enviar(aplicacion, "/api/clientes", """
+                {"tipoIdentificacion":"CC","numeroIdentificacion":"900300400","nombres":"Luis",
+                 "apellido":"Rojas","correoElectronico":"luis.rojas@example.com","fechaNacimiento":"1985-06-30"}
+                """, 201).get("id").asLong();
+        long cuentaId = enviar(aplicacion, "/api/cuentas?clienteId=" + clienteId, """
+                {"tipoCuenta":"CUENTA_CORRIENTE","saldo":500.00,"exentaGMF":false}
+                """, 201).get("id").asLong();
+        HttpRequest lectura = HttpRequest.newBuilder(aplicacion.uri("/api/cuentas/" + cuentaId)).GET().build();
+
+        leerDurante(lectura, CALENTAMIENTO);
+        long solicitudes = leerDurante(lectura, MEDICION);
+        return new Medicion(primeraRespuestaMs, rssMb, solicitudes / MEDICION.toSeconds());
+    }
+
+    /**
+     * Lee en bucle con varios hilos durante el tiempo dado
+     *
+     * @return número de respuestas 200
+     */
+    private long leerDurante(HttpRequest lectura, Duration duracion) throws Exception {
+        long fin = System.nanoTime() + duracion.toNanos();
+        ExecutorService hilos = Executors.newFixedThreadPool(HILOS);
+        try {
+            List<Future<Long>> resultados = new ArrayList<>();
+            for (int i = 0; i < HILOS; i++) {
+                resultados.add(hilos.submit(() -> {
+                    long exitosas = 0;
+                    while (System.nanoTime() < fin) {
+                        if (http.send(lectura, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                            exitosas++;
+                        }
+                    }
+                    return exitosas;
+                }));
+            }
+            long total = 0;
+            for (Future<Long> resultado : resultados) {
+                total += resultado.get();
+            }
+            return total;
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+
+    private JsonNode enviar(AplicacionEnProceso aplicacion, String ruta, String cuerpo, int estadoEsperado)
+            throws Exception {
+        HttpResponse<String> respuesta = http.send(
+                HttpRequest.newBuilder(aplicacion.uri(ruta))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(cuerpo)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(estadoEsperado, respuesta.statusCode(), ruta + ": " + respuesta.body());
+        return mapper.readTree(respuesta.body());
+    }
+
+    private AplicacionEnProceso iniciarBinario(String nombre) throws Exception {
+        Path binario = Path.of(System.getProperty("banking.nativo.binario"));
+        assertTrue(Files.isExecutable(binario), "No existe el binario " + binario + " (mvn -Pnative package)");
+        Files.createDirectories(directorio);
+        File log = directorio.resolve(nombre + ".log").toFile();
+        return AplicacionEnProceso.iniciarBinario(binario, List.of(), log);
+    }
+}
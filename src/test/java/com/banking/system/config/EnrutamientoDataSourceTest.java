@@ -0,0 +1,135 @@
+package com.banking.system.config;
+
+import com.banking.system.config.EnrutadorDataSource.MetricasEnrutamiento;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Test del enrutamiento lectura/escritura con dos bases H2: la primaria y una
+ * réplica que solo se actualiza cuando el test copia la primaria (así se
+ * simula el retraso de replicación).
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:primaria;DB_CLOSE_DELAY=-1;MODE=MySQL",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "banking.datasource.replica.url=" + EnrutamientoDataSourceTest.URL_REPLICA,
+    "banking.datasource.ventana-lectura-propia-ms=60000"
+})
+@AutoConfigureMockMvc
+@DisplayName("Tests del enrutamiento a réplica")
+class EnrutamientoDataSourceTest {
+
+    static final String URL_REPLICA = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1;MODE=MySQL";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EnrutadorDataSource enrutadorDataSource;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Lecturas a la réplica y lectura de las propias escrituras en la primaria")
+    void testEnrutamientoYLecturaPropia() throws Exception {
+        // Arrange: cliente y cuenta creados en la primaria y copiados a la réplica
+        JsonNode cliente = leer(mockMvc.perform(post("/api/clientes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"tipoIdentificacion\":\"CC\",\"numeroIdentificacion\":\"900100\","
+                        + "\"nombres\":\"Ana\",\"apellido\":\"Rojas\",\"correoElectronico\":\"ana@correo.com\","
+                        + "\"fechaNacimiento\":\"1990-01-01\"}"))
+                .andExpect(status().isCreated())
+                .andReturn());
+        JsonNode cuenta = leer(mockMvc.perform(post("/api/cuentas")
+                .param("clienteId", cliente.get("id").asText())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"tipoCuenta\":\"CUENTA_AHORRO\",\"saldo\":1000,\"exentaGMF\":true}"))
+                .andExpect(status().isCreated())
+                .andReturn());
+        long cuentaId = cuenta.get("id").asLong();
+        replicar();
+
+        // Act: lectura sin escrituras recientes
+        MetricasEnrutamiento antes = enrutadorDataSource.obtenerMetricas();
+        JsonNode desdeReplica = leer(mockMvc.perform(get("/api/cuentas/" + cuentaId))
+                .andExpect(status().isOk())
+                .andReturn());
+
+        // Assert
+        assertEquals(0, new BigDecimal("1000").compareTo(desdeReplica.get("saldo").decimalValue()));
+        assertTrue(enrutadorDataSource.obtenerMetricas().conexionesReplica() > antes.conexionesReplica());
+
+        // Act: consignación en la primaria, todavía sin replicar
+        MvcResult consignacion = mockMvc.perform(post("/api/transacciones/consignacion")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"cuentaId\":" + cuentaId + ",\"monto\":500}"))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Cookie escritura = consignacion.getResponse().getCookie(EscrituraRecienteFilter.COOKIE);
+        assertNotNull(escritura);
+
+        JsonNode atrasada = leer(mockMvc.perform(get("/api/cuentas/" + cuentaId))
+                .andExpect(status().isOk())
+                .andReturn());
+        long forzadasAntes = enrutadorDataSource.obtenerMetricas().lecturasForzadasPrimaria();
+        JsonNode propia = leer(mockMvc.perform(get("/api/cuentas/" + cuentaId).cookie(escritura))
+                .andExpect(status().isOk())
+                .andReturn());
+
+        // Assert: sin cookie se ve la réplica atrasada, con cookie la primaria
+        assertEquals(0, new BigDecimal("1000").compareTo(atrasada.get("saldo").decimalValue()));
+        assertEquals(0, new BigDecimal("1500").compareTo(propia.get("saldo").decimalValue()));
+        assertTrue(enrutadorDataSource.obtenerMetricas().lecturasForzadasPrimaria() > forzadasAntes);
+
+        MetricasEnrutamiento metricas = enrutadorDataSource.obtenerMetricas();
+        System.out.printf("Enrutamiento: %d conexiones a la primaria, %d a la réplica (%.1f%% fuera de la primaria)%n",
+                metricas.conexionesPrimaria(), metricas.conexionesReplica(), metricas.porcentajeReplica());
+    }
+
+    /**
+     * Copia el contenido actual de la primaria a la réplica
+     */
+    private void replicar() throws Exception {
+        List<String> script = jdbcTemplate.queryForList("SCRIPT NOPASSWORDS NOSETTINGS", String.class);
+        try (Connection replica = DriverManager.getConnection(URL_REPLICA, "sa", "");
+             Statement sentencia = replica.createStatement()) {
+            sentencia.execute("DROP ALL OBJECTS");
+            for (String linea : script) {
+                if (!linea.startsWith("CREATE USER")) {
+                    sentencia.execute(linea);
+                }
+            }
+        }
+    }
+
+    private JsonNode leer(MvcResult resultado) throws Exception {
+        return objectMapper.readTree(resultado.getResponse().getContentAsString());
+    }
+}
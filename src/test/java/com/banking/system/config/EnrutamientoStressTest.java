@@ -0,0 +1,230 @@
+package com.banking.system.config;
+
+import com.banking.system.config.EnrutadorDataSource.MetricasEnrutamiento;
+import com.banking.system.service.CuentaService;
+import com.banking.system.service.TransaccionService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de carga del enrutamiento lectura/escritura con dos bases H2: la
+ * primaria y una réplica con la copia sembrada. Corre la misma mezcla de
+ * tráfico (9 lecturas por cada consignación) primero con todas las lecturas
+ * forzadas a la primaria, como sin réplica, y luego enrutadas. Reporta en el
+ * log operaciones por segundo, p50/p99 de las lecturas y las sentencias y el
+ * tiempo de ejecución que acumuló la primaria (QUERY_STATISTICS de H2) en
+ * cada fase, es decir, la carga que la réplica le quita.
+ *
+ * Duración configurable con -Dbanking.enrutamiento.carga.segundos.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:primaria-carga;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "banking.datasource.replica.url=" + EnrutamientoStressTest.URL_REPLICA,
+    "banking.outbox.hilos=0"
+})
+@DisplayName("Prueba de carga del enrutamiento a réplica")
+class EnrutamientoStressTest {
+
+    private static final Logger log = LoggerFactory.getLogger(EnrutamientoStressTest.class);
+
+    static final String URL_REPLICA = "jdbc:h2:mem:replica-carga;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000";
+
+    private static final int CUENTAS = 10_000;
+    private static final int CLIENTES = CUENTAS / 3;
+    private static final int TRANSACCIONES = 100_000;
+    private static final int SEGUNDOS = Integer.getInteger("banking.enrutamiento.carga.segundos", 10);
+    private static final int HILOS = 4;
+
+    private static final String SQL_ESTADISTICAS = "SELECT COALESCE(SUM(EXECUTION_COUNT), 0) AS SENTENCIAS, "
+            + "COALESCE(SUM(CUMULATIVE_EXECUTION_TIME), 0) AS MS FROM INFORMATION_SCHEMA.QUERY_STATISTICS";
+
+    @Autowired
+    private CuentaService cuentaService;
+
+    @Autowired
+    private TransaccionService transaccionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EnrutadorDataSource enrutadorDataSource;
+
+    private record Fase(long operaciones, double porSegundo, double p50Ms, double p99Ms, long sentenciasPrimaria,
+            double msPrimaria) {
+    }
+
+    @Test
+    @DisplayName("Misma mezcla sin y con réplica - Carga que sale de la primaria")
+    void testCargaQuitadaALaPrimaria() throws Exception {
+        // Arrange
+        sembrar();
+        replicar();
+        // Fuera de una transacción de solo lectura, jdbcTemplate va a la primaria
+        jdbcTemplate.execute("SET QUERY_STATISTICS_MAX_ENTRIES 10000");
+        jdbcTemplate.execute("SET QUERY_STATISTICS TRUE");
+        long primeraCuenta = jdbcTemplate.queryForObject("SELECT MIN(id) FROM cuentas", Long.class);
+        long primerCliente = jdbcTemplate.queryForObject("SELECT MIN(id) FROM clientes", Long.class);
+
+        // Act
+        Fase sinReplica = correr(primeraCuenta, primerCliente, true);
+        MetricasEnrutamiento antes = enrutadorDataSource.obtenerMetricas();
+        Fase conReplica = correr(primeraCuenta, primerCliente, false);
+        MetricasEnrutamiento despues = enrutadorDataSource.obtenerMetricas();
+
+        // Assert
+        long conexionesReplica = despues.conexionesReplica() - antes.conexionesReplica();
+        long conexionesPrimaria = despues.conexionesPrimaria() - antes.conexionesPrimaria();
+        double sentenciasPorOperacionSin = sinReplica.sentenciasPrimaria() / (double) sinReplica.operaciones();
+        double sentenciasPorOperacionCon = conReplica.sentenciasPrimaria() / (double) conReplica.operaciones();
+        log.info("Enrutamiento sin réplica: {} op/s  lecturas p50={} ms p99={} ms  primaria: {} sentencias/op, "
+                + "{} ms de ejecución por segundo", String.format("%.0f", sinReplica.porSegundo()),
+                String.format("%.2f", sinReplica.p50Ms()), String.format("%.2f", sinReplica.p99Ms()),
+                String.format("%.2f", sentenciasPorOperacionSin),
+                String.format("%.0f", sinReplica.msPrimaria() / SEGUNDOS));
+        log.info("Enrutamiento con réplica: {} op/s  lecturas p50={} ms p99={} ms  primaria: {} sentencias/op, "
+                + "{} ms de ejecución por segundo; {} conexiones a la réplica y {} a la primaria ({}% de "
+                + "sentencias menos en la primaria)", String.format("%.0f", conReplica.porSegundo()),
+                String.format("%.2f", conReplica.p50Ms()), String.format("%.2f", conReplica.p99Ms()),
+                String.format("%.2f", sentenciasPorOperacionCon),
+                String.format("%.0f", conReplica.msPrimaria() / SEGUNDOS), conexionesReplica, conexionesPrimaria,
+                String.format("%.0f", 100 * (1 - sentenciasPorOperacionCon / sentenciasPorOperacionSin)));
+        assertTrue(sinReplica.operaciones() > 0 && conReplica.operaciones() > 0);
+        assertTrue(conexionesReplica > conexionesPrimaria);
+        assertTrue(sentenciasPorOperacionCon < sentenciasPorOperacionSin);
+    }
+
+    private Fase correr(long primeraCuenta, long primerCliente, boolean forzarPrimaria) throws Exception {
+        Map<String, Object> estadisticasAntes = jdbcTemplate.queryForMap(SQL_ESTADISTICAS);
+        ExecutorService ejecutor = Executors.newFixedThreadPool(HILOS);
+        List<Future<long[]>> tareas = new ArrayList<>();
+        long fin = System.nanoTime() + SEGUNDOS * 1_000_000_000L;
+        long inicio = System.nanoTime();
+        for (int h = 0; h < HILOS; h++) {
+            tareas.add(ejecutor.submit(() -> {
+                if (forzarPrimaria) {
+                    ContextoReplica.forzarPrimaria();
+                }
+                try {
+                    // Latencia en nanos de cada lectura; las consignaciones no se guardan
+                    List<Long> latencias = new ArrayList<>();
+                    long operaciones = 0;
+                    while (System.nanoTime() < fin) {
+                        ThreadLocalRandom azar = ThreadLocalRandom.current();
+                        long cuentaId = primeraCuenta + azar.nextInt(CUENTAS);
+                        int tipo = azar.nextInt(10);
+                        long t0 = System.nanoTime();
+                        if (tipo == 0) {
+                            transaccionService.realizarConsignacion(cuentaId, BigDecimal.ONE, null);
+                        } else {
+                            if (tipo <= 5) {
+                                cuentaService.obtenerCuentaPorId(cuentaId);
+                            } else if (tipo <= 7) {
+                                cuentaService.obtenerCuentasPorCliente(primerCliente + azar.nextInt(CLIENTES));
+                            } else {
+                                LocalDateTime ahora = LocalDateTime.now();
+                                transaccionService.obtenerHistorialCuenta(cuentaId, ahora.minusDays(30), ahora);
+                            }
+                            latencias.add(System.nanoTime() - t0);
+                        }
+                        operaciones++;
+                    }
+                    long[] resultado = new long[latencias.size() + 1];
+                    resultado[0] = operaciones;
+                    for (int i = 0; i < latencias.size(); i++) {
+                        resultado[i + 1] = latencias.get(i);
+                    }
+                    return resultado;
+                } finally {
+                    ContextoReplica.limpiar();
+                }
+            }));
+        }
+
+        long operaciones = 0;
+        List<long[]> porHilo = new ArrayList<>();
+        for (Future<long[]> tarea : tareas) {
+            long[] resultado = tarea.get();
+            operaciones += resultado[0];
+            porHilo.add(Arrays.copyOfRange(resultado, 1, resultado.length));
+        }
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+        ejecutor.shutdown();
+
+        Map<String, Object> estadisticasDespues = jdbcTemplate.queryForMap(SQL_ESTADISTICAS);
+        long[] ordenadas = porHilo.stream().flatMapToLong(Arrays::stream).toArray();
+        Arrays.sort(ordenadas);
+        return new Fase(operaciones, operaciones / segundos, percentil(ordenadas, 0.50), percentil(ordenadas, 0.99),
+                diferencia(estadisticasAntes, estadisticasDespues, "SENTENCIAS").longValue(),
+                diferencia(estadisticasAntes, estadisticasDespues, "MS").doubleValue());
+    }
+
+    private Number diferencia(Map<String, Object> antes, Map<String, Object> despues, String columna) {
+        return ((Number) despues.get(columna)).doubleValue() - ((Number) antes.get(columna)).doubleValue();
+    }
+
+    private double percentil(long[] ordenadas, double p) {
+        return ordenadas.length > 0 ? ordenadas[(int) Math.ceil(ordenadas.length * p) - 1] / 1_000_000.0 : 0;
+    }
+
+    private void sembrar() {
+        jdbcTemplate.update("INSERT INTO clientes (tipo_identificacion, numero_identificacion, nombres, apellido, "
+                + "correo_electronico, fecha_nacimiento, fecha_creacion) "
+                + "SELECT 'CC', CAST(60000000 + X AS VARCHAR), 'Cliente', 'Replica', "
+                + "'replica' || X || '@correo.com', DATE '1990-01-01', CURRENT_TIMESTAMP "
+                + "FROM SYSTEM_RANGE(1, ?) ORDER BY X", CLIENTES);
+        long primerCliente = jdbcTemplate.queryForObject("SELECT MIN(id) FROM clientes", Long.class);
+        jdbcTemplate.update("INSERT INTO cuentas (tipo_cuenta, numero_cuenta, estado, saldo, exenta_gmf, "
+                + "fecha_creacion, version, cliente_id) "
+                + "SELECT 'CUENTA_AHORRO', '53' || LPAD(CAST(X AS VARCHAR), 8, '0'), 'ACTIVA', 1000.00, TRUE, "
+                + "DATEADD(YEAR, -1, CURRENT_TIMESTAMP), 0, ? + MOD(X, ?) "
+                + "FROM SYSTEM_RANGE(1, ?) ORDER BY X", primerCliente, CLIENTES, CUENTAS);
+        long primeraCuenta = jdbcTemplate.queryForObject("SELECT MIN(id) FROM cuentas", Long.class);
+        // Fechas repartidas en los últimos 90 días
+        jdbcTemplate.update("INSERT INTO transacciones (tipo_transaccion, monto, fecha_transaccion, "
+                + "cuenta_origen_id) "
+                + "SELECT 'CONSIGNACION', 10.00, DATEADD(SECOND, -MOD(X * 7919, 7776000) - 60, CURRENT_TIMESTAMP), "
+                + "? + MOD(X, ?) FROM SYSTEM_RANGE(1, ?) ORDER BY X", primeraCuenta, CUENTAS, TRANSACCIONES);
+    }
+
+    /**
+     * Copia el contenido actual de la primaria a la réplica
+     */
+    private void replicar() throws Exception {
+        List<String> script = jdbcTemplate.queryForList("SCRIPT NOPASSWORDS NOSETTINGS", String.class);
+        try (Connection replica = DriverManager.getConnection(URL_REPLICA, "sa", "");
+             Statement sentencia = replica.createStatement()) {
+            sentencia.execute("DROP ALL OBJECTS");
+            for (String linea : script) {
+                if (!linea.startsWith("CREATE USER")) {
+                    sentencia.execute(linea);
+                }
+            }
+        }
+    }
+}
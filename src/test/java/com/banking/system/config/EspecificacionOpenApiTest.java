@@ -0,0 +1,54 @@
+package com.banking.system.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Genera la especificación OpenAPI en el build. Solo corre con el perfil
+ * Maven arranque-rapido, que define banking.openapi.salida dentro de
+ * target/classes/static: así el archivo entra al jar y en producción se sirve
+ * como /openapi.json sin escanear los controladores al arrancar.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:openapi;DB_CLOSE_DELAY=-1;MODE=MySQL",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+@EnabledIfSystemProperty(named = "banking.openapi.salida", matches = ".+")
+@DisplayName("Generación de la especificación OpenAPI")
+class EspecificacionOpenApiTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("GET /v3/api-docs - Debe escribir la especificación con todos los controladores")
+    void testGenerarEspecificacion() throws Exception {
+        String especificacion = mockMvc.perform(get("/v3/api-docs"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(especificacion.contains("/api/cuentas/{id}"));
+        assertTrue(especificacion.contains("/api/transacciones/consignacion"));
+
+        Path salida = Path.of(System.getProperty("banking.openapi.salida"));
+        Files.createDirectories(salida.getParent());
+        Files.writeString(salida, especificacion);
+        System.out.printf("Especificación OpenAPI: %s (%d bytes)%n", salida, especificacion.length());
+    }
+}
@@ -0,0 +1,160 @@
+package com.banking.system.config;
+
+import com.banking.system.entity.Cliente;
+import com.banking.system.entity.Cuenta;
+import com.banking.system.entity.Cuenta.EstadoCuenta;
+import com.banking.system.entity.Cuenta.TipoCuenta;
+import com.banking.system.entity.Transaccion;
+import com.banking.system.entity.Transaccion.TipoTransaccion;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests de FormatosBinariosConfig: registra los conversores y compara bytes y
+ * CPU por respuesta de cada formato con listas de transacciones y cuentas
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de FormatosBinariosConfig")
+class FormatosBinariosConfigTest {
+
+    private static final int ELEMENTOS = 1000;
+    private static final int REPETICIONES = 50;
+
+    @Mock
+    private ObjectProvider<Jackson2ObjectMapperBuilder> builders;
+
+    @InjectMocks
+    private FormatosBinariosConfig formatosBinariosConfig;
+
+    private Map<String, ObjectMapper> mappers;
+
+    @BeforeEach
+    void setUp() {
+        when(builders.getObject()).thenAnswer(invocation -> Jackson2ObjectMapperBuilder.json());
+
+        List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        formatosBinariosConfig.extendMessageConverters(converters);
+
+        mappers = new LinkedHashMap<>();
+        mappers.put("application/json", Jackson2ObjectMapperBuilder.json().build());
+        for (HttpMessageConverter<?> converter : converters) {
+            AbstractJackson2HttpMessageConverter jackson = (AbstractJackson2HttpMessageConverter) converter;
+            mappers.put(jackson.getSupportedMediaTypes().get(0).toString(), jackson.getObjectMapper());
+        }
+    }
+
+    @Test
+    @DisplayName("Registrar conversores - Debe agregar CBOR y Smile")
+    void testConversoresRegistrados() {
+        assertTrue(mappers.containsKey("application/cbor"));
+        assertTrue(mappers.containsKey("application/x-jackson-smile"));
+    }
+
+    @Test
+    @DisplayName("Lista de transacciones - Los formatos binarios deben pesar menos que JSON")
+    void testTamanoTransacciones() throws Exception {
+        Map<String, Integer> tamanos = comparar("Transaccion", transacciones());
+
+        assertTrue(tamanos.get("application/cbor") < tamanos.get("application/json"));
+        assertTrue(tamanos.get("application/x-jackson-smile") < tamanos.get("application/json"));
+    }
+
+    @Test
+    @DisplayName("Lista de cuentas - Los formatos binarios deben pesar menos que JSON")
+    void testTamanoCuentas() throws Exception {
+        Map<String, Integer> tamanos = comparar("Cuenta", cuentas());
+
+        assertTrue(tamanos.get("application/cbor") < tamanos.get("application/json"));
+        assertTrue(tamanos.get("application/x-jackson-smile") < tamanos.get("application/json"));
+    }
+
+    /**
+     * Serializa la lista con cada formato e imprime bytes, bytes con gzip y
+     * microsegundos por respuesta
+     */
+    private Map<String, Integer> comparar(String nombre, List<?> lista) throws Exception {
+        Map<String, Integer> tamanos = new LinkedHashMap<>();
+        for (Map.Entry<String, ObjectMapper> entrada : mappers.entrySet()) {
+            ObjectMapper mapper = entrada.getValue();
+            byte[] cuerpo = mapper.writeValueAsBytes(lista);
+
+            // Calentamiento antes de medir
+            for (int i = 0; i < REPETICIONES; i++) {
+                mapper.writeValueAsBytes(lista);
+            }
+            long inicio = System.nanoTime();
+            for (int i = 0; i < REPETICIONES; i++) {
+                mapper.writeValueAsBytes(lista);
+            }
+            double microsPorRespuesta = (System.nanoTime() - inicio) / 1000.0 / REPETICIONES;
+
+            tamanos.put(entrada.getKey(), cuerpo.length);
+            System.out.printf("%s x%d %-28s %8d bytes %7d gzip %9.1f us%n",
+                    nombre, lista.size(), entrada.getKey(), cuerpo.length, gzip(cuerpo), microsPorRespuesta);
+        }
+        return tamanos;
+    }
+
+    private int gzip(byte[] cuerpo) throws Exception {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+            gzip.write(cuerpo);
+        }
+        return salida.size();
+    }
+
+    private List<Transaccion> transacciones() {
+        List<Cuenta> cuentas = cuentas();
+        List<Transaccion> transacciones = new ArrayList<>(ELEMENTOS);
+        for (int i = 0; i < ELEMENTOS; i++) {
+            Transaccion transaccion = new Transaccion(TipoTransaccion.CONSIGNACION,
+                    BigDecimal.valueOf(10_000 + i * 37L, 2), "Consignación en cajero", cuentas.get(i % 10));
+            transaccion.setId((long) i + 1);
+            transaccion.setFechaTransaccion(LocalDateTime.of(2025, 1, 1, 8, 0).plusMinutes(i));
+            transaccion.setSaldoPosterior(BigDecimal.valueOf(500_000 + i * 113L, 2));
+            transacciones.add(transaccion);
+        }
+        return transacciones;
+    }
+
+    private List<Cuenta> cuentas() {
+        Cliente cliente = new Cliente();
+        cliente.setId(1L);
+        List<Cuenta> cuentas = new ArrayList<>(ELEMENTOS);
+        for (int i = 0; i < ELEMENTOS; i++) {
+            Cuenta cuenta = new Cuenta();
+            cuenta.setId((long) i + 1);
+            cuenta.setTipoCuenta(i % 2 == 0 ? TipoCuenta.CUENTA_AHORRO : TipoCuenta.CUENTA_CORRIENTE);
+            cuenta.setNumeroCuenta(String.valueOf(5_300_000_000L + i));
+            cuenta.setEstado(EstadoCuenta.ACTIVA);
+            cuenta.setSaldo(BigDecimal.valueOf(1_000_000 + i * 991L, 2));
+            cuenta.setExentaGMF(i % 5 == 0);
+            cuenta.setFechaCreacion(LocalDateTime.of(2024, 6, 1, 10, 0).plusHours(i));
+            cuenta.setCliente(cliente);
+            cuentas.add(cuenta);
+        }
+        return cuentas;
+    }
+}
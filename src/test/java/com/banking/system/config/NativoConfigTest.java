@@ -0,0 +1,84 @@
+package com.banking.system.config;
+
+import com.banking.system.controller.ConsignacionRequest;
+import com.banking.system.controller.CuentaRequest;
+import com.banking.system.controller.RetiroRequest;
+import com.banking.system.controller.TransferenciaRequest;
+import com.banking.system.entity.Cliente;
+import com.banking.system.entity.Cuenta;
+import com.banking.system.entity.ExencionGMF;
+import com.banking.system.entity.Transaccion;
+import com.banking.system.entity.VistaCuenta;
+import com.banking.system.repository.CuentaRepository;
+import com.banking.system.service.LecturaReactivaService;
+import com.banking.system.service.SubsaldoCuentaService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.SpringProxy;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.core.DecoratingProxy;
+import org.springframework.data.projection.TargetAware;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de NativoConfig: las pistas que necesita el binario nativo para
+ * serializar y proyectar lo que Spring AOT no infiere solo
+ */
+@DisplayName("Tests de NativoConfig")
+class NativoConfigTest {
+
+    private RuntimeHints hints;
+
+    @BeforeEach
+    void setUp() {
+        hints = new RuntimeHints();
+        new NativoConfig.PistasNativas().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    @DisplayName("Entidades - Deben poder serializarse por reflexión")
+    void testPistasEntidades() {
+        for (Class<?> entidad : new Class<?>[] {Cliente.class, Cuenta.class, Transaccion.class}) {
+            assertTrue(RuntimeHintsPredicates.reflection().onType(entidad)
+                    .withMemberCategories(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints), entidad.getName());
+            assertTrue(RuntimeHintsPredicates.reflection().onMethod(entidad, "getId").test(hints), entidad.getName());
+        }
+        // Tipos anidados de las entidades
+        assertTrue(RuntimeHintsPredicates.reflection().onType(ExencionGMF.ExencionGMFId.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(VistaCuenta.MovimientoVista.class).test(hints));
+    }
+
+    @Test
+    @DisplayName("DTO de entrada - Deben poder deserializarse por reflexión")
+    void testPistasRequests() {
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(ConsignacionRequest.class, "setMonto").test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(RetiroRequest.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(TransferenciaRequest.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(CuentaRequest.class).test(hints));
+    }
+
+    @Test
+    @DisplayName("Records de servicios y configuración - Deben poder serializarse por reflexión")
+    void testPistasRecords() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(SubsaldoCuentaService.MetricasSubsaldos.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(LecturaReactivaService.CuentaLectura.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(EnrutadorDataSource.MetricasEnrutamiento.class).test(hints));
+    }
+
+    @Test
+    @DisplayName("Proyección HuellaCuentas - Debe registrar el proxy JDK de Spring Data")
+    void testPistaProyeccion() {
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(CuentaRepository.HuellaCuentas.class,
+                TargetAware.class, SpringProxy.class, DecoratingProxy.class).test(hints));
+    }
+
+    @Test
+    @DisplayName("Especificación OpenAPI estática - Debe incluirse como recurso")
+    void testPistaOpenApi() {
+        assertTrue(RuntimeHintsPredicates.resource().forResource("static/openapi.json").test(hints));
+    }
+}
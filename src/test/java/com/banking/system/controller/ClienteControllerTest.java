@@ -1,6 +1,8 @@
 package com.banking.system.controller;
 
 import com.banking.system.entity.Cliente;
+import com.banking.system.service.BusquedaClienteService;
+import com.banking.system.service.BusquedaClienteService.ResultadoBusqueda;
 import com.banking.system.service.ClienteService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
@@ -8,17 +10,25 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -35,6 +45,9 @@ class ClienteControllerTest {
     @MockBean
     private ClienteService clienteService;
 
+    @MockBean
+    private BusquedaClienteService busquedaClienteService;
+
     @Test
     @DisplayName("POST /api/clientes - Debe crear un cliente")
     void crearCliente_ok() throws Exception {
@@ -86,6 +99,32 @@ class ClienteControllerTest {
                 .andExpect(jsonPath("$.error").value("Ya existe un cliente con el correo electrónico"));
     }
 
+    @Test
+    @DisplayName("GET /api/clientes/{id} - Debe retornar el cliente con ETag")
+    void obtenerClientePorId_etag() throws Exception {
+        Cliente cliente = new Cliente();
+        cliente.setId(1L);
+        cliente.setNombres("Juan");
+        when(clienteService.obtenerVersion(1L)).thenReturn("1700000000000000");
+        when(clienteService.obtenerClientePorId(1L)).thenReturn(cliente);
+
+        mockMvc.perform(get("/api/clientes/{id}", 1))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"cliente-1-1700000000000000\""))
+                .andExpect(jsonPath("$.nombres").value("Juan"));
+    }
+
+    @Test
+    @DisplayName("GET /api/clientes/{id} con If-None-Match vigente - Debe responder 304 sin cargar el cliente")
+    void obtenerClientePorId_noModificado() throws Exception {
+        when(clienteService.obtenerVersion(1L)).thenReturn("1700000000000000");
+
+        mockMvc.perform(get("/api/clientes/{id}", 1).header("If-None-Match", "\"cliente-1-1700000000000000\""))
+                .andExpect(status().isNotModified());
+
+        verify(clienteService, never()).obtenerClientePorId(1L);
+    }
+
     @Test
     @DisplayName("GET /api/clientes/{id} - Cliente inexistente (404 con {error})")
     void obtenerClientePorId_notFound() throws Exception {
@@ -135,5 +174,49 @@ class ClienteControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.mensaje").value("Cliente eliminado exitosamente"));
     }
-}
 
+    @Test
+    @DisplayName("GET /api/clientes/buscar - Debe devolver la página de resultados")
+    void buscarClientes_ok() throws Exception {
+        Cliente cliente = new Cliente();
+        cliente.setId(7L);
+        cliente.setNombres("Ana María");
+        cliente.setApellido("Gómez");
+        when(busquedaClienteService.buscar("gom", 0, 20))
+                .thenReturn(new ResultadoBusqueda("gom", 0, 20, 1, true, 35, List.of(cliente)));
+
+        mockMvc.perform(get("/api/clientes/buscar").param("q", "gom"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.clientes[0].id").value(7))
+                .andExpect(jsonPath("$.clientes[0].apellido").value("Gómez"));
+    }
+
+    @Test
+    @DisplayName("GET /api/clientes/buscar - Búsqueda muy corta debe devolver 400")
+    void buscarClientes_consultaCorta() throws Exception {
+        when(busquedaClienteService.buscar("a", 0, 20))
+                .thenThrow(new IllegalArgumentException("La búsqueda debe tener al menos 2 caracteres"));
+
+        mockMvc.perform(get("/api/clientes/buscar").param("q", "a"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("La búsqueda debe tener al menos 2 caracteres"));
+    }
+
+    @Test
+    @DisplayName("GET /api/clientes?creadoDesde= - Debe listar la página filtrada por fecha de creación")
+    void listarClientes_porFechaCreacion() throws Exception {
+        Cliente cliente = new Cliente();
+        cliente.setId(7L);
+        cliente.setApellido("Gómez");
+        PageRequest solicitud = PageRequest.of(0, 20, Sort.by("id"));
+        when(clienteService.listarClientes(LocalDateTime.of(2026, 1, 1, 0, 0), null, solicitud, false))
+                .thenReturn(new SliceImpl<>(List.of(cliente), solicitud, false));
+
+        mockMvc.perform(get("/api/clientes").param("creadoDesde", "2026-01-01T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(7))
+                .andExpect(header().doesNotExist("X-Total-Count"))
+                .andExpect(header().doesNotExist("Link"));
+    }
+}
@@ -0,0 +1,125 @@
+package com.banking.system.controller;
+
+import com.banking.system.entity.Conciliacion;
+import com.banking.system.entity.Conciliacion.EstadoConciliacion;
+import com.banking.system.entity.DiscrepanciaConciliacion;
+import com.banking.system.entity.DiscrepanciaConciliacion.TipoDiscrepancia;
+import com.banking.system.repository.ConciliacionRepository;
+import com.banking.system.repository.DiscrepanciaConciliacionRepository;
+import com.banking.system.service.ConciliacionService;
+import com.banking.system.service.ReconstruccionSaldosService;
+import com.banking.system.service.ReconstruccionSaldosService.DiferenciaSaldo;
+import com.banking.system.service.ReconstruccionSaldosService.ResultadoReconstruccion;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ConciliacionController.class)
+@DisplayName("Tests de ConciliacionController")
+class ConciliacionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ConciliacionService conciliacionService;
+
+    @MockBean
+    private ConciliacionRepository conciliacionRepository;
+
+    @MockBean
+    private DiscrepanciaConciliacionRepository discrepanciaConciliacionRepository;
+
+    @MockBean
+    private ReconstruccionSaldosService reconstruccionSaldosService;
+
+    @Test
+    @DisplayName("POST /api/conciliaciones - Debe ejecutar la conciliación")
+    void conciliar_ok() throws Exception {
+        Conciliacion conciliacion = new Conciliacion(4);
+        conciliacion.setId(1L);
+        conciliacion.setEstado(EstadoConciliacion.CONCILIADA);
+        conciliacion.setCuentasRevisadas(2500L);
+        when(conciliacionService.conciliar()).thenReturn(conciliacion);
+
+        mockMvc.perform(post("/api/conciliaciones"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.estado").value("CONCILIADA"))
+                .andExpect(jsonPath("$.cuentasRevisadas").value(2500));
+    }
+
+    @Test
+    @DisplayName("POST /api/conciliaciones - Ejecución en curso (409)")
+    void conciliar_enEjecucion() throws Exception {
+        when(conciliacionService.conciliar()).thenThrow(new IllegalStateException("Ya hay una conciliación en ejecución"));
+
+        mockMvc.perform(post("/api/conciliaciones"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Ya hay una conciliación en ejecución"));
+    }
+
+    @Test
+    @DisplayName("GET /api/conciliaciones/{id}/discrepancias - Debe retornar el reporte")
+    void obtenerDiscrepancias_ok() throws Exception {
+        DiscrepanciaConciliacion discrepancia = new DiscrepanciaConciliacion(1L, 5L, null,
+                TipoDiscrepancia.SALDO_DESCUADRADO, new BigDecimal("100.00"), new BigDecimal("90.00"));
+        when(discrepanciaConciliacionRepository.findByConciliacionIdOrderByCuentaIdAscIdAsc(1L))
+                .thenReturn(List.of(discrepancia));
+
+        mockMvc.perform(get("/api/conciliaciones/1/discrepancias"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].tipo").value("SALDO_DESCUADRADO"));
+    }
+
+    @Test
+    @DisplayName("POST /api/conciliaciones/reconstruccion-saldos - Debe reportar las diferencias sin aplicar")
+    void reconstruirSaldos_sinAplicar() throws Exception {
+        ResultadoReconstruccion resultado = new ResultadoReconstruccion("BD", false, 1, 5000L, 100L, 3L, 0L, 1L,
+                0L, 0L, 5L, 1_000_000.0, 40L, List.of(new DiferenciaSaldo(7L, new BigDecimal("90.00"),
+                        new BigDecimal("100.00"), new BigDecimal("10.00"))));
+        when(reconstruccionSaldosService.reconstruir(false, null)).thenReturn(resultado);
+
+        mockMvc.perform(post("/api/conciliaciones/reconstruccion-saldos"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.aplicada").value(false))
+                .andExpect(jsonPath("$.diferencias").value(1))
+                .andExpect(jsonPath("$.detalle[0].cuentaId").value(7));
+    }
+
+    @Test
+    @DisplayName("POST /api/conciliaciones/reconstruccion-saldos - Archivo inexistente (400)")
+    void reconstruirSaldos_archivoInexistente() throws Exception {
+        when(reconstruccionSaldosService.reconstruir(true, "/no/existe.bin.gz"))
+                .thenThrow(new IllegalArgumentException("No existe el archivo /no/existe.bin.gz"));
+
+        mockMvc.perform(post("/api/conciliaciones/reconstruccion-saldos")
+                        .param("aplicar", "true")
+                        .param("archivo", "/no/existe.bin.gz"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("No existe el archivo /no/existe.bin.gz"));
+    }
+
+    @Test
+    @DisplayName("POST /api/conciliaciones/reconstruccion-saldos - Ejecución en curso (409)")
+    void reconstruirSaldos_enEjecucion() throws Exception {
+        when(reconstruccionSaldosService.reconstruir(false, null))
+                .thenThrow(new IllegalStateException("Ya hay una reconstrucción de saldos en ejecución"));
+
+        mockMvc.perform(post("/api/conciliaciones/reconstruccion-saldos"))
+                .andExpect(status().isConflict());
+    }
+}
@@ -5,24 +5,45 @@ import com.banking.system.entity.Cuenta;
 import com.banking.system.entity.Cuenta.EstadoCuenta;
 import com.banking.system.entity.Cuenta.TipoCuenta;
 import com.banking.system.service.CuentaService;
+import com.banking.system.service.InactividadService;
+import com.banking.system.service.InactividadService.ResultadoBarrido;
+import com.banking.system.service.RankingCuentasService;
+import com.banking.system.service.RankingCuentasService.MetricaRanking;
+import com.banking.system.service.RankingCuentasService.PosicionRanking;
+import com.banking.system.service.RankingCuentasService.RankingCuentas;
+import com.banking.system.service.SubsaldoCuentaService;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -39,6 +60,15 @@ class CuentaControllerTest {
     @MockBean
     private CuentaService cuentaService;
 
+    @MockBean
+    private InactividadService inactividadService;
+
+    @MockBean
+    private SubsaldoCuentaService subsaldoCuentaService;
+
+    @MockBean
+    private RankingCuentasService rankingCuentasService;
+
     @Test
     @DisplayName("POST /api/cuentas?clienteId=X - Debe crear cuenta")
     void crearCuenta_ok() throws Exception {
@@ -121,6 +151,72 @@ class CuentaControllerTest {
                 .andExpect(jsonPath("$.error").value("No se puede cancelar la cuenta. El saldo debe ser $0."));
     }
 
+    @Test
+    @DisplayName("GET /api/cuentas/{id} - Debe incluir ETag con la versión")
+    void obtenerCuentaPorId_etag() throws Exception {
+        when(cuentaService.obtenerVersion(10L)).thenReturn("1-10-1700000000000000");
+        when(cuentaService.obtenerCuentaPorId(10L)).thenReturn(cuentaCorriente());
+
+        mockMvc.perform(get("/api/cuentas/{id}", 10))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"cuenta-10-1-10-1700000000000000\""))
+                .andExpect(jsonPath("$.id").value(10));
+    }
+
+    @Test
+    @DisplayName("GET /api/cuentas/{id} con If-None-Match vigente - Debe responder 304 sin cargar la cuenta")
+    void obtenerCuentaPorId_noModificada() throws Exception {
+        when(cuentaService.obtenerVersion(10L)).thenReturn("1-10-1700000000000000");
+
+        mockMvc.perform(get("/api/cuentas/{id}", 10).header("If-None-Match", "\"cuenta-10-1-10-1700000000000000\""))
+                .andExpect(status().isNotModified());
+
+        verify(cuentaService, never()).obtenerCuentaPorId(10L);
+    }
+
+    @Test
+    @DisplayName("GET /api/cuentas/cliente/{id} con If-None-Match viejo - Debe responder 200 con el ETag nuevo")
+    void obtenerCuentasPorCliente_modificadas() throws Exception {
+        when(cuentaService.obtenerVersionCuentasPorCliente(1L)).thenReturn("2-11-1700000000000001");
+        when(cuentaService.obtenerCuentasPorCliente(1L)).thenReturn(List.of(cuentaCorriente()));
+
+        mockMvc.perform(get("/api/cuentas/cliente/{clienteId}", 1)
+                        .header("If-None-Match", "\"cuentas-cliente-1-1-10-1700000000000000\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"cuentas-cliente-1-2-11-1700000000000001\""))
+                .andExpect(jsonPath("$[0].id").value(10));
+    }
+
+    @Test
+    @DisplayName("GET /api/cuentas/{id} con Accept CBOR - Debe responder en CBOR")
+    void obtenerCuentaPorId_cbor() throws Exception {
+        when(cuentaService.obtenerCuentaPorId(10L)).thenReturn(cuentaCorriente());
+
+        byte[] cuerpo = mockMvc.perform(get("/api/cuentas/{id}", 10).accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode cuenta = new ObjectMapper(new CBORFactory()).readTree(cuerpo);
+        assertEquals(10, cuenta.get("id").asInt());
+        assertEquals("3300000001", cuenta.get("numeroCuenta").asText());
+    }
+
+    @Test
+    @DisplayName("GET /api/cuentas/{id} con Accept Smile - Debe responder en Smile")
+    void obtenerCuentaPorId_smile() throws Exception {
+        when(cuentaService.obtenerCuentaPorId(10L)).thenReturn(cuentaCorriente());
+
+        byte[] cuerpo = mockMvc.perform(get("/api/cuentas/{id}", 10).accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode cuenta = new ObjectMapper(new SmileFactory()).readTree(cuerpo);
+        assertEquals(10, cuenta.get("id").asInt());
+        assertEquals("CUENTA_CORRIENTE", cuenta.get("tipoCuenta").asText());
+    }
+
     @Test
     @DisplayName("DELETE /api/cuentas/{id} - Debe eliminar cuenta (200)")
     void eliminarCuenta_ok() throws Exception {
@@ -128,5 +224,105 @@ class CuentaControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.mensaje").value("Cuenta eliminada exitosamente"));
     }
-}
 
+    @Test
+    @DisplayName("POST /api/cuentas/inactividad?dias=N - Debe reportar cuentas inactivadas")
+    void inactivarCuentasSinMovimientos_ok() throws Exception {
+        when(inactividadService.inactivarCuentasSinMovimientos(365))
+                .thenReturn(new ResultadoBarrido(LocalDateTime.of(2025, 10, 19, 0, 0), 42L, 150L));
+
+        mockMvc.perform(post("/api/cuentas/inactividad").param("dias", "365"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cuentasInactivadas").value(42))
+                .andExpect(jsonPath("$.duracionMs").value(150));
+    }
+
+    @Test
+    @DisplayName("POST /api/cuentas/{id}/caliente?ranuras=N - Debe activar las ranuras")
+    void activarCuentaCaliente_ok() throws Exception {
+        when(subsaldoCuentaService.activar(10L, 8)).thenReturn(8);
+
+        mockMvc.perform(post("/api/cuentas/{id}/caliente", 10).param("ranuras", "8"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cuentaId").value(10))
+                .andExpect(jsonPath("$.ranuras").value(8));
+    }
+
+    @Test
+    @DisplayName("POST /api/cuentas/{id}/caliente con ranuras inválidas - Debe responder 400")
+    void activarCuentaCaliente_invalida() throws Exception {
+        when(subsaldoCuentaService.activar(10L, 1))
+                .thenThrow(new IllegalArgumentException("La cantidad de ranuras debe estar entre 2 y 256"));
+
+        mockMvc.perform(post("/api/cuentas/{id}/caliente", 10).param("ranuras", "1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("La cantidad de ranuras debe estar entre 2 y 256"));
+    }
+
+    @Test
+    @DisplayName("GET /api/cuentas con filtros - Debe pasarlos al servicio y enlazar la página siguiente")
+    void listarCuentas_filtros() throws Exception {
+        PageRequest solicitud = PageRequest.of(1, 1, Sort.by(Sort.Direction.DESC, "saldo").and(Sort.by(Sort.Direction.DESC, "id")));
+        when(cuentaService.listarCuentas(EstadoCuenta.ACTIVA, TipoCuenta.CUENTA_CORRIENTE, new BigDecimal("100"),
+                null, solicitud, false)).thenReturn(new SliceImpl<>(List.of(cuentaCorriente()), solicitud, true));
+
+        mockMvc.perform(get("/api/cuentas")
+                        .param("estado", "ACTIVA")
+                        .param("tipoCuenta", "CUENTA_CORRIENTE")
+                        .param("saldoMinimo", "100")
+                        .param("pagina", "1")
+                        .param("tamano", "1")
+                        .param("orden", "saldo,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(10))
+                .andExpect(header().doesNotExist("X-Total-Count"))
+                .andExpect(header().string("Link", containsString("pagina=2")));
+    }
+
+    @Test
+    @DisplayName("GET /api/cuentas ordenando por un campo no permitido - Debe responder 400")
+    void listarCuentas_ordenInvalido() throws Exception {
+        mockMvc.perform(get("/api/cuentas").param("orden", "cliente.apellido"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value(containsString("No se puede ordenar por 'cliente.apellido'")));
+
+        mockMvc.perform(get("/api/cuentas").param("tamano", "1000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /api/cuentas/ranking - Debe devolver el top de la métrica pedida")
+    void obtenerRanking_ok() throws Exception {
+        when(rankingCuentasService.obtenerRanking(MetricaRanking.ENTRADAS_DIA, 2)).thenReturn(new RankingCuentas(
+                MetricaRanking.ENTRADAS_DIA, null, List.of(new PosicionRanking(1, 7L, new BigDecimal("900.00")),
+                        new PosicionRanking(2, 3L, new BigDecimal("150.50")))));
+
+        mockMvc.perform(get("/api/cuentas/ranking").param("metrica", "ENTRADAS_DIA").param("limite", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.metrica").value("ENTRADAS_DIA"))
+                .andExpect(jsonPath("$.posiciones[0].cuentaId").value(7))
+                .andExpect(jsonPath("$.posiciones[1].valor").value(150.50));
+    }
+
+    @Test
+    @DisplayName("GET /api/cuentas/ranking con límite fuera de rango - Debe responder 400")
+    void obtenerRanking_limiteInvalido() throws Exception {
+        when(rankingCuentasService.obtenerRanking(MetricaRanking.SALDO, 500))
+                .thenThrow(new IllegalArgumentException("El límite debe estar entre 1 y 100"));
+
+        mockMvc.perform(get("/api/cuentas/ranking").param("limite", "500"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("El límite debe estar entre 1 y 100"));
+    }
+
+    private Cuenta cuentaCorriente() {
+        Cuenta cuenta = new Cuenta();
+        cuenta.setId(10L);
+        cuenta.setTipoCuenta(TipoCuenta.CUENTA_CORRIENTE);
+        cuenta.setNumeroCuenta("3300000001");
+        cuenta.setEstado(EstadoCuenta.ACTIVA);
+        cuenta.setSaldo(new BigDecimal("0.00"));
+        cuenta.setExentaGMF(true);
+        return cuenta;
+    }
+}
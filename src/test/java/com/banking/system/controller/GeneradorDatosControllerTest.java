@@ -0,0 +1,72 @@
+package com.banking.system.controller;
+
+import com.banking.system.service.GeneradorDatosService;
+import com.banking.system.service.GeneradorDatosService.ResultadoGeneracion;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(GeneradorDatosController.class)
+@DisplayName("Tests de GeneradorDatosController")
+class GeneradorDatosControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private GeneradorDatosService generadorDatosService;
+
+    @Test
+    @DisplayName("POST /api/generador-datos - Debe generar con los parámetros recibidos")
+    void generar_ok() throws Exception {
+        when(generadorDatosService.generar(7L, 100, 5_000L)).thenReturn(new ResultadoGeneracion(7L, 100L, 190L,
+                5_000L, 30L, 50L, 10L, 95L, 55_684.2));
+
+        mockMvc.perform(post("/api/generador-datos")
+                        .param("semilla", "7").param("clientes", "100").param("transacciones", "5000"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.semilla").value(7))
+                .andExpect(jsonPath("$.cuentas").value(190))
+                .andExpect(jsonPath("$.transacciones").value(5000));
+    }
+
+    @Test
+    @DisplayName("POST /api/generador-datos - Sin parámetros usa la configuración")
+    void generar_porDefecto() throws Exception {
+        when(generadorDatosService.generar(null, null, null)).thenReturn(new ResultadoGeneracion(42L, 10L, 20L,
+                300L, 3L, 5L, 1L, 10L, 33_000.0));
+
+        mockMvc.perform(post("/api/generador-datos"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.semilla").value(42));
+    }
+
+    @Test
+    @DisplayName("POST /api/generador-datos - Parámetros inválidos (400)")
+    void generar_parametrosInvalidos() throws Exception {
+        when(generadorDatosService.generar(null, 0, null))
+                .thenThrow(new IllegalArgumentException("Se debe generar al menos un cliente"));
+
+        mockMvc.perform(post("/api/generador-datos").param("clientes", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Se debe generar al menos un cliente"));
+    }
+
+    @Test
+    @DisplayName("POST /api/generador-datos - Deshabilitado o BD con datos (409)")
+    void generar_deshabilitado() throws Exception {
+        when(generadorDatosService.generar(null, null, null)).thenThrow(new IllegalStateException(
+                "El generador de datos está deshabilitado (banking.generador.habilitado)"));
+
+        mockMvc.perform(post("/api/generador-datos"))
+                .andExpect(status().isConflict());
+    }
+}
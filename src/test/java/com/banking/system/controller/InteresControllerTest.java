@@ -0,0 +1,70 @@
+package com.banking.system.controller;
+
+import com.banking.system.entity.CausacionInteres;
+import com.banking.system.entity.CausacionInteres.EstadoCausacion;
+import com.banking.system.repository.CausacionInteresRepository;
+import com.banking.system.service.InteresService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(InteresController.class)
+@DisplayName("Tests de InteresController")
+class InteresControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private InteresService interesService;
+
+    @MockBean
+    private CausacionInteresRepository causacionInteresRepository;
+
+    @Test
+    @DisplayName("POST /api/intereses/causacion - Debe ejecutar la causación")
+    void causarIntereses_ok() throws Exception {
+        LocalDate fecha = LocalDate.of(2026, 10, 18);
+        CausacionInteres causacion = new CausacionInteres(fecha);
+        causacion.setEstado(EstadoCausacion.COMPLETADA);
+        causacion.setCuentasProcesadas(1500L);
+        when(interesService.causarIntereses(fecha)).thenReturn(causacion);
+
+        mockMvc.perform(post("/api/intereses/causacion").param("fecha", "2026-10-18"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.estado").value("COMPLETADA"))
+                .andExpect(jsonPath("$.cuentasProcesadas").value(1500));
+    }
+
+    @Test
+    @DisplayName("POST /api/intereses/causacion - Ejecución en curso (409)")
+    void causarIntereses_enEjecucion() throws Exception {
+        when(interesService.causarIntereses(LocalDate.of(2026, 10, 18)))
+                .thenThrow(new IllegalStateException("Ya hay una causación de intereses en ejecución"));
+
+        mockMvc.perform(post("/api/intereses/causacion").param("fecha", "2026-10-18"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Ya hay una causación de intereses en ejecución"));
+    }
+
+    @Test
+    @DisplayName("GET /api/intereses/causacion/{fecha} - Fecha sin causación (404)")
+    void obtenerCausacion_notFound() throws Exception {
+        when(causacionInteresRepository.findById(LocalDate.of(2026, 10, 18))).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/intereses/causacion/{fecha}", "2026-10-18"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,74 @@
+package com.banking.system.controller;
+
+import com.banking.system.service.LecturaReactivaService;
+import com.banking.system.service.LecturaReactivaService.TransaccionLectura;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(LecturaReactivaController.class)
+@DisplayName("Tests de LecturaReactivaController")
+class LecturaReactivaControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private LecturaReactivaService lecturaReactivaService;
+
+    @Test
+    @DisplayName("GET /api/reactivo/cuentas/{id} - Cuenta inexistente (404)")
+    void obtenerCuenta_noEncontrada() throws Exception {
+        when(lecturaReactivaService.obtenerCuenta(9L)).thenReturn(Mono.empty());
+
+        MvcResult resultado = mockMvc.perform(get("/api/reactivo/cuentas/9"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("Cuenta no encontrada con ID: 9"));
+    }
+
+    @Test
+    @DisplayName("GET /api/reactivo/transacciones/cuenta/{id} - Debe transmitir NDJSON")
+    void transmitirHistorial_ndjson() throws Exception {
+        when(lecturaReactivaService.transmitirHistorial(eq(1L), isNull(), isNull())).thenReturn(Flux.just(
+                new TransaccionLectura(12L, "RETIRO", new BigDecimal("20.00"), null,
+                        LocalDateTime.of(2025, 1, 4, 9, 0), 1L, null, new BigDecimal("980.00")),
+                new TransaccionLectura(10L, "CONSIGNACION", new BigDecimal("1000.00"), null,
+                        LocalDateTime.of(2025, 1, 2, 9, 0), 1L, null, new BigDecimal("1000.00"))));
+
+        MvcResult resultado = mockMvc.perform(get("/api/reactivo/transacciones/cuenta/1")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(containsString("\"id\":12")))
+                .andExpect(content().string(containsString("\"id\":10")));
+    }
+}
@@ -0,0 +1,236 @@
+package com.banking.system.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de carga de la API de lectura: las mismas consultas (cuenta por ID
+ * e historial de la cuenta) por los controladores MVC sobre JPA y por
+ * /api/reactivo sobre R2DBC, con 50 y 200 conexiones concurrentes
+ * (-Dbanking.reactivo.carga.conexiones=50,200,...). Con un servidor real en
+ * un puerto aleatorio, cada conexión manda un pedido apenas recibe la
+ * respuesta del anterior.
+ *
+ * Reporta en el log pedidos por segundo, p50/p99, el pico de hilos de la JVM
+ * y la memoria por conexión, medida en una segunda corrida igual: heap vivo
+ * (tras un GC durante la carga) más memoria comprometida de pilas de hilos,
+ * menos la misma medida en reposo.
+ * Las pilas solo se ven con -XX:NativeMemoryTracking=summary, que el perfil
+ * carga ya activa; sin esa opción se reporta solo el heap.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.datasource.url=jdbc:h2:mem:reactivo-carga;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.datasource.hikari.maximum-pool-size=20",
+    "spring.r2dbc.url=r2dbc:h2:mem:///reactivo-carga;DB_CLOSE_DELAY=-1",
+    "spring.r2dbc.username=sa",
+    "spring.r2dbc.password=",
+    "spring.r2dbc.pool.max-size=20",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "banking.outbox.hilos=0",
+    "banking.operaciones.hilos=0"
+})
+@DisplayName("Prueba de carga de MVC contra la API reactiva")
+class LecturaReactivaStressTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LecturaReactivaStressTest.class);
+
+    private static final int CUENTAS = 10_000;
+    private static final int TRANSACCIONES = 50_000;
+    private static final int SEGUNDOS = Integer.getInteger("banking.reactivo.carga.segundos", 10);
+    private static final int[] CONEXIONES = Arrays.stream(System.getProperty("banking.reactivo.carga.conexiones",
+            "50,200").split(",")).mapToInt(Integer::parseInt).toArray();
+    private static final int MUESTRAS = 3;
+    private static final Pattern PILAS_HILOS = Pattern.compile("Thread \\(reserved=\\d+KB, committed=(\\d+)KB\\)");
+
+    @LocalServerPort
+    private int puerto;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private record Api(String nombre, String cuenta, String historial) {
+    }
+
+    private record Medicion(double porSegundo, double p50Ms, double p99Ms, long errores, int hilosPico,
+            long bytesPorConexion, boolean conPilas) {
+    }
+
+    @Test
+    @DisplayName("Cuenta e historial por MVC y por R2DBC - Throughput y memoria por conexión")
+    void testCompararMvcYReactivo() throws Exception {
+        // Arrange
+        sembrar();
+        long primeraCuenta = jdbcTemplate.queryForObject("SELECT MIN(id) FROM cuentas", Long.class);
+        Api mvc = new Api("MVC", "/api/cuentas/", "/api/transacciones/cuenta/");
+        Api reactivo = new Api("Reactivo", "/api/reactivo/cuentas/", "/api/reactivo/transacciones/cuenta/");
+
+        // Hilos del cliente fijos, así no cambian entre la medida en reposo y la de carga
+        ExecutorService hilosCliente = Executors.newFixedThreadPool(4);
+        HttpClient cliente = HttpClient.newBuilder().executor(hilosCliente).version(HttpClient.Version.HTTP_1_1)
+                .build();
+        try {
+            // Calentamiento sin medir de las dos, si no la primera sale más lenta por el JIT
+            for (Api api : new Api[]{mvc, reactivo}) {
+                correr(cliente, api, primeraCuenta, CONEXIONES[0], SEGUNDOS, false);
+            }
+            for (Api api : new Api[]{mvc, reactivo}) {
+                for (int conexiones : CONEXIONES) {
+                    // Act: los GC de la medida de memoria frenan el servidor, por eso va en otra corrida
+                    Medicion medicion = correr(cliente, api, primeraCuenta, conexiones, SEGUNDOS, false);
+                    Medicion memoria = correr(cliente, api, primeraCuenta, conexiones, SEGUNDOS, true);
+
+                    // Assert
+                    log.info("{} con {} conexiones: {} pedidos/s  p50={} ms  p99={} ms  {} hilos en la JVM (pico), "
+                            + "{} KB por conexión ({}), {} errores", api.nombre(), conexiones,
+                            String.format("%.0f", medicion.porSegundo()), String.format("%.1f", medicion.p50Ms()),
+                            String.format("%.1f", medicion.p99Ms()), medicion.hilosPico(),
+                            String.format("%.1f", memoria.bytesPorConexion() / 1024.0),
+                            memoria.conPilas() ? "heap y pilas" : "solo heap", medicion.errores() + memoria.errores());
+                    assertEquals(0L, medicion.errores() + memoria.errores());
+                    assertTrue(medicion.porSegundo() > 0);
+                }
+            }
+        } finally {
+            hilosCliente.shutdownNow();
+        }
+    }
+
+    private Medicion correr(HttpClient cliente, Api api, long primeraCuenta, int conexiones, int segundos,
+            boolean medirMemoria) throws Exception {
+        long reposo = medirMemoria ? memoriaViva() : 0;
+        ConcurrentLinkedQueue<Long> latencias = new ConcurrentLinkedQueue<>();
+        LongAdder errores = new LongAdder();
+        ThreadMXBean hilos = ManagementFactory.getThreadMXBean();
+        hilos.resetPeakThreadCount();
+        long bajoCarga = 0;
+        CountDownLatch terminadas = new CountDownLatch(conexiones);
+        long inicio = System.nanoTime();
+        long fin = inicio + TimeUnit.SECONDS.toNanos(segundos);
+
+        for (int c = 0; c < conexiones; c++) {
+            enviar(cliente, api, primeraCuenta, fin, latencias, errores, terminadas);
+        }
+        // Memoria viva a 1/4, 1/2 y 3/4 de la carga, promediada: una sola medida es muy ruidosa
+        for (int muestra = 1; medirMemoria && muestra <= MUESTRAS; muestra++) {
+            Thread.sleep(Math.max(0, inicio + TimeUnit.SECONDS.toNanos(segundos) * muestra / (MUESTRAS + 1)
+                    - System.nanoTime()) / 1_000_000);
+            bajoCarga += memoriaViva();
+        }
+        bajoCarga = medirMemoria ? bajoCarga / MUESTRAS : 0;
+        assertTrue(terminadas.await(60, TimeUnit.SECONDS), "Quedaron pedidos sin respuesta");
+        double duracion = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+        long[] ordenadas = latencias.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(ordenadas);
+        boolean conPilas = pilasHilosKb() >= 0;
+        return new Medicion(ordenadas.length / duracion, percentil(ordenadas, 0.50), percentil(ordenadas, 0.99),
+                errores.sum(), hilos.getPeakThreadCount(), Math.max(0, bajoCarga - reposo) / conexiones,
+                conPilas);
+    }
+
+    /**
+     * Cada conexión alterna al azar cuenta e historial y manda el siguiente
+     * pedido al recibir la respuesta
+     */
+    private void enviar(HttpClient cliente, Api api, long primeraCuenta, long fin,
+            ConcurrentLinkedQueue<Long> latencias, LongAdder errores, CountDownLatch terminadas) {
+        if (System.nanoTime() >= fin) {
+            terminadas.countDown();
+            return;
+        }
+        ThreadLocalRandom azar = ThreadLocalRandom.current();
+        long cuentaId = primeraCuenta + azar.nextInt(CUENTAS);
+        String ruta = (azar.nextBoolean() ? api.cuenta() : api.historial()) + cuentaId;
+        HttpRequest pedido = HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + ruta))
+                .header("Accept", "application/json").GET().build();
+        long t0 = System.nanoTime();
+        cliente.sendAsync(pedido, HttpResponse.BodyHandlers.discarding()).whenComplete((respuesta, error) -> {
+            if (error != null || respuesta.statusCode() != 200) {
+                errores.increment();
+            } else {
+                latencias.add(System.nanoTime() - t0);
+            }
+            enviar(cliente, api, primeraCuenta, fin, latencias, errores, terminadas);
+        });
+    }
+
+    private double percentil(long[] ordenadas, double p) {
+        return ordenadas.length > 0 ? ordenadas[(int) Math.ceil(ordenadas.length * p) - 1] / 1_000_000.0 : 0;
+    }
+
+    /**
+     * Heap vivo tras un GC más las pilas comprometidas de los hilos (si hay
+     * Native Memory Tracking), en bytes
+     */
+    private long memoriaViva() throws InterruptedException {
+        System.gc();
+        Thread.sleep(100);
+        long heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        long pilasKb = pilasHilosKb();
+        return heap + Math.max(0, pilasKb) * 1024;
+    }
+
+    /**
+     * Memoria comprometida de los hilos según Native Memory Tracking, o -1 si
+     * no está activo
+     */
+    private long pilasHilosKb() {
+        try {
+            String resumen = (String) ManagementFactory.getPlatformMBeanServer().invoke(
+                    new ObjectName("com.sun.management:type=DiagnosticCommand"), "vmNativeMemory",
+                    new Object[]{new String[]{"summary"}}, new String[]{String[].class.getName()});
+            Matcher coincidencia = PILAS_HILOS.matcher(resumen);
+            return coincidencia.find() ? Long.parseLong(coincidencia.group(1)) : -1;
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private void sembrar() {
+        jdbcTemplate.update("INSERT INTO clientes (tipo_identificacion, numero_identificacion, nombres, apellido, "
+                + "correo_electronico, fecha_nacimiento, fecha_creacion) "
+                + "SELECT 'CC', CAST(80000000 + X AS VARCHAR), 'Cliente', 'Reactivo', "
+                + "'reactivo' || X || '@correo.com', DATE '1990-01-01', CURRENT_TIMESTAMP "
+                + "FROM SYSTEM_RANGE(1, ?) ORDER BY X", CUENTAS);
+        long primerCliente = jdbcTemplate.queryForObject("SELECT MIN(id) FROM clientes", Long.class);
+        jdbcTemplate.update("INSERT INTO cuentas (tipo_cuenta, numero_cuenta, estado, saldo, exenta_gmf, "
+                + "fecha_creacion, version, cliente_id) "
+                + "SELECT 'CUENTA_AHORRO', '53' || LPAD(CAST(X AS VARCHAR), 8, '0'), 'ACTIVA', 1000.00, TRUE, "
+                + "DATEADD(YEAR, -1, CURRENT_TIMESTAMP), 0, ? + X - 1 FROM SYSTEM_RANGE(1, ?) ORDER BY X",
+                primerCliente, CUENTAS);
+        long primeraCuenta = jdbcTemplate.queryForObject("SELECT MIN(id) FROM cuentas", Long.class);
+        jdbcTemplate.update("INSERT INTO transacciones (tipo_transaccion, monto, fecha_transaccion, "
+                + "cuenta_origen_id, saldo_posterior) "
+                + "SELECT 'CONSIGNACION', 10.00, DATEADD(SECOND, -MOD(X * 7919, 7776000) - 60, CURRENT_TIMESTAMP), "
+                + "? + MOD(X, ?), 1000.00 FROM SYSTEM_RANGE(1, ?) ORDER BY X", primeraCuenta, CUENTAS, TRANSACCIONES);
+    }
+}
@@ -0,0 +1,55 @@
+package com.banking.system.controller;
+
+import com.banking.system.entity.OperacionAsincrona;
+import com.banking.system.entity.OperacionAsincrona.EstadoOperacion;
+import com.banking.system.service.OperacionAsincronaService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(OperacionController.class)
+@DisplayName("Tests de OperacionController")
+class OperacionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private OperacionAsincronaService operacionAsincronaService;
+
+    @Test
+    @DisplayName("GET /api/operaciones/{id} - Debe retornar el estado de la operación")
+    void obtenerOperacion_ok() throws Exception {
+        OperacionAsincrona operacion = new OperacionAsincrona(1L, 2L, new BigDecimal("5000.00"), null);
+        operacion.setId(77L);
+        operacion.setEstado(EstadoOperacion.COMPLETADA);
+        operacion.setTransaccionEnviadaId(300L);
+        when(operacionAsincronaService.obtenerOperacion(77L)).thenReturn(operacion);
+
+        mockMvc.perform(get("/api/operaciones/77"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.estado").value("COMPLETADA"))
+                .andExpect(jsonPath("$.transaccionEnviadaId").value(300));
+    }
+
+    @Test
+    @DisplayName("GET /api/operaciones/{id} - Operación inexistente (404)")
+    void obtenerOperacion_noEncontrada() throws Exception {
+        when(operacionAsincronaService.obtenerOperacion(9L))
+                .thenThrow(new IllegalArgumentException("Operación no encontrada con ID: 9"));
+
+        mockMvc.perform(get("/api/operaciones/9"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("Operación no encontrada con ID: 9"));
+    }
+}
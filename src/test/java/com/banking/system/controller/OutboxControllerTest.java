@@ -0,0 +1,39 @@
+package com.banking.system.controller;
+
+import com.banking.system.service.DespachoOutboxService;
+import com.banking.system.service.DespachoOutboxService.MetricasOutbox;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(OutboxController.class)
+@DisplayName("Tests de OutboxController")
+class OutboxControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DespachoOutboxService despachoOutboxService;
+
+    @Test
+    @DisplayName("GET /api/outbox/metricas - Debe retornar las métricas del despacho")
+    void obtenerMetricas_ok() throws Exception {
+        when(despachoOutboxService.obtenerMetricas())
+                .thenReturn(new MetricasOutbox(1200L, 3L, 4L, 250.0, 40L, 180L, 15L, 90L, 2, 1));
+
+        mockMvc.perform(get("/api/outbox/metricas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.eventosDespachados").value(1200))
+                .andExpect(jsonPath("$.eventosPendientes").value(15))
+                .andExpect(jsonPath("$.retrasoPendienteMs").value(90));
+    }
+}
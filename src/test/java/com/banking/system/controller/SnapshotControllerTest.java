@@ -0,0 +1,72 @@
+package com.banking.system.controller;
+
+import com.banking.system.service.SnapshotService;
+import com.banking.system.service.SnapshotService.ResultadoExportacion;
+import com.banking.system.service.SnapshotService.ResultadoRestauracion;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(SnapshotController.class)
+@DisplayName("Tests de SnapshotController")
+class SnapshotControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private SnapshotService snapshotService;
+
+    @Test
+    @DisplayName("POST /api/snapshots - Debe exportar el snapshot")
+    void exportar_ok() throws Exception {
+        when(snapshotService.exportar("qa.snap")).thenReturn(new ResultadoExportacion("snapshots/qa.snap",
+                10L, 30L, 600L, 4096L, 12L, 53_333.0));
+
+        mockMvc.perform(post("/api/snapshots").param("nombre", "qa.snap"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.transacciones").value(600))
+                .andExpect(jsonPath("$.tamanoBytes").value(4096));
+    }
+
+    @Test
+    @DisplayName("POST /api/snapshots - Nombre inválido (400)")
+    void exportar_nombreInvalido() throws Exception {
+        when(snapshotService.exportar("../qa.snap"))
+                .thenThrow(new IllegalArgumentException("Nombre de snapshot inválido: ../qa.snap"));
+
+        mockMvc.perform(post("/api/snapshots").param("nombre", "../qa.snap"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Nombre de snapshot inválido: ../qa.snap"));
+    }
+
+    @Test
+    @DisplayName("POST /api/snapshots/restauracion - Debe restaurar el snapshot")
+    void restaurar_ok() throws Exception {
+        when(snapshotService.restaurar("qa.snap")).thenReturn(new ResultadoRestauracion("snapshots/qa.snap",
+                10L, 30L, 600L, 20L, 5L, 40L, 32_000.0));
+
+        mockMvc.perform(post("/api/snapshots/restauracion").param("nombre", "qa.snap"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cuentas").value(30))
+                .andExpect(jsonPath("$.msIndices").value(5));
+    }
+
+    @Test
+    @DisplayName("POST /api/snapshots/restauracion - BD con datos (409)")
+    void restaurar_bdConDatos() throws Exception {
+        when(snapshotService.restaurar("qa.snap")).thenThrow(new IllegalStateException(
+                "La tabla clientes no está vacía; el snapshot solo se restaura en una BD vacía"));
+
+        mockMvc.perform(post("/api/snapshots/restauracion").param("nombre", "qa.snap"))
+                .andExpect(status().isConflict());
+    }
+}
@@ -1,26 +1,45 @@
 package com.banking.system.controller;
 
 import com.banking.system.entity.Cuenta;
+import com.banking.system.entity.OperacionAsincrona;
 import com.banking.system.entity.Transaccion;
 import com.banking.system.entity.Transaccion.TipoTransaccion;
+import com.banking.system.service.ConcurrenciaCuentaService;
+import com.banking.system.service.FraudeSospechosoException;
+import com.banking.system.service.LimiteTasaService;
+import com.banking.system.service.OperacionAsincronaService;
 import com.banking.system.service.TransaccionService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -37,6 +56,22 @@ class TransaccionControllerTest {
     @MockBean
     private TransaccionService transaccionService;
 
+    @MockBean
+    private LimiteTasaService limiteTasaService;
+
+    @MockBean
+    private OperacionAsincronaService operacionAsincronaService;
+
+    @MockBean
+    private ConcurrenciaCuentaService concurrenciaCuentaService;
+
+    @BeforeEach
+    void setUp() {
+        // Sin conflictos: ejecuta el movimiento una sola vez
+        when(concurrenciaCuentaService.ejecutar(any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+    }
+
     @Test
     @DisplayName("POST /api/transacciones/consignacion - Debe crear transacción")
     void consignacion_ok() throws Exception {
@@ -109,12 +144,160 @@ class TransaccionControllerTest {
     @Test
     @DisplayName("GET /api/transacciones/cuenta/{cuentaId} - Error de negocio (400 con {error})")
     void historialCuenta_badRequest() throws Exception {
-        when(transaccionService.obtenerHistorialCuenta(999L))
+        when(transaccionService.obtenerHistorialCuenta(eq(999L), isNull(), isNull()))
                 .thenThrow(new IllegalArgumentException("Cuenta no encontrada con ID: 999"));
 
         mockMvc.perform(get("/api/transacciones/cuenta/{cuentaId}", 999))
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.error").value("Cuenta no encontrada con ID: 999"));
     }
-}
 
+    @Test
+    @DisplayName("GET /api/transacciones/cuenta/{cuentaId}?desde=&hasta= - Debe filtrar por rango de fechas")
+    void historialCuenta_conRango() throws Exception {
+        Transaccion transaccion = new Transaccion();
+        transaccion.setId(7L);
+        transaccion.setTipoTransaccion(TipoTransaccion.RETIRO);
+        transaccion.setMonto(new BigDecimal("10.00"));
+
+        when(transaccionService.obtenerHistorialCuenta(1L,
+                LocalDateTime.of(2025, 1, 1, 0, 0), LocalDateTime.of(2025, 12, 31, 23, 59)))
+                .thenReturn(List.of(transaccion));
+
+        mockMvc.perform(get("/api/transacciones/cuenta/{cuentaId}", 1)
+                        .param("desde", "2025-01-01T00:00:00")
+                        .param("hasta", "2025-12-31T23:59:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(7));
+    }
+
+    @Test
+    @DisplayName("GET /api/transacciones?contar=true - Debe filtrar, ordenar por fecha y enviar el total")
+    void listarTransacciones_conConteo() throws Exception {
+        Transaccion transaccion = new Transaccion();
+        transaccion.setId(7L);
+        transaccion.setTipoTransaccion(TipoTransaccion.CONSIGNACION);
+        transaccion.setMonto(new BigDecimal("500.00"));
+        PageRequest solicitud = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "fechaTransaccion")
+                .and(Sort.by(Sort.Direction.DESC, "id")));
+
+        when(transaccionService.listarTransacciones(TipoTransaccion.CONSIGNACION,
+                LocalDateTime.of(2025, 1, 1, 0, 0), null, new BigDecimal("100"), new BigDecimal("1000"),
+                solicitud, true))
+                .thenReturn(new PageImpl<>(List.of(transaccion), solicitud, 1));
+
+        mockMvc.perform(get("/api/transacciones")
+                        .param("tipoTransaccion", "CONSIGNACION")
+                        .param("desde", "2025-01-01T00:00:00")
+                        .param("montoMinimo", "100")
+                        .param("montoMaximo", "1000")
+                        .param("contar", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(7))
+                .andExpect(header().string("X-Total-Count", "1"))
+                .andExpect(header().doesNotExist("Link"));
+    }
+
+    @Test
+    @DisplayName("GET /api/transacciones con rango archivado - Debe retornar 400")
+    void listarTransacciones_rangoArchivado() throws Exception {
+        when(transaccionService.listarTransacciones(any(), any(), any(), any(), any(), any(), anyBoolean()))
+                .thenThrow(new IllegalArgumentException("El rango incluye meses archivados"));
+
+        mockMvc.perform(get("/api/transacciones").param("desde", "2020-01-01T00:00:00"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("El rango incluye meses archivados"));
+    }
+
+    @Test
+    @DisplayName("POST /api/transacciones/retiro - Límite de tasa excedido (429 con Retry-After)")
+    void retiro_limiteExcedido() throws Exception {
+        RetiroRequest request = new RetiroRequest();
+        request.setCuentaId(1L);
+        request.setMonto(new BigDecimal("10.00"));
+
+        when(limiteTasaService.consumir(1L)).thenReturn(1500L);
+
+        mockMvc.perform(post("/api/transacciones/retiro")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.error").exists());
+
+        verify(transaccionService, never()).realizarRetiro(anyLong(), any(), any());
+    }
+
+    @Test
+    @DisplayName("POST /api/transacciones/retiro - Conflictos de concurrencia agotados (409)")
+    void retiro_conflictoConcurrencia() throws Exception {
+        RetiroRequest request = new RetiroRequest();
+        request.setCuentaId(1L);
+        request.setMonto(new BigDecimal("10.00"));
+
+        doThrow(new IllegalStateException("La cuenta tiene demasiados movimientos simultáneos, intente de nuevo"))
+                .when(concurrenciaCuentaService).ejecutar(any());
+
+        mockMvc.perform(post("/api/transacciones/retiro")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("La cuenta tiene demasiados movimientos simultáneos, intente de nuevo"));
+    }
+
+    @Test
+    @DisplayName("POST /api/transacciones/retiro - Bloqueado por control de fraude (422 con código)")
+    void retiro_fraude() throws Exception {
+        RetiroRequest request = new RetiroRequest();
+        request.setCuentaId(1L);
+        request.setMonto(new BigDecimal("10.00"));
+
+        when(transaccionService.realizarRetiro(eq(1L), any(), any()))
+                .thenThrow(new FraudeSospechosoException("Operación bloqueada por control de fraude: más de 10 retiros en 5 minutos"));
+
+        mockMvc.perform(post("/api/transacciones/retiro")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.codigo").value("FRAUDE_VELOCIDAD"));
+    }
+
+    @Test
+    @DisplayName("POST /api/transacciones/transferencia/async - Debe aceptar con 202 y Location")
+    void transferenciaAsync_aceptada() throws Exception {
+        TransferenciaRequest request = new TransferenciaRequest(1L, 2L, new BigDecimal("5000.00"), null);
+
+        OperacionAsincrona operacion = new OperacionAsincrona(1L, 2L, new BigDecimal("5000.00"), null);
+        operacion.setId(77L);
+        when(operacionAsincronaService.encolarTransferencia(eq(1L), eq(2L), any(BigDecimal.class), isNull()))
+                .thenReturn(operacion);
+
+        mockMvc.perform(post("/api/transacciones/transferencia/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/operaciones/77"))
+                .andExpect(jsonPath("$.id").value(77))
+                .andExpect(jsonPath("$.estado").value("PENDIENTE"));
+
+        verify(transaccionService, never()).realizarTransferencia(anyLong(), anyLong(), any(), any());
+    }
+
+    @Test
+    @DisplayName("POST /api/transacciones/transferencia/async - Cola llena (503 con Retry-After)")
+    void transferenciaAsync_colaLlena() throws Exception {
+        TransferenciaRequest request = new TransferenciaRequest(1L, 2L, new BigDecimal("5000.00"), null);
+
+        when(operacionAsincronaService.encolarTransferencia(eq(1L), eq(2L), any(BigDecimal.class), isNull()))
+                .thenThrow(new IllegalStateException("La cola de operaciones está llena. Intente de nuevo más tarde"));
+
+        mockMvc.perform(post("/api/transacciones/transferencia/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.error").exists());
+    }
+}
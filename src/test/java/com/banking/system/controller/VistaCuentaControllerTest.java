@@ -0,0 +1,65 @@
+package com.banking.system.controller;
+
+import com.banking.system.entity.VistaCuenta;
+import com.banking.system.service.VistaCuentaService;
+import com.banking.system.service.VistaCuentaService.RetrasoVistas;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(VistaCuentaController.class)
+@DisplayName("Tests de VistaCuentaController")
+class VistaCuentaControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private VistaCuentaService vistaCuentaService;
+
+    @Test
+    @DisplayName("GET /api/vistas/cuentas/{id} - Debe retornar la vista")
+    void obtenerVista_ok() throws Exception {
+        VistaCuenta vista = new VistaCuenta(1L);
+        vista.setNombreCliente("Juan Perez");
+        vista.setSaldo(new BigDecimal("5000.00"));
+        when(vistaCuentaService.obtenerVista(1L)).thenReturn(vista);
+
+        mockMvc.perform(get("/api/vistas/cuentas/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nombreCliente").value("Juan Perez"))
+                .andExpect(jsonPath("$.saldo").value(5000.00));
+    }
+
+    @Test
+    @DisplayName("GET /api/vistas/cuentas/{id} - Sin vista (404)")
+    void obtenerVista_noExiste() throws Exception {
+        when(vistaCuentaService.obtenerVista(999L))
+                .thenThrow(new IllegalArgumentException("No hay vista para la cuenta con ID: 999"));
+
+        mockMvc.perform(get("/api/vistas/cuentas/999"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("No hay vista para la cuenta con ID: 999"));
+    }
+
+    @Test
+    @DisplayName("GET /api/vistas/retraso - Debe retornar el retraso de réplica")
+    void obtenerRetraso_ok() throws Exception {
+        when(vistaCuentaService.obtenerRetraso()).thenReturn(new RetrasoVistas(120L, 120L, 35L, 4L, 80L));
+
+        mockMvc.perform(get("/api/vistas/retraso"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.retrasoUltimoMs").value(35))
+                .andExpect(jsonPath("$.eventosPendientes").value(4));
+    }
+}
@@ -0,0 +1,186 @@
+package com.banking.system.repository;
+
+import com.banking.system.entity.Cliente;
+import com.banking.system.entity.Cuenta;
+import com.banking.system.entity.Cuenta.EstadoCuenta;
+import com.banking.system.entity.Cuenta.TipoCuenta;
+import com.banking.system.entity.SubsaldoCuenta;
+import com.banking.system.entity.Transaccion;
+import com.banking.system.entity.Transaccion.TipoTransaccion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de EspecificacionesListado contra H2: los filtros se resuelven en la
+ * base de datos y el listado sin conteo pagina igual que el contado
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@DisplayName("Tests de EspecificacionesListado")
+class EspecificacionesListadoTest {
+
+    private static final Sort POR_ID = Sort.by("id");
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private TransaccionRepository transaccionRepository;
+
+    private Cliente cliente;
+    private Cuenta ahorro;
+    private Cuenta corriente;
+    private Cuenta cancelada;
+
+    @BeforeEach
+    void setUp() {
+        cliente = cliente("100", "2026-01-10T08:00:00");
+        cliente("200", "2026-03-15T08:00:00");
+        cliente("300", "2026-06-20T08:00:00");
+
+        ahorro = cuenta("5300000001", TipoCuenta.CUENTA_AHORRO, EstadoCuenta.ACTIVA, "1000.00");
+        corriente = cuenta("3300000001", TipoCuenta.CUENTA_CORRIENTE, EstadoCuenta.ACTIVA, "50.00");
+        cancelada = cuenta("5300000002", TipoCuenta.CUENTA_AHORRO, EstadoCuenta.CANCELADA, "0.00");
+
+        // La corriente es caliente: 500 abonados en una ranura sin consolidar
+        SubsaldoCuenta ranura = new SubsaldoCuenta(corriente.getId(), 0);
+        ranura.setSaldo(new BigDecimal("500.00"));
+        entityManager.persist(ranura);
+        entityManager.getEntityManager().createNativeQuery("UPDATE cuentas SET ranuras = 1 WHERE id = ?")
+                .setParameter(1, corriente.getId()).executeUpdate();
+
+        transaccion(TipoTransaccion.CONSIGNACION, "100.00", "2026-10-01T10:00:00");
+        transaccion(TipoTransaccion.RETIRO, "20.00", "2026-10-05T10:00:00");
+        transaccion(TipoTransaccion.CONSIGNACION, "5000.00", "2026-10-09T10:00:00");
+        transaccion(TipoTransaccion.CONSIGNACION, "300.00", "2026-10-15T10:00:00");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Clientes - Debe filtrar por fecha de creación")
+    void testClientesPorFechaCreacion() {
+        List<Cliente> clientes = clienteRepository.findAll(EspecificacionesListado.clientes(
+                LocalDateTime.parse("2026-02-01T00:00:00"), null), POR_ID);
+        assertEquals(List.of("200", "300"), clientes.stream().map(Cliente::getNumeroIdentificacion).toList());
+
+        clientes = clienteRepository.findAll(EspecificacionesListado.clientes(
+                LocalDateTime.parse("2026-01-01T00:00:00"), LocalDateTime.parse("2026-03-15T08:00:00")), POR_ID);
+        assertEquals(2, clientes.size());
+
+        assertEquals(3, clienteRepository.findAll(EspecificacionesListado.clientes(null, null)).size());
+    }
+
+    @Test
+    @DisplayName("Cuentas - Debe filtrar por estado, tipo y saldo con ranuras")
+    void testCuentas() {
+        assertEquals(List.of(ahorro.getId(), cancelada.getId()), ids(cuentaRepository.findAll(
+                EspecificacionesListado.cuentas(null, TipoCuenta.CUENTA_AHORRO, null, null), POR_ID)));
+        assertEquals(List.of(ahorro.getId()), ids(cuentaRepository.findAll(
+                EspecificacionesListado.cuentas(EstadoCuenta.ACTIVA, TipoCuenta.CUENTA_AHORRO, null, null), POR_ID)));
+
+        // La corriente tiene 50 en la cuenta y 500 en ranuras: entra en 500..600
+        assertEquals(List.of(corriente.getId()), ids(cuentaRepository.findAll(
+                EspecificacionesListado.cuentas(null, null, new BigDecimal("500"), new BigDecimal("600")), POR_ID)));
+        assertEquals(List.of(ahorro.getId(), corriente.getId()), ids(cuentaRepository.findAll(
+                EspecificacionesListado.cuentas(EstadoCuenta.ACTIVA, null, new BigDecimal("100"), null), POR_ID)));
+    }
+
+    @Test
+    @DisplayName("Transacciones - Debe filtrar por tipo, fechas y monto")
+    void testTransacciones() {
+        List<Transaccion> transacciones = transaccionRepository.findAll(EspecificacionesListado.transacciones(
+                TipoTransaccion.CONSIGNACION, LocalDateTime.parse("2026-10-02T00:00:00"),
+                LocalDateTime.parse("2026-10-31T00:00:00"), null, new BigDecimal("1000")), POR_ID);
+
+        assertEquals(1, transacciones.size());
+        assertEquals(0, new BigDecimal("300").compareTo(transacciones.get(0).getMonto()));
+    }
+
+    @Test
+    @DisplayName("Listado sin conteo - Debe devolver las mismas páginas que el contado")
+    void testListarSinConteo() {
+        PageRequest primera = PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "fechaTransaccion"));
+
+        Slice<Transaccion> sinConteo = EspecificacionesListado.listar(transaccionRepository,
+                EspecificacionesListado.transacciones(null, null, null, null, null), primera, false);
+        Slice<Transaccion> contado = EspecificacionesListado.listar(transaccionRepository,
+                EspecificacionesListado.transacciones(null, null, null, null, null), primera, true);
+
+        assertFalse(sinConteo instanceof Page);
+        assertEquals(4, ((Page<Transaccion>) contado).getTotalElements());
+        assertEquals(ids(contado.getContent()), ids(sinConteo.getContent()));
+        assertTrue(sinConteo.hasNext());
+
+        Slice<Transaccion> segunda = EspecificacionesListado.listar(transaccionRepository,
+                EspecificacionesListado.transacciones(null, null, null, null, null), primera.next(), false);
+        assertEquals(1, segunda.getNumberOfElements());
+        assertEquals(0, new BigDecimal("100").compareTo(segunda.getContent().get(0).getMonto()));
+        assertFalse(segunda.hasNext());
+    }
+
+    private Cliente cliente(String documento, String creado) {
+        Cliente nuevo = new Cliente();
+        nuevo.setTipoIdentificacion("CC");
+        nuevo.setNumeroIdentificacion(documento);
+        nuevo.setNombres("Cliente");
+        nuevo.setApellido(documento);
+        nuevo.setCorreoElectronico(documento + "@correo.com");
+        nuevo.setFechaNacimiento(LocalDate.of(1990, 1, 1));
+        entityManager.persistAndFlush(nuevo);
+        jdbcTemplate.update("UPDATE clientes SET fecha_creacion = ? WHERE id = ?",
+                LocalDateTime.parse(creado), nuevo.getId());
+        return nuevo;
+    }
+
+    private Cuenta cuenta(String numero, TipoCuenta tipo, EstadoCuenta estado, String saldo) {
+        Cuenta nueva = new Cuenta();
+        nueva.setNumeroCuenta(numero);
+        nueva.setTipoCuenta(tipo);
+        nueva.setEstado(estado);
+        nueva.setSaldo(new BigDecimal(saldo));
+        nueva.setExentaGMF(false);
+        nueva.setCliente(cliente);
+        return entityManager.persistAndFlush(nueva);
+    }
+
+    private void transaccion(TipoTransaccion tipo, String monto, String fecha) {
+        Transaccion nueva = new Transaccion();
+        nueva.setTipoTransaccion(tipo);
+        nueva.setMonto(new BigDecimal(monto));
+        nueva.setCuentaOrigen(ahorro);
+        entityManager.persistAndFlush(nueva);
+        jdbcTemplate.update("UPDATE transacciones SET fecha_transaccion = ? WHERE id = ?",
+                LocalDateTime.parse(fecha), nueva.getId());
+    }
+
+    private List<Long> ids(List<?> entidades) {
+        return entidades.stream()
+                .map(e -> e instanceof Cuenta c ? c.getId() : ((Transaccion) e).getId())
+                .toList();
+    }
+}
@@ -0,0 +1,148 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.ArchivoTransacciones;
+import com.banking.system.entity.Cuenta;
+import com.banking.system.entity.Transaccion;
+import com.banking.system.repository.ArchivoTransaccionesRepository;
+import com.banking.system.repository.CuentaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para ArchivoTransaccionService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de ArchivoTransaccionService")
+class ArchivoTransaccionServiceTest {
+
+    @Mock
+    private ArchivoTransaccionesRepository archivoTransaccionesRepository;
+
+    @Mock
+    private CuentaRepository cuentaRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private ArchivoTransaccionService archivoTransaccionService;
+
+    @TempDir
+    Path directorio;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(archivoTransaccionService, "directorio", directorio.toString());
+        ReflectionTestUtils.setField(archivoTransaccionService, "mesesRetencion", 13);
+        ReflectionTestUtils.setField(archivoTransaccionService, "tamanoLoteBorrado", 1000);
+    }
+
+    @Test
+    @DisplayName("Archivar mes dentro de la retención - Debe fallar")
+    void testArchivarMesDentroDeRetencion() {
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> archivoTransaccionService.archivarMes(YearMonth.now())
+        );
+
+        assertTrue(exception.getMessage().contains("retención"));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Archivar y leer un mes - Debe recuperar solo las transacciones de la cuenta")
+    void testArchivarYLeerMes() throws Exception {
+        // Arrange: dos filas del mes, una de la cuenta 5 y otra de la cuenta 8
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn(1L, 2L);
+        when(rs.getString("tipo_transaccion")).thenReturn("CONSIGNACION", "RETIRO");
+        when(rs.getBigDecimal("monto")).thenReturn(new BigDecimal("1500.50"), new BigDecimal("20.00"));
+        when(rs.getString("descripcion")).thenReturn("Depósito", null);
+        when(rs.getTimestamp("fecha_transaccion")).thenReturn(
+                Timestamp.valueOf(LocalDateTime.of(2020, 1, 10, 8, 30)),
+                Timestamp.valueOf(LocalDateTime.of(2020, 1, 11, 9, 0)));
+        when(rs.getLong("cuenta_origen_id")).thenReturn(5L, 8L);
+        when(rs.getLong("cuenta_destino_id")).thenReturn(0L, 0L);
+        when(rs.getBigDecimal("saldo_posterior")).thenReturn(new BigDecimal("1500.50"), new BigDecimal("80.00"));
+
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(rs);
+            handler.processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(), any());
+        when(archivoTransaccionesRepository.findById(202001)).thenReturn(Optional.empty());
+        when(archivoTransaccionesRepository.save(any(ArchivoTransacciones.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act: archivar
+        ArchivoTransacciones archivo = archivoTransaccionService.archivarMes(YearMonth.of(2020, 1));
+
+        // Assert
+        assertEquals(2L, archivo.getCantidadTransacciones());
+        assertTrue(Files.exists(Path.of(archivo.getRuta())));
+
+        // Act: leer la cuenta 5
+        when(archivoTransaccionesRepository.findByPeriodoBetweenOrderByPeriodoAsc(anyInt(), anyInt()))
+                .thenReturn(List.of(archivo));
+        when(cuentaRepository.getReferenceById(anyLong())).thenAnswer(invocation -> {
+            Cuenta cuenta = new Cuenta();
+            cuenta.setId(invocation.getArgument(0));
+            return cuenta;
+        });
+        List<Transaccion> archivadas = archivoTransaccionService.buscarArchivadas(5L,
+                LocalDateTime.of(2020, 1, 1, 0, 0), LocalDateTime.of(2020, 1, 31, 23, 59));
+
+        // Assert
+        assertEquals(1, archivadas.size());
+        Transaccion transaccion = archivadas.get(0);
+        assertEquals(1L, transaccion.getId());
+        assertEquals(new BigDecimal("1500.50"), transaccion.getMonto());
+        assertEquals("Depósito", transaccion.getDescripcion());
+        assertEquals(LocalDateTime.of(2020, 1, 10, 8, 30), transaccion.getFechaTransaccion());
+        assertNull(transaccion.getCuentaDestino());
+    }
+
+    @Test
+    @DisplayName("Mes ya registrado - Debe solo terminar el borrado por lotes")
+    void testArchivarMesYaRegistrado() {
+        ArchivoTransacciones existente = new ArchivoTransacciones(202001, "/tmp/x.bin.gz", 10L, 100L);
+        when(archivoTransaccionesRepository.findById(202001)).thenReturn(Optional.of(existente));
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), any(), any())).thenReturn(1L, 2500L);
+        when(jdbcTemplate.update(anyString(), any(), any(), any(), any())).thenReturn(1000);
+
+        ArchivoTransacciones resultado = archivoTransaccionService.archivarMes(YearMonth.of(2020, 1));
+
+        assertSame(existente, resultado);
+        verify(jdbcTemplate, never()).query(anyString(), any(RowCallbackHandler.class), any(), any());
+        // IDs 1..2500 en lotes de 1000
+        verify(jdbcTemplate, times(3)).update(anyString(), any(), any(), any(), any());
+    }
+}
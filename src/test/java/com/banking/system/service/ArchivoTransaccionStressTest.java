@@ -0,0 +1,162 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.ArchivoTransacciones;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de carga del archivo de transacciones sobre H2: siembra con SQL dos
+ * años de historial (1M de transacciones por defecto; para la escala de
+ * producción -Dbanking.archivo.transacciones=100000000 con una BD en disco,
+ * -Dbanking.archivo.url=jdbc:h2:file:./target/archivo-bd) y mide la latencia
+ * de las consignaciones y del historial reciente de una cuenta antes y después
+ * de archivar los meses vencidos. Reporta en el log p50 y p99 de cada fase.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=${banking.archivo.url:jdbc:h2:mem:archivo-carga;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000}",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "banking.outbox.hilos=0",
+    "banking.archivo.directorio=target/archivo-carga",
+    "banking.archivo.meses-retencion=13",
+    "banking.limites.ahorro.por-segundo=1000000",
+    "banking.limites.ahorro.rafaga=1000000",
+    "banking.limites.cliente.por-segundo=1000000",
+    "banking.limites.cliente.rafaga=1000000"
+})
+@DisplayName("Prueba de carga de ArchivoTransaccionService")
+class ArchivoTransaccionStressTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchivoTransaccionStressTest.class);
+
+    private static final int TRANSACCIONES = Integer.getInteger("banking.archivo.transacciones", 1_000_000);
+    private static final int CUENTAS = Math.max(100, TRANSACCIONES / 200);
+    private static final int CLIENTES = Math.max(50, CUENTAS / 3);
+    private static final int TRAMO_SIEMBRA = 250_000;
+    private static final int MEDICIONES = 1_000;
+    private static final int CUENTAS_REVISADAS = 100;
+    private static final int SEGUNDOS_DOS_ANIOS = 730 * 86_400;
+
+    @Autowired
+    private ArchivoTransaccionService archivoTransaccionService;
+
+    @Autowired
+    private TransaccionService transaccionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Consignaciones e historial reciente - Latencias con todo en línea y con los meses vencidos archivados")
+    void testLatenciasConYSinArchivo() {
+        // Arrange
+        sembrar();
+        long primeraCuenta = jdbcTemplate.queryForObject("SELECT MIN(id) FROM cuentas", Long.class);
+        List<Integer> recientesAntes = historialesRecientes(primeraCuenta);
+
+        // Act: mismas mediciones antes y después de archivar
+        long[] insercionesAntes = medirConsignaciones(primeraCuenta);
+        long[] historialAntes = medirHistorial(primeraCuenta);
+        long inicio = System.nanoTime();
+        List<ArchivoTransacciones> archivados = archivoTransaccionService.archivarMesesVencidos();
+        long msArchivo = (System.nanoTime() - inicio) / 1_000_000;
+        long[] insercionesDespues = medirConsignaciones(primeraCuenta);
+        long[] historialDespues = medirHistorial(primeraCuenta);
+
+        // Assert
+        long enArchivo = archivados.stream().mapToLong(ArchivoTransacciones::getCantidadTransacciones).sum();
+        long enLinea = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transacciones", Long.class);
+        log.info("Archivo: {} transacciones, {} meses archivados ({} transacciones) en {} ms, {} quedan en línea",
+                TRANSACCIONES, archivados.size(), enArchivo, msArchivo, enLinea);
+        log.info("Archivo: consignación p50={} us p99={} us en línea, p50={} us p99={} us con archivo",
+                percentil(insercionesAntes, 50), percentil(insercionesAntes, 99),
+                percentil(insercionesDespues, 50), percentil(insercionesDespues, 99));
+        log.info("Archivo: historial de 30 días p50={} us p99={} us en línea, p50={} us p99={} us con archivo",
+                percentil(historialAntes, 50), percentil(historialAntes, 99),
+                percentil(historialDespues, 50), percentil(historialDespues, 99));
+        assertFalse(archivados.isEmpty());
+        assertEquals(TRANSACCIONES + 2L * MEDICIONES, enArchivo + enLinea);
+        // El historial reciente no cambia al archivar: solo suma una consignación de cada medición
+        List<Integer> recientesDespues = historialesRecientes(primeraCuenta);
+        for (int i = 0; i < recientesAntes.size(); i++) {
+            assertEquals(recientesAntes.get(i) + 2, recientesDespues.get(i));
+        }
+    }
+
+    private long[] medirConsignaciones(long primeraCuenta) {
+        long[] micros = new long[MEDICIONES];
+        for (int i = 0; i < MEDICIONES; i++) {
+            long inicio = System.nanoTime();
+            transaccionService.realizarConsignacion(primeraCuenta + i % CUENTAS, BigDecimal.TEN, null);
+            micros[i] = (System.nanoTime() - inicio) / 1000;
+        }
+        return micros;
+    }
+
+    private long[] medirHistorial(long primeraCuenta) {
+        long[] micros = new long[MEDICIONES];
+        for (int i = 0; i < MEDICIONES; i++) {
+            long cuentaId = primeraCuenta + (i * 7919L) % CUENTAS;
+            LocalDateTime ahora = LocalDateTime.now();
+            long inicio = System.nanoTime();
+            transaccionService.obtenerHistorialCuenta(cuentaId, ahora.minusDays(30), ahora);
+            micros[i] = (System.nanoTime() - inicio) / 1000;
+        }
+        return micros;
+    }
+
+    // Tamaño del historial de 30 días de las primeras cuentas
+    private List<Integer> historialesRecientes(long primeraCuenta) {
+        LocalDateTime ahora = LocalDateTime.now().plusMinutes(1);
+        return LongStream.range(primeraCuenta, primeraCuenta + CUENTAS_REVISADAS)
+                .mapToObj(id -> transaccionService.obtenerHistorialCuenta(id, ahora.minusDays(30), ahora).size())
+                .toList();
+    }
+
+    private static long percentil(long[] micros, int percentil) {
+        long[] ordenados = micros.clone();
+        Arrays.sort(ordenados);
+        return ordenados[Math.min(ordenados.length - 1, ordenados.length * percentil / 100)];
+    }
+
+    private void sembrar() {
+        jdbcTemplate.update("INSERT INTO clientes (tipo_identificacion, numero_identificacion, nombres, apellido, "
+                + "correo_electronico, fecha_nacimiento, fecha_creacion) "
+                + "SELECT 'CC', CAST(40000000 + X AS VARCHAR), 'Cliente', 'Archivo', "
+                + "'archivo' || X || '@correo.com', DATE '1990-01-01', CURRENT_TIMESTAMP "
+                + "FROM SYSTEM_RANGE(1, ?) ORDER BY X", CLIENTES);
+        long primerCliente = jdbcTemplate.queryForObject("SELECT MIN(id) FROM clientes", Long.class);
+        jdbcTemplate.update("INSERT INTO cuentas (tipo_cuenta, numero_cuenta, estado, saldo, exenta_gmf, "
+                + "fecha_creacion, version, cliente_id) "
+                + "SELECT 'CUENTA_AHORRO', '53' || LPAD(CAST(X AS VARCHAR), 8, '0'), 'ACTIVA', 1000000.00, TRUE, "
+                + "DATEADD(YEAR, -3, CURRENT_TIMESTAMP), 0, ? + MOD(X, ?) "
+                + "FROM SYSTEM_RANGE(1, ?) ORDER BY X", primerCliente, CLIENTES, CUENTAS);
+        long primeraCuenta = jdbcTemplate.queryForObject("SELECT MIN(id) FROM cuentas", Long.class);
+
+        // Fechas repartidas en los dos últimos años; por tramos para no llenar el undo
+        for (int desde = 1; desde <= TRANSACCIONES; desde += TRAMO_SIEMBRA) {
+            jdbcTemplate.update("INSERT INTO transacciones (tipo_transaccion, monto, fecha_transaccion, "
+                    + "cuenta_origen_id) "
+                    + "SELECT CASE WHEN MOD(X, 2) = 0 THEN 'CONSIGNACION' ELSE 'RETIRO' END, 10.00, "
+                    + "DATEADD(SECOND, -MOD(X * 7919, ?) - 60, CURRENT_TIMESTAMP), ? + MOD(X, ?) "
+                    + "FROM SYSTEM_RANGE(?, ?) ORDER BY X",
+                    SEGUNDOS_DOS_ANIOS, primeraCuenta, CUENTAS, desde,
+                    Math.min(TRANSACCIONES, desde + TRAMO_SIEMBRA - 1));
+        }
+    }
+}
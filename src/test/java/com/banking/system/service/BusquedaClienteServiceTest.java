@@ -0,0 +1,198 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.Cliente;
+import com.banking.system.repository.ClienteRepository;
+import com.banking.system.service.BusquedaClienteService.MetricasBusqueda;
+import com.banking.system.service.BusquedaClienteService.ResultadoBusqueda;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para BusquedaClienteService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de BusquedaClienteService")
+class BusquedaClienteServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ClienteRepository clienteRepository;
+
+    @InjectMocks
+    private BusquedaClienteService busquedaClienteService;
+
+    @BeforeEach
+    void setUp() {
+        // findAllById devuelve clientes con los ids pedidos, en otro orden
+        lenient().when(clienteRepository.findAllById(anyIterable())).thenAnswer(invocacion -> {
+            List<Cliente> clientes = new ArrayList<>();
+            for (Object id : (Iterable<?>) invocacion.getArgument(0)) {
+                Cliente cliente = new Cliente();
+                cliente.setId((Long) id);
+                clientes.add(0, cliente);
+            }
+            return clientes;
+        });
+
+        indexar(1L, "Juan Carlos", "Pérez García", "juan.perez@example.com", "1234567890");
+        indexar(2L, "Ana María", "Gómez", "ana.gomez@example.com", "52123456");
+        indexar(3L, "Anabel", "Gomezcasseres", "anabel@correo.co", "1098765432");
+        indexar(4L, "Pedro", "Ramírez", "pramirez@example.com", "79555123");
+    }
+
+    @Test
+    @DisplayName("Subcadena sin tildes - Debe encontrar el apellido con tilde")
+    void testBuscarSubcadena() {
+        ResultadoBusqueda resultado = busquedaClienteService.buscar("mez", 0, 20);
+
+        assertEquals(2, resultado.total());
+        assertEquals(List.of(2L, 3L), ids(resultado));
+    }
+
+    @Test
+    @DisplayName("Ranking - Palabra completa antes que prefijo y prefijo antes que subcadena")
+    void testRanking() {
+        // "gomez" completa en 2, prefijo de "gomezcasseres" en 3
+        assertEquals(List.of(2L, 3L), ids(busquedaClienteService.buscar("Gómez", 0, 20)));
+
+        // "ana" completa en 2, prefijo de "anabel" en 3
+        assertEquals(List.of(2L, 3L), ids(busquedaClienteService.buscar("ana", 0, 20)));
+
+        // "ez": prefijo de palabra, solo con 1 o 2 caracteres no se buscan subcadenas
+        assertEquals(0, busquedaClienteService.buscar("ez", 0, 20).total());
+    }
+
+    @Test
+    @DisplayName("Varias palabras - Todas deben aparecer")
+    void testVariasPalabras() {
+        assertEquals(List.of(2L), ids(busquedaClienteService.buscar("ana mar", 0, 20)));
+        assertEquals(0, busquedaClienteService.buscar("ana pedro", 0, 20).total());
+    }
+
+    @Test
+    @DisplayName("Documento y correo parciales - Deben encontrar al cliente")
+    void testDocumentoYCorreo() {
+        assertEquals(List.of(4L), ids(busquedaClienteService.buscar("5551", 0, 20)));
+        assertEquals(List.of(3L), ids(busquedaClienteService.buscar("anabel@correo", 0, 20)));
+    }
+
+    @Test
+    @DisplayName("Paginación - Debe devolver la página pedida y el total")
+    void testPaginacion() {
+        ResultadoBusqueda primera = busquedaClienteService.buscar("example", 0, 2);
+        ResultadoBusqueda segunda = busquedaClienteService.buscar("example", 1, 2);
+
+        // La primera página se llena con palabras completas y corta el recorrido
+        assertFalse(primera.totalExacto());
+        assertEquals(List.of(1L, 2L), ids(primera));
+        assertTrue(segunda.totalExacto());
+        assertEquals(3, segunda.total());
+        assertEquals(List.of(4L), ids(segunda));
+    }
+
+    @Test
+    @DisplayName("Actualizar y eliminar - El índice debe reflejar el cambio")
+    void testActualizarYEliminar() {
+        indexar(2L, "Ana María", "Suárez", "ana.suarez@example.com", "52123456");
+        assertEquals(List.of(3L), ids(busquedaClienteService.buscar("gomez", 0, 20)));
+        assertEquals(List.of(2L), ids(busquedaClienteService.buscar("suarez", 0, 20)));
+
+        busquedaClienteService.quitar(4L);
+        assertEquals(0, busquedaClienteService.buscar("ramirez", 0, 20).total());
+
+        // Cliente nuevo después de la carga inicial
+        indexar(10L, "Camila", "Ramírez", "camila@example.com", "1000200300");
+        assertEquals(List.of(10L), ids(busquedaClienteService.buscar("ramirez", 0, 20)));
+    }
+
+    @Test
+    @DisplayName("Transacción activa - Debe indexar solo al confirmar")
+    void testIndexarAlConfirmar() {
+        Cliente cliente = new Cliente();
+        cliente.setId(20L);
+        cliente.setNombres("Valentina");
+        cliente.setApellido("Ortiz");
+        cliente.setCorreoElectronico("vortiz@example.com");
+        cliente.setNumeroIdentificacion("1011121314");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            busquedaClienteService.indexarAlConfirmar(cliente);
+            assertEquals(0, busquedaClienteService.buscar("ortiz", 0, 20).total());
+
+            for (TransactionSynchronization sincronizacion : TransactionSynchronizationManager.getSynchronizations()) {
+                sincronizacion.afterCommit();
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(List.of(20L), ids(busquedaClienteService.buscar("ortiz", 0, 20)));
+    }
+
+    @Test
+    @DisplayName("Búsqueda muy corta o página fuera de rango - Debe fallar")
+    void testValidaciones() {
+        assertThrows(IllegalArgumentException.class, () -> busquedaClienteService.buscar("a", 0, 20));
+        assertThrows(IllegalArgumentException.class, () -> busquedaClienteService.buscar("--", 0, 20));
+        assertThrows(IllegalArgumentException.class, () -> busquedaClienteService.buscar("ana", 0, 101));
+        assertThrows(IllegalArgumentException.class, () -> busquedaClienteService.buscar("ana", 500, 100));
+    }
+
+    @Test
+    @DisplayName("Carga inicial - Debe indexar los clientes de la tabla")
+    void testIniciar() throws Exception {
+        BusquedaClienteService nuevo = new BusquedaClienteService();
+        ReflectionTestUtils.setField(nuevo, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(nuevo, "clienteRepository", clienteRepository);
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn(5L, 6L);
+        when(rs.getString("nombres")).thenReturn("Luis", "Sofía");
+        when(rs.getString("apellido")).thenReturn("Rojas", "Núñez");
+        when(rs.getString("correo_electronico")).thenReturn("lrojas@example.com", "snunez@example.com");
+        when(rs.getString("numero_identificacion")).thenReturn("80111222", "1020304050");
+        doAnswer(invocacion -> {
+            RowCallbackHandler manejador = invocacion.getArgument(1);
+            manejador.processRow(rs);
+            manejador.processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+        nuevo.iniciar();
+
+        assertEquals(List.of(6L), ids(nuevo.buscar("nunez", 0, 20)));
+        MetricasBusqueda metricas = nuevo.obtenerMetricas();
+        assertEquals(2, metricas.clientesIndexados());
+        assertTrue(metricas.bytesEstimados() > 0);
+        assertTrue(metricas.entradas() > 0);
+    }
+
+    private void indexar(Long id, String nombres, String apellido, String correo, String documento) {
+        busquedaClienteService.indexar(id, BusquedaClienteService.textoIndexable(nombres, apellido, correo, documento));
+    }
+
+    private List<Long> ids(ResultadoBusqueda resultado) {
+        return resultado.clientes().stream().map(Cliente::getId).toList();
+    }
+}
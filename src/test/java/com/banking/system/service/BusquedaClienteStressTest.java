@@ -0,0 +1,178 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.Cliente;
+import com.banking.system.repository.ClienteRepository;
+import com.banking.system.service.BusquedaClienteService.MetricasBusqueda;
+import com.banking.system.service.BusquedaClienteService.ResultadoBusqueda;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Prueba de carga del índice de búsqueda de clientes en memoria. Genera
+ * clientes sintéticos (1M por defecto, -Dbanking.busqueda.clientes=5000000
+ * para la escala de producción), construye el índice como al arrancar y
+ * reporta en el log el tiempo de construcción, la memoria y la latencia del
+ * índice (p50/p99) de búsquedas típicas de los asesores.
+ */
+@DisplayName("Prueba de carga de BusquedaClienteService")
+class BusquedaClienteStressTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BusquedaClienteStressTest.class);
+
+    private static final int CLIENTES = Integer.getInteger("banking.busqueda.clientes", 1_000_000);
+    private static final int REPETICIONES = 200;
+
+    private static final String[] NOMBRES = {"Juan", "José", "Luis", "Carlos", "Andrés", "Jorge", "Diego", "Camilo",
+        "Santiago", "Sebastián", "Alejandro", "Felipe", "Daniel", "David", "Miguel", "Ricardo", "Óscar", "Julián",
+        "María", "Ana", "Luisa", "Carolina", "Paula", "Laura", "Natalia", "Valentina", "Daniela", "Sofía", "Camila",
+        "Andrea", "Diana", "Sandra", "Claudia", "Marcela", "Juliana", "Gloria", "Patricia", "Martha", "Ángela", "Lucía"};
+
+    private static final String[] APELLIDOS = {"Rodríguez", "Gómez", "González", "Martínez", "García", "López",
+        "Hernández", "Sánchez", "Ramírez", "Pérez", "Díaz", "Muñoz", "Rojas", "Moreno", "Jiménez", "Vargas", "Castro",
+        "Gutiérrez", "Álvarez", "Ruiz", "Ortiz", "Suárez", "Torres", "Romero", "Herrera", "Valencia", "Quintero",
+        "Restrepo", "Cárdenas", "Mejía", "Ospina", "Giraldo", "Zapata", "Osorio", "Arango", "Cardona", "Salazar",
+        "Ríos", "Agudelo", "Montoya", "Henao", "Londoño", "Marín", "Parra", "Mosquera", "Cortés", "Guerrero",
+        "Medina", "Castaño", "Bedoya", "Betancur", "Duque", "Escobar", "Franco", "Gallego", "Hoyos", "Isaza",
+        "Jaramillo", "Lozano", "Naranjo"};
+
+    private static final String[] DOMINIOS = {"gmail.com", "hotmail.com", "outlook.com", "yahoo.com", "banco.com.co"};
+
+    @Test
+    @DisplayName("Índice con clientes sintéticos - Construcción, memoria y latencia de búsqueda")
+    void testLatenciaBusqueda() {
+        String[][] filas = generar(CLIENTES, new Random(42));
+        String documentoBuscado = filas[CLIENTES / 2][4];
+
+        BusquedaClienteService busqueda = new BusquedaClienteService();
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        ClienteRepository clienteRepository = mock(ClienteRepository.class);
+        ReflectionTestUtils.setField(busqueda, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(busqueda, "clienteRepository", clienteRepository);
+        doAnswer(invocacion -> {
+            RowCallbackHandler manejador = invocacion.getArgument(1);
+            int[] fila = {0};
+            ResultSet rs = resultSet(filas, fila);
+            for (; fila[0] < filas.length; fila[0]++) {
+                manejador.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        when(clienteRepository.findAllById(anyIterable())).thenAnswer(invocacion -> {
+            List<Cliente> clientes = new ArrayList<>();
+            for (Object id : (Iterable<?>) invocacion.getArgument(0)) {
+                Cliente cliente = new Cliente();
+                cliente.setId((Long) id);
+                clientes.add(cliente);
+            }
+            return clientes;
+        });
+
+        long heapAntes = heapUsado();
+        long inicio = System.nanoTime();
+        busqueda.iniciar();
+        long construccionMs = (System.nanoTime() - inicio) / 1_000_000;
+        long heapIndice = heapUsado() - heapAntes;
+        MetricasBusqueda metricas = busqueda.obtenerMetricas();
+
+        log.info("Índice: {} clientes en {} ms, {} gramas, {} entradas, ~{} MB estimados ({} MB medidos en heap)",
+                metricas.clientesIndexados(), construccionMs, metricas.gramasUsados(), metricas.entradas(),
+                metricas.bytesEstimados() >> 20, heapIndice >> 20);
+        assertEquals(CLIENTES, metricas.clientesIndexados());
+
+        String[][] consultas = {
+            {"apellido común", "rodriguez"},
+            {"apellido parcial", "jarami"},
+            {"nombre y apellido", "maria gomez"},
+            {"dos apellidos", "lopez restrepo"},
+            {"nombre con prefijo", "sebas ca"},
+            {"correo", "valentina.suarez"},
+            {"documento parcial", documentoBuscado.substring(1, 8)},
+            {"documento completo", documentoBuscado},
+            {"página 20", "martinez"},
+            {"sin resultados", "xqzw"}
+        };
+        // Calentamiento del JIT
+        for (int i = 0; i < REPETICIONES; i++) {
+            for (String[] consulta : consultas) {
+                busqueda.buscar(consulta[1], 0, 20);
+            }
+        }
+        for (String[] consulta : consultas) {
+            int pagina = consulta[0].equals("página 20") ? 19 : 0;
+            long[] micros = new long[REPETICIONES];
+            ResultadoBusqueda resultado = null;
+            for (int i = 0; i < REPETICIONES; i++) {
+                resultado = busqueda.buscar(consulta[1], pagina, 20);
+                micros[i] = resultado.microsIndice();
+            }
+            Arrays.sort(micros);
+            log.info("{} (q={}): total={}  exacto={}  p50={} us  p99={} us", consulta[0], consulta[1],
+                    resultado.total(), resultado.totalExacto() ? "sí" : "no", micros[REPETICIONES / 2],
+                    micros[REPETICIONES * 99 / 100]);
+        }
+
+        // El documento completo encuentra al cliente en el primer lugar
+        ResultadoBusqueda porDocumento = busqueda.buscar(documentoBuscado, 0, 20);
+        assertEquals((long) CLIENTES / 2 + 1, porDocumento.clientes().get(0).getId());
+        assertEquals(0, busqueda.buscar("xqzw", 0, 20).total());
+    }
+
+    /**
+     * Filas id, nombres, apellido, correo, documento
+     */
+    private String[][] generar(int cantidad, Random aleatorio) {
+        String[][] filas = new String[cantidad][];
+        for (int i = 0; i < cantidad; i++) {
+            String nombre = NOMBRES[aleatorio.nextInt(NOMBRES.length)];
+            String nombres = aleatorio.nextInt(3) == 0 ? nombre + " " + NOMBRES[aleatorio.nextInt(NOMBRES.length)] : nombre;
+            String apellido1 = APELLIDOS[sesgado(aleatorio, APELLIDOS.length)];
+            String apellido2 = APELLIDOS[sesgado(aleatorio, APELLIDOS.length)];
+            String correo = BusquedaClienteService.normalizar(nombre).replace(' ', '.') + "."
+                    + BusquedaClienteService.normalizar(apellido1) + i + "@" + DOMINIOS[aleatorio.nextInt(DOMINIOS.length)];
+            String documento = String.valueOf(10_000_000L + (long) i * 997 + aleatorio.nextInt(997));
+            filas[i] = new String[] {String.valueOf(i + 1), nombres, apellido1 + " " + apellido2, correo, documento};
+        }
+        return filas;
+    }
+
+    /**
+     * Índice con sesgo hacia los primeros (los apellidos comunes son mucho más frecuentes)
+     */
+    private int sesgado(Random aleatorio, int limite) {
+        double u = aleatorio.nextDouble();
+        return (int) (limite * u * u);
+    }
+
+    private ResultSet resultSet(String[][] filas, int[] fila) {
+        List<String> columnas = List.of("id", "nombres", "apellido", "correo_electronico", "numero_identificacion");
+        return (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {ResultSet.class},
+                (proxy, metodo, argumentos) -> {
+                    String valor = filas[fila[0]][columnas.indexOf((String) argumentos[0])];
+                    return metodo.getName().equals("getLong") ? Long.parseLong(valor) : valor;
+                });
+    }
+
+    private long heapUsado() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
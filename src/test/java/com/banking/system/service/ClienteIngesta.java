@@ -0,0 +1,97 @@
+package com.banking.system.service;
+
+import com.banking.system.service.ProtocoloIngesta.Respuesta;
+import com.banking.system.service.ProtocoloIngesta.Solicitud;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cliente de loopback del protocolo de ingesta: envía todas las solicitudes
+ * sin esperar respuesta mientras otro hilo las va leyendo
+ */
+class ClienteIngesta implements AutoCloseable {
+
+    private final SocketChannel canal;
+
+    ClienteIngesta(int puerto) throws IOException {
+        canal = SocketChannel.open(new InetSocketAddress("127.0.0.1", puerto));
+        canal.setOption(StandardSocketOptions.TCP_NODELAY, true);
+    }
+
+    /**
+     * @return respuestas indexadas por correlación
+     */
+    Map<Long, Respuesta> enviarEnPipeline(List<Solicitud> solicitudes) throws Exception {
+        CompletableFuture<Map<Long, Respuesta>> lector = CompletableFuture.supplyAsync(() -> leer(solicitudes.size()));
+
+        ByteBuffer salida = ByteBuffer.allocate(16 * 1024);
+        for (Solicitud solicitud : solicitudes) {
+            if (salida.remaining() < ProtocoloIngesta.TAMANO_PREFIJO + ProtocoloIngesta.TAMANO_SOLICITUD) {
+                vaciar(salida);
+            }
+            ProtocoloIngesta.escribirSolicitud(salida, solicitud);
+        }
+        vaciar(salida);
+
+        return lector.get(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Envía bytes tal cual (para probar tramas inválidas)
+     */
+    void enviarCrudo(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            canal.write(bytes);
+        }
+    }
+
+    /**
+     * @return true si el servidor cerró la conexión
+     */
+    boolean cerradaPorServidor() throws IOException {
+        return canal.read(ByteBuffer.allocate(1)) < 0;
+    }
+
+    private void vaciar(ByteBuffer salida) throws IOException {
+        salida.flip();
+        while (salida.hasRemaining()) {
+            canal.write(salida);
+        }
+        salida.clear();
+    }
+
+    private Map<Long, Respuesta> leer(int esperadas) {
+        Map<Long, Respuesta> respuestas = new HashMap<>();
+        ByteBuffer entrada = ByteBuffer.allocate(64 * 1024);
+        try {
+            while (respuestas.size() < esperadas) {
+                if (canal.read(entrada) < 0) {
+                    throw new IOException("El servidor cerró la conexión");
+                }
+                entrada.flip();
+                Respuesta respuesta;
+                while ((respuesta = ProtocoloIngesta.leerRespuesta(entrada)) != null) {
+                    respuestas.put(respuesta.correlacion(), respuesta);
+                }
+                entrada.compact();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return respuestas;
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+}
@@ -10,15 +10,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDate;
-import java.util.Arrays;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -31,6 +37,9 @@ class ClienteServiceTest {
     
     @Mock
     private ClienteRepository clienteRepository;
+
+    @Mock
+    private BusquedaClienteService busquedaClienteService;
     
     @InjectMocks
     private ClienteService clienteService;
@@ -76,6 +85,7 @@ class ClienteServiceTest {
         assertEquals("Juan Carlos", resultado.getNombres());
         assertEquals("juan@example.com", resultado.getCorreoElectronico());
         verify(clienteRepository, times(1)).save(any(Cliente.class));
+        verify(busquedaClienteService).indexarAlConfirmar(clienteValido);
     }
     
     @Test
@@ -89,6 +99,7 @@ class ClienteServiceTest {
         
         assertTrue(exception.getMessage().contains("mayor de edad"));
         verify(clienteRepository, never()).save(any(Cliente.class));
+        verify(busquedaClienteService, never()).indexarAlConfirmar(any(Cliente.class));
     }
     
     @Test
@@ -156,19 +167,30 @@ class ClienteServiceTest {
     }
     
     @Test
-    @DisplayName("Obtener todos los clientes - Debe retornar lista")
-    void testObtenerTodosLosClientes() {
+    @DisplayName("Listar clientes con conteo - Debe retornar la página y el total")
+    @SuppressWarnings("unchecked")
+    void testListarClientes() {
         // Arrange
-        List<Cliente> clientes = Arrays.asList(clienteValido);
-        when(clienteRepository.findAll()).thenReturn(clientes);
+        PageRequest pagina = PageRequest.of(0, 20);
+        when(clienteRepository.findAll(any(Specification.class), eq(pagina)))
+                .thenReturn(new PageImpl<>(List.of(clienteValido), pagina, 1));
         
         // Act
-        List<Cliente> resultado = clienteService.obtenerTodosLosClientes();
+        Slice<Cliente> resultado = clienteService.listarClientes(
+                LocalDateTime.of(2026, 1, 1, 0, 0), null, pagina, true);
         
         // Assert
-        assertNotNull(resultado);
-        assertEquals(1, resultado.size());
-        assertEquals("Juan Carlos", resultado.get(0).getNombres());
+        assertEquals(1, resultado.getNumberOfElements());
+        assertEquals(1, ((Page<Cliente>) resultado).getTotalElements());
+        assertEquals("Juan Carlos", resultado.getContent().get(0).getNombres());
+    }
+    
+    @Test
+    @DisplayName("Listar clientes con fechas invertidas - Debe fallar")
+    void testListarClientesFechasInvertidas() {
+        assertThrows(IllegalArgumentException.class, () -> clienteService.listarClientes(
+                LocalDateTime.of(2026, 2, 1, 0, 0), LocalDateTime.of(2026, 1, 1, 0, 0), PageRequest.of(0, 20), false));
+        verifyNoInteractions(clienteRepository);
     }
     
     @Test
@@ -195,6 +217,7 @@ class ClienteServiceTest {
         assertNotNull(resultado);
         assertEquals("Pérez Martínez", resultado.getApellido());
         verify(clienteRepository, times(1)).save(any(Cliente.class));
+        verify(busquedaClienteService).indexarAlConfirmar(clienteActualizado);
     }
     
     @Test
@@ -209,6 +232,7 @@ class ClienteServiceTest {
         
         // Assert
         verify(clienteRepository, times(1)).delete(clienteValido);
+        verify(busquedaClienteService).quitarAlConfirmar(1L);
     }
     
     @Test
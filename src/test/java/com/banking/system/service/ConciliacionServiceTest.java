@@ -0,0 +1,242 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.Conciliacion;
+import com.banking.system.entity.Conciliacion.EstadoConciliacion;
+import com.banking.system.repository.ConciliacionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para ConciliacionService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de ConciliacionService")
+class ConciliacionServiceTest {
+
+    @Mock
+    private ConciliacionRepository conciliacionRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ArchivoTransaccionService archivoTransaccionService;
+
+    @InjectMocks
+    private ConciliacionService conciliacionService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(conciliacionService, "hilos", 2);
+        ReflectionTestUtils.setField(conciliacionService, "tamanoTramo", 1000);
+        ReflectionTestUtils.setField(conciliacionService, "maxDiscrepancias", 100);
+        conciliacionService.inicializar();
+
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lenient().when(conciliacionRepository.save(any(Conciliacion.class))).thenAnswer(invocation -> {
+            Conciliacion conciliacion = invocation.getArgument(0);
+            conciliacion.setId(1L);
+            return conciliacion;
+        });
+        lenient().when(jdbcTemplate.queryForMap(anyString())).thenReturn(Map.of("minimo", 1L, "maximo", 2L));
+    }
+
+    @AfterEach
+    void tearDown() {
+        conciliacionService.detener();
+    }
+
+    @Test
+    @DisplayName("Cadena y saldos correctos - Debe quedar conciliada")
+    void testConciliarSinDiscrepancias() throws Exception {
+        // Arrange: cuenta 1 con saldo 850 = 1000 - 200 + 50
+        simularSaldos(new Object[][]{{1L, "850.00"}, {2L, "300.00"}});
+        simularTransacciones(new Object[][]{
+            {1L, 10L, "CONSIGNACION", "1000.00", "1000.00"},
+            {1L, 11L, "RETIRO", "200.00", "800.00"},
+            {1L, 12L, "TRANSFERENCIA_RECIBIDA", "50.00", "850.00"}
+        });
+
+        // Act
+        Conciliacion resultado = conciliacionService.conciliar();
+
+        // Assert
+        assertEquals(EstadoConciliacion.CONCILIADA, resultado.getEstado());
+        assertEquals(2L, resultado.getCuentasRevisadas());
+        assertEquals(3L, resultado.getTransaccionesRevisadas());
+        assertEquals(0L, resultado.getDiscrepancias());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    @DisplayName("Cadena rota y saldo descuadrado - Debe reportar ambas discrepancias")
+    @SuppressWarnings("unchecked")
+    void testConciliarConDiscrepancias() throws Exception {
+        // Arrange: el GMF dejó un saldo posterior equivocado y la cuenta no cierra
+        simularSaldos(new Object[][]{{1L, "700.00"}});
+        simularTransacciones(new Object[][]{
+            {1L, 10L, "RETIRO", "100.00", "900.00"},
+            {1L, 11L, "GMF", "0.40", "899.00"}
+        });
+
+        // Act
+        Conciliacion resultado = conciliacionService.conciliar();
+
+        // Assert
+        assertEquals(EstadoConciliacion.CON_DISCREPANCIAS, resultado.getEstado());
+        assertEquals(2L, resultado.getDiscrepancias());
+        ArgumentCaptor<List<Object[]>> filas = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), filas.capture());
+        List<String> tipos = filas.getValue().stream().map(f -> (String) f[3]).sorted().toList();
+        assertEquals(List.of("CADENA_ROTA", "SALDO_DESCUADRADO"), tipos);
+    }
+
+    @Test
+    @DisplayName("Abonos en ranuras sin saldo posterior - La cadena sigue y cierra con las ranuras")
+    void testConciliarAbonosEnRanuras() throws Exception {
+        // Arrange: cuenta caliente; el saldo leído ya incluye sus ranuras
+        simularSaldos(new Object[][]{{1L, "1300.00"}});
+        simularTransacciones(new Object[][]{
+            {1L, 10L, "CONSIGNACION", "1000.00", "1000.00"},
+            {1L, 11L, "CONSIGNACION", "200.00", null},
+            {1L, 12L, "CONSIGNACION", "300.00", null},
+            {1L, 13L, "RETIRO", "200.00", "1300.00"}
+        });
+
+        // Act
+        Conciliacion resultado = conciliacionService.conciliar();
+
+        // Assert
+        assertEquals(EstadoConciliacion.CONCILIADA, resultado.getEstado());
+        assertEquals(4L, resultado.getTransaccionesRevisadas());
+        assertEquals(0L, resultado.getDiscrepancias());
+    }
+
+    @Test
+    @DisplayName("Primera transacción y cuenta sin transacciones - Deben verificarse contra la apertura")
+    @SuppressWarnings("unchecked")
+    void testConciliarDesdeApertura() throws Exception {
+        // Arrange: la cuenta 1 abrió con 1000 y su primer saldo posterior no
+        // lo refleja (la cadena sigue bien desde ahí); la 2 no tiene transacciones
+        LocalDateTime ayer = LocalDateTime.now().minusDays(1);
+        simularSaldos(new Object[][]{{1L, "1250.00", "1000.00", ayer}, {2L, "300.00", "250.00", ayer}});
+        simularTransacciones(new Object[][]{
+            {1L, 10L, "CONSIGNACION", "100.00", "1150.00"},
+            {1L, 11L, "CONSIGNACION", "100.00", "1250.00"}
+        });
+
+        // Act
+        Conciliacion resultado = conciliacionService.conciliar();
+
+        // Assert
+        assertEquals(EstadoConciliacion.CON_DISCREPANCIAS, resultado.getEstado());
+        assertEquals(2L, resultado.getDiscrepancias());
+        ArgumentCaptor<List<Object[]>> filas = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), filas.capture());
+        Map<Object, Object[]> porCuenta = filas.getValue().stream()
+                .collect(Collectors.toMap(f -> f[1], f -> f));
+        assertEquals("CADENA_ROTA", porCuenta.get(1L)[3]);
+        assertEquals(10L, porCuenta.get(1L)[2]);
+        assertEquals(0, new BigDecimal("1100.00").compareTo((BigDecimal) porCuenta.get(1L)[4]));
+        assertEquals(0, new BigDecimal("1150.00").compareTo((BigDecimal) porCuenta.get(1L)[5]));
+        assertEquals("SALDO_DESCUADRADO", porCuenta.get(2L)[3]);
+        assertEquals(0, new BigDecimal("250.00").compareTo((BigDecimal) porCuenta.get(2L)[4]));
+    }
+
+    @Test
+    @DisplayName("Meses archivados - Las cuentas anteriores al inicio en línea no se verifican desde la apertura")
+    void testConciliarConMesesArchivados() throws Exception {
+        // Arrange: la cuenta 1 abrió antes de los meses archivados; la 2 después
+        LocalDateTime inicioEnLinea = LocalDateTime.now().minusMonths(12);
+        when(archivoTransaccionService.hayArchivadosAntesDe(any())).thenReturn(true);
+        when(archivoTransaccionService.inicioDatosEnLinea()).thenReturn(inicioEnLinea);
+        simularSaldos(new Object[][]{
+            {1L, "900.00", "1000.00", inicioEnLinea.minusYears(1)},
+            {2L, "500.00", "400.00", inicioEnLinea.plusDays(1)}
+        });
+        simularTransacciones(new Object[][]{
+            {1L, 10L, "RETIRO", "100.00", "900.00"},
+            {2L, 20L, "CONSIGNACION", "100.00", "500.00"}
+        });
+
+        // Act
+        Conciliacion resultado = conciliacionService.conciliar();
+
+        // Assert
+        assertEquals(EstadoConciliacion.CONCILIADA, resultado.getEstado());
+        assertEquals(0L, resultado.getDiscrepancias());
+    }
+
+    @Test
+    @DisplayName("Conciliación en ejecución - Debe fallar")
+    void testConciliacionConcurrente() {
+        ReflectionTestUtils.setField(conciliacionService, "enEjecucion", new AtomicBoolean(true));
+
+        assertThrows(IllegalStateException.class, () -> conciliacionService.conciliar());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private void simularSaldos(Object[][] filas) throws Exception {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Object[] fila : filas) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getLong("id")).thenReturn((Long) fila[0]);
+                when(rs.getBigDecimal("saldo")).thenReturn(new BigDecimal((String) fila[1]));
+                if (fila.length > 2) {
+                    when(rs.getBigDecimal("saldo_apertura")).thenReturn(new BigDecimal((String) fila[2]));
+                    when(rs.getTimestamp("fecha_creacion")).thenReturn(Timestamp.valueOf((LocalDateTime) fila[3]));
+                }
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(contains("FROM cuentas"), any(RowCallbackHandler.class), eq(1L), eq(2L));
+    }
+
+    private void simularTransacciones(Object[][] filas) throws Exception {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Object[] fila : filas) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getLong("cuenta_origen_id")).thenReturn((Long) fila[0]);
+                when(rs.getLong("id")).thenReturn((Long) fila[1]);
+                when(rs.getString("tipo_transaccion")).thenReturn((String) fila[2]);
+                when(rs.getBigDecimal("monto")).thenReturn(new BigDecimal((String) fila[3]));
+                when(rs.getBigDecimal("saldo_posterior")).thenReturn(fila[4] != null ? new BigDecimal((String) fila[4]) : null);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(contains("FROM transacciones"), any(RowCallbackHandler.class), eq(1L), eq(2L));
+    }
+}
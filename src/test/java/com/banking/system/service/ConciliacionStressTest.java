@@ -0,0 +1,129 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.Conciliacion;
+import com.banking.system.entity.Conciliacion.EstadoConciliacion;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de carga de la conciliación sobre H2: siembra con SQL cuentas con
+ * historial que cuadra (2M de transacciones por defecto,
+ * -Dbanking.conciliacion.carga.transacciones para otra escala) y concilia
+ * con 1, 2, 4 y 8 hilos (-Dbanking.conciliacion.carga.hilos=1,2,4,...),
+ * tres veces cada uno. Reporta en el log las transacciones por segundo de la
+ * mejor corrida de cada cantidad de hilos y la
+ * aceleración respecto a un hilo, junto con los núcleos disponibles, que son
+ * el techo de esa aceleración.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:conciliacion-carga;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "spring.datasource.hikari.maximum-pool-size=20",
+    "banking.outbox.hilos=0",
+    "banking.conciliacion.timeout-tramo-segundos=300"
+})
+@DisplayName("Prueba de carga de ConciliacionService")
+class ConciliacionStressTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ConciliacionStressTest.class);
+
+    private static final int CUENTAS = Integer.getInteger("banking.conciliacion.carga.cuentas", 100_000);
+    private static final int TRANSACCIONES = Integer.getInteger("banking.conciliacion.carga.transacciones",
+            2_000_000) / CUENTAS * CUENTAS;
+    private static final int[] HILOS = Arrays.stream(System.getProperty("banking.conciliacion.carga.hilos", "1,2,4,8")
+            .split(",")).mapToInt(Integer::parseInt).toArray();
+    private static final int CLIENTES = Math.max(50, CUENTAS / 3);
+    private static final int TRAMO_SIEMBRA = 250_000;
+    private static final int REPETICIONES = 3;
+
+    @Autowired
+    private ConciliacionService conciliacionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Conciliación con más hilos - Transacciones por segundo y aceleración por hilo")
+    void testAceleracionPorHilos() {
+        // Arrange
+        sembrar();
+        // Una corrida sin medir calienta el JIT, si no el primer hilo sale más lento
+        assertEquals(EstadoConciliacion.CONCILIADA, conciliacionService.conciliar().getEstado());
+        int nucleos = Runtime.getRuntime().availableProcessors();
+        double base = 0;
+
+        try {
+            for (int hilos : HILOS) {
+                ReflectionTestUtils.setField(conciliacionService, "hilos", hilos);
+                conciliacionService.detener();
+                conciliacionService.inicializar();
+
+                Conciliacion mejor = null;
+                for (int i = 0; i < REPETICIONES; i++) {
+                    // Act
+                    Conciliacion conciliacion = conciliacionService.conciliar();
+
+                    // Assert: cada corrida revisa todo y cuadra
+                    assertEquals(EstadoConciliacion.CONCILIADA, conciliacion.getEstado());
+                    assertEquals(CUENTAS, conciliacion.getCuentasRevisadas());
+                    assertEquals(TRANSACCIONES, conciliacion.getTransaccionesRevisadas());
+                    if (mejor == null || conciliacion.getDuracionMs() < mejor.getDuracionMs()) {
+                        mejor = conciliacion;
+                    }
+                }
+
+                double porSegundo = mejor.getTransaccionesPorSegundo();
+                base = base == 0 ? porSegundo : base;
+                log.info("Conciliación: {} hilos ({} núcleos), {} transacciones en {} ms ({} tx/s), aceleración {}x",
+                        hilos, nucleos, mejor.getTransaccionesRevisadas(), mejor.getDuracionMs(),
+                        String.format("%.0f", porSegundo), String.format("%.2f", porSegundo / base));
+            }
+        } finally {
+            ReflectionTestUtils.setField(conciliacionService, "hilos", 0);
+            conciliacionService.detener();
+            conciliacionService.inicializar();
+        }
+    }
+
+    /**
+     * Consignaciones de 10 en orden de ID: la enésima de cada cuenta deja
+     * saldo 10 * n, y el saldo final es el de la última
+     */
+    private void sembrar() {
+        jdbcTemplate.update("INSERT INTO clientes (tipo_identificacion, numero_identificacion, nombres, apellido, "
+                + "correo_electronico, fecha_nacimiento, fecha_creacion) "
+                + "SELECT 'CC', CAST(50000000 + X AS VARCHAR), 'Cliente', 'Conciliacion', "
+                + "'conciliacion' || X || '@correo.com', DATE '1990-01-01', CURRENT_TIMESTAMP "
+                + "FROM SYSTEM_RANGE(1, ?) ORDER BY X", CLIENTES);
+        long primerCliente = jdbcTemplate.queryForObject("SELECT MIN(id) FROM clientes", Long.class);
+        jdbcTemplate.update("INSERT INTO cuentas (tipo_cuenta, numero_cuenta, estado, saldo, saldo_apertura, "
+                + "exenta_gmf, fecha_creacion, version, cliente_id) "
+                + "SELECT 'CUENTA_AHORRO', '53' || LPAD(CAST(X AS VARCHAR), 8, '0'), 'ACTIVA', ?, 0.00, TRUE, "
+                + "DATEADD(YEAR, -1, CURRENT_TIMESTAMP), 0, ? + MOD(X, ?) "
+                + "FROM SYSTEM_RANGE(1, ?) ORDER BY X", 10L * (TRANSACCIONES / CUENTAS), primerCliente, CLIENTES,
+                CUENTAS);
+        long primeraCuenta = jdbcTemplate.queryForObject("SELECT MIN(id) FROM cuentas", Long.class);
+
+        // Por tramos para no llenar el undo
+        for (int desde = 1; desde <= TRANSACCIONES; desde += TRAMO_SIEMBRA) {
+            jdbcTemplate.update("INSERT INTO transacciones (tipo_transaccion, monto, fecha_transaccion, "
+                    + "cuenta_origen_id, saldo_posterior) "
+                    + "SELECT 'CONSIGNACION', 10.00, CURRENT_TIMESTAMP, ? + MOD(X - 1, ?), 10.00 * ((X - 1) / ? + 1) "
+                    + "FROM SYSTEM_RANGE(?, ?) ORDER BY X",
+                    primeraCuenta, CUENTAS, CUENTAS, desde, Math.min(TRANSACCIONES, desde + TRAMO_SIEMBRA - 1));
+        }
+    }
+}
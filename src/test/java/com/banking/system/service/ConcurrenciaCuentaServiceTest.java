@@ -0,0 +1,85 @@
+package com.banking.system.service;
+
+import com.banking.system.service.ConcurrenciaCuentaService.MetricasConcurrencia;
+import com.banking.system.service.ConcurrenciaCuentaService.ModoConcurrencia;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para ConcurrenciaCuentaService
+ */
+@DisplayName("Tests de ConcurrenciaCuentaService")
+class ConcurrenciaCuentaServiceTest {
+
+    private ConcurrenciaCuentaService concurrenciaCuentaService;
+
+    @BeforeEach
+    void setUp() {
+        concurrenciaCuentaService = new ConcurrenciaCuentaService();
+        ReflectionTestUtils.setField(concurrenciaCuentaService, "modo", ModoConcurrencia.OPTIMISTA);
+        ReflectionTestUtils.setField(concurrenciaCuentaService, "maxIntentos", 3);
+        ReflectionTestUtils.setField(concurrenciaCuentaService, "esperaBaseMs", 1L);
+        ReflectionTestUtils.setField(concurrenciaCuentaService, "esperaMaximaMs", 5L);
+    }
+
+    @Test
+    @DisplayName("Conflicto de versión - Debe reintentar hasta que el movimiento pase")
+    void testReintentaConflicto() {
+        // Arrange: los dos primeros intentos pierden el conflicto
+        AtomicInteger intentos = new AtomicInteger();
+
+        // Act
+        String resultado = concurrenciaCuentaService.ejecutar(() -> {
+            if (intentos.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException("Cuenta", 1L);
+            }
+            return "ok";
+        });
+
+        // Assert
+        assertEquals("ok", resultado);
+        assertEquals(3, intentos.get());
+        MetricasConcurrencia metricas = concurrenciaCuentaService.obtenerMetricas();
+        assertEquals(1, metricas.operaciones());
+        assertEquals(2, metricas.conflictos());
+        assertEquals(2, metricas.reintentos());
+        assertEquals(0, metricas.agotados());
+    }
+
+    @Test
+    @DisplayName("Conflictos en todos los intentos - Debe fallar con IllegalStateException")
+    void testAgotaIntentos() {
+        AtomicInteger intentos = new AtomicInteger();
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> concurrenciaCuentaService.ejecutar(() -> {
+                    intentos.incrementAndGet();
+                    throw new ObjectOptimisticLockingFailureException("Cuenta", 1L);
+                }));
+
+        assertTrue(exception.getMessage().contains("simultáneos"));
+        assertEquals(3, intentos.get());
+        assertEquals(1, concurrenciaCuentaService.obtenerMetricas().agotados());
+    }
+
+    @Test
+    @DisplayName("Error de negocio - No debe reintentar")
+    void testNoReintentaErrorDeNegocio() {
+        AtomicInteger intentos = new AtomicInteger();
+
+        assertThrows(IllegalArgumentException.class, () -> concurrenciaCuentaService.ejecutar(() -> {
+            intentos.incrementAndGet();
+            throw new IllegalArgumentException("Saldo insuficiente");
+        }));
+
+        assertEquals(1, intentos.get());
+        assertEquals(0, concurrenciaCuentaService.obtenerMetricas().conflictos());
+    }
+}
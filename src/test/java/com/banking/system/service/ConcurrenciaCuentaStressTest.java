@@ -0,0 +1,173 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.Cliente;
+import com.banking.system.entity.Cuenta;
+import com.banking.system.entity.Cuenta.TipoCuenta;
+import com.banking.system.repository.CuentaRepository;
+import com.banking.system.service.ConcurrenciaCuentaService.MetricasConcurrencia;
+import com.banking.system.service.ConcurrenciaCuentaService.ModoConcurrencia;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de carga de los modos de concurrencia sobre H2: varios hilos
+ * consignan a la vez en 1 cuenta (todo el tráfico en una cuenta caliente) o
+ * repartidos en 20. Reporta en el log throughput, p99 y conflictos de cada
+ * combinación y verifica que no se pierda ninguna actualización de saldo.
+ */
+// Sin MODE=MySQL: en ese modo H2 repite IDs de columnas IDENTITY con
+// inserciones concurrentes y rollbacks
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:concurrencia;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "banking.concurrencia.max-intentos=20"
+})
+@DisplayName("Prueba de carga de ConcurrenciaCuentaService")
+class ConcurrenciaCuentaStressTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrenciaCuentaStressTest.class);
+
+    private static final int HILOS = 8;
+    private static final int OPERACIONES_POR_HILO = 50;
+    private static final BigDecimal MONTO = new BigDecimal("1.00");
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private CuentaService cuentaService;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private TransaccionService transaccionService;
+
+    @Autowired
+    private ConcurrenciaCuentaService concurrenciaCuentaService;
+
+    private record Resultado(long exitosas, long fallidas, double porSegundo, double p99Ms) {
+    }
+
+    @Test
+    @DisplayName("Optimista vs pesimista con cuenta caliente y tráfico repartido - Sin actualizaciones perdidas")
+    void testCompararModos() throws Exception {
+        List<Long> cuentas = crearCuentas(20);
+
+        for (ModoConcurrencia modo : ModoConcurrencia.values()) {
+            for (int calientes : new int[]{1, cuentas.size()}) {
+                // Arrange
+                ReflectionTestUtils.setField(concurrenciaCuentaService, "modo", modo);
+                List<Long> destino = cuentas.subList(0, calientes);
+                BigDecimal saldoAntes = saldoTotal(destino);
+                MetricasConcurrencia antes = concurrenciaCuentaService.obtenerMetricas();
+
+                // Act
+                Resultado resultado = consignarEnParalelo(destino);
+
+                // Assert: cada consignación confirmada quedó en el saldo
+                MetricasConcurrencia despues = concurrenciaCuentaService.obtenerMetricas();
+                log.info("{} cuentas={}  {} op/s  p99={} ms  conflictos={}  fallidas={}",
+                        modo, calientes, String.format("%.0f", resultado.porSegundo()),
+                        String.format("%.1f", resultado.p99Ms()), despues.conflictos() - antes.conflictos(),
+                        resultado.fallidas());
+                assertEquals(saldoAntes.add(MONTO.multiply(BigDecimal.valueOf(resultado.exitosas()))),
+                        saldoTotal(destino));
+                assertEquals(HILOS * OPERACIONES_POR_HILO, resultado.exitosas() + resultado.fallidas());
+                if (modo == ModoConcurrencia.PESIMISTA) {
+                    assertEquals(0, despues.conflictos() - antes.conflictos());
+                }
+            }
+        }
+    }
+
+    private Resultado consignarEnParalelo(List<Long> cuentas) throws Exception {
+        ExecutorService ejecutor = Executors.newFixedThreadPool(HILOS);
+        List<Future<long[]>> tareas = new ArrayList<>();
+        long inicio = System.nanoTime();
+        for (int h = 0; h < HILOS; h++) {
+            tareas.add(ejecutor.submit(() -> {
+                // Latencia en nanos de cada consignación; -1 si falló
+                long[] latencias = new long[OPERACIONES_POR_HILO];
+                for (int i = 0; i < OPERACIONES_POR_HILO; i++) {
+                    Long cuentaId = cuentas.get(ThreadLocalRandom.current().nextInt(cuentas.size()));
+                    long t0 = System.nanoTime();
+                    try {
+                        concurrenciaCuentaService.ejecutar(
+                                () -> transaccionService.realizarConsignacion(cuentaId, MONTO, null));
+                        latencias[i] = System.nanoTime() - t0;
+                    } catch (IllegalStateException e) {
+                        latencias[i] = -1;
+                    }
+                }
+                return latencias;
+            }));
+        }
+
+        List<Long> exitosas = new ArrayList<>();
+        long fallidas = 0;
+        for (Future<long[]> tarea : tareas) {
+            for (long latencia : tarea.get()) {
+                if (latencia < 0) {
+                    fallidas++;
+                } else {
+                    exitosas.add(latencia);
+                }
+            }
+        }
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+        ejecutor.shutdown();
+
+        long[] ordenadas = exitosas.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(ordenadas);
+        double p99Ms = ordenadas.length > 0 ? ordenadas[(int) Math.ceil(ordenadas.length * 0.99) - 1] / 1_000_000.0 : 0;
+        return new Resultado(ordenadas.length, fallidas, ordenadas.length / segundos, p99Ms);
+    }
+
+    private List<Long> crearCuentas(int cantidad) {
+        Cliente cliente = new Cliente();
+        cliente.setTipoIdentificacion("CC");
+        cliente.setNumeroIdentificacion("700100");
+        cliente.setNombres("Carga");
+        cliente.setApellido("Concurrente");
+        cliente.setCorreoElectronico("carga@correo.com");
+        cliente.setFechaNacimiento(LocalDate.of(1990, 1, 1));
+        Long clienteId = clienteService.crearCliente(cliente).getId();
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            Cuenta cuenta = new Cuenta();
+            cuenta.setTipoCuenta(TipoCuenta.CUENTA_CORRIENTE);
+            cuenta.setSaldo(BigDecimal.ZERO);
+            cuenta.setExentaGMF(true);
+            ids.add(cuentaService.crearCuenta(cuenta, clienteId).getId());
+        }
+        return ids;
+    }
+
+    private BigDecimal saldoTotal(List<Long> cuentas) {
+        return cuentaRepository.findAllById(cuentas).stream()
+                .map(Cuenta::getSaldo)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
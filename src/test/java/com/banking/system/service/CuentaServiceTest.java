@@ -11,6 +11,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -36,6 +37,15 @@ class CuentaServiceTest {
     
     @Mock
     private ClienteRepository clienteRepository;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private RankingCuentasService rankingCuentasService;
+
+    @Mock
+    private SubsaldoCuentaService subsaldoCuentaService;
     
     @InjectMocks
     private CuentaService cuentaService;
@@ -183,6 +193,25 @@ class CuentaServiceTest {
         verify(cuentaRepository, never()).save(any(Cuenta.class));
     }
     
+    @Test
+    @DisplayName("Cancelar cuenta caliente - Debe quitar las ranuras antes de cargar la cuenta")
+    void testCancelarCuentaCaliente() {
+        // Arrange
+        cuentaAhorro.setSaldo(BigDecimal.ZERO);
+        when(subsaldoCuentaService.esCaliente(1L)).thenReturn(true);
+        when(cuentaRepository.findById(1L)).thenReturn(Optional.of(cuentaAhorro));
+        when(cuentaRepository.save(any(Cuenta.class))).thenReturn(cuentaAhorro);
+
+        // Act
+        cuentaService.cancelarCuenta(1L);
+
+        // Assert
+        InOrder orden = inOrder(subsaldoCuentaService, cuentaRepository);
+        orden.verify(subsaldoCuentaService).quitarRanuras(1L);
+        orden.verify(cuentaRepository).findById(1L);
+        assertEquals(EstadoCuenta.CANCELADA, cuentaAhorro.getEstado());
+    }
+
     @Test
     @DisplayName("Obtener cuenta por ID - Debe retornar cuenta")
     void testObtenerCuentaPorId() {
@@ -225,5 +254,6 @@ class CuentaServiceTest {
         // Assert
         assertNotNull(resultado);
         verify(cuentaRepository, times(1)).save(any(Cuenta.class));
+        verify(outboxService, times(1)).registrarCambioEstado(cuentaAhorro);
     }
 }
\ No newline at end of file
@@ -0,0 +1,222 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.Cliente;
+import com.banking.system.entity.Cuenta;
+import com.banking.system.entity.Cuenta.EstadoCuenta;
+import com.banking.system.entity.Cuenta.TipoCuenta;
+import com.banking.system.entity.EventoOutbox;
+import com.banking.system.entity.VistaCuenta;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del despacho del outbox con transacciones reales sobre H2: un
+ * listener transaccional que falla no debe impedir que el lote confirme ni
+ * que el evento sume intentos hasta quedar FALLIDO, y los cambios hechos por
+ * fuera de la API deben llegar a las vistas
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:despacho-outbox;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "banking.outbox.hilos=0",
+    "banking.outbox.max-intentos=3"
+})
+@DisplayName("Tests de integración de DespachoOutboxService")
+class DespachoOutboxIntegracionTest {
+
+    private static final String SQL_EVENTO = "INSERT INTO eventos_outbox (tipo_evento, cuenta_id, monto, detalle, "
+            + "estado, intentos, fecha_creacion) VALUES ('TRANSACCION_REGISTRADA', ?, 10.00, ?, 'PENDIENTE', 0, "
+            + "CURRENT_TIMESTAMP)";
+
+    @Autowired
+    private DespachoOutboxService despachoOutboxService;
+
+    @Autowired
+    private VistaCuentaService vistaCuentaService;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private CuentaService cuentaService;
+
+    @Autowired
+    private TransaccionService transaccionService;
+
+    @Autowired
+    private InactividadService inactividadService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ListenerContable listenerContable;
+
+    @TestConfiguration
+    static class Configuracion {
+
+        @Bean
+        ListenerContable listenerContable() {
+            return new ListenerContable();
+        }
+    }
+
+    /**
+     * Listener transaccional que escribe en la BD y luego falla con los
+     * eventos de la cuenta indicada
+     */
+    @Transactional
+    static class ListenerContable implements OutboxListener {
+
+        @Autowired
+        private JdbcTemplate jdbcTemplate;
+
+        private volatile Long cuentaQueFalla;
+
+        void fallarCon(Long cuentaId) {
+            cuentaQueFalla = cuentaId;
+        }
+
+        @Override
+        public void alPublicar(EventoOutbox evento) {
+            if (!evento.getCuentaId().equals(cuentaQueFalla)) {
+                return;
+            }
+            jdbcTemplate.update("UPDATE cuentas SET saldo = saldo + 1 WHERE id = ?", evento.getCuentaId());
+            throw new IllegalStateException("Contabilidad no disponible");
+        }
+    }
+
+    @Test
+    @DisplayName("Listener transaccional que falla - Deshace lo suyo, el lote confirma y el evento llega a FALLIDO")
+    void testListenerTransaccionalQueFalla() {
+        // Arrange
+        Long cuentaId = crearCuenta("800200");
+        despacharTodo();
+        listenerContable.fallarCon(cuentaId);
+        transaccionService.realizarConsignacion(cuentaId, new BigDecimal("40.00"), null);
+        Long eventoId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM eventos_outbox", Long.class);
+
+        // Act: cada intento se confirma aunque el listener falle
+        for (int intento = 1; intento <= 3; intento++) {
+            despachoOutboxService.despacharLote();
+            assertEquals(Map.of("ESTADO", intento < 3 ? "PENDIENTE" : "FALLIDO", "INTENTOS", intento),
+                    estado(eventoId));
+            // El siguiente intento espera su retraso
+            assertEquals(0, despachoOutboxService.despacharLote());
+            vencerReintentos();
+        }
+
+        // Assert: el asiento del listener se deshizo cada vez
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT saldo FROM cuentas WHERE id = ?", BigDecimal.class,
+                cuentaId).compareTo(new BigDecimal("1040.00")));
+        assertEquals(0, despachoOutboxService.despacharLote());
+        listenerContable.fallarCon(null);
+    }
+
+    @Test
+    @DisplayName("Evento que hace fallar a VistaCuentaService - Los demás se entregan y el evento llega a FALLIDO")
+    void testEventoVenenosoEnVistaCuenta() {
+        // Arrange: el tipo de transacción inválido hace fallar al listener
+        // después de bloquear la vista, dentro de su transacción
+        Long cuentaId = crearCuenta("800100");
+        despacharTodo();
+        Long venenoso = insertarEvento(cuentaId, "DESCONOCIDO");
+        transaccionService.realizarConsignacion(cuentaId, new BigDecimal("250.00"), null);
+
+        // Act
+        despachoOutboxService.despacharLote();
+
+        // Assert: el lote confirmó, la consignación llegó a la vista y el evento sumó un intento
+        VistaCuenta vista = vistaCuentaService.obtenerVista(cuentaId);
+        assertEquals(0, new BigDecimal("1250.00").compareTo(vista.getSaldo()));
+        assertEquals(Map.of("ESTADO", "PENDIENTE", "INTENTOS", 1), estado(venenoso));
+        assertEquals(0L, pendientesSalvo(venenoso));
+
+        vencerReintentos();
+        despachoOutboxService.despacharLote();
+        vencerReintentos();
+        despachoOutboxService.despacharLote();
+        assertEquals(Map.of("ESTADO", "FALLIDO", "INTENTOS", 3), estado(venenoso));
+        assertEquals(0, despachoOutboxService.despacharLote());
+    }
+
+    @Test
+    @DisplayName("Barrido de inactividad - La vista de la cuenta inactivada queda INACTIVA")
+    void testInactividadLlegaALaVista() {
+        // Arrange: una cuenta creada hace dos años y sin movimientos
+        Long cuentaId = crearCuenta("800300");
+        jdbcTemplate.update("UPDATE cuentas SET fecha_creacion = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusYears(2)), cuentaId);
+        despacharTodo();
+        assertEquals(EstadoCuenta.ACTIVA, vistaCuentaService.obtenerVista(cuentaId).getEstado());
+
+        // Act
+        assertEquals(1L, inactividadService.inactivarCuentasSinMovimientos(365).cuentasInactivadas());
+        despacharTodo();
+
+        // Assert
+        VistaCuenta vista = vistaCuentaService.obtenerVista(cuentaId);
+        assertEquals(EstadoCuenta.INACTIVA, vista.getEstado());
+        assertEquals(0, new BigDecimal("1000.00").compareTo(vista.getSaldo()));
+    }
+
+    private Long crearCuenta(String identificacion) {
+        Cliente cliente = new Cliente();
+        cliente.setTipoIdentificacion("CC");
+        cliente.setNumeroIdentificacion(identificacion);
+        cliente.setNombres("Outbox");
+        cliente.setApellido("Despacho");
+        cliente.setCorreoElectronico("outbox" + identificacion + "@correo.com");
+        cliente.setFechaNacimiento(LocalDate.of(1990, 1, 1));
+        Long clienteId = clienteService.crearCliente(cliente).getId();
+
+        Cuenta cuenta = new Cuenta();
+        cuenta.setTipoCuenta(TipoCuenta.CUENTA_AHORRO);
+        cuenta.setSaldo(new BigDecimal("1000.00"));
+        cuenta.setExentaGMF(true);
+        return cuentaService.crearCuenta(cuenta, clienteId).getId();
+    }
+
+    private Long insertarEvento(Long cuentaId, String detalle) {
+        jdbcTemplate.update(SQL_EVENTO, cuentaId, detalle);
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM eventos_outbox", Long.class);
+    }
+
+    private void despacharTodo() {
+        while (despachoOutboxService.despacharLote() > 0) {
+            // Drena lo que dejaron las pruebas anteriores
+        }
+    }
+
+    // Adelanta el reloj de los reintentos pendientes
+    private void vencerReintentos() {
+        jdbcTemplate.update("UPDATE eventos_outbox SET proximo_intento = NULL WHERE estado = 'PENDIENTE'");
+    }
+
+    private Map<String, Object> estado(Long eventoId) {
+        return jdbcTemplate.queryForMap("SELECT estado, intentos FROM eventos_outbox WHERE id = ?", eventoId);
+    }
+
+    private long pendientesSalvo(Long eventoId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM eventos_outbox WHERE estado = 'PENDIENTE' "
+                + "AND id <> ?", Long.class, eventoId);
+    }
+}
@@ -0,0 +1,196 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.EventoOutbox;
+import com.banking.system.entity.EventoOutbox.EstadoEvento;
+import com.banking.system.repository.EventoOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para DespachoOutboxService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de DespachoOutboxService")
+class DespachoOutboxServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EventoOutboxRepository eventoOutboxRepository;
+
+    @InjectMocks
+    private DespachoOutboxService despachoOutboxService;
+
+    private final List<EventoOutbox> recibidos = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(despachoOutboxService, "listenersIniciales", Collections.emptyList());
+        ReflectionTestUtils.setField(despachoOutboxService, "hilos", 0);
+        ReflectionTestUtils.setField(despachoOutboxService, "tamanoLote", 100);
+        ReflectionTestUtils.setField(despachoOutboxService, "maxIntentos", 3);
+        ReflectionTestUtils.setField(despachoOutboxService, "reintentoBaseMs", 1000L);
+        ReflectionTestUtils.setField(despachoOutboxService, "reintentoMaxMs", 300_000L);
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        despachoOutboxService.iniciar();
+    }
+
+    @Test
+    @DisplayName("Despachar lote - Debe publicar y marcar entregados en un solo UPDATE")
+    void testDespacharLote() throws Exception {
+        // Arrange
+        despachoOutboxService.registrarListener(recibidos::add);
+        simularLote(10L, 11L);
+
+        // Act
+        int procesados = despachoOutboxService.despacharLote();
+
+        // Assert
+        assertEquals(2, procesados);
+        assertEquals(2, recibidos.size());
+        assertEquals(10L, recibidos.get(0).getId());
+        verify(jdbcTemplate, times(1)).update(contains("IN (?,?)"), any(Object[].class));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        assertEquals(2L, despachoOutboxService.obtenerMetricas().eventosDespachados());
+    }
+
+    @Test
+    @DisplayName("Listener que falla - Debe registrar el intento y no marcar entregado")
+    void testDespacharLoteConFallo() throws Exception {
+        // Arrange
+        despachoOutboxService.registrarListener(evento -> {
+            throw new IllegalStateException("Destino no disponible");
+        });
+        simularLote(20L);
+
+        // Act
+        despachoOutboxService.despacharLote();
+
+        // Assert
+        verify(jdbcTemplate, never()).update(contains("ENTREGADO"), any(Object[].class));
+        verify(jdbcTemplate, times(1)).batchUpdate(contains("intentos = intentos + 1"), anyList());
+        assertEquals(1L, despachoOutboxService.obtenerMetricas().eventosFallidos());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Listener que falla - El próximo intento se retrasa según los intentos previos")
+    void testReintentoConRetrasoExponencial() throws Exception {
+        // Arrange
+        despachoOutboxService.registrarListener(evento -> {
+            throw new IllegalStateException("Destino no disponible");
+        });
+        simularLote(25L);
+        LocalDateTime antes = LocalDateTime.now();
+
+        // Act
+        despachoOutboxService.despacharLote();
+
+        // Assert: primer fallo, 1 s; luego se duplica hasta el máximo
+        ArgumentCaptor<List<Object[]>> fallidos = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(contains("proximo_intento = ?"), fallidos.capture());
+        Object[] fila = fallidos.getValue().get(0);
+        assertEquals(25L, fila[2]);
+        LocalDateTime proximo = ((Timestamp) fila[1]).toLocalDateTime();
+        assertFalse(proximo.isBefore(antes.plusSeconds(1)));
+        assertTrue(proximo.isBefore(LocalDateTime.now().plusSeconds(2)));
+        assertEquals(Duration.ofSeconds(8), despachoOutboxService.retrasoReintento(3));
+        assertEquals(Duration.ofMinutes(5), despachoOutboxService.retrasoReintento(9));
+        assertEquals(Duration.ofMinutes(5), despachoOutboxService.retrasoReintento(60));
+    }
+
+    @Test
+    @DisplayName("Listener - Debe correr en una transacción nueva por evento, aparte de la del lote")
+    void testListenerEnTransaccionPropia() throws Exception {
+        // Arrange
+        despachoOutboxService.registrarListener(recibidos::add);
+        simularLote(30L, 31L);
+
+        // Act
+        despachoOutboxService.despacharLote();
+
+        // Assert: una transacción del lote y una REQUIRES_NEW por evento
+        verify(transactionManager, times(1)).getTransaction(argThat(definicion ->
+                definicion.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRED));
+        verify(transactionManager, times(2)).getTransaction(argThat(definicion ->
+                definicion.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    @DisplayName("Outbox vacío - No debe hacer UPDATE")
+    void testDespacharLoteVacio() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(), eq(100))).thenReturn(List.of());
+
+        assertEquals(0, despachoOutboxService.despacharLote());
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Métricas - Debe reportar pendientes y su retraso")
+    void testObtenerMetricas() {
+        when(eventoOutboxRepository.countByEstado(EstadoEvento.PENDIENTE)).thenReturn(7L);
+        when(eventoOutboxRepository.findFechaCreacionMasAntiguaByEstado(EstadoEvento.PENDIENTE))
+                .thenReturn(LocalDateTime.now().minusSeconds(5));
+
+        DespachoOutboxService.MetricasOutbox metricas = despachoOutboxService.obtenerMetricas();
+
+        assertEquals(7L, metricas.eventosPendientes());
+        assertTrue(metricas.retrasoPendienteMs() >= 5000);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void simularLote(Long... ids) throws Exception {
+        List<EventoOutbox> lote = new ArrayList<>();
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(), eq(100))).thenAnswer(invocation -> {
+            RowMapper<EventoOutbox> mapper = invocation.getArgument(1);
+            for (int i = 0; i < ids.length; i++) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getString("tipo_evento")).thenReturn("TRANSACCION_REGISTRADA");
+                when(rs.getLong("cuenta_id")).thenReturn(1L);
+                when(rs.getObject("transaccion_id", Long.class)).thenReturn(100L + i);
+                when(rs.getBigDecimal("monto")).thenReturn(new BigDecimal("1000.00"));
+                when(rs.getBigDecimal("saldo")).thenReturn(new BigDecimal("5000.00"));
+                when(rs.getString("detalle")).thenReturn("CONSIGNACION");
+                when(rs.getLong("id")).thenReturn(ids[i]);
+                when(rs.getInt("intentos")).thenReturn(0);
+                when(rs.getTimestamp("fecha_creacion")).thenReturn(Timestamp.valueOf(LocalDateTime.now()));
+                lote.add(mapper.mapRow(rs, i));
+            }
+            return lote;
+        });
+    }
+}
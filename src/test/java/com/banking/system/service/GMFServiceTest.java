@@ -0,0 +1,119 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.Cliente;
+import com.banking.system.entity.Cuenta;
+import com.banking.system.entity.Cuenta.EstadoCuenta;
+import com.banking.system.entity.Cuenta.TipoCuenta;
+import com.banking.system.entity.ExencionGMF;
+import com.banking.system.repository.ExencionGMFRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para GMFService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de GMFService")
+class GMFServiceTest {
+
+    @Mock
+    private ExencionGMFRepository exencionGMFRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private GMFService gmfService;
+
+    private Cuenta cuenta;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(gmfService, "tasa", new BigDecimal("0.004"));
+        ReflectionTestUtils.setField(gmfService, "topeExentoMensual", new BigDecimal("1000000"));
+        ReflectionTestUtils.setField(gmfService, "tamanoLote", 500);
+
+        Cliente cliente = new Cliente();
+        cliente.setId(1L);
+
+        cuenta = new Cuenta();
+        cuenta.setId(1L);
+        cuenta.setTipoCuenta(TipoCuenta.CUENTA_AHORRO);
+        cuenta.setEstado(EstadoCuenta.ACTIVA);
+        cuenta.setSaldo(new BigDecimal("5000000"));
+        cuenta.setCliente(cliente);
+    }
+
+    @Test
+    @DisplayName("Cuenta no exenta - Debe cobrar 4x1000 sobre todo el monto")
+    void testCuentaNoExenta() {
+        cuenta.setExentaGMF(false);
+
+        BigDecimal gmf = gmfService.calcularGMF(cuenta, new BigDecimal("100000"));
+
+        assertEquals(new BigDecimal("400.00"), gmf);
+        verifyNoInteractions(exencionGMFRepository);
+    }
+
+    @Test
+    @DisplayName("Cuenta exenta bajo el tope - No debe cobrar GMF")
+    void testCuentaExentaBajoTope() {
+        cuenta.setExentaGMF(true);
+        when(exencionGMFRepository.findById(any())).thenReturn(Optional.empty());
+
+        BigDecimal gmf = gmfService.calcularGMF(cuenta, new BigDecimal("600000"));
+
+        assertEquals(BigDecimal.ZERO, gmf);
+        assertEquals(new BigDecimal("600000.00"), gmfService.obtenerExencionUtilizada(1L));
+    }
+
+    @Test
+    @DisplayName("Cuenta exenta sobre el tope - Debe cobrar solo el excedente")
+    void testCuentaExentaSobreTope() {
+        cuenta.setExentaGMF(true);
+        when(exencionGMFRepository.findById(any()))
+                .thenReturn(Optional.of(new ExencionGMF(1L, 202610, new BigDecimal("900000"))));
+
+        BigDecimal gmf = gmfService.calcularGMF(cuenta, new BigDecimal("300000"));
+
+        // 100.000 exentos, 200.000 gravados
+        assertEquals(new BigDecimal("800.00"), gmf);
+        // El contador se carga una sola vez de la BD
+        gmfService.calcularGMF(cuenta, new BigDecimal("1000"));
+        verify(exencionGMFRepository, times(1)).findById(any());
+    }
+
+    @Test
+    @DisplayName("Volcar contadores - Debe hacer UPDATE por lote e INSERT de los nuevos")
+    void testVolcarContadores() {
+        cuenta.setExentaGMF(true);
+        when(exencionGMFRepository.findById(any())).thenReturn(Optional.empty());
+        when(jdbcTemplate.batchUpdate(any(String.class), anyList())).thenReturn(new int[]{0});
+        gmfService.calcularGMF(cuenta, new BigDecimal("50000"));
+
+        gmfService.volcarContadores();
+
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE"), anyList());
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT"), anyList());
+
+        // Sin cambios nuevos no debe volver a escribir
+        gmfService.volcarContadores();
+        verify(jdbcTemplate, times(2)).batchUpdate(any(String.class), anyList());
+    }
+}
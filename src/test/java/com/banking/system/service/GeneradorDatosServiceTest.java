@@ -0,0 +1,215 @@
+package com.banking.system.service;
+
+import com.banking.system.service.GeneradorDatosService.Archivo;
+import com.banking.system.service.GeneradorDatosService.Configuracion;
+import com.banking.system.service.GeneradorDatosService.Generador;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios del generador de GeneradorDatosService (sin BD: los CSV
+ * se escriben en memoria)
+ */
+@DisplayName("Tests de GeneradorDatosService")
+class GeneradorDatosServiceTest {
+
+    private static final LocalDate INICIO = LocalDate.of(2025, 1, 1);
+
+    @Test
+    @DisplayName("Misma semilla - Debe generar exactamente los mismos archivos")
+    void testDeterministaConSemilla() throws IOException {
+        Map<String, String> primera = generar(configuracion(7L, "CONSIGNACION:40,RETIRO:30,"
+                + "TRANSFERENCIA_ENVIADA:25,INTERES:5", 18));
+        Map<String, String> segunda = generar(configuracion(7L, "CONSIGNACION:40,RETIRO:30,"
+                + "TRANSFERENCIA_ENVIADA:25,INTERES:5", 18));
+        Map<String, String> otra = generar(configuracion(8L, "CONSIGNACION:40,RETIRO:30,"
+                + "TRANSFERENCIA_ENVIADA:25,INTERES:5", 18));
+
+        assertEquals(primera, segunda);
+        assertNotEquals(primera.get("transacciones-0001.csv"), otra.get("transacciones-0001.csv"));
+        // 20.000 filas en partes de 5.000
+        assertEquals(List.of("clientes.csv", "cuentas.csv", "transacciones-0001.csv", "transacciones-0002.csv",
+                "transacciones-0003.csv", "transacciones-0004.csv"), List.copyOf(primera.keySet()));
+    }
+
+    @Test
+    @DisplayName("Transacciones - Saldo posterior encadenado, sin saldos negativos y saldo final de la cuenta")
+    void testCadenasDeSaldo() throws IOException {
+        Map<String, String> archivos = generar(configuracion(11L, "CONSIGNACION:30,RETIRO:35,"
+                + "TRANSFERENCIA_ENVIADA:30,INTERES:5", 18));
+
+        // Saldo final, movimientos y saldo de apertura de cada cuenta
+        Map<Long, long[]> cuentas = new HashMap<>();
+        for (String[] cuenta : filas(archivos.get("cuentas.csv"))) {
+            cuentas.put(Long.parseLong(cuenta[0]), new long[]{centavos(cuenta[4]), Long.parseLong(cuenta[9]),
+                    centavos(cuenta[11])});
+        }
+        Map<Long, Long> saldos = new HashMap<>();
+        Map<Long, Integer> movimientos = new HashMap<>();
+        Set<String> intereses = new HashSet<>();
+        long id = 0;
+        int gmf = 0;
+        int recibidas = 0;
+        String[] anterior = null;
+        for (String parte : archivos.keySet().stream().filter(n -> n.startsWith("transacciones")).toList()) {
+            for (String[] fila : filas(archivos.get(parte))) {
+                assertEquals(++id, Long.parseLong(fila[0]));
+                long cuenta = Long.parseLong(fila[5]);
+                long monto = centavos(fila[2]);
+                long posterior = centavos(fila[7]);
+                long delta = switch (fila[1]) {
+                    case "CONSIGNACION", "TRANSFERENCIA_RECIBIDA", "INTERES" -> monto;
+                    default -> -monto;
+                };
+                assertTrue(monto > 0);
+                assertTrue(posterior >= 0, "Saldo negativo en la transacción " + id);
+                // La cadena arranca en el saldo de apertura
+                assertEquals(saldos.getOrDefault(cuenta, cuentas.get(cuenta)[2]) + delta, posterior,
+                        "Cadena rota en la transacción " + id);
+                saldos.put(cuenta, posterior);
+                movimientos.merge(cuenta, 1, Integer::sum);
+                if (fila[1].equals("GMF")) {
+                    // El GMF sigue al débito de la misma cuenta
+                    assertEquals(fila[5], anterior[1].equals("TRANSFERENCIA_RECIBIDA") ? anterior[6] : anterior[5]);
+                    gmf++;
+                }
+                if (fila[1].equals("INTERES")) {
+                    // Un abono de intereses por cuenta y mes
+                    assertTrue(intereses.add(cuenta + "-" + fila[4].substring(0, 7)));
+                }
+                if (fila[1].equals("TRANSFERENCIA_RECIBIDA")) {
+                    assertEquals("TRANSFERENCIA_ENVIADA", anterior[1]);
+                    assertEquals(anterior[5], fila[6]);
+                    assertEquals(anterior[6], fila[5]);
+                    recibidas++;
+                }
+                anterior = fila;
+            }
+        }
+
+        assertEquals(20_000L, id);
+        assertTrue(gmf > 0 && recibidas > 0 && !intereses.isEmpty());
+        saldos.forEach((cuenta, saldo) -> {
+            assertEquals(cuentas.get(cuenta)[0], saldo, "Saldo final de la cuenta " + cuenta);
+            assertEquals(cuentas.get(cuenta)[1], (long) movimientos.get(cuenta));
+        });
+        cuentas.forEach((cuenta, datos) -> {
+            if (!saldos.containsKey(cuenta)) {
+                assertEquals(datos[2], datos[0], "Cuenta sin movimientos con saldo distinto a la apertura");
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Clientes y cuentas - Mayores de edad y numeración 33/53 consecutiva por tipo")
+    void testClientesYCuentasValidos() throws IOException {
+        Map<String, String> archivos = generar(configuracion(3L, "CONSIGNACION:1", 18));
+
+        List<String[]> clientes = filas(archivos.get("clientes.csv"));
+        assertEquals(500, clientes.size());
+        Map<Long, LocalDate> creacionCliente = new HashMap<>();
+        for (String[] cliente : clientes) {
+            LocalDate nacimiento = LocalDate.parse(cliente[6]);
+            LocalDate creacion = LocalDate.parse(cliente[7].substring(0, 10));
+            assertFalse(nacimiento.plusYears(18).isAfter(creacion), "Menor de edad: " + cliente[0]);
+            assertTrue(creacion.isBefore(INICIO));
+            assertEquals(10, cliente[2].length());
+            creacionCliente.put(Long.parseLong(cliente[0]), creacion);
+        }
+        assertEquals(clientes.size(), clientes.stream().map(c -> c[2]).distinct().count());
+        assertEquals(clientes.size(), clientes.stream().map(c -> c[5]).distinct().count());
+
+        int corrientes = 0;
+        int ahorros = 0;
+        Map<Long, Integer> exentas = new HashMap<>();
+        for (String[] cuenta : filas(archivos.get("cuentas.csv"))) {
+            boolean corriente = cuenta[1].equals("CUENTA_CORRIENTE");
+            assertEquals((corriente ? "33" : "53") + String.format("%08d", corriente ? ++corrientes : ++ahorros),
+                    cuenta[2]);
+            long cliente = Long.parseLong(cuenta[10]);
+            assertFalse(LocalDate.parse(cuenta[6].substring(0, 10)).isBefore(creacionCliente.get(cliente)));
+            if (cuenta[5].equals("1")) {
+                assertFalse(corriente);
+                exentas.merge(cliente, 1, Integer::sum);
+            }
+        }
+        assertTrue(corrientes > 0 && ahorros > 0);
+        // Una sola cuenta exenta de GMF por cliente
+        assertTrue(exentas.values().stream().allMatch(n -> n == 1));
+    }
+
+    @Test
+    @DisplayName("Actividad Zipf - Pocas cuentas concentran la mayoría de las transacciones")
+    void testActividadZipf() throws IOException {
+        Map<String, String> archivos = generar(configuracion(5L, "CONSIGNACION:1", 18));
+
+        Map<Long, Integer> porCuenta = new HashMap<>();
+        archivos.keySet().stream().filter(n -> n.startsWith("transacciones"))
+                .flatMap(n -> filas(archivos.get(n)).stream())
+                .forEach(fila -> porCuenta.merge(Long.parseLong(fila[5]), 1, Integer::sum));
+        int cuentas = filas(archivos.get("cuentas.csv")).size();
+        int[] conteos = porCuenta.values().stream().mapToInt(Integer::intValue).sorted().toArray();
+        int diezPorCiento = cuentas / 10;
+        long top = Arrays.stream(conteos, conteos.length - diezPorCiento, conteos.length).sum();
+
+        // Con exponente 1 el 10% más activo se lleva bastante más de la mitad
+        assertTrue(top > 10_000, "El 10% más activo tuvo " + top + " de 20000");
+    }
+
+    @Test
+    @DisplayName("Configuración inválida - Debe rechazarla")
+    void testConfiguracionInvalida() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new Generador(configuracion(1L, "CONSIGNACION:50,GMF:50", 18)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new Generador(configuracion(1L, "CONSIGNACION:40,RETIRO", 18)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new Generador(configuracion(1L, "CONSIGNACION:1", 17)));
+    }
+
+    private static Configuracion configuracion(long semilla, String mezcla, int edadMinima) {
+        return new Configuracion(semilla, 500, 20_000, "1:55,2:30,3:10,4:5", 0.3, 0.5, 1.0, mezcla,
+                "CONSIGNACION:250000:1.0,RETIRO:150000:0.8,TRANSFERENCIA_ENVIADA:300000:1.2", edadMinima, 80,
+                INICIO, 365, 5_000, new BigDecimal("0.004"), new BigDecimal("17429650"),
+                "0:0.0025,5000000:0.01,50000000:0.02");
+    }
+
+    private static Map<String, String> generar(Configuracion configuracion) throws IOException {
+        Map<String, StringWriter> salidas = new LinkedHashMap<>();
+        List<Archivo> archivos = new Generador(configuracion).generar(nombre -> {
+            StringWriter salida = new StringWriter();
+            salidas.put(nombre, salida);
+            return salida;
+        });
+        Map<String, String> resultado = new LinkedHashMap<>();
+        for (Archivo archivo : archivos) {
+            resultado.put(archivo.nombre(), salidas.get(archivo.nombre()).toString());
+        }
+        return resultado;
+    }
+
+    /**
+     * Filas sin encabezado; los textos generados no llevan comas
+     */
+    private static List<String[]> filas(String csv) {
+        return csv.lines().skip(1).map(linea -> linea.split(",", -1)).toList();
+    }
+
+    private static long centavos(String monto) {
+        return new BigDecimal(monto).movePointRight(2).longValueExact();
+    }
+}
@@ -0,0 +1,113 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.Cliente;
+import com.banking.system.service.GeneradorDatosService.ResultadoGeneracion;
+import com.banking.system.service.ReconstruccionSaldosService.ResultadoReconstruccion;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de carga del generador de datos sobre H2: genera y carga un
+ * historial (500k transacciones por defecto; para la escala de los ambientes
+ * de desempeño -Dbanking.generador.transacciones=10000000 con una BD en
+ * disco, -Dbanking.generador.url=jdbc:h2:file:./target/generador-bd) y
+ * verifica las reglas del dominio con SQL y con la reconstrucción de saldos
+ * desde el log. Reporta en el log los tiempos de cada fase.
+ */
+// Sin MODE=MySQL: en ese modo H2 repite IDs de columnas IDENTITY con
+// inserciones concurrentes y rollbacks
+@SpringBootTest(properties = {
+    "spring.datasource.url=${banking.generador.url:jdbc:h2:mem:generador;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000}",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "banking.generador.habilitado=true",
+    "banking.generador.directorio=target/generador"
+})
+@DisplayName("Prueba de carga de GeneradorDatosService")
+class GeneradorDatosStressTest {
+
+    private static final Logger log = LoggerFactory.getLogger(GeneradorDatosStressTest.class);
+
+    private static final long TRANSACCIONES = Long.getLong("banking.generador.transacciones", 500_000L);
+    private static final int CLIENTES = (int) Math.max(100, TRANSACCIONES / 30);
+
+    @Autowired
+    private GeneradorDatosService generadorDatosService;
+
+    @Autowired
+    private ReconstruccionSaldosService reconstruccionSaldosService;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Generar y cargar - Datos válidos y saldos iguales a los reconstruidos desde el log")
+    void testGenerarYCargar() {
+        // Act
+        ResultadoGeneracion resultado = generadorDatosService.generar(2025L, CLIENTES, TRANSACCIONES);
+        ResultadoReconstruccion reconstruccion = reconstruccionSaldosService.reconstruir(false, null);
+
+        // Assert
+        log.info("Generador: {} clientes, {} cuentas, {} transacciones (semilla {})",
+                resultado.clientes(), resultado.cuentas(), resultado.transacciones(), resultado.semilla());
+        log.info("Generador: generación CSV {} ms, carga {} ms, índices e identidades {} ms, total {} ms ({} filas/s)",
+                resultado.msGeneracion(), resultado.msCarga(), resultado.msIndices(), resultado.duracionMs(),
+                String.format("%.0f", resultado.filasPorSegundo()));
+        assertEquals(CLIENTES, resultado.clientes());
+        assertEquals(TRANSACCIONES, resultado.transacciones());
+        assertEquals(TRANSACCIONES, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transacciones", Long.class));
+        assertEquals(resultado.cuentas(), jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cuentas", Long.class));
+
+        // El saldo de cada cuenta es el que resulta de repetir su historial
+        assertEquals(TRANSACCIONES, reconstruccion.transacciones());
+        assertEquals(0, reconstruccion.diferencias());
+        assertEquals(0, reconstruccion.cuentasSinSaldoPosterior());
+
+        // Reglas del dominio
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM clientes "
+                + "WHERE DATEADD(YEAR, 18, fecha_nacimiento) > CAST(fecha_creacion AS DATE)", Long.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cuentas WHERE numero_cuenta NOT LIKE "
+                + "CASE tipo_cuenta WHEN 'CUENTA_CORRIENTE' THEN '33%' ELSE '53%' END "
+                + "OR LENGTH(numero_cuenta) <> 10 OR saldo < 0", Long.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transacciones t "
+                + "JOIN cuentas c ON c.id = t.cuenta_origen_id WHERE t.fecha_transaccion < c.fecha_creacion",
+                Long.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES "
+                + "WHERE INDEX_NAME = 'IDX_TRANSACCIONES_CUENTA_FECHA'", Integer.class));
+
+        // La identidad sigue después del último ID cargado y no quedan archivos
+        Long maximo = jdbcTemplate.queryForObject("SELECT MAX(id) FROM clientes", Long.class);
+        assertTrue(clienteService.crearCliente(cliente()).getId() > maximo);
+        assertFalse(Files.exists(Path.of("target/generador/clientes.csv")));
+
+        // Con datos, la generación se rechaza
+        assertThrows(IllegalStateException.class, () -> generadorDatosService.generar(1L, 10, 100L));
+    }
+
+    private Cliente cliente() {
+        Cliente cliente = new Cliente();
+        cliente.setTipoIdentificacion("CC");
+        cliente.setNumeroIdentificacion("900200");
+        cliente.setNombres("Nueva");
+        cliente.setApellido("Generada");
+        cliente.setCorreoElectronico("nueva.generada@correo.com");
+        cliente.setFechaNacimiento(LocalDate.of(1990, 1, 1));
+        return cliente;
+    }
+}
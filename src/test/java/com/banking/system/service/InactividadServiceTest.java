@@ -0,0 +1,121 @@
+package com.banking.system.service;
+
+import com.banking.system.service.InactividadService.ResultadoBarrido;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para InactividadService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de InactividadService")
+class InactividadServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private InactividadService inactividadService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(inactividadService, "tamanoLote", 100);
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        inactividadService.inicializar();
+    }
+
+    @Test
+    @DisplayName("Barrido de inactividad - Debe bloquear e inactivar por rango de IDs y sumar el total")
+    void testInactivarPorRangos() {
+        Map<String, Object> rango = new HashMap<>();
+        rango.put("minimo", 1L);
+        rango.put("maximo", 250L);
+        when(jdbcTemplate.queryForMap(anyString())).thenReturn(rango);
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(), any(), any(), any()))
+                .thenReturn(List.of(3L, 7L), List.of(150L), List.of());
+
+        ResultadoBarrido resultado = inactividadService.inactivarCuentasSinMovimientos(365);
+
+        assertEquals(3, resultado.cuentasInactivadas());
+        // Rangos [1,101), [101,201), [201,301), cada uno en su transacción
+        verify(jdbcTemplate, times(3)).queryForList(contains("FOR UPDATE"), eq(Long.class), any(), any(), any(),
+                any());
+        verify(jdbcTemplate, times(2)).batchUpdate(startsWith("UPDATE cuentas"), anyList());
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Barrido de inactividad - Debe registrar un evento por cada ID bloqueado e inactivado")
+    void testRegistrarEventosDeEstado() {
+        Map<String, Object> rango = new HashMap<>();
+        rango.put("minimo", 1L);
+        rango.put("maximo", 150L);
+        when(jdbcTemplate.queryForMap(anyString())).thenReturn(rango);
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(), any(), any(), any()))
+                .thenReturn(List.of(), List.of(120L, 130L));
+
+        inactividadService.inactivarCuentasSinMovimientos(365);
+
+        // Solo el segundo rango inactivó cuentas: los eventos son exactamente sus IDs
+        ArgumentCaptor<List<Object[]>> actualizadas = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<Object[]>> eventos = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE cuentas"), actualizadas.capture());
+        verify(jdbcTemplate).batchUpdate(contains("INSERT INTO eventos_outbox"), eventos.capture());
+        assertEquals(List.of(120L, 130L), actualizadas.getValue().stream().map(fila -> fila[1]).toList());
+        assertEquals(List.of(120L, 130L), eventos.getValue().stream().map(fila -> fila[1]).toList());
+    }
+
+    @Test
+    @DisplayName("Barrido sin cuentas activas - No debe ejecutar UPDATE")
+    void testSinCuentasActivas() {
+        Map<String, Object> rango = new HashMap<>();
+        rango.put("minimo", null);
+        rango.put("maximo", null);
+        when(jdbcTemplate.queryForMap(anyString())).thenReturn(rango);
+
+        ResultadoBarrido resultado = inactividadService.inactivarCuentasSinMovimientos(30);
+
+        assertEquals(0, resultado.cuentasInactivadas());
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(Long.class), any(), any(), any(), any());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    @DisplayName("Barrido con días inválidos - Debe fallar")
+    void testDiasInvalidos() {
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> inactividadService.inactivarCuentasSinMovimientos(0)
+        );
+
+        assertTrue(exception.getMessage().contains("mayores a cero"));
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
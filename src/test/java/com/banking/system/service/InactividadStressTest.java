@@ -0,0 +1,113 @@
+package com.banking.system.service;
+
+import com.banking.system.service.InactividadService.ResultadoBarrido;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de carga del barrido de inactividad sobre H2: siembra con SQL
+ * cuentas y transacciones (500k cuentas por defecto; para la escala de
+ * producción -Dbanking.inactividad.cuentas=5000000 con una BD en disco,
+ * -Dbanking.inactividad.url=jdbc:h2:file:./target/inactividad-bd) y barre
+ * mientras otro hilo modifica cuentas ya inactivas. Reporta en el log las
+ * cuentas por segundo y verifica que haya un evento por cuenta inactivada.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=${banking.inactividad.url:jdbc:h2:mem:inactividad-carga;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000}",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "banking.outbox.hilos=0"
+})
+@DisplayName("Prueba de carga de InactividadService")
+class InactividadStressTest {
+
+    private static final Logger log = LoggerFactory.getLogger(InactividadStressTest.class);
+
+    private static final int CUENTAS = Integer.getInteger("banking.inactividad.cuentas", 500_000);
+    private static final int CLIENTES = Math.max(50, CUENTAS / 3);
+    private static final int TRAMO_SIEMBRA = 250_000;
+
+    @Autowired
+    private InactividadService inactividadService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Barrido masivo con cambios concurrentes - Un evento por cuenta inactivada")
+    void testBarridoMasivo() {
+        // Arrange: de cada 3 cuentas una tiene movimientos recientes, otra solo
+        // viejos y otra solo intereses recientes; una de cada 50 ya está inactiva
+        sembrar();
+        long esperadas = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cuentas WHERE estado = 'ACTIVA' "
+                + "AND MOD(id - (SELECT MIN(id) FROM cuentas) + 1, 3) <> 0", Long.class);
+
+        // Act: otro hilo toca las cuentas que ya estaban inactivas durante el barrido
+        AtomicBoolean terminado = new AtomicBoolean(false);
+        CompletableFuture<Long> modificaciones = CompletableFuture.supplyAsync(() -> {
+            long veces = 0;
+            while (!terminado.get()) {
+                veces += jdbcTemplate.update("UPDATE cuentas SET fecha_modificacion = CURRENT_TIMESTAMP(0) "
+                        + "WHERE estado = 'INACTIVA' AND MOD(id, 50) = ?", veces % 50);
+            }
+            return veces;
+        });
+        ResultadoBarrido resultado;
+        try {
+            resultado = inactividadService.inactivarCuentasSinMovimientos(365);
+        } finally {
+            terminado.set(true);
+        }
+
+        // Assert
+        log.info("Inactividad: {} de {} cuentas inactivadas en {} ms ({} cuentas/s), {} modificaciones concurrentes",
+                resultado.cuentasInactivadas(), CUENTAS, resultado.duracionMs(),
+                String.format("%.0f", CUENTAS * 1000.0 / Math.max(1, resultado.duracionMs())), modificaciones.join());
+        assertEquals(esperadas, resultado.cuentasInactivadas());
+        assertEquals(esperadas, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM eventos_outbox "
+                + "WHERE tipo_evento = 'CUENTA_ESTADO_CAMBIADO'", Long.class));
+        assertEquals(esperadas, jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT e.cuenta_id) FROM eventos_outbox e "
+                + "JOIN cuentas c ON c.id = e.cuenta_id WHERE c.estado = 'INACTIVA'", Long.class));
+        assertEquals(0L, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cuentas WHERE estado = 'ACTIVA' "
+                + "AND MOD(id - (SELECT MIN(id) FROM cuentas) + 1, 3) <> 0", Long.class));
+    }
+
+    private void sembrar() {
+        jdbcTemplate.update("INSERT INTO clientes (tipo_identificacion, numero_identificacion, nombres, apellido, "
+                + "correo_electronico, fecha_nacimiento, fecha_creacion) "
+                + "SELECT 'CC', CAST(30000000 + X AS VARCHAR), 'Cliente', 'Inactividad', "
+                + "'inactividad' || X || '@correo.com', DATE '1990-01-01', CURRENT_TIMESTAMP "
+                + "FROM SYSTEM_RANGE(1, ?) ORDER BY X", CLIENTES);
+        long primerCliente = jdbcTemplate.queryForObject("SELECT MIN(id) FROM clientes", Long.class);
+        jdbcTemplate.update("INSERT INTO cuentas (tipo_cuenta, numero_cuenta, estado, saldo, exenta_gmf, "
+                + "fecha_creacion, fecha_modificacion, version, cliente_id) "
+                + "SELECT 'CUENTA_AHORRO', '53' || LPAD(CAST(X AS VARCHAR), 8, '0'), "
+                + "CASE WHEN MOD(X, 50) = 0 THEN 'INACTIVA' ELSE 'ACTIVA' END, 1000.00, TRUE, "
+                + "DATEADD(YEAR, -2, CURRENT_TIMESTAMP), DATEADD(YEAR, -2, CURRENT_TIMESTAMP), 0, ? + MOD(X, ?) "
+                + "FROM SYSTEM_RANGE(1, ?) ORDER BY X", primerCliente, CLIENTES, CUENTAS);
+        long primeraCuenta = jdbcTemplate.queryForObject("SELECT MIN(id) FROM cuentas", Long.class);
+
+        // Por tramos: un solo INSERT de millones de filas guarda todo en el undo de la transacción
+        for (int desde = 1; desde <= CUENTAS; desde += TRAMO_SIEMBRA) {
+            jdbcTemplate.update("INSERT INTO transacciones (tipo_transaccion, monto, fecha_transaccion, "
+                    + "cuenta_origen_id, saldo_posterior) "
+                    + "SELECT CASE MOD(X, 3) WHEN 2 THEN 'INTERES' ELSE 'CONSIGNACION' END, 10.00, "
+                    + "CASE MOD(X, 3) WHEN 1 THEN DATEADD(YEAR, -2, CURRENT_TIMESTAMP) "
+                    + "ELSE DATEADD(DAY, -1, CURRENT_TIMESTAMP) END, ? + X - 1, 1000.00 "
+                    + "FROM SYSTEM_RANGE(?, ?) ORDER BY X",
+                    primeraCuenta, desde, Math.min(CUENTAS, desde + TRAMO_SIEMBRA - 1));
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.Transaccion;
+import com.banking.system.entity.Transaccion.TipoTransaccion;
+import com.banking.system.service.IngestaTcpService.MetricasIngesta;
+import com.banking.system.service.ProtocoloIngesta.Respuesta;
+import com.banking.system.service.ProtocoloIngesta.Solicitud;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests del servidor de ingesta TCP con un cliente de loopback
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de IngestaTcpService")
+class IngestaTcpServiceTest {
+
+    @Mock
+    private TransaccionService transaccionService;
+
+    @Mock
+    private LimiteTasaService limiteTasaService;
+
+    @Mock
+    private ConcurrenciaCuentaService concurrenciaCuentaService;
+
+    @InjectMocks
+    private IngestaTcpService ingestaTcpService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        lenient().when(concurrenciaCuentaService.ejecutar(any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+        ReflectionTestUtils.setField(ingestaTcpService, "puerto", 0);
+        ReflectionTestUtils.setField(ingestaTcpService, "hilos", 4);
+        // Valores pequeños para que el test pase por la contrapresión y por escrituras parciales
+        ReflectionTestUtils.setField(ingestaTcpService, "maxEnVuelo", 64);
+        ReflectionTestUtils.setField(ingestaTcpService, "tamanoBuffer", 4096);
+        ingestaTcpService.abrir();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ingestaTcpService.detener();
+    }
+
+    @Test
+    @DisplayName("Muchas consignaciones en una conexión - Debe responder todas con su correlación")
+    void testPipelineConsignaciones() throws Exception {
+        // Arrange
+        AtomicLong ids = new AtomicLong();
+        when(transaccionService.realizarConsignacion(anyLong(), any(BigDecimal.class), any()))
+                .thenAnswer(invocation -> transaccion(ids.incrementAndGet(), TipoTransaccion.CONSIGNACION,
+                        invocation.getArgument(1)));
+        int cantidad = 20_000;
+        List<Solicitud> solicitudes = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            solicitudes.add(new Solicitud(ProtocoloIngesta.TIPO_CONSIGNACION, i, 1 + i % 10, 0, 12_345));
+        }
+
+        // Act
+        long inicio = System.nanoTime();
+        Map<Long, Respuesta> respuestas;
+        try (ClienteIngesta cliente = new ClienteIngesta(ingestaTcpService.getPuerto())) {
+            respuestas = cliente.enviarEnPipeline(solicitudes);
+        }
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+        System.out.printf("Ingesta TCP: %d solicitudes en %.3f s (%.0f/s)%n", cantidad, segundos, cantidad / segundos);
+
+        // Assert
+        assertEquals(cantidad, respuestas.size());
+        for (long i = 0; i < cantidad; i++) {
+            Respuesta respuesta = respuestas.get(i);
+            assertEquals(ProtocoloIngesta.ESTADO_OK, respuesta.estado());
+            assertEquals(12_345L, respuesta.saldoCentavos());
+        }
+        verify(transaccionService, times(cantidad)).realizarConsignacion(anyLong(), eq(new BigDecimal("123.45")), any());
+        MetricasIngesta metricas = ingestaTcpService.obtenerMetricas();
+        assertEquals(cantidad, metricas.solicitudesRecibidas());
+        assertEquals(cantidad, metricas.respuestasEnviadas());
+    }
+
+    @Test
+    @DisplayName("Rechazos de negocio - Debe traducirlos al estado del protocolo")
+    void testRechazos() throws Exception {
+        // Arrange
+        when(transaccionService.realizarRetiro(eq(1L), any(BigDecimal.class), any()))
+                .thenThrow(new IllegalArgumentException("Saldo insuficiente"));
+        when(transaccionService.realizarRetiro(eq(2L), any(BigDecimal.class), any()))
+                .thenThrow(new FraudeSospechosoException("Demasiados retiros"));
+        when(limiteTasaService.consumir(anyLong()))
+                .thenAnswer(invocation -> invocation.getArgument(0).equals(3L) ? 500L : 0L);
+        when(transaccionService.realizarTransferencia(eq(4L), eq(5L), any(BigDecimal.class), any()))
+                .thenReturn(List.of(
+                        transaccion(70L, TipoTransaccion.TRANSFERENCIA_ENVIADA, new BigDecimal("50.00")),
+                        transaccion(71L, TipoTransaccion.TRANSFERENCIA_RECIBIDA, new BigDecimal("900.00"))));
+
+        List<Solicitud> solicitudes = List.of(
+                new Solicitud(ProtocoloIngesta.TIPO_RETIRO, 1, 1, 0, 100),
+                new Solicitud(ProtocoloIngesta.TIPO_RETIRO, 2, 2, 0, 100),
+                new Solicitud(ProtocoloIngesta.TIPO_RETIRO, 3, 3, 0, 100),
+                new Solicitud(ProtocoloIngesta.TIPO_TRANSFERENCIA, 4, 4, 5, 100),
+                new Solicitud((byte) 9, 5, 6, 0, 100));
+
+        // Act
+        Map<Long, Respuesta> respuestas;
+        try (ClienteIngesta cliente = new ClienteIngesta(ingestaTcpService.getPuerto())) {
+            respuestas = cliente.enviarEnPipeline(solicitudes);
+        }
+
+        // Assert
+        assertEquals(ProtocoloIngesta.ESTADO_RECHAZADA, respuestas.get(1L).estado());
+        assertEquals("Saldo insuficiente", respuestas.get(1L).mensaje());
+        assertEquals(ProtocoloIngesta.ESTADO_FRAUDE, respuestas.get(2L).estado());
+        assertEquals(ProtocoloIngesta.ESTADO_LIMITE, respuestas.get(3L).estado());
+        assertEquals(ProtocoloIngesta.ESTADO_OK, respuestas.get(4L).estado());
+        assertEquals(70L, respuestas.get(4L).transaccionId());
+        assertEquals(5_000L, respuestas.get(4L).saldoCentavos());
+        assertEquals(ProtocoloIngesta.ESTADO_MALFORMADA, respuestas.get(5L).estado());
+        verify(transaccionService, never()).realizarRetiro(eq(3L), any(), any());
+    }
+
+    @Test
+    @DisplayName("Trama con longitud inválida - Debe cerrar la conexión")
+    void testTramaInvalida() throws Exception {
+        try (ClienteIngesta cliente = new ClienteIngesta(ingestaTcpService.getPuerto())) {
+            ByteBuffer basura = ByteBuffer.allocate(8).putInt(1_000_000).putInt(0).flip();
+            cliente.enviarCrudo(basura);
+
+            assertTrue(cliente.cerradaPorServidor());
+        }
+        verifyNoInteractions(transaccionService);
+    }
+
+    private Transaccion transaccion(long id, TipoTransaccion tipo, BigDecimal saldo) {
+        Transaccion transaccion = new Transaccion();
+        transaccion.setId(id);
+        transaccion.setTipoTransaccion(tipo);
+        transaccion.setSaldoPosterior(saldo);
+        return transaccion;
+    }
+}
@@ -0,0 +1,105 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.CausacionInteres.EstadoCausacion;
+import com.banking.system.entity.Cliente;
+import com.banking.system.entity.Cuenta;
+import com.banking.system.entity.Cuenta.TipoCuenta;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la causación de intereses sobre H2: el SQL de los lotes, las
+ * cuentas calientes y el ID de transacción de los eventos del outbox
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:causacion-intereses;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "banking.outbox.hilos=0",
+    "banking.intereses.tramos=0:0.0365"
+})
+@DisplayName("Tests de integración de InteresService")
+class InteresServiceIntegracionTest {
+
+    @Autowired
+    private InteresService interesService;
+
+    @Autowired
+    private SubsaldoCuentaService subsaldoCuentaService;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private CuentaService cuentaService;
+
+    @Autowired
+    private TransaccionService transaccionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Cuenta caliente - El interés incluye las ranuras y el evento lleva el ID de la transacción")
+    void testCausacionCuentaCaliente() {
+        // Arrange: 1000.00 en la fila y 100000.00 en las ranuras
+        Long caliente = crearCuenta("900100");
+        Long fria = crearCuenta("900200");
+        subsaldoCuentaService.activar(caliente, 4);
+        transaccionService.realizarConsignacion(caliente, new BigDecimal("100000.00"), null);
+
+        // Act: 101000.00 * 3.65% / 365 = 10.10
+        assertEquals(EstadoCausacion.COMPLETADA,
+                interesService.causarIntereses(LocalDate.now().minusDays(1)).getEstado());
+
+        // Assert
+        Map<String, Object> interes = interes(caliente);
+        assertEquals(0, new BigDecimal("10.10").compareTo((BigDecimal) interes.get("MONTO")));
+        assertEquals(0, new BigDecimal("101010.10").compareTo((BigDecimal) interes.get("SALDO_POSTERIOR")));
+        assertEquals(0, new BigDecimal("101010.10").compareTo(jdbcTemplate.queryForObject(
+                "SELECT saldo FROM cuentas WHERE id = ?", BigDecimal.class, caliente)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(jdbcTemplate.queryForObject(
+                "SELECT SUM(saldo) FROM subsaldos_cuenta WHERE cuenta_id = ?", BigDecimal.class, caliente)));
+        assertEquals(interes.get("ID"), eventoInteres(caliente));
+        assertEquals(interes(fria).get("ID"), eventoInteres(fria));
+        subsaldoCuentaService.desactivar(caliente);
+    }
+
+    private Long crearCuenta(String identificacion) {
+        Cliente cliente = new Cliente();
+        cliente.setTipoIdentificacion("CC");
+        cliente.setNumeroIdentificacion(identificacion);
+        cliente.setNombres("Interes");
+        cliente.setApellido("Causacion");
+        cliente.setCorreoElectronico("interes" + identificacion + "@correo.com");
+        cliente.setFechaNacimiento(LocalDate.of(1990, 1, 1));
+        Long clienteId = clienteService.crearCliente(cliente).getId();
+
+        Cuenta cuenta = new Cuenta();
+        cuenta.setTipoCuenta(TipoCuenta.CUENTA_AHORRO);
+        cuenta.setSaldo(new BigDecimal("1000.00"));
+        cuenta.setExentaGMF(true);
+        return cuentaService.crearCuenta(cuenta, clienteId).getId();
+    }
+
+    private Map<String, Object> interes(Long cuentaId) {
+        return jdbcTemplate.queryForMap("SELECT id, monto, saldo_posterior FROM transacciones "
+                + "WHERE cuenta_origen_id = ? AND tipo_transaccion = 'INTERES'", cuentaId);
+    }
+
+    private Object eventoInteres(Long cuentaId) {
+        return jdbcTemplate.queryForObject("SELECT transaccion_id FROM eventos_outbox "
+                + "WHERE cuenta_id = ? AND detalle = 'INTERES'", Long.class, cuentaId);
+    }
+}
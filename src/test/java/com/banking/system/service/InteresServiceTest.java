@@ -0,0 +1,196 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.CausacionInteres;
+import com.banking.system.entity.CausacionInteres.EstadoCausacion;
+import com.banking.system.repository.CausacionInteresRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para InteresService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de InteresService")
+class InteresServiceTest {
+
+    @Mock
+    private CausacionInteresRepository causacionInteresRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private RankingCuentasService rankingCuentasService;
+
+    @Mock
+    private SubsaldoCuentaService subsaldoCuentaService;
+
+    @InjectMocks
+    private InteresService interesService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(interesService, "tramosConfigurados", "0:0.0365,1000000:0.073");
+        ReflectionTestUtils.setField(interesService, "tamanoLote", 100);
+        ReflectionTestUtils.setField(interesService, "hilos", 2);
+        ReflectionTestUtils.setField(interesService, "timeoutLoteSegundos", 5);
+        ReflectionTestUtils.setField(interesService, "maxDiasRecuperacion", 5);
+        interesService.inicializar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        interesService.detener();
+    }
+
+    @Test
+    @DisplayName("Interés diario - Debe usar la tasa del tramo del saldo")
+    void testCalcularInteresDiarioPorTramo() {
+        // 100.000 * 3.65% / 365 = 10
+        assertEquals(new BigDecimal("10.00"), interesService.calcularInteresDiario(new BigDecimal("100000")));
+        // 2.000.000 * 7.3% / 365 = 400
+        assertEquals(new BigDecimal("400.00"), interesService.calcularInteresDiario(new BigDecimal("2000000")));
+    }
+
+    @Test
+    @DisplayName("Interés diario con saldo cero - No debe causar intereses")
+    void testCalcularInteresDiarioSaldoCero() {
+        assertEquals(BigDecimal.ZERO, interesService.calcularInteresDiario(BigDecimal.ZERO));
+    }
+
+    @Test
+    @DisplayName("Causación ya completada - No debe reprocesar la fecha")
+    void testCausacionCompletadaEsIdempotente() {
+        LocalDate fecha = LocalDate.of(2026, 10, 18);
+        CausacionInteres completada = new CausacionInteres(fecha);
+        completada.setEstado(EstadoCausacion.COMPLETADA);
+        when(causacionInteresRepository.findById(fecha)).thenReturn(Optional.of(completada));
+
+        CausacionInteres resultado = interesService.causarIntereses(fecha);
+
+        assertSame(completada, resultado);
+        verifyNoInteractions(jdbcTemplate);
+        verify(causacionInteresRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Causación sin cuentas pendientes - Debe quedar COMPLETADA")
+    void testCausacionSinCuentasPendientes() {
+        LocalDate fecha = LocalDate.of(2026, 10, 18);
+        when(causacionInteresRepository.findById(fecha)).thenReturn(Optional.empty());
+        when(causacionInteresRepository.save(any(CausacionInteres.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(), any(), any())).thenReturn(List.of());
+
+        CausacionInteres resultado = interesService.causarIntereses(fecha);
+
+        assertEquals(EstadoCausacion.COMPLETADA, resultado.getEstado());
+        assertEquals(0L, resultado.getCuentasProcesadas());
+        assertNotNull(resultado.getDuracionMs());
+    }
+
+    @Test
+    @DisplayName("Fecha posterior a un día pendiente - Debe rechazarse sin procesar cuentas")
+    void testCausacionRechazaFechaPosteriorAPendiente() {
+        // Arrange: la última completada es el 15 y el 16 no corrió
+        LocalDate fecha = LocalDate.of(2026, 10, 18);
+        when(causacionInteresRepository.findById(fecha)).thenReturn(Optional.empty());
+        when(causacionInteresRepository.findFechaCorteMasRecienteByEstado(EstadoCausacion.COMPLETADA))
+                .thenReturn(LocalDate.of(2026, 10, 15));
+
+        // Act & Assert
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> interesService.causarIntereses(fecha));
+        assertTrue(error.getMessage().contains("2026-10-16"));
+        verifyNoInteractions(jdbcTemplate);
+        verify(causacionInteresRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Sin causaciones completadas - Debe rechazar fechas posteriores a la primera sin completar")
+    void testCausacionRechazaFechaPosteriorAPrimeraIncompleta() {
+        LocalDate fecha = LocalDate.of(2026, 10, 18);
+        when(causacionInteresRepository.findById(fecha)).thenReturn(Optional.empty());
+        when(causacionInteresRepository.findFechaCorteMasAntiguaByEstadoNot(EstadoCausacion.COMPLETADA))
+                .thenReturn(LocalDate.of(2026, 10, 17));
+
+        assertThrows(IllegalStateException.class, () -> interesService.causarIntereses(fecha));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Ejecución nocturna con días sin causar - Debe causarlos en orden hasta ayer")
+    void testCausacionNocturnaRecuperaDiasPendientes() {
+        LocalDate ayer = LocalDate.now().minusDays(1);
+        when(causacionInteresRepository.findFechaCorteMasRecienteByEstado(EstadoCausacion.COMPLETADA))
+                .thenReturn(ayer.minusDays(3));
+        when(causacionInteresRepository.findById(any(LocalDate.class))).thenAnswer(invocation -> {
+            CausacionInteres completada = new CausacionInteres(invocation.getArgument(0));
+            completada.setEstado(EstadoCausacion.COMPLETADA);
+            return Optional.of(completada);
+        });
+
+        interesService.causacionNocturna();
+
+        var orden = inOrder(causacionInteresRepository);
+        orden.verify(causacionInteresRepository).findById(ayer.minusDays(2));
+        orden.verify(causacionInteresRepository).findById(ayer.minusDays(1));
+        orden.verify(causacionInteresRepository).findById(ayer);
+        verify(causacionInteresRepository, times(3)).findById(any(LocalDate.class));
+    }
+
+    @Test
+    @DisplayName("Ejecución nocturna - Debe detenerse en el primer día que no se completa y acotar la recuperación")
+    void testCausacionNocturnaSeDetieneEnDiaConErrores() {
+        LocalDate ayer = LocalDate.now().minusDays(1);
+        // Última completada hace un año: solo se recuperan los últimos 5 días
+        when(causacionInteresRepository.findFechaCorteMasRecienteByEstado(EstadoCausacion.COMPLETADA))
+                .thenReturn(ayer.minusYears(1));
+        // El lote del tercer día pendiente falla y la causación queda CON_ERRORES
+        when(causacionInteresRepository.findById(any(LocalDate.class))).thenAnswer(invocation -> {
+            LocalDate fecha = invocation.getArgument(0);
+            if (fecha.equals(ayer.minusDays(3))) {
+                return Optional.empty();
+            }
+            CausacionInteres completada = new CausacionInteres(fecha);
+            completada.setEstado(EstadoCausacion.COMPLETADA);
+            return Optional.of(completada);
+        });
+        when(causacionInteresRepository.save(any(CausacionInteres.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(), any(), any()))
+                .thenReturn(List.of(1L, 2L)).thenReturn(List.of());
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(), any()))
+                .thenThrow(new DataAccessResourceFailureException("Conexión perdida"));
+
+        interesService.causacionNocturna();
+
+        verify(causacionInteresRepository).findById(ayer.minusDays(4));
+        verify(causacionInteresRepository).findById(ayer.minusDays(3));
+        verify(causacionInteresRepository, times(2)).findById(any(LocalDate.class));
+    }
+}
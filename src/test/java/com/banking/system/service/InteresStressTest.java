@@ -0,0 +1,99 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.CausacionInteres;
+import com.banking.system.entity.CausacionInteres.EstadoCausacion;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de carga de la causación de intereses sobre H2: siembra con SQL
+ * cuentas de ahorro (200k por defecto, -Dbanking.intereses.cuentas para otra
+ * escala) y causa un día con el pool de hilos. Reporta en el log las cuentas
+ * por segundo y verifica que todos los saldos y transacciones INTERES cuadren
+ * con el total de la causación.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:intereses-carga;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "banking.outbox.hilos=0",
+    "banking.intereses.timeout-lote-segundos=60"
+})
+@DisplayName("Prueba de carga de InteresService")
+class InteresStressTest {
+
+    private static final Logger log = LoggerFactory.getLogger(InteresStressTest.class);
+
+    private static final int CUENTAS = Integer.getInteger("banking.intereses.cuentas", 200_000);
+    private static final int CLIENTES = Math.max(50, CUENTAS / 3);
+
+    @Autowired
+    private InteresService interesService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Causación de un día - Cuentas por segundo y saldos que cuadran con el total")
+    void testCausacionMasiva() {
+        // Arrange: una de cada diez cuentas es corriente y no causa intereses
+        sembrar();
+        BigDecimal saldoAntes = saldoAhorro();
+        long ahorro = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cuentas WHERE tipo_cuenta = 'CUENTA_AHORRO'",
+                Long.class);
+        LocalDate fecha = LocalDate.now().minusDays(1);
+
+        // Act
+        CausacionInteres causacion = interesService.causarIntereses(fecha);
+
+        // Assert
+        log.info("Intereses: {} cuentas en {} ms ({} cuentas/s), total {}", causacion.getCuentasProcesadas(),
+                causacion.getDuracionMs(), String.format("%.0f", causacion.getCuentasPorSegundo()),
+                causacion.getTotalIntereses());
+        assertEquals(EstadoCausacion.COMPLETADA, causacion.getEstado());
+        assertEquals(ahorro, causacion.getCuentasProcesadas());
+        assertEquals(0, saldoAntes.add(causacion.getTotalIntereses()).compareTo(saldoAhorro()));
+        assertEquals(0, causacion.getTotalIntereses().compareTo(jdbcTemplate.queryForObject(
+                "SELECT SUM(monto) FROM transacciones WHERE tipo_transaccion = 'INTERES'", BigDecimal.class)));
+        assertEquals(0L, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cuentas WHERE tipo_cuenta = "
+                + "'CUENTA_AHORRO' AND fecha_ultima_causacion <> ?", Long.class, fecha));
+
+        // Reejecutar la fecha no vuelve a causar
+        long transacciones = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transacciones", Long.class);
+        assertEquals(EstadoCausacion.COMPLETADA, interesService.causarIntereses(fecha).getEstado());
+        assertEquals(transacciones, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transacciones", Long.class));
+    }
+
+    private void sembrar() {
+        jdbcTemplate.update("INSERT INTO clientes (tipo_identificacion, numero_identificacion, nombres, apellido, "
+                + "correo_electronico, fecha_nacimiento, fecha_creacion) "
+                + "SELECT 'CC', CAST(20000000 + X AS VARCHAR), 'Cliente', 'Intereses', "
+                + "'intereses' || X || '@correo.com', DATE '1990-01-01', CURRENT_TIMESTAMP "
+                + "FROM SYSTEM_RANGE(1, ?) ORDER BY X", CLIENTES);
+        long primerCliente = jdbcTemplate.queryForObject("SELECT MIN(id) FROM clientes", Long.class);
+        // Saldos de 0 a 99.999.999,99: cubren los tres tramos por defecto
+        jdbcTemplate.update("INSERT INTO cuentas (tipo_cuenta, numero_cuenta, estado, saldo, exenta_gmf, "
+                + "fecha_creacion, version, cliente_id) "
+                + "SELECT CASE WHEN MOD(X, 10) = 0 THEN 'CUENTA_CORRIENTE' ELSE 'CUENTA_AHORRO' END, "
+                + "CASE WHEN MOD(X, 10) = 0 THEN '33' ELSE '53' END || LPAD(CAST(X AS VARCHAR), 8, '0'), "
+                + "'ACTIVA', MOD(X * 7919, 10000000000) / 100.0, TRUE, CURRENT_TIMESTAMP, 0, ? + MOD(X, ?) "
+                + "FROM SYSTEM_RANGE(1, ?) ORDER BY X", primerCliente, CLIENTES, CUENTAS);
+    }
+
+    private BigDecimal saldoAhorro() {
+        return jdbcTemplate.queryForObject("SELECT SUM(saldo) FROM cuentas WHERE tipo_cuenta = 'CUENTA_AHORRO'",
+                BigDecimal.class);
+    }
+}
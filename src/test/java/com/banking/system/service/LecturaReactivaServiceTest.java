@@ -0,0 +1,98 @@
+package com.banking.system.service;
+
+import com.banking.system.service.LecturaReactivaService.CuentaLectura;
+import com.banking.system.service.LecturaReactivaService.TransaccionLectura;
+import io.r2dbc.spi.ConnectionFactories;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de LecturaReactivaService contra H2 en memoria vía R2DBC
+ */
+@DisplayName("Tests de LecturaReactivaService")
+class LecturaReactivaServiceTest {
+
+    private LecturaReactivaService lecturaReactivaService;
+
+    @BeforeEach
+    void setUp() {
+        DatabaseClient databaseClient = DatabaseClient.create(
+                ConnectionFactories.get("r2dbc:h2:mem:///lectura-reactiva;DB_CLOSE_DELAY=-1"));
+        for (String sql : List.of(
+                "DROP ALL OBJECTS",
+                "CREATE TABLE cuentas (id BIGINT PRIMARY KEY, numero_cuenta VARCHAR(10), tipo_cuenta VARCHAR(20), "
+                        + "estado VARCHAR(20), saldo DECIMAL(15,2), exenta_gmf BOOLEAN, cliente_id BIGINT, "
+                        + "fecha_creacion TIMESTAMP)",
+                "CREATE TABLE transacciones (id BIGINT PRIMARY KEY, tipo_transaccion VARCHAR(30), monto DECIMAL(15,2), "
+                        + "descripcion VARCHAR(200), fecha_transaccion TIMESTAMP, cuenta_origen_id BIGINT, "
+                        + "cuenta_destino_id BIGINT, saldo_posterior DECIMAL(15,2))",
+                "INSERT INTO cuentas VALUES (1, '5300000001', 'CUENTA_AHORRO', 'ACTIVA', 1500.00, FALSE, 7, "
+                        + "TIMESTAMP '2025-01-01 08:00:00')",
+                "INSERT INTO transacciones VALUES (10, 'CONSIGNACION', 1000.00, 'Depósito', "
+                        + "TIMESTAMP '2025-01-02 09:00:00', 1, NULL, 1000.00)",
+                "INSERT INTO transacciones VALUES (11, 'TRANSFERENCIA_RECIBIDA', 500.00, NULL, "
+                        + "TIMESTAMP '2025-01-03 09:00:00', 2, 1, 2500.00)",
+                "INSERT INTO transacciones VALUES (12, 'RETIRO', 20.00, NULL, "
+                        + "TIMESTAMP '2025-01-04 09:00:00', 1, NULL, 980.00)")) {
+            databaseClient.sql(sql).then().block();
+        }
+
+        lecturaReactivaService = new LecturaReactivaService();
+        ReflectionTestUtils.setField(lecturaReactivaService, "databaseClient", databaseClient);
+        ReflectionTestUtils.setField(lecturaReactivaService, "filasPrefetch", 2);
+    }
+
+    @Test
+    @DisplayName("Obtener cuenta - Debe mapear la fila y quedar vacía si no existe")
+    void testObtenerCuenta() {
+        CuentaLectura cuenta = lecturaReactivaService.obtenerCuenta(1L).block();
+
+        assertNotNull(cuenta);
+        assertEquals("5300000001", cuenta.numeroCuenta());
+        assertEquals(0, new BigDecimal("1500.00").compareTo(cuenta.saldo()));
+        assertEquals(7L, cuenta.clienteId());
+        assertNull(lecturaReactivaService.obtenerCuenta(99L).block());
+    }
+
+    @Test
+    @DisplayName("Transmitir historial - Debe incluir origen y destino, más recientes primero")
+    void testTransmitirHistorial() {
+        List<TransaccionLectura> historial = lecturaReactivaService.transmitirHistorial(1L, null, null)
+                .collectList().block();
+
+        assertNotNull(historial);
+        assertEquals(List.of(12L, 11L, 10L), historial.stream().map(TransaccionLectura::id).toList());
+        assertEquals(0, lecturaReactivaService.obtenerMetricas().consultasEnCurso());
+    }
+
+    @Test
+    @DisplayName("Transmitir historial - El consumidor puede cortar el flujo (contrapresión)")
+    void testTransmitirHistorialCancelado() {
+        List<TransaccionLectura> primeras = lecturaReactivaService.transmitirHistorial(1L,
+                LocalDateTime.of(2025, 1, 1, 0, 0), LocalDateTime.of(2025, 1, 31, 0, 0))
+                .take(1).collectList().block();
+
+        assertEquals(1, primeras.size());
+        assertEquals(12L, primeras.get(0).id());
+        assertEquals(1L, lecturaReactivaService.obtenerMetricas().historialesCancelados());
+    }
+
+    @Test
+    @DisplayName("Transmitir historial con fechas invertidas - Debe fallar")
+    void testTransmitirHistorialFechasInvertidas() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> lecturaReactivaService.transmitirHistorial(1L,
+                        LocalDateTime.of(2025, 2, 1, 0, 0), LocalDateTime.of(2025, 1, 1, 0, 0)).blockFirst());
+
+        assertTrue(exception.getMessage().contains("fecha inicial"));
+    }
+}
@@ -0,0 +1,181 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.Cliente;
+import com.banking.system.entity.Cuenta;
+import com.banking.system.entity.Cuenta.TipoCuenta;
+import com.banking.system.repository.CuentaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para LimiteTasaService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de LimiteTasaService")
+class LimiteTasaServiceTest {
+
+    @Mock
+    private CuentaRepository cuentaRepository;
+
+    @InjectMocks
+    private LimiteTasaService limiteTasaService;
+
+    private final AtomicLong ahora = new AtomicLong(TimeUnit.SECONDS.toNanos(1000));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(limiteTasaService, "ahorroPorSegundo", 2.0);
+        ReflectionTestUtils.setField(limiteTasaService, "ahorroRafaga", 3);
+        ReflectionTestUtils.setField(limiteTasaService, "corrientePorSegundo", 10.0);
+        ReflectionTestUtils.setField(limiteTasaService, "corrienteRafaga", 10);
+        ReflectionTestUtils.setField(limiteTasaService, "clientePorSegundo", 4.0);
+        ReflectionTestUtils.setField(limiteTasaService, "clienteRafaga", 4);
+        ReflectionTestUtils.setField(limiteTasaService, "maxEntradas", 100);
+        ReflectionTestUtils.setField(limiteTasaService, "reloj", (LongSupplier) ahora::get);
+        limiteTasaService.inicializar();
+
+        lenient().when(cuentaRepository.findById(1L)).thenReturn(Optional.of(cuenta(1L, TipoCuenta.CUENTA_AHORRO, 7L)));
+        lenient().when(cuentaRepository.findById(2L)).thenReturn(Optional.of(cuenta(2L, TipoCuenta.CUENTA_CORRIENTE, 7L)));
+    }
+
+    @Test
+    @DisplayName("Ráfaga agotada - Debe rechazar y volver a permitir al reponerse el token")
+    void testRafagaYReposicion() {
+        // Act: la ráfaga de ahorro es 3
+        assertEquals(0, limiteTasaService.consumir(1L));
+        assertEquals(0, limiteTasaService.consumir(1L));
+        assertEquals(0, limiteTasaService.consumir(1L));
+        long espera = limiteTasaService.consumir(1L);
+
+        // Assert: a 2/s el siguiente token llega en 500 ms
+        assertEquals(500, espera);
+
+        ahora.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertEquals(0, limiteTasaService.consumir(1L));
+        verify(cuentaRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Límite por cliente - Debe aplicar a todas sus cuentas")
+    void testLimitePorCliente() {
+        // Act: el cliente 7 tiene ráfaga 4 entre sus dos cuentas
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiteTasaService.consumir(1L));
+        }
+        assertEquals(0, limiteTasaService.consumir(2L));
+
+        // Assert
+        assertTrue(limiteTasaService.consumir(2L) > 0);
+        assertEquals(1, limiteTasaService.obtenerMetricas().rechazadas());
+    }
+
+    @Test
+    @DisplayName("Cuenta inexistente - Debe limitarla con el límite de ahorro sin volver a la BD")
+    void testCuentaInexistente() {
+        when(cuentaRepository.findById(999L)).thenReturn(Optional.empty());
+
+        // Act: la ráfaga de ahorro es 3; el servicio decide que no existe
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiteTasaService.consumir(999L));
+        }
+        assertEquals(500, limiteTasaService.consumir(999L));
+
+        // Assert: una sola consulta y sin bucket de cliente
+        verify(cuentaRepository, times(1)).findById(999L);
+        assertEquals(1, limiteTasaService.obtenerMetricas().bucketsCuenta());
+        assertEquals(0, limiteTasaService.obtenerMetricas().bucketsCliente());
+        assertEquals(1L, limiteTasaService.obtenerMetricas().consultasCuenta());
+    }
+
+    @Test
+    @DisplayName("Cuenta creada después - Al llenarse el bucket de inexistente vuelve a consultar la BD")
+    void testCuentaInexistenteQueSeCrea() {
+        when(cuentaRepository.findById(999L)).thenReturn(Optional.empty())
+                .thenReturn(Optional.of(cuenta(999L, TipoCuenta.CUENTA_CORRIENTE, 8L)));
+        assertEquals(0, limiteTasaService.consumir(999L));
+
+        // Act: lleno otra vez, se consulta y ya tiene el límite de corriente (ráfaga 10)
+        ahora.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        for (int i = 0; i < 4; i++) {
+            assertEquals(0, limiteTasaService.consumir(999L));
+        }
+
+        // Assert
+        verify(cuentaRepository, times(2)).findById(999L);
+        assertEquals(1, limiteTasaService.obtenerMetricas().bucketsCliente());
+    }
+
+    @Test
+    @DisplayName("Desalojo - Debe borrar solo los buckets llenos")
+    void testDesalojarInactivos() {
+        limiteTasaService.consumir(1L);
+        limiteTasaService.desalojarInactivos();
+        assertEquals(1, limiteTasaService.obtenerMetricas().bucketsCuenta());
+
+        ahora.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        limiteTasaService.desalojarInactivos();
+
+        assertEquals(0, limiteTasaService.obtenerMetricas().bucketsCuenta());
+        assertEquals(0, limiteTasaService.obtenerMetricas().bucketsCliente());
+    }
+
+    @Test
+    @DisplayName("Mapa lleno de buckets activos - Debe rechazar las cuentas nuevas hasta desalojar")
+    void testMapaLlenoRechaza() {
+        ReflectionTestUtils.setField(limiteTasaService, "maxEntradas", 2);
+        when(cuentaRepository.findById(3L)).thenReturn(Optional.of(cuenta(3L, TipoCuenta.CUENTA_AHORRO, 9L)));
+        assertEquals(0, limiteTasaService.consumir(1L));
+
+        // Act: bucket de la cuenta 1 y de su cliente ocupan el mapa
+        long espera = limiteTasaService.consumir(3L);
+
+        // Assert: rechazada sin ir a la BD; al llenarse los buckets se desalojan
+        assertEquals(500, espera);
+        verify(cuentaRepository, never()).findById(3L);
+        assertEquals(1, limiteTasaService.obtenerMetricas().rechazadas());
+
+        ahora.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        assertEquals(0, limiteTasaService.consumir(3L));
+    }
+
+    @Test
+    @DisplayName("Sin espacio para el bucket del cliente - Debe rechazar y devolver el token de la cuenta")
+    void testSinEspacioParaCliente() {
+        ReflectionTestUtils.setField(limiteTasaService, "maxEntradas", 1);
+
+        // Act: la ráfaga de ahorro es 3, pero el cliente no cabe
+        for (int i = 0; i < 4; i++) {
+            assertEquals(500, limiteTasaService.consumir(1L));
+        }
+
+        // Assert: la cuenta no gastó tokens y pasa cuando hay espacio
+        ReflectionTestUtils.setField(limiteTasaService, "maxEntradas", 100);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiteTasaService.consumir(1L));
+        }
+    }
+
+    private Cuenta cuenta(Long id, TipoCuenta tipo, Long clienteId) {
+        Cliente cliente = new Cliente();
+        cliente.setId(clienteId);
+        Cuenta cuenta = new Cuenta();
+        cuenta.setId(id);
+        cuenta.setTipoCuenta(tipo);
+        cuenta.setCliente(cliente);
+        return cuenta;
+    }
+}
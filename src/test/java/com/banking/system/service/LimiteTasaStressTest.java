@@ -0,0 +1,113 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.Cliente;
+import com.banking.system.entity.Cuenta;
+import com.banking.system.entity.Cuenta.TipoCuenta;
+import com.banking.system.repository.CuentaRepository;
+import com.banking.system.service.LimiteTasaService.MetricasLimite;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Microbenchmark de LimiteTasaService en memoria: 10M pedidos de varios
+ * hilos sobre cuentas existentes e IDs inexistentes. Mide pedidos por
+ * segundo y verifica que los IDs inexistentes no vayan a la BD en cada
+ * pedido.
+ */
+@DisplayName("Microbenchmark de LimiteTasaService")
+class LimiteTasaStressTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LimiteTasaStressTest.class);
+
+    private static final int PEDIDOS = 10_000_000;
+    private static final int HILOS = 8;
+    private static final int CUENTAS = 10_000;
+    private static final int INEXISTENTES = 1_000;
+    private static final long PRIMER_INEXISTENTE = 1_000_001L;
+
+    @Test
+    @DisplayName("10M pedidos con IDs inexistentes - Una consulta por ID y pedidos por segundo")
+    void testPedidosEnParalelo() throws Exception {
+        // Arrange: límites por defecto; las cuentas existentes son de 100 clientes
+        CuentaRepository cuentaRepository = mock(CuentaRepository.class);
+        when(cuentaRepository.findById(anyLong())).thenAnswer(invocation -> {
+            long id = invocation.getArgument(0);
+            return id < PRIMER_INEXISTENTE ? Optional.of(cuenta(id)) : Optional.empty();
+        });
+        LimiteTasaService limiteTasaService = new LimiteTasaService();
+        ReflectionTestUtils.setField(limiteTasaService, "cuentaRepository", cuentaRepository);
+        ReflectionTestUtils.setField(limiteTasaService, "ahorroPorSegundo", 5.0);
+        ReflectionTestUtils.setField(limiteTasaService, "ahorroRafaga", 10);
+        ReflectionTestUtils.setField(limiteTasaService, "corrientePorSegundo", 20.0);
+        ReflectionTestUtils.setField(limiteTasaService, "corrienteRafaga", 40);
+        ReflectionTestUtils.setField(limiteTasaService, "clientePorSegundo", 30.0);
+        ReflectionTestUtils.setField(limiteTasaService, "clienteRafaga", 60);
+        ReflectionTestUtils.setField(limiteTasaService, "maxEntradas", 100_000);
+        limiteTasaService.inicializar();
+
+        // Act: uno de cada diez pedidos va a un ID inexistente
+        ExecutorService ejecutor = Executors.newFixedThreadPool(HILOS);
+        List<Future<?>> tareas = new ArrayList<>();
+        long inicio = System.nanoTime();
+        for (int h = 0; h < HILOS; h++) {
+            long semillaInicial = 11 + h;
+            tareas.add(ejecutor.submit(() -> {
+                long semilla = semillaInicial;
+                for (int i = 0; i < PEDIDOS / HILOS; i++) {
+                    semilla ^= semilla << 13;
+                    semilla ^= semilla >>> 7;
+                    semilla ^= semilla << 17;
+                    long aleatorio = semilla >>> 1;
+                    long cuentaId = aleatorio % 10 == 0
+                            ? PRIMER_INEXISTENTE + (aleatorio >>> 8) % INEXISTENTES
+                            : 1 + (aleatorio >>> 8) % CUENTAS;
+                    limiteTasaService.consumir(cuentaId);
+                }
+            }));
+        }
+        for (Future<?> tarea : tareas) {
+            tarea.get();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+        ejecutor.shutdown();
+
+        // Assert
+        MetricasLimite metricas = limiteTasaService.obtenerMetricas();
+        log.info("Límite de tasa: {} pedidos de {} hilos en {} s ({} pedidos/s), {} rechazados, {} consultas a la BD, "
+                        + "{} buckets de cuenta y {} de cliente",
+                metricas.permitidas() + metricas.rechazadas(), HILOS, String.format("%.2f", segundos),
+                String.format("%.0f", (metricas.permitidas() + metricas.rechazadas()) / segundos),
+                metricas.rechazadas(), metricas.consultasCuenta(), metricas.bucketsCuenta(),
+                metricas.bucketsCliente());
+        assertEquals(PEDIDOS, metricas.permitidas() + metricas.rechazadas());
+        assertTrue(metricas.rechazadas() > 0);
+        // Una consulta por ID; solo se repite si un bucket se llenó (una pausa larga)
+        assertTrue(metricas.consultasCuenta() >= CUENTAS + INEXISTENTES);
+        assertTrue(metricas.consultasCuenta() < 2L * (CUENTAS + INEXISTENTES));
+        assertEquals(CUENTAS + INEXISTENTES, metricas.bucketsCuenta());
+    }
+
+    private static Cuenta cuenta(long id) {
+        Cliente cliente = new Cliente();
+        cliente.setId(id % 100);
+        Cuenta cuenta = new Cuenta();
+        cuenta.setId(id);
+        cuenta.setTipoCuenta(id % 2 == 0 ? TipoCuenta.CUENTA_AHORRO : TipoCuenta.CUENTA_CORRIENTE);
+        cuenta.setCliente(cliente);
+        return cuenta;
+    }
+}
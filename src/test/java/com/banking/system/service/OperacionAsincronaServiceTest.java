@@ -0,0 +1,217 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.Cuenta;
+import com.banking.system.entity.OperacionAsincrona;
+import com.banking.system.entity.Transaccion;
+import com.banking.system.entity.Transaccion.TipoTransaccion;
+import com.banking.system.repository.CuentaRepository;
+import com.banking.system.repository.OperacionAsincronaRepository;
+import com.banking.system.service.OperacionAsincronaService.MetricasOperaciones;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para OperacionAsincronaService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de OperacionAsincronaService")
+class OperacionAsincronaServiceTest {
+
+    @Mock
+    private OperacionAsincronaRepository operacionAsincronaRepository;
+
+    @Mock
+    private CuentaRepository cuentaRepository;
+
+    @Mock
+    private TransaccionService transaccionService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private OperacionAsincronaService operacionAsincronaService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(operacionAsincronaService, "hilos", 0);
+        ReflectionTestUtils.setField(operacionAsincronaService, "tamanoLote", 200);
+        ReflectionTestUtils.setField(operacionAsincronaService, "maxPendientes", 1L);
+        ReflectionTestUtils.setField(operacionAsincronaService, "maxIntentos", 3);
+        ReflectionTestUtils.setField(operacionAsincronaService, "timeoutGrupoSegundos", 30);
+        ConcurrenciaCuentaService concurrenciaCuentaService = new ConcurrenciaCuentaService();
+        ReflectionTestUtils.setField(concurrenciaCuentaService, "maxIntentos", 5);
+        ReflectionTestUtils.setField(operacionAsincronaService, "concurrenciaCuentaService", concurrenciaCuentaService);
+        operacionAsincronaService.iniciar();
+    }
+
+    @Test
+    @DisplayName("Encolar transferencia - Debe guardarla pendiente sin ejecutarla")
+    void testEncolarTransferencia() {
+        // Arrange
+        when(cuentaRepository.existsById(anyLong())).thenReturn(true);
+        when(operacionAsincronaRepository.save(any(OperacionAsincrona.class))).thenAnswer(invocation -> {
+            OperacionAsincrona operacion = invocation.getArgument(0);
+            operacion.setId(10L);
+            return operacion;
+        });
+
+        // Act
+        OperacionAsincrona operacion = operacionAsincronaService.encolarTransferencia(
+                1L, 2L, new BigDecimal("5000.00"), null);
+
+        // Assert
+        assertEquals(10L, operacion.getId());
+        assertEquals(OperacionAsincrona.EstadoOperacion.PENDIENTE, operacion.getEstado());
+        assertEquals(1L, operacionAsincronaService.obtenerMetricas().enCola());
+        verifyNoInteractions(transaccionService);
+    }
+
+    @Test
+    @DisplayName("Encolar a la misma cuenta - Debe fallar sin guardar")
+    void testEncolarMismaCuenta() {
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> operacionAsincronaService.encolarTransferencia(1L, 1L, new BigDecimal("10.00"), null)
+        );
+
+        assertEquals("No se puede transferir a la misma cuenta", exception.getMessage());
+        verify(operacionAsincronaRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Cola llena - Debe rechazar por contrapresión")
+    void testEncolarConColaLlena() {
+        // Arrange: max-pendientes = 1 y ya hay una en cola
+        when(cuentaRepository.existsById(anyLong())).thenReturn(true);
+        when(operacionAsincronaRepository.save(any(OperacionAsincrona.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        operacionAsincronaService.encolarTransferencia(1L, 2L, new BigDecimal("10.00"), null);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class,
+                () -> operacionAsincronaService.encolarTransferencia(1L, 2L, new BigDecimal("10.00"), null));
+        assertEquals(1L, operacionAsincronaService.obtenerMetricas().rechazadasPorContrapresion());
+        verify(operacionAsincronaRepository, times(1)).save(any());
+    }
+
+    @Test
+    @DisplayName("Profundidad - Se toma de las pendientes en la BD, no del contador del nodo")
+    void testActualizarProfundidadDesdeBD() {
+        // Arrange: la cola está llena por lo que aceptó este nodo
+        when(cuentaRepository.existsById(anyLong())).thenReturn(true);
+        when(operacionAsincronaRepository.save(any(OperacionAsincrona.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        operacionAsincronaService.encolarTransferencia(1L, 2L, new BigDecimal("10.00"), null);
+        assertThrows(IllegalStateException.class,
+                () -> operacionAsincronaService.encolarTransferencia(1L, 2L, new BigDecimal("10.00"), null));
+
+        // Act: otro nodo la ejecutó; la BD ya no tiene pendientes
+        when(operacionAsincronaRepository.countByEstado(OperacionAsincrona.EstadoOperacion.PENDIENTE)).thenReturn(0L);
+        long profundidad = operacionAsincronaService.actualizarProfundidad();
+
+        // Assert
+        assertEquals(0L, profundidad);
+        assertNotNull(operacionAsincronaService.encolarTransferencia(1L, 2L, new BigDecimal("10.00"), null));
+        assertEquals(1L, operacionAsincronaService.obtenerMetricas().enCola());
+    }
+
+    @Test
+    @DisplayName("Procesar lote - Grupo con una operación inválida se divide y solo esa se rechaza")
+    void testProcesarLoteConOperacionRechazada() {
+        // Arrange: dos operaciones de la misma cuenta, la segunda sin saldo
+        OperacionAsincrona valida = crearOperacion(1L, new BigDecimal("100.00"));
+        OperacionAsincrona sinSaldo = crearOperacion(2L, new BigDecimal("999999.00"));
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(200))).thenReturn(List.of(valida, sinSaldo));
+        when(transaccionService.realizarTransferencia(eq(5L), eq(6L), any(BigDecimal.class), isNull()))
+                .thenAnswer(invocation -> {
+                    BigDecimal monto = invocation.getArgument(2);
+                    if (monto.compareTo(new BigDecimal("1000")) > 0) {
+                        throw new IllegalArgumentException("Saldo insuficiente en cuenta origen");
+                    }
+                    return List.of(crearTransaccion(40L, TipoTransaccion.TRANSFERENCIA_ENVIADA),
+                            crearTransaccion(41L, TipoTransaccion.TRANSFERENCIA_RECIBIDA));
+                });
+
+        // Act
+        int procesadas = operacionAsincronaService.procesarLote();
+
+        // Assert: el grupo se deshizo y se reintentó una por una
+        assertEquals(2, procesadas);
+        verify(transactionManager, times(2)).rollback(any());
+        verify(jdbcTemplate, times(1)).batchUpdate(contains("COMPLETADA"), anyList());
+        verify(jdbcTemplate).update(contains("RECHAZADA"), eq("Saldo insuficiente en cuenta origen"), any(), eq(2L));
+
+        MetricasOperaciones metricas = operacionAsincronaService.obtenerMetricas();
+        assertEquals(1L, metricas.completadas());
+        assertEquals(1L, metricas.rechazadas());
+        assertEquals(1L, metricas.gruposDivididos());
+    }
+
+    @Test
+    @DisplayName("Procesar lote - Conflicto de versión repite el grupo entero sin contar como falla")
+    void testProcesarLoteConConflictoDeVersion() {
+        // Arrange: el primer intento del grupo pierde contra otro movimiento de la cuenta
+        OperacionAsincrona primera = crearOperacion(1L, new BigDecimal("100.00"));
+        OperacionAsincrona segunda = crearOperacion(2L, new BigDecimal("200.00"));
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(200))).thenReturn(List.of(primera, segunda));
+        when(transaccionService.realizarTransferencia(eq(5L), eq(6L), any(BigDecimal.class), isNull()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Cuenta.class, 5L))
+                .thenReturn(List.of(crearTransaccion(40L, TipoTransaccion.TRANSFERENCIA_ENVIADA),
+                        crearTransaccion(41L, TipoTransaccion.TRANSFERENCIA_RECIBIDA)));
+
+        // Act
+        int procesadas = operacionAsincronaService.procesarLote();
+
+        // Assert: un solo batch con las dos, sin dividir el grupo ni registrar fallas
+        assertEquals(2, procesadas);
+        verify(transactionManager, times(1)).rollback(any());
+        verify(jdbcTemplate, times(1)).batchUpdate(contains("COMPLETADA"), anyList());
+        verify(jdbcTemplate, never()).queryForObject(contains("intentos"), eq(Integer.class), any());
+
+        MetricasOperaciones metricas = operacionAsincronaService.obtenerMetricas();
+        assertEquals(2L, metricas.completadas());
+        assertEquals(0L, metricas.gruposDivididos());
+        assertEquals(0L, metricas.fallidas());
+    }
+
+    private OperacionAsincrona crearOperacion(Long id, BigDecimal monto) {
+        OperacionAsincrona operacion = new OperacionAsincrona(5L, 6L, monto, null);
+        operacion.setId(id);
+        operacion.setFechaCreacion(LocalDateTime.now().minusSeconds(1));
+        return operacion;
+    }
+
+    private Transaccion crearTransaccion(Long id, TipoTransaccion tipo) {
+        Transaccion transaccion = new Transaccion();
+        transaccion.setId(id);
+        transaccion.setTipoTransaccion(tipo);
+        return transaccion;
+    }
+}
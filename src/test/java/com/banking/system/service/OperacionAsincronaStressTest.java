@@ -0,0 +1,176 @@
+package com.banking.system.service;
+
+import com.banking.system.service.ConcurrenciaCuentaService.MetricasConcurrencia;
+import com.banking.system.service.OperacionAsincronaService.MetricasOperaciones;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAccumulator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de carga de la cola de transferencias asíncronas sobre H2: varios
+ * hilos encolan transferencias entre pocas cuentas (así hay grupos por cuenta
+ * origen y conflictos de versión entre workers) mientras los workers las
+ * ejecutan. Reporta en el log aceptaciones por segundo con su p50/p99, la
+ * profundidad máxima de la cola, los rechazos por contrapresión, el
+ * throughput de ejecución y la latencia de extremo a extremo (aceptación a
+ * fin) p50/p99. Verifica que todas terminen completadas y que el dinero total
+ * no cambie.
+ *
+ * Escala configurable con -Dbanking.operaciones.carga.transferencias.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:operaciones-carga;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "banking.outbox.hilos=0",
+    "banking.operaciones.hilos=2",
+    "banking.operaciones.intervalo-ms=20",
+    "banking.operaciones.intervalo-profundidad-ms=200",
+    "banking.operaciones.max-pendientes=5000",
+    "banking.concurrencia.max-intentos=20",
+    "banking.velocidad.transferencia.max-operaciones=1000000",
+    "banking.velocidad.transferencia.max-monto=1000000000"
+})
+@DisplayName("Prueba de carga de OperacionAsincronaService")
+class OperacionAsincronaStressTest {
+
+    private static final Logger log = LoggerFactory.getLogger(OperacionAsincronaStressTest.class);
+
+    private static final int TRANSFERENCIAS = Integer.getInteger("banking.operaciones.carga.transferencias", 20_000);
+    private static final int CUENTAS = 200;
+    private static final int PRODUCTORES = 4;
+    private static final BigDecimal MONTO = new BigDecimal("1.00");
+
+    @Autowired
+    private OperacionAsincronaService operacionAsincronaService;
+
+    @Autowired
+    private ConcurrenciaCuentaService concurrenciaCuentaService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Encolar mientras los workers ejecutan - Aceptación, profundidad y latencia de extremo a extremo")
+    void testColaBajoCarga() throws Exception {
+        // Arrange
+        sembrar();
+        BigDecimal totalAntes = saldoTotal();
+        MetricasConcurrencia concurrenciaAntes = concurrenciaCuentaService.obtenerMetricas();
+        long primeraCuenta = jdbcTemplate.queryForObject("SELECT MIN(id) FROM cuentas", Long.class);
+        LongAccumulator profundidadMaxima = new LongAccumulator(Math::max, 0);
+
+        // Act: los productores reintentan tras un rechazo por contrapresión
+        ExecutorService ejecutor = Executors.newFixedThreadPool(PRODUCTORES);
+        List<Future<long[]>> productores = new ArrayList<>();
+        long inicio = System.nanoTime();
+        for (int p = 0; p < PRODUCTORES; p++) {
+            productores.add(ejecutor.submit(() -> {
+                long[] latencias = new long[TRANSFERENCIAS / PRODUCTORES + 1];
+                ThreadLocalRandom azar = ThreadLocalRandom.current();
+                for (int i = 0; i < TRANSFERENCIAS / PRODUCTORES; i++) {
+                    long origen = primeraCuenta + azar.nextInt(CUENTAS);
+                    long destino = primeraCuenta + (origen - primeraCuenta + 1 + azar.nextInt(CUENTAS - 1)) % CUENTAS;
+                    while (true) {
+                        long t0 = System.nanoTime();
+                        try {
+                            operacionAsincronaService.encolarTransferencia(origen, destino, MONTO, null);
+                            latencias[i] = System.nanoTime() - t0;
+                            break;
+                        } catch (IllegalStateException e) {
+                            latencias[TRANSFERENCIAS / PRODUCTORES]++;
+                            Thread.sleep(10);
+                        }
+                    }
+                    profundidadMaxima.accumulate(operacionAsincronaService.obtenerMetricas().enCola());
+                }
+                return latencias;
+            }));
+        }
+        long rechazosProductores = 0;
+        List<Long> aceptacion = new ArrayList<>();
+        for (Future<long[]> productor : productores) {
+            long[] latencias = productor.get();
+            rechazosProductores += latencias[latencias.length - 1];
+            for (int i = 0; i < latencias.length - 1; i++) {
+                aceptacion.add(latencias[i]);
+            }
+        }
+        double segundosAceptacion = (System.nanoTime() - inicio) / 1_000_000_000.0;
+        ejecutor.shutdown();
+
+        long limite = System.nanoTime() + 600_000_000_000L;
+        while (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM operaciones_asincronas WHERE estado IN "
+                + "('PENDIENTE', 'EN_PROCESO')", Long.class) > 0) {
+            assertTrue(System.nanoTime() < limite, "La cola no se drenó en 10 minutos");
+            Thread.sleep(50);
+        }
+        double segundosTotales = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+        // Assert
+        long[] aceptadas = aceptacion.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(aceptadas);
+        long[] extremoAExtremo = jdbcTemplate.queryForList("SELECT DATEDIFF('MILLISECOND', fecha_creacion, "
+                + "fecha_fin) FROM operaciones_asincronas ORDER BY 1", Long.class).stream()
+                .mapToLong(Long::longValue).toArray();
+        MetricasOperaciones metricas = operacionAsincronaService.obtenerMetricas();
+        MetricasConcurrencia concurrencia = concurrenciaCuentaService.obtenerMetricas();
+        log.info("Operaciones: {} aceptadas en {} s ({}/s), aceptación p50={} ms p99={} ms, profundidad máxima {}, "
+                + "{} rechazos por contrapresión", aceptadas.length, String.format("%.1f", segundosAceptacion),
+                String.format("%.0f", aceptadas.length / segundosAceptacion),
+                String.format("%.2f", percentil(aceptadas, 0.50) / 1_000_000.0),
+                String.format("%.2f", percentil(aceptadas, 0.99) / 1_000_000.0),
+                profundidadMaxima.get(), rechazosProductores);
+        log.info("Operaciones: {} ejecutadas en {} s ({}/s), extremo a extremo p50={} ms p99={} ms, "
+                + "{} por grupo, {} grupos divididos, {} conflictos de versión reintentados",
+                metricas.completadas(), String.format("%.1f", segundosTotales),
+                String.format("%.0f", metricas.completadas() / segundosTotales),
+                percentil(extremoAExtremo, 0.50), percentil(extremoAExtremo, 0.99),
+                String.format("%.1f", metricas.operacionesPorGrupo()), metricas.gruposDivididos(),
+                concurrencia.conflictos() - concurrenciaAntes.conflictos());
+        assertEquals((long) TRANSFERENCIAS / PRODUCTORES * PRODUCTORES, aceptadas.length);
+        assertEquals(aceptadas.length, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM operaciones_asincronas WHERE estado = 'COMPLETADA'", Long.class));
+        assertEquals(0L, metricas.fallidas());
+        assertEquals(0, totalAntes.compareTo(saldoTotal()));
+    }
+
+    private long percentil(long[] ordenadas, double p) {
+        return ordenadas.length > 0 ? ordenadas[(int) Math.ceil(ordenadas.length * p) - 1] : 0;
+    }
+
+    private BigDecimal saldoTotal() {
+        return jdbcTemplate.queryForObject("SELECT SUM(saldo) FROM cuentas", BigDecimal.class);
+    }
+
+    private void sembrar() {
+        jdbcTemplate.update("INSERT INTO clientes (tipo_identificacion, numero_identificacion, nombres, apellido, "
+                + "correo_electronico, fecha_nacimiento, fecha_creacion) "
+                + "SELECT 'CC', CAST(70000000 + X AS VARCHAR), 'Cliente', 'Cola', "
+                + "'cola' || X || '@correo.com', DATE '1990-01-01', CURRENT_TIMESTAMP "
+                + "FROM SYSTEM_RANGE(1, ?) ORDER BY X", CUENTAS);
+        long primerCliente = jdbcTemplate.queryForObject("SELECT MIN(id) FROM clientes", Long.class);
+        jdbcTemplate.update("INSERT INTO cuentas (tipo_cuenta, numero_cuenta, estado, saldo, exenta_gmf, "
+                + "fecha_creacion, version, cliente_id) "
+                + "SELECT 'CUENTA_CORRIENTE', '33' || LPAD(CAST(X AS VARCHAR), 8, '0'), 'ACTIVA', 1000000.00, TRUE, "
+                + "CURRENT_TIMESTAMP, 0, ? + X - 1 FROM SYSTEM_RANGE(1, ?) ORDER BY X", primerCliente, CUENTAS);
+    }
+}
@@ -0,0 +1,254 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.Cuenta;
+import com.banking.system.entity.Transaccion;
+import com.banking.system.entity.Transaccion.TipoTransaccion;
+import com.banking.system.service.RankingCuentasService.MetricaRanking;
+import com.banking.system.service.RankingCuentasService.PosicionRanking;
+import com.banking.system.service.RankingCuentasService.RankingCuentas;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para RankingCuentasService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de RankingCuentasService")
+class RankingCuentasServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private SubsaldoCuentaService subsaldoCuentaService;
+
+    @InjectMocks
+    private RankingCuentasService rankingCuentasService;
+
+    private final LocalDate hoy = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(rankingCuentasService, "tamano", 3);
+        rankingCuentasService.iniciar();
+    }
+
+    @Test
+    @DisplayName("Saldos - Debe ordenar de mayor a menor y desempatar por ID")
+    void testTopSaldo() {
+        saldo(1, 1, 500);
+        saldo(2, 2, 900);
+        saldo(3, 3, 500);
+        saldo(4, 4, 100);
+
+        assertEquals(List.of(2L, 1L, 3L), cuentas(MetricaRanking.SALDO, 3));
+        assertEquals(new BigDecimal("9.00"), ranking(MetricaRanking.SALDO, 1).get(0).valor());
+    }
+
+    @Test
+    @DisplayName("Saldo posterior más antiguo - No debe pisar uno más reciente")
+    void testSaldoFueraDeOrden() {
+        saldo(1, 20, 300);
+        saldo(1, 10, 9_000);
+        saldo(2, 11, 200);
+
+        assertEquals(List.of(1L, 2L), cuentas(MetricaRanking.SALDO, 3));
+        assertEquals(new BigDecimal("3.00"), ranking(MetricaRanking.SALDO, 1).get(0).valor());
+    }
+
+    @Test
+    @DisplayName("Abonos en ranura - Se suman hasta que un saldo posterior los incluye")
+    void testAbonosEnRanura() {
+        saldo(1, 1, 1_000);
+        abonoEnRanura(1, 5, 100);
+        abonoEnRanura(1, 7, 100);
+        assertEquals(new BigDecimal("12.00"), ranking(MetricaRanking.SALDO, 1).get(0).valor());
+
+        // El retiro 6 consolidó el abono 5; el 7 llegó después y sigue aparte
+        saldo(1, 6, 1_050);
+        assertEquals(new BigDecimal("11.50"), ranking(MetricaRanking.SALDO, 1).get(0).valor());
+
+        // Un abono ya incluido en un saldo posterior no se vuelve a sumar
+        abonoEnRanura(1, 3, 100);
+        assertEquals(new BigDecimal("11.50"), ranking(MetricaRanking.SALDO, 1).get(0).valor());
+    }
+
+    @Test
+    @DisplayName("Movimientos aleatorios - El top siempre coincide con ordenar todas las cuentas")
+    void testCoincideConOrdenCompleto() {
+        Random aleatorio = new Random(7);
+        Map<Long, Long> esperado = new HashMap<>();
+        for (int marca = 1; marca <= 5_000; marca++) {
+            long cuentaId = 1 + aleatorio.nextInt(40);
+            long valor = aleatorio.nextInt(3) == 0 ? aleatorio.nextInt(50) : aleatorio.nextInt(100_000);
+            esperado.put(cuentaId, valor);
+            saldo(cuentaId, marca, valor);
+
+            if (marca % 97 == 0) {
+                List<Long> top = esperado.entrySet().stream()
+                        .sorted(Map.Entry.<Long, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                        .limit(3)
+                        .map(Map.Entry::getKey)
+                        .toList();
+                assertEquals(top, cuentas(MetricaRanking.SALDO, 3));
+            }
+        }
+        assertTrue(rankingCuentasService.obtenerMetricas().reordenamientos() > 0);
+    }
+
+    @Test
+    @DisplayName("Entradas y salidas del día - Debe acumular por tipo e ignorar días anteriores")
+    void testMovimientosDelDia() {
+        registrar(1, 1, TipoTransaccion.CONSIGNACION, 500, 500L, hoy);
+        registrar(2, 2, TipoTransaccion.TRANSFERENCIA_RECIBIDA, 300, 300L, hoy);
+        registrar(1, 3, TipoTransaccion.INTERES, 10, 510L, hoy);
+        registrar(1, 4, TipoTransaccion.RETIRO, 200, 310L, hoy);
+        registrar(1, 5, TipoTransaccion.GMF, 1, 309L, hoy);
+        registrar(2, 6, TipoTransaccion.CONSIGNACION, 9_000, null, hoy.minusDays(1));
+
+        List<PosicionRanking> entradas = ranking(MetricaRanking.ENTRADAS_DIA, 3);
+        assertEquals(List.of(1L, 2L), entradas.stream().map(PosicionRanking::cuentaId).toList());
+        assertEquals(new BigDecimal("5.10"), entradas.get(0).valor());
+        assertEquals(new BigDecimal("2.01"), ranking(MetricaRanking.SALIDAS_DIA, 3).get(0).valor());
+
+        // El primer movimiento del día siguiente empieza los totales de cero
+        registrar(2, 7, TipoTransaccion.RETIRO, 50, 250L, hoy.plusDays(1));
+        assertEquals(0, rankingCuentasService.obtenerRanking(MetricaRanking.ENTRADAS_DIA, 3).posiciones().size());
+    }
+
+    @Test
+    @DisplayName("Abono a cuenta caliente - Debe sumarse aunque traiga saldo posterior")
+    void testAbonoACuentaCaliente() {
+        when(subsaldoCuentaService.esCaliente(1L)).thenReturn(true);
+        saldo(1, 1, 1_000);
+
+        // La transferencia recibida deja en la fila 1.500, sin contar las ranuras
+        rankingCuentasService.registrarAlConfirmar(transaccion(1L, 2L, TipoTransaccion.TRANSFERENCIA_RECIBIDA,
+                "5.00", "15.00"));
+
+        assertEquals(new BigDecimal("15.00"), ranking(MetricaRanking.SALDO, 1).get(0).valor());
+    }
+
+    @Test
+    @DisplayName("Movimiento en transacción - Debe aplicarse solo al confirmar")
+    void testAplicaAlConfirmar() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            rankingCuentasService.registrarAlConfirmar(transaccion(8L, 1L, TipoTransaccion.CONSIGNACION, "7.00", "7.00"));
+            assertEquals(0, cuentas(MetricaRanking.SALDO, 3).size());
+
+            for (TransactionSynchronization sincronizacion : TransactionSynchronizationManager.getSynchronizations()) {
+                sincronizacion.afterCommit();
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(List.of(8L), cuentas(MetricaRanking.SALDO, 3));
+        assertEquals(List.of(8L), cuentas(MetricaRanking.ENTRADAS_DIA, 3));
+    }
+
+    @Test
+    @DisplayName("Reconstruir - Debe tomar la BD y conservar lo que se movió después")
+    void testReconstruir() throws Exception {
+        saldo(1, 50, 100);
+        ResultSet cuentas = mock(ResultSet.class);
+        when(cuentas.getLong("id")).thenReturn(1L, 2L);
+        when(cuentas.getBigDecimal("saldo")).thenReturn(new BigDecimal("80.00"), new BigDecimal("40.00"));
+        ResultSet movimientos = mock(ResultSet.class);
+        when(movimientos.getLong("cuenta_origen_id")).thenReturn(2L);
+        when(movimientos.getString("tipo_transaccion")).thenReturn("RETIRO");
+        when(movimientos.getBigDecimal("total")).thenReturn(new BigDecimal("12.00"));
+        doAnswer(invocacion -> {
+            RowCallbackHandler manejador = invocacion.getArgument(1);
+            manejador.processRow(cuentas);
+            // Movimiento confirmado mientras se lee la BD: gana sobre la fila leída
+            saldo(2, 60, 7_000);
+            manejador.processRow(cuentas);
+            return null;
+        }).when(jdbcTemplate).query(contains("FROM cuentas"), any(RowCallbackHandler.class));
+        doAnswer(invocacion -> {
+            ((RowCallbackHandler) invocacion.getArgument(1)).processRow(movimientos);
+            return null;
+        }).when(jdbcTemplate).query(contains("FROM transacciones"), any(RowCallbackHandler.class), any(), any());
+
+        rankingCuentasService.reconstruir();
+
+        List<PosicionRanking> saldos = ranking(MetricaRanking.SALDO, 3);
+        assertEquals(List.of(1L, 2L), saldos.stream().map(PosicionRanking::cuentaId).toList());
+        assertEquals(new BigDecimal("80.00"), saldos.get(0).valor());
+        assertEquals(new BigDecimal("70.00"), saldos.get(1).valor());
+        assertEquals(new BigDecimal("12.00"), ranking(MetricaRanking.SALIDAS_DIA, 3).get(0).valor());
+        assertEquals(2, rankingCuentasService.obtenerMetricas().reconstrucciones());
+    }
+
+    @Test
+    @DisplayName("Límite fuera de rango - Debe fallar")
+    void testLimiteInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> rankingCuentasService.obtenerRanking(MetricaRanking.SALDO, 0));
+        assertThrows(IllegalArgumentException.class, () -> rankingCuentasService.obtenerRanking(MetricaRanking.SALDO, 4));
+    }
+
+    private void saldo(long cuentaId, long marca, long centavos) {
+        registrar(cuentaId, marca, TipoTransaccion.RETIRO, 0, centavos, hoy.minusDays(1));
+    }
+
+    private void abonoEnRanura(long cuentaId, long marca, long centavos) {
+        registrar(cuentaId, marca, TipoTransaccion.CONSIGNACION, centavos, null, hoy.minusDays(1));
+    }
+
+    private void registrar(long cuentaId, long marca, TipoTransaccion tipo, long monto, Long saldoPosterior,
+                           LocalDate fecha) {
+        rankingCuentasService.registrar(cuentaId, marca, tipo, monto, saldoPosterior, fecha);
+    }
+
+    private Transaccion transaccion(Long cuentaId, Long id, TipoTransaccion tipo, String monto, String saldoPosterior) {
+        Cuenta cuenta = new Cuenta();
+        cuenta.setId(cuentaId);
+        Transaccion transaccion = new Transaccion();
+        transaccion.setId(id);
+        transaccion.setCuentaOrigen(cuenta);
+        transaccion.setTipoTransaccion(tipo);
+        transaccion.setMonto(new BigDecimal(monto));
+        transaccion.setSaldoPosterior(new BigDecimal(saldoPosterior));
+        transaccion.setFechaTransaccion(LocalDateTime.now());
+        return transaccion;
+    }
+
+    private List<PosicionRanking> ranking(MetricaRanking metrica, int limite) {
+        RankingCuentas ranking = rankingCuentasService.obtenerRanking(metrica, limite);
+        assertEquals(metrica, ranking.metrica());
+        return ranking.posiciones();
+    }
+
+    private List<Long> cuentas(MetricaRanking metrica, int limite) {
+        return ranking(metrica, limite).stream()
+                .sorted(Comparator.comparingInt(PosicionRanking::posicion))
+                .map(PosicionRanking::cuentaId)
+                .toList();
+    }
+}
@@ -0,0 +1,264 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.Cliente;
+import com.banking.system.entity.Cuenta;
+import com.banking.system.entity.Cuenta.TipoCuenta;
+import com.banking.system.entity.Transaccion.TipoTransaccion;
+import com.banking.system.service.RankingCuentasService.MetricaRanking;
+import com.banking.system.service.RankingCuentasService.MetricasRanking;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Prueba de carga del ranking de cuentas sobre H2: varios hilos consignan,
+ * retiran y transfieren a la vez (una de las cuentas es caliente y recibe
+ * abonos en ranuras). Al terminar, cada top debe coincidir con el ORDER BY
+ * sobre cuentas y transacciones, antes y después de reconstruir. Aparte se
+ * mide el ranking solo, con hilos que actualizan 1M de cuentas. Reporta en el
+ * log movimientos por segundo y el costo promedio de actualizar el ranking.
+ */
+// Sin MODE=MySQL: en ese modo H2 repite IDs de columnas IDENTITY con
+// inserciones concurrentes y rollbacks
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:ranking;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "banking.concurrencia.max-intentos=20",
+    "banking.cuentas-calientes.intervalo-consolidacion-ms=3600000",
+    "banking.velocidad.retiro.max-operaciones=100000",
+    "banking.velocidad.transferencia.max-operaciones=100000",
+    "banking.ranking.tamano=10"
+})
+@DisplayName("Prueba de carga de RankingCuentasService")
+class RankingCuentasStressTest {
+
+    private static final Logger log = LoggerFactory.getLogger(RankingCuentasStressTest.class);
+
+    private static final int CUENTAS = 60;
+    private static final int HILOS = 8;
+    private static final int OPERACIONES_POR_HILO = 150;
+    private static final int TOP = 10;
+
+    private static final String SQL_TOP_SALDO = "SELECT c.id, c.saldo + COALESCE((SELECT SUM(s.saldo) "
+            + "FROM subsaldos_cuenta s WHERE s.cuenta_id = c.id), 0) AS total FROM cuentas c "
+            + "ORDER BY total DESC, c.id LIMIT " + TOP;
+
+    private static final String SQL_TOP_DIA = "SELECT cuenta_origen_id AS id, SUM(monto) AS total FROM transacciones "
+            + "WHERE fecha_transaccion >= ? AND tipo_transaccion IN (%s) "
+            + "GROUP BY cuenta_origen_id ORDER BY total DESC, cuenta_origen_id LIMIT " + TOP;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private CuentaService cuentaService;
+
+    @Autowired
+    private TransaccionService transaccionService;
+
+    @Autowired
+    private ConcurrenciaCuentaService concurrenciaCuentaService;
+
+    @Autowired
+    private SubsaldoCuentaService subsaldoCuentaService;
+
+    @Autowired
+    private RankingCuentasService rankingCuentasService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Movimientos concurrentes - Cada top coincide con el ORDER BY de la base de datos")
+    void testTopCoincideConBaseDeDatos() throws Exception {
+        // Arrange
+        List<Long> cuentas = crearCuentas();
+        Long recaudadora = cuentas.get(0);
+        subsaldoCuentaService.activar(recaudadora, 8);
+        MetricasRanking antes = rankingCuentasService.obtenerMetricas();
+
+        // Act
+        long inicio = System.nanoTime();
+        long exitosas = moverEnParalelo(cuentas, recaudadora);
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+        // Assert
+        MetricasRanking despues = rankingCuentasService.obtenerMetricas();
+        long actualizaciones = despues.actualizaciones() - antes.actualizaciones();
+        log.info("Ranking: {} movimientos en {} s ({}/s), {} actualizaciones del ranking, "
+                        + "{} us promedio por actualización, {} reordenamientos, ~{} KB",
+                exitosas, String.format("%.1f", segundos), String.format("%.0f", exitosas / segundos), actualizaciones,
+                String.format("%.1f", despues.nanosPromedioActualizacion() / 1000), despues.reordenamientos(),
+                despues.bytesEstimados() >> 10);
+        assertTrue(actualizaciones >= exitosas);
+        verificarContraBaseDeDatos();
+
+        // Reconstruir desde la BD deja exactamente el mismo top
+        long inicioReconstruccion = System.nanoTime();
+        rankingCuentasService.reconstruir();
+        log.info("Reconstrucción desde la BD: {} ms", (System.nanoTime() - inicioReconstruccion) / 1_000_000);
+        verificarContraBaseDeDatos();
+    }
+
+    @Test
+    @DisplayName("Actualizaciones concurrentes sobre 1M de cuentas - Costo por actualización y top exacto")
+    void testCostoActualizacion() throws Exception {
+        RankingCuentasService ranking = new RankingCuentasService();
+        ReflectionTestUtils.setField(ranking, "jdbcTemplate", mock(JdbcTemplate.class));
+        ReflectionTestUtils.setField(ranking, "tamano", 100);
+        ranking.iniciar();
+
+        // Cada hilo mueve sus propias cuentas (id % HILOS): el valor final de cada una es conocido
+        int cuentas = 1_000_000;
+        int porHilo = 500_000;
+        long[] finales = new long[cuentas + 1];
+        ExecutorService ejecutor = Executors.newFixedThreadPool(HILOS);
+        List<Future<?>> tareas = new ArrayList<>();
+        long inicio = System.nanoTime();
+        for (int h = 0; h < HILOS; h++) {
+            int hilo = h;
+            tareas.add(ejecutor.submit(() -> {
+                Random aleatorio = new Random(hilo);
+                LocalDate hoy = LocalDate.now();
+                for (int i = 1; i <= porHilo; i++) {
+                    long cuentaId = 1 + hilo + (long) HILOS * aleatorio.nextInt(cuentas / HILOS);
+                    long saldo = aleatorio.nextInt(1_000_000_000);
+                    finales[(int) cuentaId] = saldo;
+                    ranking.registrar(cuentaId, (long) i * HILOS + hilo, TipoTransaccion.RETIRO, 1, saldo, hoy);
+                }
+            }));
+        }
+        for (Future<?> tarea : tareas) {
+            tarea.get();
+        }
+        ejecutor.shutdown();
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+        MetricasRanking metricas = ranking.obtenerMetricas();
+        long consultaInicio = System.nanoTime();
+        List<Long> top = ranking.obtenerRanking(MetricaRanking.SALDO, 100).posiciones().stream()
+                .map(posicion -> posicion.cuentaId())
+                .toList();
+        long consultaMicros = (System.nanoTime() - consultaInicio) / 1000;
+        log.info("Ranking en memoria: {} actualizaciones de {} hilos en {} s ({}/s), {} us promedio, "
+                        + "{} reordenamientos, consulta del top 100 en {} us, ~{} MB",
+                metricas.actualizaciones(), HILOS, String.format("%.2f", segundos),
+                String.format("%.0f", metricas.actualizaciones() / segundos),
+                String.format("%.2f", metricas.nanosPromedioActualizacion() / 1000), metricas.reordenamientos(),
+                consultaMicros, metricas.bytesEstimados() >> 20);
+
+        List<Long> esperado = IntStream.rangeClosed(1, cuentas)
+                .filter(id -> finales[id] != 0)
+                .boxed()
+                .sorted(Comparator.<Integer>comparingLong(id -> finales[id]).reversed().thenComparing(id -> id))
+                .limit(100)
+                .map(Integer::longValue)
+                .toList();
+        assertEquals(esperado, top);
+    }
+
+    private void verificarContraBaseDeDatos() {
+        assertEquals(topBaseDeDatos(SQL_TOP_SALDO), top(MetricaRanking.SALDO));
+
+        Timestamp hoy = Timestamp.valueOf(LocalDate.now().atStartOfDay());
+        assertEquals(topBaseDeDatos(String.format(SQL_TOP_DIA,
+                "'CONSIGNACION', 'TRANSFERENCIA_RECIBIDA', 'INTERES'"), hoy), top(MetricaRanking.ENTRADAS_DIA));
+        assertEquals(topBaseDeDatos(String.format(SQL_TOP_DIA,
+                "'RETIRO', 'TRANSFERENCIA_ENVIADA', 'GMF'"), hoy), top(MetricaRanking.SALIDAS_DIA));
+    }
+
+    private List<String> top(MetricaRanking metrica) {
+        return rankingCuentasService.obtenerRanking(metrica, TOP).posiciones().stream()
+                .map(posicion -> posicion.cuentaId() + "=" + posicion.valor())
+                .toList();
+    }
+
+    private List<String> topBaseDeDatos(String sql, Object... argumentos) {
+        List<String> filas = new ArrayList<>();
+        for (Map<String, Object> fila : jdbcTemplate.queryForList(sql, argumentos)) {
+            filas.add(fila.get("id") + "=" + ((BigDecimal) fila.get("total")).setScale(2));
+        }
+        return filas;
+    }
+
+    private long moverEnParalelo(List<Long> cuentas, Long recaudadora) throws Exception {
+        ExecutorService ejecutor = Executors.newFixedThreadPool(HILOS);
+        List<Future<Long>> tareas = new ArrayList<>();
+        for (int h = 0; h < HILOS; h++) {
+            Random aleatorio = new Random(h);
+            tareas.add(ejecutor.submit(() -> {
+                long exitosas = 0;
+                for (int i = 0; i < OPERACIONES_POR_HILO; i++) {
+                    Long cuenta = cuentas.get(aleatorio.nextInt(cuentas.size()));
+                    Long otra = cuentas.get(aleatorio.nextInt(cuentas.size()));
+                    BigDecimal monto = BigDecimal.valueOf(100 + aleatorio.nextInt(50_000), 2);
+                    int operacion = aleatorio.nextInt(4);
+                    try {
+                        concurrenciaCuentaService.ejecutar(() -> switch (operacion) {
+                            case 0 -> transaccionService.realizarConsignacion(recaudadora, monto, null);
+                            case 1 -> transaccionService.realizarConsignacion(cuenta, monto, null);
+                            case 2 -> transaccionService.realizarRetiro(cuenta, monto, null);
+                            default -> transaccionService.realizarTransferencia(cuenta, otra, monto, null);
+                        });
+                        exitosas++;
+                    } catch (IllegalArgumentException | IllegalStateException e) {
+                        // Saldo insuficiente, misma cuenta o intentos agotados
+                    }
+                }
+                return exitosas;
+            }));
+        }
+
+        long exitosas = 0;
+        for (Future<Long> tarea : tareas) {
+            exitosas += tarea.get();
+        }
+        ejecutor.shutdown();
+        return exitosas;
+    }
+
+    private List<Long> crearCuentas() {
+        Cliente cliente = new Cliente();
+        cliente.setTipoIdentificacion("CC");
+        cliente.setNumeroIdentificacion("700300");
+        cliente.setNombres("Carga");
+        cliente.setApellido("Tesorería");
+        cliente.setCorreoElectronico("tesoreria@correo.com");
+        cliente.setFechaNacimiento(LocalDate.of(1990, 1, 1));
+        Long clienteId = clienteService.crearCliente(cliente).getId();
+
+        List<Long> cuentas = new ArrayList<>();
+        for (int i = 0; i < CUENTAS; i++) {
+            Cuenta cuenta = new Cuenta();
+            cuenta.setTipoCuenta(i % 2 == 0 ? TipoCuenta.CUENTA_CORRIENTE : TipoCuenta.CUENTA_AHORRO);
+            cuenta.setSaldo(BigDecimal.valueOf(1_000L * (i % 17), 0).setScale(2));
+            cuenta.setExentaGMF(i % 3 == 0);
+            cuentas.add(cuentaService.crearCuenta(cuenta, clienteId).getId());
+        }
+        return cuentas;
+    }
+}
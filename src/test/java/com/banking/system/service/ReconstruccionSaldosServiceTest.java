@@ -0,0 +1,127 @@
+package com.banking.system.service;
+
+import com.banking.system.service.ReconstruccionSaldosService.Repeticion;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para la repetición del log de ReconstruccionSaldosService
+ */
+@DisplayName("Tests de ReconstruccionSaldosService")
+class ReconstruccionSaldosServiceTest {
+
+    @Test
+    @DisplayName("Primer saldo posterior - Debe deducir el saldo de apertura")
+    void testAperturaDesdePrimerSaldoPosterior() {
+        // Arrange: la cuenta abrió con 500.00 (no es una transacción)
+        Repeticion repeticion = new Repeticion(2);
+        try {
+            // Act
+            repeticion.agregar(1L, 100_000, 150_000);
+            repeticion.agregar(1L, -20_000, 130_000);
+            repeticion.agregar(1L, 5_000, 135_000);
+            repeticion.terminar();
+
+            // Assert
+            assertEquals(3L, repeticion.transacciones());
+            assertEquals(135_000L, repeticion.saldo(1L));
+            assertTrue(repeticion.conApertura(1L));
+            assertEquals(Repeticion.SIN_SALDO, repeticion.saldo(2L));
+        } finally {
+            repeticion.cerrar();
+        }
+    }
+
+    @Test
+    @DisplayName("Solo abonos en ranuras - Debe reconstruir con apertura 0")
+    void testSinSaldoPosterior() {
+        Repeticion repeticion = new Repeticion(1);
+        try {
+            repeticion.agregar(7L, 10_000, Repeticion.SIN_SALDO);
+            repeticion.agregar(7L, 2_500, Repeticion.SIN_SALDO);
+            repeticion.terminar();
+
+            assertEquals(12_500L, repeticion.saldo(7L));
+            assertFalse(repeticion.conApertura(7L));
+        } finally {
+            repeticion.cerrar();
+        }
+    }
+
+    @Test
+    @DisplayName("Crédito tras abonos en ranuras - La apertura sale del primer débito")
+    void testAperturaIgnoraCreditosConRanurasPendientes() {
+        // Arrange: apertura 1000.00; la transferencia recibida leyó las
+        // ranuras antes del abono concurrente y su saldo posterior no lo incluye
+        Repeticion repeticion = new Repeticion(1);
+        try {
+            repeticion.agregar(3L, 20_000, Repeticion.SIN_SALDO);
+            repeticion.agregar(3L, 5_000, 105_000);
+            repeticion.agregar(3L, -10_000, 115_000);
+            repeticion.terminar();
+
+            assertEquals(115_000L, repeticion.saldo(3L));
+            assertTrue(repeticion.conApertura(3L));
+        } finally {
+            repeticion.cerrar();
+        }
+    }
+
+    @Test
+    @DisplayName("Cuenta caliente - No deduce la apertura de un crédito aunque sea la primera fila")
+    void testCuentaCalienteSinAperturaDesdeCredito() {
+        // Arrange: apertura 1000.00; la transferencia recibida leyó las
+        // ranuras antes de un abono concurrente cuya fila va después
+        Repeticion repeticion = new Repeticion(2, new long[]{3L, 9L});
+        try {
+            repeticion.agregar(3L, 5_000, 105_000);
+            repeticion.agregar(3L, 20_000, Repeticion.SIN_SALDO);
+            repeticion.agregar(9L, 7_000, 7_000);
+            repeticion.agregar(4L, 7_000, 7_000);
+            repeticion.agregar(3L, -10_000, 115_000);
+            repeticion.terminar();
+
+            // Assert: la 3 toma la apertura del débito; la 9, sin débitos, queda sin apertura
+            assertEquals(115_000L, repeticion.saldo(3L));
+            assertTrue(repeticion.conApertura(3L));
+            assertFalse(repeticion.conApertura(9L));
+            assertTrue(repeticion.conApertura(4L));
+            assertEquals(Repeticion.SIN_SALDO, repeticion.saldo(5L));
+        } finally {
+            repeticion.cerrar();
+        }
+    }
+
+    @Test
+    @DisplayName("Varias particiones - Debe dar el mismo resultado que una sola")
+    void testParticionesEquivalentes() {
+        Repeticion una = new Repeticion(1);
+        Repeticion varias = new Repeticion(4);
+        try {
+            Random aleatorio = new Random(42);
+            long[] saldos = new long[5_001];
+            for (int i = 0; i < 200_000; i++) {
+                long cuentaId = 1 + aleatorio.nextInt(5_000);
+                long monto = aleatorio.nextBoolean() ? 1 + aleatorio.nextInt(100_000) : -aleatorio.nextInt(1_000);
+                saldos[(int) cuentaId] += monto;
+                long saldo = aleatorio.nextInt(10) == 0 ? Repeticion.SIN_SALDO : saldos[(int) cuentaId];
+                una.agregar(cuentaId, monto, saldo);
+                varias.agregar(cuentaId, monto, saldo);
+            }
+            una.terminar();
+            varias.terminar();
+
+            for (long cuentaId = 1; cuentaId <= 5_000; cuentaId++) {
+                assertEquals(una.saldo(cuentaId), varias.saldo(cuentaId));
+            }
+            assertEquals(una.transacciones(), varias.transacciones());
+        } finally {
+            una.cerrar();
+            varias.cerrar();
+        }
+    }
+}
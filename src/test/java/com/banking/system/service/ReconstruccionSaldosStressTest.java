@@ -0,0 +1,332 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.ArchivoTransacciones;
+import com.banking.system.entity.Cliente;
+import com.banking.system.entity.Conciliacion.EstadoConciliacion;
+import com.banking.system.entity.Cuenta;
+import com.banking.system.entity.Cuenta.TipoCuenta;
+import com.banking.system.service.ReconstruccionSaldosService.Repeticion;
+import com.banking.system.service.ReconstruccionSaldosService.ResultadoReconstruccion;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de carga de la reconstrucción de saldos sobre H2: varios hilos
+ * mueven dinero (con una cuenta caliente), luego se corrompen saldos y la
+ * reconstrucción debe encontrarlos sin aplicar y dejarlos conciliados al
+ * aplicar, también con parte del log en el archivo frío. Reporta en el log
+ * transacciones repetidas por segundo desde la BD y solo en memoria; la
+ * repetición en memoria debe pasar de 1M tx/s
+ * (-Dbanking.reconstruccion.carga.min-tx-por-segundo para otro objetivo).
+ */
+// Sin MODE=MySQL: en ese modo H2 repite IDs de columnas IDENTITY con
+// inserciones concurrentes y rollbacks
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:reconstruccion;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "banking.concurrencia.max-intentos=20",
+    "banking.cuentas-calientes.intervalo-consolidacion-ms=3600000",
+    "banking.velocidad.retiro.max-operaciones=100000",
+    "banking.velocidad.transferencia.max-operaciones=100000",
+    "banking.archivo.directorio=target/reconstruccion-archivo",
+    "banking.reconstruccion.tamano-lote=7"
+})
+@DisplayName("Prueba de carga de ReconstruccionSaldosService")
+class ReconstruccionSaldosStressTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconstruccionSaldosStressTest.class);
+
+    private static final int CUENTAS = 40;
+    private static final int MIN_TX_POR_SEGUNDO = Integer.getInteger(
+            "banking.reconstruccion.carga.min-tx-por-segundo", 1_000_000);
+    private static final int HILOS = 8;
+    private static final int OPERACIONES_POR_HILO = 100;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private CuentaService cuentaService;
+
+    @Autowired
+    private TransaccionService transaccionService;
+
+    @Autowired
+    private ConcurrenciaCuentaService concurrenciaCuentaService;
+
+    @Autowired
+    private SubsaldoCuentaService subsaldoCuentaService;
+
+    @Autowired
+    private ConciliacionService conciliacionService;
+
+    @Autowired
+    private ArchivoTransaccionService archivoTransaccionService;
+
+    @Autowired
+    private ReconstruccionSaldosService reconstruccionSaldosService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Saldos corrompidos - Sin aplicar los reporta, al aplicar quedan conciliados")
+    void testReconstruirSaldosCorrompidos() throws Exception {
+        // Arrange
+        List<Long> cuentas = crearCuentas("700400");
+        subsaldoCuentaService.activar(cuentas.get(0), 4);
+        moverEnParalelo(cuentas);
+        assertEquals(0L, reconstruccionSaldosService.reconstruir(false, null).diferencias());
+
+        Map<Long, BigDecimal> correctos = saldos(cuentas);
+        List<Long> corrompidas = List.of(cuentas.get(0), cuentas.get(5), cuentas.get(11), cuentas.get(17),
+                cuentas.get(23), cuentas.get(29), cuentas.get(31), cuentas.get(37), cuentas.get(39));
+        for (Long cuentaId : corrompidas) {
+            jdbcTemplate.update("UPDATE cuentas SET saldo = saldo + 13.37 WHERE id = ?", cuentaId);
+        }
+
+        // Act: sin aplicar no toca nada
+        ResultadoReconstruccion reporte = reconstruccionSaldosService.reconstruir(false, null);
+
+        // Assert
+        log.info("Reconstrucción (BD): {} transacciones en {} ms, {} cuentas, {} diferencias",
+                reporte.transacciones(), reporte.msRepeticion(), reporte.cuentasRevisadas(), reporte.diferencias());
+        assertEquals(corrompidas.size(), reporte.diferencias());
+        assertEquals(0L, reporte.actualizadas());
+        assertTrue(reporte.detalle().stream()
+                .allMatch(d -> d.diferencia().compareTo(new BigDecimal("-13.37")) == 0));
+        assertEquals(new BigDecimal("13.37"),
+                saldos(List.of(cuentas.get(5))).get(cuentas.get(5)).subtract(correctos.get(cuentas.get(5))));
+
+        // Act: al aplicar corrige en lotes y la conciliación vuelve a cuadrar
+        ResultadoReconstruccion aplicada = reconstruccionSaldosService.reconstruir(true, null);
+
+        assertEquals(corrompidas.size(), aplicada.actualizadas());
+        assertEquals(0L, aplicada.omitidas());
+        assertEquals(correctos, saldos(cuentas));
+        assertEquals(0L, reconstruccionSaldosService.reconstruir(false, null).diferencias());
+        assertEquals(EstadoConciliacion.CONCILIADA, conciliacionService.conciliar().getEstado());
+    }
+
+    @Test
+    @DisplayName("Parte del log archivado - Debe repetir el archivo y luego la BD")
+    void testReconstruirConArchivo() throws Exception {
+        // Arrange: la primera mitad del log pasa a un mes ya archivado
+        List<Long> cuentas = crearCuentas("700500");
+        moverEnParalelo(cuentas);
+        Map<Long, BigDecimal> correctos = saldos(cuentas);
+        YearMonth mes = YearMonth.now().minusMonths(24);
+        Long mitad = jdbcTemplate.queryForObject("SELECT MAX(id) / 2 FROM transacciones", Long.class);
+        jdbcTemplate.update("UPDATE transacciones SET fecha_transaccion = ? WHERE id <= ?",
+                Timestamp.valueOf(mes.atDay(10).atStartOfDay()), mitad);
+        // Las cuentas ya existían ese mes: la conciliación no las verifica desde la apertura
+        jdbcTemplate.update("UPDATE cuentas SET fecha_creacion = ? WHERE id BETWEEN ? AND ?",
+                Timestamp.valueOf(mes.atDay(1).atStartOfDay()), cuentas.get(0), cuentas.get(cuentas.size() - 1));
+        ArchivoTransacciones archivo = archivoTransaccionService.archivarMes(mes);
+        assertEquals(0L, reconstruccionSaldosService.reconstruir(false, null).diferencias());
+
+        jdbcTemplate.update("UPDATE cuentas SET saldo = 0 WHERE id = ?", cuentas.get(3));
+        jdbcTemplate.update("UPDATE cuentas SET saldo = saldo - 0.01 WHERE id = ?", cuentas.get(7));
+
+        // Act
+        ResultadoReconstruccion aplicada = reconstruccionSaldosService.reconstruir(true, null);
+
+        // Assert
+        assertEquals(2L, aplicada.actualizadas());
+        assertEquals(correctos, saldos(cuentas));
+
+        // Un archivo exportado suelto se puede repetir (sin aplicar) por su cuenta
+        ResultadoReconstruccion soloArchivo = reconstruccionSaldosService.reconstruir(false, archivo.getRuta());
+        assertEquals(archivo.getCantidadTransacciones(), soloArchivo.transacciones());
+        assertThrows(IllegalArgumentException.class,
+                () -> reconstruccionSaldosService.reconstruir(false, "target/no-existe.bin.gz"));
+    }
+
+    @Test
+    @DisplayName("Cuenta caliente solo con abonos - Se reporta sin apertura y al aplicar no se toca")
+    void testCuentaCalienteSinAperturaNoSeCorrige() {
+        // Arrange: abrió con 1000.00 y solo recibe abonos en ranuras y transferencias
+        List<Long> cuentas = crearCuentas("700700");
+        Long caliente = cuentas.get(1);
+        subsaldoCuentaService.activar(caliente, 4);
+        transaccionService.realizarTransferencia(cuentas.get(2), caliente, new BigDecimal("200.00"), null);
+        transaccionService.realizarConsignacion(caliente, new BigDecimal("50.00"), null);
+        Map<Long, BigDecimal> antes = saldos(List.of(caliente));
+
+        // Act
+        ResultadoReconstruccion aplicada = reconstruccionSaldosService.reconstruir(true, null);
+
+        // Assert: con apertura 0 daría 250.00, pero no se escribe
+        assertTrue(aplicada.detalle().stream().anyMatch(d -> d.cuentaId().equals(caliente)
+                && d.saldoReconstruido().compareTo(new BigDecimal("250.00")) == 0));
+        assertTrue(aplicada.cuentasSinSaldoPosterior() >= 1);
+        assertTrue(aplicada.omitidas() >= 1);
+        assertEquals(0, antes.get(caliente).compareTo(new BigDecimal("1250.00")));
+        assertEquals(antes, saldos(List.of(caliente)));
+
+        // Un débito consolida las ranuras y da la apertura (sin diferencias para las demás pruebas)
+        transaccionService.realizarRetiro(caliente, new BigDecimal("1.00"), null);
+        assertTrue(reconstruccionSaldosService.reconstruir(false, null).detalle().stream()
+                .noneMatch(d -> d.cuentaId().equals(caliente)));
+    }
+
+    @Test
+    @DisplayName("Log masivo en la BD - Debe repetirlo sin diferencias")
+    void testLogMasivo() {
+        // Arrange: cada cuenta alterna consignación y retiro de 1.00 con su cadena de saldos
+        List<Long> cuentas = crearCuentas("700600");
+        long desde = cuentas.get(0);
+        assertEquals(desde + CUENTAS - 1, cuentas.get(CUENTAS - 1));
+        int filas = 300_000;
+        long inicioCarga = System.nanoTime();
+        jdbcTemplate.update("INSERT INTO transacciones (tipo_transaccion, monto, descripcion, fecha_transaccion, "
+                + "cuenta_origen_id, saldo_posterior) "
+                + "SELECT CASE WHEN MOD(X / ?, 2) = 0 THEN 'CONSIGNACION' ELSE 'RETIRO' END, 1.00, 'Carga', "
+                + "CURRENT_TIMESTAMP, ? + MOD(X, ?), "
+                + "(SELECT saldo FROM cuentas WHERE id = ? + MOD(X, ?)) + CASE WHEN MOD(X / ?, 2) = 0 THEN 1 ELSE 0 END "
+                + "FROM SYSTEM_RANGE(0, ?) ORDER BY X",
+                CUENTAS, desde, CUENTAS, desde, CUENTAS, CUENTAS, filas - 1);
+        long msCarga = (System.nanoTime() - inicioCarga) / 1_000_000;
+        // El log sintético no parte del saldo de apertura: la conciliación no
+        // debe verificarlo desde ella (como una cuenta restaurada de un snapshot)
+        jdbcTemplate.update("UPDATE cuentas SET saldo_apertura = NULL WHERE id BETWEEN ? AND ?",
+                desde, desde + CUENTAS - 1);
+
+        // Act
+        ResultadoReconstruccion resultado = reconstruccionSaldosService.reconstruir(false, null);
+
+        // Assert
+        log.info("Reconstrucción (BD masiva): {} filas cargadas en {} ms; {} transacciones repetidas "
+                        + "en {} ms ({} tx/s), {} ms en total",
+                filas, msCarga, resultado.transacciones(), resultado.msRepeticion(),
+                String.format("%.0f", resultado.transaccionesPorSegundo()), resultado.duracionMs());
+        assertTrue(resultado.transacciones() >= filas);
+        assertEquals(0L, resultado.diferencias());
+    }
+
+    @Test
+    @DisplayName("Repetición en memoria de 10M transacciones - Mide transacciones por segundo")
+    void testRepeticionEnMemoria() {
+        int cuentas = 1_000_000;
+        int transacciones = 10_000_000;
+        long[] esperados = new long[cuentas + 1];
+
+        // Las filas se generan en el mismo hilo del lector (xorshift, sin
+        // arreglos de 10M): la medición incluye generarlas
+        Repeticion repeticion = new Repeticion(Runtime.getRuntime().availableProcessors());
+        long semilla = 7;
+        long inicio = System.nanoTime();
+        try {
+            for (int i = 0; i < transacciones; i++) {
+                semilla ^= semilla << 13;
+                semilla ^= semilla >>> 7;
+                semilla ^= semilla << 17;
+                int cuentaId = 1 + (int) ((semilla >>> 1) % cuentas);
+                long monto = (semilla & 1) == 0 ? 1 + (semilla >>> 40) % 1_000_000 : -((semilla >>> 44) % 1_000);
+                esperados[cuentaId] += monto;
+                repeticion.agregar(cuentaId, monto, esperados[cuentaId]);
+            }
+            repeticion.terminar();
+            double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+            double porSegundo = transacciones / segundos;
+            log.info("Repetición en memoria: {} transacciones de {} cuentas en {} s ({} tx/s, {} núcleos)",
+                    transacciones, cuentas, String.format("%.2f", segundos),
+                    String.format("%.0f", porSegundo), Runtime.getRuntime().availableProcessors());
+
+            assertEquals(transacciones, repeticion.transacciones());
+            assertTrue(porSegundo >= MIN_TX_POR_SEGUNDO, String.format(
+                    "La repetición en memoria hizo %.0f tx/s, el objetivo es %d", porSegundo, MIN_TX_POR_SEGUNDO));
+            for (int cuentaId = 1; cuentaId <= cuentas; cuentaId++) {
+                long reconstruido = repeticion.saldo(cuentaId);
+                if (reconstruido != Repeticion.SIN_SALDO) {
+                    assertEquals(esperados[cuentaId], reconstruido);
+                }
+            }
+        } finally {
+            repeticion.cerrar();
+        }
+    }
+
+    private Map<Long, BigDecimal> saldos(List<Long> cuentas) {
+        Map<Long, BigDecimal> saldos = new HashMap<>();
+        for (Long cuentaId : cuentas) {
+            saldos.put(cuentaId, jdbcTemplate.queryForObject("SELECT c.saldo + COALESCE((SELECT SUM(s.saldo) "
+                    + "FROM subsaldos_cuenta s WHERE s.cuenta_id = c.id), 0) FROM cuentas c WHERE c.id = ?",
+                    BigDecimal.class, cuentaId));
+        }
+        return saldos;
+    }
+
+    private void moverEnParalelo(List<Long> cuentas) throws Exception {
+        ExecutorService ejecutor = Executors.newFixedThreadPool(HILOS);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int h = 0; h < HILOS; h++) {
+            Random aleatorio = new Random(h);
+            tareas.add(ejecutor.submit(() -> {
+                for (int i = 0; i < OPERACIONES_POR_HILO; i++) {
+                    Long cuenta = cuentas.get(aleatorio.nextInt(cuentas.size()));
+                    Long otra = cuentas.get(aleatorio.nextInt(cuentas.size()));
+                    BigDecimal monto = BigDecimal.valueOf(100 + aleatorio.nextInt(50_000), 2);
+                    int operacion = aleatorio.nextInt(3);
+                    try {
+                        concurrenciaCuentaService.ejecutar(() -> switch (operacion) {
+                            case 0 -> transaccionService.realizarConsignacion(cuenta, monto, null);
+                            case 1 -> transaccionService.realizarRetiro(cuenta, monto, null);
+                            default -> transaccionService.realizarTransferencia(cuenta, otra, monto, null);
+                        });
+                    } catch (IllegalArgumentException | IllegalStateException e) {
+                        // Saldo insuficiente, misma cuenta o intentos agotados
+                    }
+                }
+            }));
+        }
+        for (Future<?> tarea : tareas) {
+            tarea.get();
+        }
+        ejecutor.shutdown();
+    }
+
+    private List<Long> crearCuentas(String identificacion) {
+        Cliente cliente = new Cliente();
+        cliente.setTipoIdentificacion("CC");
+        cliente.setNumeroIdentificacion(identificacion);
+        cliente.setNombres("Carga");
+        cliente.setApellido("Reconstrucción");
+        cliente.setCorreoElectronico("reconstruccion" + identificacion + "@correo.com");
+        cliente.setFechaNacimiento(LocalDate.of(1990, 1, 1));
+        Long clienteId = clienteService.crearCliente(cliente).getId();
+
+        List<Long> cuentas = new ArrayList<>();
+        for (int i = 0; i < CUENTAS; i++) {
+            Cuenta cuenta = new Cuenta();
+            cuenta.setTipoCuenta(i % 2 == 0 ? TipoCuenta.CUENTA_CORRIENTE : TipoCuenta.CUENTA_AHORRO);
+            cuenta.setSaldo(BigDecimal.valueOf(1_000L * (i % 17), 0).setScale(2));
+            cuenta.setExentaGMF(i % 3 == 0);
+            cuentas.add(cuentaService.crearCuenta(cuenta, clienteId).getId());
+        }
+        return cuentas;
+    }
+}
@@ -0,0 +1,93 @@
+package com.banking.system.service;
+
+import com.banking.system.service.SnapshotService.Bufer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.DataOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Tests unitarios para SnapshotService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de SnapshotService")
+class SnapshotServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private SnapshotService snapshotService;
+
+    @TempDir
+    Path directorio;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(snapshotService, "directorio", directorio.toString());
+        ReflectionTestUtils.setField(snapshotService, "filasPorBloque", 100);
+    }
+
+    @Test
+    @DisplayName("Nombre con ruta - Debe rechazarlo")
+    void testNombreInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> snapshotService.exportar("../fuera.snap"));
+        assertThrows(IllegalArgumentException.class, () -> snapshotService.restaurar("/tmp/estado.snap"));
+        assertThrows(IllegalArgumentException.class, () -> snapshotService.restaurar(".oculto"));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Archivo inexistente o de otro formato - Debe rechazarlo sin tocar la BD")
+    void testArchivoInvalido() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> snapshotService.restaurar("no-existe.snap"));
+
+        try (DataOutputStream salida = new DataOutputStream(new GZIPOutputStream(
+                Files.newOutputStream(directorio.resolve("otro.snap"))))) {
+            salida.writeInt(0x12345678);
+            salida.writeInt(1);
+        }
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> snapshotService.restaurar("otro.snap"));
+        assertTrue(error.getMessage().contains("no soportado"));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Varints y zigzag - Deben leerse igual que se escribieron")
+    void testBuferIdaYVuelta() {
+        long[] valores = {0, 1, -1, 63, -64, 64, 127, 128, 300, -300, Integer.MAX_VALUE, Integer.MIN_VALUE,
+            Long.MAX_VALUE, Long.MIN_VALUE, 1_767_225_600_123_456_789L};
+        Bufer bufer = new Bufer(4);
+        for (long valor : valores) {
+            bufer.zigzag(valor);
+        }
+        bufer.texto("Consignación en cajero ñ");
+        bufer.varint(Long.MAX_VALUE);
+
+        bufer.posicion = 0;
+        for (long valor : valores) {
+            assertEquals(valor, bufer.leerZigzag());
+        }
+        assertEquals("Consignación en cajero ñ", bufer.leerTexto());
+        assertEquals(Long.MAX_VALUE, bufer.leerVarint());
+        // Las diferencias pequeñas ocupan un byte
+        Bufer pequeno = new Bufer(16);
+        pequeno.zigzag(-3);
+        assertEquals(1, pequeno.posicion);
+    }
+}
@@ -0,0 +1,180 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.Cliente;
+import com.banking.system.service.SnapshotService.ResultadoExportacion;
+import com.banking.system.service.SnapshotService.ResultadoRestauracion;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de carga de los snapshots sobre H2: siembra con SQL un historial de
+ * transacciones (500k por defecto; para la escala de los ambientes de
+ * desempeño -Dbanking.snapshot.transacciones=10000000 con una BD en disco,
+ * -Dbanking.snapshot.url=jdbc:h2:file:./target/snapshot-bd), exporta, vacía
+ * las tablas y restaura. Las tablas restauradas deben quedar
+ * idénticas fila a fila. Reporta en el log el tamaño del archivo y los
+ * tiempos de cada fase.
+ */
+// Sin MODE=MySQL: en ese modo H2 repite IDs de columnas IDENTITY con
+// inserciones concurrentes y rollbacks
+@SpringBootTest(properties = {
+    "spring.datasource.url=${banking.snapshot.url:jdbc:h2:mem:snapshot;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000}",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "banking.snapshot.directorio=target/snapshots"
+})
+@DisplayName("Prueba de carga de SnapshotService")
+class SnapshotStressTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotStressTest.class);
+
+    private static final int TRANSACCIONES = Integer.getInteger("banking.snapshot.transacciones", 500_000);
+    private static final int CUENTAS = Math.max(100, TRANSACCIONES / 20);
+    private static final int CLIENTES = Math.max(50, CUENTAS / 3);
+    private static final int TRAMO_SIEMBRA = 250_000;
+
+    // Huella por tabla: cantidad y suma de un hash de cada fila completa
+    private static final Map<String, String> SQL_HUELLAS = Map.of(
+            "clientes", "SELECT COUNT(*), SUM(ORA_HASH(CONCAT_WS('|', id, tipo_identificacion, numero_identificacion, "
+                    + "nombres, apellido, correo_electronico, fecha_nacimiento, fecha_creacion, "
+                    + "COALESCE(CAST(fecha_modificacion AS VARCHAR), '~')))) FROM clientes",
+            "cuentas", "SELECT COUNT(*), SUM(ORA_HASH(CONCAT_WS('|', id, tipo_cuenta, numero_cuenta, estado, saldo, "
+                    + "exenta_gmf, fecha_creacion, COALESCE(CAST(fecha_modificacion AS VARCHAR), '~'), "
+                    + "COALESCE(CAST(fecha_ultima_causacion AS VARCHAR), '~'), version, cliente_id))) FROM cuentas",
+            "transacciones", "SELECT COUNT(*), SUM(ORA_HASH(CONCAT_WS('|', id, tipo_transaccion, monto, "
+                    + "COALESCE(descripcion, '~'), fecha_transaccion, cuenta_origen_id, "
+                    + "COALESCE(CAST(cuenta_destino_id AS VARCHAR), '~'), "
+                    + "COALESCE(CAST(saldo_posterior AS VARCHAR), '~')))) FROM transacciones");
+
+    @Autowired
+    private SnapshotService snapshotService;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private BusquedaClienteService busquedaClienteService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Exportar, vaciar y restaurar - Las tablas quedan idénticas y con su índice")
+    void testExportarYRestaurar() {
+        // Arrange
+        long inicioSiembra = System.nanoTime();
+        sembrar();
+        long msSiembra = (System.nanoTime() - inicioSiembra) / 1_000_000;
+        List<String> antes = huellas();
+
+        // Act
+        ResultadoExportacion exportacion = snapshotService.exportar("estado.snap");
+        vaciar();
+        assertThrows(IllegalArgumentException.class, () -> snapshotService.restaurar("no-existe.snap"));
+        ResultadoRestauracion restauracion = snapshotService.restaurar("estado.snap");
+
+        // Assert
+        log.info("Snapshot: {} clientes, {} cuentas, {} transacciones (siembra SQL en {} ms)",
+                exportacion.clientes(), exportacion.cuentas(), exportacion.transacciones(), msSiembra);
+        log.info("Snapshot: exportación {} ms, {} MB ({} bytes por transacción), {} filas/s",
+                exportacion.duracionMs(), String.format("%.1f", exportacion.tamanoBytes() / 1e6),
+                String.format("%.1f", (double) exportacion.tamanoBytes() / exportacion.transacciones()),
+                String.format("%.0f", exportacion.filasPorSegundo()));
+        log.info("Snapshot: restauración con carga {} ms ({} filas/s), índice e identidades {} ms, total {} ms",
+                restauracion.msCarga(), String.format("%.0f", restauracion.filasPorSegundo()),
+                restauracion.msIndices(), restauracion.duracionMs());
+        assertEquals(TRANSACCIONES, restauracion.transacciones());
+        assertEquals(antes, huellas());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES "
+                + "WHERE INDEX_NAME = 'IDX_TRANSACCIONES_CUENTA_FECHA'", Integer.class));
+        assertEquals(CLIENTES, busquedaClienteService.obtenerMetricas().clientesIndexados());
+
+        // La identidad sigue después del último ID restaurado
+        Long maximo = jdbcTemplate.queryForObject("SELECT MAX(id) FROM clientes", Long.class);
+        assertTrue(clienteService.crearCliente(cliente()).getId() > maximo);
+
+        // Con datos, la restauración se rechaza
+        assertThrows(IllegalStateException.class, () -> snapshotService.restaurar("estado.snap"));
+    }
+
+    private void sembrar() {
+        jdbcTemplate.update("INSERT INTO clientes (tipo_identificacion, numero_identificacion, nombres, apellido, "
+                + "correo_electronico, fecha_nacimiento, fecha_creacion, fecha_modificacion) "
+                + "SELECT CASE WHEN MOD(X, 10) = 0 THEN 'CE' ELSE 'CC' END, CAST(10000000 + X AS VARCHAR), "
+                + "CASE MOD(X, 4) WHEN 0 THEN 'María' WHEN 1 THEN 'Juan' WHEN 2 THEN 'Ángela' ELSE 'Andrés' END, "
+                + "CASE MOD(X, 3) WHEN 0 THEN 'Rodríguez' WHEN 1 THEN 'Gómez' ELSE 'Muñoz' END, "
+                + "'cliente' || X || '@correo.com', DATEADD(DAY, MOD(X * 37, 20000), DATE '1950-01-01'), "
+                + "DATEADD(SECOND, X, TIMESTAMP '2020-01-01 08:00:00.123456'), "
+                + "CASE WHEN MOD(X, 2) = 0 THEN NULL ELSE DATEADD(DAY, 30, TIMESTAMP '2021-03-01 10:00:00') END "
+                + "FROM SYSTEM_RANGE(1, ?) ORDER BY X", CLIENTES);
+        long primerCliente = jdbcTemplate.queryForObject("SELECT MIN(id) FROM clientes", Long.class);
+
+        jdbcTemplate.update("INSERT INTO cuentas (tipo_cuenta, numero_cuenta, estado, saldo, exenta_gmf, "
+                + "fecha_creacion, fecha_modificacion, fecha_ultima_causacion, version, cliente_id) "
+                + "SELECT CASE WHEN MOD(X, 2) = 0 THEN 'CUENTA_AHORRO' ELSE 'CUENTA_CORRIENTE' END, "
+                + "CASE WHEN MOD(X, 2) = 0 THEN '53' ELSE '33' END || LPAD(CAST(X AS VARCHAR), 8, '0'), "
+                + "CASE WHEN MOD(X, 50) = 0 THEN 'INACTIVA' ELSE 'ACTIVA' END, MOD(X * 7919, 100000000) / 100.0, "
+                + "MOD(X, 3) = 0, DATEADD(SECOND, X, TIMESTAMP '2022-01-01 00:00:00'), "
+                + "CASE WHEN MOD(X, 5) = 0 THEN NULL ELSE TIMESTAMP '2024-06-01 12:00:00' END, "
+                + "CASE WHEN MOD(X, 2) = 0 THEN DATE '2024-12-31' ELSE NULL END, MOD(X, 9), ? + MOD(X, ?) "
+                + "FROM SYSTEM_RANGE(1, ?) ORDER BY X", primerCliente, CLIENTES, CUENTAS);
+        long primeraCuenta = jdbcTemplate.queryForObject("SELECT MIN(id) FROM cuentas", Long.class);
+
+        // Por tramos: un solo INSERT de millones de filas guarda todo en el undo de la transacción
+        for (int desde = 1; desde <= TRANSACCIONES; desde += TRAMO_SIEMBRA) {
+            jdbcTemplate.update("INSERT INTO transacciones (tipo_transaccion, monto, descripcion, fecha_transaccion, "
+                    + "cuenta_origen_id, cuenta_destino_id, saldo_posterior) "
+                    + "SELECT CASE MOD(X, 6) WHEN 0 THEN 'CONSIGNACION' WHEN 1 THEN 'RETIRO' WHEN 2 THEN 'GMF' "
+                    + "WHEN 3 THEN 'TRANSFERENCIA_ENVIADA' WHEN 4 THEN 'TRANSFERENCIA_RECIBIDA' ELSE 'INTERES' END, "
+                    + "1 + MOD(X * 104729, 5000000) / 100.0, "
+                    + "CASE WHEN MOD(X, 7) = 0 THEN NULL ELSE 'Movimiento ' || MOD(X, 40) END, "
+                    + "DATEADD(MILLISECOND, X * 250, TIMESTAMP '2025-01-01 00:00:00'), ? + MOD(X, ?), "
+                    + "CASE WHEN MOD(X, 6) IN (3, 4) THEN ? + MOD(X * 31, ?) ELSE NULL END, "
+                    + "CASE WHEN MOD(X, 11) = 0 THEN NULL ELSE MOD(X * 15485863, 1000000000) / 100.0 END "
+                    + "FROM SYSTEM_RANGE(?, ?) ORDER BY X",
+                    primeraCuenta, CUENTAS, primeraCuenta, CUENTAS, desde,
+                    Math.min(TRANSACCIONES, desde + TRAMO_SIEMBRA - 1));
+        }
+    }
+
+    private List<String> huellas() {
+        return SnapshotService.TABLAS.stream()
+                .map(tabla -> jdbcTemplate.queryForList(SQL_HUELLAS.get(tabla.nombre())).get(0).values().toString())
+                .toList();
+    }
+
+    private void vaciar() {
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        try {
+            for (String tabla : List.of("transacciones", "cuentas", "clientes")) {
+                jdbcTemplate.execute("TRUNCATE TABLE " + tabla + " RESTART IDENTITY");
+            }
+        } finally {
+            jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+        }
+    }
+
+    private Cliente cliente() {
+        Cliente cliente = new Cliente();
+        cliente.setTipoIdentificacion("CC");
+        cliente.setNumeroIdentificacion("900100");
+        cliente.setNombres("Nueva");
+        cliente.setApellido("Restauración");
+        cliente.setCorreoElectronico("nueva@correo.com");
+        cliente.setFechaNacimiento(LocalDate.of(1990, 1, 1));
+        return cliente;
+    }
+}
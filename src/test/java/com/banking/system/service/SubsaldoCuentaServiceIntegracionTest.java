@@ -0,0 +1,148 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.Cliente;
+import com.banking.system.entity.Cuenta;
+import com.banking.system.entity.Cuenta.EstadoCuenta;
+import com.banking.system.entity.Cuenta.TipoCuenta;
+import com.banking.system.entity.Transaccion;
+import com.banking.system.repository.CuentaRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de las cuentas calientes sobre H2: la marca se lee de la tabla (como
+ * la vería un nodo que no activó la cuenta) y los débitos, la cancelación y
+ * la eliminación cuentan el saldo de las ranuras
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:subsaldos-integracion;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "banking.outbox.hilos=0",
+    "banking.cuentas-calientes.intervalo-consolidacion-ms=3600000"
+})
+@DisplayName("Tests de integración de SubsaldoCuentaService")
+class SubsaldoCuentaServiceIntegracionTest {
+
+    @Autowired
+    private SubsaldoCuentaService subsaldoCuentaService;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private CuentaService cuentaService;
+
+    @Autowired
+    private TransaccionService transaccionService;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Cuenta activada en otro nodo - Las consignaciones van a ranuras y el retiro las consolida")
+    void testCuentaCalienteDeOtroNodo() {
+        // Arrange: otro nodo creó las ranuras y marcó la cuenta
+        Long cuentaId = crearCuenta("910100");
+        marcarCalienteComoOtroNodo(cuentaId, 4);
+        transaccionService.realizarConsignacion(cuentaId, new BigDecimal("500.00"), null);
+
+        // Act: retira todo, fila más ranuras
+        Transaccion retiro = transaccionService.realizarRetiro(cuentaId, new BigDecimal("1500.00"), null);
+
+        // Assert
+        assertTrue(subsaldoCuentaService.esCaliente(cuentaId));
+        assertEquals(0, BigDecimal.ZERO.compareTo(retiro.getSaldoPosterior()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(saldoRanuras(cuentaId)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(cuentaRepository.findById(cuentaId).orElseThrow().getSaldo()));
+        assertEquals(1, subsaldoCuentaService.obtenerMetricas().cuentasCalientes());
+        subsaldoCuentaService.desactivar(cuentaId);
+        assertEquals(0, subsaldoCuentaService.obtenerMetricas().cuentasCalientes());
+    }
+
+    @Test
+    @DisplayName("Cancelar cuenta caliente con saldo en ranuras - Debe fallar y dejar las ranuras")
+    void testCancelarCuentaCalienteConSaldoEnRanuras() {
+        // Arrange: la fila queda en cero y el dinero solo en las ranuras
+        Long cuentaId = crearCuenta("910200");
+        transaccionService.realizarRetiro(cuentaId, new BigDecimal("1000.00"), null);
+        subsaldoCuentaService.activar(cuentaId, 4);
+        transaccionService.realizarConsignacion(cuentaId, new BigDecimal("300.00"), null);
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> cuentaService.cancelarCuenta(cuentaId));
+        assertTrue(exception.getMessage().contains("300.00"));
+        assertTrue(subsaldoCuentaService.esCaliente(cuentaId));
+        assertEquals(0, new BigDecimal("300.00").compareTo(saldoRanuras(cuentaId)));
+
+        // Sin saldo se cancela y deja de ser caliente
+        transaccionService.realizarRetiro(cuentaId, new BigDecimal("300.00"), null);
+        transaccionService.realizarConsignacion(cuentaId, new BigDecimal("0.50"), null);
+        assertThrows(IllegalArgumentException.class, () -> cuentaService.cancelarCuenta(cuentaId));
+        transaccionService.realizarRetiro(cuentaId, new BigDecimal("0.50"), null);
+        assertEquals(EstadoCuenta.CANCELADA, cuentaService.cancelarCuenta(cuentaId).getEstado());
+        assertFalse(subsaldoCuentaService.esCaliente(cuentaId));
+        assertEquals(0L, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM subsaldos_cuenta WHERE cuenta_id = ?", Long.class, cuentaId));
+    }
+
+    @Test
+    @DisplayName("Eliminar cuenta cancelada con ranuras - Debe fallar si las ranuras tienen saldo")
+    void testEliminarCuentaCanceladaConRanuras() {
+        // Arrange: cancelada por cambio de estado, con dinero en las ranuras
+        Long cuentaId = crearCuenta("910300");
+        transaccionService.realizarRetiro(cuentaId, new BigDecimal("1000.00"), null);
+        subsaldoCuentaService.activar(cuentaId, 2);
+        transaccionService.realizarConsignacion(cuentaId, new BigDecimal("80.00"), null);
+        cuentaService.actualizarEstadoCuenta(cuentaId, EstadoCuenta.CANCELADA);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> cuentaService.eliminarCuenta(cuentaId));
+        assertTrue(cuentaRepository.existsById(cuentaId));
+        assertEquals(0, new BigDecimal("80.00").compareTo(saldoRanuras(cuentaId)));
+    }
+
+    private void marcarCalienteComoOtroNodo(Long cuentaId, int ranuras) {
+        for (int ranura = 0; ranura < ranuras; ranura++) {
+            jdbcTemplate.update("INSERT INTO subsaldos_cuenta (cuenta_id, ranura, saldo, fecha_modificacion) "
+                    + "VALUES (?, ?, 0, CURRENT_TIMESTAMP)", cuentaId, ranura);
+        }
+        jdbcTemplate.update("UPDATE cuentas SET ranuras = ? WHERE id = ?", ranuras, cuentaId);
+    }
+
+    private BigDecimal saldoRanuras(Long cuentaId) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(saldo), 0) FROM subsaldos_cuenta WHERE cuenta_id = ?",
+                BigDecimal.class, cuentaId);
+    }
+
+    private Long crearCuenta(String identificacion) {
+        Cliente cliente = new Cliente();
+        cliente.setTipoIdentificacion("CC");
+        cliente.setNumeroIdentificacion(identificacion);
+        cliente.setNombres("Subsaldo");
+        cliente.setApellido("Caliente");
+        cliente.setCorreoElectronico("subsaldo" + identificacion + "@correo.com");
+        cliente.setFechaNacimiento(LocalDate.of(1990, 1, 1));
+        Long clienteId = clienteService.crearCliente(cliente).getId();
+
+        Cuenta cuenta = new Cuenta();
+        cuenta.setTipoCuenta(TipoCuenta.CUENTA_AHORRO);
+        cuenta.setSaldo(new BigDecimal("1000.00"));
+        cuenta.setExentaGMF(true);
+        return cuentaService.crearCuenta(cuenta, clienteId).getId();
+    }
+}
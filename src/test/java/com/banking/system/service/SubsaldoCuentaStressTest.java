@@ -0,0 +1,163 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.Cliente;
+import com.banking.system.entity.Conciliacion;
+import com.banking.system.entity.Conciliacion.EstadoConciliacion;
+import com.banking.system.entity.Cuenta;
+import com.banking.system.entity.Cuenta.TipoCuenta;
+import com.banking.system.repository.CuentaRepository;
+import com.banking.system.service.ConcurrenciaCuentaService.MetricasConcurrencia;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de carga de las cuentas calientes sobre H2: varios hilos consignan a
+ * la vez en una sola cuenta, primero abonando en su fila y después repartiendo
+ * en ranuras. Reporta en el log consignaciones por segundo y conflictos de
+ * cada caso y verifica que el saldo total y la conciliación cuadren.
+ */
+// Sin MODE=MySQL: en ese modo H2 repite IDs de columnas IDENTITY con
+// inserciones concurrentes y rollbacks
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:subsaldos;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "banking.concurrencia.max-intentos=20",
+    "banking.cuentas-calientes.intervalo-consolidacion-ms=3600000"
+})
+@DisplayName("Prueba de carga de SubsaldoCuentaService")
+class SubsaldoCuentaStressTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SubsaldoCuentaStressTest.class);
+
+    private static final int HILOS = 8;
+    private static final int OPERACIONES_POR_HILO = 100;
+    private static final int RANURAS = 16;
+    private static final BigDecimal MONTO = new BigDecimal("1.00");
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private CuentaService cuentaService;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private TransaccionService transaccionService;
+
+    @Autowired
+    private ConcurrenciaCuentaService concurrenciaCuentaService;
+
+    @Autowired
+    private SubsaldoCuentaService subsaldoCuentaService;
+
+    @Autowired
+    private ConciliacionService conciliacionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Consignaciones a una cuenta con y sin ranuras - Saldo completo y conciliado")
+    void testCompararConYSinRanuras() throws Exception {
+        Long cuentaId = crearCuenta();
+        BigDecimal esperado = BigDecimal.ZERO;
+
+        for (boolean caliente : new boolean[]{false, true}) {
+            // Arrange
+            if (caliente) {
+                subsaldoCuentaService.activar(cuentaId, RANURAS);
+            }
+            MetricasConcurrencia antes = concurrenciaCuentaService.obtenerMetricas();
+
+            // Act
+            long inicio = System.nanoTime();
+            long exitosas = consignarEnParalelo(cuentaId);
+            double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+            // Assert: ninguna consignación se perdió y getSaldo incluye las ranuras
+            MetricasConcurrencia despues = concurrenciaCuentaService.obtenerMetricas();
+            log.info("{} {} consignaciones/s  conflictos={}  fallidas={}",
+                    caliente ? "con ranuras" : "sin ranuras", String.format("%.0f", exitosas / segundos),
+                    despues.conflictos() - antes.conflictos(), HILOS * OPERACIONES_POR_HILO - exitosas);
+            esperado = esperado.add(MONTO.multiply(BigDecimal.valueOf(exitosas)));
+            assertEquals(0, esperado.compareTo(cuentaRepository.findById(cuentaId).orElseThrow().getSaldo()));
+            if (caliente) {
+                assertEquals(0, despues.conflictos() - antes.conflictos());
+            }
+        }
+
+        // Un retiro consolida las ranuras y la cadena de saldos sigue cuadrando
+        Conciliacion previa = conciliacionService.conciliar();
+        transaccionService.realizarRetiro(cuentaId, MONTO, null);
+        esperado = esperado.subtract(MONTO);
+
+        BigDecimal enFila = jdbcTemplate.queryForObject("SELECT saldo FROM cuentas WHERE id = ?", BigDecimal.class, cuentaId);
+        assertEquals(0, esperado.compareTo(enFila));
+        assertEquals(EstadoConciliacion.CONCILIADA, previa.getEstado());
+        assertEquals(EstadoConciliacion.CONCILIADA, conciliacionService.conciliar().getEstado());
+    }
+
+    private long consignarEnParalelo(Long cuentaId) throws Exception {
+        ExecutorService ejecutor = Executors.newFixedThreadPool(HILOS);
+        List<Future<Long>> tareas = new ArrayList<>();
+        for (int h = 0; h < HILOS; h++) {
+            tareas.add(ejecutor.submit(() -> {
+                long exitosas = 0;
+                for (int i = 0; i < OPERACIONES_POR_HILO; i++) {
+                    try {
+                        concurrenciaCuentaService.ejecutar(
+                                () -> transaccionService.realizarConsignacion(cuentaId, MONTO, null));
+                        exitosas++;
+                    } catch (IllegalStateException e) {
+                        // Intentos agotados: cuenta como fallida
+                    }
+                }
+                return exitosas;
+            }));
+        }
+
+        long exitosas = 0;
+        for (Future<Long> tarea : tareas) {
+            exitosas += tarea.get();
+        }
+        ejecutor.shutdown();
+        return exitosas;
+    }
+
+    private Long crearCuenta() {
+        Cliente cliente = new Cliente();
+        cliente.setTipoIdentificacion("CC");
+        cliente.setNumeroIdentificacion("700200");
+        cliente.setNombres("Carga");
+        cliente.setApellido("Recaudadora");
+        cliente.setCorreoElectronico("recaudo@correo.com");
+        cliente.setFechaNacimiento(LocalDate.of(1990, 1, 1));
+        Long clienteId = clienteService.crearCliente(cliente).getId();
+
+        Cuenta cuenta = new Cuenta();
+        cuenta.setTipoCuenta(TipoCuenta.CUENTA_CORRIENTE);
+        cuenta.setSaldo(BigDecimal.ZERO);
+        cuenta.setExentaGMF(true);
+        return cuentaService.crearCuenta(cuenta, clienteId).getId();
+    }
+}
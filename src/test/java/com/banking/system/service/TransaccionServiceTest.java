@@ -5,6 +5,7 @@ import com.banking.system.entity.Cuenta;
 import com.banking.system.entity.Cuenta.EstadoCuenta;
 import com.banking.system.entity.Cuenta.TipoCuenta;
 import com.banking.system.entity.Transaccion;
+import com.banking.system.entity.Transaccion.TipoTransaccion;
 import com.banking.system.repository.CuentaRepository;
 import com.banking.system.repository.TransaccionRepository;
 import com.banking.system.service.TransaccionService;
@@ -12,17 +13,21 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 /**
@@ -38,6 +43,27 @@ class TransaccionServiceTest {
     @Mock
     private CuentaRepository cuentaRepository;
     
+    @Mock
+    private GMFService gmfService;
+    
+    @Mock
+    private ArchivoTransaccionService archivoTransaccionService;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private VelocidadService velocidadService;
+
+    @Mock
+    private ConcurrenciaCuentaService concurrenciaCuentaService;
+
+    @Mock
+    private SubsaldoCuentaService subsaldoCuentaService;
+
+    @Mock
+    private RankingCuentasService rankingCuentasService;
+    
     @InjectMocks
     private TransaccionService transaccionService;
     
@@ -70,6 +96,8 @@ class TransaccionServiceTest {
         cuentaDestino.setSaldo(new BigDecimal("50000"));
         cuentaDestino.setExentaGMF(true);
         cuentaDestino.setCliente(cliente);
+        
+        lenient().when(gmfService.calcularGMF(any(Cuenta.class), any(BigDecimal.class))).thenReturn(BigDecimal.ZERO);
     }
     
     @Test
@@ -93,8 +121,48 @@ class TransaccionServiceTest {
         assertEquals(montoConsignacion, resultado.getMonto());
         verify(cuentaRepository, times(1)).save(any(Cuenta.class));
         verify(transaccionRepository, times(1)).save(any(Transaccion.class));
+        verify(outboxService, times(1)).registrarTransaccion(resultado);
     }
     
+    @Test
+    @DisplayName("Consignación en cuenta caliente - Debe abonar en una ranura sin tocar la cuenta")
+    void testRealizarConsignacionCuentaCaliente() {
+        // Arrange
+        BigDecimal monto = new BigDecimal("50000");
+        when(subsaldoCuentaService.esCaliente(1L)).thenReturn(true);
+        when(subsaldoCuentaService.abonar(1L, monto)).thenReturn(true);
+        when(cuentaRepository.findById(1L)).thenReturn(Optional.of(cuentaOrigen));
+        when(transaccionRepository.save(any(Transaccion.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Transaccion resultado = transaccionService.realizarConsignacion(1L, monto, null);
+
+        // Assert: el saldo de la fila no cambia y el saldo posterior queda sin calcular
+        assertEquals(new BigDecimal("100000"), cuentaOrigen.getSaldo());
+        assertNull(resultado.getSaldoPosterior());
+        verify(cuentaRepository, never()).save(any(Cuenta.class));
+        verify(cuentaRepository, never()).findByIdParaActualizar(any());
+        verify(outboxService).registrarTransaccion(resultado);
+    }
+
+    @Test
+    @DisplayName("Retiro de cuenta caliente - Debe consolidar las ranuras antes de cargar la cuenta")
+    void testRealizarRetiroCuentaCaliente() {
+        // Arrange
+        when(subsaldoCuentaService.esCaliente(1L)).thenReturn(true);
+        when(cuentaRepository.findById(1L)).thenReturn(Optional.of(cuentaOrigen));
+        when(transaccionRepository.save(any(Transaccion.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Transaccion resultado = transaccionService.realizarRetiro(1L, new BigDecimal("30000"), null);
+
+        // Assert
+        InOrder orden = inOrder(subsaldoCuentaService, cuentaRepository);
+        orden.verify(subsaldoCuentaService).consolidar(1L);
+        orden.verify(cuentaRepository).findById(1L);
+        assertEquals(new BigDecimal("70000"), resultado.getSaldoPosterior());
+    }
+
     @Test
     @DisplayName("Realizar consignación con monto negativo - Debe fallar")
     void testRealizarConsignacionMontoNegativo() {
@@ -151,6 +219,27 @@ class TransaccionServiceTest {
         verify(transaccionRepository, times(1)).save(any(Transaccion.class));
     }
     
+    @Test
+    @DisplayName("Realizar retiro bloqueado por control de velocidad - Debe fallar sin mover dinero")
+    void testRealizarRetiroBloqueadoPorVelocidad() {
+        // Arrange
+        BigDecimal montoRetiro = new BigDecimal("20000");
+        BigDecimal saldoInicial = cuentaOrigen.getSaldo();
+        when(cuentaRepository.findById(1L)).thenReturn(Optional.of(cuentaOrigen));
+        doThrow(new FraudeSospechosoException("Operación bloqueada por control de fraude: más de 10 retiros en 5 minutos"))
+                .when(velocidadService).verificarYRegistrar(1L, TipoTransaccion.RETIRO, montoRetiro);
+
+        // Act & Assert
+        FraudeSospechosoException exception = assertThrows(
+            FraudeSospechosoException.class,
+            () -> transaccionService.realizarRetiro(1L, montoRetiro, "Test")
+        );
+
+        assertTrue(exception.getMessage().contains("control de fraude"));
+        assertEquals(saldoInicial, cuentaOrigen.getSaldo());
+        verify(transaccionRepository, never()).save(any(Transaccion.class));
+    }
+
     @Test
     @DisplayName("Realizar retiro con saldo insuficiente - Debe fallar")
     void testRealizarRetiroSaldoInsuficiente() {
@@ -194,6 +283,86 @@ class TransaccionServiceTest {
         verify(transaccionRepository, times(2)).save(any(Transaccion.class));
     }
     
+    @Test
+    @DisplayName("Realizar retiro con GMF - Debe descontar el 4x1000 y crear transacción GMF")
+    void testRealizarRetiroConGMF() {
+        // Arrange
+        BigDecimal montoRetiro = new BigDecimal("20000");
+        when(gmfService.calcularGMF(cuentaOrigen, montoRetiro)).thenReturn(new BigDecimal("80.00"));
+        when(cuentaRepository.findById(1L)).thenReturn(Optional.of(cuentaOrigen));
+        when(transaccionRepository.save(any(Transaccion.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // Act
+        Transaccion resultado = transaccionService.realizarRetiro(1L, montoRetiro, "Retiro test");
+        
+        // Assert
+        assertEquals(new BigDecimal("80000"), resultado.getSaldoPosterior());
+        assertEquals(new BigDecimal("79920.00"), cuentaOrigen.getSaldo());
+        verify(transaccionRepository).save(argThat(t -> t.getTipoTransaccion() == Transaccion.TipoTransaccion.GMF
+                && t.getMonto().compareTo(new BigDecimal("80")) == 0));
+    }
+    
+    @Test
+    @DisplayName("Realizar retiro sin saldo para el GMF - Debe fallar")
+    void testRealizarRetiroSaldoInsuficienteParaGMF() {
+        // Arrange
+        BigDecimal montoRetiro = new BigDecimal("100000");
+        when(gmfService.calcularGMF(cuentaOrigen, montoRetiro)).thenReturn(new BigDecimal("400.00"));
+        when(cuentaRepository.findById(1L)).thenReturn(Optional.of(cuentaOrigen));
+        
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> transaccionService.realizarRetiro(1L, montoRetiro, "Test")
+        );
+        
+        assertTrue(exception.getMessage().contains("GMF"));
+        verify(transaccionRepository, never()).save(any(Transaccion.class));
+    }
+    
+    @Test
+    @DisplayName("Realizar transferencia con GMF - Debe retornar 3 transacciones")
+    void testRealizarTransferenciaConGMF() {
+        // Arrange
+        BigDecimal montoTransferencia = new BigDecimal("30000");
+        when(gmfService.calcularGMF(cuentaOrigen, montoTransferencia)).thenReturn(new BigDecimal("120.00"));
+        when(cuentaRepository.findById(1L)).thenReturn(Optional.of(cuentaOrigen));
+        when(cuentaRepository.findById(2L)).thenReturn(Optional.of(cuentaDestino));
+        when(transaccionRepository.save(any(Transaccion.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // Act
+        List<Transaccion> resultado = transaccionService.realizarTransferencia(
+            1L, 2L, montoTransferencia, "Transferencia test"
+        );
+        
+        // Assert
+        assertEquals(3, resultado.size());
+        assertEquals(Transaccion.TipoTransaccion.GMF, resultado.get(2).getTipoTransaccion());
+        assertEquals(new BigDecimal("69880.00"), cuentaOrigen.getSaldo());
+        assertEquals(new BigDecimal("80000"), cuentaDestino.getSaldo());
+    }
+    
+    @Test
+    @DisplayName("Transferencia a cuenta caliente - La recepción queda sin saldo posterior")
+    void testRealizarTransferenciaDestinoCaliente() {
+        // Arrange
+        when(subsaldoCuentaService.esCaliente(1L)).thenReturn(false);
+        when(subsaldoCuentaService.esCaliente(2L)).thenReturn(true);
+        when(cuentaRepository.findById(1L)).thenReturn(Optional.of(cuentaOrigen));
+        when(cuentaRepository.findById(2L)).thenReturn(Optional.of(cuentaDestino));
+        when(transaccionRepository.save(any(Transaccion.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        List<Transaccion> resultado = transaccionService.realizarTransferencia(
+            1L, 2L, new BigDecimal("30000"), "Transferencia test"
+        );
+
+        // Assert: el envío sí lleva el saldo de la cuenta origen
+        assertEquals(new BigDecimal("70000"), resultado.get(0).getSaldoPosterior());
+        assertNull(resultado.get(1).getSaldoPosterior());
+        verify(subsaldoCuentaService, never()).consolidar(2L);
+    }
+
     @Test
     @DisplayName("Realizar transferencia a misma cuenta - Debe fallar")
     void testRealizarTransferenciaMismaCuenta() {
@@ -207,6 +376,65 @@ class TransaccionServiceTest {
         verify(transaccionRepository, never()).save(any(Transaccion.class));
     }
     
+    @Test
+    @DisplayName("Historial sin meses archivados - Debe consultar solo la BD")
+    void testObtenerHistorialSoloEnLinea() {
+        // Arrange
+        Transaccion reciente = crearTransaccion(10L, LocalDateTime.now());
+        when(cuentaRepository.existsById(1L)).thenReturn(true);
+        when(transaccionRepository.findAllByCuentaId(1L)).thenReturn(List.of(reciente));
+        when(archivoTransaccionService.hayArchivadosAntesDe(any(LocalDateTime.class))).thenReturn(false);
+        
+        // Act
+        List<Transaccion> resultado = transaccionService.obtenerHistorialCuenta(1L);
+        
+        // Assert
+        assertEquals(List.of(reciente), resultado);
+        verify(archivoTransaccionService, never()).buscarArchivadas(any(), any(), any());
+    }
+    
+    @Test
+    @DisplayName("Historial que abarca meses archivados - Debe combinar BD y archivo")
+    void testObtenerHistorialConArchivados() {
+        // Arrange
+        LocalDateTime desde = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime hasta = LocalDateTime.now();
+        Transaccion reciente = crearTransaccion(10L, LocalDateTime.now().minusDays(1));
+        Transaccion archivada = crearTransaccion(3L, LocalDateTime.of(2024, 3, 5, 10, 0));
+        when(cuentaRepository.existsById(1L)).thenReturn(true);
+        when(transaccionRepository.findAllByCuentaIdAndFechaBetween(1L, desde, hasta)).thenReturn(List.of(reciente));
+        when(archivoTransaccionService.hayArchivadosAntesDe(desde)).thenReturn(true);
+        when(archivoTransaccionService.buscarArchivadas(1L, desde, hasta)).thenReturn(List.of(archivada, reciente));
+        
+        // Act
+        List<Transaccion> resultado = transaccionService.obtenerHistorialCuenta(1L, desde, hasta);
+        
+        // Assert
+        assertEquals(2, resultado.size());
+        assertEquals(10L, resultado.get(0).getId());
+        assertEquals(3L, resultado.get(1).getId());
+    }
+    
+    @Test
+    @DisplayName("Listado con rango que llega a meses archivados - Debe rechazarlo")
+    void testListarTransaccionesConArchivados() {
+        // Arrange
+        LocalDateTime desde = LocalDateTime.of(2024, 1, 1, 0, 0);
+        when(archivoTransaccionService.hayArchivadosAntesDe(desde)).thenReturn(true);
+        when(archivoTransaccionService.inicioDatosEnLinea()).thenReturn(LocalDateTime.of(2025, 11, 1, 0, 0));
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> transaccionService.listarTransacciones(null, desde, null, null, null,
+                    PageRequest.of(0, 20), false)
+        );
+
+        assertTrue(exception.getMessage().contains("meses archivados"));
+        assertTrue(exception.getMessage().contains("2025-11-01"));
+        verifyNoInteractions(transaccionRepository);
+    }
+
     @Test
     @DisplayName("Obtener transacción por ID - Debe retornar transacción")
     void testObtenerTransaccionPorId() {
@@ -237,4 +465,14 @@ class TransaccionServiceTest {
         
         assertTrue(exception.getMessage().contains("no encontrada"));
     }
+    
+    private Transaccion crearTransaccion(Long id, LocalDateTime fecha) {
+        Transaccion transaccion = new Transaccion();
+        transaccion.setId(id);
+        transaccion.setTipoTransaccion(Transaccion.TipoTransaccion.CONSIGNACION);
+        transaccion.setMonto(new BigDecimal("1000"));
+        transaccion.setFechaTransaccion(fecha);
+        transaccion.setCuentaOrigen(cuentaOrigen);
+        return transaccion;
+    }
 }
\ No newline at end of file
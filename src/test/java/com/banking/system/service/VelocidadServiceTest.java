@@ -0,0 +1,164 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.Transaccion.TipoTransaccion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para VelocidadService
+ */
+@DisplayName("Tests de VelocidadService")
+class VelocidadServiceTest {
+
+    private VelocidadService velocidadService;
+
+    private final AtomicLong ahora = new AtomicLong(1_000_000_000L);
+
+    @BeforeEach
+    void setUp() {
+        velocidadService = new VelocidadService();
+        ReflectionTestUtils.setField(velocidadService, "ventanaSegundos", 300);
+        ReflectionTestUtils.setField(velocidadService, "ranuras", 10);
+        ReflectionTestUtils.setField(velocidadService, "maxCuentas", 1000);
+        ReflectionTestUtils.setField(velocidadService, "retiroMaxOperaciones", 3);
+        ReflectionTestUtils.setField(velocidadService, "retiroMaxMonto", new BigDecimal("1000"));
+        ReflectionTestUtils.setField(velocidadService, "transferenciaMaxOperaciones", 10);
+        ReflectionTestUtils.setField(velocidadService, "transferenciaMaxMonto", new BigDecimal("5000"));
+        ReflectionTestUtils.setField(velocidadService, "reloj", (LongSupplier) ahora::get);
+        velocidadService.inicializar();
+    }
+
+    @Test
+    @DisplayName("Más operaciones que el máximo en la ventana - Debe bloquear")
+    void testMaximoOperaciones() {
+        for (int i = 0; i < 3; i++) {
+            velocidadService.verificarYRegistrar(1L, TipoTransaccion.RETIRO, new BigDecimal("10"));
+        }
+
+        FraudeSospechosoException exception = assertThrows(
+            FraudeSospechosoException.class,
+            () -> velocidadService.verificarYRegistrar(1L, TipoTransaccion.RETIRO, new BigDecimal("10"))
+        );
+
+        assertTrue(exception.getMessage().contains("más de 3 retiros en 5 minutos"));
+        // Las reglas son por cuenta y por tipo
+        velocidadService.verificarYRegistrar(2L, TipoTransaccion.RETIRO, new BigDecimal("10"));
+        velocidadService.verificarYRegistrar(1L, TipoTransaccion.TRANSFERENCIA_ENVIADA, new BigDecimal("10"));
+        assertEquals(1L, velocidadService.obtenerMetricas().bloqueos());
+    }
+
+    @Test
+    @DisplayName("Monto acumulado sobre el máximo - Debe bloquear")
+    void testMaximoMonto() {
+        velocidadService.verificarYRegistrar(1L, TipoTransaccion.RETIRO, new BigDecimal("600"));
+
+        FraudeSospechosoException exception = assertThrows(
+            FraudeSospechosoException.class,
+            () -> velocidadService.verificarYRegistrar(1L, TipoTransaccion.RETIRO, new BigDecimal("400.01"))
+        );
+
+        assertTrue(exception.getMessage().contains("supera $1000.00"));
+        velocidadService.verificarYRegistrar(1L, TipoTransaccion.RETIRO, new BigDecimal("400"));
+    }
+
+    @Test
+    @DisplayName("Ventana deslizante - Las operaciones viejas dejan de contar")
+    void testVentanaDeslizante() {
+        for (int i = 0; i < 3; i++) {
+            velocidadService.verificarYRegistrar(1L, TipoTransaccion.RETIRO, new BigDecimal("10"));
+            ahora.addAndGet(60_000);
+        }
+
+        // Pasados 5 minutos desde la primera, solo quedan dos en la ventana
+        ahora.addAndGet(120_000);
+        velocidadService.verificarYRegistrar(1L, TipoTransaccion.RETIRO, new BigDecimal("10"));
+        assertThrows(FraudeSospechosoException.class,
+                () -> velocidadService.verificarYRegistrar(1L, TipoTransaccion.RETIRO, new BigDecimal("10")));
+    }
+
+    @Test
+    @DisplayName("Rollback - La operación se descuenta de la ventana")
+    void testRollbackLiberaOperacion() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            for (int i = 0; i < 3; i++) {
+                velocidadService.verificarYRegistrar(1L, TipoTransaccion.RETIRO, new BigDecimal("10"));
+            }
+            for (TransactionSynchronization sincronizacion : TransactionSynchronizationManager.getSynchronizations()) {
+                sincronizacion.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        velocidadService.verificarYRegistrar(1L, TipoTransaccion.RETIRO, new BigDecimal("10"));
+    }
+
+    @Test
+    @DisplayName("Desalojo - Debe borrar las cuentas sin operaciones en la ventana")
+    void testDesalojarInactivas() {
+        velocidadService.verificarYRegistrar(1L, TipoTransaccion.RETIRO, new BigDecimal("10"));
+        assertEquals(1, velocidadService.obtenerMetricas().cuentasActivas());
+
+        ahora.addAndGet(301_000);
+        velocidadService.desalojarInactivas();
+
+        assertEquals(0, velocidadService.obtenerMetricas().cuentasActivas());
+    }
+
+    @Test
+    @DisplayName("Desalojo mientras otro hilo espera la ventana - El registro va a una ventana nueva")
+    void testDesalojoConcurrenteNoPierdeRegistro() throws Exception {
+        velocidadService.verificarYRegistrar(1L, TipoTransaccion.RETIRO, new BigDecimal("10"));
+        ahora.addAndGet(301_000);
+        Map<?, ?> ventanas = (Map<?, ?>) ReflectionTestUtils.getField(velocidadService, "ventanas");
+        Object vieja = ventanas.get(1L);
+
+        // Act: el hilo toma la ventana vieja del mapa y espera su lock
+        Thread hilo = new Thread(
+                () -> velocidadService.verificarYRegistrar(1L, TipoTransaccion.RETIRO, new BigDecimal("10")));
+        synchronized (vieja) {
+            hilo.start();
+            while (hilo.getState() != Thread.State.BLOCKED) {
+                Thread.sleep(1);
+            }
+            velocidadService.desalojarInactivas();
+        }
+        hilo.join(5000);
+
+        // Assert: el registro quedó en la ventana nueva y cuenta para el máximo
+        assertNotSame(vieja, ventanas.get(1L));
+        velocidadService.verificarYRegistrar(1L, TipoTransaccion.RETIRO, new BigDecimal("10"));
+        velocidadService.verificarYRegistrar(1L, TipoTransaccion.RETIRO, new BigDecimal("10"));
+        assertThrows(FraudeSospechosoException.class,
+                () -> velocidadService.verificarYRegistrar(1L, TipoTransaccion.RETIRO, new BigDecimal("10")));
+    }
+
+    @Test
+    @DisplayName("Ventana que no es de minutos exactos - El mensaje la da en segundos")
+    void testMensajeVentanaEnSegundos() {
+        ReflectionTestUtils.setField(velocidadService, "ventanaSegundos", 30);
+        velocidadService.inicializar();
+        velocidadService.verificarYRegistrar(1L, TipoTransaccion.RETIRO, new BigDecimal("999"));
+
+        FraudeSospechosoException exception = assertThrows(
+            FraudeSospechosoException.class,
+            () -> velocidadService.verificarYRegistrar(1L, TipoTransaccion.RETIRO, new BigDecimal("2"))
+        );
+
+        assertTrue(exception.getMessage().endsWith("supera $1000.00 en 30 segundos"));
+        assertEquals("1 minuto", VelocidadService.describirVentana(60));
+        assertEquals("90 segundos", VelocidadService.describirVentana(90));
+    }
+}
@@ -0,0 +1,166 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.Transaccion.TipoTransaccion;
+import com.banking.system.service.VelocidadService.MetricasVelocidad;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de carga de VelocidadService en memoria con 10M de cuentas activas:
+ * primero registra una operación en cada cuenta y mide la memoria que ocupan
+ * las ventanas, luego hace 10M verificaciones de varios hilos sobre cuentas
+ * al azar y mide la latencia de cada una. Reporta en el log operaciones por
+ * segundo, p50/p99/p99.9 y bytes por cuenta (medidos y estimados), y verifica
+ * que ninguna cuenta pase el máximo de operaciones de la ventana.
+ *
+ * Escala configurable con -Dbanking.velocidad.carga.cuentas y
+ * -Dbanking.velocidad.carga.operaciones (10M de cuentas necesitan -Xmx4g).
+ */
+@DisplayName("Prueba de carga de VelocidadService")
+class VelocidadStressTest {
+
+    private static final Logger log = LoggerFactory.getLogger(VelocidadStressTest.class);
+
+    private static final int CUENTAS = Integer.getInteger("banking.velocidad.carga.cuentas", 10_000_000);
+    private static final int OPERACIONES = Integer.getInteger("banking.velocidad.carga.operaciones", 10_000_000);
+    private static final int HILOS = 8;
+    private static final int MAX_OPERACIONES = 30;
+    private static final BigDecimal MONTO = new BigDecimal("10.00");
+
+    // Histograma de latencias en décimas de microsegundo, hasta 10 ms
+    private static final int RESOLUCION_NANOS = 100;
+    private static final int CASILLAS = 100_000;
+
+    @Test
+    @DisplayName("10M cuentas activas - Mide memoria por cuenta y latencia por verificación")
+    void testVerificacionesConCuentasActivas() throws Exception {
+        // Arrange: ventana de una hora, todo el recorrido cae en ella
+        VelocidadService velocidadService = new VelocidadService();
+        ReflectionTestUtils.setField(velocidadService, "ventanaSegundos", 3600);
+        ReflectionTestUtils.setField(velocidadService, "ranuras", 10);
+        ReflectionTestUtils.setField(velocidadService, "maxCuentas", CUENTAS);
+        ReflectionTestUtils.setField(velocidadService, "retiroMaxOperaciones", MAX_OPERACIONES);
+        ReflectionTestUtils.setField(velocidadService, "retiroMaxMonto", new BigDecimal("1000000"));
+        ReflectionTestUtils.setField(velocidadService, "transferenciaMaxOperaciones", MAX_OPERACIONES);
+        ReflectionTestUtils.setField(velocidadService, "transferenciaMaxMonto", new BigDecimal("1000000"));
+        velocidadService.inicializar();
+
+        // Act 1: una operación por cuenta para tenerlas todas activas
+        long memoriaAntes = memoriaUsada();
+        long inicioCarga = System.nanoTime();
+        ejecutarEnHilos(h -> {
+            for (long cuentaId = 1 + h; cuentaId <= CUENTAS; cuentaId += HILOS) {
+                velocidadService.verificarYRegistrar(cuentaId, TipoTransaccion.RETIRO, MONTO);
+            }
+            return new long[0];
+        });
+        double segundosCarga = (System.nanoTime() - inicioCarga) / 1_000_000_000.0;
+        long bytesPorCuenta = (memoriaUsada() - memoriaAntes) / CUENTAS;
+        MetricasVelocidad cargadas = velocidadService.obtenerMetricas();
+        log.info("Velocidad: {} cuentas activas en {} s, {} bytes por cuenta medidos ({} estimados), {} MB en total",
+                cargadas.cuentasActivas(), String.format("%.1f", segundosCarga), bytesPorCuenta,
+                cargadas.bytesEstimados() / cargadas.cuentasActivas(), bytesPorCuenta * CUENTAS / (1024 * 1024));
+
+        // Act 2: cada hilo recorre su parte con xorshift (sin arreglos de 10M)
+        long inicio = System.nanoTime();
+        List<long[]> resultados = ejecutarEnHilos(h -> {
+            long[] histograma = new long[CASILLAS + 2];
+            long semilla = 7 + h;
+            for (int i = 0; i < OPERACIONES / HILOS; i++) {
+                semilla ^= semilla << 13;
+                semilla ^= semilla >>> 7;
+                semilla ^= semilla << 17;
+                long cuentaId = 1 + (semilla >>> 1) % CUENTAS;
+                TipoTransaccion tipo = (semilla & 1) == 0
+                        ? TipoTransaccion.RETIRO : TipoTransaccion.TRANSFERENCIA_ENVIADA;
+                long t0 = System.nanoTime();
+                try {
+                    velocidadService.verificarYRegistrar(cuentaId, tipo, MONTO);
+                } catch (FraudeSospechosoException e) {
+                    // Las últimas dos casillas cuentan registradas y bloqueadas
+                    histograma[CASILLAS + 1]++;
+                }
+                histograma[(int) Math.min(CASILLAS - 1, (System.nanoTime() - t0) / RESOLUCION_NANOS)]++;
+                histograma[CASILLAS]++;
+            }
+            return histograma;
+        });
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+        long[] histograma = new long[CASILLAS + 2];
+        for (long[] parcial : resultados) {
+            for (int i = 0; i < histograma.length; i++) {
+                histograma[i] += parcial[i];
+            }
+        }
+        long verificaciones = histograma[CASILLAS];
+        long bloqueadas = histograma[CASILLAS + 1];
+
+        // Assert
+        MetricasVelocidad metricas = velocidadService.obtenerMetricas();
+        log.info("Velocidad: {} verificaciones de {} hilos en {} s ({} op/s), p50={} us  p99={} us  p99.9={} us, "
+                + "{} bloqueadas", verificaciones, HILOS, String.format("%.2f", segundos),
+                String.format("%.0f", verificaciones / segundos), percentil(histograma, 0.50),
+                percentil(histograma, 0.99), percentil(histograma, 0.999), bloqueadas);
+        assertEquals((long) OPERACIONES / HILOS * HILOS, verificaciones);
+        assertEquals(bloqueadas, metricas.bloqueos());
+        assertEquals(CUENTAS, metricas.cuentasActivas());
+        // Cada cuenta registra como máximo MAX_OPERACIONES por regla
+        assertTrue(CUENTAS + verificaciones - bloqueadas <= (long) CUENTAS * 2 * MAX_OPERACIONES);
+    }
+
+    private interface Tarea {
+        long[] ejecutar(int hilo);
+    }
+
+    private List<long[]> ejecutarEnHilos(Tarea tarea) throws Exception {
+        ExecutorService ejecutor = Executors.newFixedThreadPool(HILOS);
+        List<Future<long[]>> tareas = new ArrayList<>();
+        for (int h = 0; h < HILOS; h++) {
+            int hilo = h;
+            tareas.add(ejecutor.submit(() -> tarea.ejecutar(hilo)));
+        }
+        List<long[]> resultados = new ArrayList<>();
+        for (Future<long[]> futuro : tareas) {
+            resultados.add(futuro.get());
+        }
+        ejecutor.shutdown();
+        return resultados;
+    }
+
+    /**
+     * Percentil del histograma en microsegundos
+     */
+    private String percentil(long[] histograma, double p) {
+        long objetivo = (long) Math.ceil(histograma[CASILLAS] * p);
+        long acumulado = 0;
+        for (int i = 0; i < CASILLAS; i++) {
+            acumulado += histograma[i];
+            if (acumulado >= objetivo) {
+                return String.format("%.1f", (i + 1) * RESOLUCION_NANOS / 1000.0);
+            }
+        }
+        return ">" + CASILLAS * RESOLUCION_NANOS / 1000;
+    }
+
+    private long memoriaUsada() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
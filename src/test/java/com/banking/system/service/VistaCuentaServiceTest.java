@@ -0,0 +1,206 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.Cliente;
+import com.banking.system.entity.Cuenta;
+import com.banking.system.entity.Cuenta.EstadoCuenta;
+import com.banking.system.entity.Cuenta.TipoCuenta;
+import com.banking.system.entity.EventoOutbox;
+import com.banking.system.entity.EventoOutbox.TipoEvento;
+import com.banking.system.entity.VistaCuenta;
+import com.banking.system.repository.CuentaRepository;
+import com.banking.system.repository.EventoOutboxRepository;
+import com.banking.system.repository.VistaCuentaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para VistaCuentaService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de VistaCuentaService")
+class VistaCuentaServiceTest {
+
+    @Mock
+    private VistaCuentaRepository vistaCuentaRepository;
+
+    @Mock
+    private CuentaRepository cuentaRepository;
+
+    @Mock
+    private EventoOutboxRepository eventoOutboxRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private VistaCuentaService vistaCuentaService;
+
+    private VistaCuenta vista;
+
+    // Eventos anotados en eventos_aplicados_vista
+    private final Set<Long> aplicados = new HashSet<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(vistaCuentaService, "maximoMovimientos", 2);
+
+        vista = new VistaCuenta(1L);
+        vista.setNumeroCuenta("5300000001");
+        vista.setEstado(EstadoCuenta.ACTIVA);
+        vista.setSaldo(new BigDecimal("1000.00"));
+        vista.setUltimoEventoId(10L);
+        lenient().when(vistaCuentaRepository.findParaActualizar(1L)).thenReturn(Optional.of(vista));
+        lenient().when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), anyLong()))
+                .thenAnswer(inv -> aplicados.contains(inv.<Long>getArgument(2)) ? 1 : 0);
+        lenient().when(jdbcTemplate.update(anyString(), anyLong(), anyLong(), any()))
+                .thenAnswer(inv -> aplicados.add(inv.getArgument(1)) ? 1 : 0);
+    }
+
+    @Test
+    @DisplayName("Alta de cuenta - Debe crear la vista con el nombre del cliente")
+    void testProyectarCuentaCreada() {
+        // Arrange
+        Cliente cliente = new Cliente();
+        cliente.setId(7L);
+        cliente.setNombres("Juan");
+        cliente.setApellido("Perez");
+        Cuenta cuenta = new Cuenta();
+        cuenta.setId(2L);
+        cuenta.setNumeroCuenta("3300000001");
+        cuenta.setTipoCuenta(TipoCuenta.CUENTA_CORRIENTE);
+        cuenta.setEstado(EstadoCuenta.ACTIVA);
+        cuenta.setCliente(cliente);
+        when(vistaCuentaRepository.findParaActualizar(2L)).thenReturn(Optional.empty());
+        when(cuentaRepository.findById(2L)).thenReturn(Optional.of(cuenta));
+
+        // Act
+        vistaCuentaService.alPublicar(evento(1L, TipoEvento.CUENTA_CREADA, 2L, null, "500.00", "CUENTA_CORRIENTE"));
+
+        // Assert
+        verify(vistaCuentaRepository).save(argThat(v -> "Juan Perez".equals(v.getNombreCliente())
+                && v.getClienteId() == 7L
+                && new BigDecimal("500.00").equals(v.getSaldo())));
+    }
+
+    @Test
+    @DisplayName("Transacción - Debe actualizar saldo, totales del mes y últimos movimientos")
+    void testProyectarTransacciones() {
+        // Act
+        vistaCuentaService.alPublicar(evento(11L, TipoEvento.TRANSACCION_REGISTRADA, 1L, "200.00", "1200.00", "CONSIGNACION"));
+        vistaCuentaService.alPublicar(evento(12L, TipoEvento.TRANSACCION_REGISTRADA, 1L, "50.00", "1150.00", "RETIRO"));
+        vistaCuentaService.alPublicar(evento(13L, TipoEvento.TRANSACCION_REGISTRADA, 1L, "0.20", "1149.80", "GMF"));
+
+        // Assert
+        assertEquals(new BigDecimal("1149.80"), vista.getSaldo());
+        assertEquals(new BigDecimal("200.00"), vista.getCreditosMes());
+        assertEquals(new BigDecimal("50.20"), vista.getDebitosMes());
+        assertEquals(3L, vista.getMovimientosMes());
+        assertEquals(2, vista.getUltimosMovimientos().size());
+        assertEquals(13L, vista.getUltimosMovimientos().get(0).eventoId());
+        assertEquals(13L, vista.getUltimoEventoId());
+        verifyNoInteractions(cuentaRepository);
+    }
+
+    @Test
+    @DisplayName("Evento atrasado - Debe sumar el movimiento sin pisar el saldo")
+    void testProyectarEventoDesordenado() {
+        vistaCuentaService.alPublicar(evento(9L, TipoEvento.TRANSACCION_REGISTRADA, 1L, "100.00", "900.00", "RETIRO"));
+
+        assertEquals(new BigDecimal("1000.00"), vista.getSaldo());
+        assertEquals(new BigDecimal("100.00"), vista.getDebitosMes());
+        assertEquals(10L, vista.getUltimoEventoId());
+    }
+
+    @Test
+    @DisplayName("Abono en ranura sin saldo - Debe tomar el saldo actual de la cuenta")
+    void testProyectarAbonoEnRanura() {
+        Cuenta cuenta = new Cuenta();
+        cuenta.setId(1L);
+        cuenta.setSaldo(new BigDecimal("1300.00"));
+        when(cuentaRepository.findById(1L)).thenReturn(Optional.of(cuenta));
+
+        vistaCuentaService.alPublicar(evento(12L, TipoEvento.TRANSACCION_REGISTRADA, 1L, "300.00", null, "CONSIGNACION"));
+
+        assertEquals(new BigDecimal("1300.00"), vista.getSaldo());
+        assertEquals(new BigDecimal("300.00"), vista.getCreditosMes());
+        assertEquals(12L, vista.getUltimoEventoId());
+    }
+
+    @Test
+    @DisplayName("Evento reentregado - No debe contarse dos veces")
+    void testProyectarEventoDuplicado() {
+        EventoOutbox consignacion = evento(11L, TipoEvento.TRANSACCION_REGISTRADA, 1L, "200.00", "1200.00", "CONSIGNACION");
+
+        vistaCuentaService.alPublicar(consignacion);
+        vistaCuentaService.alPublicar(consignacion);
+
+        assertEquals(new BigDecimal("200.00"), vista.getCreditosMes());
+        assertEquals(1L, vista.getMovimientosMes());
+        verify(vistaCuentaRepository, times(1)).save(any(VistaCuenta.class));
+    }
+
+    @Test
+    @DisplayName("Reentrega fuera de los últimos movimientos - No debe contarse dos veces")
+    void testProyectarReentregaAntigua() {
+        EventoOutbox consignacion = evento(11L, TipoEvento.TRANSACCION_REGISTRADA, 1L, "200.00", "1200.00", "CONSIGNACION");
+        vistaCuentaService.alPublicar(consignacion);
+        vistaCuentaService.alPublicar(evento(12L, TipoEvento.TRANSACCION_REGISTRADA, 1L, "10.00", "1190.00", "RETIRO"));
+        vistaCuentaService.alPublicar(evento(13L, TipoEvento.TRANSACCION_REGISTRADA, 1L, "10.00", "1180.00", "RETIRO"));
+
+        // El evento 11 ya salió de los dos últimos movimientos
+        vistaCuentaService.alPublicar(consignacion);
+
+        assertEquals(new BigDecimal("200.00"), vista.getCreditosMes());
+        assertEquals(3L, vista.getMovimientosMes());
+        assertEquals(new BigDecimal("1180.00"), vista.getSaldo());
+    }
+
+    @Test
+    @DisplayName("Purga de eventos aplicados - Debe borrar los que salieron del outbox")
+    void testPurgarEventosAplicados() {
+        when(jdbcTemplate.update(anyString())).thenReturn(4);
+
+        assertEquals(4, vistaCuentaService.purgarEventosAplicados());
+        verify(jdbcTemplate).update(contains("NOT EXISTS"));
+    }
+
+    @Test
+    @DisplayName("Obtener vista inexistente - Debe fallar")
+    void testObtenerVistaInexistente() {
+        when(vistaCuentaRepository.findById(999L)).thenReturn(Optional.empty());
+
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> vistaCuentaService.obtenerVista(999L)
+        );
+
+        assertTrue(exception.getMessage().contains("No hay vista"));
+    }
+
+    private EventoOutbox evento(Long id, TipoEvento tipo, Long cuentaId, String monto, String saldo, String detalle) {
+        EventoOutbox evento = new EventoOutbox(tipo, cuentaId, id + 100,
+                monto != null ? new BigDecimal(monto) : null, saldo != null ? new BigDecimal(saldo) : null, detalle);
+        evento.setId(id);
+        evento.setFechaCreacion(LocalDateTime.now());
+        return evento;
+    }
+}
@@ -0,0 +1,217 @@
+package com.banking.system.service;
+
+import com.banking.system.entity.Cliente;
+import com.banking.system.entity.Cuenta;
+import com.banking.system.entity.Cuenta.TipoCuenta;
+import com.banking.system.entity.EventoOutbox.EstadoEvento;
+import com.banking.system.entity.VistaCuenta;
+import com.banking.system.repository.CuentaRepository;
+import com.banking.system.repository.EventoOutboxRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de carga del modelo de lectura: varios hilos leen vistas (por cuenta
+ * y por cliente) primero solos y luego mientras otros hilos consignan y el
+ * despachador del outbox proyecta los eventos. Reporta en el log lecturas/s,
+ * p50 y p99 de cada fase y verifica al final que cada vista tenga el saldo de
+ * su cuenta y un solo movimiento por consignación.
+ *
+ * Tamaño y duración configurables con -Dbanking.vistas.carga.cuentas y
+ * -Dbanking.vistas.carga.segundos.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:vistas-carga;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "banking.outbox.hilos=2",
+    "banking.outbox.intervalo-ms=50"
+})
+@DisplayName("Prueba de carga de VistaCuentaService")
+class VistaCuentaStressTest {
+
+    private static final Logger log = LoggerFactory.getLogger(VistaCuentaStressTest.class);
+
+    private static final int CUENTAS = Integer.getInteger("banking.vistas.carga.cuentas", 2_000);
+    private static final int SEGUNDOS = Integer.getInteger("banking.vistas.carga.segundos", 5);
+    private static final int CUENTAS_POR_CLIENTE = 4;
+    private static final int LECTORES = 4;
+    private static final int ESCRITORES = 4;
+    private static final int MAXIMO_MEDICIONES = 1 << 20;
+    private static final BigDecimal MONTO = new BigDecimal("1.00");
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private CuentaService cuentaService;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private TransaccionService transaccionService;
+
+    @Autowired
+    private VistaCuentaService vistaCuentaService;
+
+    @Autowired
+    private EventoOutboxRepository eventoOutboxRepository;
+
+    private record Resultado(long lecturas, double porSegundo, double p50Ms, double p99Ms) {
+    }
+
+    @Test
+    @DisplayName("Lecturas de vistas con y sin escrituras - Vistas consistentes al drenar el outbox")
+    void testLecturasBajoEscrituras() throws Exception {
+        // Arrange
+        List<Long> clientes = new ArrayList<>();
+        List<Long> cuentas = crearCuentas(clientes);
+        esperarOutboxVacio();
+
+        // Act: lecturas solas y luego con escritores consignando
+        Resultado sinEscrituras = leer(cuentas, clientes, 0, new ConcurrentHashMap<>());
+        Map<Long, AtomicLong> consignaciones = new ConcurrentHashMap<>();
+        Resultado conEscrituras = leer(cuentas, clientes, ESCRITORES, consignaciones);
+        long escritas = consignaciones.values().stream().mapToLong(AtomicLong::get).sum();
+
+        log.info("Vistas: {} cuentas, lecturas sin escrituras: {} lecturas/s  p50={} ms  p99={} ms",
+                CUENTAS, String.format("%.0f", sinEscrituras.porSegundo()),
+                String.format("%.2f", sinEscrituras.p50Ms()), String.format("%.2f", sinEscrituras.p99Ms()));
+        log.info("Vistas: lecturas con {} escritores: {} lecturas/s  p50={} ms  p99={} ms  escrituras={} ({}/s)",
+                ESCRITORES, String.format("%.0f", conEscrituras.porSegundo()),
+                String.format("%.2f", conEscrituras.p50Ms()), String.format("%.2f", conEscrituras.p99Ms()),
+                escritas, String.format("%.0f", escritas / (double) SEGUNDOS));
+
+        long inicioDrenado = System.nanoTime();
+        esperarOutboxVacio();
+        log.info("Vistas: outbox drenado {} ms después de las escrituras",
+                (System.nanoTime() - inicioDrenado) / 1_000_000);
+
+        // Assert: cada consignación se proyectó una sola vez
+        assertTrue(sinEscrituras.lecturas() > 0 && conEscrituras.lecturas() > 0);
+        assertTrue(escritas > 0);
+        for (Long cuentaId : cuentas) {
+            VistaCuenta vista = vistaCuentaService.obtenerVista(cuentaId);
+            long esperadas = consignaciones.getOrDefault(cuentaId, new AtomicLong()).get();
+            BigDecimal saldo = cuentaRepository.findById(cuentaId).orElseThrow().getSaldo();
+            assertEquals(0, saldo.compareTo(vista.getSaldo()), "Saldo de la vista de la cuenta " + cuentaId);
+            assertEquals(esperadas, vista.getMovimientosMes() != null ? vista.getMovimientosMes() : 0L,
+                    "Movimientos de la vista de la cuenta " + cuentaId);
+        }
+    }
+
+    private Resultado leer(List<Long> cuentas, List<Long> clientes, int escritores,
+            Map<Long, AtomicLong> consignaciones) throws Exception {
+        ExecutorService ejecutor = Executors.newFixedThreadPool(LECTORES + escritores);
+        AtomicBoolean corriendo = new AtomicBoolean(true);
+
+        for (int e = 0; e < escritores; e++) {
+            ejecutor.submit(() -> {
+                while (corriendo.get()) {
+                    Long cuentaId = cuentas.get(ThreadLocalRandom.current().nextInt(cuentas.size()));
+                    transaccionService.realizarConsignacion(cuentaId, MONTO, null);
+                    consignaciones.computeIfAbsent(cuentaId, id -> new AtomicLong()).incrementAndGet();
+                }
+                return null;
+            });
+        }
+
+        List<Future<long[]>> lectores = new ArrayList<>();
+        long fin = System.nanoTime() + SEGUNDOS * 1_000_000_000L;
+        long inicio = System.nanoTime();
+        for (int l = 0; l < LECTORES; l++) {
+            lectores.add(ejecutor.submit(() -> {
+                long[] latencias = new long[MAXIMO_MEDICIONES];
+                int n = 0;
+                while (n < latencias.length && System.nanoTime() < fin) {
+                    ThreadLocalRandom azar = ThreadLocalRandom.current();
+                    long t0 = System.nanoTime();
+                    // Tres lecturas por cuenta por cada una por cliente
+                    if (azar.nextInt(4) == 0) {
+                        vistaCuentaService.obtenerVistasPorCliente(clientes.get(azar.nextInt(clientes.size())));
+                    } else {
+                        vistaCuentaService.obtenerVista(cuentas.get(azar.nextInt(cuentas.size())));
+                    }
+                    latencias[n++] = System.nanoTime() - t0;
+                }
+                return Arrays.copyOf(latencias, n);
+            }));
+        }
+
+        List<long[]> porLector = new ArrayList<>();
+        for (Future<long[]> lector : lectores) {
+            porLector.add(lector.get());
+        }
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+        corriendo.set(false);
+        ejecutor.shutdown();
+        while (!ejecutor.isTerminated()) {
+            ejecutor.awaitTermination(1, TimeUnit.SECONDS);
+        }
+
+        long[] ordenadas = porLector.stream().flatMapToLong(Arrays::stream).toArray();
+        Arrays.sort(ordenadas);
+        return new Resultado(ordenadas.length, ordenadas.length / segundos,
+                percentil(ordenadas, 0.50), percentil(ordenadas, 0.99));
+    }
+
+    private double percentil(long[] ordenadas, double p) {
+        return ordenadas.length > 0 ? ordenadas[(int) Math.ceil(ordenadas.length * p) - 1] / 1_000_000.0 : 0;
+    }
+
+    private List<Long> crearCuentas(List<Long> clientes) {
+        List<Long> ids = new ArrayList<>();
+        Long clienteId = null;
+        for (int i = 0; i < CUENTAS; i++) {
+            if (i % CUENTAS_POR_CLIENTE == 0) {
+                Cliente cliente = new Cliente();
+                cliente.setTipoIdentificacion("CC");
+                cliente.setNumeroIdentificacion(String.valueOf(900_000 + i));
+                cliente.setNombres("Carga");
+                cliente.setApellido("Vistas");
+                cliente.setCorreoElectronico("vistas" + i + "@correo.com");
+                cliente.setFechaNacimiento(LocalDate.of(1990, 1, 1));
+                clienteId = clienteService.crearCliente(cliente).getId();
+                clientes.add(clienteId);
+            }
+            Cuenta cuenta = new Cuenta();
+            cuenta.setTipoCuenta(TipoCuenta.CUENTA_CORRIENTE);
+            cuenta.setSaldo(BigDecimal.ZERO);
+            cuenta.setExentaGMF(true);
+            ids.add(cuentaService.crearCuenta(cuenta, clienteId).getId());
+        }
+        return ids;
+    }
+
+    private void esperarOutboxVacio() throws InterruptedException {
+        long limite = System.nanoTime() + 120_000_000_000L;
+        while (eventoOutboxRepository.countByEstado(EstadoEvento.PENDIENTE) > 0) {
+            assertTrue(System.nanoTime() < limite, "El outbox no se drenó en 2 minutos");
+            Thread.sleep(50);
+        }
+    }
+}